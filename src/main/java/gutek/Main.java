@@ -2,20 +2,48 @@ package gutek;
 
 import gutek.gui.controllers.MainStageScenes;
 import gutek.gui.controllers.MainStage;
+import gutek.domain.reports.ReportFormat;
+import gutek.services.ChartReportService;
+import gutek.services.ChartService;
+import gutek.services.TranslationService;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.stage.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
 
 /**
  * Main class of the application.
  * It starts the Spring Boot application and launches the JavaFX GUI.
+ * <p>
+ * When started with {@code --app.reports.output-dir=<directory>}, the GUI is not launched: the statistics charts
+ * of all decks are written to the directory and the application exits. The written formats and the range in days
+ * can be set with {@code --app.reports.formats=CSV,SVG,PNG} and {@code --app.reports.range=361}.
+ * </p>
  */
 @SpringBootApplication
 public class Main extends Application{
+    /**
+     * Property holding the directory of the headless chart reports.
+     */
+    private static final String REPORTS_OUTPUT_DIR_PROPERTY = "app.reports.output-dir";
+
+    /**
+     * Logger reporting the outcome of the headless chart reports.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(Main.class);
+
     /**
      * Spring application context for managing the lifecycle and dependencies of beans within the application.
      */
@@ -27,9 +55,42 @@ public class Main extends Application{
      * @param args command line arguments passed to the application
      */
     public static void main(String[] args) {
+        if (Arrays.stream(args).anyMatch(arg -> arg.startsWith("--" + REPORTS_OUTPUT_DIR_PROPERTY + "="))) {
+            System.exit(generateReports(args));
+        }
         Application.launch(Main.class, args);
     }
 
+    /**
+     * Writes the chart reports of all decks without launching the GUI.
+     *
+     * @param args command line arguments holding the report properties
+     * @return the exit code of the application
+     */
+    private static int generateReports(String[] args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Main.class).headless(true).run(args);
+        try {
+            Environment environment = context.getEnvironment();
+            Path outputDirectory = Path.of(environment.getRequiredProperty(REPORTS_OUTPUT_DIR_PROPERTY));
+            int range = environment.getProperty("app.reports.range", Integer.class, ChartService.MAX_RANGE);
+            Set<ReportFormat> formats = EnumSet.noneOf(ReportFormat.class);
+            for (String format : environment.getProperty("app.reports.formats", "CSV,SVG,PNG").split(",")) {
+                formats.add(ReportFormat.valueOf(format.trim().toUpperCase()));
+            }
+            context.getBean(TranslationService.class).updateLocale(null);
+            int writtenFiles = context.getBean(ChartReportService.class)
+                    .generateAllReports(range, formats, outputDirectory, null)
+                    .getResult().join();
+            LOGGER.info("Written {} chart reports to {}", writtenFiles, outputDirectory.toAbsolutePath());
+            return SpringApplication.exit(context);
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            LOGGER.error("Writing the chart reports failed: {}", cause.getMessage());
+            SpringApplication.exit(context);
+            return 1;
+        }
+    }
+
     /**
      * Initialization method.
      * Called before the start() method.
@@ -0,0 +1,36 @@
+package gutek.config;
+
+import gutek.domain.time.SimulatedClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Configuration class for the clock used by the application.
+ * <p>
+ * By default the system clock is used. Setting the {@code app.clock.simulated-start} property to a date
+ * (e.g. {@code 2024-01-01}) starts the application with a {@link SimulatedClock} set to that day instead,
+ * which is useful for simulations and load generation.
+ * </p>
+ */
+@Configuration
+public class ClockConfig {
+
+    /**
+     * Defines the clock of the application.
+     *
+     * @param simulatedStart the start date of the simulated clock, or an empty string for the system clock
+     * @return the clock of the application
+     */
+    @Bean
+    public Clock clock(@Value("${app.clock.simulated-start:}") String simulatedStart) {
+        if (simulatedStart.isBlank()) {
+            return Clock.systemDefaultZone();
+        }
+        return SimulatedClock.startingAt(LocalDate.parse(simulatedStart), ZoneId.systemDefault());
+    }
+}
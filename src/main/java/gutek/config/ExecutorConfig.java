@@ -0,0 +1,51 @@
+package gutek.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration class for the thread pools used by long-running background jobs.
+ * <p>
+ * Two pools are defined: {@code backgroundExecutor} runs job coordinators and any blocking work
+ * (e.g. database access), so the JavaFX application thread is never blocked, while {@code computePool}
+ * is sized to the number of processors and is used only for CPU-bound work split into chunks.
+ * All threads are daemon threads, so running jobs never prevent the application from closing.
+ * </p>
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Defines the executor for job coordinators and blocking background work.
+     *
+     * @return a cached thread pool creating daemon threads
+     */
+    @Bean
+    @Primary
+    public ExecutorService backgroundExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "background-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * Defines the pool for CPU-bound work.
+     *
+     * @return a fork-join pool with parallelism equal to the number of available processors
+     */
+    @Bean
+    public ForkJoinPool computePool() {
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,28 @@
+package gutek.domain.algorithms;
+
+/**
+ * Implementation of the batch scheduling kernels loaded at runtime by {@link SchedulingKernels}.
+ * <p>
+ * The vectorized implementation is compiled only by the {@code vector} Maven profile, so the kernels
+ * refer to it through this interface instead of its class.
+ * </p>
+ */
+interface BatchSchedulingKernels {
+
+    /**
+     * Applies one SuperMemo2 revision step to the given cards.
+     *
+     * @see SchedulingKernels#superMemo2(int[], int[], int[], double[], int[], int[], int, double, int)
+     */
+    void superMemo2(int[] grades, int[] repetitions, int[] intervals, double[] easinessFactors,
+                    int[] incorrectCounters, int[] dueInDays, int length,
+                    double initialEasinessFactor, int incorrectAnswerThreshold);
+
+    /**
+     * Applies one Constant Coefficient revision step to the given cards.
+     *
+     * @see SchedulingKernels#constantCoefficient(int[], double[], int[], int[], int, double[], int)
+     */
+    void constantCoefficient(int[] pressedButtonIndexes, double[] baseRevisionTimes, int[] incorrectCounters,
+                             int[] dueInDays, int length, double[] coefficients, int incorrectAnswerThreshold);
+}
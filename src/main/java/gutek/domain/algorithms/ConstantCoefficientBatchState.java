@@ -0,0 +1,82 @@
+package gutek.domain.algorithms;
+
+import gutek.entities.cards.CardConstantCoefficient;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Scheduling state of many {@link CardConstantCoefficient} cards stored as primitive arrays.
+ * <p>
+ * The state holds the fields of either the regular or the reverse revision process and is
+ * processed by {@link SchedulingKernels#constantCoefficient}. After a revision step the results can be
+ * written back to the card entities with {@link #applyTo(List, boolean, LocalDate)}.
+ * </p>
+ */
+@Getter
+public class ConstantCoefficientBatchState {
+
+    /** Number of cards held by this state. */
+    private final int size;
+
+    /** Base revision times of the cards. */
+    private final double[] baseRevisionTimes;
+
+    /** Incorrect answer counters of the cards. */
+    private final int[] incorrectCounters;
+
+    /** Number of days until the next revision, filled by the last revision step. */
+    private final int[] dueInDays;
+
+    /**
+     * Creates an empty state for the given number of cards.
+     *
+     * @param size the number of cards
+     */
+    public ConstantCoefficientBatchState(int size) {
+        this.size = size;
+        this.baseRevisionTimes = new double[size];
+        this.incorrectCounters = new int[size];
+        this.dueInDays = new int[size];
+    }
+
+    /**
+     * Copies the scheduling state of the given cards into a new batch state.
+     *
+     * @param cards   the cards to copy
+     * @param reverse {@code true} to copy the reverse revision fields, {@code false} for the regular ones
+     * @return the batch state holding the cards' scheduling fields
+     */
+    public static ConstantCoefficientBatchState fromCards(List<CardConstantCoefficient> cards, boolean reverse) {
+        ConstantCoefficientBatchState state = new ConstantCoefficientBatchState(cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            CardConstantCoefficient card = cards.get(i);
+            state.baseRevisionTimes[i] = reverse ? card.getBaseReverseRevisionTime() : card.getBaseRevisionTime();
+            state.incorrectCounters[i] = reverse ? card.getReverseIncorrectCounter() : card.getIncorrectCounter();
+        }
+        return state;
+    }
+
+    /**
+     * Writes the scheduling state back to the given cards and sets their next revision dates.
+     *
+     * @param cards   the cards to update, in the same order as used to create the state
+     * @param reverse {@code true} to update the reverse revision fields, {@code false} for the regular ones
+     * @param today   the date from which the next revision dates are calculated
+     */
+    public void applyTo(List<CardConstantCoefficient> cards, boolean reverse, LocalDate today) {
+        for (int i = 0; i < size; i++) {
+            CardConstantCoefficient card = cards.get(i);
+            if (reverse) {
+                card.setBaseReverseRevisionTime(baseRevisionTimes[i]);
+                card.setReverseIncorrectCounter(incorrectCounters[i]);
+                card.setNextReverseRevisionDate(today.plusDays(dueInDays[i]));
+            } else {
+                card.setBaseRevisionTime(baseRevisionTimes[i]);
+                card.setIncorrectCounter(incorrectCounters[i]);
+                card.setNextRegularRevisionDate(today.plusDays(dueInDays[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package gutek.domain.algorithms;
+
+/**
+ * Result of fitting the weights of the {@link FsrsMemoryModel} to a review history.
+ *
+ * @param weights               the fitted weights
+ * @param initialLogLoss        the average log loss of the initial weights
+ * @param logLoss               the average log loss of the fitted weights
+ * @param predictedReviewsCount the number of reviews used for computing the loss
+ */
+public record FsrsFitResult(double[] weights, double initialLogLoss, double logLoss, int predictedReviewsCount) {
+}
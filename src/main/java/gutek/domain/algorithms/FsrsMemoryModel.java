@@ -0,0 +1,205 @@
+package gutek.domain.algorithms;
+
+/**
+ * Stability/difficulty memory model used by the FSRS revision algorithm.
+ * <p>
+ * The memory state of a card consists of its stability {@code S} (the number of days after which the probability
+ * of recall drops to 90%) and its difficulty {@code D} (between 1 and 10). The model is parametrised by
+ * {@value #WEIGHTS_COUNT} weights, {@code w[0]}-{@code w[16]}, with the meaning defined by the FSRS 4.5 model:
+ * </p>
+ * <ul>
+ *     <li>{@code w[0]}-{@code w[3]} - initial stability after the first answer graded 1-4,</li>
+ *     <li>{@code w[4]}, {@code w[5]} - initial difficulty and its dependence on the first grade,</li>
+ *     <li>{@code w[6]}, {@code w[7]} - difficulty change per grade and mean reversion,</li>
+ *     <li>{@code w[8]}-{@code w[10]} - stability increase after a successful recall,</li>
+ *     <li>{@code w[11]}-{@code w[14]} - stability after forgetting,</li>
+ *     <li>{@code w[15]}, {@code w[16]} - penalty for "hard" and bonus for "easy" answers.</li>
+ * </ul>
+ * Grades are numbered from 1 (forgotten) to 4 (easy).
+ */
+public final class FsrsMemoryModel {
+
+    /**
+     * Number of weights of the model.
+     */
+    public static final int WEIGHTS_COUNT = 17;
+
+    /**
+     * Exponent of the power forgetting curve.
+     */
+    public static final double DECAY = -0.5;
+
+    /**
+     * Factor of the forgetting curve, chosen so that the retrievability equals 0.9 when the elapsed time equals the stability.
+     */
+    public static final double FACTOR = 19.0 / 81.0;
+
+    /**
+     * Lowest allowed stability, in days.
+     */
+    public static final double MIN_STABILITY = 0.01;
+
+    /**
+     * Lowest allowed difficulty.
+     */
+    public static final double MIN_DIFFICULTY = 1.0;
+
+    /**
+     * Highest allowed difficulty.
+     */
+    public static final double MAX_DIFFICULTY = 10.0;
+
+    /**
+     * Default weights, fitted by the FSRS authors on a large collection of reviews.
+     */
+    private static final double[] DEFAULT_WEIGHTS = {
+            0.4872, 1.4003, 3.7145, 13.8206, 5.1618, 1.2298, 0.8975, 0.031, 1.6474,
+            0.1367, 1.0461, 2.1072, 0.0793, 0.3246, 1.587, 0.2272, 2.8755
+    };
+
+    /**
+     * Lowest allowed value of every weight.
+     */
+    private static final double[] MIN_WEIGHTS = {
+            0.01, 0.01, 0.01, 0.01, 1.0, 0.01, 0.01, 0.0, 0.0,
+            0.0, 0.01, 0.01, 0.01, 0.01, 0.01, 0.0, 1.0
+    };
+
+    /**
+     * Highest allowed value of every weight.
+     */
+    private static final double[] MAX_WEIGHTS = {
+            100.0, 100.0, 100.0, 100.0, 10.0, 4.0, 4.0, 0.75, 4.5,
+            0.8, 3.5, 5.0, 0.25, 0.9, 4.0, 1.0, 6.0
+    };
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private FsrsMemoryModel() {
+    }
+
+    /**
+     * Returns a copy of the default weights.
+     *
+     * @return the default weights
+     */
+    public static double[] defaultWeights() {
+        return DEFAULT_WEIGHTS.clone();
+    }
+
+    /**
+     * Returns the lowest allowed value of the weight with the given index.
+     *
+     * @param index the index of the weight
+     * @return the lowest allowed value
+     */
+    public static double minWeight(int index) {
+        return MIN_WEIGHTS[index];
+    }
+
+    /**
+     * Returns the highest allowed value of the weight with the given index.
+     *
+     * @param index the index of the weight
+     * @return the highest allowed value
+     */
+    public static double maxWeight(int index) {
+        return MAX_WEIGHTS[index];
+    }
+
+    /**
+     * Clamps every weight to its allowed range, in place.
+     *
+     * @param weights the weights
+     */
+    public static void clampWeights(double[] weights) {
+        for (int i = 0; i < WEIGHTS_COUNT; i++) {
+            weights[i] = Math.clamp(weights[i], MIN_WEIGHTS[i], MAX_WEIGHTS[i]);
+        }
+    }
+
+    /**
+     * Computes the probability of recall after the given number of days.
+     *
+     * @param elapsedDays the number of days since the last revision
+     * @param stability   the stability of the memory
+     * @return the retrievability, between 0 and 1
+     */
+    public static double retrievability(double elapsedDays, double stability) {
+        return Math.pow(1 + FACTOR * elapsedDays / stability, DECAY);
+    }
+
+    /**
+     * Computes the stability after the first answer.
+     *
+     * @param weights the model weights
+     * @param grade   the grade of the first answer (1-4)
+     * @return the initial stability
+     */
+    public static double initialStability(double[] weights, int grade) {
+        return Math.max(weights[grade - 1], MIN_STABILITY);
+    }
+
+    /**
+     * Computes the difficulty after the first answer.
+     *
+     * @param weights the model weights
+     * @param grade   the grade of the first answer (1-4)
+     * @return the initial difficulty
+     */
+    public static double initialDifficulty(double[] weights, int grade) {
+        return Math.clamp(weights[4] - (grade - 3) * weights[5], MIN_DIFFICULTY, MAX_DIFFICULTY);
+    }
+
+    /**
+     * Computes the difficulty after a subsequent answer, including the reversion towards the initial difficulty of grade 3.
+     *
+     * @param weights    the model weights
+     * @param difficulty the current difficulty
+     * @param grade      the grade of the answer (1-4)
+     * @return the new difficulty
+     */
+    public static double nextDifficulty(double[] weights, double difficulty, int grade) {
+        double changedDifficulty = difficulty - weights[6] * (grade - 3);
+        double revertedDifficulty = weights[7] * weights[4] + (1 - weights[7]) * changedDifficulty;
+        return Math.clamp(revertedDifficulty, MIN_DIFFICULTY, MAX_DIFFICULTY);
+    }
+
+    /**
+     * Computes the stability after a subsequent answer.
+     *
+     * @param weights        the model weights
+     * @param difficulty     the difficulty before the answer
+     * @param stability      the stability before the answer
+     * @param retrievability the retrievability at the moment of the answer
+     * @param grade          the grade of the answer (1-4)
+     * @return the new stability
+     */
+    public static double nextStability(double[] weights, double difficulty, double stability, double retrievability, int grade) {
+        double newStability;
+        if (grade == 1) {
+            newStability = Math.min(weights[11] * Math.pow(difficulty, -weights[12])
+                    * (Math.pow(stability + 1, weights[13]) - 1)
+                    * Math.exp(weights[14] * (1 - retrievability)), stability);
+        } else {
+            double gradeModifier = grade == 2 ? weights[15] : grade == 4 ? weights[16] : 1;
+            newStability = stability * (1 + Math.exp(weights[8]) * (11 - difficulty) * Math.pow(stability, -weights[9])
+                    * (Math.exp(weights[10] * (1 - retrievability)) - 1) * gradeModifier);
+        }
+        return Math.max(newStability, MIN_STABILITY);
+    }
+
+    /**
+     * Computes the number of days after which the retrievability drops to the requested retention.
+     *
+     * @param stability          the stability of the memory
+     * @param requestedRetention the requested probability of recall
+     * @param maximumInterval    the highest allowed interval, in days
+     * @return the interval, between 1 and {@code maximumInterval}
+     */
+    public static int nextInterval(double stability, double requestedRetention, int maximumInterval) {
+        double interval = stability / FACTOR * (Math.pow(requestedRetention, 1 / DECAY) - 1);
+        return Math.clamp(Math.round(interval), 1, Math.max(maximumInterval, 1));
+    }
+}
@@ -0,0 +1,147 @@
+package gutek.domain.algorithms;
+
+import gutek.domain.revisions.ReverseTextModeRevisionStrategy;
+import gutek.domain.revisions.RevisionLogEntry;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Revision history prepared for fitting the weights of the {@link FsrsMemoryModel}.
+ * <p>
+ * The history is stored in flat primitive arrays. Reviews of a single card sharing one memory state form
+ * a sequence: the reverse reviews form one sequence and the reviews in all the other strategies, which share
+ * the regular memory state, form another, as in {@link gutek.entities.algorithms.FsrsRevisionAlgorithm#replayRevision}; the reviews of sequence {@code i} occupy indexes from {@code sequenceStarts[i]} (inclusive)
+ * to {@code sequenceStarts[i + 1]} (exclusive) of {@link #getElapsedDays()} and {@link #getGrades()}.
+ * The elapsed days of the first review of every sequence are 0.
+ * </p>
+ */
+@Getter
+public class FsrsReviewHistory {
+
+    /**
+     * Simple class name of the only strategy with its own memory state.
+     */
+    private static final String REVERSE_STRATEGY = ReverseTextModeRevisionStrategy.class.getSimpleName();
+
+    /**
+     * Index of the first review of every sequence, followed by the total number of reviews.
+     */
+    private final int[] sequenceStarts;
+
+    /**
+     * Number of days since the previous review in the same sequence.
+     */
+    private final int[] elapsedDays;
+
+    /**
+     * Grades of the reviews (1-4).
+     */
+    private final byte[] grades;
+
+    /**
+     * Constructs the history from prepared arrays.
+     *
+     * @param sequenceStarts index of the first review of every sequence, followed by the total number of reviews
+     * @param elapsedDays    number of days since the previous review in the same sequence
+     * @param grades         grades of the reviews (1-4)
+     * @throws IllegalArgumentException if the arrays are inconsistent
+     */
+    public FsrsReviewHistory(int[] sequenceStarts, int[] elapsedDays, byte[] grades) {
+        if (sequenceStarts.length == 0 || elapsedDays.length != grades.length
+                || sequenceStarts[sequenceStarts.length - 1] != grades.length) {
+            throw new IllegalArgumentException("Inconsistent review history arrays");
+        }
+        this.sequenceStarts = sequenceStarts;
+        this.elapsedDays = elapsedDays;
+        this.grades = grades;
+    }
+
+    /**
+     * Builds the history from the revision log of a deck.
+     * <p>
+     * The log has to be ordered by card and revision date, as returned by the revision repository.
+     * Button indexes are converted to grades by adding 1; entries with missing data are skipped.
+     * </p>
+     *
+     * @param revisionLog the revision log ordered by card and revision date
+     * @return the review history
+     */
+    public static FsrsReviewHistory fromRevisionLog(List<RevisionLogEntry> revisionLog) {
+        List<Integer> sequenceStarts = new ArrayList<>();
+        int[] elapsedDays = new int[revisionLog.size()];
+        byte[] grades = new byte[revisionLog.size()];
+        int reviewsCount = 0;
+
+        int cardStart = 0;
+        while (cardStart < revisionLog.size()) {
+            Long cardId = revisionLog.get(cardStart).cardId();
+            int cardEnd = cardStart;
+            Map<Boolean, List<RevisionLogEntry>> sequences = new LinkedHashMap<>();
+            while (cardEnd < revisionLog.size() && Objects.equals(revisionLog.get(cardEnd).cardId(), cardId)) {
+                RevisionLogEntry entry = revisionLog.get(cardEnd++);
+                if (entry.revisionDate() != null && entry.pressedButtonIndex() != null && entry.strategyClassName() != null) {
+                    sequences.computeIfAbsent(REVERSE_STRATEGY.equals(entry.strategyClassName()), key -> new ArrayList<>()).add(entry);
+                }
+            }
+            for (List<RevisionLogEntry> sequence : sequences.values()) {
+                sequenceStarts.add(reviewsCount);
+                LocalDate previousDate = sequence.getFirst().revisionDate();
+                for (RevisionLogEntry entry : sequence) {
+                    elapsedDays[reviewsCount] = (int) Math.max(ChronoUnit.DAYS.between(previousDate, entry.revisionDate()), 0);
+                    grades[reviewsCount] = (byte) Math.clamp(entry.pressedButtonIndex() + 1, 1, 4);
+                    previousDate = entry.revisionDate();
+                    reviewsCount++;
+                }
+            }
+            cardStart = cardEnd;
+        }
+        sequenceStarts.add(reviewsCount);
+
+        return new FsrsReviewHistory(sequenceStarts.stream().mapToInt(Integer::intValue).toArray(),
+                Arrays.copyOf(elapsedDays, reviewsCount), Arrays.copyOf(grades, reviewsCount));
+    }
+
+    /**
+     * Returns the number of sequences.
+     *
+     * @return the number of sequences
+     */
+    public int getSequencesCount() {
+        return sequenceStarts.length - 1;
+    }
+
+    /**
+     * Returns the total number of reviews.
+     *
+     * @return the number of reviews
+     */
+    public int getReviewsCount() {
+        return grades.length;
+    }
+
+    /**
+     * Returns the number of reviews for which the model predicts the probability of recall,
+     * i.e. reviews which are not the first one in their sequence and happened at least one day after the previous one.
+     *
+     * @return the number of predicted reviews
+     */
+    public int getPredictedReviewsCount() {
+        int count = 0;
+        for (int sequence = 0; sequence < getSequencesCount(); sequence++) {
+            for (int review = sequenceStarts[sequence] + 1; review < sequenceStarts[sequence + 1]; review++) {
+                if (elapsedDays[review] > 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
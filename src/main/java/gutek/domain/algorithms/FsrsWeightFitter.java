@@ -0,0 +1,386 @@
+package gutek.domain.algorithms;
+
+import gutek.domain.jobs.BackgroundJob;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static gutek.domain.algorithms.FsrsMemoryModel.*;
+
+/**
+ * Fits the weights of the {@link FsrsMemoryModel} to a {@link FsrsReviewHistory}.
+ * <p>
+ * The fitter minimizes the average log loss of the predicted probability of recall: a review graded 1 counts
+ * as forgotten, any other grade as recalled. The exact gradient is computed in forward mode, by carrying the
+ * derivatives of stability and difficulty with respect to every weight along each sequence, so a single pass
+ * over the history yields both the loss and the gradient. Sequences are split into chunks of similar size which
+ * are evaluated in parallel on the given pool, using only primitive arrays allocated once per chunk.
+ * The weights are updated with the Adam optimizer and kept within the bounds of the model.
+ * </p>
+ */
+public class FsrsWeightFitter {
+
+    /**
+     * Default number of optimizer iterations.
+     */
+    public static final int DEFAULT_ITERATIONS = 300;
+
+    /**
+     * Default learning rate of the optimizer.
+     */
+    public static final double DEFAULT_LEARNING_RATE = 0.04;
+
+    /**
+     * Number of chunks created for every thread of the pool, to balance the load.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Decay rate of the first moment estimate.
+     */
+    private static final double BETA_1 = 0.9;
+
+    /**
+     * Decay rate of the second moment estimate.
+     */
+    private static final double BETA_2 = 0.999;
+
+    /**
+     * Term added to the denominator of the update for numerical stability.
+     */
+    private static final double EPSILON = 1e-8;
+
+    /**
+     * Bound keeping the predicted probability away from 0 and 1.
+     */
+    private static final double PROBABILITY_BOUND = 1e-6;
+
+    /**
+     * Pool in which the chunks are evaluated.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Number of optimizer iterations.
+     */
+    private final int iterations;
+
+    /**
+     * Initial learning rate, decreased along a cosine curve.
+     */
+    private final double learningRate;
+
+    /**
+     * Constructs a fitter with the default number of iterations and learning rate.
+     *
+     * @param pool pool in which the chunks are evaluated
+     */
+    public FsrsWeightFitter(ForkJoinPool pool) {
+        this(pool, DEFAULT_ITERATIONS, DEFAULT_LEARNING_RATE);
+    }
+
+    /**
+     * Constructs a fitter.
+     *
+     * @param pool         pool in which the chunks are evaluated
+     * @param iterations   number of optimizer iterations
+     * @param learningRate initial learning rate
+     */
+    public FsrsWeightFitter(ForkJoinPool pool, int iterations, double learningRate) {
+        this.pool = pool;
+        this.iterations = iterations;
+        this.learningRate = learningRate;
+    }
+
+    /**
+     * Fits the weights to the history.
+     * <p>
+     * If a job is given, its total is set to the number of iterations and the progress is reported after every
+     * iteration; cancelling the job stops the optimization and returns the best weights found so far.
+     * </p>
+     *
+     * @param history        the review history
+     * @param initialWeights the weights the optimization starts from
+     * @param job            the job used for progress reporting and cancellation, may be {@code null}
+     * @return the fitted weights together with the loss before and after fitting
+     * @throws InterruptedException if the thread is interrupted while waiting for the chunks
+     * @throws ExecutionException   if evaluating a chunk fails
+     */
+    public FsrsFitResult fit(FsrsReviewHistory history, double[] initialWeights, BackgroundJob<?> job)
+            throws InterruptedException, ExecutionException {
+        int[] chunkStarts = splitIntoChunks(history);
+        double[] weights = initialWeights.clone();
+        clampWeights(weights);
+        double[] firstMoment = new double[WEIGHTS_COUNT];
+        double[] secondMoment = new double[WEIGHTS_COUNT];
+        double[] gradient = new double[WEIGHTS_COUNT];
+
+        double initialLoss = evaluate(history, chunkStarts, weights, gradient);
+        double[] bestWeights = weights.clone();
+        double bestLoss = initialLoss;
+        if (job != null) {
+            job.start(iterations);
+        }
+
+        for (int iteration = 1; iteration <= iterations && !(job != null && job.isCancelled()); iteration++) {
+            double rate = learningRate * 0.5 * (1 + Math.cos(Math.PI * (iteration - 1) / iterations));
+            for (int k = 0; k < WEIGHTS_COUNT; k++) {
+                firstMoment[k] = BETA_1 * firstMoment[k] + (1 - BETA_1) * gradient[k];
+                secondMoment[k] = BETA_2 * secondMoment[k] + (1 - BETA_2) * gradient[k] * gradient[k];
+                double correctedFirst = firstMoment[k] / (1 - Math.pow(BETA_1, iteration));
+                double correctedSecond = secondMoment[k] / (1 - Math.pow(BETA_2, iteration));
+                weights[k] -= rate * correctedFirst / (Math.sqrt(correctedSecond) + EPSILON);
+            }
+            clampWeights(weights);
+
+            double loss = evaluate(history, chunkStarts, weights, gradient);
+            if (loss < bestLoss) {
+                bestLoss = loss;
+                bestWeights = weights.clone();
+            }
+            if (job != null) {
+                job.addProcessed(1);
+            }
+        }
+        return new FsrsFitResult(bestWeights, initialLoss, bestLoss, history.getPredictedReviewsCount());
+    }
+
+    /**
+     * Computes the average log loss of the given weights.
+     *
+     * @param history the review history
+     * @param weights the weights
+     * @return the average log loss, or 0 if the history contains no predicted reviews
+     * @throws InterruptedException if the thread is interrupted while waiting for the chunks
+     * @throws ExecutionException   if evaluating a chunk fails
+     */
+    public double logLoss(FsrsReviewHistory history, double[] weights) throws InterruptedException, ExecutionException {
+        return logLossAndGradient(history, weights, new double[WEIGHTS_COUNT]);
+    }
+
+    /**
+     * Computes the average log loss of the given weights and its gradient.
+     *
+     * @param history  the review history
+     * @param weights  the weights
+     * @param gradient array receiving the gradient of the average log loss
+     * @return the average log loss, or 0 if the history contains no predicted reviews
+     * @throws InterruptedException if the thread is interrupted while waiting for the chunks
+     * @throws ExecutionException   if evaluating a chunk fails
+     */
+    double logLossAndGradient(FsrsReviewHistory history, double[] weights, double[] gradient)
+            throws InterruptedException, ExecutionException {
+        return evaluate(history, splitIntoChunks(history), weights, gradient);
+    }
+
+    /**
+     * Computes the average log loss and its gradient, evaluating the chunks in parallel.
+     *
+     * @param history     the review history
+     * @param chunkStarts index of the first sequence of every chunk, followed by the number of sequences
+     * @param weights     the weights
+     * @param gradient    array receiving the gradient of the average log loss
+     * @return the average log loss, or 0 if the history contains no predicted reviews
+     * @throws InterruptedException if the thread is interrupted while waiting for the chunks
+     * @throws ExecutionException   if evaluating a chunk fails
+     */
+    private double evaluate(FsrsReviewHistory history, int[] chunkStarts, double[] weights, double[] gradient)
+            throws InterruptedException, ExecutionException {
+        List<Callable<double[]>> tasks = new ArrayList<>(chunkStarts.length - 1);
+        for (int chunk = 0; chunk < chunkStarts.length - 1; chunk++) {
+            int from = chunkStarts[chunk];
+            int to = chunkStarts[chunk + 1];
+            tasks.add(() -> evaluateSequences(history, from, to, weights));
+        }
+
+        double[] total = new double[WEIGHTS_COUNT + 2];
+        for (Future<double[]> future : pool.invokeAll(tasks)) {
+            double[] partial = future.get();
+            for (int k = 0; k < total.length; k++) {
+                total[k] += partial[k];
+            }
+        }
+
+        double count = total[WEIGHTS_COUNT + 1];
+        for (int k = 0; k < WEIGHTS_COUNT; k++) {
+            gradient[k] = count == 0 ? 0 : total[k] / count;
+        }
+        return count == 0 ? 0 : total[WEIGHTS_COUNT] / count;
+    }
+
+    /**
+     * Splits the sequences into chunks containing a similar number of reviews.
+     *
+     * @param history the review history
+     * @return index of the first sequence of every chunk, followed by the number of sequences
+     */
+    private int[] splitIntoChunks(FsrsReviewHistory history) {
+        int[] sequenceStarts = history.getSequenceStarts();
+        int sequencesCount = history.getSequencesCount();
+        int chunksCount = Math.max(1, Math.min(sequencesCount, pool.getParallelism() * CHUNKS_PER_THREAD));
+        long reviewsPerChunk = Math.max(1, (long) history.getReviewsCount() / chunksCount);
+
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        for (int sequence = 1; sequence < sequencesCount; sequence++) {
+            if (sequenceStarts[sequence] - sequenceStarts[starts.getLast()] >= reviewsPerChunk) {
+                starts.add(sequence);
+            }
+        }
+        starts.add(sequencesCount);
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Replays the given sequences, accumulating the log loss and its gradient.
+     *
+     * @param history the review history
+     * @param from    index of the first sequence (inclusive)
+     * @param to      index of the last sequence (exclusive)
+     * @param w       the weights
+     * @return the summed gradient, followed by the summed loss and the number of predicted reviews
+     */
+    private static double[] evaluateSequences(FsrsReviewHistory history, int from, int to, double[] w) {
+        int[] sequenceStarts = history.getSequenceStarts();
+        int[] elapsedDays = history.getElapsedDays();
+        byte[] grades = history.getGrades();
+
+        double[] result = new double[WEIGHTS_COUNT + 2];
+        double[] stabilityGradient = new double[WEIGHTS_COUNT];
+        double[] difficultyGradient = new double[WEIGHTS_COUNT];
+        double[] retrievabilityGradient = new double[WEIGHTS_COUNT];
+        double[] newStabilityGradient = new double[WEIGHTS_COUNT];
+        double exp8 = Math.exp(w[8]);
+
+        for (int sequence = from; sequence < to; sequence++) {
+            int first = sequenceStarts[sequence];
+            int end = sequenceStarts[sequence + 1];
+            if (first == end) {
+                continue;
+            }
+
+            int grade = grades[first];
+            Arrays.fill(stabilityGradient, 0);
+            Arrays.fill(difficultyGradient, 0);
+            double stability = w[grade - 1];
+            if (stability > MIN_STABILITY) {
+                stabilityGradient[grade - 1] = 1;
+            } else {
+                stability = MIN_STABILITY;
+            }
+            double difficulty = w[4] - (grade - 3) * w[5];
+            if (difficulty > MIN_DIFFICULTY && difficulty < MAX_DIFFICULTY) {
+                difficultyGradient[4] = 1;
+                difficultyGradient[5] = -(grade - 3);
+            } else {
+                difficulty = Math.clamp(difficulty, MIN_DIFFICULTY, MAX_DIFFICULTY);
+            }
+
+            for (int review = first + 1; review < end; review++) {
+                int t = elapsedDays[review];
+                grade = grades[review];
+
+                double base = 1 + FACTOR * t / stability;
+                // DECAY is -0.5, so the power reduces to an inverse square root, which is considerably cheaper
+                double retrievability = 1 / Math.sqrt(base);
+                double retrievabilityByStability = DECAY * retrievability / base * (-FACTOR * t / (stability * stability));
+                for (int k = 0; k < WEIGHTS_COUNT; k++) {
+                    retrievabilityGradient[k] = retrievabilityByStability * stabilityGradient[k];
+                }
+
+                if (t > 0) {
+                    double probability = Math.clamp(retrievability, PROBABILITY_BOUND, 1 - PROBABILITY_BOUND);
+                    boolean recalled = grade > 1;
+                    result[WEIGHTS_COUNT] -= recalled ? Math.log(probability) : Math.log(1 - probability);
+                    result[WEIGHTS_COUNT + 1]++;
+                    if (probability == retrievability) {
+                        double lossByRetrievability = recalled ? -1 / probability : 1 / (1 - probability);
+                        for (int k = 0; k < WEIGHTS_COUNT; k++) {
+                            result[k] += lossByRetrievability * retrievabilityGradient[k];
+                        }
+                    }
+                }
+
+                double newStability;
+                if (grade == 1) {
+                    double difficultyTerm = Math.pow(difficulty, -w[12]);
+                    double stabilityPower = Math.pow(stability + 1, w[13]);
+                    double stabilityTerm = stabilityPower - 1;
+                    double retrievabilityTerm = Math.exp(w[14] * (1 - retrievability));
+                    newStability = w[11] * difficultyTerm * stabilityTerm * retrievabilityTerm;
+                    if (newStability >= stability) {
+                        newStability = stability;
+                        System.arraycopy(stabilityGradient, 0, newStabilityGradient, 0, WEIGHTS_COUNT);
+                    } else {
+                        double logDifficulty = Math.log(difficulty);
+                        double logStability = Math.log(stability + 1);
+                        for (int k = 0; k < WEIGHTS_COUNT; k++) {
+                            double logDerivative = -w[12] * difficultyGradient[k] / difficulty
+                                    + stabilityPower * w[13] * stabilityGradient[k] / (stability + 1) / stabilityTerm
+                                    - w[14] * retrievabilityGradient[k];
+                            newStabilityGradient[k] = newStability * logDerivative;
+                        }
+                        newStabilityGradient[11] += difficultyTerm * stabilityTerm * retrievabilityTerm;
+                        newStabilityGradient[12] -= newStability * logDifficulty;
+                        newStabilityGradient[13] += newStability * stabilityPower * logStability / stabilityTerm;
+                        newStabilityGradient[14] += newStability * (1 - retrievability);
+                    }
+                } else {
+                    int modifierIndex = grade == 2 ? 15 : grade == 4 ? 16 : -1;
+                    double modifier = modifierIndex < 0 ? 1 : w[modifierIndex];
+                    double difficultyTerm = 11 - difficulty;
+                    double logStability = Math.log(stability);
+                    double stabilityTerm = Math.exp(-w[9] * logStability);
+                    double exp10 = Math.exp(w[10] * (1 - retrievability));
+                    double retrievabilityTerm = exp10 - 1;
+                    double increase = exp8 * difficultyTerm * stabilityTerm * retrievabilityTerm * modifier;
+                    newStability = stability * (1 + increase);
+                    for (int k = 0; k < WEIGHTS_COUNT; k++) {
+                        double stabilityTermDerivative = stabilityTerm * -w[9] * stabilityGradient[k] / stability;
+                        double retrievabilityTermDerivative = exp10 * -w[10] * retrievabilityGradient[k];
+                        double increaseDerivative = exp8 * modifier * (-difficultyGradient[k] * stabilityTerm * retrievabilityTerm
+                                + difficultyTerm * stabilityTermDerivative * retrievabilityTerm
+                                + difficultyTerm * stabilityTerm * retrievabilityTermDerivative);
+                        newStabilityGradient[k] = stabilityGradient[k] * (1 + increase) + stability * increaseDerivative;
+                    }
+                    newStabilityGradient[8] += stability * increase;
+                    newStabilityGradient[9] -= stability * increase * logStability;
+                    newStabilityGradient[10] += stability * exp8 * difficultyTerm * stabilityTerm * modifier * exp10 * (1 - retrievability);
+                    if (modifierIndex >= 0) {
+                        newStabilityGradient[modifierIndex] += stability * exp8 * difficultyTerm * stabilityTerm * retrievabilityTerm;
+                    }
+                }
+                if (newStability < MIN_STABILITY) {
+                    newStability = MIN_STABILITY;
+                    Arrays.fill(newStabilityGradient, 0);
+                }
+
+                double changedDifficulty = difficulty - w[6] * (grade - 3);
+                double newDifficulty = w[7] * w[4] + (1 - w[7]) * changedDifficulty;
+                if (newDifficulty > MIN_DIFFICULTY && newDifficulty < MAX_DIFFICULTY) {
+                    for (int k = 0; k < WEIGHTS_COUNT; k++) {
+                        difficultyGradient[k] *= 1 - w[7];
+                    }
+                    difficultyGradient[6] -= (1 - w[7]) * (grade - 3);
+                    difficultyGradient[4] += w[7];
+                    difficultyGradient[7] += w[4] - changedDifficulty;
+                } else {
+                    newDifficulty = Math.clamp(newDifficulty, MIN_DIFFICULTY, MAX_DIFFICULTY);
+                    Arrays.fill(difficultyGradient, 0);
+                }
+
+                stability = newStability;
+                difficulty = newDifficulty;
+                double[] swap = stabilityGradient;
+                stabilityGradient = newStabilityGradient;
+                newStabilityGradient = swap;
+            }
+        }
+        return result;
+    }
+}
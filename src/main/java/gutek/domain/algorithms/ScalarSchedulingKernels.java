@@ -0,0 +1,84 @@
+package gutek.domain.algorithms;
+
+import gutek.entities.cards.CardConstantCoefficient;
+
+/**
+ * Scalar implementation of the batch scheduling kernels.
+ * <p>
+ * Used as the fallback when the Vector API is not available, and for the tail elements
+ * which do not fill a complete vector.
+ * </p>
+ */
+final class ScalarSchedulingKernels {
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private ScalarSchedulingKernels() {}
+
+    /**
+     * Applies one SuperMemo2 revision step to the cards in the range {@code [from, to)}.
+     *
+     * @see SchedulingKernels#superMemo2(int[], int[], int[], double[], int[], int[], int, double, int)
+     */
+    static void superMemo2(int[] grades, int[] repetitions, int[] intervals, double[] easinessFactors,
+                           int[] incorrectCounters, int[] dueInDays, int from, int to,
+                           double initialEasinessFactor, int incorrectAnswerThreshold) {
+        for (int i = from; i < to; i++) {
+            int grade = grades[i];
+            if (grade >= 3) {
+                int repetition = repetitions[i] + 1;
+                int interval;
+                if (repetition == 1) {
+                    interval = 1;
+                } else if (repetition == 2) {
+                    interval = 6;
+                } else {
+                    interval = Math.max((int) Math.round(intervals[i] * easinessFactors[i]), 1);
+                }
+                int q = 5 - grade;
+                repetitions[i] = repetition;
+                intervals[i] = interval;
+                easinessFactors[i] = Math.max(easinessFactors[i] + (0.1 - q * (0.08 + q * 0.02)), 1.3);
+                dueInDays[i] = interval;
+            } else {
+                int incorrectCounter = incorrectCounters[i] + 1;
+                if (incorrectCounter >= incorrectAnswerThreshold) {
+                    repetitions[i] = 0;
+                    intervals[i] = 1;
+                    incorrectCounter = 0;
+                    easinessFactors[i] = initialEasinessFactor;
+                }
+                incorrectCounters[i] = incorrectCounter;
+                dueInDays[i] = 1;
+            }
+        }
+    }
+
+    /**
+     * Applies one Constant Coefficient revision step to the cards in the range {@code [from, to)}.
+     *
+     * @see SchedulingKernels#constantCoefficient(int[], double[], int[], int[], int, double[], int)
+     */
+    static void constantCoefficient(int[] pressedButtonIndexes, double[] baseRevisionTimes, int[] incorrectCounters,
+                                    int[] dueInDays, int from, int to, double[] coefficients, int incorrectAnswerThreshold) {
+        for (int i = from; i < to; i++) {
+            int buttonIndex = pressedButtonIndexes[i];
+            // the same floor as CardConstantCoefficient#setBaseRevisionTime applies on the per-card path
+            double baseRevisionTime = Math.max(coefficients[buttonIndex] * baseRevisionTimes[i],
+                    CardConstantCoefficient.MIN_BASE_REVISION_TIME);
+            if (buttonIndex == 0) {
+                int incorrectCounter = incorrectCounters[i] + 1;
+                if (incorrectCounter >= incorrectAnswerThreshold) {
+                    baseRevisionTime = 1.0;
+                    incorrectCounter = 0;
+                }
+                incorrectCounters[i] = incorrectCounter;
+                dueInDays[i] = 0;
+            } else {
+                dueInDays[i] = (int) Math.max(baseRevisionTime, 1);
+            }
+            baseRevisionTimes[i] = baseRevisionTime;
+        }
+    }
+}
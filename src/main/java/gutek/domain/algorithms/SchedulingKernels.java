@@ -0,0 +1,147 @@
+package gutek.domain.algorithms;
+
+/**
+ * Batch scheduling kernels for the built-in revision algorithms.
+ * <p>
+ * The kernels apply a single revision step to many cards at once. The card state is passed as
+ * a structure of primitive arrays (one array per field, one index per card), which allows the
+ * arithmetic to be executed with SIMD instructions through the {@code jdk.incubator.vector} module.
+ * The vectorized implementation is compiled and the module enabled only by the opt-in {@code vector} Maven profile
+ * ({@code mvn -Pvector}), so the default build and run do not print the incubator module warnings. When the
+ * implementation or the module is not available at runtime or the vectorized path is disabled with the
+ * {@code gutek.kernels.scalar} system property, a scalar implementation with identical results is used.
+ * </p>
+ */
+public class SchedulingKernels {
+
+    /**
+     * System property which forces the scalar implementation when set to {@code true}.
+     */
+    public static final String SCALAR_ONLY_PROPERTY = "gutek.kernels.scalar";
+
+    /**
+     * Fully qualified name of the vectorized implementation, compiled only by the {@code vector} Maven profile.
+     */
+    private static final String VECTORIZED_KERNELS_CLASS = "gutek.domain.algorithms.VectorizedSchedulingKernels";
+
+    /**
+     * The vectorized implementation, or {@code null} if the scalar implementation is used.
+     */
+    private static final BatchSchedulingKernels VECTORIZED_KERNELS = loadVectorizedKernels();
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private SchedulingKernels() {}
+
+    /**
+     * Returns whether the kernels are executed using the Vector API.
+     *
+     * @return {@code true} if the vectorized implementation is active, {@code false} if the scalar fallback is used
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED_KERNELS != null;
+    }
+
+    /**
+     * Applies one SuperMemo2 revision step to the given cards.
+     * <p>
+     * For grades greater than or equal to 3 the repetition counter is incremented, the interval is set
+     * to 1, 6 or {@code round(interval * EF)} and the easiness factor is updated with
+     * {@code EF += 0.1 - (5 - q) * (0.08 + (5 - q) * 0.02)} (clamped to 1.3). For lower grades the incorrect
+     * counter is incremented and the card is reset once the threshold is reached.
+     * </p>
+     *
+     * @param grades                   grades given to the cards (1-5)
+     * @param repetitions              repetition counters, updated in place
+     * @param intervals                intervals in days, updated in place
+     * @param easinessFactors          easiness factors, updated in place
+     * @param incorrectCounters        incorrect answer counters, updated in place
+     * @param dueInDays                output array receiving the number of days until the next revision
+     * @param length                   number of cards to process
+     * @param initialEasinessFactor    easiness factor restored when a card is reset
+     * @param incorrectAnswerThreshold number of incorrect answers after which a card is reset
+     * @throws IllegalArgumentException if any of the arrays is shorter than {@code length}
+     */
+    public static void superMemo2(int[] grades, int[] repetitions, int[] intervals, double[] easinessFactors,
+                                  int[] incorrectCounters, int[] dueInDays, int length,
+                                  double initialEasinessFactor, int incorrectAnswerThreshold) {
+        checkLength(length, grades.length, repetitions.length, intervals.length, easinessFactors.length,
+                incorrectCounters.length, dueInDays.length);
+        if (VECTORIZED_KERNELS != null) {
+            VECTORIZED_KERNELS.superMemo2(grades, repetitions, intervals, easinessFactors, incorrectCounters,
+                    dueInDays, length, initialEasinessFactor, incorrectAnswerThreshold);
+        } else {
+            ScalarSchedulingKernels.superMemo2(grades, repetitions, intervals, easinessFactors, incorrectCounters,
+                    dueInDays, 0, length, initialEasinessFactor, incorrectAnswerThreshold);
+        }
+    }
+
+    /**
+     * Applies one Constant Coefficient revision step to the given cards.
+     * <p>
+     * The base revision time of each card is multiplied by the coefficient assigned to the pressed button.
+     * Button index 0 is the "repeat" answer: it increments the incorrect counter, resets the card once the
+     * threshold is reached and schedules the card for today.
+     * </p>
+     *
+     * @param pressedButtonIndexes     indexes of the pressed buttons
+     * @param baseRevisionTimes        base revision times, updated in place
+     * @param incorrectCounters        incorrect answer counters, updated in place
+     * @param dueInDays                output array receiving the number of days until the next revision
+     * @param length                   number of cards to process
+     * @param coefficients             coefficients assigned to the consecutive buttons
+     * @param incorrectAnswerThreshold number of incorrect answers after which a card is reset
+     * @throws IllegalArgumentException if any of the arrays is shorter than {@code length} or no coefficients are given
+     */
+    public static void constantCoefficient(int[] pressedButtonIndexes, double[] baseRevisionTimes, int[] incorrectCounters,
+                                           int[] dueInDays, int length, double[] coefficients, int incorrectAnswerThreshold) {
+        checkLength(length, pressedButtonIndexes.length, baseRevisionTimes.length, incorrectCounters.length, dueInDays.length);
+        if (coefficients.length == 0) {
+            throw new IllegalArgumentException("At least one coefficient is required");
+        }
+        if (VECTORIZED_KERNELS != null) {
+            VECTORIZED_KERNELS.constantCoefficient(pressedButtonIndexes, baseRevisionTimes, incorrectCounters,
+                    dueInDays, length, coefficients, incorrectAnswerThreshold);
+        } else {
+            ScalarSchedulingKernels.constantCoefficient(pressedButtonIndexes, baseRevisionTimes, incorrectCounters,
+                    dueInDays, 0, length, coefficients, incorrectAnswerThreshold);
+        }
+    }
+
+    /**
+     * Verifies that all arrays can hold the requested number of cards.
+     *
+     * @param length       number of cards to process
+     * @param arrayLengths lengths of the arrays passed to a kernel
+     */
+    private static void checkLength(int length, int... arrayLengths) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length cannot be negative");
+        }
+        for (int arrayLength : arrayLengths) {
+            if (arrayLength < length) {
+                throw new IllegalArgumentException("Array length " + arrayLength + " is smaller than " + length);
+            }
+        }
+    }
+
+    /**
+     * Loads the vectorized implementation if it was compiled and the Vector API module is present and usable on this JVM.
+     *
+     * @return the vectorized kernels, or {@code null} if the scalar implementation has to be used
+     */
+    private static BatchSchedulingKernels loadVectorizedKernels() {
+        if (Boolean.getBoolean(SCALAR_ONLY_PROPERTY)) {
+            return null;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (BatchSchedulingKernels) Class.forName(VECTORIZED_KERNELS_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
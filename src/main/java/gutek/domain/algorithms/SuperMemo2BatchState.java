@@ -0,0 +1,96 @@
+package gutek.domain.algorithms;
+
+import gutek.entities.cards.CardSuperMemo2;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Scheduling state of many {@link CardSuperMemo2} cards stored as primitive arrays.
+ * <p>
+ * The state holds the fields of either the regular or the reverse revision process and is
+ * processed by {@link SchedulingKernels#superMemo2}. After a revision step the results can be
+ * written back to the card entities with {@link #applyTo(List, boolean, LocalDate)}.
+ * </p>
+ */
+@Getter
+public class SuperMemo2BatchState {
+
+    /** Number of cards held by this state. */
+    private final int size;
+
+    /** Repetition counters of the cards. */
+    private final int[] repetitions;
+
+    /** Intervals (in days) of the cards. */
+    private final int[] intervals;
+
+    /** Easiness factors of the cards. */
+    private final double[] easinessFactors;
+
+    /** Incorrect answer counters of the cards. */
+    private final int[] incorrectCounters;
+
+    /** Number of days until the next revision, filled by the last revision step. */
+    private final int[] dueInDays;
+
+    /**
+     * Creates an empty state for the given number of cards.
+     *
+     * @param size the number of cards
+     */
+    public SuperMemo2BatchState(int size) {
+        this.size = size;
+        this.repetitions = new int[size];
+        this.intervals = new int[size];
+        this.easinessFactors = new double[size];
+        this.incorrectCounters = new int[size];
+        this.dueInDays = new int[size];
+    }
+
+    /**
+     * Copies the scheduling state of the given cards into a new batch state.
+     *
+     * @param cards   the cards to copy
+     * @param reverse {@code true} to copy the reverse revision fields, {@code false} for the regular ones
+     * @return the batch state holding the cards' scheduling fields
+     */
+    public static SuperMemo2BatchState fromCards(List<CardSuperMemo2> cards, boolean reverse) {
+        SuperMemo2BatchState state = new SuperMemo2BatchState(cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            CardSuperMemo2 card = cards.get(i);
+            state.repetitions[i] = reverse ? card.getReverseRepetition() : card.getRepetition();
+            state.intervals[i] = reverse ? card.getReverseInterval() : card.getRegularInterval();
+            state.easinessFactors[i] = reverse ? card.getReverseEasinessFactor() : card.getEasinessFactor();
+            state.incorrectCounters[i] = reverse ? card.getReverseIncorrectCounter() : card.getIncorrectCounter();
+        }
+        return state;
+    }
+
+    /**
+     * Writes the scheduling state back to the given cards and sets their next revision dates.
+     *
+     * @param cards   the cards to update, in the same order as used to create the state
+     * @param reverse {@code true} to update the reverse revision fields, {@code false} for the regular ones
+     * @param today   the date from which the next revision dates are calculated
+     */
+    public void applyTo(List<CardSuperMemo2> cards, boolean reverse, LocalDate today) {
+        for (int i = 0; i < size; i++) {
+            CardSuperMemo2 card = cards.get(i);
+            if (reverse) {
+                card.setReverseRepetition(repetitions[i]);
+                card.setReverseInterval(intervals[i]);
+                card.setReverseEasinessFactor(easinessFactors[i]);
+                card.setReverseIncorrectCounter(incorrectCounters[i]);
+                card.setNextReverseRevisionDate(today.plusDays(dueInDays[i]));
+            } else {
+                card.setRepetition(repetitions[i]);
+                card.setRegularInterval(intervals[i]);
+                card.setEasinessFactor(easinessFactors[i]);
+                card.setIncorrectCounter(incorrectCounters[i]);
+                card.setNextRegularRevisionDate(today.plusDays(dueInDays[i]));
+            }
+        }
+    }
+}
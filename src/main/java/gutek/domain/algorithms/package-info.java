@@ -2,6 +2,13 @@
  * This package contains classes and interfaces related to algorithms.
  *
  * <p>Specifically, it includes the {@link gutek.domain.algorithms.AlgorithmHiperparameter},
- * which represents the hyperparameters used in algorithms.
+ * which represents the hyperparameters used in algorithms, and the {@link gutek.domain.algorithms.SchedulingKernels},
+ * which apply a revision step of the built-in algorithms to many cards at once. The card state processed by the
+ * kernels is held by {@link gutek.domain.algorithms.SuperMemo2BatchState} and
+ * {@link gutek.domain.algorithms.ConstantCoefficientBatchState}.
+ *
+ * <p>The package also contains the {@link gutek.domain.algorithms.FsrsMemoryModel} used by the FSRS revision
+ * algorithm and the {@link gutek.domain.algorithms.FsrsWeightFitter}, which fits the model's weights
+ * to a {@link gutek.domain.algorithms.FsrsReviewHistory}.
  */
 package gutek.domain.algorithms;
\ No newline at end of file
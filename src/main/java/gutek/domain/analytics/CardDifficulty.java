@@ -0,0 +1,34 @@
+package gutek.domain.analytics;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Difficulty of a single card, computed from its revision history.
+ *
+ * @param cardId          the identifier of the card
+ * @param lapses          the number of failed revisions following a recalled one in the same strategy
+ * @param failures        the number of failed revisions
+ * @param lastFailureDate the date of the last failed revision, {@code null} if the card was never failed
+ */
+public record CardDifficulty(Long cardId, int lapses, int failures, LocalDate lastFailureDate) {
+
+    /**
+     * Orders the cards from the least to the most difficult: by lapses, then by failures, and cards failed
+     * more recently are considered more difficult.
+     */
+    public static final Comparator<CardDifficulty> LEAST_DIFFICULT_FIRST = Comparator
+            .comparingInt(CardDifficulty::lapses)
+            .thenComparingInt(CardDifficulty::failures)
+            .thenComparing(CardDifficulty::lastFailureDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(CardDifficulty::cardId, Comparator.reverseOrder());
+
+    /**
+     * Checks whether the card is a leech.
+     *
+     * @return {@code true} if the card has at least {@link RetentionStatistics#LEECH_LAPSES} lapses
+     */
+    public boolean isLeech() {
+        return lapses >= RetentionStatistics.LEECH_LAPSES;
+    }
+}
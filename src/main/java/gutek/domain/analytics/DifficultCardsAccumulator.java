@@ -0,0 +1,120 @@
+package gutek.domain.analytics;
+
+import gutek.domain.revisions.RevisionLogEntry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Selects the most difficult cards of a deck from its revision log, keeping at most a fixed number of them.
+ * <p>
+ * The revisions have to be consumed grouped by card and ordered by date within a card, as returned by
+ * {@link gutek.repositories.CardBaseRevisionRepository#streamRevisionLogByDeckId(Long)}. The difficulty of a card
+ * is known once its revisions end, and it is offered to a bounded min-heap, so the memory used depends only
+ * on the capacity. Lapses are counted like in {@link RetentionAccumulator}: a failed revision following a recalled
+ * one in the same revision strategy. Cards which were never failed are not selected.
+ * </p>
+ */
+public class DifficultCardsAccumulator implements Consumer<RevisionLogEntry> {
+
+    /** Maximum number of selected cards. */
+    private final int capacity;
+
+    /** Test of the pressed button indexes failing a revision. */
+    private final IntPredicate failedRevision;
+
+    /** Selected cards, the least difficult one at the head. */
+    private final PriorityQueue<CardDifficulty> selected;
+
+    /** Whether the previous revision of the current card was recalled, by the strategy class name. */
+    private final Map<String, Boolean> previousRecalled = new HashMap<>();
+
+    /** Identifier of the card whose revisions are being consumed. */
+    private Long currentCardId;
+
+    /** Number of lapses of the current card. */
+    private int currentLapses;
+
+    /** Number of failed revisions of the current card. */
+    private int currentFailures;
+
+    /** Date of the last failed revision of the current card. */
+    private LocalDate currentLastFailureDate;
+
+    /**
+     * Constructs an accumulator selecting at most the given number of cards.
+     *
+     * @param capacity       the maximum number of selected cards
+     * @param failedRevision the test of the pressed button indexes failing a revision,
+     *                       e.g. {@link gutek.entities.algorithms.RevisionAlgorithm#isFailedRevision(int)}
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public DifficultCardsAccumulator(int capacity, IntPredicate failedRevision) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity has to be positive");
+        }
+        this.capacity = capacity;
+        this.failedRevision = failedRevision;
+        this.selected = new PriorityQueue<>(capacity, CardDifficulty.LEAST_DIFFICULT_FIRST);
+    }
+
+    /**
+     * Counts a single revision.
+     *
+     * @param entry the revision, consumed after the earlier revisions of the same card
+     */
+    @Override
+    public void accept(RevisionLogEntry entry) {
+        if (!entry.cardId().equals(currentCardId)) {
+            finishCard();
+            currentCardId = entry.cardId();
+        }
+        boolean recalled = !failedRevision.test(entry.pressedButtonIndex());
+        if (!recalled) {
+            currentFailures++;
+            currentLastFailureDate = entry.revisionDate();
+            if (Boolean.TRUE.equals(previousRecalled.get(entry.strategyClassName()))) {
+                currentLapses++;
+            }
+        }
+        previousRecalled.put(entry.strategyClassName(), recalled);
+    }
+
+    /**
+     * Returns the selected cards. The accumulator should not be used afterwards.
+     *
+     * @return the selected cards, the most difficult first
+     */
+    public List<CardDifficulty> getMostDifficult() {
+        finishCard();
+        List<CardDifficulty> mostDifficult = new ArrayList<>(selected);
+        mostDifficult.sort(CardDifficulty.LEAST_DIFFICULT_FIRST.reversed());
+        return mostDifficult;
+    }
+
+    /**
+     * Offers the difficulty of the current card to the selected cards and resets the state of the card.
+     */
+    private void finishCard() {
+        if (currentCardId != null && currentFailures > 0) {
+            CardDifficulty difficulty = new CardDifficulty(currentCardId, currentLapses, currentFailures, currentLastFailureDate);
+            if (selected.size() < capacity) {
+                selected.add(difficulty);
+            } else if (CardDifficulty.LEAST_DIFFICULT_FIRST.compare(difficulty, selected.peek()) > 0) {
+                selected.poll();
+                selected.add(difficulty);
+            }
+        }
+        currentCardId = null;
+        currentLapses = 0;
+        currentFailures = 0;
+        currentLastFailureDate = null;
+        previousRecalled.clear();
+    }
+}
@@ -0,0 +1,210 @@
+package gutek.domain.analytics;
+
+import gutek.domain.revisions.RevisionLogEntry;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Aggregates a stream of recorded revisions into {@link RetentionStatistics}.
+ * <p>
+ * The revisions have to arrive ordered by card and revision date, as returned by the revision repository,
+ * so only the state of the current card is kept and the revisions can be consumed from a forward-only cursor.
+ * Revisions before the start date are used only to determine the interval and the outcome of the previous
+ * review; only the revisions from the start date onwards are counted. Entries with missing data are skipped.
+ * Whether a revision was recalled is decided by the failed revision test of the algorithm of the deck.
+ * </p>
+ * <p>
+ * An accumulator is not thread-safe; statistics of several decks are computed by separate accumulators
+ * and merged afterwards.
+ * </p>
+ */
+public class RetentionAccumulator implements Consumer<RevisionLogEntry> {
+
+    /** First day whose revisions are counted, or {@code null} to count all revisions. */
+    private final LocalDate since;
+
+    /** Test of the pressed button indexes failing a revision. */
+    private final IntPredicate failedRevision;
+
+    /** Number of counted reviews in every interval bucket. */
+    private final int[] intervalReviews = new int[RetentionStatistics.INTERVAL_BUCKET_STARTS.length];
+
+    /** Number of counted recalled reviews in every interval bucket. */
+    private final int[] intervalRecalls = new int[RetentionStatistics.INTERVAL_BUCKET_STARTS.length];
+
+    /** Number of counted reviews by interval in days. */
+    private final int[] curveReviews = new int[RetentionStatistics.FORGETTING_CURVE_DAYS + 1];
+
+    /** Number of counted recalled reviews by interval in days. */
+    private final int[] curveRecalls = new int[RetentionStatistics.FORGETTING_CURVE_DAYS + 1];
+
+    /** Number of finished cards by their number of lapses. */
+    private final int[] cardsByLapses = new int[RetentionStatistics.LEECH_LAPSES + 1];
+
+    /** Number of counted reviews following a recalled review. */
+    private long learnedReviewsCount;
+
+    /** Number of counted lapses. */
+    private long lapsesCount;
+
+    /** Identifiers of the leeches found so far, followed by unused space. */
+    private long[] leechCardIds = new long[8];
+
+    /** Number of the leeches found so far. */
+    private int leechesCount;
+
+    /** Identifier of the card whose revisions are being consumed. */
+    private Long currentCardId;
+
+    /** Whether the current card has a counted revision. */
+    private boolean currentCardCounted;
+
+    /** Number of counted lapses of the current card. */
+    private int currentCardLapses;
+
+    /** Strategies in which the current card was revised; a card is revised in very few strategies. */
+    private String[] strategies = new String[2];
+
+    /** Date of the previous revision of the current card in every strategy. */
+    private LocalDate[] previousDates = new LocalDate[2];
+
+    /** Whether the previous revision of the current card in every strategy was recalled. */
+    private boolean[] previousRecalled = new boolean[2];
+
+    /** Number of strategies in which the current card was revised. */
+    private int strategiesCount;
+
+    /**
+     * Constructs an accumulator counting the revisions from the given day onwards.
+     *
+     * @param since          the first day whose revisions are counted, or {@code null} to count all revisions
+     * @param failedRevision the test of the pressed button indexes failing a revision,
+     *                       e.g. {@link gutek.entities.algorithms.RevisionAlgorithm#isFailedRevision(int)}
+     */
+    public RetentionAccumulator(LocalDate since, IntPredicate failedRevision) {
+        this.since = since;
+        this.failedRevision = failedRevision;
+    }
+
+    /**
+     * Consumes the next revision.
+     *
+     * @param entry the revision, not earlier than the previous revision of the same card
+     */
+    @Override
+    public void accept(RevisionLogEntry entry) {
+        if (entry.cardId() == null || entry.revisionDate() == null || entry.pressedButtonIndex() == null
+                || entry.strategyClassName() == null) {
+            return;
+        }
+        if (!Objects.equals(entry.cardId(), currentCardId)) {
+            finishCard();
+            currentCardId = entry.cardId();
+        }
+
+        boolean recalled = !failedRevision.test(entry.pressedButtonIndex());
+        boolean counted = since == null || !entry.revisionDate().isBefore(since);
+        int strategy = findStrategy(entry.strategyClassName());
+        if (strategy < 0) {
+            addStrategy(entry.strategyClassName(), entry.revisionDate(), recalled);
+            currentCardCounted |= counted;
+            return;
+        }
+
+        if (counted) {
+            currentCardCounted = true;
+            int intervalDays = (int) Math.max(ChronoUnit.DAYS.between(previousDates[strategy], entry.revisionDate()), 0);
+            int bucket = RetentionStatistics.intervalBucket(intervalDays);
+            intervalReviews[bucket]++;
+            if (intervalDays <= RetentionStatistics.FORGETTING_CURVE_DAYS) {
+                curveReviews[intervalDays]++;
+            }
+            if (recalled) {
+                intervalRecalls[bucket]++;
+                if (intervalDays <= RetentionStatistics.FORGETTING_CURVE_DAYS) {
+                    curveRecalls[intervalDays]++;
+                }
+            }
+            if (previousRecalled[strategy]) {
+                learnedReviewsCount++;
+                if (!recalled) {
+                    lapsesCount++;
+                    currentCardLapses++;
+                }
+            }
+        }
+        previousDates[strategy] = entry.revisionDate();
+        previousRecalled[strategy] = recalled;
+    }
+
+    /**
+     * Returns the statistics of all the consumed revisions.
+     * The accumulator should not be used afterwards.
+     *
+     * @return the computed statistics
+     */
+    public RetentionStatistics toStatistics() {
+        finishCard();
+        return new RetentionStatistics(intervalReviews.clone(), intervalRecalls.clone(), curveReviews.clone(),
+                curveRecalls.clone(), cardsByLapses.clone(), learnedReviewsCount, lapsesCount,
+                Arrays.copyOf(leechCardIds, leechesCount));
+    }
+
+    /**
+     * Counts the lapses of the current card and clears its state.
+     */
+    private void finishCard() {
+        if (currentCardId != null && currentCardCounted) {
+            cardsByLapses[Math.min(currentCardLapses, RetentionStatistics.LEECH_LAPSES)]++;
+            if (currentCardLapses >= RetentionStatistics.LEECH_LAPSES) {
+                if (leechesCount == leechCardIds.length) {
+                    leechCardIds = Arrays.copyOf(leechCardIds, leechesCount * 2);
+                }
+                leechCardIds[leechesCount++] = currentCardId;
+            }
+        }
+        currentCardId = null;
+        currentCardCounted = false;
+        currentCardLapses = 0;
+        strategiesCount = 0;
+    }
+
+    /**
+     * Finds the strategy among the strategies of the current card.
+     *
+     * @param strategyClassName the class name of the strategy
+     * @return the index of the strategy, or -1 if the card was not revised in it yet
+     */
+    private int findStrategy(String strategyClassName) {
+        for (int i = 0; i < strategiesCount; i++) {
+            if (strategies[i].equals(strategyClassName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the first revision of the current card in a strategy.
+     *
+     * @param strategyClassName the class name of the strategy
+     * @param revisionDate      the date of the revision
+     * @param recalled          whether the card was recalled
+     */
+    private void addStrategy(String strategyClassName, LocalDate revisionDate, boolean recalled) {
+        if (strategiesCount == strategies.length) {
+            strategies = Arrays.copyOf(strategies, strategiesCount * 2);
+            previousDates = Arrays.copyOf(previousDates, strategiesCount * 2);
+            previousRecalled = Arrays.copyOf(previousRecalled, strategiesCount * 2);
+        }
+        strategies[strategiesCount] = strategyClassName;
+        previousDates[strategiesCount] = revisionDate;
+        previousRecalled[strategiesCount] = recalled;
+        strategiesCount++;
+    }
+}
@@ -0,0 +1,259 @@
+package gutek.domain.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Retention statistics computed from the revision history of one or more decks.
+ * <p>
+ * A review is <i>recalled</i> if the pressed button does not fail it in the algorithm of the deck: any button other
+ * than the first one (repeat / again), or in SuperMemo2 any button of grade 3 or more.
+ * The interval of a review is the number of days since the previous review of the same card in the same
+ * revision strategy; the first review of a card in a strategy has no interval and is not counted in the
+ * histograms. A <i>lapse</i> is a review which was not recalled although the previous one was, and a card
+ * with at least {@link #LEECH_LAPSES} lapses is a <i>leech</i>.
+ * </p>
+ * <p>
+ * All histograms are primitive arrays indexed by interval bucket, elapsed day or lapse count,
+ * so statistics of several decks can be cheaply combined with {@link #merge(RetentionStatistics, RetentionStatistics)}.
+ * </p>
+ */
+public final class RetentionStatistics {
+
+    /**
+     * Lowest interval, in days, of every interval bucket. The last bucket has no upper bound.
+     */
+    public static final int[] INTERVAL_BUCKET_STARTS = {0, 1, 2, 3, 5, 8, 15, 31, 61, 121, 241};
+
+    /**
+     * Longest interval, in days, included in the forgetting curve.
+     */
+    public static final int FORGETTING_CURVE_DAYS = 365;
+
+    /**
+     * Number of lapses making a card a leech.
+     */
+    public static final int LEECH_LAPSES = 8;
+
+    /** Number of reviews in every interval bucket. */
+    private final int[] intervalReviews;
+
+    /** Number of recalled reviews in every interval bucket. */
+    private final int[] intervalRecalls;
+
+    /** Number of reviews by interval in days, up to {@link #FORGETTING_CURVE_DAYS}. */
+    private final int[] curveReviews;
+
+    /** Number of recalled reviews by interval in days, up to {@link #FORGETTING_CURVE_DAYS}. */
+    private final int[] curveRecalls;
+
+    /** Number of reviewed cards by their number of lapses; the last element counts the leeches. */
+    private final int[] cardsByLapses;
+
+    /** Number of reviews following a recalled review, i.e. the reviews which could have been lapses. */
+    private final long learnedReviewsCount;
+
+    /** Number of lapses. */
+    private final long lapsesCount;
+
+    /** Identifiers of the leeches. */
+    private final long[] leechCardIds;
+
+    /**
+     * Constructs statistics from prepared histograms. The arrays are not copied.
+     *
+     * @param intervalReviews     number of reviews in every interval bucket
+     * @param intervalRecalls     number of recalled reviews in every interval bucket
+     * @param curveReviews        number of reviews by interval in days
+     * @param curveRecalls        number of recalled reviews by interval in days
+     * @param cardsByLapses       number of reviewed cards by their number of lapses
+     * @param learnedReviewsCount number of reviews following a recalled review
+     * @param lapsesCount         number of lapses
+     * @param leechCardIds        identifiers of the leeches
+     * @throws IllegalArgumentException if any histogram has a wrong length
+     */
+    RetentionStatistics(int[] intervalReviews, int[] intervalRecalls, int[] curveReviews, int[] curveRecalls,
+                        int[] cardsByLapses, long learnedReviewsCount, long lapsesCount, long[] leechCardIds) {
+        if (intervalReviews.length != INTERVAL_BUCKET_STARTS.length || intervalRecalls.length != INTERVAL_BUCKET_STARTS.length
+                || curveReviews.length != FORGETTING_CURVE_DAYS + 1 || curveRecalls.length != FORGETTING_CURVE_DAYS + 1
+                || cardsByLapses.length != LEECH_LAPSES + 1) {
+            throw new IllegalArgumentException("Histograms have wrong lengths");
+        }
+        this.intervalReviews = intervalReviews;
+        this.intervalRecalls = intervalRecalls;
+        this.curveReviews = curveReviews;
+        this.curveRecalls = curveRecalls;
+        this.cardsByLapses = cardsByLapses;
+        this.learnedReviewsCount = learnedReviewsCount;
+        this.lapsesCount = lapsesCount;
+        this.leechCardIds = leechCardIds;
+    }
+
+    /**
+     * Returns statistics of an empty revision history.
+     *
+     * @return the empty statistics
+     */
+    public static RetentionStatistics empty() {
+        return new RetentionStatistics(new int[INTERVAL_BUCKET_STARTS.length], new int[INTERVAL_BUCKET_STARTS.length],
+                new int[FORGETTING_CURVE_DAYS + 1], new int[FORGETTING_CURVE_DAYS + 1], new int[LEECH_LAPSES + 1],
+                0, 0, new long[0]);
+    }
+
+    /**
+     * Combines the statistics of two disjoint sets of cards, e.g. two decks.
+     *
+     * @param first  the first statistics
+     * @param second the second statistics
+     * @return the combined statistics
+     */
+    public static RetentionStatistics merge(RetentionStatistics first, RetentionStatistics second) {
+        long[] leeches = Arrays.copyOf(first.leechCardIds, first.leechCardIds.length + second.leechCardIds.length);
+        System.arraycopy(second.leechCardIds, 0, leeches, first.leechCardIds.length, second.leechCardIds.length);
+        return new RetentionStatistics(sum(first.intervalReviews, second.intervalReviews),
+                sum(first.intervalRecalls, second.intervalRecalls),
+                sum(first.curveReviews, second.curveReviews),
+                sum(first.curveRecalls, second.curveRecalls),
+                sum(first.cardsByLapses, second.cardsByLapses),
+                first.learnedReviewsCount + second.learnedReviewsCount,
+                first.lapsesCount + second.lapsesCount,
+                leeches);
+    }
+
+    /**
+     * Finds the interval bucket containing the given interval.
+     *
+     * @param intervalDays the interval in days, not negative
+     * @return the index of the bucket in {@link #INTERVAL_BUCKET_STARTS}
+     */
+    public static int intervalBucket(int intervalDays) {
+        int bucket = Arrays.binarySearch(INTERVAL_BUCKET_STARTS, intervalDays);
+        return bucket >= 0 ? bucket : -bucket - 2;
+    }
+
+    /**
+     * Returns the label of the interval bucket, e.g. {@code 3-4} or {@code 241+}.
+     *
+     * @param bucket the index of the bucket
+     * @return the label of the bucket
+     */
+    public static String intervalBucketLabel(int bucket) {
+        int start = INTERVAL_BUCKET_STARTS[bucket];
+        if (bucket == INTERVAL_BUCKET_STARTS.length - 1) {
+            return start + "+";
+        }
+        int end = INTERVAL_BUCKET_STARTS[bucket + 1] - 1;
+        return start == end ? String.valueOf(start) : start + "-" + end;
+    }
+
+    /**
+     * Returns the number of reviews in the interval bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the number of reviews
+     */
+    public int getIntervalReviews(int bucket) {
+        return intervalReviews[bucket];
+    }
+
+    /**
+     * Returns the fraction of recalled reviews in the interval bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the retention rate between 0 and 1, or {@link Double#NaN} if the bucket has no reviews
+     */
+    public double getIntervalRetention(int bucket) {
+        return rate(intervalRecalls[bucket], intervalReviews[bucket]);
+    }
+
+    /**
+     * Returns the number of reviews with the given interval.
+     *
+     * @param intervalDays the interval in days, up to {@link #FORGETTING_CURVE_DAYS}
+     * @return the number of reviews
+     */
+    public int getCurveReviews(int intervalDays) {
+        return curveReviews[intervalDays];
+    }
+
+    /**
+     * Returns the fraction of recalled reviews with the given interval, i.e. a point of the forgetting curve.
+     *
+     * @param intervalDays the interval in days, up to {@link #FORGETTING_CURVE_DAYS}
+     * @return the retention rate between 0 and 1, or {@link Double#NaN} if there are no reviews with the interval
+     */
+    public double getCurveRetention(int intervalDays) {
+        return rate(curveRecalls[intervalDays], curveReviews[intervalDays]);
+    }
+
+    /**
+     * Returns the number of reviewed cards with the given number of lapses.
+     *
+     * @param lapses the number of lapses; {@link #LEECH_LAPSES} counts all the leeches
+     * @return the number of cards
+     */
+    public int getCardsWithLapses(int lapses) {
+        return cardsByLapses[Math.min(lapses, LEECH_LAPSES)];
+    }
+
+    /**
+     * Returns the number of reviews which could have been lapses, i.e. the reviews following a recalled review.
+     *
+     * @return the number of reviews
+     */
+    public long getLearnedReviewsCount() {
+        return learnedReviewsCount;
+    }
+
+    /**
+     * Returns the number of lapses.
+     *
+     * @return the number of lapses
+     */
+    public long getLapsesCount() {
+        return lapsesCount;
+    }
+
+    /**
+     * Returns the fraction of reviews following a recalled review which were lapses.
+     *
+     * @return the lapse rate between 0 and 1, or {@link Double#NaN} if there were no such reviews
+     */
+    public double getLapseRate() {
+        return rate(lapsesCount, learnedReviewsCount);
+    }
+
+    /**
+     * Returns the identifiers of the leeches.
+     *
+     * @return a copy of the identifiers, in the order in which the cards were processed
+     */
+    public long[] getLeechCardIds() {
+        return leechCardIds.clone();
+    }
+
+    /**
+     * Divides the number of successes by the number of trials.
+     *
+     * @param successes the number of successes
+     * @param trials    the number of trials
+     * @return the rate, or {@link Double#NaN} if there were no trials
+     */
+    private static double rate(long successes, long trials) {
+        return trials == 0 ? Double.NaN : (double) successes / trials;
+    }
+
+    /**
+     * Adds two histograms element by element.
+     *
+     * @param first  the first histogram
+     * @param second the second histogram, of the same length
+     * @return the sum of the histograms
+     */
+    private static int[] sum(int[] first, int[] second) {
+        int[] result = first.clone();
+        for (int i = 0; i < result.length; i++) {
+            result[i] += second[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+package gutek.domain.analytics;
+
+import gutek.domain.revisions.RevisionLogEntry;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * Rebuilds the daily counters of {@link gutek.entities.decks.DeckBaseStatistics} from the revision log of a deck.
+ * <p>
+ * The revisions have to be consumed grouped by card and ordered by date within a card, as returned by
+ * {@link gutek.repositories.CardBaseRevisionRepository#streamRevisionLogByDeckId(Long)}, so the first revision
+ * of a card is recognised by the change of the card identifier and the memory used does not depend on the size
+ * of the log. Like the stored counters, index 0 of every rebuilt array is today.
+ * </p>
+ * <p>
+ * The revision counts are incremented by the revision views only when the revision of a card is finished,
+ * so the revisions which leave the card to be repeated in the same session (e.g. the repeat button of the
+ * Constant Coefficient algorithm) are not counted either. The cards revised for the first time are counted
+ * on the first revision of a card, finished or not.
+ * </p>
+ */
+public class StatisticsAccumulator implements Consumer<RevisionLogEntry> {
+
+    /** Day counted at index 0 of the arrays. */
+    private final LocalDate today;
+
+    /** Indexes of the revision strategies of the deck by their simple class names. */
+    private final Map<String, Integer> strategyIndexes;
+
+    /** Rule telling whether a revision with the given strategy index and pressed button index is finished. */
+    private final BiPredicate<Integer, Integer> finishedRevision;
+
+    /** Number of cards revised for the first time by the number of days ago. */
+    private final int[] revisedForTheFirstTime;
+
+    /** Number of revisions by the strategy index and the number of days ago. */
+    private final int[][] revisionCounts;
+
+    /** Identifier of the card whose revisions are being consumed. */
+    private Long currentCardId;
+
+    /** Number of consumed revisions. */
+    private long revisionsCount;
+
+    /** Number of consumed revisions whose strategy is not available in the deck. */
+    private long unknownStrategyCount;
+
+    /**
+     * Constructs an accumulator of the counters ending on the given day.
+     *
+     * @param today           the day counted at index 0 of the arrays
+     * @param strategyIndexes the indexes of the revision strategies of the deck by their simple class names
+     * @param range           the length of the arrays
+     * @param finishedRevision rule telling whether a revision with the given strategy index and pressed button
+     *                         index finishes the revision of the card, e.g. {@code RevisionAlgorithm::finishesRevision}
+     */
+    public StatisticsAccumulator(LocalDate today, Map<String, Integer> strategyIndexes, int range,
+                                 BiPredicate<Integer, Integer> finishedRevision) {
+        this.today = today;
+        this.strategyIndexes = strategyIndexes;
+        this.finishedRevision = finishedRevision;
+        this.revisedForTheFirstTime = new int[range];
+        int strategiesCount = strategyIndexes.values().stream().mapToInt(index -> index + 1).max().orElse(0);
+        this.revisionCounts = new int[strategiesCount][range];
+    }
+
+    /**
+     * Counts a single revision.
+     *
+     * @param entry the revision, consumed after the earlier revisions of the same card
+     */
+    @Override
+    public void accept(RevisionLogEntry entry) {
+        revisionsCount++;
+        boolean firstRevision = !entry.cardId().equals(currentCardId);
+        currentCardId = entry.cardId();
+
+        long daysAgo = ChronoUnit.DAYS.between(entry.revisionDate(), today);
+        boolean inRange = daysAgo >= 0 && daysAgo < revisedForTheFirstTime.length;
+        if (firstRevision && inRange) {
+            revisedForTheFirstTime[(int) daysAgo]++;
+        }
+        Integer strategyIndex = strategyIndexes.get(entry.strategyClassName());
+        if (strategyIndex == null) {
+            unknownStrategyCount++;
+        } else if (inRange && finishedRevision.test(strategyIndex, entry.pressedButtonIndex())) {
+            revisionCounts[strategyIndex][(int) daysAgo]++;
+        }
+    }
+
+    /**
+     * Returns the rebuilt number of cards revised for the first time.
+     *
+     * @return a copy of the counts by the number of days ago
+     */
+    public int[] getRevisedForTheFirstTime() {
+        return revisedForTheFirstTime.clone();
+    }
+
+    /**
+     * Returns the rebuilt number of revisions in a strategy.
+     *
+     * @param strategyIndex the index of the revision strategy
+     * @return a copy of the counts by the number of days ago
+     */
+    public int[] getRevisionCounts(int strategyIndex) {
+        return strategyIndex < revisionCounts.length
+                ? revisionCounts[strategyIndex].clone()
+                : new int[revisedForTheFirstTime.length];
+    }
+
+    /**
+     * Returns the number of revision strategies with rebuilt counts.
+     *
+     * @return the number of strategies
+     */
+    public int getStrategiesCount() {
+        return revisionCounts.length;
+    }
+
+    /**
+     * Returns the number of consumed revisions.
+     *
+     * @return the number of revisions
+     */
+    public long getRevisionsCount() {
+        return revisionsCount;
+    }
+
+    /**
+     * Returns the number of consumed revisions whose strategy is not available in the deck. Such revisions
+     * only count towards the cards revised for the first time.
+     *
+     * @return the number of revisions with an unknown strategy
+     */
+    public long getUnknownStrategyCount() {
+        return unknownStrategyCount;
+    }
+
+    /**
+     * Lists the differences between the stored and the rebuilt counts.
+     *
+     * @param deckId        the identifier of the deck
+     * @param strategyIndex the index of the revision strategy, or {@code null} for the cards revised for the first time
+     * @param stored        the stored counts, may be {@code null} or shorter than the rebuilt counts
+     * @param rebuilt       the rebuilt counts
+     * @return the differences, in the order of the days
+     */
+    public static StatisticsDifference[] compare(Long deckId, Integer strategyIndex, int[] stored, int[] rebuilt) {
+        StatisticsDifference[] differences = new StatisticsDifference[rebuilt.length];
+        int differencesCount = 0;
+        for (int daysAgo = 0; daysAgo < rebuilt.length; daysAgo++) {
+            int storedCount = stored != null && daysAgo < stored.length ? stored[daysAgo] : 0;
+            if (storedCount != rebuilt[daysAgo]) {
+                differences[differencesCount++] = new StatisticsDifference(deckId, strategyIndex, daysAgo, storedCount, rebuilt[daysAgo]);
+            }
+        }
+        return Arrays.copyOf(differences, differencesCount);
+    }
+}
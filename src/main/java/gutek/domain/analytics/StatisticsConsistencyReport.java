@@ -0,0 +1,113 @@
+package gutek.domain.analytics;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of checking the stored deck statistics against the revision log.
+ * <p>
+ * Reports of single decks are combined with {@link #merge(StatisticsConsistencyReport, StatisticsConsistencyReport)}.
+ * </p>
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class StatisticsConsistencyReport {
+
+    /** Number of checked decks. */
+    private final int decksCount;
+
+    /** Number of decks whose statistics were overwritten with the rebuilt counters. */
+    private final int repairedDecksCount;
+
+    /** Number of read revisions. */
+    private final long revisionsCount;
+
+    /** Number of read revisions whose strategy is not available in their deck. */
+    private final long unknownStrategyCount;
+
+    /** Days on which the stored counters differ from the rebuilt ones. */
+    private final List<StatisticsDifference> differences;
+
+    /**
+     * Creates a report of no decks.
+     *
+     * @return the empty report
+     */
+    public static StatisticsConsistencyReport empty() {
+        return new StatisticsConsistencyReport(0, 0, 0, 0, List.of());
+    }
+
+    /**
+     * Creates the report of a single deck.
+     *
+     * @param accumulator the accumulator which consumed the revision log of the deck
+     * @param differences the differences found in the deck
+     * @param repaired    whether the statistics of the deck were overwritten
+     * @return the report of the deck
+     */
+    public static StatisticsConsistencyReport ofDeck(StatisticsAccumulator accumulator, List<StatisticsDifference> differences,
+                                                     boolean repaired) {
+        return new StatisticsConsistencyReport(1, repaired ? 1 : 0, accumulator.getRevisionsCount(),
+                accumulator.getUnknownStrategyCount(), List.copyOf(differences));
+    }
+
+    /**
+     * Combines the reports of disjoint sets of decks.
+     *
+     * @param first  the first report
+     * @param second the second report
+     * @return the combined report
+     */
+    public static StatisticsConsistencyReport merge(StatisticsConsistencyReport first, StatisticsConsistencyReport second) {
+        List<StatisticsDifference> differences = new ArrayList<>(first.differences.size() + second.differences.size());
+        differences.addAll(first.differences);
+        differences.addAll(second.differences);
+        return new StatisticsConsistencyReport(first.decksCount + second.decksCount,
+                first.repairedDecksCount + second.repairedDecksCount, first.revisionsCount + second.revisionsCount,
+                first.unknownStrategyCount + second.unknownStrategyCount, List.copyOf(differences));
+    }
+
+    /**
+     * Indicates whether the stored counters of all checked decks match the revision log.
+     *
+     * @return {@code true} if no differences were found
+     */
+    public boolean isConsistent() {
+        return differences.isEmpty();
+    }
+
+    /**
+     * Computes the total difference between the rebuilt and the stored counters.
+     *
+     * @return the sum of the rebuilt counts minus the sum of the stored counts over all differences
+     */
+    public long getMissingCount() {
+        return differences.stream().mapToLong(difference -> difference.rebuiltCount() - difference.storedCount()).sum();
+    }
+
+    /**
+     * Lists the differences found in a single deck.
+     *
+     * @param deckId the identifier of the deck
+     * @return the differences of the deck
+     */
+    public List<StatisticsDifference> getDifferences(Long deckId) {
+        return differences.stream().filter(difference -> difference.deckId().equals(deckId)).toList();
+    }
+
+    /**
+     * Summarises the differences for logging.
+     *
+     * @return a single-line summary of the report
+     */
+    @Override
+    public String toString() {
+        return "StatisticsConsistencyReport{decks=" + decksCount + ", repaired=" + repairedDecksCount
+                + ", revisions=" + revisionsCount + ", unknownStrategy=" + unknownStrategyCount
+                + ", differences=" + differences.size() + ", missing=" + getMissingCount() + "}";
+    }
+}
@@ -0,0 +1,13 @@
+package gutek.domain.analytics;
+
+/**
+ * Single day on which a stored counter of the deck statistics differs from the counter rebuilt from the revision log.
+ *
+ * @param deckId        the identifier of the deck
+ * @param strategyIndex the index of the revision strategy, or {@code null} for the cards revised for the first time
+ * @param daysAgo       the number of days before today
+ * @param storedCount   the stored value of the counter
+ * @param rebuiltCount  the value of the counter rebuilt from the revision log
+ */
+public record StatisticsDifference(Long deckId, Integer strategyIndex, int daysAgo, int storedCount, int rebuiltCount) {
+}
@@ -0,0 +1,16 @@
+/**
+ * Provides classes for analysing the revision history of the cards.
+ * <p>
+ * This package contains the accumulator aggregating a stream of recorded revisions into primitive histograms,
+ * and the resulting retention statistics: retention rates by interval, forgetting curves, lapse rates and leeches.
+ * </p>
+ * <p>
+ * It also contains the accumulator rebuilding the daily counters of the deck statistics from the revision log,
+ * and the report of the differences between the stored and the rebuilt counters.
+ * </p>
+ * <p>
+ * The difficulty of a card is measured by its lapses and failed revisions; the bounded selection of the most
+ * difficult cards of a deck backs the index listing the hardest cards and leeches.
+ * </p>
+ */
+package gutek.domain.analytics;
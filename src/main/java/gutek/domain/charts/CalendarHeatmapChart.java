@@ -0,0 +1,95 @@
+package gutek.domain.charts;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.chart.Chart;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+
+/**
+ * Calendar heatmap of a daily series, drawn onto a single canvas by a {@link CalendarHeatmapPainter}.
+ * <p>
+ * Like {@link CanvasBarChart}, the chart consists of a constant number of nodes regardless of the number of days.
+ * Hovering a day highlights it and shows its date and value in a tooltip.
+ * </p>
+ */
+public class CalendarHeatmapChart extends Chart {
+
+    /** Offset of the tooltip from the mouse cursor. */
+    private static final double TOOLTIP_OFFSET = 12;
+
+    /** Canvas the chart is drawn onto. */
+    private final Canvas canvas = new Canvas();
+
+    /** Tooltip showing the value of the hovered day. */
+    private final Tooltip tooltip = new Tooltip();
+
+    /** Painter drawing the series onto the canvas. */
+    private final CalendarHeatmapPainter painter;
+
+    /** Index of the hovered day, or -1 if no day is hovered. */
+    private int hoveredIndex = -1;
+
+    /**
+     * Constructs a chart displaying the given series.
+     *
+     * @param data the series to display, labelled with ISO dates of consecutive days
+     */
+    public CalendarHeatmapChart(ChartData data) {
+        this.painter = new CalendarHeatmapPainter(data);
+        setLegendVisible(false);
+        getChartChildren().add(canvas);
+        canvas.addEventHandler(MouseEvent.MOUSE_MOVED, this::onMouseMoved);
+        canvas.addEventHandler(MouseEvent.MOUSE_EXITED, event -> hover(-1, event));
+    }
+
+    /**
+     * Resizes the canvas to the content area of the chart and redraws it.
+     *
+     * @param top    the top of the content area
+     * @param left   the left of the content area
+     * @param width  the width of the content area
+     * @param height the height of the content area
+     */
+    @Override
+    protected void layoutChartChildren(double top, double left, double width, double height) {
+        canvas.relocate(left, top);
+        canvas.setWidth(Math.max(width, 0));
+        canvas.setHeight(Math.max(height, 0));
+        redraw();
+    }
+
+    /**
+     * Redraws the whole canvas.
+     */
+    private void redraw() {
+        painter.paint(canvas.getGraphicsContext2D(), canvas.getWidth(), canvas.getHeight(), hoveredIndex);
+    }
+
+    /**
+     * Highlights the day under the mouse cursor.
+     *
+     * @param event the mouse event
+     */
+    private void onMouseMoved(MouseEvent event) {
+        hover(painter.indexAt(event.getX(), event.getY(), canvas.getWidth(), canvas.getHeight()), event);
+    }
+
+    /**
+     * Highlights the given day and shows its value in the tooltip, or hides the tooltip if no day is hovered.
+     *
+     * @param index the index of the hovered day, or -1
+     * @param event the mouse event
+     */
+    private void hover(int index, MouseEvent event) {
+        if (index < 0) {
+            tooltip.hide();
+        } else {
+            tooltip.setText(painter.getDate(index) + ": " + painter.getValue(index));
+            tooltip.show(canvas, event.getScreenX() + TOOLTIP_OFFSET, event.getScreenY() + TOOLTIP_OFFSET);
+        }
+        if (index != hoveredIndex) {
+            hoveredIndex = index;
+            redraw();
+        }
+    }
+}
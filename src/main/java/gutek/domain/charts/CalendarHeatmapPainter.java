@@ -0,0 +1,249 @@
+package gutek.domain.charts;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * Draws a daily series as a calendar heatmap onto a canvas and maps canvas coordinates back to the days.
+ * <p>
+ * Every week is a column and every day of the week a row, starting with Monday. The color of a cell
+ * shows the value of the day relative to the highest value of the series, in {@value #LEVELS} levels.
+ * The first day of the series is parsed from its label, the following days are consecutive.
+ * </p>
+ */
+public class CalendarHeatmapPainter {
+
+    /** Space on the left of the grid, for the weekday labels. */
+    static final double LEFT_MARGIN = 30;
+
+    /** Space on the right of the grid. */
+    static final double RIGHT_MARGIN = 10;
+
+    /** Space above the grid, for the month labels. */
+    static final double TOP_MARGIN = 20;
+
+    /** Space below the grid. */
+    static final double BOTTOM_MARGIN = 10;
+
+    /** Number of days in a column. */
+    static final int DAYS_IN_WEEK = 7;
+
+    /** Number of color levels of the days with a positive value. */
+    static final int LEVELS = 4;
+
+    /** Fraction of a cell left empty between neighbouring cells. */
+    private static final double CELL_GAP = 0.15;
+
+    /** Font of the labels. */
+    private static final Font LABEL_FONT = Font.font(10);
+
+    /** Color of the days without any value. */
+    private static final Color EMPTY_COLOR = Color.web("#ebedf0");
+
+    /** Colors of the levels, from the lowest to the highest one, ending with the default color of the bar charts. */
+    private static final Color[] LEVEL_COLORS = {
+            Color.web("#fdd9cb"), Color.web("#f9ab8d"), Color.web("#f6845c"), Color.web("#f3622d")};
+
+    /** Color of the outline of the highlighted cell. */
+    private static final Color HIGHLIGHT_COLOR = Color.web("#333333");
+
+    /** Color of the labels. */
+    private static final Color TEXT_COLOR = Color.web("#333333");
+
+    /** First day of the series. */
+    private final LocalDate firstDay;
+
+    /** Values of the days. */
+    private final int[] values;
+
+    /** Highest value of the series. */
+    private final int maxValue;
+
+    /** Row of the first day, 0 being Monday. */
+    private final int firstRow;
+
+    /** Number of week columns. */
+    private final int columnsCount;
+
+    /**
+     * Constructs a painter of the given series.
+     *
+     * @param data the series to draw, labelled with ISO dates of consecutive days; only the first label is parsed
+     * @throws java.time.format.DateTimeParseException if the series is not empty and its first label is not an ISO date
+     */
+    public CalendarHeatmapPainter(ChartData data) {
+        this.values = data.values().clone();
+        this.firstDay = values.length == 0 ? LocalDate.EPOCH : LocalDate.parse(data.labels()[0]);
+        this.firstRow = firstDay.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue();
+        this.columnsCount = values.length == 0 ? 0 : Math.ceilDiv(firstRow + values.length, DAYS_IN_WEEK);
+        int max = 0;
+        for (int value : values) {
+            max = Math.max(max, value);
+        }
+        this.maxValue = max;
+    }
+
+    /**
+     * Returns the number of days.
+     *
+     * @return the number of days
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the number of week columns.
+     *
+     * @return the number of columns
+     */
+    public int getColumnsCount() {
+        return columnsCount;
+    }
+
+    /**
+     * Returns the date of the day with the given index.
+     *
+     * @param index the index of the day
+     * @return the date of the day
+     */
+    public LocalDate getDate(int index) {
+        return firstDay.plusDays(index);
+    }
+
+    /**
+     * Returns the value of the day with the given index.
+     *
+     * @param index the index of the day
+     * @return the value of the day
+     */
+    public int getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns the color level of the day with the given index.
+     *
+     * @param index the index of the day
+     * @return 0 for days without any value, otherwise a level from 1 to {@value #LEVELS}
+     */
+    public int getLevel(int index) {
+        return level(values[index], maxValue);
+    }
+
+    /**
+     * Finds the day whose cell contains the given point.
+     *
+     * @param x      the x coordinate of the point
+     * @param y      the y coordinate of the point
+     * @param width  the width of the canvas
+     * @param height the height of the canvas
+     * @return the index of the day, or -1 if the point lies outside the cells of the series
+     */
+    public int indexAt(double x, double y, double width, double height) {
+        double cellSize = cellSize(width, height);
+        if (cellSize <= 0 || x < LEFT_MARGIN || y < TOP_MARGIN) {
+            return -1;
+        }
+        int column = (int) ((x - LEFT_MARGIN) / cellSize);
+        int row = (int) ((y - TOP_MARGIN) / cellSize);
+        if (column >= columnsCount || row >= DAYS_IN_WEEK) {
+            return -1;
+        }
+        int index = column * DAYS_IN_WEEK + row - firstRow;
+        return index >= 0 && index < values.length ? index : -1;
+    }
+
+    /**
+     * Draws the heatmap onto the whole canvas.
+     *
+     * @param graphics         the graphics context of the canvas
+     * @param width            the width of the canvas
+     * @param height           the height of the canvas
+     * @param highlightedIndex the index of the day to highlight, or -1
+     */
+    public void paint(GraphicsContext graphics, double width, double height, int highlightedIndex) {
+        graphics.clearRect(0, 0, width, height);
+        double cellSize = cellSize(width, height);
+        if (cellSize <= 0) {
+            return;
+        }
+        double gap = Math.max(cellSize * CELL_GAP, 1);
+        double fillSize = Math.max(cellSize - gap, 1);
+
+        graphics.setFont(LABEL_FONT);
+        graphics.setFill(TEXT_COLOR);
+        graphics.setTextBaseline(VPos.CENTER);
+        graphics.setTextAlign(TextAlignment.RIGHT);
+        for (int row = 0; row < DAYS_IN_WEEK; row += 2) {
+            String weekday = DayOfWeek.MONDAY.plus(row).getDisplayName(TextStyle.SHORT, Locale.getDefault());
+            graphics.fillText(weekday, LEFT_MARGIN - 4, TOP_MARGIN + (row + 0.5) * cellSize);
+        }
+        graphics.setTextAlign(TextAlignment.LEFT);
+        graphics.setTextBaseline(VPos.BOTTOM);
+        for (int index = 0; index < values.length; index++) {
+            LocalDate date = getDate(index);
+            if (index == 0 || date.getDayOfMonth() == 1) {
+                int column = (firstRow + index) / DAYS_IN_WEEK;
+                graphics.fillText(date.getMonth().getDisplayName(TextStyle.SHORT, Locale.getDefault()),
+                        LEFT_MARGIN + column * cellSize, TOP_MARGIN - 2);
+            }
+        }
+
+        for (int level = 0; level <= LEVELS; level++) {
+            graphics.setFill(level == 0 ? EMPTY_COLOR : LEVEL_COLORS[level - 1]);
+            for (int index = 0; index < values.length; index++) {
+                if (getLevel(index) == level) {
+                    int cell = firstRow + index;
+                    graphics.fillRect(LEFT_MARGIN + (cell / DAYS_IN_WEEK) * cellSize, TOP_MARGIN + (cell % DAYS_IN_WEEK) * cellSize,
+                            fillSize, fillSize);
+                }
+            }
+        }
+        if (highlightedIndex >= 0 && highlightedIndex < values.length) {
+            int cell = firstRow + highlightedIndex;
+            graphics.setStroke(HIGHLIGHT_COLOR);
+            graphics.setLineWidth(1);
+            graphics.strokeRect(LEFT_MARGIN + (cell / DAYS_IN_WEEK) * cellSize + 0.5, TOP_MARGIN + (cell % DAYS_IN_WEEK) * cellSize + 0.5,
+                    fillSize - 1, fillSize - 1);
+        }
+    }
+
+    /**
+     * Computes the size of a square cell, including the gap, so that the whole grid fits onto the canvas.
+     *
+     * @param width  the width of the canvas
+     * @param height the height of the canvas
+     * @return the size of a cell, not positive if nothing can be drawn
+     */
+    private double cellSize(double width, double height) {
+        if (columnsCount == 0) {
+            return 0;
+        }
+        double plotWidth = width - LEFT_MARGIN - RIGHT_MARGIN;
+        double plotHeight = height - TOP_MARGIN - BOTTOM_MARGIN;
+        return Math.min(plotWidth / columnsCount, plotHeight / DAYS_IN_WEEK);
+    }
+
+    /**
+     * Chooses the color level of a value.
+     *
+     * @param value    the value of a day
+     * @param maxValue the highest value of the series
+     * @return 0 for non-positive values, otherwise the level from 1 to {@value #LEVELS} proportional to the value
+     */
+    static int level(int value, int maxValue) {
+        if (value <= 0 || maxValue <= 0) {
+            return 0;
+        }
+        return Math.max(1, (int) Math.ceil((double) value * LEVELS / maxValue));
+    }
+}
@@ -0,0 +1,230 @@
+package gutek.domain.charts;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Draws a bar series onto a canvas and maps canvas coordinates back to the bars.
+ * <p>
+ * The series is copied into primitive arrays and the scale of the value axis is computed once on construction,
+ * so a redraw only issues drawing commands: the bars are filled as a single path, and only the category labels
+ * which fit next to each other are drawn.
+ * </p>
+ */
+public class CanvasBarPainter {
+
+    /** Space on the left of the plot, for the value axis labels. */
+    static final double LEFT_MARGIN = 50;
+
+    /** Space on the right of the plot. */
+    static final double RIGHT_MARGIN = 10;
+
+    /** Space above the plot, for the value axis title. */
+    static final double TOP_MARGIN = 20;
+
+    /** Space below the plot, for the category labels and the category axis title. */
+    static final double BOTTOM_MARGIN = 40;
+
+    /** Minimal horizontal space needed by a category label. */
+    private static final double LABEL_WIDTH = 40;
+
+    /** Fraction of a category slot filled by its bar. */
+    private static final double BAR_FILL = 0.8;
+
+    /** Approximate number of value axis ticks. */
+    private static final int TICKS = 5;
+
+    /** Font size of the labels. The font is created when painting, so the class can be used without the JavaFX toolkit. */
+    private static final double LABEL_FONT_SIZE = 11;
+
+    /** Color of the bars, the default color of the first JavaFX chart series. */
+    private static final Color BAR_COLOR = Color.web("#f3622d");
+
+    /** Color of the highlighted bar. */
+    private static final Color HIGHLIGHT_COLOR = Color.web("#fba71b");
+
+    /** Color of the grid lines. */
+    private static final Color GRID_COLOR = Color.web("#e0e0e0");
+
+    /** Color of the axes and labels. */
+    private static final Color TEXT_COLOR = Color.web("#333333");
+
+    /** Labels of the categories. */
+    private final String[] labels;
+
+    /** Values of the categories. */
+    private final int[] values;
+
+    /** Title of the category axis. */
+    private final String categoryAxisLabel;
+
+    /** Title of the value axis. */
+    private final String valueAxisLabel;
+
+    /** Distance between two consecutive value axis ticks. */
+    private final int tickUnit;
+
+    /** Highest value displayed on the value axis. */
+    private final int axisMaximum;
+
+    /**
+     * Constructs a painter of the given series.
+     *
+     * @param data              the series to draw
+     * @param categoryAxisLabel the title of the category axis
+     * @param valueAxisLabel    the title of the value axis
+     */
+    public CanvasBarPainter(ChartData data, String categoryAxisLabel, String valueAxisLabel) {
+        this.labels = data.labels().clone();
+        this.values = data.values().clone();
+        this.categoryAxisLabel = categoryAxisLabel;
+        this.valueAxisLabel = valueAxisLabel;
+
+        int maxValue = 0;
+        for (int value : values) {
+            maxValue = Math.max(maxValue, value);
+        }
+        this.tickUnit = niceTickUnit(maxValue);
+        this.axisMaximum = Math.max(Math.ceilDiv(maxValue, tickUnit), 1) * tickUnit;
+    }
+
+    /**
+     * Returns the number of bars.
+     *
+     * @return the number of bars
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the label of the bar with the given index.
+     *
+     * @param index the index of the bar
+     * @return the label of the bar
+     */
+    public String getLabel(int index) {
+        return labels[index];
+    }
+
+    /**
+     * Returns the value of the bar with the given index.
+     *
+     * @param index the index of the bar
+     * @return the value of the bar
+     */
+    public int getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns the highest value displayed on the value axis.
+     *
+     * @return the highest value of the axis, a multiple of the tick unit
+     */
+    public int getAxisMaximum() {
+        return axisMaximum;
+    }
+
+    /**
+     * Finds the bar whose category slot contains the given point.
+     *
+     * @param x      the x coordinate of the point
+     * @param y      the y coordinate of the point
+     * @param width  the width of the canvas
+     * @param height the height of the canvas
+     * @return the index of the bar, or -1 if the point lies outside the plot
+     */
+    public int indexAt(double x, double y, double width, double height) {
+        double plotWidth = width - LEFT_MARGIN - RIGHT_MARGIN;
+        if (values.length == 0 || plotWidth <= 0 || x < LEFT_MARGIN || x >= width - RIGHT_MARGIN
+                || y < TOP_MARGIN || y > height - BOTTOM_MARGIN) {
+            return -1;
+        }
+        int index = (int) ((x - LEFT_MARGIN) / (plotWidth / values.length));
+        return Math.min(index, values.length - 1);
+    }
+
+    /**
+     * Draws the chart onto the whole canvas.
+     *
+     * @param graphics         the graphics context of the canvas
+     * @param width            the width of the canvas
+     * @param height           the height of the canvas
+     * @param highlightedIndex the index of the bar to highlight, or -1
+     */
+    public void paint(GraphicsContext graphics, double width, double height, int highlightedIndex) {
+        graphics.clearRect(0, 0, width, height);
+        double plotWidth = width - LEFT_MARGIN - RIGHT_MARGIN;
+        double plotHeight = height - TOP_MARGIN - BOTTOM_MARGIN;
+        if (plotWidth <= 0 || plotHeight <= 0) {
+            return;
+        }
+        double plotBottom = TOP_MARGIN + plotHeight;
+        double scale = plotHeight / axisMaximum;
+
+        graphics.setFont(Font.font(LABEL_FONT_SIZE));
+        graphics.setLineWidth(1);
+        graphics.setTextBaseline(VPos.CENTER);
+        graphics.setTextAlign(TextAlignment.RIGHT);
+        for (int tick = 0; tick <= axisMaximum; tick += tickUnit) {
+            double y = Math.round(plotBottom - tick * scale) + 0.5;
+            graphics.setStroke(GRID_COLOR);
+            graphics.strokeLine(LEFT_MARGIN, y, LEFT_MARGIN + plotWidth, y);
+            graphics.setFill(TEXT_COLOR);
+            graphics.fillText(String.valueOf(tick), LEFT_MARGIN - 6, y);
+        }
+
+        double slotWidth = plotWidth / values.length;
+        double barWidth = Math.max(slotWidth * BAR_FILL, 1);
+        double barOffset = (slotWidth - barWidth) / 2;
+        graphics.setFill(BAR_COLOR);
+        graphics.beginPath();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] > 0) {
+                double barHeight = values[i] * scale;
+                graphics.rect(LEFT_MARGIN + i * slotWidth + barOffset, plotBottom - barHeight, barWidth, barHeight);
+            }
+        }
+        graphics.fill();
+        if (highlightedIndex >= 0 && highlightedIndex < values.length && values[highlightedIndex] > 0) {
+            double barHeight = values[highlightedIndex] * scale;
+            graphics.setFill(HIGHLIGHT_COLOR);
+            graphics.fillRect(LEFT_MARGIN + highlightedIndex * slotWidth + barOffset, plotBottom - barHeight, barWidth, barHeight);
+        }
+
+        graphics.setStroke(TEXT_COLOR);
+        graphics.strokeLine(LEFT_MARGIN + 0.5, TOP_MARGIN, LEFT_MARGIN + 0.5, plotBottom);
+        graphics.strokeLine(LEFT_MARGIN, plotBottom + 0.5, LEFT_MARGIN + plotWidth, plotBottom + 0.5);
+
+        graphics.setFill(TEXT_COLOR);
+        graphics.setTextAlign(TextAlignment.CENTER);
+        graphics.setTextBaseline(VPos.TOP);
+        int labelStep = Math.max((int) Math.ceil(values.length * LABEL_WIDTH / plotWidth), 1);
+        for (int i = values.length - 1; i >= 0; i -= labelStep) {
+            graphics.fillText(labels[i], LEFT_MARGIN + (i + 0.5) * slotWidth, plotBottom + 4);
+        }
+        graphics.fillText(categoryAxisLabel, LEFT_MARGIN + plotWidth / 2, plotBottom + 22);
+
+        graphics.setTextAlign(TextAlignment.LEFT);
+        graphics.fillText(valueAxisLabel, 4, 2);
+    }
+
+    /**
+     * Chooses the distance between value axis ticks: 1, 2 or 5 times a power of ten,
+     * giving about {@value #TICKS} ticks for the given maximum.
+     *
+     * @param maxValue the highest value of the series
+     * @return the distance between ticks, at least 1
+     */
+    public static int niceTickUnit(int maxValue) {
+        double rawUnit = (double) Math.max(maxValue, 1) / TICKS;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(rawUnit)));
+        double normalized = rawUnit / magnitude;
+        double niceUnit = normalized <= 1 ? 1 : normalized <= 2 ? 2 : normalized <= 5 ? 5 : 10;
+        return Math.max((int) Math.round(niceUnit * magnitude), 1);
+    }
+}
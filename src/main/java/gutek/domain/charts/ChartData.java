@@ -0,0 +1,75 @@
+package gutek.domain.charts;
+
+/**
+ * Data of a statistics chart, computed independently of any JavaFX nodes.
+ * <p>
+ * The data is a single series of values with their category labels, ordered as displayed from left to right.
+ * It can be computed on a background thread and turned into a chart on the JavaFX application thread later.
+ * </p>
+ *
+ * @param labels the labels of the categories
+ * @param values the values of the categories
+ */
+public record ChartData(String[] labels, int[] values) {
+
+    /**
+     * Constructs the data, checking that every value has a label.
+     *
+     * @param labels the labels of the categories
+     * @param values the values of the categories
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public ChartData {
+        if (labels.length != values.length) {
+            throw new IllegalArgumentException("Every value of the chart needs a label");
+        }
+    }
+
+    /**
+     * Creates the data of a chart showing the past days, with the oldest day on the left and today on the right.
+     * Days are labelled with non-positive numbers, today being 0. Long ranges are aggregated into weeks or months
+     * ending today, see {@link ChartSeriesReducer#sumBucketsForDisplay(ChartData, boolean)}.
+     *
+     * @param countsByDaysAgo values indexed by the number of days ago
+     * @param range           the number of days to show
+     * @return the chart data
+     */
+    public static ChartData pastDays(int[] countsByDaysAgo, int range) {
+        String[] labels = new String[range];
+        int[] values = new int[range];
+        for (int i = 0; i < range; i++) {
+            int daysAgo = range - i - 1;
+            labels[i] = String.valueOf(-daysAgo);
+            values[i] = countsByDaysAgo[daysAgo];
+        }
+        return ChartSeriesReducer.sumBucketsForDisplay(new ChartData(labels, values), true);
+    }
+
+    /**
+     * Creates the data of a chart showing the coming days, with today on the left.
+     * Days are labelled with non-negative numbers, today being 0. Long ranges are aggregated into weeks or months
+     * starting today, see {@link ChartSeriesReducer#sumBucketsForDisplay(ChartData, boolean)}.
+     *
+     * @param countsByDaysAhead values indexed by the number of days from today
+     * @param range             the number of days to show
+     * @return the chart data
+     */
+    public static ChartData comingDays(int[] countsByDaysAhead, int range) {
+        String[] labels = new String[range];
+        int[] values = new int[range];
+        for (int i = 0; i < range; i++) {
+            labels[i] = String.valueOf(i);
+            values[i] = countsByDaysAhead[i];
+        }
+        return ChartSeriesReducer.sumBucketsForDisplay(new ChartData(labels, values), false);
+    }
+
+    /**
+     * Returns the number of categories.
+     *
+     * @return the number of categories
+     */
+    public int size() {
+        return values.length;
+    }
+}
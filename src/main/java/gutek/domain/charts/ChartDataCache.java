@@ -0,0 +1,148 @@
+package gutek.domain.charts;
+
+import gutek.domain.charts.charts.StatisticsChart;
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.entities.decks.DeckBase;
+import gutek.services.ChartService;
+import gutek.services.ClockService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Cache of the daily series displayed by the statistics charts.
+ * <p>
+ * A series is computed once for the longest available range ({@link ChartService#MAX_RANGE}) and shorter ranges
+ * are sliced from it, so switching between ranges does not scan the deck again. The series are kept per deck,
+ * chart and revision strategy. They are dropped when the transaction publishing a {@link DeckCardsChangedEvent}
+ * for the deck commits, and recomputed after the day changes, since index 0 of every series refers to the current day.
+ * </p>
+ * <p>
+ * The cache is thread-safe. A series computed while the deck was being modified is returned, but not stored.
+ * </p>
+ */
+@Component
+public class ChartDataCache {
+
+    /**
+     * Service providing the current date.
+     */
+    private final ClockService clockService;
+
+    /**
+     * Cached series, by deck, chart and revision strategy.
+     */
+    private final Map<ChartDataKey, CachedSeries> cachedSeries = new ConcurrentHashMap<>();
+
+    /**
+     * Number of invalidations of every deck, used for detecting modifications during a computation.
+     */
+    private final Map<Long, Long> deckVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the cache.
+     *
+     * @param clockService the service providing the current date
+     */
+    public ChartDataCache(ClockService clockService) {
+        this.clockService = clockService;
+    }
+
+    /**
+     * Returns the first {@code range} days of the series of the given chart, computing the series if it is not cached.
+     * <p>
+     * The computing function receives the number of days to compute, which is at least {@link ChartService#MAX_RANGE}.
+     * Series of decks which have not been saved yet are not cached.
+     * </p>
+     *
+     * @param chart                 the chart displaying the series
+     * @param deck                  the deck for which the series is computed
+     * @param revisionStrategyIndex the index of the revision strategy, or {@code null} for strategy-independent charts
+     * @param range                 the number of days to return
+     * @param computeSeries         function computing the series for the given number of days
+     * @return a copy of the first {@code range} days of the series
+     */
+    public int[] getSeries(StatisticsChart chart, DeckBase deck, Integer revisionStrategyIndex, int range,
+                           IntFunction<int[]> computeSeries) {
+        int computedRange = Math.max(range, ChartService.MAX_RANGE);
+        Long deckId = deck.getIdDeck();
+        if (deckId == null) {
+            return Arrays.copyOf(computeSeries.apply(computedRange), range);
+        }
+
+        ChartDataKey key = new ChartDataKey(deckId, chart.getClass(), revisionStrategyIndex);
+        LocalDate today = clockService.today();
+        CachedSeries cached = cachedSeries.get(key);
+        if (cached != null && cached.day().equals(today) && cached.series().length >= range) {
+            return Arrays.copyOf(cached.series(), range);
+        }
+
+        long version = deckVersions.getOrDefault(deckId, 0L);
+        int[] series = computeSeries.apply(computedRange);
+        deckVersions.compute(deckId, (id, currentVersion) -> {
+            if ((currentVersion == null ? 0L : currentVersion) == version) {
+                cachedSeries.put(key, new CachedSeries(today, series));
+            }
+            return currentVersion;
+        });
+        return Arrays.copyOf(series, range);
+    }
+
+    /**
+     * Drops the cached series of the deck whose cards changed once the change is committed, outside the writer's
+     * transaction. Changes made outside a transaction are handled immediately.
+     *
+     * @param event the event describing the change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDeckCardsChanged(DeckCardsChangedEvent event) {
+        if (event.deckId() != null) {
+            invalidateDeck(event.deckId());
+        }
+    }
+
+    /**
+     * Drops all cached series of the given deck.
+     *
+     * @param deckId the ID of the deck
+     */
+    public void invalidateDeck(Long deckId) {
+        deckVersions.compute(deckId, (id, version) -> {
+            cachedSeries.keySet().removeIf(key -> key.deckId().equals(deckId));
+            return version == null ? 1L : version + 1;
+        });
+    }
+
+    /**
+     * Drops all cached series.
+     */
+    public void invalidateAll() {
+        deckVersions.keySet().forEach(this::invalidateDeck);
+        cachedSeries.clear();
+    }
+
+    /**
+     * Key identifying a cached series.
+     *
+     * @param deckId                the ID of the deck
+     * @param chartType             the class of the chart
+     * @param revisionStrategyIndex the index of the revision strategy, may be {@code null}
+     */
+    private record ChartDataKey(Long deckId, Class<?> chartType, Integer revisionStrategyIndex) {
+    }
+
+    /**
+     * A cached series together with the day it was computed for.
+     *
+     * @param day    the day index 0 of the series refers to
+     * @param series the series
+     */
+    private record CachedSeries(LocalDate day, int[] series) {
+    }
+}
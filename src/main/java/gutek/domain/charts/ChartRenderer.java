@@ -0,0 +1,17 @@
+package gutek.domain.charts;
+
+/**
+ * Ways of rendering the statistics charts.
+ */
+public enum ChartRenderer {
+
+    /**
+     * Standard JavaFX charts, creating scene graph nodes for every category.
+     */
+    SCENE_GRAPH,
+
+    /**
+     * Lightweight charts drawn onto a single canvas, with a constant number of nodes.
+     */
+    CANVAS
+}
@@ -0,0 +1,201 @@
+package gutek.domain.charts;
+
+import java.util.Arrays;
+
+/**
+ * Utility class reducing the number of points of chart series, so the number of chart nodes stays bounded
+ * regardless of the selected range.
+ * <p>
+ * Bar series are aggregated into buckets of whole weeks or months, which preserves the sum of the values.
+ * Line series are downsampled with the largest-triangle-three-buckets algorithm, which keeps the points
+ * contributing most to the visual shape of the line.
+ * </p>
+ */
+public final class ChartSeriesReducer {
+
+    /**
+     * Maximum number of categories displayed by a chart.
+     */
+    public static final int MAX_CATEGORIES = 120;
+
+    /**
+     * Number of days in a week bucket.
+     */
+    public static final int WEEK = 7;
+
+    /**
+     * Number of days in a month bucket.
+     */
+    public static final int MONTH = 30;
+
+    /**
+     * Separator between the first and the last label of a bucket.
+     */
+    private static final String LABEL_SEPARATOR = "..";
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private ChartSeriesReducer() {
+    }
+
+    /**
+     * Chooses the number of days aggregated into a single category for the given range:
+     * single days if they fit into {@link #MAX_CATEGORIES}, otherwise weeks, otherwise months.
+     *
+     * @param range the number of days in the range
+     * @return the number of days in a bucket: 1, {@link #WEEK} or {@link #MONTH}
+     */
+    public static int bucketSize(int range) {
+        if (range <= MAX_CATEGORIES) {
+            return 1;
+        }
+        if (Math.ceilDiv(range, WEEK) <= MAX_CATEGORIES) {
+            return WEEK;
+        }
+        return MONTH;
+    }
+
+    /**
+     * Sums consecutive values of the series into buckets of the given size.
+     * <p>
+     * If the number of values is not divisible by the bucket size, one bucket is partial: the first one
+     * when aligning to the end, otherwise the last one. A bucket is labelled with the labels of its first
+     * and last category, e.g. {@code -13..-7}.
+     * </p>
+     *
+     * @param data       the series to aggregate
+     * @param bucketSize the number of consecutive values summed into a bucket
+     * @param alignToEnd whether the last bucket, rather than the first one, has to be full
+     * @return the aggregated series, or the given series if the bucket size is 1
+     * @throws IllegalArgumentException if the bucket size is not positive
+     */
+    public static ChartData sumBuckets(ChartData data, int bucketSize, boolean alignToEnd) {
+        if (bucketSize < 1) {
+            throw new IllegalArgumentException("Bucket size has to be positive");
+        }
+        if (bucketSize == 1) {
+            return data;
+        }
+        int size = data.size();
+        int bucketsCount = Math.ceilDiv(size, bucketSize);
+        int firstBucketSize = alignToEnd && size % bucketSize != 0 ? size % bucketSize : bucketSize;
+
+        String[] labels = new String[bucketsCount];
+        int[] values = new int[bucketsCount];
+        int from = 0;
+        for (int bucket = 0; bucket < bucketsCount; bucket++) {
+            int to = Math.min(bucket == 0 ? firstBucketSize : from + bucketSize, size);
+            int sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += data.values()[i];
+            }
+            values[bucket] = sum;
+            labels[bucket] = to - from == 1 ? data.labels()[from] : data.labels()[from] + LABEL_SEPARATOR + data.labels()[to - 1];
+            from = to;
+        }
+        return new ChartData(labels, values);
+    }
+
+    /**
+     * Aggregates the series into weeks or months if it has more than {@link #MAX_CATEGORIES} values.
+     *
+     * @param data       the series to aggregate
+     * @param alignToEnd whether the last bucket, rather than the first one, has to be full
+     * @return the aggregated series
+     * @see #bucketSize(int)
+     */
+    public static ChartData sumBucketsForDisplay(ChartData data, boolean alignToEnd) {
+        return sumBuckets(data, bucketSize(data.size()), alignToEnd);
+    }
+
+    /**
+     * Selects the points of a line to display using the largest-triangle-three-buckets algorithm.
+     * <p>
+     * The first and the last point are always selected. The remaining points are divided into
+     * {@code threshold - 2} buckets, and from every bucket the point forming the largest triangle with
+     * the previously selected point and the average of the next bucket is selected.
+     * </p>
+     *
+     * @param xs        the x coordinates of the points, in ascending order
+     * @param ys        the y coordinates of the points
+     * @param threshold the maximum number of selected points
+     * @return the indexes of the selected points, in ascending order
+     * @throws IllegalArgumentException if the coordinate arrays have different lengths or the threshold is lower than 3
+     */
+    public static int[] largestTriangleThreeBuckets(double[] xs, double[] ys, int threshold) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Every point needs both coordinates");
+        }
+        if (threshold < 3) {
+            throw new IllegalArgumentException("Threshold has to be at least 3");
+        }
+        int size = xs.length;
+        if (size <= threshold) {
+            int[] allIndexes = new int[size];
+            Arrays.setAll(allIndexes, i -> i);
+            return allIndexes;
+        }
+
+        int[] selected = new int[threshold];
+        double bucketWidth = (double) (size - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int bucketStart = (int) (bucket * bucketWidth) + 1;
+            int bucketEnd = (int) ((bucket + 1) * bucketWidth) + 1;
+
+            int nextStart = bucketEnd;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketWidth) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += xs[i];
+                averageY += ys[i];
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+
+            double maxArea = -1;
+            int maxAreaIndex = bucketStart;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                double area = Math.abs((xs[previous] - averageX) * (ys[i] - ys[previous])
+                        - (xs[previous] - xs[i]) * (averageY - ys[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxAreaIndex = i;
+                }
+            }
+            selected[bucket + 1] = maxAreaIndex;
+            previous = maxAreaIndex;
+        }
+        selected[threshold - 1] = size - 1;
+        return selected;
+    }
+
+    /**
+     * Downsamples a line series to at most {@link #MAX_CATEGORIES} points using
+     * {@link #largestTriangleThreeBuckets(double[], double[], int)}, treating the category index as the x coordinate.
+     *
+     * @param data the series to downsample
+     * @return the downsampled series, or the given series if it is short enough
+     */
+    public static ChartData downsampleLine(ChartData data) {
+        if (data.size() <= MAX_CATEGORIES) {
+            return data;
+        }
+        double[] xs = new double[data.size()];
+        double[] ys = new double[data.size()];
+        for (int i = 0; i < data.size(); i++) {
+            xs[i] = i;
+            ys[i] = data.values()[i];
+        }
+        int[] selected = largestTriangleThreeBuckets(xs, ys, MAX_CATEGORIES);
+        String[] labels = new String[selected.length];
+        int[] values = new int[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            labels[i] = data.labels()[selected[i]];
+            values[i] = data.values()[selected[i]];
+        }
+        return new ChartData(labels, values);
+    }
+}
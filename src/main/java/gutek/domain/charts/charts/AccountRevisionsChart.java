@@ -0,0 +1,89 @@
+package gutek.domain.charts.charts;
+
+import gutek.domain.charts.ChartData;
+import gutek.entities.decks.DailyAggregateKind;
+import gutek.entities.decks.DeckBase;
+import gutek.services.DailyAggregateService;
+import gutek.services.TranslationService;
+import org.springframework.stereotype.Component;
+
+/**
+ * A chart component that displays the number of answers per day in all decks of the deck's owner,
+ * giving an overview of the whole account.
+ * <p>
+ * Every recorded answer is counted ({@link DailyAggregateKind#REVISIONS}), including the answers sending a card back
+ * to the queue, so the counts are higher than those of {@link RevisionChart}, which counts finished revisions only;
+ * its title says so.
+ * </p>
+ * <p>
+ * The daily counts are summed over the decks by a single grouped query on the materialized daily counts,
+ * so no deck statistics have to be loaded. The data is not cached per deck, as it changes with every deck
+ * of the user.
+ * </p>
+ */
+@Component
+public class AccountRevisionsChart extends StatisticsChart {
+
+    /** Service providing the daily counts of the user's decks. */
+    private final DailyAggregateService dailyAggregateService;
+
+    /**
+     * Constructs a new chart for displaying the revisions of all decks of a user.
+     *
+     * @param translationService the service used for retrieving translations
+     * @param dailyAggregateService the service providing the daily counts of the user's decks
+     */
+    public AccountRevisionsChart(TranslationService translationService, DailyAggregateService dailyAggregateService) {
+        super(translationService);
+        this.dailyAggregateService = dailyAggregateService;
+    }
+
+    /**
+     * Computes the number of revisions per day in all decks of the deck's owner over the specified range.
+     *
+     * @param range the number of days to display on the chart
+     * @param deck the deck whose owner's decks are counted
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the daily number of revisions, with today on the right
+     */
+    @Override
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex) {
+        return ChartData.pastDays(dailyAggregateService.getUserDailyCounts(deck.getUser(), DailyAggregateKind.REVISIONS, range), range);
+    }
+
+    /**
+     * Provides the title of the chart, localized to the current language setting.
+     *
+     * @param deck the deck whose owner's decks are counted
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the localized title of the chart
+     */
+    @Override
+    public String getChartTitle(DeckBase deck, Integer revisionStrategyIndex) {
+        return translationService.getTranslation("deck_view.statistics.account_revisions_title");
+    }
+
+    /**
+     * Indicates whether the chart is independent of the revision strategy.
+     * <p>
+     * For this chart, the revisions of all strategies are counted,
+     * and the {@code revisionStrategyIndex} parameter is not used.
+     * </p>
+     *
+     * @return {@code true} as this chart is revision strategy-independent
+     */
+    @Override
+    public boolean isRevisionStrategyIndependent() {
+        return true;
+    }
+
+    /**
+     * Indicates whether the chart can be drawn onto a single canvas.
+     *
+     * @return {@code true} as this chart displays a plain bar series
+     */
+    @Override
+    protected boolean supportsCanvasRenderer() {
+        return true;
+    }
+}
@@ -1,89 +1,56 @@
 package gutek.domain.charts.charts;
 
-import gutek.entities.cards.CardBase;
+import gutek.domain.charts.ChartData;
+import gutek.domain.charts.ChartDataCache;
+import gutek.entities.decks.DailyAggregateKind;
 import gutek.entities.decks.DeckBase;
-import gutek.services.DeckService;
+import gutek.services.DailyAggregateService;
 import gutek.services.TranslationService;
-import javafx.scene.chart.*;
 import org.springframework.stereotype.Component;
-import java.time.LocalDate;
-import java.util.List;
 
 /**
  * A chart component that displays the number of new cards added per day over a specified range.
  * This class uses the JavaFX library to create a bar chart, showing the distribution of newly
  * added cards for a specific deck over a given period. It extends {@link StatisticsChart}, which
  * provides basic functionality for handling chart translations and titles.
+ * The counts are read from the materialized daily counts of the deck, so the cards themselves are not loaded.
  */
 @Component
 public class AddedNewChart extends StatisticsChart {
 
-    /** Service for retrieving deck and card data. */
-    private final DeckService deckService;
+    /** Service providing the daily counts of the deck. */
+    private final DailyAggregateService dailyAggregateService;
+
+    /** Cache of the computed series. */
+    private final ChartDataCache chartDataCache;
 
     /**
      * Constructs a new chart for displaying the number of newly added cards per day.
      *
      * @param translationService the service used for retrieving translations
-     * @param deckService the service used for interacting with deck and card data
+     * @param dailyAggregateService the service providing the daily counts of the deck
+     * @param chartDataCache the cache of the computed series
      */
-    public AddedNewChart(TranslationService translationService, DeckService deckService) {
+    public AddedNewChart(TranslationService translationService, DailyAggregateService dailyAggregateService,
+                         ChartDataCache chartDataCache) {
         super(translationService);
-        this.deckService = deckService;
+        this.dailyAggregateService = dailyAggregateService;
+        this.chartDataCache = chartDataCache;
     }
 
     /**
-     * Generates a bar chart showing the number of newly added cards per day over the specified range.
+     * Computes the number of newly added cards per day over the specified range.
      *
      * @param range the number of days to display on the chart
      * @param deck the deck for which the chart is generated
      * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
-     * @return a {@link BarChart} displaying the daily count of newly added cards
+     * @return the daily count of newly added cards, with today on the right
      */
     @Override
-    public Chart getChart(int range, DeckBase deck, Integer revisionStrategyIndex) {
-        CategoryAxis xAxis = new CategoryAxis();
-        xAxis.setLabel(translationService.getTranslation("deck_view.statistics.day"));
-
-        NumberAxis yAxis = new NumberAxis();
-        yAxis.setLabel(translationService.getTranslation("deck_view.statistics.cards_number"));
-
-        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle(getChartTitle(deck, revisionStrategyIndex));
-        int[] addedNewCardsPerDay = countAddedNewCardsPerDay(range, deck);
-        XYChart.Series<String, Number> dataSeries = new XYChart.Series<>();
-        dataSeries.setName(translationService.getTranslation("deck_view.statistics.cards_number"));
-
-        for (int i = addedNewCardsPerDay.length - 1; i >= 0; i--) {
-            dataSeries.getData().add(new XYChart.Data<>(String.valueOf(-i), addedNewCardsPerDay[i]));
-        }
-        barChart.getData().add(dataSeries);
-        return barChart;
-    }
-
-    /**
-     * Counts the number of new cards added each day over the given range for the specified deck.
-     *
-     * @param range the number of days to check
-     * @param deck the deck for which the count is being performed
-     * @return an array where each index represents the number of new cards added on a specific day
-     */
-    private int[] countAddedNewCardsPerDay(int range, DeckBase deck) {
-        int[] cardsPerDay = new int[range];
-
-        List<CardBase> allCards = deckService.getAllCards(deck);
-        LocalDate today = LocalDate.now();
-
-        for (CardBase card : allCards) {
-            LocalDate creationDate = card.getCreationTime().toLocalDate();
-            if (!creationDate.isBefore(today.minusDays(range))) {
-                int daysAgo = creationDate.until(today).getDays();
-                if (daysAgo >= 0 && daysAgo < range) {
-                    cardsPerDay[daysAgo]++;
-                }
-            }
-        }
-        return cardsPerDay;
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex) {
+        int[] addedNewCardsPerDay = chartDataCache.getSeries(this, deck, null, range,
+                computedRange -> dailyAggregateService.getDailyCounts(deck, DailyAggregateKind.CARDS_ADDED, null, computedRange));
+        return ChartData.pastDays(addedNewCardsPerDay, range);
     }
 
     /**
@@ -111,4 +78,14 @@ public class AddedNewChart extends StatisticsChart {
     public boolean isRevisionStrategyIndependent() {
         return true;
     }
+
+    /**
+     * Indicates whether the chart can be drawn onto a single canvas.
+     *
+     * @return {@code true} as this chart displays a plain bar series
+     */
+    @Override
+    protected boolean supportsCanvasRenderer() {
+        return true;
+    }
 }
@@ -1,16 +1,21 @@
 package gutek.domain.charts.charts;
 
+import gutek.domain.charts.ChartData;
+import gutek.domain.charts.ChartDataCache;
 import gutek.domain.revisions.RevisionStrategy;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.cards.CardBase;
 import gutek.entities.decks.DeckBase;
+import gutek.services.ClockService;
 import gutek.services.DeckService;
 import gutek.services.TranslationService;
-import javafx.scene.chart.*;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
 
 /**
  * A chart component that displays the distribution of cards by their next revision date
@@ -27,47 +32,58 @@ public class AppearanceTimeRevisionChart extends StatisticsChart {
     /** Service for retrieving deck and card data. */
     private final DeckService deckService;
 
+    /** Service providing the current date. */
+    private final ClockService clockService;
+
+    /** Cache of the computed series. */
+    private final ChartDataCache chartDataCache;
+
     /**
      * Constructs a new chart for displaying the distribution of cards by their next revision date.
      *
      * @param translationService the service used for retrieving translations
      * @param deckService the service used for retrieving deck and card information
+     * @param clockService the service providing the current date
+     * @param chartDataCache the cache of the computed series
      */
-    public AppearanceTimeRevisionChart(TranslationService translationService, DeckService deckService) {
+    public AppearanceTimeRevisionChart(TranslationService translationService, DeckService deckService, ClockService clockService,
+                                       ChartDataCache chartDataCache) {
         super(translationService);
         this.deckService = deckService;
+        this.clockService = clockService;
+        this.chartDataCache = chartDataCache;
     }
 
     /**
-     * Generates a bar chart showing the distribution of cards scheduled for revision over time
-     * for a specific revision strategy.
+     * Computes the distribution of cards scheduled for revision over time
+     * for a specific revision strategy. Cards overdue for revision are counted for today.
      *
      * @param range the number of days to display on the chart
      * @param deck the deck for which the chart is generated
      * @param revisionStrategyIndex the index of the revision strategy to consider for the chart
-     * @return a {@link BarChart} representing the distribution of revision cards by day
+     * @return the number of cards scheduled for revision on every day, with today on the left
      */
     @Override
-    public Chart getChart(int range, DeckBase deck, Integer revisionStrategyIndex) {
-        CategoryAxis xAxis = new CategoryAxis();
-        xAxis.setLabel(translationService.getTranslation("deck_view.statistics.day"));
-
-        NumberAxis yAxis = new NumberAxis();
-        yAxis.setLabel(translationService.getTranslation("deck_view.statistics.cards_number"));
-
-        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle(getChartTitle(deck, revisionStrategyIndex));
-
-        int[] revisionCardsPerDay = countRevisionCardsPerDay(range, deck, revisionStrategyIndex);
-        XYChart.Series<String, Number> dataSeries = new XYChart.Series<>();
-        dataSeries.setName(translationService.getTranslation("deck_view.statistics.cards_number"));
-
-        for (int i = 0; i < revisionCardsPerDay.length; i++) {
-            dataSeries.getData().add(new XYChart.Data<>(String.valueOf(i), revisionCardsPerDay[i]));
-        }
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex) {
+        return computeData(range, deck, revisionStrategyIndex, () -> false);
+    }
 
-        barChart.getData().add(dataSeries);
-        return barChart;
+    /**
+     * Computes the same data as {@link #computeData(int, DeckBase, Integer)}, counting the cards only until
+     * the computation is cancelled. A cancelled series is not cached.
+     *
+     * @param range the number of days to display on the chart
+     * @param deck the deck for which the chart is generated
+     * @param revisionStrategyIndex the index of the revision strategy to consider for the chart
+     * @param cancelled condition telling whether the computation has been cancelled
+     * @return the number of cards scheduled for revision on every day, with today on the left
+     * @throws CancellationException if the computation was cancelled while the cards were counted
+     */
+    @Override
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex, BooleanSupplier cancelled) {
+        int[] revisionCardsPerDay = chartDataCache.getSeries(this, deck, revisionStrategyIndex, range,
+                computedRange -> countRevisionCardsPerDay(computedRange, deck, revisionStrategyIndex, cancelled));
+        return ChartData.comingDays(revisionCardsPerDay, range);
     }
 
     /**
@@ -76,28 +92,34 @@ public class AppearanceTimeRevisionChart extends StatisticsChart {
      * @param range the number of days to check
      * @param deck the deck for which the count is being performed
      * @param revisionStrategyIndex the index of the revision strategy to consider
+     * @param cancelled condition telling whether the count has been cancelled
      * @param <T> the type of the cards being revised, extending {@link CardBase}
      * @return an array where each index represents the number of cards scheduled for revision on a specific day
+     * @throws CancellationException if the count was cancelled
      */
     @SuppressWarnings("unchecked")
-    private <T extends CardBase> int[] countRevisionCardsPerDay(int range, DeckBase deck, Integer revisionStrategyIndex) {
+    private <T extends CardBase> int[] countRevisionCardsPerDay(int range, DeckBase deck, Integer revisionStrategyIndex,
+                                                             BooleanSupplier cancelled) {
         int[] cardsPerDay = new int[range];
 
         RevisionAlgorithm<T> revisionAlgorithm = (RevisionAlgorithm<T>) deck.getRevisionAlgorithm();
         RevisionStrategy<T> revisionStrategy = revisionAlgorithm.getAvailableRevisionStrategies().get(revisionStrategyIndex);
         List<T> allCards = (List<T>) deckService.getAllCards(deck);
-        LocalDate today = LocalDate.now();
+        LocalDate today = clockService.today();
 
         for (T card : allCards) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException();
+            }
             if (!card.isNewCard()) {
                 LocalDate revisionDate = revisionStrategy.getNextRevisionDate(card);
 
                 if (revisionDate.isBefore(today)) {
                     cardsPerDay[0]++;
                 } else {
-                    int daysUntilRevision = today.until(revisionDate).getDays();
+                    long daysUntilRevision = ChronoUnit.DAYS.between(today, revisionDate);
                     if (daysUntilRevision >= 0 && daysUntilRevision < range) {
-                        cardsPerDay[daysUntilRevision]++;
+                        cardsPerDay[(int) daysUntilRevision]++;
                     }
                 }
             }
@@ -136,4 +158,14 @@ public class AppearanceTimeRevisionChart extends StatisticsChart {
     public boolean isRevisionStrategyIndependent() {
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Indicates whether the chart can be drawn onto a single canvas.
+     *
+     * @return {@code true} as this chart displays a plain bar series
+     */
+    @Override
+    protected boolean supportsCanvasRenderer() {
+        return true;
+    }
+}
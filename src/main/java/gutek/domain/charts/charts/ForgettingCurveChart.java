@@ -0,0 +1,183 @@
+package gutek.domain.charts.charts;
+
+import gutek.domain.analytics.RetentionStatistics;
+import gutek.domain.charts.ChartData;
+import gutek.domain.charts.ChartSeriesReducer;
+import gutek.domain.reports.ChartReport;
+import gutek.entities.decks.DeckBase;
+import gutek.services.ClockService;
+import gutek.services.RetentionAnalyticsService;
+import gutek.services.TranslationService;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.Chart;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A chart component that displays the forgetting curve of a deck: the percentage of recalled reviews
+ * as a function of the number of days since the previous review.
+ * <p>
+ * Only the reviews from the selected range are counted, and only the intervals with at least one review
+ * are displayed. The curve is drawn as a line chart, downsampled with
+ * {@link ChartSeriesReducer#downsampleLine(ChartData)} if it has too many points.
+ * </p>
+ */
+@Component
+public class ForgettingCurveChart extends StatisticsChart {
+
+    /** Highest number of points still drawn with symbols. */
+    private static final int MAX_POINTS_WITH_SYMBOLS = 31;
+
+    /** Service computing the retention statistics. */
+    private final RetentionAnalyticsService retentionAnalyticsService;
+
+    /** Service providing the current date. */
+    private final ClockService clockService;
+
+    /**
+     * Constructs a new chart for displaying the forgetting curve.
+     *
+     * @param translationService the service used for retrieving translations
+     * @param retentionAnalyticsService the service computing the retention statistics
+     * @param clockService the service providing the current date
+     */
+    public ForgettingCurveChart(TranslationService translationService, RetentionAnalyticsService retentionAnalyticsService,
+                                ClockService clockService) {
+        super(translationService);
+        this.retentionAnalyticsService = retentionAnalyticsService;
+        this.clockService = clockService;
+    }
+
+    /**
+     * Computes the percentage of recalled reviews for every interval with reviews over the specified range.
+     *
+     * @param range the number of days whose reviews are counted
+     * @param deck the deck for which the chart is generated
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the rounded retention percentage by interval in days, in ascending order of intervals
+     */
+    @Override
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex) {
+        return computeData(range, deck, revisionStrategyIndex, () -> false);
+    }
+
+    /**
+     * Computes the same data as {@link #computeData(int, DeckBase, Integer)}, reading the reviews only until
+     * the computation is cancelled.
+     *
+     * @param range the number of days whose reviews are counted
+     * @param deck the deck for which the chart is generated
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @param cancelled condition telling whether the computation has been cancelled
+     * @return the rounded retention percentage by interval in days, in ascending order of intervals
+     * @throws CancellationException if the computation was cancelled while the reviews were read
+     */
+    @Override
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex, BooleanSupplier cancelled) {
+        RetentionStatistics statistics = retentionAnalyticsService.analyzeDeck(deck, clockService.today().minusDays(range - 1),
+                cancelled);
+        String[] labels = new String[RetentionStatistics.FORGETTING_CURVE_DAYS + 1];
+        int[] values = new int[RetentionStatistics.FORGETTING_CURVE_DAYS + 1];
+        int pointsCount = 0;
+        for (int days = 0; days <= RetentionStatistics.FORGETTING_CURVE_DAYS; days++) {
+            if (statistics.getCurveReviews(days) > 0) {
+                labels[pointsCount] = String.valueOf(days);
+                values[pointsCount] = (int) Math.round(100 * statistics.getCurveRetention(days));
+                pointsCount++;
+            }
+        }
+        return ChartSeriesReducer.downsampleLine(
+                new ChartData(Arrays.copyOf(labels, pointsCount), Arrays.copyOf(values, pointsCount)));
+    }
+
+    /**
+     * Creates a line chart displaying the forgetting curve, with the value axis fixed to 0-100%.
+     *
+     * @param data the data computed by {@link #computeData(int, DeckBase, Integer)}
+     * @param deck the deck for which the chart is generated
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the created line chart
+     */
+    @Override
+    public Chart createChart(ChartData data, DeckBase deck, Integer revisionStrategyIndex) {
+        CategoryAxis xAxis = new CategoryAxis();
+        xAxis.setLabel(getCategoryAxisLabel());
+
+        NumberAxis yAxis = new NumberAxis(0, 100, 10);
+        yAxis.setLabel(getValueAxisLabel());
+
+        LineChart<String, Number> lineChart = new LineChart<>(xAxis, yAxis);
+        lineChart.setTitle(getChartTitle(deck, revisionStrategyIndex));
+        lineChart.setCreateSymbols(data.size() <= MAX_POINTS_WITH_SYMBOLS);
+
+        XYChart.Series<String, Number> dataSeries = new XYChart.Series<>();
+        dataSeries.setName(getValueAxisLabel());
+        for (int i = 0; i < data.size(); i++) {
+            dataSeries.getData().add(new XYChart.Data<>(data.labels()[i], data.values()[i]));
+        }
+
+        lineChart.getData().add(dataSeries);
+        return lineChart;
+    }
+
+    /**
+     * Provides the title of the chart, localized to the current language setting.
+     *
+     * @param deck the deck for which the chart is generated
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the localized title of the chart
+     */
+    @Override
+    public String getChartTitle(DeckBase deck, Integer revisionStrategyIndex) {
+        return translationService.getTranslation("deck_view.statistics.forgetting_curve_title");
+    }
+
+    /**
+     * Provides the label of the category axis, the interval in days.
+     *
+     * @return the localized label of the category axis
+     */
+    @Override
+    protected String getCategoryAxisLabel() {
+        return translationService.getTranslation("deck_view.statistics.interval_days");
+    }
+
+    /**
+     * Provides the label of the value axis, the retention in percent.
+     *
+     * @return the localized label of the value axis
+     */
+    @Override
+    protected String getValueAxisLabel() {
+        return translationService.getTranslation("deck_view.statistics.retention_percent");
+    }
+
+    /**
+     * Provides the style of the reports, a line like the displayed chart.
+     *
+     * @return {@link ChartReport.Style#LINE}
+     */
+    @Override
+    protected ChartReport.Style getReportStyle() {
+        return ChartReport.Style.LINE;
+    }
+
+    /**
+     * Indicates whether the chart is independent of the revision strategy.
+     * <p>
+     * The reviews of all revision strategies are counted, and the {@code revisionStrategyIndex} parameter is not used.
+     * </p>
+     *
+     * @return {@code true} as this chart is revision strategy-independent
+     */
+    @Override
+    public boolean isRevisionStrategyIndependent() {
+        return true;
+    }
+}
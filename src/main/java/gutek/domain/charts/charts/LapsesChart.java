@@ -0,0 +1,125 @@
+package gutek.domain.charts.charts;
+
+import gutek.domain.analytics.RetentionStatistics;
+import gutek.domain.charts.ChartData;
+import gutek.entities.decks.DeckBase;
+import gutek.services.ClockService;
+import gutek.services.RetentionAnalyticsService;
+import gutek.services.TranslationService;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A chart component that displays the number of cards by their number of lapses.
+ * <p>
+ * Only the cards revised in the selected range and the lapses in that range are counted.
+ * The last category groups the leeches, the cards with at least {@link RetentionStatistics#LEECH_LAPSES} lapses.
+ * </p>
+ */
+@Component
+public class LapsesChart extends StatisticsChart {
+
+    /** Service computing the retention statistics. */
+    private final RetentionAnalyticsService retentionAnalyticsService;
+
+    /** Service providing the current date. */
+    private final ClockService clockService;
+
+    /**
+     * Constructs a new chart for displaying the number of cards by their number of lapses.
+     *
+     * @param translationService the service used for retrieving translations
+     * @param retentionAnalyticsService the service computing the retention statistics
+     * @param clockService the service providing the current date
+     */
+    public LapsesChart(TranslationService translationService, RetentionAnalyticsService retentionAnalyticsService,
+                       ClockService clockService) {
+        super(translationService);
+        this.retentionAnalyticsService = retentionAnalyticsService;
+        this.clockService = clockService;
+    }
+
+    /**
+     * Computes the number of cards revised over the specified range by their number of lapses.
+     *
+     * @param range the number of days whose reviews are counted
+     * @param deck the deck for which the chart is generated
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the number of cards with 0, 1, ... lapses, followed by the number of leeches
+     */
+    @Override
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex) {
+        return computeData(range, deck, revisionStrategyIndex, () -> false);
+    }
+
+    /**
+     * Computes the same data as {@link #computeData(int, DeckBase, Integer)}, reading the reviews only until
+     * the computation is cancelled.
+     *
+     * @param range the number of days whose reviews are counted
+     * @param deck the deck for which the chart is generated
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @param cancelled condition telling whether the computation has been cancelled
+     * @return the number of cards with 0, 1, ... lapses, followed by the number of leeches
+     * @throws CancellationException if the computation was cancelled while the reviews were read
+     */
+    @Override
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex, BooleanSupplier cancelled) {
+        RetentionStatistics statistics = retentionAnalyticsService.analyzeDeck(deck, clockService.today().minusDays(range - 1),
+                cancelled);
+        String[] labels = new String[RetentionStatistics.LEECH_LAPSES + 1];
+        int[] values = new int[RetentionStatistics.LEECH_LAPSES + 1];
+        for (int lapses = 0; lapses <= RetentionStatistics.LEECH_LAPSES; lapses++) {
+            labels[lapses] = lapses == RetentionStatistics.LEECH_LAPSES ? lapses + "+" : String.valueOf(lapses);
+            values[lapses] = statistics.getCardsWithLapses(lapses);
+        }
+        return new ChartData(labels, values);
+    }
+
+    /**
+     * Provides the title of the chart, localized to the current language setting.
+     *
+     * @param deck the deck for which the chart is generated
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the localized title of the chart
+     */
+    @Override
+    public String getChartTitle(DeckBase deck, Integer revisionStrategyIndex) {
+        return translationService.getTranslation("deck_view.statistics.lapses_title");
+    }
+
+    /**
+     * Provides the label of the category axis, the number of lapses.
+     *
+     * @return the localized label of the category axis
+     */
+    @Override
+    protected String getCategoryAxisLabel() {
+        return translationService.getTranslation("deck_view.statistics.lapses");
+    }
+
+    /**
+     * Indicates whether the chart is independent of the revision strategy.
+     * <p>
+     * The lapses in all revision strategies are counted, and the {@code revisionStrategyIndex} parameter is not used.
+     * </p>
+     *
+     * @return {@code true} as this chart is revision strategy-independent
+     */
+    @Override
+    public boolean isRevisionStrategyIndependent() {
+        return true;
+    }
+
+    /**
+     * Indicates whether the chart can be drawn onto a single canvas.
+     *
+     * @return {@code true} as this chart displays a plain bar series
+     */
+    @Override
+    protected boolean supportsCanvasRenderer() {
+        return true;
+    }
+}
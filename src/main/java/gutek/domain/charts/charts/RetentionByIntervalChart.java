@@ -0,0 +1,137 @@
+package gutek.domain.charts.charts;
+
+import gutek.domain.analytics.RetentionStatistics;
+import gutek.domain.charts.ChartData;
+import gutek.entities.decks.DeckBase;
+import gutek.services.ClockService;
+import gutek.services.RetentionAnalyticsService;
+import gutek.services.TranslationService;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A chart component that displays the percentage of recalled reviews by the interval since the previous review.
+ * <p>
+ * Only the reviews from the selected range are counted, aggregated into the interval buckets
+ * of {@link RetentionStatistics}. Buckets without reviews are displayed as 0%.
+ * </p>
+ */
+@Component
+public class RetentionByIntervalChart extends StatisticsChart {
+
+    /** Service computing the retention statistics. */
+    private final RetentionAnalyticsService retentionAnalyticsService;
+
+    /** Service providing the current date. */
+    private final ClockService clockService;
+
+    /**
+     * Constructs a new chart for displaying the retention by interval.
+     *
+     * @param translationService the service used for retrieving translations
+     * @param retentionAnalyticsService the service computing the retention statistics
+     * @param clockService the service providing the current date
+     */
+    public RetentionByIntervalChart(TranslationService translationService, RetentionAnalyticsService retentionAnalyticsService,
+                                    ClockService clockService) {
+        super(translationService);
+        this.retentionAnalyticsService = retentionAnalyticsService;
+        this.clockService = clockService;
+    }
+
+    /**
+     * Computes the percentage of recalled reviews in every interval bucket over the specified range.
+     *
+     * @param range the number of days whose reviews are counted
+     * @param deck the deck for which the chart is generated
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the rounded retention percentage of every interval bucket
+     */
+    @Override
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex) {
+        return computeData(range, deck, revisionStrategyIndex, () -> false);
+    }
+
+    /**
+     * Computes the same data as {@link #computeData(int, DeckBase, Integer)}, reading the reviews only until
+     * the computation is cancelled.
+     *
+     * @param range the number of days whose reviews are counted
+     * @param deck the deck for which the chart is generated
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @param cancelled condition telling whether the computation has been cancelled
+     * @return the rounded retention percentage of every interval bucket
+     * @throws CancellationException if the computation was cancelled while the reviews were read
+     */
+    @Override
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex, BooleanSupplier cancelled) {
+        RetentionStatistics statistics = retentionAnalyticsService.analyzeDeck(deck, clockService.today().minusDays(range - 1),
+                cancelled);
+        int bucketsCount = RetentionStatistics.INTERVAL_BUCKET_STARTS.length;
+        String[] labels = new String[bucketsCount];
+        int[] values = new int[bucketsCount];
+        for (int bucket = 0; bucket < bucketsCount; bucket++) {
+            labels[bucket] = RetentionStatistics.intervalBucketLabel(bucket);
+            double retention = statistics.getIntervalRetention(bucket);
+            values[bucket] = Double.isNaN(retention) ? 0 : (int) Math.round(100 * retention);
+        }
+        return new ChartData(labels, values);
+    }
+
+    /**
+     * Provides the title of the chart, localized to the current language setting.
+     *
+     * @param deck the deck for which the chart is generated
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the localized title of the chart
+     */
+    @Override
+    public String getChartTitle(DeckBase deck, Integer revisionStrategyIndex) {
+        return translationService.getTranslation("deck_view.statistics.retention_by_interval_title");
+    }
+
+    /**
+     * Provides the label of the category axis, the interval in days.
+     *
+     * @return the localized label of the category axis
+     */
+    @Override
+    protected String getCategoryAxisLabel() {
+        return translationService.getTranslation("deck_view.statistics.interval_days");
+    }
+
+    /**
+     * Provides the label of the value axis, the retention in percent.
+     *
+     * @return the localized label of the value axis
+     */
+    @Override
+    protected String getValueAxisLabel() {
+        return translationService.getTranslation("deck_view.statistics.retention_percent");
+    }
+
+    /**
+     * Indicates whether the chart is independent of the revision strategy.
+     * <p>
+     * The reviews of all revision strategies are counted, and the {@code revisionStrategyIndex} parameter is not used.
+     * </p>
+     *
+     * @return {@code true} as this chart is revision strategy-independent
+     */
+    @Override
+    public boolean isRevisionStrategyIndependent() {
+        return true;
+    }
+
+    /**
+     * Indicates whether the chart can be drawn onto a single canvas.
+     *
+     * @return {@code true} as this chart displays a plain bar series
+     */
+    @Override
+    protected boolean supportsCanvasRenderer() {
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+package gutek.domain.charts.charts;
+
+import gutek.domain.charts.CalendarHeatmapChart;
+import gutek.domain.charts.ChartData;
+import gutek.entities.decks.DailyAggregateKind;
+import gutek.entities.decks.DeckBase;
+import gutek.services.ClockService;
+import gutek.services.DailyAggregateService;
+import gutek.services.TranslationService;
+import javafx.scene.chart.Chart;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * A chart component that displays the answers in all decks of the deck's owner as a calendar heatmap,
+ * one cell per day and one column per week.
+ * <p>
+ * Like {@link AccountRevisionsChart}, it counts every recorded answer ({@link DailyAggregateKind#REVISIONS}),
+ * including the answers sending a card back to the queue.
+ * </p>
+ * <p>
+ * The daily counts are summed over the decks by a single grouped query on the materialized daily counts,
+ * so no deck statistics have to be loaded. The data is not cached per deck, as it changes with every deck
+ * of the user.
+ * </p>
+ */
+@Component
+public class ReviewHeatmapChart extends StatisticsChart {
+
+    /** Service providing the daily counts of the user's decks. */
+    private final DailyAggregateService dailyAggregateService;
+
+    /** Service providing the current date. */
+    private final ClockService clockService;
+
+    /**
+     * Constructs a new chart for displaying the revisions of all decks as a calendar heatmap.
+     *
+     * @param translationService the service used for retrieving translations
+     * @param dailyAggregateService the service providing the daily counts of the user's decks
+     * @param clockService the service providing the current date
+     */
+    public ReviewHeatmapChart(TranslationService translationService, DailyAggregateService dailyAggregateService,
+                              ClockService clockService) {
+        super(translationService);
+        this.dailyAggregateService = dailyAggregateService;
+        this.clockService = clockService;
+    }
+
+    /**
+     * Computes the number of revisions per day in all decks of the deck's owner over the specified range.
+     *
+     * @param range the number of days to display on the chart
+     * @param deck the deck whose owner's decks are counted
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the daily number of revisions labelled with ISO dates, the oldest day first
+     */
+    @Override
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex) {
+        int[] countsByDaysAgo = dailyAggregateService.getUserDailyCounts(deck.getUser(), DailyAggregateKind.REVISIONS, range);
+        LocalDate today = clockService.today();
+        String[] labels = new String[range];
+        int[] values = new int[range];
+        for (int i = 0; i < range; i++) {
+            int daysAgo = range - i - 1;
+            labels[i] = today.minusDays(daysAgo).toString();
+            values[i] = countsByDaysAgo[daysAgo];
+        }
+        return new ChartData(labels, values);
+    }
+
+    /**
+     * Creates the calendar heatmap displaying the given data. Has to be called on the JavaFX application thread.
+     *
+     * @param data the data computed by {@link #computeData(int, DeckBase, Integer)}
+     * @param deck the deck whose owner's decks are counted
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the created heatmap
+     */
+    @Override
+    public Chart createChart(ChartData data, DeckBase deck, Integer revisionStrategyIndex) {
+        CalendarHeatmapChart heatmap = new CalendarHeatmapChart(data);
+        heatmap.setTitle(getChartTitle(deck, revisionStrategyIndex));
+        return heatmap;
+    }
+
+    /**
+     * Provides the title of the chart, localized to the current language setting.
+     *
+     * @param deck the deck whose owner's decks are counted
+     * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
+     * @return the localized title of the chart
+     */
+    @Override
+    public String getChartTitle(DeckBase deck, Integer revisionStrategyIndex) {
+        return translationService.getTranslation("deck_view.statistics.review_heatmap_title");
+    }
+
+    /**
+     * Indicates whether the chart is independent of the revision strategy.
+     * <p>
+     * For this chart, the revisions of all strategies are counted,
+     * and the {@code revisionStrategyIndex} parameter is not used.
+     * </p>
+     *
+     * @return {@code true} as this chart is revision strategy-independent
+     */
+    @Override
+    public boolean isRevisionStrategyIndependent() {
+        return true;
+    }
+}
@@ -1,9 +1,9 @@
 package gutek.domain.charts.charts;
 
+import gutek.domain.charts.ChartData;
 import gutek.entities.decks.DeckBase;
 import gutek.services.DeckStatisticsService;
 import gutek.services.TranslationService;
-import javafx.scene.chart.*;
 import org.springframework.stereotype.Component;
 
 /**
@@ -29,34 +29,17 @@ public class RevisedForTheFirstTimeChart extends StatisticsChart{
     }
 
     /**
-     * Generates a bar chart displaying the number of cards revised for the first time over the specified range of days.
+     * Computes the number of cards revised for the first time per day over the specified range of days.
      *
      * @param range the number of days to display on the chart
      * @param deck the deck for which the chart is generated
      * @param revisionStrategyIndex unused parameter as this chart is revision strategy-independent
-     * @return a {@link BarChart} representing the distribution of first-time card revisions over time
+     * @return the daily count of first-time card revisions, with today on the right
      */
     @Override
-    public Chart getChart(int range, DeckBase deck, Integer revisionStrategyIndex) {
-        CategoryAxis xAxis = new CategoryAxis();
-        xAxis.setLabel(translationService.getTranslation("deck_view.statistics.day"));
-
-        NumberAxis yAxis = new NumberAxis();
-        yAxis.setLabel(translationService.getTranslation("deck_view.statistics.cards_number"));
-
-        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle(getChartTitle(deck, revisionStrategyIndex));
-
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex) {
         int[] revisedForTheFirstTime = deckStatisticsService.getReviseForTheFirstTimeCounts(deck.getDeckBaseStatistics().getIdDeckStatistics());
-        XYChart.Series<String, Number> dataSeries = new XYChart.Series<>();
-        dataSeries.setName(translationService.getTranslation("deck_view.statistics.cards_number"));
-
-        for (int i = 0; i < range; i++) {
-            dataSeries.getData().add(new XYChart.Data<>(String.valueOf(-(range - i - 1)), revisedForTheFirstTime[range - i - 1]));
-        }
-
-        barChart.getData().add(dataSeries);
-        return barChart;
+        return ChartData.pastDays(revisedForTheFirstTime, range);
     }
 
     /**
@@ -84,4 +67,14 @@ public class RevisedForTheFirstTimeChart extends StatisticsChart{
     public boolean isRevisionStrategyIndependent() {
         return true;
     }
+
+    /**
+     * Indicates whether the chart can be drawn onto a single canvas.
+     *
+     * @return {@code true} as this chart displays a plain bar series
+     */
+    @Override
+    protected boolean supportsCanvasRenderer() {
+        return true;
+    }
 }
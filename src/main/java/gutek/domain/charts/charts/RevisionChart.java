@@ -1,9 +1,9 @@
 package gutek.domain.charts.charts;
 
+import gutek.domain.charts.ChartData;
 import gutek.entities.decks.DeckBase;
 import gutek.services.DeckStatisticsService;
 import gutek.services.TranslationService;
-import javafx.scene.chart.*;
 import org.springframework.stereotype.Component;
 
 /**
@@ -12,6 +12,11 @@ import org.springframework.stereotype.Component;
  * This class generates a bar chart to display revision statistics for a given strategy
  * within a specified range of days. It extends {@link StatisticsChart}, which provides core chart functionalities.
  * </p>
+ * <p>
+ * Only finished revisions are counted ({@link gutek.entities.algorithms.RevisionAlgorithm#finishesRevision(int, int)}),
+ * so the answers sending a card back to the queue, which {@link AccountRevisionsChart} and {@link ReviewHeatmapChart}
+ * include, are not.
+ * </p>
  */
 @Component
 public class RevisionChart extends StatisticsChart {
@@ -31,38 +36,20 @@ public class RevisionChart extends StatisticsChart {
     }
 
     /**
-     * Generates a bar chart displaying the number of cards revised over a specified range of days.
+     * Computes the number of cards revised per day over a specified range of days.
      *
      * @param range the number of days to display on the chart
      * @param deck the deck for which the chart is generated
      * @param revisionStrategyIndex the index of the revision strategy to visualize
-     * @return a {@link BarChart} representing the revision counts for the given strategy
-     * @throws IllegalArgumentException if {@code revisionStrategyIndex} is null
+     * @return the revision counts for the given strategy, with today on the right
      */
     @Override
-    public Chart getChart(int range, DeckBase deck, Integer revisionStrategyIndex) {
-        CategoryAxis xAxis = new CategoryAxis();
-        xAxis.setLabel(translationService.getTranslation("deck_view.statistics.day"));
-
-        NumberAxis yAxis = new NumberAxis();
-        yAxis.setLabel(translationService.getTranslation("deck_view.statistics.cards_number"));
-
-        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
-        barChart.setTitle(getChartTitle(deck, revisionStrategyIndex));
-
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex) {
         int[] revisionCounts = deck.getRevisionAlgorithm()
                 .getAvailableRevisionStrategies()
                 .get(revisionStrategyIndex)
                 .getRevisionCounts(deckStatisticsService, deck);
-        XYChart.Series<String, Number> dataSeries = new XYChart.Series<>();
-        dataSeries.setName(translationService.getTranslation("deck_view.statistics.cards_number"));
-
-        for (int i = 0; i < range; i++) {
-            dataSeries.getData().add(new XYChart.Data<>(String.valueOf(-(range - i - 1)), revisionCounts[range - i - 1]));
-        }
-
-        barChart.getData().add(dataSeries);
-        return barChart;
+        return ChartData.pastDays(revisionCounts, range);
     }
 
     /**
@@ -95,4 +82,14 @@ public class RevisionChart extends StatisticsChart {
     public boolean isRevisionStrategyIndependent() {
         return false;
     }
+
+    /**
+     * Indicates whether the chart can be drawn onto a single canvas.
+     *
+     * @return {@code true} as this chart displays a plain bar series
+     */
+    @Override
+    protected boolean supportsCanvasRenderer() {
+        return true;
+    }
 }
@@ -1,15 +1,39 @@
 package gutek.domain.charts.charts;
 
+import gutek.domain.charts.CanvasBarChart;
+import gutek.domain.charts.ChartData;
+import gutek.domain.charts.ChartRenderer;
+import gutek.domain.reports.ChartReport;
 import gutek.entities.decks.DeckBase;
 import gutek.services.TranslationService;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
 import javafx.scene.chart.Chart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import lombok.AllArgsConstructor;
 
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
 /**
  * An abstract class representing a statistics chart for decks.
  * This class provides the structure for creating different types of charts,
  * such as charts for tracking card revisions or other statistics related to a deck.
- * It requires implementing classes to define how the chart is generated and to provide a chart title.
+ * <p>
+ * Generating a chart is split into two steps. {@link #computeData(int, DeckBase, Integer)} reads the statistics
+ * and does not create any JavaFX nodes, so it can run on a background thread, while
+ * {@link #createChart(ChartData, DeckBase, Integer)} turns the data into a chart and has to run on the
+ * JavaFX application thread. By default, the data is displayed as a bar chart.
+ * </p>
+ * <p>
+ * Charts supporting {@link ChartRenderer#CANVAS} can also be drawn onto a single canvas,
+ * see {@link #createChart(ChartData, DeckBase, Integer, ChartRenderer)}.
+ * </p>
+ * <p>
+ * {@link #createReport(ChartData, DeckBase, Integer)} describes the chart without JavaFX nodes,
+ * so it can be written to a file headless and on any thread.
+ * </p>
  */
 @AllArgsConstructor
 public abstract class StatisticsChart {
@@ -17,8 +41,162 @@ public abstract class StatisticsChart {
     /** Service for retrieving translations, used to localize chart labels and titles. */
     protected final TranslationService translationService;
 
+    /**
+     * Computes the data of the chart for the given range, deck, and revision strategy.
+     * This method does not create JavaFX nodes and may be called from any thread.
+     *
+     * @param range                The range of data points to include in the chart.
+     * @param deck                 The deck for which the chart is generated.
+     * @param revisionStrategyIndex The index of the revision strategy to consider for this chart,
+     *                              if the chart is revision strategy-dependent.
+     *                              Otherwise, this parameter is not used.
+     * @return The computed chart data.
+     */
+    public abstract ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex);
+
+    /**
+     * Computes the data of the chart like {@link #computeData(int, DeckBase, Integer)}, giving up as soon as
+     * the computation is no longer needed. Charts reading the statistics row by row or card by card override it
+     * and check the condition in their loops; by default, the data is computed in full.
+     *
+     * @param range                 The range of data points to include in the chart.
+     * @param deck                  The deck for which the chart is generated.
+     * @param revisionStrategyIndex The index of the revision strategy to consider for this chart,
+     *                              if the chart is revision strategy-dependent.
+     *                              Otherwise, this parameter is not used.
+     * @param cancelled             Condition telling whether the computation has been cancelled.
+     * @return The computed chart data.
+     * @throws CancellationException if the computation was given up
+     */
+    public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex, BooleanSupplier cancelled) {
+        return computeData(range, deck, revisionStrategyIndex);
+    }
+
+    /**
+     * Creates the chart displaying the given data. Has to be called on the JavaFX application thread.
+     *
+     * @param data                  The data computed by {@link #computeData(int, DeckBase, Integer)}.
+     * @param deck                  The deck for which the chart is generated.
+     * @param revisionStrategyIndex The index of the revision strategy to consider for this chart,
+     *                              if the chart is revision strategy-dependent.
+     *                              Otherwise, this parameter is not used.
+     * @return The created chart object.
+     */
+    public Chart createChart(ChartData data, DeckBase deck, Integer revisionStrategyIndex) {
+        CategoryAxis xAxis = new CategoryAxis();
+        xAxis.setLabel(getCategoryAxisLabel());
+
+        NumberAxis yAxis = new NumberAxis();
+        yAxis.setLabel(getValueAxisLabel());
+
+        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
+        barChart.setTitle(getChartTitle(deck, revisionStrategyIndex));
+
+        XYChart.Series<String, Number> dataSeries = new XYChart.Series<>();
+        dataSeries.setName(getValueAxisLabel());
+
+        for (int i = 0; i < data.size(); i++) {
+            dataSeries.getData().add(new XYChart.Data<>(data.labels()[i], data.values()[i]));
+        }
+
+        barChart.getData().add(dataSeries);
+        return barChart;
+    }
+
+    /**
+     * Creates the chart displaying the given data with the preferred renderer.
+     * Falls back to {@link #createChart(ChartData, DeckBase, Integer)} if the chart does not support
+     * the canvas renderer. Has to be called on the JavaFX application thread.
+     *
+     * @param data                  The data computed by {@link #computeData(int, DeckBase, Integer)}.
+     * @param deck                  The deck for which the chart is generated.
+     * @param revisionStrategyIndex The index of the revision strategy to consider for this chart,
+     *                              if the chart is revision strategy-dependent.
+     *                              Otherwise, this parameter is not used.
+     * @param renderer              The preferred renderer.
+     * @return The created chart object.
+     */
+    public Chart createChart(ChartData data, DeckBase deck, Integer revisionStrategyIndex, ChartRenderer renderer) {
+        if (renderer == ChartRenderer.CANVAS && supportsCanvasRenderer()) {
+            return createCanvasChart(data, deck, revisionStrategyIndex);
+        }
+        return createChart(data, deck, revisionStrategyIndex);
+    }
+
+    /**
+     * Creates the chart displaying the given data as bars drawn onto a single canvas.
+     * Has to be called on the JavaFX application thread.
+     *
+     * @param data                  The data computed by {@link #computeData(int, DeckBase, Integer)}.
+     * @param deck                  The deck for which the chart is generated.
+     * @param revisionStrategyIndex The index of the revision strategy to consider for this chart,
+     *                              if the chart is revision strategy-dependent.
+     *                              Otherwise, this parameter is not used.
+     * @return The created chart object.
+     */
+    protected Chart createCanvasChart(ChartData data, DeckBase deck, Integer revisionStrategyIndex) {
+        CanvasBarChart canvasChart = new CanvasBarChart(data, getCategoryAxisLabel(), getValueAxisLabel());
+        canvasChart.setTitle(getChartTitle(deck, revisionStrategyIndex));
+        return canvasChart;
+    }
+
+    /**
+     * Describes the chart displaying the given data as a report, without creating any JavaFX nodes.
+     * May be called from any thread.
+     *
+     * @param data                  The data computed by {@link #computeData(int, DeckBase, Integer)}.
+     * @param deck                  The deck for which the chart is generated.
+     * @param revisionStrategyIndex The index of the revision strategy to consider for this chart,
+     *                              if the chart is revision strategy-dependent.
+     *                              Otherwise, this parameter is not used.
+     * @return The report of the chart.
+     */
+    public ChartReport createReport(ChartData data, DeckBase deck, Integer revisionStrategyIndex) {
+        return new ChartReport(getChartTitle(deck, revisionStrategyIndex), getCategoryAxisLabel(), getValueAxisLabel(),
+                getReportStyle(), data);
+    }
+
+    /**
+     * Provides the style of the reports of the chart. By default, the data is drawn as bars.
+     *
+     * @return The style of the reports.
+     */
+    protected ChartReport.Style getReportStyle() {
+        return ChartReport.Style.BAR;
+    }
+
+    /**
+     * Provides the label of the category axis. By default, the categories are days.
+     *
+     * @return The label of the category axis as a localized string.
+     */
+    protected String getCategoryAxisLabel() {
+        return translationService.getTranslation("deck_view.statistics.day");
+    }
+
+    /**
+     * Provides the label of the value axis. By default, the values are numbers of cards.
+     *
+     * @return The label of the value axis as a localized string.
+     */
+    protected String getValueAxisLabel() {
+        return translationService.getTranslation("deck_view.statistics.cards_number");
+    }
+
+    /**
+     * Indicates whether the chart can be drawn with {@link ChartRenderer#CANVAS}.
+     * Charts overriding {@link #createChart(ChartData, DeckBase, Integer)} with something other than a bar chart
+     * should not support it.
+     *
+     * @return {@code true} if the chart supports the canvas renderer; {@code false} by default
+     */
+    protected boolean supportsCanvasRenderer() {
+        return false;
+    }
+
     /**
      * Generates and returns a chart for the given range, deck, and revision strategy.
+     * Computes the data and creates the chart in one step, on the calling thread.
      *
      * @param range                The range of data points to include in the chart.
      * @param deck                 The deck for which the chart is generated.
@@ -27,7 +205,9 @@ public abstract class StatisticsChart {
      *                              Otherwise, this parameter is not used.
      * @return The generated chart object.
      */
-    public abstract Chart getChart(int range, DeckBase deck, Integer revisionStrategyIndex);
+    public Chart getChart(int range, DeckBase deck, Integer revisionStrategyIndex) {
+        return createChart(computeData(range, deck, revisionStrategyIndex), deck, revisionStrategyIndex);
+    }
 
     /**
      * Provides the title of the chart.
@@ -3,6 +3,14 @@
  * This package includes:
  * <ul>
  *     <li>{@link gutek.domain.charts.ChartEntry} - Represents an association between a statistical chart and a revision strategy.</li>
+ *     <li>{@link gutek.domain.charts.ChartData} - Data of a chart, computed independently of JavaFX nodes.</li>
+ *     <li>{@link gutek.domain.charts.ChartDataCache} - Caches the daily series of the charts and slices them to the selected range.</li>
+ *     <li>{@link gutek.domain.charts.ChartSeriesReducer} - Aggregates and downsamples long series, bounding the number of chart nodes.</li>
+ *     <li>{@link gutek.domain.charts.ChartRenderer} - Ways of rendering the statistics charts.</li>
+ *     <li>{@link gutek.domain.charts.CanvasBarChart} - Bar chart drawn onto a single canvas, with a constant number of nodes.</li>
+ *     <li>{@link gutek.domain.charts.CanvasBarPainter} - Draws a bar series onto a canvas and hit-tests the bars.</li>
+ *     <li>{@link gutek.domain.charts.CalendarHeatmapChart} - Calendar heatmap of a daily series drawn onto a single canvas.</li>
+ *     <li>{@link gutek.domain.charts.CalendarHeatmapPainter} - Draws a daily series as week columns of colored cells and hit-tests the days.</li>
  *     <li>Classes for representing single charts.</li>
  * </ul>
  */
@@ -0,0 +1,35 @@
+package gutek.domain.copies;
+
+/**
+ * Options of copying the cards of a deck into a cloned deck or into a deck they are merged into.
+ *
+ * @param resetScheduling whether the copied cards start over as new cards instead of keeping their scheduling state
+ * @param duplicateFronts the handling of the cards whose front is already used by a card of the target deck
+ * @param copyHistory     whether the revision history of the cards is copied with them
+ */
+public record DeckCopyOptions(boolean resetScheduling, DuplicateFronts duplicateFronts, boolean copyHistory) {
+
+    /**
+     * Validates the options.
+     *
+     * @throws IllegalArgumentException if the duplicate handling is missing or the history is copied
+     *                                  to cards whose scheduling state is reset, which would contradict it
+     */
+    public DeckCopyOptions {
+        if (duplicateFronts == null) {
+            throw new IllegalArgumentException("The handling of duplicate fronts is required");
+        }
+        if (resetScheduling && copyHistory) {
+            throw new IllegalArgumentException("The revision history can be copied only with the scheduling state");
+        }
+    }
+
+    /**
+     * Checks whether the cards with a front already used in the target deck are skipped.
+     *
+     * @return {@code true} for {@link DuplicateFronts#SKIP}
+     */
+    public boolean skipsDuplicates() {
+        return duplicateFronts == DuplicateFronts.SKIP;
+    }
+}
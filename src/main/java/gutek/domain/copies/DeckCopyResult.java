@@ -0,0 +1,12 @@
+package gutek.domain.copies;
+
+/**
+ * Outcome of copying the cards of a deck into a cloned deck or into a deck they are merged into.
+ *
+ * @param targetDeckId     the identifier of the deck the cards were copied into
+ * @param copiedCount      the number of copied cards
+ * @param skippedCount     the number of cards skipped because their front was already used in the target deck
+ * @param copiedRevisions  the number of copied revisions
+ */
+public record DeckCopyResult(Long targetDeckId, int copiedCount, int skippedCount, int copiedRevisions) {
+}
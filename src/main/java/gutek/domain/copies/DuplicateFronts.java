@@ -0,0 +1,18 @@
+package gutek.domain.copies;
+
+/**
+ * Handling of the copied cards whose front is already used by a card of the target deck, compared ignoring
+ * case, diacritics and whitespace differences.
+ */
+public enum DuplicateFronts {
+
+    /**
+     * The card is copied anyway, so the target deck holds both cards.
+     */
+    KEEP,
+
+    /**
+     * The card is not copied, so the target deck keeps only its own card.
+     */
+    SKIP
+}
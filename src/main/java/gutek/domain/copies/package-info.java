@@ -0,0 +1,9 @@
+/**
+ * Provides classes for cloning decks and merging decks into one another.
+ * <ul>
+ *     <li>{@link gutek.domain.copies.DeckCopyOptions} - Scheduling, duplicate and history options of copying the cards of a deck.</li>
+ *     <li>{@link gutek.domain.copies.DuplicateFronts} - Handling of the copied cards whose front is already used in the target deck.</li>
+ *     <li>{@link gutek.domain.copies.DeckCopyResult} - Counts of the cards and revisions copied into the target deck.</li>
+ * </ul>
+ */
+package gutek.domain.copies;
@@ -0,0 +1,13 @@
+package gutek.domain.duplicates;
+
+import gutek.domain.search.GlobalSearchResult;
+
+/**
+ * Pair of cards of the decks of a user suspected to be duplicates, offered for review.
+ *
+ * @param first      the first card, together with its deck
+ * @param second     the second card, together with its deck
+ * @param similarity the similarity of the cards estimated from their signatures, from 0 to 1
+ */
+public record DuplicateCandidate(GlobalSearchResult first, GlobalSearchResult second, double similarity) {
+}
@@ -0,0 +1,182 @@
+package gutek.domain.duplicates;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the pairs of cards with similar texts among many cards, using locality-sensitive hashing
+ * of their {@link MinHasher} signatures.
+ * <p>
+ * Every signature is cut into {@value #BANDS} bands of {@value #ROWS_PER_BAND} values, and two cards become
+ * candidates if any of their bands are equal. The bands are hashed and sorted, so the cards sharing a band are found
+ * without comparing every card with every other one; a pair of cards with a similarity of 0.6 shares a band with
+ * a probability of about 90%, and a pair with a similarity of 0.3 with a probability of about 12%.
+ * The candidates are then verified by comparing their whole signatures with the threshold.
+ * </p>
+ * <p>
+ * The cards of a large bucket, such as many cards with the same front, are only compared with
+ * the {@value #MAX_BUCKET_NEIGHBOURS} cards following them in the bucket, so the number of compared pairs
+ * stays linear in the number of cards.
+ * </p>
+ */
+public class DuplicateDetector {
+
+    /**
+     * Number of bands of a signature.
+     */
+    public static final int BANDS = 16;
+
+    /**
+     * Number of signature values in a band.
+     */
+    public static final int ROWS_PER_BAND = MinHasher.SIGNATURE_LENGTH / BANDS;
+
+    /**
+     * Number of cards following a card in a bucket it is compared with.
+     */
+    static final int MAX_BUCKET_NEIGHBOURS = 32;
+
+    /**
+     * Number of low bits of a bucket key holding the position of the card.
+     */
+    private static final int POSITION_BITS = 24;
+
+    /**
+     * Maximum number of added cards.
+     */
+    public static final int MAX_CARDS = 1 << POSITION_BITS;
+
+    /**
+     * Minimal estimated similarity of the reported pairs.
+     */
+    private final double threshold;
+
+    /**
+     * Identifiers of the added cards, in the order they were added.
+     */
+    private long[] cardIds = new long[64];
+
+    /**
+     * Signatures of the added cards, in the order they were added.
+     */
+    private int[][] signatures = new int[64][];
+
+    /**
+     * Number of added cards.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty detector.
+     *
+     * @param threshold the minimal estimated similarity of the reported pairs, from 0 to 1
+     */
+    public DuplicateDetector(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Adds a card. Cards with an empty signature are ignored.
+     *
+     * @param cardId    the identifier of the card
+     * @param signature the signature of the card
+     * @throws IllegalStateException if {@link #MAX_CARDS} cards have already been added
+     */
+    public void add(long cardId, int[] signature) {
+        if (signature.length != MinHasher.SIGNATURE_LENGTH) {
+            return;
+        }
+        if (size == MAX_CARDS) {
+            throw new IllegalStateException("Too many cards to compare: " + size);
+        }
+        if (size == cardIds.length) {
+            cardIds = Arrays.copyOf(cardIds, size * 2);
+            signatures = Arrays.copyOf(signatures, size * 2);
+        }
+        cardIds[size] = cardId;
+        signatures[size] = signature;
+        size++;
+    }
+
+    /**
+     * Returns the number of added cards.
+     *
+     * @return the number of added cards, not counting the ignored ones
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the pairs of added cards whose estimated similarity reaches the threshold.
+     *
+     * @return the found pairs, most similar first, each with the card added first as its first card
+     */
+    public List<DuplicatePair> findPairs() {
+        List<DuplicatePair> pairs = new ArrayList<>();
+        Set<Long> comparedPairs = new HashSet<>();
+        long[] bucketKeys = new long[size];
+        for (int band = 0; band < BANDS; band++) {
+            for (int position = 0; position < size; position++) {
+                bucketKeys[position] = (bandHash(signatures[position], band) << POSITION_BITS) | position;
+            }
+            Arrays.sort(bucketKeys);
+            int bucketStart = 0;
+            for (int i = 1; i <= size; i++) {
+                if (i == size || bucketKeys[i] >>> POSITION_BITS != bucketKeys[bucketStart] >>> POSITION_BITS) {
+                    compareBucket(bucketKeys, bucketStart, i, comparedPairs, pairs);
+                    bucketStart = i;
+                }
+            }
+        }
+        pairs.sort(Comparator.comparingDouble(DuplicatePair::similarity).reversed()
+                .thenComparingLong(DuplicatePair::firstCardId)
+                .thenComparingLong(DuplicatePair::secondCardId));
+        return pairs;
+    }
+
+    /**
+     * Compares the cards of a bucket with each other and keeps the pairs similar enough.
+     *
+     * @param bucketKeys    the sorted bucket keys of the band
+     * @param from          the index of the first key of the bucket
+     * @param to            the index following the last key of the bucket
+     * @param comparedPairs the pairs of positions already compared, as found in another band
+     * @param pairs         the found pairs
+     */
+    private void compareBucket(long[] bucketKeys, int from, int to, Set<Long> comparedPairs, List<DuplicatePair> pairs) {
+        long positionMask = (1L << POSITION_BITS) - 1;
+        for (int i = from; i < to - 1; i++) {
+            int first = (int) (bucketKeys[i] & positionMask);
+            for (int j = i + 1; j < to && j <= i + MAX_BUCKET_NEIGHBOURS; j++) {
+                int second = (int) (bucketKeys[j] & positionMask);
+                if (!comparedPairs.add(((long) first << 32) | second)) {
+                    continue;
+                }
+                double similarity = MinHasher.similarity(signatures[first], signatures[second]);
+                if (similarity >= threshold) {
+                    pairs.add(new DuplicatePair(cardIds[first], cardIds[second], similarity));
+                }
+            }
+        }
+    }
+
+    /**
+     * Hashes a band of a signature.
+     *
+     * @param signature the signature
+     * @param band      the index of the band
+     * @return the hash of the band, of {@code 64 - POSITION_BITS} bits
+     */
+    private static long bandHash(int[] signature, int band) {
+        long hash = band;
+        for (int row = band * ROWS_PER_BAND; row < (band + 1) * ROWS_PER_BAND; row++) {
+            hash = MinHasher.mix(hash * 31 + signature[row]);
+        }
+        return hash >>> POSITION_BITS;
+    }
+}
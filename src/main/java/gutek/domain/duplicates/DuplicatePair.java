@@ -0,0 +1,11 @@
+package gutek.domain.duplicates;
+
+/**
+ * Pair of cards with similar texts found by the {@link DuplicateDetector}.
+ *
+ * @param firstCardId  the identifier of the first card
+ * @param secondCardId the identifier of the second card
+ * @param similarity   the similarity of the cards estimated from their signatures, from 0 to 1
+ */
+public record DuplicatePair(long firstCardId, long secondCardId, double similarity) {
+}
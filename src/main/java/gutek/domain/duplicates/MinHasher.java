@@ -0,0 +1,172 @@
+package gutek.domain.duplicates;
+
+import gutek.domain.revisions.TypedAnswerMatcher;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Computes the MinHash signatures of the cards, estimating how similar the texts of two cards are.
+ * <p>
+ * The front and the back of a card are folded like the typed answers - ignoring case, diacritics and punctuation -
+ * padded with a space on both sides and cut into overlapping shingles of {@value #SHINGLE_LENGTH} characters,
+ * the shingles of the back being kept apart from those of the front. Every one of the {@value #SIGNATURE_LENGTH}
+ * hash functions keeps the smallest hash of the shingles, so the fraction of equal positions in the signatures
+ * of two cards estimates the Jaccard similarity of their sets of shingles. {@code "self-assured"} and
+ * {@code "self assured"} have equal signatures, and texts differing by a letter share most of their positions.
+ * </p>
+ * <p>
+ * The hash functions are derived from a fixed seed, so the signatures stored in the database stay comparable
+ * between the runs of the application.
+ * </p>
+ */
+public final class MinHasher {
+
+    /**
+     * Number of hash functions, and of values in a signature.
+     */
+    public static final int SIGNATURE_LENGTH = 64;
+
+    /**
+     * Number of characters of a shingle.
+     */
+    static final int SHINGLE_LENGTH = 3;
+
+    /**
+     * Seed of the hash functions. Changing it makes the stored signatures incomparable with the new ones.
+     */
+    private static final long HASH_FUNCTIONS_SEED = 0x6D696E68617368L;
+
+    /**
+     * Value mixed into the shingles of the back, so they differ from the same shingles of the front.
+     */
+    private static final long BACK_SALT = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Seeds of the hash functions.
+     */
+    private static final long[] SEEDS = new Random(HASH_FUNCTIONS_SEED).longs(SIGNATURE_LENGTH).toArray();
+
+    /**
+     * Private constructor, as the class only holds static methods.
+     */
+    private MinHasher() {
+    }
+
+    /**
+     * Computes the signature of a card.
+     *
+     * @param front the front text of the card
+     * @param back  the back text of the card
+     * @return the signature, of {@value #SIGNATURE_LENGTH} values, or empty if neither text has any letters or digits
+     */
+    public static int[] signature(String front, String back) {
+        int[] signature = new int[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        boolean shingled = addShingles(signature, front, 0L);
+        shingled |= addShingles(signature, back, BACK_SALT);
+        return shingled ? signature : new int[0];
+    }
+
+    /**
+     * Estimates the similarity of two cards from their signatures.
+     *
+     * @param signature      the signature of the first card
+     * @param otherSignature the signature of the second card
+     * @return the fraction of equal positions of the signatures, 0 if either of them is empty
+     */
+    public static double similarity(int[] signature, int[] otherSignature) {
+        if (signature.length == 0 || signature.length != otherSignature.length) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < signature.length; i++) {
+            if (signature[i] == otherSignature[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / signature.length;
+    }
+
+    /**
+     * Hashes the texts of a card, telling whether a stored signature was computed from the current texts.
+     *
+     * @param front the front text of the card
+     * @param back  the back text of the card
+     * @return the hash of the texts
+     */
+    public static int textHash(String front, String back) {
+        return 31 * Objects.hashCode(front) + Objects.hashCode(back);
+    }
+
+    /**
+     * Serializes a signature for storing it in the database.
+     *
+     * @param signature the signature
+     * @return the values of the signature, four bytes each
+     */
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    /**
+     * Reads a signature serialized by {@link #toBytes(int[])}.
+     *
+     * @param bytes the serialized signature
+     * @return the signature
+     */
+    public static int[] fromBytes(byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    /**
+     * Folds a text and adds the hashes of its shingles to the signature.
+     *
+     * @param signature the signature, keeping the smallest hash of every hash function
+     * @param text      the text, may be {@code null}
+     * @param salt      the value mixed into the shingles of the text
+     * @return {@code true} if the text has any letters or digits
+     */
+    private static boolean addShingles(int[] signature, String text, long salt) {
+        String folded = text == null ? "" : TypedAnswerMatcher.normalize(text);
+        if (folded.isEmpty()) {
+            return false;
+        }
+        int[] codePoints = (" " + folded + " ").codePoints().toArray();
+        for (int start = 0; start + SHINGLE_LENGTH <= codePoints.length; start++) {
+            long shingle = 0;
+            for (int i = start; i < start + SHINGLE_LENGTH; i++) {
+                shingle = (shingle << 21) | codePoints[i];
+            }
+            shingle ^= salt;
+            for (int function = 0; function < SIGNATURE_LENGTH; function++) {
+                int hash = (int) (mix(shingle ^ SEEDS[function]) >>> 32);
+                if (hash < signature[function]) {
+                    signature[function] = hash;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mixes the bits of a value, as the finalizer of the MurmurHash3 hash does.
+     *
+     * @param value the value
+     * @return the mixed value
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB93FE1A85B53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
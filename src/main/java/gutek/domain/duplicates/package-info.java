@@ -0,0 +1,10 @@
+/**
+ * Provides classes for finding near-duplicate cards across the decks of a user.
+ * <ul>
+ *     <li>{@link gutek.domain.duplicates.MinHasher} - Computes the MinHash signatures of the card texts.</li>
+ *     <li>{@link gutek.domain.duplicates.DuplicateDetector} - Finds the pairs of similar cards with locality-sensitive hashing of their signatures.</li>
+ *     <li>{@link gutek.domain.duplicates.DuplicatePair} - Identifiers of two similar cards together with their similarity.</li>
+ *     <li>{@link gutek.domain.duplicates.DuplicateCandidate} - Two similar cards with their decks, offered for review.</li>
+ * </ul>
+ */
+package gutek.domain.duplicates;
@@ -0,0 +1,103 @@
+package gutek.domain.edits;
+
+import gutek.domain.search.CardText;
+
+import java.util.regex.Pattern;
+
+/**
+ * Edit applied at once to all cards of a deck matching a regular expression.
+ * <p>
+ * A card matches when the pattern is found in any of its texts within the scope, or always when there is no pattern.
+ * The matching cards have the occurrences of the pattern replaced, their whitespace normalized and are moved to
+ * the target deck, each step only when it is requested. The replacement may refer to the groups of the pattern
+ * as {@code $1} or {@code ${name}}.
+ * </p>
+ *
+ * @param findPattern         the pattern searched in the texts, {@code null} to match all cards
+ * @param replacement         the replacement of the occurrences of the pattern, {@code null} to keep the texts
+ * @param scope               the texts searched and edited
+ * @param normalizeWhitespace whether the edited texts are trimmed and their whitespace runs collapsed into single spaces
+ * @param targetDeckId        the identifier of the deck the matching cards are moved to, {@code null} to keep their decks
+ */
+public record BulkEdit(Pattern findPattern, String replacement, BulkEditScope scope, boolean normalizeWhitespace,
+                       Long targetDeckId) {
+
+    /**
+     * Pattern of the whitespace runs collapsed by the whitespace normalization.
+     */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Compiles the regular expression searched in the card texts. Character classes such as {@code \w}
+     * match the letters of all languages, e.g. {@code ą} or {@code é}.
+     *
+     * @param regex the regular expression
+     * @return the compiled pattern
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid
+     */
+    public static Pattern compilePattern(String regex) {
+        return Pattern.compile(regex, Pattern.UNICODE_CHARACTER_CLASS);
+    }
+
+    /**
+     * Checks whether the edit moves the matching cards to another deck.
+     *
+     * @return {@code true} if the target deck is set
+     */
+    public boolean movesCards() {
+        return targetDeckId != null;
+    }
+
+    /**
+     * Checks whether a card matches the edit.
+     *
+     * @param card the texts of the card
+     * @return {@code true} if there is no pattern or it is found in any of the texts within the scope
+     */
+    public boolean matches(CardText card) {
+        return findPattern == null
+                || (scope.includesFront() && card.front() != null && findPattern.matcher(card.front()).find())
+                || (scope.includesBack() && card.back() != null && findPattern.matcher(card.back()).find());
+    }
+
+    /**
+     * Computes the change of a matching card without modifying it.
+     *
+     * @param card the texts and deck of the card
+     * @return the texts and deck of the card after the edit
+     * @throws IllegalArgumentException  if the replacement refers to a group incorrectly
+     * @throws IndexOutOfBoundsException if the replacement refers to a group missing in the pattern
+     */
+    public BulkEditChange apply(CardText card) {
+        String front = scope.includesFront() ? edit(card.front()) : nullToEmpty(card.front());
+        String back = scope.includesBack() ? edit(card.back()) : nullToEmpty(card.back());
+        return new BulkEditChange(card, front, back, movesCards() ? targetDeckId : card.idDeck());
+    }
+
+    /**
+     * Applies the replacement and the whitespace normalization to a single text.
+     *
+     * @param text the edited text
+     * @return the text after the edit
+     */
+    private String edit(String text) {
+        String edited = nullToEmpty(text);
+        if (findPattern != null && replacement != null) {
+            edited = findPattern.matcher(edited).replaceAll(replacement);
+        }
+        if (normalizeWhitespace) {
+            edited = WHITESPACE.matcher(edited.strip()).replaceAll(" ");
+        }
+        return edited;
+    }
+
+    /**
+     * Replaces a missing text with an empty one.
+     *
+     * @param text the text, may be {@code null}
+     * @return the text, or an empty string if it was {@code null}
+     */
+    private static String nullToEmpty(String text) {
+        return text == null ? "" : text;
+    }
+}
@@ -0,0 +1,43 @@
+package gutek.domain.edits;
+
+import gutek.domain.search.CardText;
+
+import java.util.Objects;
+
+/**
+ * Change of a card matching a {@link BulkEdit}.
+ *
+ * @param original the current texts and deck of the card
+ * @param front    the front text of the card after the edit
+ * @param back     the back text of the card after the edit
+ * @param idDeck   the identifier of the deck of the card after the edit
+ */
+public record BulkEditChange(CardText original, String front, String back, Long idDeck) {
+
+    /**
+     * Checks whether the edit changes the card.
+     *
+     * @return {@code true} if the texts or the deck of the card change
+     */
+    public boolean isChanged() {
+        return !front.equals(original.front()) || !back.equals(original.back()) || isMoved();
+    }
+
+    /**
+     * Checks whether the edit moves the card to another deck.
+     *
+     * @return {@code true} if the deck of the card changes
+     */
+    public boolean isMoved() {
+        return !Objects.equals(idDeck, original.idDeck());
+    }
+
+    /**
+     * Checks whether the edited card can be saved, i.e. neither of its texts is blank.
+     *
+     * @return {@code true} if both texts of the edited card are not blank
+     */
+    public boolean isValid() {
+        return !front.isBlank() && !back.isBlank();
+    }
+}
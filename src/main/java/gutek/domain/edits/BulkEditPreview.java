@@ -0,0 +1,19 @@
+package gutek.domain.edits;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link BulkEdit} computed without changing the cards, shown before the edit is applied.
+ *
+ * @param matchingCount the number of cards matching the edit
+ * @param changedCount  the number of cards the edit would change
+ * @param invalidCount  the number of cards the edit would leave with a blank text, which are not changed
+ * @param samples       the first changes, at most {@link #MAX_SAMPLES} of them
+ */
+public record BulkEditPreview(int matchingCount, int changedCount, int invalidCount, List<BulkEditChange> samples) {
+
+    /**
+     * Maximum number of changes kept as samples.
+     */
+    public static final int MAX_SAMPLES = 50;
+}
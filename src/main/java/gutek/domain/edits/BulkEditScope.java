@@ -0,0 +1,40 @@
+package gutek.domain.edits;
+
+/**
+ * Texts of a card searched and edited by a {@link BulkEdit}.
+ */
+public enum BulkEditScope {
+
+    /**
+     * Only the front of the card.
+     */
+    FRONT,
+
+    /**
+     * Only the back of the card.
+     */
+    BACK,
+
+    /**
+     * Both the front and the back of the card.
+     */
+    BOTH;
+
+    /**
+     * Checks whether the front of the card is searched and edited.
+     *
+     * @return {@code true} for {@link #FRONT} and {@link #BOTH}
+     */
+    public boolean includesFront() {
+        return this != BACK;
+    }
+
+    /**
+     * Checks whether the back of the card is searched and edited.
+     *
+     * @return {@code true} for {@link #BACK} and {@link #BOTH}
+     */
+    public boolean includesBack() {
+        return this != FRONT;
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Provides classes for editing all matching cards of a deck at once.
+ * <ul>
+ *     <li>{@link gutek.domain.edits.BulkEdit} - Find-and-replace, whitespace normalization and move applied to the matching cards.</li>
+ *     <li>{@link gutek.domain.edits.BulkEditScope} - Texts of a card searched and edited by a bulk edit.</li>
+ *     <li>{@link gutek.domain.edits.BulkEditChange} - Texts and deck of a single card before and after a bulk edit.</li>
+ *     <li>{@link gutek.domain.edits.BulkEditPreview} - Counts and samples of the changes shown before a bulk edit is applied.</li>
+ * </ul>
+ */
+package gutek.domain.edits;
@@ -0,0 +1,27 @@
+package gutek.domain.events;
+
+/**
+ * Application event published when cards of a deck are added, edited, removed or revised.
+ * <p>
+ * Listeners use it to drop data derived from the cards of the deck, e.g. cached chart series.
+ * </p>
+ *
+ * @param deckId     the ID of the deck whose cards changed
+ * @param changeType the kind of the change
+ */
+public record DeckCardsChangedEvent(Long deckId, ChangeType changeType) {
+
+    /**
+     * Kinds of changes of the cards of a deck.
+     */
+    public enum ChangeType {
+        /** New cards were added to the deck. */
+        ADDED,
+        /** Existing cards were modified. */
+        EDITED,
+        /** Cards were removed from the deck. */
+        REMOVED,
+        /** A card was revised. */
+        REVISED
+    }
+}
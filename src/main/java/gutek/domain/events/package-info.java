@@ -0,0 +1,8 @@
+/**
+ * Provides application events published when the data of a deck changes.
+ * This package includes:
+ * <ul>
+ *     <li>{@link gutek.domain.events.DeckCardsChangedEvent} - Published when cards of a deck are added, edited, removed or revised.</li>
+ * </ul>
+ */
+package gutek.domain.events;
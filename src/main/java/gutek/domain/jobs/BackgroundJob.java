@@ -0,0 +1,139 @@
+package gutek.domain.jobs;
+
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handle of a long-running job executed in the background.
+ * <p>
+ * The job reports its progress as the number of processed items out of the total number of items and can be
+ * cancelled cooperatively: {@link #cancel()} only sets a flag, which the job checks between units of work.
+ * The outcome of the job is available through {@link #getResult()}; a cancelled job still completes normally
+ * with the result of the work done before the cancellation.
+ * </p>
+ *
+ * @param <R> the type of the job's result
+ */
+public class BackgroundJob<R> {
+
+    /**
+     * Listener notified about the job's progress, may be {@code null}.
+     */
+    private final JobProgressListener progressListener;
+
+    /**
+     * Number of items processed so far.
+     */
+    private final AtomicInteger processedCount = new AtomicInteger();
+
+    /**
+     * Total number of items to process.
+     */
+    @Getter
+    private volatile int totalCount;
+
+    /**
+     * Flag indicating whether the job was requested to stop.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Future completed with the job's result, or exceptionally if the job failed.
+     */
+    @Getter
+    private final CompletableFuture<R> result = new CompletableFuture<>();
+
+    /**
+     * Constructs a new job handle.
+     *
+     * @param progressListener listener notified about the job's progress, may be {@code null}
+     */
+    public BackgroundJob(JobProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Requests the job to stop. Work already finished is kept.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the job was requested to stop.
+     *
+     * @return true if the job was cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the number of items processed so far.
+     *
+     * @return the number of processed items
+     */
+    public int getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * Returns the progress of the job.
+     *
+     * @return the fraction of processed items, between 0 and 1
+     */
+    public double getProgress() {
+        int total = totalCount;
+        return total == 0 ? 0 : (double) processedCount.get() / total;
+    }
+
+    /**
+     * Sets the total number of items to process and notifies the listener.
+     *
+     * @param totalCount the total number of items
+     */
+    public void start(int totalCount) {
+        this.totalCount = totalCount;
+        notifyProgress(processedCount.get());
+    }
+
+    /**
+     * Records that further items have been processed and notifies the listener.
+     *
+     * @param count the number of newly processed items
+     */
+    public void addProcessed(int count) {
+        notifyProgress(processedCount.addAndGet(count));
+    }
+
+    /**
+     * Completes the job with the given result.
+     *
+     * @param value the result of the job
+     */
+    public void complete(R value) {
+        result.complete(value);
+    }
+
+    /**
+     * Completes the job with the given failure.
+     *
+     * @param throwable the cause of the failure
+     */
+    public void fail(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    /**
+     * Passes the current progress to the listener, if present.
+     *
+     * @param processed the number of processed items
+     */
+    private void notifyProgress(int processed) {
+        if (progressListener != null) {
+            progressListener.onProgress(processed, totalCount);
+        }
+    }
+}
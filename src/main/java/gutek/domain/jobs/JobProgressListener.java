@@ -0,0 +1,20 @@
+package gutek.domain.jobs;
+
+/**
+ * Listener notified about the progress of a {@link BackgroundJob}.
+ * <p>
+ * The listener is called from a background thread, so any user interface updates
+ * have to be passed to the JavaFX application thread.
+ * </p>
+ */
+@FunctionalInterface
+public interface JobProgressListener {
+
+    /**
+     * Called after a part of the job's work has been finished.
+     *
+     * @param processed the number of already processed items
+     * @param total     the total number of items to process
+     */
+    void onProgress(int processed, int total);
+}
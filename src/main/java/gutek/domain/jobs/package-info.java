@@ -0,0 +1,8 @@
+/**
+ * Provides classes for running long operations in the background.
+ * <p>
+ * This package contains the handle of a cancellable background job and the listener
+ * used to report the job's progress.
+ * </p>
+ */
+package gutek.domain.jobs;
@@ -0,0 +1,27 @@
+package gutek.domain.reports;
+
+import gutek.domain.charts.ChartData;
+
+/**
+ * Everything needed to write a statistics chart to a file: its data and localized labels.
+ *
+ * @param title             the title of the chart
+ * @param categoryAxisLabel the title of the category axis
+ * @param valueAxisLabel    the title of the value axis
+ * @param style             the way the series is drawn
+ * @param data              the series of the chart
+ */
+public record ChartReport(String title, String categoryAxisLabel, String valueAxisLabel, Style style, ChartData data) {
+
+    /**
+     * Ways of drawing the series of a report.
+     */
+    public enum Style {
+
+        /** Every category is drawn as a bar; long series are summed into weeks or months. */
+        BAR,
+
+        /** The categories are connected by a line; long series are downsampled. */
+        LINE
+    }
+}
@@ -0,0 +1,385 @@
+package gutek.domain.reports;
+
+import gutek.domain.charts.CanvasBarPainter;
+import gutek.domain.charts.ChartData;
+import gutek.domain.charts.ChartSeriesReducer;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Utility class writing chart reports to files without any JavaFX nodes, so reports can be generated
+ * headless and on any thread.
+ * <p>
+ * CSV files contain the whole series. Images are laid out like {@link CanvasBarPainter}: bar series longer
+ * than {@link ChartSeriesReducer#MAX_CATEGORIES} are summed into weeks or months and line series are
+ * downsampled. The vector and the raster images are drawn by the same code through a {@link ReportCanvas}.
+ * </p>
+ */
+public final class ChartReportRenderer {
+
+    /** Width of the images. */
+    public static final int WIDTH = 800;
+
+    /** Height of the images. */
+    public static final int HEIGHT = 400;
+
+    /** Space on the left of the plot, for the value axis labels. */
+    private static final double LEFT_MARGIN = 60;
+
+    /** Space on the right of the plot. */
+    private static final double RIGHT_MARGIN = 20;
+
+    /** Space above the plot, for the title and the value axis title. */
+    private static final double TOP_MARGIN = 50;
+
+    /** Space below the plot, for the category labels and the category axis title. */
+    private static final double BOTTOM_MARGIN = 50;
+
+    /** Minimal horizontal space needed by a category label. */
+    private static final double LABEL_WIDTH = 60;
+
+    /** Fraction of a category slot filled by its bar. */
+    private static final double BAR_FILL = 0.8;
+
+    /** Font size of the title. */
+    private static final int TITLE_FONT_SIZE = 16;
+
+    /** Font size of the labels. */
+    private static final int LABEL_FONT_SIZE = 11;
+
+    /** Color of the bars and lines, the default color of the first JavaFX chart series. */
+    private static final String SERIES_COLOR = "#f3622d";
+
+    /** Color of the grid lines. */
+    private static final String GRID_COLOR = "#e0e0e0";
+
+    /** Color of the axes and labels. */
+    private static final String TEXT_COLOR = "#333333";
+
+    /** Color of the background. */
+    private static final String BACKGROUND_COLOR = "#ffffff";
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private ChartReportRenderer() {
+    }
+
+    /**
+     * Writes the report to a file in the given format, replacing an existing file.
+     *
+     * @param report the written report
+     * @param format the format of the file
+     * @param file   the path of the file; its parent directories are created
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(ChartReport report, ReportFormat format, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        switch (format) {
+            case CSV -> {
+                try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    writeCsv(report, writer);
+                }
+            }
+            case SVG -> Files.writeString(file, toSvg(report), StandardCharsets.UTF_8);
+            case PNG -> {
+                try (OutputStream output = Files.newOutputStream(file)) {
+                    writePng(report, output);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the whole series of the report as CSV, with a header row of the axis titles.
+     *
+     * @param report the written report
+     * @param writer the writer receiving the CSV
+     * @throws IOException if writing fails
+     */
+    public static void writeCsv(ChartReport report, Writer writer) throws IOException {
+        writer.write(csvField(report.categoryAxisLabel()) + "," + csvField(report.valueAxisLabel()) + "\n");
+        ChartData data = report.data();
+        for (int i = 0; i < data.size(); i++) {
+            writer.write(csvField(data.labels()[i]) + "," + data.values()[i] + "\n");
+        }
+    }
+
+    /**
+     * Draws the report as an SVG document.
+     *
+     * @param report the drawn report
+     * @return the SVG document
+     */
+    public static String toSvg(ChartReport report) {
+        SvgCanvas canvas = new SvgCanvas();
+        draw(report, canvas);
+        return canvas.toSvg();
+    }
+
+    /**
+     * Draws the report as a raster image.
+     *
+     * @param report the drawn report
+     * @return the image of {@link #WIDTH} by {@link #HEIGHT} pixels
+     */
+    public static BufferedImage toImage(ChartReport report) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            draw(report, new GraphicsCanvas(graphics));
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Draws the report as a PNG image.
+     *
+     * @param report the drawn report
+     * @param output the stream receiving the PNG
+     * @throws IOException if writing fails
+     */
+    public static void writePng(ChartReport report, OutputStream output) throws IOException {
+        ImageIO.write(toImage(report), "png", output);
+    }
+
+    /**
+     * Reduces the series of the report to the number of categories which fit into an image.
+     *
+     * @param report the drawn report
+     * @return the displayed series
+     */
+    static ChartData displayedData(ChartReport report) {
+        return report.style() == ChartReport.Style.LINE
+                ? ChartSeriesReducer.downsampleLine(report.data())
+                : ChartSeriesReducer.sumBucketsForDisplay(report.data(), true);
+    }
+
+    /**
+     * Draws the whole report onto the canvas.
+     *
+     * @param report the drawn report
+     * @param canvas the canvas
+     */
+    private static void draw(ChartReport report, ReportCanvas canvas) {
+        ChartData data = displayedData(report);
+        double plotWidth = WIDTH - LEFT_MARGIN - RIGHT_MARGIN;
+        double plotHeight = HEIGHT - TOP_MARGIN - BOTTOM_MARGIN;
+        double plotBottom = TOP_MARGIN + plotHeight;
+
+        int maxValue = 0;
+        for (int value : data.values()) {
+            maxValue = Math.max(maxValue, value);
+        }
+        int tickUnit = CanvasBarPainter.niceTickUnit(maxValue);
+        int axisMaximum = Math.max(Math.ceilDiv(maxValue, tickUnit), 1) * tickUnit;
+        double scale = plotHeight / axisMaximum;
+
+        canvas.fillRect(0, 0, WIDTH, HEIGHT, BACKGROUND_COLOR);
+        canvas.text(WIDTH / 2.0, 22, report.title(), ReportCanvas.Anchor.MIDDLE, TITLE_FONT_SIZE);
+        canvas.text(4, TOP_MARGIN - 10, report.valueAxisLabel(), ReportCanvas.Anchor.START, LABEL_FONT_SIZE);
+        for (int tick = 0; tick <= axisMaximum; tick += tickUnit) {
+            double y = plotBottom - tick * scale;
+            canvas.line(LEFT_MARGIN, y, LEFT_MARGIN + plotWidth, y, GRID_COLOR);
+            canvas.text(LEFT_MARGIN - 6, y + 4, String.valueOf(tick), ReportCanvas.Anchor.END, LABEL_FONT_SIZE);
+        }
+
+        int size = data.size();
+        if (size > 0) {
+            double slotWidth = plotWidth / size;
+            if (report.style() == ChartReport.Style.LINE) {
+                double[] xs = new double[size];
+                double[] ys = new double[size];
+                for (int i = 0; i < size; i++) {
+                    xs[i] = LEFT_MARGIN + (i + 0.5) * slotWidth;
+                    ys[i] = plotBottom - data.values()[i] * scale;
+                }
+                canvas.polyline(xs, ys, SERIES_COLOR);
+            } else {
+                double barWidth = Math.max(slotWidth * BAR_FILL, 1);
+                double barOffset = (slotWidth - barWidth) / 2;
+                for (int i = 0; i < size; i++) {
+                    if (data.values()[i] > 0) {
+                        double barHeight = data.values()[i] * scale;
+                        canvas.fillRect(LEFT_MARGIN + i * slotWidth + barOffset, plotBottom - barHeight, barWidth, barHeight, SERIES_COLOR);
+                    }
+                }
+            }
+            int labelStep = Math.max((int) Math.ceil(size * LABEL_WIDTH / plotWidth), 1);
+            for (int i = size - 1; i >= 0; i -= labelStep) {
+                canvas.text(LEFT_MARGIN + (i + 0.5) * slotWidth, plotBottom + 16, data.labels()[i], ReportCanvas.Anchor.MIDDLE, LABEL_FONT_SIZE);
+            }
+        }
+
+        canvas.line(LEFT_MARGIN, TOP_MARGIN, LEFT_MARGIN, plotBottom, TEXT_COLOR);
+        canvas.line(LEFT_MARGIN, plotBottom, LEFT_MARGIN + plotWidth, plotBottom, TEXT_COLOR);
+        canvas.text(LEFT_MARGIN + plotWidth / 2, HEIGHT - 10, report.categoryAxisLabel(), ReportCanvas.Anchor.MIDDLE, LABEL_FONT_SIZE);
+    }
+
+    /**
+     * Quotes a CSV field if it contains a separator, a quote or a line break.
+     *
+     * @param value the value of the field
+     * @return the field as written to the file
+     */
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * Canvas collecting the drawing operations as SVG elements.
+     */
+    private static final class SvgCanvas implements ReportCanvas {
+
+        /** Elements drawn so far. */
+        private final StringBuilder elements = new StringBuilder();
+
+        @Override
+        public void fillRect(double x, double y, double width, double height, String color) {
+            elements.append(String.format(Locale.ROOT, "<rect x=\"%.2f\" y=\"%.2f\" width=\"%.2f\" height=\"%.2f\" fill=\"%s\"/>%n",
+                    x, y, width, height, color));
+        }
+
+        @Override
+        public void line(double x1, double y1, double x2, double y2, String color) {
+            elements.append(String.format(Locale.ROOT, "<line x1=\"%.2f\" y1=\"%.2f\" x2=\"%.2f\" y2=\"%.2f\" stroke=\"%s\"/>%n",
+                    x1, y1, x2, y2, color));
+        }
+
+        @Override
+        public void polyline(double[] xs, double[] ys, String color) {
+            elements.append("<polyline fill=\"none\" stroke-width=\"2\" stroke=\"").append(color).append("\" points=\"");
+            for (int i = 0; i < xs.length; i++) {
+                elements.append(String.format(Locale.ROOT, "%s%.2f,%.2f", i == 0 ? "" : " ", xs[i], ys[i]));
+            }
+            elements.append("\"/>\n");
+        }
+
+        @Override
+        public void text(double x, double y, String text, Anchor anchor, int fontSize) {
+            String textAnchor = switch (anchor) {
+                case START -> "start";
+                case MIDDLE -> "middle";
+                case END -> "end";
+            };
+            elements.append(String.format(Locale.ROOT, "<text x=\"%.2f\" y=\"%.2f\" font-size=\"%d\" text-anchor=\"%s\" fill=\"%s\">%s</text>%n",
+                    x, y, fontSize, textAnchor, TEXT_COLOR, escape(text)));
+        }
+
+        /**
+         * Wraps the drawn elements into an SVG document.
+         *
+         * @return the SVG document
+         */
+        String toSvg() {
+            return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + WIDTH + "\" height=\"" + HEIGHT
+                    + "\" viewBox=\"0 0 " + WIDTH + " " + HEIGHT + "\" font-family=\"sans-serif\">\n"
+                    + elements
+                    + "</svg>\n";
+        }
+
+        /**
+         * Escapes the characters with a special meaning in XML.
+         *
+         * @param text the text
+         * @return the escaped text
+         */
+        private static String escape(String text) {
+            if (text == null) {
+                return "";
+            }
+            return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+        }
+    }
+
+    /**
+     * Canvas forwarding the drawing operations to AWT graphics.
+     */
+    private static final class GraphicsCanvas implements ReportCanvas {
+
+        /** Graphics of the image. */
+        private final Graphics2D graphics;
+
+        /**
+         * Constructs a canvas drawing with the given graphics.
+         *
+         * @param graphics the graphics of the image
+         */
+        GraphicsCanvas(Graphics2D graphics) {
+            this.graphics = graphics;
+        }
+
+        @Override
+        public void fillRect(double x, double y, double width, double height, String color) {
+            graphics.setColor(Color.decode(color));
+            graphics.fill(new Rectangle2D.Double(x, y, width, height));
+        }
+
+        @Override
+        public void line(double x1, double y1, double x2, double y2, String color) {
+            graphics.setColor(Color.decode(color));
+            graphics.setStroke(new BasicStroke(1));
+            graphics.draw(new Line2D.Double(x1, y1, x2, y2));
+        }
+
+        @Override
+        public void polyline(double[] xs, double[] ys, String color) {
+            if (xs.length == 0) {
+                return;
+            }
+            Path2D.Double path = new Path2D.Double();
+            path.moveTo(xs[0], ys[0]);
+            for (int i = 1; i < xs.length; i++) {
+                path.lineTo(xs[i], ys[i]);
+            }
+            graphics.setColor(Color.decode(color));
+            graphics.setStroke(new BasicStroke(2));
+            graphics.draw(path);
+        }
+
+        @Override
+        public void text(double x, double y, String text, Anchor anchor, int fontSize) {
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, fontSize));
+            graphics.setColor(Color.decode(TEXT_COLOR));
+            double width = graphics.getFontMetrics().stringWidth(text);
+            double left = switch (anchor) {
+                case START -> x;
+                case MIDDLE -> x - width / 2;
+                case END -> x - width;
+            };
+            graphics.drawString(text, (float) left, (float) y);
+        }
+    }
+}
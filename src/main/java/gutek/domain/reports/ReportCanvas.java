@@ -0,0 +1,62 @@
+package gutek.domain.reports;
+
+/**
+ * Minimal set of drawing operations used by {@link ChartReportRenderer}, so the same layout code
+ * produces both the vector and the raster images.
+ */
+interface ReportCanvas {
+
+    /**
+     * Horizontal alignment of a text relative to its anchor point.
+     */
+    enum Anchor {
+        /** The text starts at the anchor. */
+        START,
+        /** The text is centered on the anchor. */
+        MIDDLE,
+        /** The text ends at the anchor. */
+        END
+    }
+
+    /**
+     * Fills a rectangle.
+     *
+     * @param x      the left edge
+     * @param y      the top edge
+     * @param width  the width
+     * @param height the height
+     * @param color  the fill color as a {@code #rrggbb} string
+     */
+    void fillRect(double x, double y, double width, double height, String color);
+
+    /**
+     * Draws a straight line.
+     *
+     * @param x1    the x coordinate of the start
+     * @param y1    the y coordinate of the start
+     * @param x2    the x coordinate of the end
+     * @param y2    the y coordinate of the end
+     * @param color the line color as a {@code #rrggbb} string
+     */
+    void line(double x1, double y1, double x2, double y2, String color);
+
+    /**
+     * Draws a line connecting the given points.
+     *
+     * @param xs    the x coordinates of the points
+     * @param ys    the y coordinates of the points
+     * @param color the line color as a {@code #rrggbb} string
+     */
+    void polyline(double[] xs, double[] ys, String color);
+
+    /**
+     * Draws a single line of text with its baseline at the anchor point.
+     *
+     * @param x        the x coordinate of the anchor
+     * @param y        the y coordinate of the baseline
+     * @param text     the text
+     * @param anchor   the alignment of the text relative to the anchor
+     * @param fontSize the font size in pixels
+     */
+    void text(double x, double y, String text, Anchor anchor, int fontSize);
+}
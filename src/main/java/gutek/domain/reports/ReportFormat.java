@@ -0,0 +1,24 @@
+package gutek.domain.reports;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Formats in which the chart reports can be written.
+ */
+@Getter
+@AllArgsConstructor
+public enum ReportFormat {
+
+    /** The raw series as comma-separated label and value pairs. */
+    CSV("csv"),
+
+    /** The chart as a scalable vector image. */
+    SVG("svg"),
+
+    /** The chart as a raster image. */
+    PNG("png");
+
+    /** Extension of the written files, without the dot. */
+    private final String extension;
+}
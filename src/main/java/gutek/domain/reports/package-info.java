@@ -0,0 +1,10 @@
+/**
+ * Provides classes for exporting the statistics charts to files without a JavaFX stage.
+ * <ul>
+ *     <li>{@link gutek.domain.reports.ChartReport} - Data and labels of a single chart, independent of JavaFX nodes.</li>
+ *     <li>{@link gutek.domain.reports.ReportFormat} - Formats of the exported files.</li>
+ *     <li>{@link gutek.domain.reports.ChartReportRenderer} - Writes a chart report as CSV, SVG or PNG.</li>
+ *     <li>{@link gutek.domain.reports.ReportCanvas} - Drawing primitives shared by the vector and raster output.</li>
+ * </ul>
+ */
+package gutek.domain.reports;
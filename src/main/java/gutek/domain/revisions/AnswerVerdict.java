@@ -0,0 +1,39 @@
+package gutek.domain.revisions;
+
+/**
+ * Verdict on an answer typed during a revision, as given by {@link TypedAnswerMatcher}.
+ */
+public enum AnswerVerdict {
+
+    /**
+     * The answer matches an accepted answer, ignoring case, diacritics and punctuation.
+     */
+    CORRECT,
+
+    /**
+     * The answer differs from an accepted answer by a few typos.
+     */
+    ALMOST_CORRECT,
+
+    /**
+     * The answer does not match any accepted answer.
+     */
+    WRONG;
+
+    /**
+     * Suggests the revision button matching the verdict, assuming the buttons are ordered from the worst
+     * to the best grade: the first button for a wrong answer, the middle button for an answer with typos,
+     * and the second best button for a correct answer, leaving the best grade to the user.
+     * With only two buttons, a correct answer gets the better one.
+     *
+     * @param buttonsCount the number of revision buttons
+     * @return the index of the suggested button
+     */
+    public int suggestButtonIndex(int buttonsCount) {
+        return switch (this) {
+            case WRONG -> 0;
+            case ALMOST_CORRECT -> Math.max((buttonsCount - 1) / 2, 0);
+            case CORRECT -> Math.max(buttonsCount <= 2 ? buttonsCount - 1 : buttonsCount - 2, 0);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package gutek.domain.revisions;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the sum of the daily counts of several decks on a single day.
+ *
+ * @param day   the day of the counts
+ * @param count the sum of the counts
+ */
+public record DailyTotal(LocalDate day, Long count) {
+}
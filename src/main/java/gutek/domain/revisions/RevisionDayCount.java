@@ -0,0 +1,14 @@
+package gutek.domain.revisions;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the number of revisions recorded on a single day with the same strategy and pressed button.
+ *
+ * @param revisionDate       the date when the revisions took place
+ * @param strategyClassName  the simple class name of the revision strategy that handled the revisions
+ * @param pressedButtonIndex the index of the button pressed during the revisions
+ * @param count              the number of the revisions
+ */
+public record RevisionDayCount(LocalDate revisionDate, String strategyClassName, Integer pressedButtonIndex, Long count) {
+}
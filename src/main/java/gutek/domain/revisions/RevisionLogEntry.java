@@ -0,0 +1,18 @@
+package gutek.domain.revisions;
+
+import java.time.LocalDate;
+
+/**
+ * Lightweight projection of a single recorded card revision.
+ * <p>
+ * Used when the whole revision history of a deck has to be processed, so that the revisions
+ * do not have to be loaded as managed entities together with their cards.
+ * </p>
+ *
+ * @param cardId             the identifier of the revised card
+ * @param revisionDate       the date when the revision took place
+ * @param pressedButtonIndex the index of the button pressed during the revision
+ * @param strategyClassName  the simple class name of the revision strategy that handled the revision
+ */
+public record RevisionLogEntry(Long cardId, LocalDate revisionDate, Integer pressedButtonIndex, String strategyClassName) {
+}
@@ -0,0 +1,264 @@
+package gutek.domain.revisions;
+
+import gutek.domain.search.CardSearchText;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Matches answers typed during a revision against the expected answer of a card, tolerating typos.
+ * <p>
+ * The expected answer is compiled once per card: it is split into the accepted alternatives
+ * (e.g. {@code "gówno, srać"} accepts {@code "gówno"}, {@code "srać"} and both of them), and every alternative
+ * is folded like the searched texts - ignoring case and diacritics - with the punctuation and repeated
+ * whitespace removed, and kept as an array of code points.
+ * </p>
+ * <p>
+ * A typed answer is folded the same way and compared with the alternatives using the optimal string alignment
+ * variant of the Damerau-Levenshtein distance, counting an insertion, a deletion, a substitution or a swap
+ * of adjacent letters as one typo. The distance is computed only within a band of {@link #maxTypos(int)} cells
+ * around the diagonal and abandoned as soon as a row exceeds the bound, so a check takes microseconds
+ * and can run on every keystroke. The typed answer may list several alternatives separated like the expected one;
+ * each of them has to match.
+ * </p>
+ * <p>
+ * The working rows of the distance are reused between the checks, so an instance must not be used
+ * from several threads at once.
+ * </p>
+ */
+public class TypedAnswerMatcher {
+
+    /**
+     * Characters separating the alternatives of an answer.
+     */
+    private static final Pattern ALTERNATIVES_SEPARATOR = Pattern.compile("[,;]");
+
+    /**
+     * Runs of characters other than letters and digits, replaced by a single space when folding.
+     */
+    private static final Pattern NON_WORD_CHARACTERS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Accepted alternatives of the answer, folded, as code points.
+     */
+    private final int[][] alternatives;
+
+    /**
+     * Row of the distance matrix two rows above the current one.
+     */
+    private int[] previousPreviousRow = new int[0];
+
+    /**
+     * Row of the distance matrix above the current one.
+     */
+    private int[] previousRow = new int[0];
+
+    /**
+     * Current row of the distance matrix.
+     */
+    private int[] currentRow = new int[0];
+
+    /**
+     * Compiles the expected answer of a card.
+     *
+     * @param expectedAnswer the expected answer, possibly listing alternatives separated by commas or semicolons
+     */
+    public TypedAnswerMatcher(String expectedAnswer) {
+        List<int[]> compiled = new ArrayList<>();
+        for (String alternative : split(expectedAnswer)) {
+            compiled.add(alternative.codePoints().toArray());
+        }
+        String wholeAnswer = normalize(expectedAnswer);
+        if (compiled.size() > 1 && !wholeAnswer.isEmpty()) {
+            compiled.add(wholeAnswer.codePoints().toArray());
+        }
+        this.alternatives = compiled.toArray(new int[0][]);
+    }
+
+    /**
+     * Checks a typed answer.
+     *
+     * @param typedAnswer the answer typed by the user
+     * @return {@link AnswerVerdict#CORRECT} if every typed alternative equals an accepted one after folding,
+     * {@link AnswerVerdict#ALMOST_CORRECT} if every typed alternative is within the allowed number of typos
+     * of an accepted one, {@link AnswerVerdict#WRONG} otherwise, including an empty answer
+     */
+    public AnswerVerdict match(String typedAnswer) {
+        List<String> typedAlternatives = split(typedAnswer);
+        if (typedAlternatives.isEmpty() || alternatives.length == 0) {
+            return AnswerVerdict.WRONG;
+        }
+        AnswerVerdict verdict = AnswerVerdict.CORRECT;
+        for (String typedAlternative : typedAlternatives) {
+            int typos = closestDistance(typedAlternative.codePoints().toArray());
+            if (typos < 0) {
+                return AnswerVerdict.WRONG;
+            }
+            if (typos > 0) {
+                verdict = AnswerVerdict.ALMOST_CORRECT;
+            }
+        }
+        return verdict;
+    }
+
+    /**
+     * Returns the number of typos tolerated in an answer of the given length: none in words of up to three letters,
+     * where a single change easily makes another word, one in words of up to seven letters, and two in longer ones.
+     *
+     * @param length the number of code points of the accepted alternative
+     * @return the maximum number of typos
+     */
+    static int maxTypos(int length) {
+        if (length <= 3) {
+            return 0;
+        }
+        return length <= 7 ? 1 : 2;
+    }
+
+    /**
+     * Folds a text for matching: ignores case and diacritics, and keeps single spaces between the words.
+     *
+     * @param text the text to fold
+     * @return the folded text, empty if the text has no letters or digits
+     */
+    public static String normalize(String text) {
+        return NON_WORD_CHARACTERS.matcher(CardSearchText.fold(text)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Merges the alternatives of two answers of the same question into one answer listing the alternatives
+     * of the first answer and then those of the second one, separated by commas. An alternative equal to an earlier
+     * one after folding is left out.
+     *
+     * @param answer      the first answer
+     * @param otherAnswer the second answer
+     * @return the merged answer
+     */
+    public static String mergeAlternatives(String answer, String otherAnswer) {
+        List<String> merged = new ArrayList<>();
+        Set<String> foldedAlternatives = new HashSet<>();
+        for (String source : new String[]{answer, otherAnswer}) {
+            if (source == null) {
+                continue;
+            }
+            for (String part : ALTERNATIVES_SEPARATOR.split(source)) {
+                String folded = normalize(part);
+                if (!folded.isEmpty() && foldedAlternatives.add(folded)) {
+                    merged.add(part.trim());
+                }
+            }
+        }
+        return String.join(", ", merged);
+    }
+
+    /**
+     * Splits an answer into its folded, non-empty alternatives.
+     *
+     * @param answer the answer
+     * @return the folded alternatives
+     */
+    private static List<String> split(String answer) {
+        if (answer == null) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>();
+        for (String part : ALTERNATIVES_SEPARATOR.split(answer)) {
+            String normalized = normalize(part);
+            if (!normalized.isEmpty()) {
+                result.add(normalized);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the accepted alternative closest to a typed one, within the tolerated number of typos.
+     *
+     * @param typed the typed alternative, folded, as code points
+     * @return the number of typos to the closest alternative, or -1 if no alternative is close enough
+     */
+    private int closestDistance(int[] typed) {
+        int best = -1;
+        for (int[] alternative : alternatives) {
+            int maxTypos = maxTypos(alternative.length);
+            if (best >= 0) {
+                maxTypos = Math.min(maxTypos, best - 1);
+            }
+            if (maxTypos < 0) {
+                break;
+            }
+            int distance = boundedDistance(typed, alternative, maxTypos);
+            if (distance <= maxTypos) {
+                best = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Computes the optimal string alignment distance of two sequences if it does not exceed the bound.
+     *
+     * @param source   the first sequence
+     * @param target   the second sequence
+     * @param maxTypos the bound of the distance
+     * @return the distance, or {@code maxTypos + 1} if the distance exceeds the bound
+     */
+    private int boundedDistance(int[] source, int[] target, int maxTypos) {
+        int exceeded = maxTypos + 1;
+        if (Math.abs(source.length - target.length) > maxTypos) {
+            return exceeded;
+        }
+        if (maxTypos == 0) {
+            return Arrays.equals(source, target) ? 0 : exceeded;
+        }
+        ensureRowsCapacity(target.length + 1);
+
+        for (int j = 0; j <= target.length; j++) {
+            previousRow[j] = j <= maxTypos ? j : exceeded;
+        }
+        for (int i = 1; i <= source.length; i++) {
+            int from = Math.max(1, i - maxTypos);
+            int to = Math.min(target.length, i + maxTypos);
+            currentRow[from - 1] = from == 1 && i <= maxTypos ? i : exceeded;
+            int rowMinimum = currentRow[from - 1];
+            for (int j = from; j <= to; j++) {
+                int cost = source[i - 1] == target[j - 1] ? 0 : 1;
+                int distance = Math.min(Math.min(previousRow[j] + 1, currentRow[j - 1] + 1), previousRow[j - 1] + cost);
+                if (i > 1 && j > 1 && source[i - 1] == target[j - 2] && source[i - 2] == target[j - 1]) {
+                    distance = Math.min(distance, previousPreviousRow[j - 2] + 1);
+                }
+                distance = Math.min(distance, exceeded);
+                currentRow[j] = distance;
+                rowMinimum = Math.min(rowMinimum, distance);
+            }
+            if (to < target.length) {
+                currentRow[to + 1] = exceeded;
+            }
+            if (rowMinimum > maxTypos) {
+                return exceeded;
+            }
+            int[] recycled = previousPreviousRow;
+            previousPreviousRow = previousRow;
+            previousRow = currentRow;
+            currentRow = recycled;
+        }
+        return previousRow[target.length];
+    }
+
+    /**
+     * Grows the working rows of the distance matrix if needed.
+     *
+     * @param capacity the required length of the rows
+     */
+    private void ensureRowsCapacity(int capacity) {
+        if (currentRow.length < capacity) {
+            previousPreviousRow = new int[capacity];
+            previousRow = new int[capacity];
+            currentRow = new int[capacity];
+        }
+    }
+}
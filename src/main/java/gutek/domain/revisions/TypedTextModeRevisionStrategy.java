@@ -0,0 +1,90 @@
+package gutek.domain.revisions;
+
+import gutek.entities.cards.CardBase;
+import gutek.entities.decks.DeckBase;
+import gutek.gui.controllers.MainStageScenes;
+import gutek.services.DeckService;
+import javafx.scene.control.Button;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+import java.time.LocalDate;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Represents the typed text mode revision strategy.
+ * <p>
+ * This strategy revises cards in regular order, using the word (front side) as the prompt,
+ * but the user types the translation instead of only recalling it. The typed answer is checked
+ * with a {@link TypedAnswerMatcher}, which suggests the grade. The cards share the schedule
+ * of the regular text mode, so the buttons and the scheduling of the regular revision are used.
+ * </p>
+ *
+ * @param <T> the type of {@link CardBase} that this strategy applies to
+ */
+public class TypedTextModeRevisionStrategy<T extends CardBase> extends RevisionStrategy<T>{
+
+    /**
+     * Constructs a new {@code TypedTextModeRevisionStrategy} with the specified functions.
+     *
+     * @param getButtonsPaneFunction a function to generate a pane containing revision buttons
+     * @param reviseCardFunction     a function to handle card revision logic
+     */
+    public TypedTextModeRevisionStrategy(Function<T, Pane> getButtonsPaneFunction, BiPredicate<Button, T> reviseCardFunction) {
+        super(getButtonsPaneFunction, reviseCardFunction);
+    }
+
+    /**
+     * Returns the translation key for the revision strategy.
+     *
+     * @return the translation key associated with the revision strategy
+     */
+    @Override
+    public String getRevisionStrategyTranslationKey() {
+        return "typed_text_mode";
+    }
+
+    /**
+     * Returns the color associated with the revision strategy for UI representation.
+     *
+     * @return the {@link Color} associated with the revision strategy
+     */
+    @Override
+    public Color getRevisionStrategyColor() {
+        return Color.TEAL;
+    }
+
+    /**
+     * Returns the scene to use for this revision strategy in the application.
+     *
+     * @return the {@link MainStageScenes} for this revision strategy
+     */
+    @Override
+    public MainStageScenes getRevisionStrategyScene() {
+        return MainStageScenes.REVISION_TYPED_SCENE;
+    }
+
+    /**
+     * Returns the number of cards available for this revision strategy.
+     *
+     * @param deckService the {@link DeckService} for accessing deck-related data
+     * @param deckBase    the {@link DeckBase} to analyze
+     * @return the count of cards available for revision
+     */
+    @Override
+    public int getRevisionStrategyCardsCount(DeckService deckService, DeckBase deckBase) {
+        return deckService.getRegularRevisionCardsCount(deckBase);
+    }
+
+    /**
+     * Calculates the next revision date for a given card.
+     *
+     * @param card the {@link CardBase} to calculate the next revision date for
+     * @return the {@link LocalDate} of the next revision
+     */
+    @Override
+    public LocalDate getNextRevisionDate(T card) {
+        return card.getNextRegularRevisionDate();
+    }
+}
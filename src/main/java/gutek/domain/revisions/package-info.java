@@ -4,5 +4,9 @@
  * This package contains abstract and concrete implementations of strategies
  * for handling card revisions modes.
  * </p>
+ * <p>
+ * It also contains {@link gutek.domain.revisions.TypedAnswerMatcher}, which checks the answers typed
+ * in the typed text mode and gives an {@link gutek.domain.revisions.AnswerVerdict} suggesting the grade.
+ * </p>
  */
 package gutek.domain.revisions;
\ No newline at end of file
@@ -0,0 +1,47 @@
+package gutek.domain.search;
+
+import java.util.List;
+
+/**
+ * Source of the pages of a card list ordered by the card identifiers, read by {@link PagedCardList}.
+ * <p>
+ * Pages adjacent to an already read page are read by keyset, i.e. by the identifier of the last or first card
+ * of that page, so reading them does not depend on their position in the list.
+ * </p>
+ */
+public interface CardPageSource {
+
+    /**
+     * Counts the cards of the list.
+     *
+     * @return the number of cards
+     */
+    int count();
+
+    /**
+     * Reads the cards following the given card.
+     *
+     * @param afterId the identifier of the card preceding the page
+     * @param limit   the maximum number of cards to read
+     * @return the cards with identifiers greater than the given one, in ascending order of identifiers
+     */
+    List<CardSummary> findAfter(long afterId, int limit);
+
+    /**
+     * Reads the cards preceding the given card.
+     *
+     * @param beforeId the identifier of the card following the page
+     * @param limit    the maximum number of cards to read
+     * @return the closest cards with identifiers lower than the given one, in ascending order of identifiers
+     */
+    List<CardSummary> findBefore(long beforeId, int limit);
+
+    /**
+     * Reads the page at the given position, used when no adjacent page is known.
+     *
+     * @param page     the index of the page
+     * @param pageSize the number of cards of a page
+     * @return the cards of the page, in ascending order of identifiers
+     */
+    List<CardSummary> findPage(int page, int pageSize);
+}
@@ -0,0 +1,161 @@
+package gutek.domain.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class folding the text of the cards for the full-text search and building the search queries.
+ * <p>
+ * The SQLite {@code unicode61} tokenizer with {@code remove_diacritics 2} folds case and the letters decomposing
+ * into a base letter and combining marks, e.g. {@code ó}, {@code é} or {@code ü}. Letters without a decomposition,
+ * like the Polish {@code ł} or the German {@code ß}, are folded by {@link #FOLDED_LETTERS} before the text is
+ * indexed: with {@link #sqlFold(String)} inside the database triggers and with {@link #fold(String)} on the search
+ * phrases, so both sides of a match are folded in the same way.
+ * </p>
+ */
+public final class CardSearchText {
+
+    /**
+     * Letters without a Unicode decomposition and their folded forms. Upper case letters are listed too,
+     * since the SQLite {@code lower} function folds only ASCII letters.
+     */
+    static final Map<String, String> FOLDED_LETTERS = createFoldedLetters();
+
+    /** Pattern splitting a phrase into tokens: runs of letters and digits. */
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /** Pattern matching combining marks left by the canonical decomposition. */
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /** Pattern matching runs of whitespace, collapsed by {@link #normalize(String)}. */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+", Pattern.UNICODE_CHARACTER_CLASS);
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private CardSearchText() {
+    }
+
+    /**
+     * Folds a text the way it is indexed: lower case, without diacritics, with {@link #FOLDED_LETTERS} replaced.
+     *
+     * @param text the folded text, may be {@code null}
+     * @return the folded text, empty for {@code null}
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = text;
+        for (Map.Entry<String, String> letter : FOLDED_LETTERS.entrySet()) {
+            folded = folded.replace(letter.getKey(), letter.getValue());
+        }
+        folded = Normalizer.normalize(folded.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(folded).replaceAll("");
+    }
+
+    /**
+     * Normalizes a text for the case- and accent-insensitive lookups of the cards: decomposed with the compatibility
+     * decomposition, in lower case and stripped of the combining marks, with {@link #FOLDED_LETTERS} replaced
+     * and the whitespace collapsed to single spaces and stripped from both ends.
+     * <p>
+     * The result is stored next to the card texts when a card is written, so e.g. {@code "Źródło "} and
+     * {@code "zrodlo"} are found with the same indexed lookup.
+     * </p>
+     *
+     * @param text the normalized text, may be {@code null}
+     * @return the normalized text, empty for {@code null}
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = text;
+        for (Map.Entry<String, String> letter : FOLDED_LETTERS.entrySet()) {
+            normalized = normalized.replace(letter.getKey(), letter.getValue());
+        }
+        normalized = Normalizer.normalize(normalized, Normalizer.Form.NFKD).toLowerCase(Locale.ROOT);
+        normalized = COMBINING_MARKS.matcher(normalized).replaceAll("");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").strip();
+    }
+
+    /**
+     * Builds the SQL expression folding a column with {@link #FOLDED_LETTERS} before it is indexed.
+     * The remaining folding is done by the tokenizer.
+     *
+     * @param column the folded column, e.g. {@code new.front}
+     * @return the SQL expression
+     */
+    public static String sqlFold(String column) {
+        String expression = column;
+        for (Map.Entry<String, String> letter : FOLDED_LETTERS.entrySet()) {
+            expression = "replace(" + expression + ", '" + letter.getKey() + "', '" + letter.getValue() + "')";
+        }
+        return expression;
+    }
+
+    /**
+     * Splits a phrase into folded tokens.
+     *
+     * @param phrase the searched phrase, may be {@code null}
+     * @return the tokens of the phrase, empty if it contains no letters or digits
+     */
+    public static List<String> tokens(String phrase) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(fold(phrase))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Builds the FTS5 query matching the cards whose front contains words starting with every token of the front
+     * phrase and whose back contains words starting with every token of the back phrase.
+     *
+     * @param frontColumn  the indexed front column
+     * @param frontPhrase  the phrase searched in the front, may be empty
+     * @param backColumn   the indexed back column
+     * @param backPhrase   the phrase searched in the back, may be empty
+     * @return the query, or {@code null} if neither phrase contains letters or digits
+     */
+    public static String matchExpression(String frontColumn, String frontPhrase, String backColumn, String backPhrase) {
+        List<String> terms = new ArrayList<>();
+        for (String token : tokens(frontPhrase)) {
+            terms.add(frontColumn + " : \"" + token + "\"*");
+        }
+        for (String token : tokens(backPhrase)) {
+            terms.add(backColumn + " : \"" + token + "\"*");
+        }
+        return terms.isEmpty() ? null : String.join(" AND ", terms);
+    }
+
+    /**
+     * Creates the map of the folded letters.
+     *
+     * @return the letters without a Unicode decomposition and their folded forms
+     */
+    private static Map<String, String> createFoldedLetters() {
+        Map<String, String> letters = new LinkedHashMap<>();
+        letters.put("ł", "l");
+        letters.put("Ł", "l");
+        letters.put("ß", "ss");
+        letters.put("ẞ", "ss");
+        letters.put("đ", "d");
+        letters.put("Đ", "d");
+        letters.put("ø", "o");
+        letters.put("Ø", "o");
+        letters.put("æ", "ae");
+        letters.put("Æ", "ae");
+        letters.put("œ", "oe");
+        letters.put("Œ", "oe");
+        return Collections.unmodifiableMap(letters);
+    }
+}
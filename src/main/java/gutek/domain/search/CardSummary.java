@@ -0,0 +1,23 @@
+package gutek.domain.search;
+
+import gutek.entities.cards.CardBase;
+
+/**
+ * Lightweight view of a card, holding only what the card lists display.
+ *
+ * @param idCard the identifier of the card
+ * @param front  the front text of the card
+ * @param back   the back text of the card
+ */
+public record CardSummary(Long idCard, String front, String back) {
+
+    /**
+     * Creates the summary of a loaded card.
+     *
+     * @param card the card
+     * @return the summary of the card
+     */
+    public static CardSummary of(CardBase card) {
+        return new CardSummary(card.getIdCard(), card.getFront(), card.getBack());
+    }
+}
@@ -0,0 +1,12 @@
+package gutek.domain.search;
+
+/**
+ * Texts of a card together with its deck, read when indexing the cards.
+ *
+ * @param idCard the identifier of the card
+ * @param idDeck the identifier of the deck of the card
+ * @param front  the front text of the card
+ * @param back   the back text of the card
+ */
+public record CardText(Long idCard, Long idDeck, String front, String back) {
+}
@@ -0,0 +1,10 @@
+package gutek.domain.search;
+
+/**
+ * Identifier and name of a deck, read without loading the deck and its cards.
+ *
+ * @param idDeck the identifier of the deck
+ * @param name   the name of the deck
+ */
+public record DeckName(Long idDeck, String name) {
+}
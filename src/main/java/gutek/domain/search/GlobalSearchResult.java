@@ -0,0 +1,11 @@
+package gutek.domain.search;
+
+/**
+ * Card found by the search across all decks of a user.
+ *
+ * @param card     the summary of the card
+ * @param deckId   the identifier of the deck of the card
+ * @param deckName the name of the deck of the card
+ */
+public record GlobalSearchResult(CardSummary card, Long deckId, String deckName) {
+}
@@ -0,0 +1,126 @@
+package gutek.domain.search;
+
+import java.util.Arrays;
+
+/**
+ * Map from {@code long} keys to {@code int} values with open addressing and linear probing,
+ * storing the entries in two primitive arrays instead of boxed map entries.
+ * Entries can be overwritten but not removed.
+ */
+final class LongIntHashMap {
+
+    /**
+     * Value returned for keys which are not in the map.
+     */
+    static final int NO_VALUE = Integer.MIN_VALUE;
+
+    /**
+     * Maximum fraction of the slots used before the arrays are doubled.
+     */
+    private static final double MAX_LOAD = 0.6;
+
+    /**
+     * Keys of the slots.
+     */
+    private long[] keys;
+
+    /**
+     * Values of the slots, {@link #NO_VALUE} for free slots.
+     */
+    private int[] values;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty map.
+     */
+    LongIntHashMap() {
+        keys = new long[16];
+        values = new int[16];
+        Arrays.fill(values, NO_VALUE);
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key the key
+     * @return the value, or {@link #NO_VALUE} if the key is not in the map
+     */
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != NO_VALUE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Sets the value of the given key.
+     *
+     * @param key   the key
+     * @param value the value, other than {@link #NO_VALUE}
+     */
+    void put(long key, int value) {
+        if (size + 1 > keys.length * MAX_LOAD) {
+            resize();
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (values[slot] != NO_VALUE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == NO_VALUE) {
+            size++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of keys in the map
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the arrays and moves the entries to their new slots.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(values, NO_VALUE);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != NO_VALUE) {
+                int slot = slot(oldKeys[i], mask);
+                while (values[slot] != NO_VALUE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Computes the first slot probed for the given key.
+     *
+     * @param key  the key
+     * @param mask the number of slots minus one
+     * @return the index of the slot
+     */
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
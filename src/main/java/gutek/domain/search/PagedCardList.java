@@ -0,0 +1,189 @@
+package gutek.domain.search;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Read-only observable list of cards which reads the cards from a {@link CardPageSource} page by page,
+ * as the elements are accessed, e.g. by a scrolled {@code ListView}.
+ * <p>
+ * Only the recently accessed pages are kept in memory. A page adjacent to a page read before is read by keyset,
+ * from the identifier of the last card of the previous page or the first card of the next page, which keeps
+ * scrolling in both directions independent of the position in the list. Only a page far from every page
+ * read before is read by its position.
+ * </p>
+ * <p>
+ * The size of the list is counted once on construction. Cards can only be removed with {@link #remove(Object)}
+ * while their page is in memory, e.g. after they have been displayed.
+ * </p>
+ */
+public class PagedCardList extends ObservableListBase<CardSummary> {
+
+    /**
+     * Default number of cards of a page.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Default maximum number of pages kept in memory.
+     */
+    public static final int DEFAULT_MAX_CACHED_PAGES = 8;
+
+    /**
+     * Source of the pages.
+     */
+    private final CardPageSource source;
+
+    /**
+     * Number of cards of a page.
+     */
+    private final int pageSize;
+
+    /**
+     * Recently accessed pages by their indexes, least recently accessed first.
+     */
+    private final Map<Integer, List<CardSummary>> pages;
+
+    /**
+     * Identifiers of the first cards of the pages read so far, by page indexes.
+     */
+    private final Map<Integer, Long> firstIds = new HashMap<>();
+
+    /**
+     * Identifiers of the last cards of the pages read so far, by page indexes.
+     */
+    private final Map<Integer, Long> lastIds = new HashMap<>();
+
+    /**
+     * Number of cards of the list.
+     */
+    private int size;
+
+    /**
+     * Constructs a list with the default page size and number of pages kept in memory.
+     *
+     * @param source the source of the pages
+     */
+    public PagedCardList(CardPageSource source) {
+        this(source, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    /**
+     * Constructs a list and counts its cards.
+     *
+     * @param source         the source of the pages
+     * @param pageSize       the number of cards of a page
+     * @param maxCachedPages the maximum number of pages kept in memory
+     * @throws IllegalArgumentException if the page size or the number of pages is not positive
+     */
+    public PagedCardList(CardPageSource source, int pageSize, int maxCachedPages) {
+        if (pageSize < 1 || maxCachedPages < 1) {
+            throw new IllegalArgumentException("Page size and number of cached pages have to be positive");
+        }
+        this.source = source;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<CardSummary>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+        this.size = source.count();
+    }
+
+    /**
+     * Returns the card at the given position, reading its page if it is not in memory.
+     *
+     * @param index the position of the card
+     * @return the card, or {@code null} if the cards were removed from the source after the list was counted
+     */
+    @Override
+    public CardSummary get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / pageSize;
+        List<CardSummary> rows = getPage(page);
+        int offset = index - page * pageSize;
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes the given card if its page is in memory. The pages following it are dropped, as their cards move.
+     *
+     * @param card the card to remove
+     * @return {@code true} if the card was removed
+     */
+    @Override
+    public boolean remove(Object card) {
+        for (Map.Entry<Integer, List<CardSummary>> entry : pages.entrySet()) {
+            int offset = entry.getValue().indexOf(card);
+            if (offset >= 0) {
+                int page = entry.getKey();
+                pages.keySet().removeIf(cachedPage -> cachedPage >= page);
+                firstIds.keySet().removeIf(readPage -> readPage >= page);
+                lastIds.keySet().removeIf(readPage -> readPage >= page);
+                size--;
+                beginChange();
+                nextRemove(page * pageSize + offset, (CardSummary) card);
+                endChange();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of pages kept in memory.
+     *
+     * @return the number of cached pages
+     */
+    int getCachedPagesCount() {
+        return pages.size();
+    }
+
+    /**
+     * Returns the page with the given index, reading it if it is not in memory.
+     *
+     * @param page the index of the page
+     * @return the cards of the page
+     */
+    private List<CardSummary> getPage(int page) {
+        List<CardSummary> rows = pages.get(page);
+        if (rows == null) {
+            rows = readPage(page);
+            pages.put(page, rows);
+            if (!rows.isEmpty()) {
+                firstIds.put(page, rows.getFirst().idCard());
+                lastIds.put(page, rows.getLast().idCard());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Reads the page with the given index, by keyset if an adjacent page was read before.
+     *
+     * @param page the index of the page
+     * @return the cards of the page
+     */
+    private List<CardSummary> readPage(int page) {
+        Long previousLastId = lastIds.get(page - 1);
+        if (previousLastId != null) {
+            return List.copyOf(source.findAfter(previousLastId, pageSize));
+        }
+        Long nextFirstId = firstIds.get(page + 1);
+        if (nextFirstId != null) {
+            return List.copyOf(source.findBefore(nextFirstId, pageSize));
+        }
+        return List.copyOf(source.findPage(page, pageSize));
+    }
+}
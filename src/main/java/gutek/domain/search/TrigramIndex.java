@@ -0,0 +1,374 @@
+package gutek.domain.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory index of the trigrams of the card texts, finding the cards whose front or back may contain a phrase.
+ * <p>
+ * Every indexed card gets an ordinal, and every trigram of the folded texts (see {@link CardSearchText#fold(String)})
+ * has a posting list of the ordinals of the cards containing it, stored in a primitive array. Ordinals only
+ * grow, so the posting lists stay sorted when cards are appended, and a search intersects the posting lists
+ * of the trigrams of the phrase, starting from the shortest one. A card is updated by removing it and appending it
+ * again with a new ordinal; removed ordinals are skipped by the searches and dropped from the posting lists
+ * once they outnumber the indexed cards.
+ * </p>
+ * <p>
+ * The cards found are only candidates: they contain every trigram of the phrase, but not necessarily the phrase
+ * itself. The index is thread-safe: searches can run concurrently with each other, while changes are exclusive.
+ * </p>
+ */
+public class TrigramIndex {
+
+    /**
+     * Number of characters of a gram. Shorter phrases cannot be searched.
+     */
+    public static final int GRAM_LENGTH = 3;
+
+    /**
+     * Number of bits of a Unicode code point, used to pack the trigrams into {@code long} keys.
+     */
+    private static final int CODE_POINT_BITS = 21;
+
+    /**
+     * Ordinal recorded for removed cards, so {@link #putIfAbsent} does not add them back.
+     */
+    private static final int REMOVED = -1;
+
+    /**
+     * Minimal number of removed ordinals before the posting lists are compacted.
+     */
+    private static final int MIN_COMPACTED_REMOVALS = 1024;
+
+    /**
+     * Lock guarding the index.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Ordinals of the indexed cards by card identifiers, or {@link #REMOVED} for removed cards.
+     */
+    private final LongIntHashMap ordinalsByCardId = new LongIntHashMap();
+
+    /**
+     * Posting lists by the packed trigrams.
+     */
+    private final Map<Long, Postings> postingsByTrigram = new HashMap<>();
+
+    /**
+     * Ordinals which have been removed.
+     */
+    private final BitSet removedOrdinals = new BitSet();
+
+    /**
+     * Card identifiers by ordinals.
+     */
+    private long[] cardIds = new long[16];
+
+    /**
+     * Deck identifiers by ordinals.
+     */
+    private long[] deckIds = new long[16];
+
+    /**
+     * Number of ordinals given so far.
+     */
+    private int ordinalsCount;
+
+    /**
+     * Number of removed ordinals.
+     */
+    private int removedCount;
+
+    /**
+     * Number of removed ordinals still present in the posting lists.
+     */
+    private int uncompactedCount;
+
+    /**
+     * Indexes the texts of a card, replacing the texts indexed before.
+     *
+     * @param cardId the identifier of the card
+     * @param deckId the identifier of the deck of the card
+     * @param front  the front text of the card
+     * @param back   the back text of the card
+     */
+    public void put(long cardId, long deckId, String front, String back) {
+        lock.writeLock().lock();
+        try {
+            removeOrdinal(ordinalsByCardId.get(cardId));
+            append(cardId, deckId, front, back);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the texts of a card unless the card has already been indexed or removed.
+     * Used when building the index, so cards changed in the meantime keep their latest texts.
+     *
+     * @param cardId the identifier of the card
+     * @param deckId the identifier of the deck of the card
+     * @param front  the front text of the card
+     * @param back   the back text of the card
+     * @return {@code true} if the card was indexed
+     */
+    public boolean putIfAbsent(long cardId, long deckId, String front, String back) {
+        lock.writeLock().lock();
+        try {
+            if (ordinalsByCardId.get(cardId) != LongIntHashMap.NO_VALUE) {
+                return false;
+            }
+            append(cardId, deckId, front, back);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a card from the index.
+     *
+     * @param cardId the identifier of the card
+     */
+    public void remove(long cardId) {
+        lock.writeLock().lock();
+        try {
+            removeOrdinal(ordinalsByCardId.get(cardId));
+            ordinalsByCardId.put(cardId, REMOVED);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all cards of a deck from the index.
+     *
+     * @param deckId the identifier of the deck
+     */
+    public void removeDeck(long deckId) {
+        lock.writeLock().lock();
+        try {
+            for (int ordinal = 0; ordinal < ordinalsCount; ordinal++) {
+                if (deckIds[ordinal] == deckId && !removedOrdinals.get(ordinal)) {
+                    removeOrdinal(ordinal);
+                    ordinalsByCardId.put(cardIds[ordinal], REMOVED);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed cards.
+     *
+     * @return the number of cards which are indexed and not removed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsCount - removedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the cards whose front or back contains every trigram of the phrase, in the order they were indexed.
+     *
+     * @param phrase      the searched phrase
+     * @param deckFilter  predicate accepting the identifiers of the decks to search
+     * @param maxResults  the maximum number of cards to find
+     * @return the identifiers of the candidate cards, empty if the phrase is shorter than {@value #GRAM_LENGTH} characters
+     */
+    public long[] search(String phrase, LongPredicate deckFilter, int maxResults) {
+        long[] trigrams = trigrams(CardSearchText.fold(phrase));
+        if (trigrams.length == 0 || maxResults <= 0) {
+            return new long[0];
+        }
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[trigrams.length];
+            for (int i = 0; i < trigrams.length; i++) {
+                lists[i] = postingsByTrigram.get(trigrams[i]);
+                if (lists[i] == null) {
+                    return new long[0];
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(postings -> postings.size));
+
+            long[] found = new long[Math.min(maxResults, lists[0].size)];
+            int foundCount = 0;
+            int[] cursors = new int[lists.length];
+            candidates:
+            for (int i = 0; i < lists[0].size && foundCount < found.length; i++) {
+                int ordinal = lists[0].ordinals[i];
+                if (removedOrdinals.get(ordinal)) {
+                    continue;
+                }
+                for (int list = 1; list < lists.length; list++) {
+                    int position = Arrays.binarySearch(lists[list].ordinals, cursors[list], lists[list].size, ordinal);
+                    cursors[list] = position >= 0 ? position : -position - 1;
+                    if (cursors[list] == lists[list].size) {
+                        break candidates;
+                    }
+                    if (position < 0) {
+                        continue candidates;
+                    }
+                }
+                if (deckFilter.test(deckIds[ordinal])) {
+                    found[foundCount++] = cardIds[ordinal];
+                }
+            }
+            return Arrays.copyOf(found, foundCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether a phrase is long enough to be searched.
+     *
+     * @param phrase the phrase
+     * @return {@code true} if the folded phrase has at least {@value #GRAM_LENGTH} characters
+     */
+    public static boolean isSearchable(String phrase) {
+        return trigrams(CardSearchText.fold(phrase)).length > 0;
+    }
+
+    /**
+     * Computes the distinct trigrams of a folded text, each packed into a {@code long}.
+     *
+     * @param foldedText the folded text
+     * @return the packed trigrams in ascending order
+     */
+    static long[] trigrams(String foldedText) {
+        int[] codePoints = foldedText.codePoints().toArray();
+        if (codePoints.length < GRAM_LENGTH) {
+            return new long[0];
+        }
+        long[] trigrams = new long[codePoints.length - GRAM_LENGTH + 1];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) codePoints[i] << (2 * CODE_POINT_BITS))
+                    | ((long) codePoints[i + 1] << CODE_POINT_BITS)
+                    | codePoints[i + 2];
+        }
+        Arrays.sort(trigrams);
+        int distinctCount = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinctCount++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinctCount);
+    }
+
+    /**
+     * Gives the card a new ordinal and adds it to the posting lists of the trigrams of its texts.
+     *
+     * @param cardId the identifier of the card
+     * @param deckId the identifier of the deck of the card
+     * @param front  the front text of the card
+     * @param back   the back text of the card
+     */
+    private void append(long cardId, long deckId, String front, String back) {
+        int ordinal = ordinalsCount++;
+        if (ordinal == cardIds.length) {
+            cardIds = Arrays.copyOf(cardIds, ordinal * 2);
+            deckIds = Arrays.copyOf(deckIds, ordinal * 2);
+        }
+        cardIds[ordinal] = cardId;
+        deckIds[ordinal] = deckId;
+        ordinalsByCardId.put(cardId, ordinal);
+
+        long[] frontTrigrams = trigrams(CardSearchText.fold(front));
+        long[] backTrigrams = trigrams(CardSearchText.fold(back));
+        for (long trigram : frontTrigrams) {
+            postingsByTrigram.computeIfAbsent(trigram, key -> new Postings()).add(ordinal);
+        }
+        for (long trigram : backTrigrams) {
+            if (Arrays.binarySearch(frontTrigrams, trigram) < 0) {
+                postingsByTrigram.computeIfAbsent(trigram, key -> new Postings()).add(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Marks an ordinal as removed.
+     *
+     * @param ordinal the ordinal, ignored if it is not a valid ordinal
+     */
+    private void removeOrdinal(int ordinal) {
+        if (ordinal >= 0 && !removedOrdinals.get(ordinal)) {
+            removedOrdinals.set(ordinal);
+            removedCount++;
+            uncompactedCount++;
+        }
+    }
+
+    /**
+     * Drops the removed ordinals from the posting lists once they outnumber the indexed cards.
+     */
+    private void compactIfNeeded() {
+        if (uncompactedCount < MIN_COMPACTED_REMOVALS || uncompactedCount < ordinalsCount - removedCount) {
+            return;
+        }
+        postingsByTrigram.values().removeIf(postings -> postings.compact(removedOrdinals) == 0);
+        uncompactedCount = 0;
+    }
+
+    /**
+     * Growable sorted array of card ordinals.
+     */
+    private static final class Postings {
+
+        /**
+         * Ordinals in ascending order; only the first {@link #size} are used.
+         */
+        private int[] ordinals = new int[4];
+
+        /**
+         * Number of ordinals.
+         */
+        private int size;
+
+        /**
+         * Appends an ordinal greater than all ordinals of the list.
+         *
+         * @param ordinal the ordinal
+         */
+        private void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        /**
+         * Drops the removed ordinals and shrinks the array.
+         *
+         * @param removedOrdinals the removed ordinals
+         * @return the number of remaining ordinals
+         */
+        private int compact(BitSet removedOrdinals) {
+            int remaining = 0;
+            for (int i = 0; i < size; i++) {
+                if (!removedOrdinals.get(ordinals[i])) {
+                    ordinals[remaining++] = ordinals[i];
+                }
+            }
+            size = remaining;
+            ordinals = Arrays.copyOf(ordinals, Math.max(remaining, 1));
+            return remaining;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Provides classes for searching and browsing the cards.
+ * <ul>
+ *     <li>{@link gutek.domain.search.CardSearchText} - Folds the searched and indexed text and builds full-text queries.</li>
+ *     <li>{@link gutek.domain.search.CardSummary} - Lightweight view of a card displayed by the card lists.</li>
+ *     <li>{@link gutek.domain.search.CardPageSource} - Source of the pages of a card list, read by keyset.</li>
+ *     <li>{@link gutek.domain.search.PagedCardList} - Observable card list reading its pages as they are accessed.</li>
+ *     <li>{@link gutek.domain.search.TrigramIndex} - In-memory trigram index of the card texts of all decks.</li>
+ *     <li>{@link gutek.domain.search.CardText} - Texts and deck of a card, read when indexing and verifying search results.</li>
+ *     <li>{@link gutek.domain.search.DeckName} - Identifier and name of a deck.</li>
+ *     <li>{@link gutek.domain.search.GlobalSearchResult} - Card found in any deck of the user, together with its deck.</li>
+ * </ul>
+ */
+package gutek.domain.search;
@@ -0,0 +1,483 @@
+package gutek.domain.snapshots;
+
+import gutek.domain.algorithms.ConstantCoefficientBatchState;
+import gutek.domain.algorithms.SuperMemo2BatchState;
+import gutek.entities.cards.CardBase;
+import gutek.entities.cards.CardConstantCoefficient;
+import gutek.entities.cards.CardSuperMemo2;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compact binary snapshot of the scheduling state of all cards in a deck.
+ * <p>
+ * The snapshot is stored in a file which is memory-mapped, so the records live outside of the Java heap and
+ * are read without going through JDBC or Hibernate. The file starts with a {@value #HEADER_SIZE} byte header
+ * followed by one fixed-width {@value #RECORD_SIZE} byte record per card. The header stores the deck change
+ * counter the snapshot was created for; a snapshot is only valid if this counter equals the one stored in
+ * the database. While the file is being modified the counter is set to {@value #DIRTY_CHANGE_COUNTER}.
+ * </p>
+ * <p>
+ * Records of cards added to the deck are appended by {@link #update(Collection, long)}: the file is extended
+ * and mapped again, so adding a card never requires rebuilding the snapshot from the database.
+ * </p>
+ */
+public class DeckSnapshot {
+
+    /** Magic number identifying snapshot files ("GTKS"). */
+    public static final int MAGIC = 0x47544B53;
+
+    /** Version of the binary format. */
+    public static final int FORMAT_VERSION = 1;
+
+    /** Size of the file header in bytes. */
+    public static final int HEADER_SIZE = 64;
+
+    /** Size of a single card record in bytes. */
+    public static final int RECORD_SIZE = 64;
+
+    /** Change counter value marking a snapshot which is being modified. */
+    public static final long DIRTY_CHANGE_COUNTER = -1L;
+
+    /** Epoch day stored for missing revision dates, so such cards are never due. */
+    private static final int NO_DATE = Integer.MAX_VALUE;
+
+    /** Flag set for cards which have not been revised yet. */
+    private static final int FLAG_NEW_CARD = 1;
+
+    /** Flag set for {@link CardSuperMemo2} cards. */
+    private static final int FLAG_SUPER_MEMO_2 = 1 << 1;
+
+    /** Flag set for {@link CardConstantCoefficient} cards. */
+    private static final int FLAG_CONSTANT_COEFFICIENT = 1 << 2;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int DECK_ID_OFFSET = 8;
+    private static final int CHANGE_COUNTER_OFFSET = 16;
+    private static final int RECORD_COUNT_OFFSET = 24;
+    private static final int RECORD_SIZE_OFFSET = 28;
+
+    private static final int CARD_ID_OFFSET = 0;
+    private static final int REGULAR_DUE_OFFSET = 8;
+    private static final int REVERSE_DUE_OFFSET = 12;
+    private static final int FLAGS_OFFSET = 16;
+    private static final int REGULAR_REPETITION_OFFSET = 20;
+    private static final int REVERSE_REPETITION_OFFSET = 24;
+    private static final int REGULAR_INTERVAL_OFFSET = 28;
+    private static final int REVERSE_INTERVAL_OFFSET = 32;
+    private static final int REGULAR_INCORRECT_OFFSET = 36;
+    private static final int REVERSE_INCORRECT_OFFSET = 40;
+    private static final int REGULAR_FACTOR_OFFSET = 48;
+    private static final int REVERSE_FACTOR_OFFSET = 56;
+
+    /** The snapshot file, mapped again when records are appended. */
+    private final Path file;
+
+    /**
+     * Memory-mapped content of the snapshot file. Replaced by a larger mapping when records are appended,
+     * before the record count grows, so readers never see a record outside of the buffer.
+     */
+    private volatile MappedByteBuffer buffer;
+
+    /** Number of card records in the snapshot. */
+    private volatile int recordCount;
+
+    /** Record indexes by card identifier. */
+    private final Map<Long, Integer> recordIndexes;
+
+    /**
+     * Creates a snapshot backed by the given mapped buffer.
+     *
+     * @param file        the snapshot file
+     * @param buffer      the mapped file content
+     * @param recordCount the number of records
+     */
+    private DeckSnapshot(Path file, MappedByteBuffer buffer, int recordCount) {
+        this.file = file;
+        this.buffer = buffer;
+        this.recordCount = recordCount;
+        this.recordIndexes = new HashMap<>(recordCount * 2);
+        for (int i = 0; i < recordCount; i++) {
+            recordIndexes.put(getCardId(i), i);
+        }
+    }
+
+    /**
+     * Writes a new snapshot file for the given cards and maps it into memory.
+     * The file is written next to the target and moved into place, so readers never see a partial file.
+     *
+     * @param file          the snapshot file
+     * @param deckId        the identifier of the deck
+     * @param changeCounter the deck change counter the cards were read at
+     * @param cards         the cards of the deck
+     * @return the mapped snapshot
+     * @throws IOException if the file cannot be written or mapped
+     */
+    public static DeckSnapshot write(Path file, long deckId, long changeCounter, Collection<? extends CardBase> cards) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        int recordCount = cards.size();
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) recordCount * RECORD_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            buffer.putInt(VERSION_OFFSET, FORMAT_VERSION);
+            buffer.putLong(DECK_ID_OFFSET, deckId);
+            buffer.putLong(CHANGE_COUNTER_OFFSET, changeCounter);
+            buffer.putInt(RECORD_COUNT_OFFSET, recordCount);
+            buffer.putInt(RECORD_SIZE_OFFSET, RECORD_SIZE);
+            int index = 0;
+            for (CardBase card : cards) {
+                writeRecord(buffer, index++, card);
+            }
+            buffer.force();
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        return open(file).orElseThrow(() -> new IOException("Cannot open written snapshot " + file));
+    }
+
+    /**
+     * Maps an existing snapshot file into memory.
+     *
+     * @param file the snapshot file
+     * @return the mapped snapshot, or an empty {@link Optional} if the file does not exist or has an unsupported format
+     * @throws IOException if the file cannot be read or mapped
+     */
+    public static Optional<DeckSnapshot> open(Path file) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) < HEADER_SIZE) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int recordCount = buffer.getInt(RECORD_COUNT_OFFSET);
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC
+                    || buffer.getInt(VERSION_OFFSET) != FORMAT_VERSION
+                    || buffer.getInt(RECORD_SIZE_OFFSET) != RECORD_SIZE
+                    || recordCount < 0
+                    || channel.size() != HEADER_SIZE + (long) recordCount * RECORD_SIZE) {
+                return Optional.empty();
+            }
+            return Optional.of(new DeckSnapshot(file, buffer, recordCount));
+        }
+    }
+
+    /**
+     * Returns the identifier of the deck stored in the snapshot.
+     *
+     * @return the deck identifier
+     */
+    public long getDeckId() {
+        return buffer.getLong(DECK_ID_OFFSET);
+    }
+
+    /**
+     * Returns the deck change counter the snapshot is valid for.
+     *
+     * @return the change counter, or {@link #DIRTY_CHANGE_COUNTER} if the snapshot is being modified
+     */
+    public long getChangeCounter() {
+        return buffer.getLong(CHANGE_COUNTER_OFFSET);
+    }
+
+    /**
+     * Returns whether the snapshot is being modified and cannot be trusted.
+     *
+     * @return {@code true} if the snapshot is dirty
+     */
+    public boolean isDirty() {
+        return getChangeCounter() == DIRTY_CHANGE_COUNTER;
+    }
+
+    /**
+     * Marks the snapshot as being modified.
+     */
+    public void markDirty() {
+        buffer.putLong(CHANGE_COUNTER_OFFSET, DIRTY_CHANGE_COUNTER);
+    }
+
+    /**
+     * Returns the number of cards in the snapshot.
+     *
+     * @return the number of card records
+     */
+    public int getCardsCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the identifier of the card stored in the given record.
+     *
+     * @param index the record index
+     * @return the card identifier
+     */
+    public long getCardId(int index) {
+        return buffer.getLong(recordOffset(index) + CARD_ID_OFFSET);
+    }
+
+    /**
+     * Overwrites the records of the given cards and marks the snapshot as valid for the given change counter.
+     * Cards which are not stored in the snapshot yet are appended at the end of the file.
+     *
+     * @param cards         the modified or added cards
+     * @param changeCounter the deck change counter after the modification
+     * @return {@code true} if all cards were written, {@code false} if a card has no identifier or the file
+     * cannot be extended, in which case the snapshot stays dirty
+     */
+    public synchronized boolean update(Collection<? extends CardBase> cards, long changeCounter) {
+        markDirty();
+        List<CardBase> addedCards = new ArrayList<>();
+        for (CardBase card : cards) {
+            if (card.getIdCard() == null) {
+                return false;
+            }
+            Integer index = recordIndexes.get(card.getIdCard());
+            if (index == null) {
+                addedCards.add(card);
+            } else {
+                writeRecord(buffer, index, card);
+            }
+        }
+        if (!addedCards.isEmpty() && !append(addedCards)) {
+            return false;
+        }
+        buffer.putLong(CHANGE_COUNTER_OFFSET, changeCounter);
+        return true;
+    }
+
+    /**
+     * Counts the cards which have not been revised yet.
+     *
+     * @return the number of new cards
+     */
+    public int countNewCards() {
+        int count = 0;
+        for (int i = 0; i < recordCount; i++) {
+            if ((buffer.getInt(recordOffset(i) + FLAGS_OFFSET) & FLAG_NEW_CARD) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the cards due for regular revision.
+     *
+     * @param today the current date
+     * @return the number of cards due for regular revision
+     */
+    public int countRegularRevisionCards(LocalDate today) {
+        return countDue(REGULAR_DUE_OFFSET, (int) today.toEpochDay());
+    }
+
+    /**
+     * Counts the cards due for reverse revision.
+     *
+     * @param today the current date
+     * @return the number of cards due for reverse revision
+     */
+    public int countReverseRevisionCards(LocalDate today) {
+        return countDue(REVERSE_DUE_OFFSET, (int) today.toEpochDay());
+    }
+
+    /**
+     * Returns the identifiers of the cards due for regular revision.
+     *
+     * @param today the current date
+     * @return the identifiers of the cards due for regular revision
+     */
+    public List<Long> findRegularRevisionCardIds(LocalDate today) {
+        return findDue(REGULAR_DUE_OFFSET, (int) today.toEpochDay());
+    }
+
+    /**
+     * Returns the identifiers of the cards due for reverse revision.
+     *
+     * @param today the current date
+     * @return the identifiers of the cards due for reverse revision
+     */
+    public List<Long> findReverseRevisionCardIds(LocalDate today) {
+        return findDue(REVERSE_DUE_OFFSET, (int) today.toEpochDay());
+    }
+
+    /**
+     * Copies the state of the SuperMemo2 cards of the snapshot into a batch state, in record order.
+     *
+     * @param reverse {@code true} to copy the reverse revision fields, {@code false} for the regular ones
+     * @return the batch state of the SuperMemo2 cards
+     */
+    public SuperMemo2BatchState toSuperMemo2BatchState(boolean reverse) {
+        int[] indexes = findRecords(FLAG_SUPER_MEMO_2);
+        SuperMemo2BatchState state = new SuperMemo2BatchState(indexes.length);
+        for (int i = 0; i < indexes.length; i++) {
+            int offset = recordOffset(indexes[i]);
+            state.getRepetitions()[i] = buffer.getInt(offset + (reverse ? REVERSE_REPETITION_OFFSET : REGULAR_REPETITION_OFFSET));
+            state.getIntervals()[i] = buffer.getInt(offset + (reverse ? REVERSE_INTERVAL_OFFSET : REGULAR_INTERVAL_OFFSET));
+            state.getEasinessFactors()[i] = buffer.getDouble(offset + (reverse ? REVERSE_FACTOR_OFFSET : REGULAR_FACTOR_OFFSET));
+            state.getIncorrectCounters()[i] = buffer.getInt(offset + (reverse ? REVERSE_INCORRECT_OFFSET : REGULAR_INCORRECT_OFFSET));
+        }
+        return state;
+    }
+
+    /**
+     * Copies the state of the Constant Coefficient cards of the snapshot into a batch state, in record order.
+     *
+     * @param reverse {@code true} to copy the reverse revision fields, {@code false} for the regular ones
+     * @return the batch state of the Constant Coefficient cards
+     */
+    public ConstantCoefficientBatchState toConstantCoefficientBatchState(boolean reverse) {
+        int[] indexes = findRecords(FLAG_CONSTANT_COEFFICIENT);
+        ConstantCoefficientBatchState state = new ConstantCoefficientBatchState(indexes.length);
+        for (int i = 0; i < indexes.length; i++) {
+            int offset = recordOffset(indexes[i]);
+            state.getBaseRevisionTimes()[i] = buffer.getDouble(offset + (reverse ? REVERSE_FACTOR_OFFSET : REGULAR_FACTOR_OFFSET));
+            state.getIncorrectCounters()[i] = buffer.getInt(offset + (reverse ? REVERSE_INCORRECT_OFFSET : REGULAR_INCORRECT_OFFSET));
+        }
+        return state;
+    }
+
+    /**
+     * Counts the non-new cards whose due date stored at the given record offset is not after the given day.
+     */
+    private int countDue(int dueOffset, int epochDay) {
+        int count = 0;
+        for (int i = 0; i < recordCount; i++) {
+            int offset = recordOffset(i);
+            if ((buffer.getInt(offset + FLAGS_OFFSET) & FLAG_NEW_CARD) == 0 && buffer.getInt(offset + dueOffset) <= epochDay) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects the identifiers of the non-new cards whose due date stored at the given record offset is not after the given day.
+     */
+    private List<Long> findDue(int dueOffset, int epochDay) {
+        List<Long> cardIds = new ArrayList<>();
+        for (int i = 0; i < recordCount; i++) {
+            int offset = recordOffset(i);
+            if ((buffer.getInt(offset + FLAGS_OFFSET) & FLAG_NEW_CARD) == 0 && buffer.getInt(offset + dueOffset) <= epochDay) {
+                cardIds.add(buffer.getLong(offset + CARD_ID_OFFSET));
+            }
+        }
+        return cardIds;
+    }
+
+    /**
+     * Returns the indexes of the records having the given flag set.
+     */
+    private int[] findRecords(int flag) {
+        int[] indexes = new int[recordCount];
+        int count = 0;
+        for (int i = 0; i < recordCount; i++) {
+            if ((buffer.getInt(recordOffset(i) + FLAGS_OFFSET) & flag) != 0) {
+                indexes[count++] = i;
+            }
+        }
+        return Arrays.copyOf(indexes, count);
+    }
+
+    /**
+     * Extends the file by the records of the given cards and maps it again. The record count in the header
+     * is updated last, so a file left behind half-extended is rejected by {@link #open(Path)}.
+     *
+     * @param addedCards the cards not stored in the snapshot yet
+     * @return {@code true} if the records were appended, {@code false} if the file cannot be extended
+     */
+    private boolean append(List<CardBase> addedCards) {
+        int newRecordCount = recordCount + addedCards.size();
+        MappedByteBuffer extendedBuffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            extendedBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newRecordCount * RECORD_SIZE);
+        } catch (IOException e) {
+            return false;
+        }
+        extendedBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        int index = recordCount;
+        for (CardBase card : addedCards) {
+            writeRecord(extendedBuffer, index, card);
+            recordIndexes.put(card.getIdCard(), index++);
+        }
+        extendedBuffer.putInt(RECORD_COUNT_OFFSET, newRecordCount);
+        buffer = extendedBuffer;
+        recordCount = newRecordCount;
+        return true;
+    }
+
+    /**
+     * Returns the byte offset of the record with the given index.
+     */
+    private static int recordOffset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    /**
+     * Writes the scheduling state of a card into the record with the given index.
+     */
+    private static void writeRecord(MappedByteBuffer buffer, int index, CardBase card) {
+        int offset = recordOffset(index);
+        int flags = card.isNewCard() ? FLAG_NEW_CARD : 0;
+        int regularRepetition = 0;
+        int reverseRepetition = 0;
+        int regularInterval = 0;
+        int reverseInterval = 0;
+        int regularIncorrect = 0;
+        int reverseIncorrect = 0;
+        double regularFactor = 0.0;
+        double reverseFactor = 0.0;
+        if (card instanceof CardSuperMemo2 superMemo2Card) {
+            flags |= FLAG_SUPER_MEMO_2;
+            regularRepetition = superMemo2Card.getRepetition();
+            reverseRepetition = superMemo2Card.getReverseRepetition();
+            regularInterval = superMemo2Card.getRegularInterval();
+            reverseInterval = superMemo2Card.getReverseInterval();
+            regularIncorrect = superMemo2Card.getIncorrectCounter();
+            reverseIncorrect = superMemo2Card.getReverseIncorrectCounter();
+            regularFactor = superMemo2Card.getEasinessFactor();
+            reverseFactor = superMemo2Card.getReverseEasinessFactor();
+        } else if (card instanceof CardConstantCoefficient constantCoefficientCard) {
+            flags |= FLAG_CONSTANT_COEFFICIENT;
+            regularIncorrect = constantCoefficientCard.getIncorrectCounter();
+            reverseIncorrect = constantCoefficientCard.getReverseIncorrectCounter();
+            regularFactor = constantCoefficientCard.getBaseRevisionTime();
+            reverseFactor = constantCoefficientCard.getBaseReverseRevisionTime();
+        }
+        buffer.putLong(offset + CARD_ID_OFFSET, card.getIdCard() == null ? 0L : card.getIdCard());
+        buffer.putInt(offset + REGULAR_DUE_OFFSET, toEpochDay(card.getNextRegularRevisionDate()));
+        buffer.putInt(offset + REVERSE_DUE_OFFSET, toEpochDay(card.getNextReverseRevisionDate()));
+        buffer.putInt(offset + FLAGS_OFFSET, flags);
+        buffer.putInt(offset + REGULAR_REPETITION_OFFSET, regularRepetition);
+        buffer.putInt(offset + REVERSE_REPETITION_OFFSET, reverseRepetition);
+        buffer.putInt(offset + REGULAR_INTERVAL_OFFSET, regularInterval);
+        buffer.putInt(offset + REVERSE_INTERVAL_OFFSET, reverseInterval);
+        buffer.putInt(offset + REGULAR_INCORRECT_OFFSET, regularIncorrect);
+        buffer.putInt(offset + REVERSE_INCORRECT_OFFSET, reverseIncorrect);
+        buffer.putDouble(offset + REGULAR_FACTOR_OFFSET, regularFactor);
+        buffer.putDouble(offset + REVERSE_FACTOR_OFFSET, reverseFactor);
+    }
+
+    /**
+     * Converts a date to the epoch day stored in the records.
+     */
+    private static int toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+}
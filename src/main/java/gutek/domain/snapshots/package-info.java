@@ -0,0 +1,8 @@
+/**
+ * Provides memory-mapped snapshots of the decks' scheduling state.
+ * This package includes:
+ * <ul>
+ *     <li>{@link gutek.domain.snapshots.DeckSnapshot} - Fixed-width binary snapshot of the cards of a single deck.</li>
+ * </ul>
+ */
+package gutek.domain.snapshots;
\ No newline at end of file
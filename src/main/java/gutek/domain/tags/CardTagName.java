@@ -0,0 +1,10 @@
+package gutek.domain.tags;
+
+/**
+ * Tag of a card, read when indexing the tags of a deck.
+ *
+ * @param cardId the identifier of the card
+ * @param name   the normalized name of the tag
+ */
+public record CardTagName(Long cardId, String name) {
+}
@@ -0,0 +1,435 @@
+package gutek.domain.tags;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable compressed set of non-negative integers, such as the ordinals of the cards of a deck.
+ * <p>
+ * The integers are split by their high 16 bits into chunks of 65536 values. Every non-empty chunk is stored either
+ * as a sorted array of its low 16 bits, when it holds at most {@value #MAX_ARRAY_SIZE} values, or as a bitmap of
+ * 1024 words otherwise, so a tag of a few cards takes a few bytes and a tag of most cards one bit per card.
+ * The set operations combine the chunks pairwise, merging the arrays or combining the bitmaps word by word.
+ * </p>
+ */
+public final class CompressedBitmap {
+
+    /**
+     * Maximum number of values of a chunk stored as an array.
+     */
+    static final int MAX_ARRAY_SIZE = 4096;
+
+    /**
+     * Number of words of a chunk stored as a bitmap.
+     */
+    private static final int WORDS = 1024;
+
+    /**
+     * The empty set.
+     */
+    private static final CompressedBitmap EMPTY = new CompressedBitmap(List.of());
+
+    /**
+     * Set operations combining two bitmaps.
+     */
+    private enum Operation {
+        AND, OR, AND_NOT;
+
+        /**
+         * Checks whether a value belongs to the result of the operation.
+         *
+         * @param inFirst  whether the value belongs to the first set
+         * @param inSecond whether the value belongs to the second set
+         * @return {@code true} if the value belongs to the result
+         */
+        boolean keeps(boolean inFirst, boolean inSecond) {
+            return switch (this) {
+                case AND -> inFirst && inSecond;
+                case OR -> inFirst || inSecond;
+                case AND_NOT -> inFirst && !inSecond;
+            };
+        }
+
+        /**
+         * Combines the words of two bitmaps.
+         *
+         * @param first  the word of the first bitmap
+         * @param second the word of the second bitmap
+         * @return the word of the result
+         */
+        long combine(long first, long second) {
+            return switch (this) {
+                case AND -> first & second;
+                case OR -> first | second;
+                case AND_NOT -> first & ~second;
+            };
+        }
+    }
+
+    /**
+     * Non-empty chunk of the set: the values sharing the high 16 bits, stored as an array or as a bitmap.
+     *
+     * @param key         the high 16 bits of the values
+     * @param values      the sorted low 16 bits of the values, or {@code null} if stored as a bitmap
+     * @param words       the bitmap of the low 16 bits of the values, or {@code null} if stored as an array
+     * @param cardinality the number of values
+     */
+    private record Chunk(int key, char[] values, long[] words, int cardinality) {
+
+        /**
+         * Creates a chunk from a bitmap, stored as an array if it holds few values.
+         *
+         * @param key   the high 16 bits of the values
+         * @param words the bitmap of the low 16 bits of the values
+         * @return the chunk, or {@code null} if the bitmap is empty
+         */
+        static Chunk ofWords(int key, long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality > MAX_ARRAY_SIZE) {
+                return new Chunk(key, null, words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int wordIndex = 0; wordIndex < WORDS; wordIndex++) {
+                long word = words[wordIndex];
+                while (word != 0) {
+                    values[count++] = (char) (wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new Chunk(key, values, null, cardinality);
+        }
+
+        /**
+         * Creates a chunk from sorted distinct values, stored as a bitmap if it holds many values.
+         *
+         * @param key    the high 16 bits of the values
+         * @param values the sorted distinct low 16 bits of the values, only the first {@code count} are used
+         * @param count  the number of values
+         * @return the chunk, or {@code null} if there are no values
+         */
+        static Chunk ofValues(int key, char[] values, int count) {
+            if (count == 0) {
+                return null;
+            }
+            if (count > MAX_ARRAY_SIZE) {
+                long[] words = new long[WORDS];
+                for (int i = 0; i < count; i++) {
+                    words[values[i] >>> 6] |= 1L << values[i];
+                }
+                return new Chunk(key, null, words, count);
+            }
+            return new Chunk(key, Arrays.copyOf(values, count), null, count);
+        }
+
+        /**
+         * Checks whether the chunk holds a value.
+         *
+         * @param low the low 16 bits of the value
+         * @return {@code true} if the chunk holds the value
+         */
+        boolean contains(char low) {
+            return values != null ? Arrays.binarySearch(values, low) >= 0 : (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        /**
+         * Returns the values of the chunk as a bitmap.
+         *
+         * @return the bitmap of the low 16 bits of the values, not to be modified
+         */
+        long[] toWords() {
+            if (words != null) {
+                return words;
+            }
+            long[] bitmap = new long[WORDS];
+            for (char value : values) {
+                bitmap[value >>> 6] |= 1L << value;
+            }
+            return bitmap;
+        }
+
+        /**
+         * Combines the chunk with a chunk of the same key.
+         *
+         * @param other     the other chunk
+         * @param operation the set operation
+         * @return the combined chunk, or {@code null} if it is empty
+         */
+        Chunk combine(Chunk other, Operation operation) {
+            if (values != null && other.values != null) {
+                char[] combined = new char[values.length + other.values.length];
+                int count = 0;
+                int i = 0;
+                int j = 0;
+                while (i < values.length || j < other.values.length) {
+                    char value;
+                    boolean inFirst;
+                    boolean inSecond;
+                    if (j == other.values.length || (i < values.length && values[i] < other.values[j])) {
+                        value = values[i++];
+                        inFirst = true;
+                        inSecond = false;
+                    } else if (i == values.length || other.values[j] < values[i]) {
+                        value = other.values[j++];
+                        inFirst = false;
+                        inSecond = true;
+                    } else {
+                        value = values[i++];
+                        j++;
+                        inFirst = true;
+                        inSecond = true;
+                    }
+                    if (operation.keeps(inFirst, inSecond)) {
+                        combined[count++] = value;
+                    }
+                }
+                return ofValues(key, combined, count);
+            }
+            long[] first = toWords();
+            long[] second = other.toWords();
+            long[] combined = new long[WORDS];
+            for (int i = 0; i < WORDS; i++) {
+                combined[i] = operation.combine(first[i], second[i]);
+            }
+            return ofWords(key, combined);
+        }
+    }
+
+    /**
+     * The non-empty chunks, in ascending order of keys.
+     */
+    private final List<Chunk> chunks;
+
+    /**
+     * The number of values of the set.
+     */
+    private final int cardinality;
+
+    /**
+     * Creates a set of the given chunks.
+     *
+     * @param chunks the non-empty chunks, in ascending order of keys
+     */
+    private CompressedBitmap(List<Chunk> chunks) {
+        this.chunks = chunks;
+        this.cardinality = chunks.stream().mapToInt(Chunk::cardinality).sum();
+    }
+
+    /**
+     * Returns the empty set.
+     *
+     * @return the empty set
+     */
+    public static CompressedBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates the set of all integers from zero up to the given size.
+     *
+     * @param size the number of integers
+     * @return the set of the integers from {@code 0} inclusive to {@code size} exclusive
+     */
+    public static CompressedBitmap range(int size) {
+        List<Chunk> chunks = new ArrayList<>();
+        for (int start = 0; start < size; start += 1 << 16) {
+            int chunkSize = Math.min(size - start, 1 << 16);
+            long[] words = new long[WORDS];
+            Arrays.fill(words, 0, chunkSize / Long.SIZE, -1L);
+            if (chunkSize % Long.SIZE != 0) {
+                words[chunkSize / Long.SIZE] = (1L << chunkSize) - 1;
+            }
+            chunks.add(Chunk.ofWords(start >>> 16, words));
+        }
+        return new CompressedBitmap(chunks);
+    }
+
+    /**
+     * Creates the set of the given integers.
+     *
+     * @param sortedValues the non-negative integers in ascending order, possibly repeated
+     * @return the set of the integers
+     * @throws IllegalArgumentException if the integers are negative or not sorted
+     */
+    public static CompressedBitmap of(int... sortedValues) {
+        List<Chunk> chunks = new ArrayList<>();
+        char[] lows = new char[1 << 16];
+        int count = 0;
+        int key = -1;
+        int previous = -1;
+        for (int value : sortedValues) {
+            if (value < 0 || value < previous) {
+                throw new IllegalArgumentException("Values have to be non-negative and sorted: " + value);
+            }
+            if (value == previous) {
+                continue;
+            }
+            if (value >>> 16 != key) {
+                if (count > 0) {
+                    chunks.add(Chunk.ofValues(key, lows, count));
+                }
+                key = value >>> 16;
+                count = 0;
+            }
+            lows[count++] = (char) value;
+            previous = value;
+        }
+        if (count > 0) {
+            chunks.add(Chunk.ofValues(key, lows, count));
+        }
+        return chunks.isEmpty() ? EMPTY : new CompressedBitmap(chunks);
+    }
+
+    /**
+     * Checks whether the set holds an integer.
+     *
+     * @param value the integer
+     * @return {@code true} if the set holds the integer
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = findChunk(value >>> 16);
+        return index >= 0 && chunks.get(index).contains((char) value);
+    }
+
+    /**
+     * Returns the number of integers of the set.
+     *
+     * @return the cardinality of the set
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Checks whether the set is empty.
+     *
+     * @return {@code true} if the set holds no integers
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Computes the intersection of this set and another one.
+     *
+     * @param other the other set
+     * @return the integers held by both sets
+     */
+    public CompressedBitmap and(CompressedBitmap other) {
+        return combine(other, Operation.AND);
+    }
+
+    /**
+     * Computes the union of this set and another one.
+     *
+     * @param other the other set
+     * @return the integers held by any of the sets
+     */
+    public CompressedBitmap or(CompressedBitmap other) {
+        return combine(other, Operation.OR);
+    }
+
+    /**
+     * Computes the difference of this set and another one.
+     *
+     * @param other the other set
+     * @return the integers held by this set and not by the other one
+     */
+    public CompressedBitmap andNot(CompressedBitmap other) {
+        return combine(other, Operation.AND_NOT);
+    }
+
+    /**
+     * Returns the integers of the set.
+     *
+     * @return the integers in ascending order
+     */
+    public int[] toArray() {
+        int[] result = new int[cardinality];
+        int count = 0;
+        for (Chunk chunk : chunks) {
+            int high = chunk.key() << 16;
+            if (chunk.values() != null) {
+                for (char value : chunk.values()) {
+                    result[count++] = high | value;
+                }
+            } else {
+                long[] words = chunk.words();
+                for (int wordIndex = 0; wordIndex < WORDS; wordIndex++) {
+                    long word = words[wordIndex];
+                    while (word != 0) {
+                        result[count++] = high | (wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Combines the set with another one, walking the chunks of both sets in the order of keys.
+     *
+     * @param other     the other set
+     * @param operation the set operation
+     * @return the combined set
+     */
+    private CompressedBitmap combine(CompressedBitmap other, Operation operation) {
+        List<Chunk> combined = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < chunks.size() || j < other.chunks.size()) {
+            Chunk first = i < chunks.size() ? chunks.get(i) : null;
+            Chunk second = j < other.chunks.size() ? other.chunks.get(j) : null;
+            Chunk result;
+            if (second == null || (first != null && first.key() < second.key())) {
+                result = operation.keeps(true, false) ? first : null;
+                i++;
+            } else if (first == null || second.key() < first.key()) {
+                result = operation.keeps(false, true) ? second : null;
+                j++;
+            } else {
+                result = first.combine(second, operation);
+                i++;
+                j++;
+            }
+            if (result != null) {
+                combined.add(result);
+            }
+        }
+        return combined.isEmpty() ? EMPTY : new CompressedBitmap(combined);
+    }
+
+    /**
+     * Finds the chunk of the given key.
+     *
+     * @param key the high 16 bits of the values of the chunk
+     * @return the index of the chunk, or a negative number if the set has no such chunk
+     */
+    private int findChunk(int key) {
+        int low = 0;
+        int high = chunks.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleKey = chunks.get(middle).key();
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,147 @@
+package gutek.domain.tags;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index of the tags of the cards of a deck, used to evaluate {@link TagFilter}s without querying the database.
+ * <p>
+ * Every card of the deck gets an ordinal, its position among the sorted identifiers of the cards, and every tag
+ * is indexed as a {@link CompressedBitmap} of the ordinals of its cards. A filter is then evaluated by combining
+ * the bitmaps of its tags, and the result is intersected with the bitmap of the cards due for revision.
+ * </p>
+ */
+public final class DeckTagIndex {
+
+    /**
+     * The identifiers of the cards of the deck, in ascending order; the index of an identifier is the ordinal of the card.
+     */
+    private final long[] cardIds;
+
+    /**
+     * The bitmaps of the ordinals of the cards, by the names of the tags.
+     */
+    private final Map<String, CompressedBitmap> bitmaps;
+
+    /**
+     * The bitmap of the ordinals of all cards.
+     */
+    private final CompressedBitmap all;
+
+    /**
+     * Creates an index of the cards of a deck.
+     *
+     * @param cardIds the identifiers of the cards of the deck, in any order
+     * @param tags    the tags of the cards; tags of cards not in {@code cardIds} are skipped
+     */
+    public DeckTagIndex(Collection<Long> cardIds, Collection<CardTagName> tags) {
+        this.cardIds = cardIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        this.all = CompressedBitmap.range(this.cardIds.length);
+
+        Map<String, int[]> ordinals = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        for (CardTagName tag : tags) {
+            int ordinal = ordinalOf(tag.cardId());
+            if (ordinal < 0) {
+                continue;
+            }
+            int count = counts.getOrDefault(tag.name(), 0);
+            int[] values = ordinals.computeIfAbsent(tag.name(), name -> new int[4]);
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+                ordinals.put(tag.name(), values);
+            }
+            values[count] = ordinal;
+            counts.put(tag.name(), count + 1);
+        }
+
+        Map<String, CompressedBitmap> bitmaps = new HashMap<>();
+        ordinals.forEach((name, values) -> {
+            int[] sorted = Arrays.copyOf(values, counts.get(name));
+            Arrays.sort(sorted);
+            bitmaps.put(name, CompressedBitmap.of(sorted));
+        });
+        this.bitmaps = Map.copyOf(bitmaps);
+    }
+
+    /**
+     * Returns the number of cards of the deck.
+     *
+     * @return the number of indexed cards
+     */
+    public int size() {
+        return cardIds.length;
+    }
+
+    /**
+     * Returns the ordinal of a card.
+     *
+     * @param cardId the identifier of the card
+     * @return the ordinal of the card, or a negative number if the card is not in the index
+     */
+    public int ordinalOf(Long cardId) {
+        return cardId == null ? -1 : Arrays.binarySearch(cardIds, cardId);
+    }
+
+    /**
+     * Returns the identifier of the card of an ordinal.
+     *
+     * @param ordinal the ordinal of the card
+     * @return the identifier of the card
+     */
+    public long cardIdAt(int ordinal) {
+        return cardIds[ordinal];
+    }
+
+    /**
+     * Returns the cards of a tag.
+     *
+     * @param name the normalized name of the tag
+     * @return the ordinals of the cards of the tag, empty if no card has it
+     */
+    public CompressedBitmap tagged(String name) {
+        return bitmaps.getOrDefault(name, CompressedBitmap.empty());
+    }
+
+    /**
+     * Returns all cards of the deck.
+     *
+     * @return the ordinals of all cards
+     */
+    public CompressedBitmap all() {
+        return all;
+    }
+
+    /**
+     * Returns the given cards of the deck.
+     *
+     * @param ids the identifiers of the cards; cards not in the index are skipped
+     * @return the ordinals of the cards
+     */
+    public CompressedBitmap ordinalsOf(Collection<Long> ids) {
+        int[] ordinals = ids.stream().mapToInt(this::ordinalOf).filter(ordinal -> ordinal >= 0).sorted().toArray();
+        return CompressedBitmap.of(ordinals);
+    }
+
+    /**
+     * Returns the tags used in the deck.
+     *
+     * @return the names of the tags
+     */
+    public Set<String> tagNames() {
+        return bitmaps.keySet();
+    }
+
+    /**
+     * Returns the tags used in the deck, in alphabetical order.
+     *
+     * @return the sorted names of the tags
+     */
+    public List<String> sortedTagNames() {
+        return bitmaps.keySet().stream().sorted().toList();
+    }
+}
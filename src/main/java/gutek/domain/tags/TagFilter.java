@@ -0,0 +1,85 @@
+package gutek.domain.tags;
+
+/**
+ * Boolean expression over the tags of the cards, selecting the cards of a filtered revision session.
+ * <p>
+ * A filter is written as tag names combined with {@code and}, {@code or}, {@code not} and parentheses, for example
+ * {@code verbs and not irregular} or {@code (verbs or nouns) b1}. Adjacent terms are combined with {@code and},
+ * {@code not} binds tighter than {@code and}, and {@code and} binds tighter than {@code or}. The operators are
+ * case-insensitive, as are the tag names, which are normalized with {@link Tags#normalize(String)}.
+ * </p>
+ */
+public sealed interface TagFilter {
+
+    /**
+     * Cards having a tag.
+     *
+     * @param name the normalized name of the tag
+     */
+    record Tag(String name) implements TagFilter {
+        @Override
+        public CompressedBitmap evaluate(DeckTagIndex index) {
+            return index.tagged(name);
+        }
+    }
+
+    /**
+     * Cards not selected by a filter.
+     *
+     * @param filter the negated filter
+     */
+    record Not(TagFilter filter) implements TagFilter {
+        @Override
+        public CompressedBitmap evaluate(DeckTagIndex index) {
+            return index.all().andNot(filter.evaluate(index));
+        }
+    }
+
+    /**
+     * Cards selected by both filters.
+     *
+     * @param left  the first filter
+     * @param right the second filter
+     */
+    record And(TagFilter left, TagFilter right) implements TagFilter {
+        @Override
+        public CompressedBitmap evaluate(DeckTagIndex index) {
+            if (right instanceof Not not) {
+                return left.evaluate(index).andNot(not.filter().evaluate(index));
+            }
+            return left.evaluate(index).and(right.evaluate(index));
+        }
+    }
+
+    /**
+     * Cards selected by any of the filters.
+     *
+     * @param left  the first filter
+     * @param right the second filter
+     */
+    record Or(TagFilter left, TagFilter right) implements TagFilter {
+        @Override
+        public CompressedBitmap evaluate(DeckTagIndex index) {
+            return left.evaluate(index).or(right.evaluate(index));
+        }
+    }
+
+    /**
+     * Evaluates the filter against the tags of a deck.
+     *
+     * @param index the index of the tags of the deck
+     * @return the ordinals of the selected cards
+     */
+    CompressedBitmap evaluate(DeckTagIndex index);
+
+    /**
+     * Parses a filter typed by the user.
+     *
+     * @param text the filter
+     * @return the parsed filter
+     * @throws IllegalArgumentException if the filter is blank or malformed
+     */
+    static TagFilter parse(String text) {
+        return new TagFilterParser(text).parse();
+    }
+}
@@ -0,0 +1,128 @@
+package gutek.domain.tags;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recursive descent parser of {@link TagFilter}s.
+ */
+final class TagFilterParser {
+
+    /**
+     * Tokens of a filter: parentheses and words.
+     */
+    private static final Pattern TOKEN = Pattern.compile("[()]|[^\\s(),;]+");
+
+    /**
+     * The normalized tokens of the parsed filter.
+     */
+    private final List<String> tokens = new ArrayList<>();
+
+    /**
+     * The position of the next token.
+     */
+    private int position;
+
+    /**
+     * Creates a parser of a filter, splitting it into tokens.
+     *
+     * @param text the filter typed by the user, may be {@code null}
+     */
+    TagFilterParser(String text) {
+        Matcher matcher = TOKEN.matcher(text == null ? "" : text);
+        while (matcher.find()) {
+            tokens.add(Tags.normalize(matcher.group()));
+        }
+    }
+
+    /**
+     * Parses the whole filter.
+     *
+     * @return the parsed filter
+     * @throws IllegalArgumentException if the filter is blank or malformed
+     */
+    TagFilter parse() {
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("The filter is empty");
+        }
+        TagFilter filter = parseOr();
+        if (position < tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + tokens.get(position) + "' in the filter");
+        }
+        return filter;
+    }
+
+    /**
+     * Parses alternatives of conjunctions.
+     *
+     * @return the parsed filter
+     */
+    private TagFilter parseOr() {
+        TagFilter filter = parseAnd();
+        while (accept("or")) {
+            filter = new TagFilter.Or(filter, parseAnd());
+        }
+        return filter;
+    }
+
+    /**
+     * Parses conjunctions, explicit or of adjacent terms.
+     *
+     * @return the parsed filter
+     */
+    private TagFilter parseAnd() {
+        TagFilter filter = parseNot();
+        while (true) {
+            if (accept("and")) {
+                filter = new TagFilter.And(filter, parseNot());
+            } else if (position < tokens.size() && !tokens.get(position).equals("or") && !tokens.get(position).equals(")")) {
+                filter = new TagFilter.And(filter, parseNot());
+            } else {
+                return filter;
+            }
+        }
+    }
+
+    /**
+     * Parses a negation, a parenthesized filter or a tag.
+     *
+     * @return the parsed filter
+     */
+    private TagFilter parseNot() {
+        if (accept("not")) {
+            return new TagFilter.Not(parseNot());
+        }
+        if (accept("(")) {
+            TagFilter filter = parseOr();
+            if (!accept(")")) {
+                throw new IllegalArgumentException("Missing ')' in the filter");
+            }
+            return filter;
+        }
+        if (position == tokens.size()) {
+            throw new IllegalArgumentException("The filter ends unexpectedly");
+        }
+        String token = tokens.get(position);
+        if (token.equals(")") || Tags.isReserved(token)) {
+            throw new IllegalArgumentException("Unexpected '" + token + "' in the filter");
+        }
+        position++;
+        return new TagFilter.Tag(token);
+    }
+
+    /**
+     * Skips the next token if it is the expected one.
+     *
+     * @param token the expected token
+     * @return {@code true} if the token was skipped
+     */
+    private boolean accept(String token) {
+        if (position < tokens.size() && tokens.get(position).equals(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+}
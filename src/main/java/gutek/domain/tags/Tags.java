@@ -0,0 +1,83 @@
+package gutek.domain.tags;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Utility methods for the names of the tags of the cards.
+ * <p>
+ * The names are stored in lower case, so the tags typed by the user and the tags of a filter match regardless of case.
+ * The words {@code and}, {@code or} and {@code not} are operators of {@link TagFilter} and cannot be tag names.
+ * </p>
+ */
+public final class Tags {
+
+    /**
+     * Maximum length of the name of a tag.
+     */
+    public static final int MAX_NAME_LENGTH = 64;
+
+    /**
+     * Characters separating the tags typed by the user.
+     */
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s,;]+");
+
+    /**
+     * Words reserved for the operators of a tag filter.
+     */
+    private static final Set<String> RESERVED_WORDS = Set.of("and", "or", "not");
+
+    private Tags() {
+    }
+
+    /**
+     * Normalizes the name of a tag.
+     *
+     * @param name the name typed by the user
+     * @return the name in lower case without surrounding whitespace
+     */
+    public static String normalize(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses the tags typed by the user, separated by whitespace, commas or semicolons.
+     * Reserved words and names longer than {@value #MAX_NAME_LENGTH} characters are skipped.
+     *
+     * @param text the typed tags, may be {@code null}
+     * @return the distinct normalized names, in the order they were typed
+     */
+    public static Set<String> parse(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+        return Arrays.stream(SEPARATORS.split(text.strip()))
+                .map(Tags::normalize)
+                .filter(name -> !name.isEmpty() && name.length() <= MAX_NAME_LENGTH && !RESERVED_WORDS.contains(name))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Formats tags to be shown to and edited by the user.
+     *
+     * @param names the names of the tags
+     * @return the names separated by spaces
+     */
+    public static String format(Set<String> names) {
+        return String.join(" ", names);
+    }
+
+    /**
+     * Checks whether a word is an operator of a tag filter.
+     *
+     * @param word the normalized word
+     * @return {@code true} if the word is reserved
+     */
+    static boolean isReserved(String word) {
+        return RESERVED_WORDS.contains(word);
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * Provides classes for tagging cards and selecting the cards of a revision session by their tags.
+ * <ul>
+ *     <li>{@link gutek.domain.tags.Tags} - Parsing and normalization of the names of the tags.</li>
+ *     <li>{@link gutek.domain.tags.CardTagName} - Tag of a card, read when indexing the tags of a deck.</li>
+ *     <li>{@link gutek.domain.tags.CompressedBitmap} - Compressed set of the ordinals of the cards of a deck.</li>
+ *     <li>{@link gutek.domain.tags.DeckTagIndex} - Bitmaps of the cards of every tag of a deck.</li>
+ *     <li>{@link gutek.domain.tags.TagFilter} - Boolean expression over tags, evaluated against a deck tag index.</li>
+ *     <li>{@link gutek.domain.tags.TagFilterParser} - Parser of the tag filters typed by the user.</li>
+ * </ul>
+ */
+package gutek.domain.tags;
@@ -0,0 +1,109 @@
+package gutek.domain.time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A clock whose time only changes when it is moved explicitly.
+ * <p>
+ * It is used for simulations and load tests, which drive the application through months or years
+ * of daily sessions in a single run. The current instant is shared by all clocks derived with
+ * {@link #withZone(ZoneId)}, so moving one of them moves all of them. The clock is thread-safe.
+ * </p>
+ */
+public class SimulatedClock extends Clock {
+
+    /**
+     * The current instant, shared with the clocks derived from this one.
+     */
+    private final AtomicReference<Instant> instant;
+
+    /**
+     * The time zone of the clock.
+     */
+    private final ZoneId zone;
+
+    /**
+     * Constructs a clock set to the given instant.
+     *
+     * @param instant the initial instant
+     * @param zone    the time zone of the clock
+     */
+    public SimulatedClock(Instant instant, ZoneId zone) {
+        this(new AtomicReference<>(Objects.requireNonNull(instant)), Objects.requireNonNull(zone));
+    }
+
+    /**
+     * Constructs a clock sharing the instant with another clock.
+     *
+     * @param instant the shared current instant
+     * @param zone    the time zone of the clock
+     */
+    private SimulatedClock(AtomicReference<Instant> instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    /**
+     * Creates a clock set to the start of the given day in the given time zone.
+     *
+     * @param date the initial date
+     * @param zone the time zone of the clock
+     * @return the new clock
+     */
+    public static SimulatedClock startingAt(LocalDate date, ZoneId zone) {
+        return new SimulatedClock(date.atStartOfDay(zone).toInstant(), zone);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new SimulatedClock(instant, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant.get();
+    }
+
+    /**
+     * Moves the clock forward by the given duration.
+     *
+     * @param duration the duration to move by
+     * @throws IllegalArgumentException if the duration is negative
+     */
+    public void advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("The simulated clock cannot move backwards");
+        }
+        instant.updateAndGet(current -> current.plus(duration));
+    }
+
+    /**
+     * Moves the clock forward by the given number of days.
+     *
+     * @param days the number of days to move by
+     * @throws IllegalArgumentException if the number of days is negative
+     */
+    public void advanceDays(long days) {
+        advance(Duration.ofDays(days));
+    }
+
+    /**
+     * Sets the clock to the given instant.
+     *
+     * @param newInstant the new instant
+     */
+    public void setInstant(Instant newInstant) {
+        instant.set(Objects.requireNonNull(newInstant));
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Provides classes for controlling the time seen by the application.
+ * <p>
+ * This package contains the {@link gutek.domain.time.SimulatedClock}, which replaces the system clock
+ * in simulations and load tests, so the scheduling and statistics can be driven through simulated days.
+ * </p>
+ */
+package gutek.domain.time;
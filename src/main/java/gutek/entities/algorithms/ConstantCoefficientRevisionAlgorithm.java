@@ -2,8 +2,11 @@ package gutek.entities.algorithms;
 
 import gutek.domain.revisions.RegularTextModeRevisionStrategy;
 import gutek.domain.algorithms.AlgorithmHiperparameter;
+import gutek.domain.algorithms.ConstantCoefficientBatchState;
+import gutek.domain.algorithms.SchedulingKernels;
 import gutek.domain.revisions.ReverseTextModeRevisionStrategy;
 import gutek.domain.revisions.RevisionStrategy;
+import gutek.domain.revisions.TypedTextModeRevisionStrategy;
 import gutek.entities.cards.CardConstantCoefficient;
 import gutek.utils.ImageUtil;
 import gutek.utils.validation.Min;
@@ -18,6 +21,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 
 /**
  * A revision algorithm based on the Constant Coefficients method for spaced repetition.
@@ -285,33 +289,39 @@ public class ConstantCoefficientRevisionAlgorithm extends RevisionAlgorithm<Card
      * @return true if the revision process for the card is finished, false otherwise
      */
     public boolean regularReviseCard(Button clickedButton, CardConstantCoefficient card) {
-        boolean cardRevisionFinished = false;
+        int pressedButtonIndex = Arrays.asList(button1, button2, button3, button4).indexOf(clickedButton);
+        return reviseRegular(pressedButtonIndex, card, LocalDate.now(clock));
+    }
+
+    /**
+     * Applies the answer given with the normal revision button of the given index.
+     *
+     * @param pressedButtonIndex the index of the pressed button (0 - repeat, 3 - excellent)
+     * @param card               the card being revised
+     * @param today              the date of the revision
+     * @return true if the revision process for the card is finished, false otherwise
+     */
+    private boolean reviseRegular(int pressedButtonIndex, CardConstantCoefficient card, LocalDate today) {
         double baseRevisionTime = card.getBaseRevisionTime();
-        int incorrectCounter = card.getIncorrectCounter();
-        if (clickedButton == button1) {
-            card.setBaseRevisionTime(coefficient1 * baseRevisionTime);
-            card.setIncorrectCounter(incorrectCounter + 1);
-            if (card.getIncorrectCounter() >= incorrectAnswerThreshold) {
-                card.setRevisionDefault();
+        switch (pressedButtonIndex) {
+            case 0 -> {
+                card.setBaseRevisionTime(coefficient1 * baseRevisionTime);
+                card.setIncorrectCounter(card.getIncorrectCounter() + 1);
+                if (card.getIncorrectCounter() >= incorrectAnswerThreshold) {
+                    card.setRevisionDefault();
+                }
+                card.setNextRegularRevisionDate(today);
+                return false;
+            }
+            case 1 -> card.setBaseRevisionTime(coefficient2 * baseRevisionTime);
+            case 2 -> card.setBaseRevisionTime(coefficient3 * baseRevisionTime);
+            case 3 -> card.setBaseRevisionTime(coefficient4 * baseRevisionTime);
+            default -> {
+                return false;
             }
-            card.setNextRegularRevisionDate(LocalDate.now());
-        } else if (clickedButton == button2) {
-            card.setBaseRevisionTime(coefficient2 * baseRevisionTime);
-            LocalDate nextRevisionDate = LocalDate.now().plusDays((long) Math.max(card.getBaseRevisionTime(), 1));
-            card.setNextRegularRevisionDate(nextRevisionDate);
-            cardRevisionFinished = true;
-        } else if (clickedButton == button3) {
-            card.setBaseRevisionTime(coefficient3 * baseRevisionTime);
-            LocalDate nextRevisionDate = LocalDate.now().plusDays((long) Math.max(card.getBaseRevisionTime(), 1));
-            card.setNextRegularRevisionDate(nextRevisionDate);
-            cardRevisionFinished = true;
-        } else if (clickedButton == button4) {
-            card.setBaseRevisionTime(coefficient4 * baseRevisionTime);
-            LocalDate nextRevisionDate = LocalDate.now().plusDays((long) Math.max(card.getBaseRevisionTime(), 1));
-            card.setNextRegularRevisionDate(nextRevisionDate);
-            cardRevisionFinished = true;
         }
-        return cardRevisionFinished;
+        card.setNextRegularRevisionDate(today.plusDays((long) Math.max(card.getBaseRevisionTime(), 1)));
+        return true;
     }
 
     /**
@@ -334,23 +344,90 @@ public class ConstantCoefficientRevisionAlgorithm extends RevisionAlgorithm<Card
      * @return true if the revision process for the card is finished, false otherwise
      */
     public boolean reverseReviseCard(Button clickedButton, CardConstantCoefficient card) {
-        boolean cardRevisionFinished = false;
+        int pressedButtonIndex = Arrays.asList(reverseButton1, reverseButton2).indexOf(clickedButton);
+        return reviseReverse(pressedButtonIndex, card, LocalDate.now(clock));
+    }
+
+    /**
+     * Applies the answer given with the reverse revision button of the given index.
+     *
+     * @param pressedButtonIndex the index of the pressed button (0 - repeat, 1 - excellent)
+     * @param card               the card being revised
+     * @param today              the date of the revision
+     * @return true if the revision process for the card is finished, false otherwise
+     */
+    private boolean reviseReverse(int pressedButtonIndex, CardConstantCoefficient card, LocalDate today) {
         double baseReverseRevisionTime = card.getBaseReverseRevisionTime();
-        int reverseIncorrectCounter = card.getReverseIncorrectCounter();
-        if (clickedButton == reverseButton1) {
+        if (pressedButtonIndex == 0) {
             card.setBaseReverseRevisionTime(reverseCoefficient1 * baseReverseRevisionTime);
-            card.setReverseIncorrectCounter(reverseIncorrectCounter + 1);
+            card.setReverseIncorrectCounter(card.getReverseIncorrectCounter() + 1);
             if (card.getReverseIncorrectCounter() >= reverseIncorrectAnswerThreshold) {
                 card.setReverseRevisionDefault();
             }
-            card.setNextReverseRevisionDate(LocalDate.now());
-        } else if (clickedButton == reverseButton2) {
+            card.setNextReverseRevisionDate(today);
+            return false;
+        } else if (pressedButtonIndex == 1) {
             card.setBaseReverseRevisionTime(reverseCoefficient2 * baseReverseRevisionTime);
-            LocalDate nextReverseRevisionDate = LocalDate.now().plusDays((long) Math.max(card.getBaseReverseRevisionTime(), 1));
-            card.setNextReverseRevisionDate(nextReverseRevisionDate);
-            cardRevisionFinished = true;
+            card.setNextReverseRevisionDate(today.plusDays((long) Math.max(card.getBaseReverseRevisionTime(), 1)));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Restores the initial base revision times and counters of the card for both revision processes.
+     *
+     * @param card the card to reset
+     */
+    @Override
+    public void resetCard(CardConstantCoefficient card) {
+        card.setRevisionDefault();
+        card.setReverseRevisionDefault();
+    }
+
+    /**
+     * Applies a recorded answer to the card.
+     *
+     * @param strategyIndex      the index of the revision strategy
+     * @param pressedButtonIndex the index of the pressed button
+     * @param card               the card being revised
+     * @param revisionDate       the date of the revision
+     */
+    @Override
+    public void replayRevision(int strategyIndex, int pressedButtonIndex, CardConstantCoefficient card, LocalDate revisionDate) {
+        if (revisionStrategies.get(strategyIndex) instanceof ReverseTextModeRevisionStrategy) {
+            reviseReverse(pressedButtonIndex, card, revisionDate);
+        } else {
+            reviseRegular(pressedButtonIndex, card, revisionDate);
         }
-        return cardRevisionFinished;
+    }
+
+    /**
+     * Applies one normal revision step to many cards at once using {@link SchedulingKernels}.
+     * <p>
+     * Button indexes follow the order of the normal revision buttons (0 - repeat, 3 - excellent).
+     * The number of days until the next revision is stored in {@link ConstantCoefficientBatchState#getDueInDays()}.
+     * </p>
+     *
+     * @param state                the scheduling state of the cards, updated in place
+     * @param pressedButtonIndexes indexes of the buttons pressed for the consecutive cards
+     */
+    public void regularReviseBatch(ConstantCoefficientBatchState state, int[] pressedButtonIndexes) {
+        double[] coefficients = {coefficient1, coefficient2, coefficient3, coefficient4};
+        SchedulingKernels.constantCoefficient(pressedButtonIndexes, state.getBaseRevisionTimes(), state.getIncorrectCounters(),
+                state.getDueInDays(), state.getSize(), coefficients, incorrectAnswerThreshold);
+    }
+
+    /**
+     * Applies one reverse revision step to many cards at once using {@link SchedulingKernels}.
+     *
+     * @param state                the scheduling state of the cards, updated in place
+     * @param pressedButtonIndexes indexes of the buttons pressed for the consecutive cards (0 - repeat, 1 - excellent)
+     */
+    public void reverseReviseBatch(ConstantCoefficientBatchState state, int[] pressedButtonIndexes) {
+        double[] coefficients = {reverseCoefficient1, reverseCoefficient2};
+        SchedulingKernels.constantCoefficient(pressedButtonIndexes, state.getBaseRevisionTimes(), state.getIncorrectCounters(),
+                state.getDueInDays(), state.getSize(), coefficients, reverseIncorrectAnswerThreshold);
     }
 
     /**
@@ -372,7 +449,7 @@ public class ConstantCoefficientRevisionAlgorithm extends RevisionAlgorithm<Card
      */
     @Override
     public CardConstantCoefficient createNewCard(String front, String back) {
-        return new CardConstantCoefficient(front, back, null);
+        return new CardConstantCoefficient(front, back, null, clock);
     }
 
     /**
@@ -417,5 +494,7 @@ public class ConstantCoefficientRevisionAlgorithm extends RevisionAlgorithm<Card
         revisionStrategies.add(regularStrategy);
         RevisionStrategy<CardConstantCoefficient> reverseStrategy = new ReverseTextModeRevisionStrategy<>(this::getReverseRevisionButtonsPane, this::reverseReviseCard);
         revisionStrategies.add(reverseStrategy);
+        RevisionStrategy<CardConstantCoefficient> typedStrategy = new TypedTextModeRevisionStrategy<>(this::getRegularRevisionButtonsPane, this::regularReviseCard);
+        revisionStrategies.add(typedStrategy);
     }
 }
@@ -0,0 +1,618 @@
+package gutek.entities.algorithms;
+
+import gutek.domain.algorithms.AlgorithmHiperparameter;
+import gutek.domain.algorithms.FsrsMemoryModel;
+import gutek.domain.revisions.RegularTextModeRevisionStrategy;
+import gutek.domain.revisions.ReverseTextModeRevisionStrategy;
+import gutek.domain.revisions.RevisionStrategy;
+import gutek.domain.revisions.TypedTextModeRevisionStrategy;
+import gutek.entities.cards.CardFsrs;
+import gutek.utils.ImageUtil;
+import gutek.utils.validation.Max;
+import gutek.utils.validation.Min;
+import gutek.utils.validation.NotEmpty;
+import gutek.utils.validation.NotNull;
+import jakarta.persistence.*;
+import javafx.scene.control.Button;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * A revision algorithm based on the FSRS stability/difficulty memory model.
+ * <p>
+ * For every card the algorithm tracks the stability of the memory and the difficulty of the card, updates them
+ * after every answer according to {@link FsrsMemoryModel} and schedules the next revision on the day when the
+ * predicted probability of recall drops to the requested retention. The weights of the model can be fitted
+ * to the user's revision history with {@link gutek.domain.algorithms.FsrsWeightFitter}.
+ * Both revision processes share the weights, but keep a separate memory state.
+ * </p>
+ */
+@Entity
+@Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Getter
+@Setter
+public class FsrsRevisionAlgorithm extends RevisionAlgorithm<CardFsrs> {
+
+    /** Initial stability after the first answer graded "again". */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_0")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.01)
+    @Max(value = 100.0)
+    private Double weight0;
+
+    /** Initial stability after the first answer graded "hard". */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_1")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.01)
+    @Max(value = 100.0)
+    private Double weight1;
+
+    /** Initial stability after the first answer graded "good". */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_2")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.01)
+    @Max(value = 100.0)
+    private Double weight2;
+
+    /** Initial stability after the first answer graded "easy". */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_3")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.01)
+    @Max(value = 100.0)
+    private Double weight3;
+
+    /** Initial difficulty after the first answer graded "good". */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_4")
+    @NotNull
+    @NotEmpty
+    @Min(value = 1.0)
+    @Max(value = 10.0)
+    private Double weight4;
+
+    /** Change of the initial difficulty per grade of the first answer. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_5")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.01)
+    @Max(value = 4.0)
+    private Double weight5;
+
+    /** Change of the difficulty per grade of subsequent answers. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_6")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.01)
+    @Max(value = 4.0)
+    private Double weight6;
+
+    /** Strength of the reversion of the difficulty towards its initial value. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_7")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.0)
+    @Max(value = 0.75)
+    private Double weight7;
+
+    /** Scale of the stability increase after a successful recall. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_8")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.0)
+    @Max(value = 4.5)
+    private Double weight8;
+
+    /** Decay of the stability increase with the current stability. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_9")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.0)
+    @Max(value = 0.8)
+    private Double weight9;
+
+    /** Dependence of the stability increase on the retrievability. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_10")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.01)
+    @Max(value = 3.5)
+    private Double weight10;
+
+    /** Scale of the stability after forgetting. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_11")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.01)
+    @Max(value = 5.0)
+    private Double weight11;
+
+    /** Dependence of the stability after forgetting on the difficulty. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_12")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.01)
+    @Max(value = 0.25)
+    private Double weight12;
+
+    /** Dependence of the stability after forgetting on the previous stability. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_13")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.01)
+    @Max(value = 0.9)
+    private Double weight13;
+
+    /** Dependence of the stability after forgetting on the retrievability. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_14")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.01)
+    @Max(value = 4.0)
+    private Double weight14;
+
+    /** Stability increase multiplier for answers graded "hard". */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_15")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.0)
+    @Max(value = 1.0)
+    private Double weight15;
+
+    /** Stability increase multiplier for answers graded "easy". */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.weight_16")
+    @NotNull
+    @NotEmpty
+    @Min(value = 1.0)
+    @Max(value = 6.0)
+    private Double weight16;
+
+    /** Requested probability of recall at the moment of the next revision. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.requested_retention")
+    @NotNull
+    @NotEmpty
+    @Min(value = 0.7)
+    @Max(value = 0.99)
+    private Double requestedRetention;
+
+    /** Highest allowed interval between revisions, in days. */
+    @AlgorithmHiperparameter(descriptionTranslationKey = "revision_algorithm.fsrs.maximum_interval")
+    @NotNull
+    @NotEmpty
+    @Min(value = 1)
+    private Integer maximumInterval;
+
+    /**
+     * UI component for the "again" button in the normal revision process.
+     */
+    @Transient
+    private Button buttonAgain;
+
+    /**
+     * Icon for the "buttonAgain".
+     */
+    @Transient
+    private ImageView buttonAgainIcon;
+
+    /**
+     * UI component for the "hard" button in the normal revision process.
+     */
+    @Transient
+    private Button buttonHard;
+
+    /**
+     * Icon for the "buttonHard".
+     */
+    @Transient
+    private ImageView buttonHardIcon;
+
+    /**
+     * UI component for the "good" button in the normal revision process.
+     */
+    @Transient
+    private Button buttonGood;
+
+    /**
+     * Icon for the "buttonGood".
+     */
+    @Transient
+    private ImageView buttonGoodIcon;
+
+    /**
+     * UI component for the "easy" button in the normal revision process.
+     */
+    @Transient
+    private Button buttonEasy;
+
+    /**
+     * Icon for the "buttonEasy".
+     */
+    @Transient
+    private ImageView buttonEasyIcon;
+
+    /**
+     * UI component for the "again" button in the reverse revision process.
+     */
+    @Transient
+    private Button reverseButtonAgain;
+
+    /**
+     * Icon for the "reverseButtonAgain".
+     */
+    @Transient
+    private ImageView reverseButtonAgainIcon;
+
+    /**
+     * UI component for the "hard" button in the reverse revision process.
+     */
+    @Transient
+    private Button reverseButtonHard;
+
+    /**
+     * Icon for the "reverseButtonHard".
+     */
+    @Transient
+    private ImageView reverseButtonHardIcon;
+
+    /**
+     * UI component for the "good" button in the reverse revision process.
+     */
+    @Transient
+    private Button reverseButtonGood;
+
+    /**
+     * Icon for the "reverseButtonGood".
+     */
+    @Transient
+    private ImageView reverseButtonGoodIcon;
+
+    /**
+     * UI component for the "easy" button in the reverse revision process.
+     */
+    @Transient
+    private Button reverseButtonEasy;
+
+    /**
+     * Icon for the "reverseButtonEasy".
+     */
+    @Transient
+    private ImageView reverseButtonEasyIcon;
+
+    /**
+     * Translation key for the algorithm name.
+     */
+    @Transient
+    protected static final String ALGORITHM_NAME_KEY = "revision_algorithm.fsrs.algorithm_name";
+
+    /**
+     * Default constructor that initializes the default hyperparameters and revision strategies.
+     */
+    public FsrsRevisionAlgorithm() {
+        super();
+    }
+
+    /**
+     * Initializes the default values for the algorithm's hyperparameters.
+     */
+    @Override
+    public void initializeDefaultHiperparameters() {
+        setWeights(FsrsMemoryModel.defaultWeights());
+        this.requestedRetention = 0.9;
+        this.maximumInterval = 36500;
+    }
+
+    /**
+     * Returns the weights of the memory model.
+     *
+     * @return a new array with the weights {@code w[0]}-{@code w[16]}
+     */
+    public double[] getWeights() {
+        return new double[]{
+                weight0, weight1, weight2, weight3, weight4, weight5,
+                weight6, weight7, weight8, weight9, weight10, weight11,
+                weight12, weight13, weight14, weight15, weight16
+        };
+    }
+
+    /**
+     * Sets the weights of the memory model.
+     *
+     * @param weights the weights {@code w[0]}-{@code w[16]}
+     * @throws IllegalArgumentException if the number of weights is incorrect
+     */
+    public void setWeights(double[] weights) {
+        if (weights.length != FsrsMemoryModel.WEIGHTS_COUNT) {
+            throw new IllegalArgumentException("Expected " + FsrsMemoryModel.WEIGHTS_COUNT + " weights");
+        }
+        this.weight0 = weights[0];
+        this.weight1 = weights[1];
+        this.weight2 = weights[2];
+        this.weight3 = weights[3];
+        this.weight4 = weights[4];
+        this.weight5 = weights[5];
+        this.weight6 = weights[6];
+        this.weight7 = weights[7];
+        this.weight8 = weights[8];
+        this.weight9 = weights[9];
+        this.weight10 = weights[10];
+        this.weight11 = weights[11];
+        this.weight12 = weights[12];
+        this.weight13 = weights[13];
+        this.weight14 = weights[14];
+        this.weight15 = weights[15];
+        this.weight16 = weights[16];
+    }
+
+    /**
+     * Initializes the graphical user interface (GUI) for the revision strategy.
+     *
+     * @param width       The width of the available area for the GUI components.
+     * @param height      The height of the available area for the GUI components.
+     * @param scaleFactor A scaling factor used to adjust the size of the components dynamically.
+     */
+    @Override
+    public void initializeGUI(double width, double height, double scaleFactor) {
+        this.buttonAgain = new Button();
+        this.buttonHard = new Button();
+        this.buttonGood = new Button();
+        this.buttonEasy = new Button();
+
+        this.reverseButtonAgain = new Button();
+        this.reverseButtonHard = new Button();
+        this.reverseButtonGood = new Button();
+        this.reverseButtonEasy = new Button();
+
+        initializeIcons();
+        updateSize(width, height, scaleFactor);
+        updateTranslation();
+    }
+
+    /**
+     * Updates the button text based on the current translations.
+     */
+    @Override
+    public void updateTranslation() {
+        buttonAgain.setText(translationService.getTranslation("revision_algorithm.fsrs.normal_button_1"));
+        buttonHard.setText(translationService.getTranslation("revision_algorithm.fsrs.normal_button_2"));
+        buttonGood.setText(translationService.getTranslation("revision_algorithm.fsrs.normal_button_3"));
+        buttonEasy.setText(translationService.getTranslation("revision_algorithm.fsrs.normal_button_4"));
+        reverseButtonAgain.setText(translationService.getTranslation("revision_algorithm.fsrs.reverse_button_1"));
+        reverseButtonHard.setText(translationService.getTranslation("revision_algorithm.fsrs.reverse_button_2"));
+        reverseButtonGood.setText(translationService.getTranslation("revision_algorithm.fsrs.reverse_button_3"));
+        reverseButtonEasy.setText(translationService.getTranslation("revision_algorithm.fsrs.reverse_button_4"));
+    }
+
+    /**
+     * Updates the button size and style.
+     */
+    @Override
+    public void updateSize(double width, double height, double scaleFactor) {
+        double buttonFontSize = 12 * scaleFactor;
+        String buttonsStyle = "-fx-font-size: " + buttonFontSize + "px;";
+        String buttonRadiusStyle = "-fx-background-radius: " + (20 * scaleFactor) + "; -fx-border-radius: " + (20 * scaleFactor) + ";";
+
+        for (Button button : Arrays.asList(buttonAgain, buttonHard, buttonGood, buttonEasy,
+                reverseButtonAgain, reverseButtonHard, reverseButtonGood, reverseButtonEasy)) {
+            button.setStyle(buttonsStyle + buttonRadiusStyle);
+            button.setPrefSize(width / 4, height);
+        }
+
+        updateIcons(scaleFactor);
+    }
+
+    /**
+     * Returns a panel containing the normal revision buttons.
+     *
+     * @param card the card being revised
+     * @return a panel containing the revision buttons
+     */
+    public Pane getRegularRevisionButtonsPane(CardFsrs card) {
+        HBox buttonBox = new HBox(4);
+        buttonBox.getChildren().addAll(buttonAgain, buttonHard, buttonGood, buttonEasy);
+        return buttonBox;
+    }
+
+    /**
+     * Handles the revision logic when a button is clicked in the normal revision process.
+     *
+     * @param clickedButton the button that was clicked
+     * @param card          the card being revised
+     * @return true if the revision process for the card is finished, false if the card has to be repeated
+     */
+    public boolean regularReviseCard(Button clickedButton, CardFsrs card) {
+        int grade = Arrays.asList(buttonAgain, buttonHard, buttonGood, buttonEasy).indexOf(clickedButton) + 1;
+        return grade > 0 && reviseRegular(grade, card, LocalDate.now(clock));
+    }
+
+    /**
+     * Applies the given grade to the regular memory state of the card.
+     *
+     * @param grade the grade of the answer (1 - again, 4 - easy)
+     * @param card  the card being revised
+     * @param today the date of the revision
+     * @return true if the revision process for the card is finished, false if the card has to be repeated
+     */
+    private boolean reviseRegular(int grade, CardFsrs card, LocalDate today) {
+        double[] weights = getWeights();
+        if (card.getStability() <= 0 || card.getLastRevisionDate() == null) {
+            card.setStability(FsrsMemoryModel.initialStability(weights, grade));
+            card.setDifficulty(FsrsMemoryModel.initialDifficulty(weights, grade));
+        } else {
+            long elapsedDays = Math.max(ChronoUnit.DAYS.between(card.getLastRevisionDate(), today), 0);
+            double retrievability = FsrsMemoryModel.retrievability(elapsedDays, card.getStability());
+            double difficulty = card.getDifficulty();
+            card.setDifficulty(FsrsMemoryModel.nextDifficulty(weights, difficulty, grade));
+            card.setStability(FsrsMemoryModel.nextStability(weights, difficulty, card.getStability(), retrievability, grade));
+        }
+        card.setLastRevisionDate(today);
+
+        if (grade == 1) {
+            card.setNextRegularRevisionDate(today);
+            return false;
+        }
+        card.setNextRegularRevisionDate(today.plusDays(FsrsMemoryModel.nextInterval(card.getStability(), requestedRetention, maximumInterval)));
+        return true;
+    }
+
+    /**
+     * Returns a panel containing the reverse revision buttons.
+     *
+     * @param card the card being revised
+     * @return a panel containing the reverse revision buttons
+     */
+    public Pane getReverseRevisionButtonsPane(CardFsrs card) {
+        HBox buttonBox = new HBox(4);
+        buttonBox.getChildren().addAll(reverseButtonAgain, reverseButtonHard, reverseButtonGood, reverseButtonEasy);
+        return buttonBox;
+    }
+
+    /**
+     * Handles the revision logic when a button is clicked in the reverse revision process.
+     *
+     * @param clickedButton the button that was clicked
+     * @param card          the card being revised
+     * @return true if the revision process for the card is finished, false if the card has to be repeated
+     */
+    public boolean reverseReviseCard(Button clickedButton, CardFsrs card) {
+        int grade = Arrays.asList(reverseButtonAgain, reverseButtonHard, reverseButtonGood, reverseButtonEasy).indexOf(clickedButton) + 1;
+        return grade > 0 && reviseReverse(grade, card, LocalDate.now(clock));
+    }
+
+    /**
+     * Applies the given grade to the reverse memory state of the card.
+     *
+     * @param grade the grade of the answer (1 - again, 4 - easy)
+     * @param card  the card being revised
+     * @param today the date of the revision
+     * @return true if the revision process for the card is finished, false if the card has to be repeated
+     */
+    private boolean reviseReverse(int grade, CardFsrs card, LocalDate today) {
+        double[] weights = getWeights();
+        if (card.getReverseStability() <= 0 || card.getLastReverseRevisionDate() == null) {
+            card.setReverseStability(FsrsMemoryModel.initialStability(weights, grade));
+            card.setReverseDifficulty(FsrsMemoryModel.initialDifficulty(weights, grade));
+        } else {
+            long elapsedDays = Math.max(ChronoUnit.DAYS.between(card.getLastReverseRevisionDate(), today), 0);
+            double retrievability = FsrsMemoryModel.retrievability(elapsedDays, card.getReverseStability());
+            double difficulty = card.getReverseDifficulty();
+            card.setReverseDifficulty(FsrsMemoryModel.nextDifficulty(weights, difficulty, grade));
+            card.setReverseStability(FsrsMemoryModel.nextStability(weights, difficulty, card.getReverseStability(), retrievability, grade));
+        }
+        card.setLastReverseRevisionDate(today);
+
+        if (grade == 1) {
+            card.setNextReverseRevisionDate(today);
+            return false;
+        }
+        card.setNextReverseRevisionDate(today.plusDays(FsrsMemoryModel.nextInterval(card.getReverseStability(), requestedRetention, maximumInterval)));
+        return true;
+    }
+
+    /**
+     * Restores the initial memory state of the card for both revision processes.
+     *
+     * @param card the card to reset
+     */
+    @Override
+    public void resetCard(CardFsrs card) {
+        card.setRevisionDefault();
+        card.setReverseRevisionDefault();
+    }
+
+    /**
+     * Applies a recorded answer to the card. Button indexes correspond to grades 1-4.
+     *
+     * @param strategyIndex      the index of the revision strategy
+     * @param pressedButtonIndex the index of the pressed button
+     * @param card               the card being revised
+     * @param revisionDate       the date of the revision
+     */
+    @Override
+    public void replayRevision(int strategyIndex, int pressedButtonIndex, CardFsrs card, LocalDate revisionDate) {
+        int grade = Math.clamp(pressedButtonIndex + 1, 1, 4);
+        if (revisionStrategies.get(strategyIndex) instanceof ReverseTextModeRevisionStrategy) {
+            reviseReverse(grade, card, revisionDate);
+        } else {
+            reviseRegular(grade, card, revisionDate);
+        }
+    }
+
+    /**
+     * Returns the name of the algorithm based on the current translation.
+     *
+     * @return the translated algorithm name
+     */
+    @Override
+    public String getAlgorithmName() {
+        return translationService.getTranslation(ALGORITHM_NAME_KEY);
+    }
+
+    /**
+     * Creates a new card with the given front and back values.
+     *
+     * @param front the front text of the card
+     * @param back  the back text of the card
+     * @return a new instance of {@link CardFsrs}
+     */
+    @Override
+    public CardFsrs createNewCard(String front, String back) {
+        return new CardFsrs(front, back, null, clock);
+    }
+
+    /**
+     * Initializes the icons used in the controller's UI components.
+     */
+    private void initializeIcons() {
+        buttonAgainIcon = ImageUtil.createImageView("/images/icons/repeat.png");
+        buttonAgain.setGraphic(buttonAgainIcon);
+        buttonHardIcon = ImageUtil.createImageView("/images/icons/weak.png");
+        buttonHard.setGraphic(buttonHardIcon);
+        buttonGoodIcon = ImageUtil.createImageView("/images/icons/good.png");
+        buttonGood.setGraphic(buttonGoodIcon);
+        buttonEasyIcon = ImageUtil.createImageView("/images/icons/excellent.png");
+        buttonEasy.setGraphic(buttonEasyIcon);
+        reverseButtonAgainIcon = ImageUtil.createImageView("/images/icons/repeat.png");
+        reverseButtonAgain.setGraphic(reverseButtonAgainIcon);
+        reverseButtonHardIcon = ImageUtil.createImageView("/images/icons/weak.png");
+        reverseButtonHard.setGraphic(reverseButtonHardIcon);
+        reverseButtonGoodIcon = ImageUtil.createImageView("/images/icons/good.png");
+        reverseButtonGood.setGraphic(reverseButtonGoodIcon);
+        reverseButtonEasyIcon = ImageUtil.createImageView("/images/icons/excellent.png");
+        reverseButtonEasy.setGraphic(reverseButtonEasyIcon);
+    }
+
+    /**
+     * Updates the size of each icon according to the given scale factor.
+     *
+     * @param scaleFactor the scale factor used to adjust the size of each icon.
+     */
+    private void updateIcons(double scaleFactor) {
+        for (ImageView icon : Arrays.asList(buttonAgainIcon, buttonHardIcon, buttonGoodIcon, buttonEasyIcon,
+                reverseButtonAgainIcon, reverseButtonHardIcon, reverseButtonGoodIcon, reverseButtonEasyIcon)) {
+            ImageUtil.setImageViewSize(icon, 20 * scaleFactor, 20 * scaleFactor);
+        }
+    }
+
+    /**
+     * Initializes the default revision strategies for the algorithm.
+     */
+    @Override
+    public void initializeDefaultRevisionStrategies() {
+        revisionStrategies.clear();
+        RevisionStrategy<CardFsrs> regularStrategy = new RegularTextModeRevisionStrategy<>(this::getRegularRevisionButtonsPane, this::regularReviseCard);
+        revisionStrategies.add(regularStrategy);
+        RevisionStrategy<CardFsrs> reverseStrategy = new ReverseTextModeRevisionStrategy<>(this::getReverseRevisionButtonsPane, this::reverseReviseCard);
+        revisionStrategies.add(reverseStrategy);
+        RevisionStrategy<CardFsrs> typedStrategy = new TypedTextModeRevisionStrategy<>(this::getRegularRevisionButtonsPane, this::regularReviseCard);
+        revisionStrategies.add(typedStrategy);
+    }
+}
@@ -1,5 +1,6 @@
 package gutek.entities.algorithms;
 
+import gutek.domain.algorithms.AlgorithmHiperparameter;
 import gutek.domain.revisions.RevisionStrategy;
 import gutek.entities.cards.CardBase;
 import gutek.services.TranslationService;
@@ -7,6 +8,11 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.time.Clock;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,6 +32,9 @@ import java.util.List;
 @Setter
 public abstract class RevisionAlgorithm<T extends CardBase>{
 
+    /** Number of buttons failing a revision in the algorithms which do not override {@link #getFailedButtonsCount()}. */
+    public static final int DEFAULT_FAILED_BUTTONS_COUNT = 1;
+
     /** Unique identifier for the revision algorithm. */
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -35,6 +44,13 @@ public abstract class RevisionAlgorithm<T extends CardBase>{
     @Transient
     protected TranslationService translationService;
 
+    /**
+     * A transient field with the clock used for dating revisions and new cards.
+     * Defaults to the system clock; services and controllers replace it with the application clock.
+     */
+    @Transient
+    protected Clock clock = Clock.systemDefaultZone();
+
     /** List of available revision strategies for this algorithm. */
     @Transient
     protected final List<RevisionStrategy<T>> revisionStrategies = new ArrayList<>();
@@ -104,4 +120,102 @@ public abstract class RevisionAlgorithm<T extends CardBase>{
      * Initializes the default revision strategies for the algorithm.
      */
     public abstract void initializeDefaultRevisionStrategies();
+
+    /**
+     * Restores the initial scheduling state of the card for all revision strategies,
+     * as if the card had never been revised.
+     *
+     * @param card the card to reset
+     */
+    public abstract void resetCard(T card);
+
+    /**
+     * Applies a recorded answer to the card without any user interface interaction.
+     * <p>
+     * Used to replay the revision history of a card, e.g. after the hyperparameters of the algorithm have changed.
+     * The scheduling state of the card is updated exactly as if the button with the given index had been pressed
+     * on the given date.
+     * </p>
+     *
+     * @param strategyIndex      the index of the revision strategy in {@link #getAvailableRevisionStrategies()}
+     * @param pressedButtonIndex the index of the pressed button in the strategy's buttons pane
+     * @param card               the card being revised
+     * @param revisionDate       the date of the revision
+     */
+    public abstract void replayRevision(int strategyIndex, int pressedButtonIndex, T card, LocalDate revisionDate);
+
+    /**
+     * Returns the index of the revision strategy with the given simple class name.
+     *
+     * @param strategyClassName the simple class name of the strategy, as stored in the revision history
+     * @return the index of the strategy, or {@code -1} if the algorithm has no such strategy
+     */
+    public int getRevisionStrategyIndex(String strategyClassName) {
+        for (int i = 0; i < revisionStrategies.size(); i++) {
+            if (revisionStrategies.get(i).getClass().getSimpleName().equals(strategyClassName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of buttons failing a revision. The failing buttons come first in the buttons pane
+     * of every revision strategy; by default only the first button (repeat / again) fails a revision.
+     *
+     * @return the number of buttons failing a revision
+     */
+    public int getFailedButtonsCount() {
+        return DEFAULT_FAILED_BUTTONS_COUNT;
+    }
+
+    /**
+     * Checks whether a revision in which the button with the given index was pressed is failed,
+     * i.e. whether the card was not recalled.
+     *
+     * @param pressedButtonIndex the index of the pressed button in the strategy's buttons pane
+     * @return {@code true} if the revision is failed
+     */
+    public boolean isFailedRevision(int pressedButtonIndex) {
+        return pressedButtonIndex < getFailedButtonsCount();
+    }
+
+    /**
+     * Checks whether a revision in which the button with the given index was pressed finishes the revision
+     * of the card, as reported by the {@code reviseCard} methods; an unfinished card is repeated in the same
+     * session and its statistics are counted only once it is finished. By default, every failed revision
+     * has to be repeated.
+     *
+     * @param strategyIndex      the index of the revision strategy
+     * @param pressedButtonIndex the index of the pressed button in the strategy's buttons pane
+     * @return {@code true} if the revision of the card is finished
+     */
+    public boolean finishesRevision(int strategyIndex, int pressedButtonIndex) {
+        return !isFailedRevision(pressedButtonIndex);
+    }
+
+    /**
+     * Creates a new, unsaved algorithm of the same class with the same values of the hyperparameters,
+     * the fields annotated with {@link AlgorithmHiperparameter}, e.g. for a cloned deck.
+     *
+     * @return the copy of the algorithm
+     * @throws IllegalStateException if the algorithm cannot be instantiated or its hyperparameters cannot be copied
+     */
+    @SuppressWarnings("unchecked")
+    public RevisionAlgorithm<T> copy() {
+        try {
+            RevisionAlgorithm<T> copy = getClass().getDeclaredConstructor().newInstance();
+            for (Field field : getClass().getDeclaredFields()) {
+                if (field.isAnnotationPresent(AlgorithmHiperparameter.class)) {
+                    PropertyDescriptor propertyDescriptor = new PropertyDescriptor(field.getName(), getClass());
+                    propertyDescriptor.getWriteMethod().invoke(copy, propertyDescriptor.getReadMethod().invoke(this));
+                }
+            }
+            copy.setClock(clock);
+            copy.setTranslationService(translationService);
+            return copy;
+        } catch (ReflectiveOperationException | IntrospectionException e) {
+            throw new IllegalStateException("Cannot copy the algorithm " + getClass().getSimpleName(), e);
+        }
+    }
 }
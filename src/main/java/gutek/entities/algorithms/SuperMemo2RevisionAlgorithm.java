@@ -3,7 +3,10 @@ package gutek.entities.algorithms;
 import gutek.domain.revisions.RegularTextModeRevisionStrategy;
 import gutek.domain.revisions.ReverseTextModeRevisionStrategy;
 import gutek.domain.algorithms.AlgorithmHiperparameter;
+import gutek.domain.algorithms.SchedulingKernels;
+import gutek.domain.algorithms.SuperMemo2BatchState;
 import gutek.domain.revisions.RevisionStrategy;
+import gutek.domain.revisions.TypedTextModeRevisionStrategy;
 import gutek.entities.cards.CardSuperMemo2;
 import gutek.utils.ImageUtil;
 import gutek.utils.validation.Min;
@@ -295,6 +298,18 @@ public class SuperMemo2RevisionAlgorithm extends RevisionAlgorithm<CardSuperMemo
             grade = 5;
         }
 
+        reviseRegular(grade, card, LocalDate.now(clock));
+        return true;
+    }
+
+    /**
+     * Applies the given grade to the normal revision state of the card.
+     *
+     * @param grade the grade given to the card (1-5)
+     * @param card  the card being revised
+     * @param today the date of the revision
+     */
+    private void reviseRegular(int grade, CardSuperMemo2 card, LocalDate today) {
         if (grade >= 3) {
             card.setRepetition(card.getRepetition() + 1);
 
@@ -310,7 +325,7 @@ public class SuperMemo2RevisionAlgorithm extends RevisionAlgorithm<CardSuperMemo
             double newEasinessFactor = card.getEasinessFactor() + (0.1 - (5 - grade) * (0.08 + (5 - grade) * 0.02));
             card.setEasinessFactor(newEasinessFactor);
 
-            card.setNextRegularRevisionDate(LocalDate.now().plusDays(card.getRegularInterval()));
+            card.setNextRegularRevisionDate(today.plusDays(card.getRegularInterval()));
         } else {
             card.setIncorrectCounter(card.getIncorrectCounter() + 1);
 
@@ -318,9 +333,8 @@ public class SuperMemo2RevisionAlgorithm extends RevisionAlgorithm<CardSuperMemo
                 card.setRevisionDefault(initialEasinessFactor);
             }
 
-            card.setNextRegularRevisionDate(LocalDate.now().plusDays(1));
+            card.setNextRegularRevisionDate(today.plusDays(1));
         }
-        return true;
     }
 
     /**
@@ -357,6 +371,18 @@ public class SuperMemo2RevisionAlgorithm extends RevisionAlgorithm<CardSuperMemo
             grade = 5;
         }
 
+        reviseReverse(grade, card, LocalDate.now(clock));
+        return true;
+    }
+
+    /**
+     * Applies the given grade to the reverse revision state of the card.
+     *
+     * @param grade the grade given to the card (1-5)
+     * @param card  the card being revised
+     * @param today the date of the revision
+     */
+    private void reviseReverse(int grade, CardSuperMemo2 card, LocalDate today) {
         if (grade >= 3) {
             card.setReverseRepetition(card.getReverseRepetition() + 1);
 
@@ -372,7 +398,7 @@ public class SuperMemo2RevisionAlgorithm extends RevisionAlgorithm<CardSuperMemo
             double newEasinessFactor = card.getReverseEasinessFactor() + (0.1 - (5 - grade) * (0.08 + (5 - grade) * 0.02));
             card.setReverseEasinessFactor(newEasinessFactor);
 
-            card.setNextReverseRevisionDate(LocalDate.now().plusDays(card.getReverseInterval()));
+            card.setNextReverseRevisionDate(today.plusDays(card.getReverseInterval()));
         } else {
             card.setReverseIncorrectCounter(card.getReverseIncorrectCounter() + 1);
 
@@ -380,11 +406,86 @@ public class SuperMemo2RevisionAlgorithm extends RevisionAlgorithm<CardSuperMemo
                 card.setReverseRevisionDefault(reverseInitialEasinessFactor);
             }
 
-            card.setNextReverseRevisionDate(LocalDate.now().plusDays(1));
+            card.setNextReverseRevisionDate(today.plusDays(1));
         }
+    }
+
+    /**
+     * Restores the initial easiness factors and counters of the card for both revision processes.
+     *
+     * @param card the card to reset
+     */
+    @Override
+    public void resetCard(CardSuperMemo2 card) {
+        card.setRevisionDefault(initialEasinessFactor);
+        card.setReverseRevisionDefault(reverseInitialEasinessFactor);
+    }
+
+    /**
+     * Applies a recorded answer to the card. Button indexes correspond to grades 1-5.
+     *
+     * @param strategyIndex      the index of the revision strategy
+     * @param pressedButtonIndex the index of the pressed grade button
+     * @param card               the card being revised
+     * @param revisionDate       the date of the revision
+     */
+    @Override
+    public void replayRevision(int strategyIndex, int pressedButtonIndex, CardSuperMemo2 card, LocalDate revisionDate) {
+        if (revisionStrategies.get(strategyIndex) instanceof ReverseTextModeRevisionStrategy) {
+            reviseReverse(pressedButtonIndex + 1, card, revisionDate);
+        } else {
+            reviseRegular(pressedButtonIndex + 1, card, revisionDate);
+        }
+    }
+
+    /**
+     * Returns the number of buttons failing a revision: the buttons of grades 1 and 2, as a grade below 3
+     * is counted as an incorrect answer and schedules the card for the next day.
+     *
+     * @return the number of buttons failing a revision
+     */
+    @Override
+    public int getFailedButtonsCount() {
+        return 2;
+    }
+
+    /**
+     * Checks whether a revision finishes the revision of the card. A card graded below 3 is scheduled
+     * for the next day instead of being repeated, so every revision is finished.
+     *
+     * @param strategyIndex      the index of the revision strategy
+     * @param pressedButtonIndex the index of the pressed button
+     * @return always {@code true}
+     */
+    @Override
+    public boolean finishesRevision(int strategyIndex, int pressedButtonIndex) {
         return true;
     }
 
+    /**
+     * Applies one normal revision step to many cards at once using {@link SchedulingKernels}.
+     * The number of days until the next revision is stored in {@link SuperMemo2BatchState#getDueInDays()}.
+     *
+     * @param state  the scheduling state of the cards, updated in place
+     * @param grades grades (1-5) given to the consecutive cards
+     */
+    public void regularReviseBatch(SuperMemo2BatchState state, int[] grades) {
+        SchedulingKernels.superMemo2(grades, state.getRepetitions(), state.getIntervals(), state.getEasinessFactors(),
+                state.getIncorrectCounters(), state.getDueInDays(), state.getSize(), initialEasinessFactor, incorrectAnswerThreshold);
+    }
+
+    /**
+     * Applies one reverse revision step to many cards at once using {@link SchedulingKernels}.
+     * The number of days until the next revision is stored in {@link SuperMemo2BatchState#getDueInDays()}.
+     *
+     * @param state  the scheduling state of the cards, updated in place
+     * @param grades grades (1-5) given to the consecutive cards
+     */
+    public void reverseReviseBatch(SuperMemo2BatchState state, int[] grades) {
+        SchedulingKernels.superMemo2(grades, state.getRepetitions(), state.getIntervals(), state.getEasinessFactors(),
+                state.getIncorrectCounters(), state.getDueInDays(), state.getSize(), reverseInitialEasinessFactor, reverseIncorrectAnswerThreshold);
+    }
+
     /**
      * Returns the name of the algorithm based on the current translation.
      *
@@ -404,7 +505,7 @@ public class SuperMemo2RevisionAlgorithm extends RevisionAlgorithm<CardSuperMemo
      */
     @Override
     public CardSuperMemo2 createNewCard(String front, String back) {
-        return new CardSuperMemo2(front, back, initialEasinessFactor, reverseInitialEasinessFactor, null);
+        return new CardSuperMemo2(front, back, initialEasinessFactor, reverseInitialEasinessFactor, null, clock);
     }
 
     /**
@@ -461,5 +562,7 @@ public class SuperMemo2RevisionAlgorithm extends RevisionAlgorithm<CardSuperMemo
         revisionStrategies.add(regularStrategy);
         RevisionStrategy<CardSuperMemo2> reverseStrategy = new ReverseTextModeRevisionStrategy<>(this::getReverseRevisionButtonsPane, this::reverseReviseCard);
         revisionStrategies.add(reverseStrategy);
+        RevisionStrategy<CardSuperMemo2> typedStrategy = new TypedTextModeRevisionStrategy<>(this::getRegularRevisionButtonsPane, this::regularReviseCard);
+        revisionStrategies.add(typedStrategy);
     }
 }
\ No newline at end of file
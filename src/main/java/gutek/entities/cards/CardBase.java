@@ -1,8 +1,10 @@
 package gutek.entities.cards;
 
+import gutek.domain.search.CardSearchText;
 import gutek.entities.decks.DeckBase;
 import jakarta.persistence.*;
 import lombok.*;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -11,6 +13,12 @@ import java.time.LocalDateTime;
  * This class defines common fields and methods for different types of cards,
  * including fields for storing the front and back of the card, revision dates,
  * and the deck to which the card belongs.
+ * <p>
+ * The front and the back are also stored normalized by {@link CardSearchText#normalize(String)}, in indexed
+ * columns computed whenever a text is set and before the card is written, so the case- and accent-insensitive
+ * lookups of the cards compare the stored values instead of folding every row. As every card type is stored in its
+ * own table, the indexes of the normalized columns are declared by the concrete card entities.
+ * </p>
  */
 @Entity
 @Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
@@ -37,6 +45,14 @@ public class CardBase{
     /** The back content of the card (e.g., answer or definition). */
     protected String back;
 
+    /** The front content normalized for the case- and accent-insensitive lookups. */
+    @Setter(AccessLevel.NONE)
+    protected String frontNormalized;
+
+    /** The back content normalized for the case- and accent-insensitive lookups. */
+    @Setter(AccessLevel.NONE)
+    protected String backNormalized;
+
     /** The next scheduled date for a regular revision of the card. */
     protected LocalDate nextRegularRevisionDate;
 
@@ -53,22 +69,69 @@ public class CardBase{
     @ManyToOne
     protected DeckBase deck;
 
+    /**
+     * The identifier of the card this card is being copied from by a deck clone or merge, used to copy
+     * the rows keyed by the card. It is set only inside the transaction of the copy.
+     */
+    protected Long copySourceId;
+
+    /**
+     * Constructs a new card with the given front, back, and associated deck,
+     * using the system clock for the creation time.
+     * @param front the front content of the card
+     * @param back the back content of the card
+     * @param deck the deck to which the card belongs
+     */
+    public CardBase(String front, String back, DeckBase deck) {
+        this(front, back, deck, Clock.systemDefaultZone());
+    }
+
     /**
      * Constructs a new card with the given front, back, and associated deck.
-     * This constructor initializes the card with the current date as the next
+     * This constructor initializes the card with the current date of the given clock as the next
      * regular and reverse revision dates, and sets the creation time to the
-     * current time. The card is also marked as new.
+     * current time of the clock. The card is also marked as new.
      * @param front the front content of the card
      * @param back the back content of the card
      * @param deck the deck to which the card belongs
+     * @param clock the clock providing the current date and time
      */
-    public CardBase(String front, String back, DeckBase deck) {
-        this.front = front;
-        this.back = back;
-        this.nextRegularRevisionDate = LocalDate.now();
-        this.nextReverseRevisionDate = LocalDate.now();
-        this.creationTime = LocalDateTime.now();
+    public CardBase(String front, String back, DeckBase deck, Clock clock) {
+        setFront(front);
+        setBack(back);
+        this.creationTime = LocalDateTime.now(clock);
+        this.nextRegularRevisionDate = creationTime.toLocalDate();
+        this.nextReverseRevisionDate = creationTime.toLocalDate();
         this.deck = deck;
         this.isNewCard = true;
     }
+
+    /**
+     * Sets the front content of the card and its normalized form.
+     * @param front the front content of the card
+     */
+    public void setFront(String front) {
+        this.front = front;
+        this.frontNormalized = CardSearchText.normalize(front);
+    }
+
+    /**
+     * Sets the back content of the card and its normalized form.
+     * @param back the back content of the card
+     */
+    public void setBack(String back) {
+        this.back = back;
+        this.backNormalized = CardSearchText.normalize(back);
+    }
+
+    /**
+     * Recomputes the normalized forms of the front and back content before the card is written,
+     * including the cards stored before the normalized columns were added.
+     */
+    @PrePersist
+    @PreUpdate
+    public void normalizeTexts() {
+        this.frontNormalized = CardSearchText.normalize(front);
+        this.backNormalized = CardSearchText.normalize(back);
+    }
 }
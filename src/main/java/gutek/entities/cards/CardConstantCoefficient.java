@@ -4,6 +4,8 @@ import gutek.entities.decks.DeckBase;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Clock;
+
 /**
  * Represents a card that uses constant coefficients for calculating revision times.
  * This class extends {@link CardBase} and adds functionality for tracking revision
@@ -11,10 +13,19 @@ import lombok.*;
  */
 @Entity
 @Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Table(
+        indexes = {
+                @Index(name = "idx_card_constant_coefficient_front_normalized_deck", columnList = "frontNormalized, deck_idDeck"),
+                @Index(name = "idx_card_constant_coefficient_back_normalized_deck", columnList = "backNormalized, deck_idDeck")
+        }
+)
 @NoArgsConstructor
 @Getter
 public class CardConstantCoefficient extends CardBase {
 
+    /** The smallest base revision time, applied whenever a base revision time is set. */
+    public static final double MIN_BASE_REVISION_TIME = 0.01;
+
     /** The base time used for calculating the next regular revision. */
     protected double baseRevisionTime;
 
@@ -37,7 +48,20 @@ public class CardConstantCoefficient extends CardBase {
      * @param deck the deck to which the card belongs
      */
     public CardConstantCoefficient(String front, String back, DeckBase deck) {
-        super(front, back, deck);
+        this(front, back, deck, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a new card with the given front and back content, and associated deck,
+     * taking the creation time from the given clock.
+     *
+     * @param front the front content of the card
+     * @param back the back content of the card
+     * @param deck the deck to which the card belongs
+     * @param clock the clock providing the current date and time
+     */
+    public CardConstantCoefficient(String front, String back, DeckBase deck, Clock clock) {
+        super(front, back, deck, clock);
         setRevisionDefault();
         setReverseRevisionDefault();
     }
@@ -84,7 +108,7 @@ public class CardConstantCoefficient extends CardBase {
      * @param baseRevisionTime the base time for calculating the next regular revision
      */
     public void setBaseRevisionTime(double baseRevisionTime) {
-        this.baseRevisionTime = Math.max(baseRevisionTime, 0.01);
+        this.baseRevisionTime = Math.max(baseRevisionTime, MIN_BASE_REVISION_TIME);
     }
 
     /**
@@ -93,6 +117,6 @@ public class CardConstantCoefficient extends CardBase {
      * @param baseReverseRevisionTime the base time for calculating the next reverse revision
      */
     public void setBaseReverseRevisionTime(double baseReverseRevisionTime) {
-        this.baseReverseRevisionTime = Math.max(baseReverseRevisionTime, 0.01);
+        this.baseReverseRevisionTime = Math.max(baseReverseRevisionTime, MIN_BASE_REVISION_TIME);
     }
 }
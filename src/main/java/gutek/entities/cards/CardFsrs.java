@@ -0,0 +1,97 @@
+package gutek.entities.cards;
+
+import gutek.entities.decks.DeckBase;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Inheritance;
+import jakarta.persistence.InheritanceType;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Represents a card that uses the FSRS memory model for spaced repetition.
+ * This class extends {@link CardBase} and adds the stability, difficulty and date of the last revision
+ * for both regular and reverse revision processes. A stability equal to 0 means that the card
+ * has not been revised yet in the given process.
+ */
+@Entity
+@Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Table(
+        indexes = {
+                @Index(name = "idx_card_fsrs_front_normalized_deck", columnList = "frontNormalized, deck_idDeck"),
+                @Index(name = "idx_card_fsrs_back_normalized_deck", columnList = "backNormalized, deck_idDeck")
+        }
+)
+@NoArgsConstructor
+@Getter
+@Setter
+public class CardFsrs extends CardBase {
+
+    /** Stability of the memory (in days) in the regular revision process. */
+    protected double stability;
+
+    /** Stability of the memory (in days) in the reverse revision process. */
+    protected double reverseStability;
+
+    /** Difficulty of the card (1-10) in the regular revision process. */
+    protected double difficulty;
+
+    /** Difficulty of the card (1-10) in the reverse revision process. */
+    protected double reverseDifficulty;
+
+    /** Date of the last regular revision. */
+    protected LocalDate lastRevisionDate;
+
+    /** Date of the last reverse revision. */
+    protected LocalDate lastReverseRevisionDate;
+
+    /**
+     * Constructs a new card with the given front, back, and associated deck.
+     * The memory state of both revision processes is set to the default values.
+     *
+     * @param front the front content of the card
+     * @param back the back content of the card
+     * @param deck the deck to which the card belongs
+     */
+    public CardFsrs(String front, String back, DeckBase deck) {
+        this(front, back, deck, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a new card with the given front, back, and associated deck,
+     * taking the creation time from the given clock.
+     *
+     * @param front the front content of the card
+     * @param back the back content of the card
+     * @param deck the deck to which the card belongs
+     * @param clock the clock providing the current date and time
+     */
+    public CardFsrs(String front, String back, DeckBase deck, Clock clock) {
+        super(front, back, deck, clock);
+        setRevisionDefault();
+        setReverseRevisionDefault();
+    }
+
+    /**
+     * Resets the memory state of the regular revision process, as if the card had never been revised.
+     */
+    public void setRevisionDefault() {
+        this.stability = 0;
+        this.difficulty = 0;
+        this.lastRevisionDate = null;
+    }
+
+    /**
+     * Resets the memory state of the reverse revision process, as if the card had never been revised.
+     */
+    public void setReverseRevisionDefault() {
+        this.reverseStability = 0;
+        this.reverseDifficulty = 0;
+        this.lastReverseRevisionDate = null;
+    }
+}
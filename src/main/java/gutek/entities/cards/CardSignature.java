@@ -0,0 +1,34 @@
+package gutek.entities.cards;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MinHash signature of the texts of a card, computed by {@link gutek.domain.duplicates.MinHasher}.
+ * <p>
+ * The signatures are computed when the duplicates of a user are searched for, and stored so the next search
+ * only computes the signatures of the cards added or edited in the meantime, recognized by the hash of their texts.
+ * </p>
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardSignature {
+
+    /** Identifier of the card. */
+    @Id
+    private Long cardId;
+
+    /** Hash of the texts the signature was computed from. */
+    @Column(nullable = false)
+    private Integer textHash;
+
+    /** Values of the signature, four bytes each; empty if the card has no letters or digits. */
+    @Column(nullable = false, length = 256)
+    private byte[] signature;
+}
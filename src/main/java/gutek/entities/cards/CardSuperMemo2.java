@@ -2,11 +2,15 @@ package gutek.entities.cards;
 
 import gutek.entities.decks.DeckBase;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.time.Clock;
+
 /**
  * Represents a card that uses the SuperMemo2 algorithm for spaced repetition.
  * This class extends {@link CardBase} and adds fields for managing repetition count,
@@ -14,6 +18,12 @@ import lombok.NoArgsConstructor;
  */
 @Entity
 @Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Table(
+        indexes = {
+                @Index(name = "idx_card_super_memo2_front_normalized_deck", columnList = "frontNormalized, deck_idDeck"),
+                @Index(name = "idx_card_super_memo2_back_normalized_deck", columnList = "backNormalized, deck_idDeck")
+        }
+)
 @NoArgsConstructor
 @Getter
 public class CardSuperMemo2 extends CardBase {
@@ -54,7 +64,22 @@ public class CardSuperMemo2 extends CardBase {
      * @param deck the deck to which the card belongs
      */
     public CardSuperMemo2(String front, String back, double easinessFactor, double reverseEasinessFactor, DeckBase deck) {
-        super(front, back, deck);
+        this(front, back, easinessFactor, reverseEasinessFactor, deck, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a new card with the given front, back, easiness factors, and associated deck,
+     * taking the creation time from the given clock.
+     *
+     * @param front the front content of the card
+     * @param back the back content of the card
+     * @param easinessFactor the initial easiness factor for the regular revision process
+     * @param reverseEasinessFactor the initial easiness factor for the reverse revision process
+     * @param deck the deck to which the card belongs
+     * @param clock the clock providing the current date and time
+     */
+    public CardSuperMemo2(String front, String back, double easinessFactor, double reverseEasinessFactor, DeckBase deck, Clock clock) {
+        super(front, back, deck, clock);
         this.easinessFactor = easinessFactor;
         this.reverseEasinessFactor = reverseEasinessFactor;
         setRevisionDefault(easinessFactor);
@@ -0,0 +1,37 @@
+package gutek.entities.cards;
+
+import gutek.domain.tags.Tags;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tag of a card, used to review only some of the cards of a deck.
+ * <p>
+ * The tags refer to the card by its identifier only, so moving a card to another deck keeps its tags. The tags
+ * of a deck are read together and indexed by {@link gutek.domain.tags.DeckTagIndex} to evaluate tag filters.
+ * </p>
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_card_tag_card", columnList = "cardId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardTag {
+
+    /** Unique identifier for the tag. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long idCardTag;
+
+    /** Identifier of the tagged card. */
+    @Column(nullable = false)
+    private Long cardId;
+
+    /** Normalized name of the tag, see {@link Tags#normalize(String)}. */
+    @Column(nullable = false, length = Tags.MAX_NAME_LENGTH)
+    private String name;
+}
@@ -3,6 +3,8 @@
  * <ul>
  *     <li>CardBase - The base class for all card entities in this package.</li>
  *     <li>CardBaseRevision - Class responsible for recording the revision of cards.</li>
+ *     <li>CardSignature - MinHash signature of the texts of a card, used to find near-duplicate cards.</li>
+ *     <li>CardTag - Tag of a card, used to review only some of the cards of a deck.</li>
  * </ul>
  */
 package gutek.entities.cards;
\ No newline at end of file
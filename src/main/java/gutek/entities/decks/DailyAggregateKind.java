@@ -0,0 +1,20 @@
+package gutek.entities.decks;
+
+/**
+ * Kinds of events counted by the {@link DeckDailyAggregate} rows.
+ */
+public enum DailyAggregateKind {
+
+    /** Cards added to the deck, dated by their creation time. */
+    CARDS_ADDED,
+
+    /** First revisions of cards, dated by the revision date. */
+    FIRST_REVISIONS,
+
+    /**
+     * All recorded answers, counted separately for every revision strategy and pressed button. Unlike the revision
+     * counts of {@link DeckBaseStatistics}, which count only the answers finishing the revision of a card for the day,
+     * the answers sending a card back to the queue (e.g. "repeat" or "Again") are counted too.
+     */
+    REVISIONS
+}
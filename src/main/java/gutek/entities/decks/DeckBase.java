@@ -48,4 +48,11 @@ public class DeckBase {
     /** The user who owns the deck. */
     @ManyToOne(fetch = FetchType.EAGER)
     private AppUser user;
+
+    /**
+     * Counter incremented on every modification of the deck's cards, used to validate deck snapshots.
+     * The column is only changed by bulk updates, so saving a stale deck instance never reverts it.
+     */
+    @Column(updatable = false)
+    private Long cardsChangeCounter = 0L;
 }
\ No newline at end of file
@@ -29,8 +29,8 @@ public class DeckBaseStatistics {
     /** The number of new cards reviewed per day. */
     private Integer newCardsPerDay = 0;
 
-    /** Indicator of the current date used for tracking daily progress. */
-    private LocalDate todayIndicator = LocalDate.now();
+    /** Indicator of the current date used for tracking daily progress, set from the application clock. */
+    private LocalDate todayIndicator;
 
     /** The deck to which these statistics apply. */
     @OneToOne(fetch = FetchType.EAGER)
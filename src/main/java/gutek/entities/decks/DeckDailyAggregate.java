@@ -0,0 +1,61 @@
+package gutek.entities.decks;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Materialized number of events of a single kind that happened in a deck on a single day.
+ * <p>
+ * Revisions are counted separately for every revision strategy and pressed button; for the other kinds
+ * the strategy is {@link #NO_STRATEGY} and the button is {@link #NO_BUTTON}, so every count is identified
+ * by non-null columns. The rows are indexed by deck, kind and day, so the counts of a date range are read
+ * with a single index range scan instead of scanning the cards or the revision log.
+ * </p>
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_deck_daily_aggregate_range", columnList = "deckId, kind, aggregate_day"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeckDailyAggregate {
+
+    /** Strategy of the counts which are not revisions. */
+    public static final String NO_STRATEGY = "";
+
+    /** Button of the counts which are not revisions. */
+    public static final int NO_BUTTON = -1;
+
+    /** Unique identifier for the aggregate. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long idDeckDailyAggregate;
+
+    /** Identifier of the deck the events happened in. */
+    @Column(nullable = false)
+    private Long deckId;
+
+    /** Day the events happened on. */
+    @Column(name = "aggregate_day", nullable = false)
+    private LocalDate day;
+
+    /** Kind of the counted events. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DailyAggregateKind kind;
+
+    /** Simple class name of the revision strategy of the counted revisions, or {@link #NO_STRATEGY}. */
+    @Column(nullable = false)
+    private String strategyClassName = NO_STRATEGY;
+
+    /** Index of the button pressed in the counted revisions, or {@link #NO_BUTTON}. */
+    @Column(nullable = false)
+    private Integer pressedButtonIndex = NO_BUTTON;
+
+    /** Number of the events. */
+    @Column(name = "events_count", nullable = false)
+    private Integer count = 0;
+}
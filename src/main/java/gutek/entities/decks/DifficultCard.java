@@ -0,0 +1,51 @@
+package gutek.entities.decks;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Entry of the bounded index of the most difficult cards of a deck.
+ * <p>
+ * Every deck keeps at most {@code DifficultCardService.CAPACITY} entries, ranked by the number of lapses and then
+ * by the number of failed revisions of the card. The entries are updated when a card is failed, so the hardest
+ * cards and leeches are listed without loading the cards of the deck or reading its revision log.
+ * </p>
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_difficult_card_rank", columnList = "deckId, lapses, failures"),
+        @Index(name = "idx_difficult_card_card", columnList = "cardId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DifficultCard {
+
+    /** Unique identifier for the entry. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long idDifficultCard;
+
+    /** Identifier of the deck the card belongs to. */
+    @Column(nullable = false)
+    private Long deckId;
+
+    /** Identifier of the card. */
+    @Column(nullable = false)
+    private Long cardId;
+
+    /** Number of lapses of the card: failed revisions following a recalled one in the same strategy. */
+    @Column(nullable = false)
+    private Integer lapses = 0;
+
+    /** Number of failed revisions of the card. */
+    @Column(nullable = false)
+    private Integer failures = 0;
+
+    /** Date of the last failed revision of the card. */
+    private LocalDate lastFailureDate;
+}
@@ -4,6 +4,9 @@
  *     <li>DeckBase - The main class for storing cards within a deck.</li>
  *     <li>DeckBaseStatistics - A class for storing and managing statistics related to the deck.</li>
  *     <li>RevisionCounts - A class for the revision counts for a specific revision strategy associated with a deck's statistics.</li>
+ *     <li>DeckDailyAggregate - A class for the materialized count of the deck's events of a single day.</li>
+ *     <li>DailyAggregateKind - An enum of the kinds of events counted by the daily counts.</li>
+ *     <li>DifficultCard - A class for an entry of the bounded index of the most difficult cards of a deck.</li>
  * </ul>
  */
 package gutek.entities.decks;
\ No newline at end of file
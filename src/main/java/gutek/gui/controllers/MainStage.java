@@ -6,6 +6,7 @@ import gutek.gui.controllers.launch.LanguageSelectionFXMLController;
 import gutek.gui.controllers.launch.LoginFXMLController;
 import gutek.gui.controllers.main.AuthorsFXMLController;
 import gutek.gui.controllers.main.DecksFXMLController;
+import gutek.gui.controllers.main.DuplicatesFXMLController;
 import gutek.gui.controllers.main.NewDeckFXMLController;
 import gutek.gui.controllers.main.TrashFXMLController;
 import gutek.services.TranslationService;
@@ -131,6 +132,7 @@ public class MainStage{
         map.put(MainStageScenes.DECKS_SCENE, DecksFXMLController.class);
         map.put(MainStageScenes.NEW_DECK_SCENE, NewDeckFXMLController.class);
         map.put(MainStageScenes.TRASH_SCENE, TrashFXMLController.class);
+        map.put(MainStageScenes.DUPLICATES_SCENE, DuplicatesFXMLController.class);
         map.put(MainStageScenes.AUTHORS_SCENE, AuthorsFXMLController.class);
         map.put(MainStageScenes.REVISION_ADD_NEW_CARD_SCENE, RevisionAddCardFXMLController.class);
         map.put(MainStageScenes.REVISION_SEARCH_SCENE, RevisionSearchFXMLController.class);
@@ -140,6 +142,9 @@ public class MainStage{
         map.put(MainStageScenes.REVISION_EDIT_CARD_SCENE, RevisionEditCardFXMLController.class);
         map.put(MainStageScenes.REVISION_REGULAR_SCENE, RevisionRegularFXMLController.class);
         map.put(MainStageScenes.REVISION_REVERSE_SCENE, RevisionReverseFXMLController.class);
+        map.put(MainStageScenes.REVISION_TYPED_SCENE, RevisionTypedFXMLController.class);
+        map.put(MainStageScenes.REVISION_BULK_EDIT_SCENE, RevisionBulkEditFXMLController.class);
+        map.put(MainStageScenes.REVISION_COPY_SCENE, RevisionCopyFXMLController.class);
         return map;
     }
 
@@ -31,6 +31,11 @@ public enum MainStageScenes {
      */
     TRASH_SCENE,
 
+    /**
+     * The scene for reviewing and merging near-duplicate cards across all decks.
+     */
+    DUPLICATES_SCENE,
+
     /**
      * The scene displaying information about the authors of the application.
      */
@@ -79,5 +84,20 @@ public enum MainStageScenes {
     /**
      * The scene for revising cards in reverse order.
      */
-    REVISION_REVERSE_SCENE
+    REVISION_REVERSE_SCENE,
+
+    /**
+     * The scene for revising cards in regular order by typing the translation.
+     */
+    REVISION_TYPED_SCENE,
+
+    /**
+     * The scene for editing all matching cards of the deck at once.
+     */
+    REVISION_BULK_EDIT_SCENE,
+
+    /**
+     * The scene for cloning the deck or merging it into another deck.
+     */
+    REVISION_COPY_SCENE
 }
\ No newline at end of file
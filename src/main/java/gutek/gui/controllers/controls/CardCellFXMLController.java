@@ -1,6 +1,6 @@
 package gutek.gui.controllers.controls;
 
-import gutek.entities.cards.CardBase;
+import gutek.domain.search.CardSummary;
 import gutek.gui.controllers.FXMLController;
 import gutek.gui.controllers.MainStage;
 import gutek.gui.controllers.MainStageScenes;
@@ -22,6 +22,7 @@ import static gutek.utils.AlertMessageUtil.showInfoAlert;
  * A controller for managing the display and actions of a card within a deck, providing options to edit or delete the card.
  * This controller handles the UI elements associated with a single card, such as displaying its front and back text.
  * It includes buttons for editing and deleting the card, which trigger respective actions.
+ * The cell displays only the summary of the card; the card itself is loaded when it is edited or deleted.
  * <p>
  * The panel dynamically updates its content based on the current language settings and responds to resizing events.
  */
@@ -62,9 +63,9 @@ public class CardCellFXMLController extends FXMLController {
     private ImageView deleteButtonIcon;
 
     /**
-     * The card associated with this cell.
+     * The summary of the card associated with this cell.
      */
-    private CardBase card;
+    private CardSummary card;
 
     /**
      * Service for handling card operations such as deletion.
@@ -113,9 +114,9 @@ public class CardCellFXMLController extends FXMLController {
     /**
      * Sets the card to be displayed in this cell and updates the view accordingly.
      *
-     * @param card The card to be displayed.
+     * @param card The summary of the card to be displayed.
      */
-    public void setCard(CardBase card) {
+    public void setCard(CardSummary card) {
         this.card = card;
         updateView();
         updateSize();
@@ -133,7 +134,7 @@ public class CardCellFXMLController extends FXMLController {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                cardService.removeCard(card);
+                cardService.findCardById(card.idCard()).ifPresent(cardService::removeCard);
                 showInfoAlert(translationService.getTranslation("deck_view.search_card.delete_success"), translationService, stage);
                 parentController.removeCardFromListView(card);
             }
@@ -141,10 +142,11 @@ public class CardCellFXMLController extends FXMLController {
     }
 
     /**
-     * Opens the edit view for the card.
+     * Loads the card and opens the edit view for it.
      */
     private void handleEdit() {
-        stage.setScene(MainStageScenes.REVISION_EDIT_CARD_SCENE, card);
+        cardService.findCardById(card.idCard())
+                .ifPresent(cardToEdit -> stage.setScene(MainStageScenes.REVISION_EDIT_CARD_SCENE, cardToEdit));
     }
 
     /**
@@ -176,8 +178,8 @@ public class CardCellFXMLController extends FXMLController {
      */
     @Override
     public void updateTranslation() {
-        frontLabel.setText(translationService.getTranslation("deck_view.search_card.front") + ": " + card.getFront());
-        backLabel.setText(translationService.getTranslation("deck_view.search_card.back") + ": " + card.getBack());
+        frontLabel.setText(translationService.getTranslation("deck_view.search_card.front") + ": " + card.front());
+        backLabel.setText(translationService.getTranslation("deck_view.search_card.back") + ": " + card.back());
         editButton.setText(translationService.getTranslation("deck_view.search_card.edit"));
         deleteButton.setText(translationService.getTranslation("deck_view.search_card.delete"));
     }
@@ -188,8 +190,8 @@ public class CardCellFXMLController extends FXMLController {
      */
     @Override
     public void updateView() {
-        frontLabel.setText(translationService.getTranslation("deck_view.search_card.front") + ": " + card.getFront());
-        backLabel.setText(translationService.getTranslation("deck_view.search_card.back") + ": " + card.getBack());
+        frontLabel.setText(translationService.getTranslation("deck_view.search_card.front") + ": " + card.front());
+        backLabel.setText(translationService.getTranslation("deck_view.search_card.back") + ": " + card.back());
     }
 
     /**
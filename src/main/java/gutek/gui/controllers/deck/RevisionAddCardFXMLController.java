@@ -7,6 +7,7 @@ import gutek.gui.controllers.MainStage;
 import gutek.gui.controllers.menu.MenuBarFXMLController;
 import gutek.gui.controllers.menu.MenuDeckFXMLController;
 import gutek.services.CardService;
+import gutek.services.ClockService;
 import gutek.services.DeckService;
 import gutek.services.TranslationService;
 import gutek.utils.CsvUtil;
@@ -24,8 +25,6 @@ import org.springframework.stereotype.Component;
 import java.io.File;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import static gutek.utils.AlertMessageUtil.*;
 
@@ -107,6 +106,11 @@ public class RevisionAddCardFXMLController extends FXMLController {
      */
     private final DeckService deckService;
 
+    /**
+     * Service providing the clock used for dating revisions.
+     */
+    private final ClockService clockService;
+
     /**
      * Controller for managing the menu bar.
      */
@@ -130,6 +134,7 @@ public class RevisionAddCardFXMLController extends FXMLController {
      * @param translationService  Service for translating text in the view.
      * @param cardService         Service for managing cards.
      * @param deckService         Service for managing decks.
+     * @param clockService        Service providing the clock of the application.
      * @param menuBarFXMLController Controller for the main menu bar.
      * @param menuDeckFXMLController Controller for deck-specific menu actions.
      */
@@ -139,10 +144,12 @@ public class RevisionAddCardFXMLController extends FXMLController {
                                          MenuBarFXMLController menuBarFXMLController,
                                          MenuDeckFXMLController menuDeckFXMLController,
                                          CardService cardService,
-                                         DeckService deckService) {
+                                         DeckService deckService,
+                                         ClockService clockService) {
         super(stage, fxmlFileLoader, "/fxml/deck/RevisionAddCardView.fxml", translationService);
         this.cardService = cardService;
         this.deckService = deckService;
+        this.clockService = clockService;
         this.menuBarFXMLController = menuBarFXMLController;
         this.menuDeckFXMLController = menuDeckFXMLController;
     }
@@ -203,17 +210,10 @@ public class RevisionAddCardFXMLController extends FXMLController {
         File selectedFile = fileChooser.showOpenDialog(stage.getStage());
         if (selectedFile != null) {
             try {
+                deck.getRevisionAlgorithm().setClock(clockService.getClock());
                 List<CardBase> importedCards = CsvUtil.loadFromCsv(selectedFile, deck.getRevisionAlgorithm());
 
-                List<CardBase> existingCards = deckService.getAllCards(deck);
-
-                Set<String> existingFronts = existingCards.stream()
-                        .map(CardBase::getFront)
-                        .collect(Collectors.toSet());
-
-                List<CardBase> uniqueCards = importedCards.stream()
-                        .filter(card -> !existingFronts.contains(card.getFront()))
-                        .toList();
+                List<CardBase> uniqueCards = cardService.filterNewCards(importedCards, deck);
 
                 uniqueCards.forEach(card -> card.setDeck(deck));
 
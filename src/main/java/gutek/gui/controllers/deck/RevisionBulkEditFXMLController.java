@@ -0,0 +1,403 @@
+package gutek.gui.controllers.deck;
+
+import gutek.domain.edits.BulkEdit;
+import gutek.domain.edits.BulkEditChange;
+import gutek.domain.edits.BulkEditPreview;
+import gutek.domain.edits.BulkEditScope;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.entities.decks.DeckBase;
+import gutek.gui.controllers.FXMLController;
+import gutek.gui.controllers.MainStage;
+import gutek.gui.controllers.menu.MenuBarFXMLController;
+import gutek.gui.controllers.menu.MenuDeckFXMLController;
+import gutek.services.BulkEditService;
+import gutek.services.TranslationService;
+import gutek.utils.FXMLFileLoader;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.VBox;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Controller class for editing all matching cards of a deck at once.
+ * <p>
+ * The cards whose texts match a regular expression can have the matches replaced, their whitespace trimmed and
+ * collapsed, and be moved to another deck with the same revision algorithm. Without a regular expression, all cards
+ * of the deck match. The edit is previewed first, counting the matching and changed cards and listing the first
+ * changes, and only a previewed edit can be applied. Both run in the background, so even a large deck never blocks
+ * the view.
+ */
+@Component
+public class RevisionBulkEditFXMLController extends FXMLController {
+
+    /**
+     * Root pane containing the main layout for this view.
+     */
+    @FXML
+    private BorderPane rootPane;
+
+    /**
+     * Container for the menu components.
+     */
+    @FXML
+    private VBox menuContainer;
+
+    /**
+     * Text field for entering the regular expression searched in the cards.
+     */
+    @FXML
+    private TextField findTextField;
+
+    /**
+     * Text field for entering the replacement of the matches.
+     */
+    @FXML
+    private TextField replaceTextField;
+
+    /**
+     * ComboBox for selecting the texts of the cards searched and edited.
+     */
+    @FXML
+    private ComboBox<String> scopeComboBox;
+
+    /**
+     * CheckBox for trimming the edited texts and collapsing their whitespace.
+     */
+    @FXML
+    private CheckBox normalizeWhitespaceCheckBox;
+
+    /**
+     * ComboBox for selecting the deck the matching cards are moved to, the first item keeping them in the deck.
+     */
+    @FXML
+    private ComboBox<String> targetDeckComboBox;
+
+    /**
+     * Button computing the preview of the edit.
+     */
+    @FXML
+    private Button previewButton;
+
+    /**
+     * Button applying the previewed edit.
+     */
+    @FXML
+    private Button applyButton;
+
+    /**
+     * Label describing the state of the preview or the edit.
+     */
+    @FXML
+    private Label statusLabel;
+
+    /**
+     * List view displaying the first changes of the previewed edit.
+     */
+    @FXML
+    private ListView<String> changesListView;
+
+    /**
+     * Service previewing and applying the edits.
+     */
+    private final BulkEditService bulkEditService;
+
+    /**
+     * Controller for the main menu bar of the application.
+     */
+    private final MenuBarFXMLController menuBarFXMLController;
+
+    /**
+     * Controller for the deck-specific menu actions.
+     */
+    private final MenuDeckFXMLController menuDeckFXMLController;
+
+    /**
+     * The edited deck.
+     */
+    private DeckBase deck;
+
+    /**
+     * The decks the cards can be moved to, in the order of the target deck ComboBox items following the first one.
+     */
+    private List<DeckBase> moveTargets = List.of();
+
+    /**
+     * The previewed edit, or {@code null} if the form changed since the last preview.
+     */
+    private BulkEdit previewedEdit;
+
+    /**
+     * Preview in progress, or {@code null} if none is running.
+     */
+    private BackgroundJob<BulkEditPreview> runningPreviewJob;
+
+    /**
+     * Edit being applied, or {@code null} if none is running.
+     */
+    private BackgroundJob<Integer> runningApplyJob;
+
+    /**
+     * Whether the form is already observed for changes discarding the preview.
+     */
+    private boolean formObserved;
+
+    /**
+     * Constructs a new `RevisionBulkEditFXMLController` for editing the cards of a deck at once.
+     *
+     * @param stage                  The main stage of the application.
+     * @param fxmlFileLoader         Utility for loading FXML files associated with this scene.
+     * @param translationService     Service for retrieving translations for the UI.
+     * @param menuBarFXMLController  Controller for the main menu bar.
+     * @param menuDeckFXMLController Controller for deck-specific menu actions.
+     * @param bulkEditService        Service previewing and applying the edits.
+     */
+    public RevisionBulkEditFXMLController(MainStage stage,
+                                          FXMLFileLoader fxmlFileLoader,
+                                          TranslationService translationService,
+                                          MenuBarFXMLController menuBarFXMLController,
+                                          MenuDeckFXMLController menuDeckFXMLController,
+                                          BulkEditService bulkEditService) {
+        super(stage, fxmlFileLoader, "/fxml/deck/RevisionBulkEditView.fxml", translationService);
+        this.bulkEditService = bulkEditService;
+        this.menuBarFXMLController = menuBarFXMLController;
+        this.menuDeckFXMLController = menuDeckFXMLController;
+    }
+
+    /**
+     * Initializes the view with parameters, setting up the deck, the menu components and the actions of the form.
+     * Any change of the form discards the preview, so only the previewed edit can be applied.
+     *
+     * @param params Array of parameters, where the first element is expected to be a `DeckBase` instance.
+     */
+    @Override
+    public void initWithParams(Object... params) {
+        if (params != null && params.length > 0 && params[0] instanceof DeckBase deckBase) {
+            this.deck = deckBase;
+            menuDeckFXMLController.initWithParams(deck);
+        }
+        menuBarFXMLController.initWithParams();
+
+        menuContainer.getChildren().setAll(menuBarFXMLController.getRoot(), menuDeckFXMLController.getRoot());
+
+        if (!formObserved) {
+            formObserved = true;
+            findTextField.textProperty().addListener((observable, oldText, newText) -> discardPreview());
+            replaceTextField.textProperty().addListener((observable, oldText, newText) -> discardPreview());
+            scopeComboBox.valueProperty().addListener((observable, oldValue, newValue) -> discardPreview());
+            normalizeWhitespaceCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> discardPreview());
+            targetDeckComboBox.valueProperty().addListener((observable, oldValue, newValue) -> discardPreview());
+        }
+        previewButton.setOnAction(e -> preview());
+        applyButton.setOnAction(e -> apply());
+    }
+
+    /**
+     * Updates the size of the view components based on the window size and scale factor.
+     */
+    @Override
+    public void updateSize() {
+        menuBarFXMLController.updateSize();
+        menuDeckFXMLController.updateSize();
+
+        double scaleFactor = stage.getStageScaleFactor();
+        String fontSizeStyle = "-fx-font-size: " + (12 * scaleFactor) + "px;";
+        String radiusStyle = "-fx-background-radius: " + (20 * scaleFactor) + "; -fx-border-radius: " + (20 * scaleFactor) + ";";
+
+        findTextField.setStyle(fontSizeStyle + radiusStyle);
+        replaceTextField.setStyle(fontSizeStyle + radiusStyle);
+        scopeComboBox.setStyle(fontSizeStyle + radiusStyle);
+        normalizeWhitespaceCheckBox.setStyle(fontSizeStyle);
+        targetDeckComboBox.setStyle(fontSizeStyle + radiusStyle);
+        previewButton.setStyle(fontSizeStyle + " -fx-background-color: blue; -fx-text-fill: white;" + radiusStyle);
+        applyButton.setStyle(fontSizeStyle + " -fx-background-color: green; -fx-text-fill: white;" + radiusStyle);
+        statusLabel.setStyle(fontSizeStyle);
+        changesListView.setStyle(fontSizeStyle);
+
+        findTextField.setPrefSize(300 * scaleFactor, 30 * scaleFactor);
+        replaceTextField.setPrefSize(300 * scaleFactor, 30 * scaleFactor);
+        scopeComboBox.setPrefSize(200 * scaleFactor, 30 * scaleFactor);
+        targetDeckComboBox.setPrefSize(300 * scaleFactor, 30 * scaleFactor);
+        previewButton.setPrefSize(200 * scaleFactor, 40 * scaleFactor);
+        applyButton.setPrefSize(200 * scaleFactor, 40 * scaleFactor);
+    }
+
+    /**
+     * Updates the text of the view components based on the current language settings.
+     */
+    @Override
+    public void updateTranslation() {
+        menuBarFXMLController.updateTranslation();
+        menuDeckFXMLController.updateTranslation();
+
+        findTextField.setPromptText(translationService.getTranslation("deck_view.bulk_edit.find"));
+        replaceTextField.setPromptText(translationService.getTranslation("deck_view.bulk_edit.replace"));
+        normalizeWhitespaceCheckBox.setText(translationService.getTranslation("deck_view.bulk_edit.normalize_whitespace"));
+        previewButton.setText(translationService.getTranslation("deck_view.bulk_edit.preview_button"));
+        applyButton.setText(translationService.getTranslation("deck_view.bulk_edit.apply_button"));
+
+        int scopeIndex = Math.max(scopeComboBox.getSelectionModel().getSelectedIndex(), 0);
+        scopeComboBox.setItems(FXCollections.observableArrayList(
+                translationService.getTranslation("deck_view.bulk_edit.scope_front"),
+                translationService.getTranslation("deck_view.bulk_edit.scope_back"),
+                translationService.getTranslation("deck_view.bulk_edit.scope_both")));
+        scopeComboBox.getSelectionModel().select(scopeIndex);
+        updateTargetDeckItems();
+    }
+
+    /**
+     * Updates the menus, reloads the decks the cards can be moved to and clears the preview.
+     */
+    @Override
+    public void updateView() {
+        menuBarFXMLController.updateView();
+        menuDeckFXMLController.updateView();
+
+        moveTargets = deck == null ? List.of() : bulkEditService.findMoveTargets(deck);
+        updateTargetDeckItems();
+        discardPreview();
+        statusLabel.setText("");
+    }
+
+    /**
+     * Starts computing the preview of the edit described by the form, cancelling the preview in progress.
+     * An invalid regular expression is reported without starting the preview.
+     */
+    private void preview() {
+        BulkEdit edit;
+        try {
+            edit = createEdit();
+        } catch (PatternSyntaxException e) {
+            statusLabel.setText(translationService.getTranslation("deck_view.bulk_edit.invalid_pattern"));
+            return;
+        }
+        discardPreview();
+        statusLabel.setText(translationService.getTranslation("deck_view.bulk_edit.previewing"));
+
+        BackgroundJob<BulkEditPreview> job = bulkEditService.previewInBackground(deck, edit);
+        runningPreviewJob = job;
+        job.getResult().whenComplete((preview, throwable) -> Platform.runLater(() -> {
+            if (job != runningPreviewJob) {
+                return;
+            }
+            runningPreviewJob = null;
+            if (throwable != null || preview == null) {
+                statusLabel.setText(translationService.getTranslation("deck_view.bulk_edit.error"));
+                return;
+            }
+            showPreview(preview);
+            previewedEdit = preview.changedCount() > 0 ? edit : null;
+            applyButton.setDisable(previewedEdit == null);
+        }));
+    }
+
+    /**
+     * Starts applying the previewed edit. The form keeps its values, so the edit can be previewed again.
+     */
+    private void apply() {
+        BulkEdit edit = previewedEdit;
+        if (edit == null || runningApplyJob != null) {
+            return;
+        }
+        discardPreview();
+        previewButton.setDisable(true);
+        statusLabel.setText(translationService.getTranslation("deck_view.bulk_edit.applying"));
+
+        BackgroundJob<Integer> job = bulkEditService.applyInBackground(deck, edit);
+        runningApplyJob = job;
+        job.getResult().whenComplete((changedCount, throwable) -> Platform.runLater(() -> {
+            runningApplyJob = null;
+            previewButton.setDisable(false);
+            if (throwable != null || changedCount == null) {
+                statusLabel.setText(translationService.getTranslation("deck_view.bulk_edit.error"));
+            } else {
+                statusLabel.setText(translationService.getTranslation("deck_view.bulk_edit.applied") + ": " + changedCount);
+            }
+        }));
+    }
+
+    /**
+     * Creates the edit described by the form.
+     *
+     * @return the edit
+     * @throws PatternSyntaxException if the regular expression is invalid
+     */
+    private BulkEdit createEdit() {
+        String find = findTextField.getText();
+        Pattern findPattern = find == null || find.isEmpty() ? null : BulkEdit.compilePattern(find);
+        String replacement = findPattern == null ? null : replaceTextField.getText();
+        BulkEditScope scope = BulkEditScope.values()[Math.max(scopeComboBox.getSelectionModel().getSelectedIndex(), 0)];
+        int targetIndex = targetDeckComboBox.getSelectionModel().getSelectedIndex();
+        Long targetDeckId = targetIndex > 0 ? moveTargets.get(targetIndex - 1).getIdDeck() : null;
+        return new BulkEdit(findPattern, replacement, scope, normalizeWhitespaceCheckBox.isSelected(), targetDeckId);
+    }
+
+    /**
+     * Displays the counts of the preview and its first changes.
+     *
+     * @param preview the computed preview
+     */
+    private void showPreview(BulkEditPreview preview) {
+        statusLabel.setText(translationService.getTranslation("deck_view.bulk_edit.matching") + ": " + preview.matchingCount()
+                + ", " + translationService.getTranslation("deck_view.bulk_edit.changed") + ": " + preview.changedCount()
+                + ", " + translationService.getTranslation("deck_view.bulk_edit.skipped") + ": " + preview.invalidCount());
+        changesListView.setItems(FXCollections.observableArrayList(preview.samples().stream()
+                .map(this::describe)
+                .toList()));
+    }
+
+    /**
+     * Describes a change of a card as its texts before and after the edit.
+     *
+     * @param change the change of the card
+     * @return the description of the change
+     */
+    private String describe(BulkEditChange change) {
+        String description = change.original().front() + " | " + change.original().back()
+                + "  →  " + change.front() + " | " + change.back();
+        if (change.isMoved()) {
+            description += "  →  " + targetDeckComboBox.getValue();
+        }
+        return description;
+    }
+
+    /**
+     * Fills the target deck ComboBox with the option keeping the cards in the deck followed by the decks
+     * the cards can be moved to, keeping the selected deck.
+     */
+    private void updateTargetDeckItems() {
+        int targetIndex = targetDeckComboBox.getSelectionModel().getSelectedIndex();
+        List<String> items = new ArrayList<>();
+        items.add(translationService.getTranslation("deck_view.bulk_edit.keep_deck"));
+        moveTargets.forEach(target -> items.add(target.getName()));
+        targetDeckComboBox.setItems(FXCollections.observableArrayList(items));
+        targetDeckComboBox.getSelectionModel().select(targetIndex > 0 && targetIndex < items.size() ? targetIndex : 0);
+    }
+
+    /**
+     * Discards the preview after the form changed, cancelling the preview in progress, so the edit has to be
+     * previewed again before it is applied.
+     */
+    private void discardPreview() {
+        if (runningPreviewJob != null) {
+            runningPreviewJob.cancel();
+            runningPreviewJob = null;
+            statusLabel.setText("");
+        }
+        previewedEdit = null;
+        applyButton.setDisable(true);
+        changesListView.getItems().clear();
+    }
+}
@@ -0,0 +1,296 @@
+package gutek.gui.controllers.deck;
+
+import gutek.domain.copies.DeckCopyOptions;
+import gutek.domain.copies.DeckCopyResult;
+import gutek.domain.copies.DuplicateFronts;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.entities.decks.DeckBase;
+import gutek.gui.controllers.FXMLController;
+import gutek.gui.controllers.MainStage;
+import gutek.gui.controllers.menu.MenuBarFXMLController;
+import gutek.gui.controllers.menu.MenuDeckFXMLController;
+import gutek.services.DeckCopyService;
+import gutek.services.TranslationService;
+import gutek.utils.FXMLFileLoader;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.VBox;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controller class for cloning a deck into a new deck or merging its cards into another deck.
+ * <p>
+ * The cards can keep their scheduling state, optionally with their revision history, or start over as new cards.
+ * The cards whose front is already used in the target deck can be copied anyway or skipped. A merge leaves the
+ * merged deck unchanged. The copy runs in the background, so even a large deck never blocks the view.
+ */
+@Component
+public class RevisionCopyFXMLController extends FXMLController {
+
+    /**
+     * Root pane containing the main layout for this view.
+     */
+    @FXML
+    private BorderPane rootPane;
+
+    /**
+     * Container for the menu components.
+     */
+    @FXML
+    private VBox menuContainer;
+
+    /**
+     * ComboBox for selecting the deck the cards are copied into, the first item cloning the deck into a new deck.
+     */
+    @FXML
+    private ComboBox<String> targetDeckComboBox;
+
+    /**
+     * Text field for entering the name of the new deck, enabled only when the deck is cloned.
+     */
+    @FXML
+    private TextField nameTextField;
+
+    /**
+     * CheckBox for copying the cards as new cards instead of keeping their scheduling state.
+     */
+    @FXML
+    private CheckBox resetSchedulingCheckBox;
+
+    /**
+     * CheckBox for skipping the cards whose front is already used in the target deck.
+     */
+    @FXML
+    private CheckBox skipDuplicatesCheckBox;
+
+    /**
+     * CheckBox for copying the revision history of the cards, disabled when their scheduling state is reset.
+     */
+    @FXML
+    private CheckBox copyHistoryCheckBox;
+
+    /**
+     * Button starting the copy.
+     */
+    @FXML
+    private Button applyButton;
+
+    /**
+     * Label describing the state of the copy.
+     */
+    @FXML
+    private Label statusLabel;
+
+    /**
+     * Service cloning and merging the decks.
+     */
+    private final DeckCopyService deckCopyService;
+
+    /**
+     * Controller for the main menu bar of the application.
+     */
+    private final MenuBarFXMLController menuBarFXMLController;
+
+    /**
+     * Controller for the deck-specific menu actions.
+     */
+    private final MenuDeckFXMLController menuDeckFXMLController;
+
+    /**
+     * The copied deck.
+     */
+    private DeckBase deck;
+
+    /**
+     * The decks the cards can be merged into, in the order of the target deck ComboBox items following the first one.
+     */
+    private List<DeckBase> mergeTargets = List.of();
+
+    /**
+     * Copy in progress, or {@code null} if none is running.
+     */
+    private BackgroundJob<DeckCopyResult> runningJob;
+
+    /**
+     * Whether the form is already observed for changes of the dependent fields.
+     */
+    private boolean formObserved;
+
+    /**
+     * Constructs a new `RevisionCopyFXMLController` for cloning and merging a deck.
+     *
+     * @param stage                  The main stage of the application.
+     * @param fxmlFileLoader         Utility for loading FXML files associated with this scene.
+     * @param translationService     Service for retrieving translations for the UI.
+     * @param menuBarFXMLController  Controller for the main menu bar.
+     * @param menuDeckFXMLController Controller for deck-specific menu actions.
+     * @param deckCopyService        Service cloning and merging the decks.
+     */
+    public RevisionCopyFXMLController(MainStage stage,
+                                      FXMLFileLoader fxmlFileLoader,
+                                      TranslationService translationService,
+                                      MenuBarFXMLController menuBarFXMLController,
+                                      MenuDeckFXMLController menuDeckFXMLController,
+                                      DeckCopyService deckCopyService) {
+        super(stage, fxmlFileLoader, "/fxml/deck/RevisionCopyView.fxml", translationService);
+        this.deckCopyService = deckCopyService;
+        this.menuBarFXMLController = menuBarFXMLController;
+        this.menuDeckFXMLController = menuDeckFXMLController;
+    }
+
+    /**
+     * Initializes the view with parameters, setting up the deck, the menu components and the actions of the form.
+     *
+     * @param params Array of parameters, where the first element is expected to be a `DeckBase` instance.
+     */
+    @Override
+    public void initWithParams(Object... params) {
+        if (params != null && params.length > 0 && params[0] instanceof DeckBase deckBase) {
+            this.deck = deckBase;
+            menuDeckFXMLController.initWithParams(deck);
+        }
+        menuBarFXMLController.initWithParams();
+
+        menuContainer.getChildren().setAll(menuBarFXMLController.getRoot(), menuDeckFXMLController.getRoot());
+
+        if (!formObserved) {
+            formObserved = true;
+            targetDeckComboBox.valueProperty().addListener((observable, oldValue, newValue) -> updateFormState());
+            resetSchedulingCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> updateFormState());
+        }
+        applyButton.setOnAction(e -> apply());
+    }
+
+    /**
+     * Updates the size of the view components based on the window size and scale factor.
+     */
+    @Override
+    public void updateSize() {
+        menuBarFXMLController.updateSize();
+        menuDeckFXMLController.updateSize();
+
+        double scaleFactor = stage.getStageScaleFactor();
+        String fontSizeStyle = "-fx-font-size: " + (12 * scaleFactor) + "px;";
+        String radiusStyle = "-fx-background-radius: " + (20 * scaleFactor) + "; -fx-border-radius: " + (20 * scaleFactor) + ";";
+
+        targetDeckComboBox.setStyle(fontSizeStyle + radiusStyle);
+        nameTextField.setStyle(fontSizeStyle + radiusStyle);
+        resetSchedulingCheckBox.setStyle(fontSizeStyle);
+        skipDuplicatesCheckBox.setStyle(fontSizeStyle);
+        copyHistoryCheckBox.setStyle(fontSizeStyle);
+        applyButton.setStyle(fontSizeStyle + " -fx-background-color: green; -fx-text-fill: white;" + radiusStyle);
+        statusLabel.setStyle(fontSizeStyle);
+
+        targetDeckComboBox.setPrefSize(300 * scaleFactor, 30 * scaleFactor);
+        nameTextField.setPrefSize(300 * scaleFactor, 30 * scaleFactor);
+        applyButton.setPrefSize(200 * scaleFactor, 40 * scaleFactor);
+    }
+
+    /**
+     * Updates the text of the view components based on the current language settings.
+     */
+    @Override
+    public void updateTranslation() {
+        menuBarFXMLController.updateTranslation();
+        menuDeckFXMLController.updateTranslation();
+
+        nameTextField.setPromptText(translationService.getTranslation("deck_view.copy.name"));
+        resetSchedulingCheckBox.setText(translationService.getTranslation("deck_view.copy.reset_scheduling"));
+        skipDuplicatesCheckBox.setText(translationService.getTranslation("deck_view.copy.skip_duplicates"));
+        copyHistoryCheckBox.setText(translationService.getTranslation("deck_view.copy.copy_history"));
+        applyButton.setText(translationService.getTranslation("deck_view.copy.apply_button"));
+        updateTargetDeckItems();
+    }
+
+    /**
+     * Updates the menus, reloads the decks the cards can be merged into and suggests the name of the new deck.
+     */
+    @Override
+    public void updateView() {
+        menuBarFXMLController.updateView();
+        menuDeckFXMLController.updateView();
+
+        mergeTargets = deck == null ? List.of() : deckCopyService.findMergeTargets(deck);
+        updateTargetDeckItems();
+        if (deck != null && runningJob == null) {
+            nameTextField.setText(deck.getName() + " " + translationService.getTranslation("deck_view.copy.name_suffix"));
+            statusLabel.setText("");
+        }
+        updateFormState();
+    }
+
+    /**
+     * Starts cloning the deck or merging it into the selected deck with the options of the form.
+     * A blank name of the new deck is reported without starting the copy.
+     */
+    private void apply() {
+        if (runningJob != null || deck == null) {
+            return;
+        }
+        int targetIndex = targetDeckComboBox.getSelectionModel().getSelectedIndex();
+        String name = nameTextField.getText() == null ? "" : nameTextField.getText().trim();
+        if (targetIndex <= 0 && name.isEmpty()) {
+            statusLabel.setText(translationService.getTranslation("deck_view.copy.name_empty"));
+            return;
+        }
+        DeckCopyOptions options = new DeckCopyOptions(resetSchedulingCheckBox.isSelected(),
+                skipDuplicatesCheckBox.isSelected() ? DuplicateFronts.SKIP : DuplicateFronts.KEEP,
+                !resetSchedulingCheckBox.isSelected() && copyHistoryCheckBox.isSelected());
+        applyButton.setDisable(true);
+        statusLabel.setText(translationService.getTranslation("deck_view.copy.copying"));
+
+        BackgroundJob<DeckCopyResult> job = targetIndex > 0
+                ? deckCopyService.mergeInBackground(deck, mergeTargets.get(targetIndex - 1), options)
+                : deckCopyService.cloneInBackground(deck, name, options);
+        runningJob = job;
+        job.getResult().whenComplete((result, throwable) -> Platform.runLater(() -> {
+            runningJob = null;
+            applyButton.setDisable(false);
+            if (throwable != null || result == null) {
+                statusLabel.setText(translationService.getTranslation("deck_view.copy.error"));
+                return;
+            }
+            statusLabel.setText(translationService.getTranslation("deck_view.copy.copied") + ": " + result.copiedCount()
+                    + ", " + translationService.getTranslation("deck_view.copy.skipped") + ": " + result.skippedCount()
+                    + ", " + translationService.getTranslation("deck_view.copy.copied_revisions") + ": " + result.copiedRevisions());
+            mergeTargets = deckCopyService.findMergeTargets(deck);
+            updateTargetDeckItems();
+        }));
+    }
+
+    /**
+     * Enables the name of the new deck only when the deck is cloned, and the copy of the revision history
+     * only when the cards keep their scheduling state.
+     */
+    private void updateFormState() {
+        nameTextField.setDisable(targetDeckComboBox.getSelectionModel().getSelectedIndex() > 0);
+        boolean reset = resetSchedulingCheckBox.isSelected();
+        if (reset) {
+            copyHistoryCheckBox.setSelected(false);
+        }
+        copyHistoryCheckBox.setDisable(reset);
+    }
+
+    /**
+     * Fills the target deck ComboBox with the option cloning the deck followed by the decks the cards can be merged
+     * into, keeping the selected deck.
+     */
+    private void updateTargetDeckItems() {
+        int targetIndex = targetDeckComboBox.getSelectionModel().getSelectedIndex();
+        List<String> items = new ArrayList<>();
+        items.add(translationService.getTranslation("deck_view.copy.new_deck"));
+        mergeTargets.forEach(target -> items.add(target.getName()));
+        targetDeckComboBox.setItems(FXCollections.observableArrayList(items));
+        targetDeckComboBox.getSelectionModel().select(targetIndex > 0 && targetIndex < items.size() ? targetIndex : 0);
+    }
+}
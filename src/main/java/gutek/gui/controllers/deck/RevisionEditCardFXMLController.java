@@ -1,5 +1,6 @@
 package gutek.gui.controllers.deck;
 
+import gutek.domain.tags.Tags;
 import gutek.entities.cards.CardBase;
 import gutek.gui.controllers.FXMLController;
 import gutek.gui.controllers.MainStage;
@@ -7,6 +8,7 @@ import gutek.gui.controllers.MainStageScenes;
 import gutek.gui.controllers.menu.MenuBarFXMLController;
 import gutek.gui.controllers.menu.MenuDeckFXMLController;
 import gutek.services.CardService;
+import gutek.services.TagService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
 import gutek.utils.ImageUtil;
@@ -25,7 +27,8 @@ import static gutek.utils.AlertMessageUtil.*;
  * Controller class for editing existing cards within a deck.
  * <p>
  * This class provides a user interface allowing users to update the front and back text of a card.
- * It enforces that the front text is unique within the deck. Additionally, it incorporates menu components
+ * It enforces that the front text is unique within the deck. The tags of the card, used for filtered revision
+ * sessions, are edited as a list of names separated by spaces or commas. Additionally, it incorporates menu components
  * for navigating other deck-related actions.
  */
 @Component
@@ -67,6 +70,18 @@ public class RevisionEditCardFXMLController extends FXMLController {
     @FXML
     private TextField backTextField;
 
+    /**
+     * Label for the tags text field.
+     */
+    @FXML
+    private Label tagsLabel;
+
+    /**
+     * Text field for editing the tags of the card.
+     */
+    @FXML
+    private TextField tagsTextField;
+
     /**
      * Button for saving the updated card information.
      */
@@ -83,6 +98,11 @@ public class RevisionEditCardFXMLController extends FXMLController {
      */
     private final CardService cardService;
 
+    /**
+     * Service managing the tags of the cards.
+     */
+    private final TagService tagService;
+
     /**
      * Controller for managing the menu bar.
      */
@@ -108,15 +128,18 @@ public class RevisionEditCardFXMLController extends FXMLController {
      * @param cardService         Service for managing cards.
      * @param menuBarFXMLController Controller for the main menu bar.
      * @param menuDeckFXMLController Controller for deck-specific menu actions.
+     * @param tagService          Service for managing the tags of the cards.
      */
     public RevisionEditCardFXMLController(MainStage stage,
                                           FXMLFileLoader fxmlFileLoader,
                                           TranslationService translationService,
                                           MenuBarFXMLController menuBarFXMLController,
                                           MenuDeckFXMLController menuDeckFXMLController,
-                                          CardService cardService) {
+                                          CardService cardService,
+                                          TagService tagService) {
         super(stage, fxmlFileLoader, "/fxml/deck/RevisionEditCardView.fxml", translationService);
         this.cardService = cardService;
+        this.tagService = tagService;
         this.menuBarFXMLController = menuBarFXMLController;
         this.menuDeckFXMLController = menuDeckFXMLController;
     }
@@ -165,6 +188,7 @@ public class RevisionEditCardFXMLController extends FXMLController {
         cardToEdit.setFront(frontText);
         cardToEdit.setBack(backText);
         cardService.saveCard(cardToEdit);
+        tagService.setTags(cardToEdit, Tags.parse(tagsTextField.getText()));
         showInfoAlert(translationService.getTranslation("deck_view.edit_card.edit_success"), translationService, stage);
 
         stage.setScene(MainStageScenes.REVISION_SEARCH_SCENE, cardToEdit.getDeck());
@@ -185,14 +209,18 @@ public class RevisionEditCardFXMLController extends FXMLController {
 
         frontLabel.setStyle(fontSizeStyle);
         backLabel.setStyle(fontSizeStyle);
+        tagsLabel.setStyle(fontSizeStyle);
         frontTextField.setStyle(fontSizeStyle + radiusStyle);
         backTextField.setStyle(fontSizeStyle + radiusStyle);
+        tagsTextField.setStyle(fontSizeStyle + radiusStyle);
         saveButton.setStyle(fontSizeStyle + " -fx-background-color: green; -fx-text-fill: white;" + radiusStyle);
 
         frontLabel.setPrefSize(200 * scaleFactor, 30 * scaleFactor);
         backLabel.setPrefSize(200 * scaleFactor, 30 * scaleFactor);
+        tagsLabel.setPrefSize(200 * scaleFactor, 30 * scaleFactor);
         frontTextField.setPrefSize(200 * scaleFactor, 30 * scaleFactor);
         backTextField.setPrefSize(200 * scaleFactor, 30 * scaleFactor);
+        tagsTextField.setPrefSize(200 * scaleFactor, 30 * scaleFactor);
         saveButton.setPrefSize(200 * scaleFactor, 40 * scaleFactor);
 
         updateIcons(scaleFactor);
@@ -208,11 +236,13 @@ public class RevisionEditCardFXMLController extends FXMLController {
 
         frontLabel.setText(translationService.getTranslation("deck_view.edit_card.front"));
         backLabel.setText(translationService.getTranslation("deck_view.edit_card.back"));
+        tagsLabel.setText(translationService.getTranslation("deck_view.edit_card.tags"));
+        tagsTextField.setPromptText(translationService.getTranslation("deck_view.edit_card.tags_prompt"));
         saveButton.setText(translationService.getTranslation("deck_view.edit_card.save_button"));
     }
 
     /**
-     * Sets the card to be edited and populates the text fields with the card's existing front and back text.
+     * Sets the card to be edited and populates the text fields with the card's existing front and back text and tags.
      *
      * @param card the card to edit
      */
@@ -220,6 +250,7 @@ public class RevisionEditCardFXMLController extends FXMLController {
         this.cardToEdit = card;
         frontTextField.setText(card.getFront());
         backTextField.setText(card.getBack());
+        tagsTextField.setText(Tags.format(tagService.getTags(card)));
     }
 
     /**
@@ -1,6 +1,7 @@
 package gutek.gui.controllers.deck;
 
 import gutek.domain.revisions.RevisionStrategy;
+import gutek.domain.tags.TagFilter;
 import gutek.entities.decks.DeckBase;
 import gutek.entities.decks.DeckBaseStatistics;
 import gutek.gui.controllers.FXMLController;
@@ -9,6 +10,7 @@ import gutek.gui.controllers.menu.MenuBarFXMLController;
 import gutek.gui.controllers.menu.MenuDeckFXMLController;
 import gutek.services.DeckService;
 import gutek.services.DeckStatisticsService;
+import gutek.services.TagService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
 import gutek.gui.controls.NumberTextField;
@@ -19,6 +21,7 @@ import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.TextField;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
@@ -27,7 +30,9 @@ import javafx.scene.paint.Color;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -35,7 +40,8 @@ import java.util.Optional;
  * <p>
  * This view enables users to initiate regular or reverse revisions of a deck,
  * and allows setting the daily number of new cards to review. The interface displays
- * statistics on new and old cards available for revision in each mode.
+ * statistics on new and old cards available for revision in each mode. A tag filter, such as
+ * {@code verbs and not irregular}, restricts the started revision to the cards selected by their tags.
  */
 @Component
 public class RevisionFXMLController extends FXMLController {
@@ -64,6 +70,24 @@ public class RevisionFXMLController extends FXMLController {
     @FXML
     private NumberTextField newCardsPerDayTextField;
 
+    /**
+     * Label for the tag filter field.
+     */
+    @FXML
+    private Label tagFilterLabel;
+
+    /**
+     * Text field for the tag filter selecting the cards of a filtered revision.
+     */
+    @FXML
+    private TextField tagFilterTextField;
+
+    /**
+     * Label listing the tags used in the deck, or reporting an invalid tag filter.
+     */
+    @FXML
+    private Label deckTagsLabel;
+
     /**
      * Scroll pane for displaying revision buttons.
      */
@@ -131,6 +155,11 @@ public class RevisionFXMLController extends FXMLController {
      */
     private final DeckService deckService;
 
+    /**
+     * Service listing the tags used in the deck.
+     */
+    private final TagService tagService;
+
     /**
      * The deck being revised.
      */
@@ -146,6 +175,7 @@ public class RevisionFXMLController extends FXMLController {
      * @param menuDeckFXMLController Controller for deck-specific menu actions.
      * @param deckService            Service for managing decks.
      * @param deckStatisticsService  Service for managing deck statistics.
+     * @param tagService             Service listing the tags used in the deck.
      */
     protected RevisionFXMLController(MainStage stage,
                                      FXMLFileLoader fxmlFileLoader,
@@ -153,12 +183,14 @@ public class RevisionFXMLController extends FXMLController {
                                      MenuBarFXMLController menuBarFXMLController,
                                      MenuDeckFXMLController menuDeckFXMLController,
                                      DeckService deckService,
-                                     DeckStatisticsService deckStatisticsService) {
+                                     DeckStatisticsService deckStatisticsService,
+                                     TagService tagService) {
         super(stage, fxmlFileLoader, "/fxml/deck/RevisionView.fxml", translationService);
         this.menuBarFXMLController = menuBarFXMLController;
         this.menuDeckFXMLController = menuDeckFXMLController;
         this.deckService = deckService;
         this.deckStatisticsService = deckStatisticsService;
+        this.tagService = tagService;
 
         this.newCardsPerDayListener = (observable, oldValue, newValue) -> updateNewCardsPerDay();
     }
@@ -172,6 +204,9 @@ public class RevisionFXMLController extends FXMLController {
     @Override
     public void initWithParams(Object... params) {
         if (params != null && params.length > 0 && params[0] instanceof DeckBase deckBase) {
+            if (deck == null || !Objects.equals(deck.getIdDeck(), deckBase.getIdDeck())) {
+                tagFilterTextField.clear();
+            }
             this.deck = deckBase;
             if (deck.getDeckBaseStatistics() != null) {
                 Optional<DeckBaseStatistics> statistics = deckStatisticsService.loadDeckStatistics(deck.getDeckBaseStatistics().getIdDeckStatistics());
@@ -207,6 +242,11 @@ public class RevisionFXMLController extends FXMLController {
         newCardsPerDayTextField.setStyle(fontSizeStyle + radiusStyle);
         newCardsPerDayTextField.setPrefSize(150 * scaleFactor, 30 * scaleFactor);
         newCardsPerDayLabel.setPrefSize(labelWidth * 3, labelHeight);
+        tagFilterLabel.setStyle(fontSizeStyle);
+        tagFilterLabel.setPrefSize(labelWidth * 3, labelHeight);
+        tagFilterTextField.setStyle(fontSizeStyle + radiusStyle);
+        tagFilterTextField.setPrefSize(150 * scaleFactor, 30 * scaleFactor);
+        deckTagsLabel.setStyle(fontSizeStyle);
 
         newCardsNameLabels.values().forEach(label -> {
             label.setStyle(fontSizeStyle);
@@ -252,6 +292,8 @@ public class RevisionFXMLController extends FXMLController {
         menuDeckFXMLController.updateTranslation();
 
         newCardsPerDayLabel.setText(translationService.getTranslation("deck_view.revise.new_cards_per_day"));
+        tagFilterLabel.setText(translationService.getTranslation("deck_view.revise.tag_filter"));
+        tagFilterTextField.setPromptText(translationService.getTranslation("deck_view.revise.tag_filter_prompt"));
         String revisionString = "revision.";
 
         newCardsNameLabels.forEach((revisionStrategy, nameLabel) -> {
@@ -303,6 +345,40 @@ public class RevisionFXMLController extends FXMLController {
             int updatedCount = entry.getKey().getRevisionStrategyCardsCount(deckService, deck);
             entry.getValue().setText(String.valueOf(updatedCount));
         }
+        showDeckTags();
+    }
+
+    /**
+     * Lists the tags used in the deck below the tag filter field.
+     */
+    private void showDeckTags() {
+        List<String> deckTags = tagService.findDeckTags(deck);
+        deckTagsLabel.setTextFill(Color.BLACK);
+        deckTagsLabel.setText(deckTags.isEmpty() ? "" :
+                translationService.getTranslation("deck_view.revise.deck_tags") + ": " + String.join(", ", deckTags));
+    }
+
+    /**
+     * Starts the revision of the given strategy, restricted to the cards selected by the tag filter if one is typed.
+     * An invalid tag filter is reported below the filter field and the revision is not started.
+     *
+     * @param revisionStrategy the revision strategy
+     */
+    private void startRevision(RevisionStrategy<?> revisionStrategy) {
+        String tagFilterText = tagFilterTextField.getText();
+        if (tagFilterText == null || tagFilterText.isBlank()) {
+            stage.setScene(revisionStrategy.getRevisionStrategyScene(), deck);
+            return;
+        }
+        TagFilter tagFilter;
+        try {
+            tagFilter = TagFilter.parse(tagFilterText);
+        } catch (IllegalArgumentException e) {
+            deckTagsLabel.setTextFill(Color.RED);
+            deckTagsLabel.setText(translationService.getTranslation("deck_view.revise.invalid_tag_filter"));
+            return;
+        }
+        stage.setScene(revisionStrategy.getRevisionStrategyScene(), deck, tagFilter);
     }
 
     /**
@@ -321,7 +397,7 @@ public class RevisionFXMLController extends FXMLController {
 
         deck.getRevisionAlgorithm().getAvailableRevisionStrategies().forEach(revisionStrategy -> {
             Button revisionButton = new Button();
-            revisionButton.setOnAction(e -> stage.setScene(revisionStrategy.getRevisionStrategyScene(), deck));
+            revisionButton.setOnAction(e -> startRevision(revisionStrategy));
             revisionButton.setTextFill(revisionStrategy.getRevisionStrategyColor());
             revisionButtons.put(revisionStrategy, revisionButton);
 
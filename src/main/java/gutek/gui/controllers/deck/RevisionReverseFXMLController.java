@@ -2,6 +2,7 @@ package gutek.gui.controllers.deck;
 
 import gutek.domain.revisions.ReverseTextModeRevisionStrategy;
 import gutek.domain.revisions.RevisionStrategy;
+import gutek.domain.tags.TagFilter;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.cards.CardBase;
 import gutek.entities.decks.DeckBase;
@@ -110,6 +111,11 @@ public class RevisionReverseFXMLController extends FXMLController {
      */
     private final DeckService deckService;
 
+    /**
+     * Service providing the clock used for dating revisions.
+     */
+    private final ClockService clockService;
+
     /**
      * Service for managing card-related operations.
      */
@@ -167,6 +173,7 @@ public class RevisionReverseFXMLController extends FXMLController {
      * @param deckStatisticsService  Service for managing deck statistics.
      * @param cardRevisionService    Service for handling card revisions.
      * @param deckService            Service for managing deck-related operations.
+     * @param clockService           Service providing the clock of the application.
      */
     public RevisionReverseFXMLController(MainStage stage,
                                          FXMLFileLoader fxmlFileLoader,
@@ -176,9 +183,11 @@ public class RevisionReverseFXMLController extends FXMLController {
                                          CardService cardService,
                                          DeckStatisticsService deckStatisticsService,
                                          CardRevisionService cardRevisionService,
-                                         DeckService deckService) {
+                                         DeckService deckService,
+                                         ClockService clockService) {
         super(stage, fxmlFileLoader, "/fxml/deck/RevisionReverseView.fxml", translationService);
         this.deckService = deckService;
+        this.clockService = clockService;
         this.cardService = cardService;
         this.deckStatisticsService = deckStatisticsService;
         this.cardRevisionService = cardRevisionService;
@@ -190,13 +199,20 @@ public class RevisionReverseFXMLController extends FXMLController {
      * Initializes the view with parameters, setting up the deck and loading cards for revision.
      * Configures the menu components and binds actions for the revision buttons.
      *
-     * @param params Array of parameters, where the first element is expected to be a `DeckBase` instance.
+     * @param params Array of parameters, where the first element is expected to be a `DeckBase` instance,
+     *               optionally followed by a `TagFilter` selecting the cards of a filtered session.
      */
     @Override
     public void initWithParams(Object... params) {
         if (params != null && params.length > 0 && params[0] instanceof DeckBase deckBase) {
-            this.oldCardsList = new ArrayList<>(deckService.getReverseRevisionCards(deckBase));
-            this.newCardsList = new ArrayList<>(deckService.getNewCardsForTodayRevision(deckBase, deckStatisticsService.getNewCardsForToday(deckBase.getDeckBaseStatistics().getIdDeckStatistics())));
+            int newCardsForToday = deckStatisticsService.getNewCardsForToday(deckBase.getDeckBaseStatistics().getIdDeckStatistics());
+            if (params.length > 1 && params[1] instanceof TagFilter tagFilter) {
+                this.oldCardsList = new ArrayList<>(deckService.getReverseRevisionCards(deckBase, tagFilter));
+                this.newCardsList = new ArrayList<>(deckService.getNewCardsForTodayRevision(deckBase, newCardsForToday, tagFilter));
+            } else {
+                this.oldCardsList = new ArrayList<>(deckService.getReverseRevisionCards(deckBase));
+                this.newCardsList = new ArrayList<>(deckService.getNewCardsForTodayRevision(deckBase, newCardsForToday));
+            }
             menuDeckFXMLController.initWithParams(deckBase);
         }
         menuBarFXMLController.initWithParams();
@@ -371,6 +387,7 @@ public class RevisionReverseFXMLController extends FXMLController {
     private <T extends CardBase> Pane loadAlgorithmButtons() {
         RevisionAlgorithm<T> algorithm = (RevisionAlgorithm<T>) currentCard.getDeck().getRevisionAlgorithm();
         algorithm.setTranslationService(translationService);
+        algorithm.setClock(clockService.getClock());
         algorithm.initializeGUI(stage.getStage().getWidth(), rootPane.getCenter().getBoundsInLocal().getHeight() / 3, stage.getStageScaleFactor());
 
         List<RevisionStrategy<T>> strategies = algorithm.getAvailableRevisionStrategies();
@@ -1,21 +1,29 @@
 package gutek.gui.controllers.deck;
 
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardSummary;
+import gutek.domain.search.PagedCardList;
 import gutek.entities.cards.CardBase;
 import gutek.entities.decks.DeckBase;
 import gutek.gui.controllers.FXMLController;
 import gutek.gui.controllers.MainStage;
+import gutek.gui.controllers.MainStageScenes;
 import gutek.gui.controllers.menu.MenuBarFXMLController;
 import gutek.gui.controllers.menu.MenuDeckFXMLController;
 import gutek.services.CardService;
+import gutek.services.DifficultCardService;
 import gutek.gui.controls.CardCell;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
 import gutek.utils.ImageUtil;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ListView;
@@ -23,20 +31,36 @@ import javafx.scene.control.TextField;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 import lombok.Getter;
 import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.Locale;
+import java.util.stream.Collectors;
 
 /**
  * Controller class for searching cards within a deck.
  * <p>
  * This view provides a form for searching cards by their front or back text and displays matching results
- * in a list, with options to edit or delete each card.
+ * in a list, with options to edit or delete each card. The leeches of the deck can also be listed instantly
+ * from the difficult cards index, without scanning the deck, and all matching cards can be edited at once
+ * in the bulk edit view.
+ * <p>
+ * Without search terms, the whole deck is browsed with a {@link PagedCardList}: only the pages of the list which
+ * are scrolled to are read, as summaries of the cards, so browsing a large deck never loads it whole.
+ * <p>
+ * The search also runs as the user types: it starts once the search terms have not changed for
+ * {@value #SEARCH_DELAY_MILLIS} milliseconds, and it runs in the background, so typing never waits for the database.
+ * Starting a new search cancels the one in progress, and only the result of the latest search is displayed.
  */
 @Component
 public class RevisionSearchFXMLController extends FXMLController {
 
+    /**
+     * Time in milliseconds the search terms have to stay unchanged before the search starts.
+     */
+    static final int SEARCH_DELAY_MILLIS = 300;
+
     /**
      * Root pane containing the main layout for this view.
      */
@@ -67,6 +91,18 @@ public class RevisionSearchFXMLController extends FXMLController {
     @FXML
     private Button searchButton;
 
+    /**
+     * Button listing the leeches of the deck.
+     */
+    @FXML
+    private Button leechesButton;
+
+    /**
+     * Button opening the view editing all matching cards of the deck at once.
+     */
+    @FXML
+    private Button bulkEditButton;
+
     /**
      * Icon for the "searchButton".
      */
@@ -76,7 +112,7 @@ public class RevisionSearchFXMLController extends FXMLController {
      * List view displaying the search results, showing cards that match the search terms.
      */
     @FXML
-    private ListView<CardBase> cardListView;
+    private ListView<CardSummary> cardListView;
 
     /**
      * Property representing the current scale factor, used to adjust component sizes.
@@ -95,6 +131,11 @@ public class RevisionSearchFXMLController extends FXMLController {
      */
     private final CardService cardService;
 
+    /**
+     * Service listing the most difficult cards of the deck.
+     */
+    private final DifficultCardService difficultCardService;
+
     /**
      * Controller for the main menu bar of the application.
      */
@@ -110,6 +151,16 @@ public class RevisionSearchFXMLController extends FXMLController {
      */
     private DeckBase deck;
 
+    /**
+     * Delay restarted on every change of the search terms, starting the search when it elapses.
+     */
+    private PauseTransition searchDelay;
+
+    /**
+     * Job finding the cards matching the search terms, or {@code null} if no search is in progress.
+     */
+    private BackgroundJob<List<CardBase>> runningSearchJob;
+
     /**
      * Constructs a new `RevisionSearchFXMLController` for searching cards in a deck.
      *
@@ -119,22 +170,26 @@ public class RevisionSearchFXMLController extends FXMLController {
      * @param menuBarFXMLController Controller for the main menu bar.
      * @param menuDeckFXMLController Controller for deck-specific menu actions.
      * @param cardService           Service for managing cards.
+     * @param difficultCardService  Service listing the most difficult cards of the deck.
      */
     public RevisionSearchFXMLController(MainStage stage,
                                         FXMLFileLoader fxmlFileLoader,
                                         TranslationService translationService,
                                         MenuBarFXMLController menuBarFXMLController,
                                         MenuDeckFXMLController menuDeckFXMLController,
-                                        CardService cardService) {
+                                        CardService cardService,
+                                        DifficultCardService difficultCardService) {
         super(stage, fxmlFileLoader, "/fxml/deck/RevisionSearchView.fxml", translationService);
         this.cardService = cardService;
+        this.difficultCardService = difficultCardService;
         this.menuBarFXMLController = menuBarFXMLController;
         this.menuDeckFXMLController = menuDeckFXMLController;
     }
 
     /**
      * Initializes the view with parameters, setting up the deck and configuring the menu components.
-     * Binds the search button action to update the view with search results.
+     * Binds the search button action to update the view with search results, and starts a delayed search
+     * whenever the search terms change.
      *
      * @param params Array of parameters, where the first element is expected to be a `DeckBase` instance.
      */
@@ -148,7 +203,15 @@ public class RevisionSearchFXMLController extends FXMLController {
 
         menuContainer.getChildren().setAll(menuBarFXMLController.getRoot(), menuDeckFXMLController.getRoot());
 
+        if (searchDelay == null) {
+            searchDelay = new PauseTransition(Duration.millis(SEARCH_DELAY_MILLIS));
+            searchDelay.setOnFinished(e -> search());
+            frontInCardTextField.textProperty().addListener((observable, oldText, newText) -> searchDelay.playFromStart());
+            backInCardTextField.textProperty().addListener((observable, oldText, newText) -> searchDelay.playFromStart());
+        }
         searchButton.setOnAction(e -> updateView());
+        leechesButton.setOnAction(e -> showLeeches());
+        bulkEditButton.setOnAction(e -> stage.setScene(MainStageScenes.REVISION_BULK_EDIT_SCENE, deck));
 
         cardListView.setCellFactory(listView ->
                 new CardCell(translationService, stage, fxmlFileLoader, cardService, this));
@@ -173,10 +236,14 @@ public class RevisionSearchFXMLController extends FXMLController {
         frontInCardTextField.setStyle(fontSizeStyle + radiusStyle);
         backInCardTextField.setStyle(fontSizeStyle + radiusStyle);
         searchButton.setStyle(fontSizeStyle + " -fx-background-color: green; -fx-text-fill: white;" + radiusStyle);
+        leechesButton.setStyle(fontSizeStyle + " -fx-background-color: darkorange; -fx-text-fill: white;" + radiusStyle);
+        bulkEditButton.setStyle(fontSizeStyle + " -fx-background-color: blue; -fx-text-fill: white;" + radiusStyle);
 
         frontInCardTextField.setPrefSize(200 * scaleFactor, 30 * scaleFactor);
         backInCardTextField.setPrefSize(200 * scaleFactor, 30 * scaleFactor);
         searchButton.setPrefSize(200 * scaleFactor, 40 * scaleFactor);
+        leechesButton.setPrefSize(200 * scaleFactor, 40 * scaleFactor);
+        bulkEditButton.setPrefSize(200 * scaleFactor, 40 * scaleFactor);
 
         updateIcons(scaleFactor);
     }
@@ -194,29 +261,95 @@ public class RevisionSearchFXMLController extends FXMLController {
         frontInCardTextField.setPromptText(translationService.getTranslation("deck_view.search_card.front_phase"));
         backInCardTextField.setPromptText(translationService.getTranslation("deck_view.search_card.back_phase"));
         searchButton.setText(translationService.getTranslation("deck_view.search_card.search"));
+        leechesButton.setText(translationService.getTranslation("deck_view.search_card.leeches"));
+        bulkEditButton.setText(translationService.getTranslation("deck_view.search_card.bulk_edit"));
     }
 
     /**
-     * Executes a search based on the user's input and displays the results in the card list view.
+     * Updates the menus and starts a search based on the user's input.
      */
     @Override
     public void updateView() {
         menuBarFXMLController.updateView();
         menuDeckFXMLController.updateView();
 
+        search();
+    }
+
+    /**
+     * Starts a search based on the user's input in the background, cancelling the search in progress.
+     * The results are displayed in the card list view once the search completes.
+     * Without search terms, the cards of the deck are browsed page by page instead.
+     */
+    private void search() {
+        cancelRunningSearch();
+
         String frontSearchTerm = frontInCardTextField.getText().trim();
         String backSearchTerm = backInCardTextField.getText().trim();
+        if (frontSearchTerm.isEmpty() && backSearchTerm.isEmpty()) {
+            cardListView.setItems(new PagedCardList(cardService.getCardPageSource(deck)));
+            return;
+        }
 
-        List<CardBase> cards = cardService.findCardsByUser(frontSearchTerm, backSearchTerm, deck);
-        cardListView.setItems(FXCollections.observableArrayList(cards));
+        BackgroundJob<List<CardBase>> job = cardService.findCardsByUserInBackground(frontSearchTerm, backSearchTerm, deck);
+        runningSearchJob = job;
+        job.getResult().whenComplete((cards, throwable) ->
+                Platform.runLater(() -> showSearchResults(job, cards)));
+    }
+
+    /**
+     * Cancels the delayed search and the search in progress, if any.
+     */
+    private void cancelRunningSearch() {
+        if (searchDelay != null) {
+            searchDelay.stop();
+        }
+        if (runningSearchJob != null) {
+            runningSearchJob.cancel();
+            runningSearchJob = null;
+        }
+    }
+
+    /**
+     * Displays the cards found by a search in the card list view.
+     * Results of cancelled or replaced searches are ignored; if the search failed, the list is cleared.
+     *
+     * @param job   the job which found the cards
+     * @param cards the found cards, or {@code null} if the search failed or was cancelled
+     */
+    private void showSearchResults(BackgroundJob<List<CardBase>> job, List<CardBase> cards) {
+        if (job != runningSearchJob) {
+            return;
+        }
+        runningSearchJob = null;
+        cardListView.setItems(toSummaries(cards != null ? cards : List.of()));
+    }
+
+    /**
+     * Displays the leeches of the deck in the card list view, read from the difficult cards index.
+     * The search in progress, if any, is cancelled, so its results do not replace the leeches.
+     */
+    public void showLeeches() {
+        cancelRunningSearch();
+        cardListView.setItems(toSummaries(difficultCardService.getLeeches(deck)));
+    }
+
+    /**
+     * Converts the cards into the items of the card list view.
+     *
+     * @param cards the cards to display
+     * @return the observable list of the summaries of the cards
+     */
+    private ObservableList<CardSummary> toSummaries(List<CardBase> cards) {
+        return cards.stream().map(CardSummary::of).collect(Collectors.toCollection(FXCollections::observableArrayList));
     }
 
     /**
      * Removes a specified card from the list view.
      *
-     * @param card The card to remove from the search results list.
+     * @param card The summary of the card to remove from the search results list.
      */
-    public void removeCardFromListView(CardBase card){
+    public void removeCardFromListView(CardSummary card){
         cardListView.getItems().remove(card);
     }
 
@@ -1,17 +1,24 @@
 package gutek.gui.controllers.deck;
 
 import gutek.domain.algorithms.AlgorithmHiperparameter;
+import gutek.domain.algorithms.FsrsFitResult;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.entities.algorithms.FsrsRevisionAlgorithm;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.decks.DeckBase;
 import gutek.gui.controllers.FXMLController;
 import gutek.gui.controllers.MainStage;
+import gutek.gui.controllers.MainStageScenes;
 import gutek.gui.controllers.menu.MenuBarFXMLController;
 import gutek.gui.controllers.menu.MenuDeckFXMLController;
+import gutek.services.FsrsOptimizationService;
+import gutek.services.ReschedulingService;
 import gutek.services.RevisionAlgorithmService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
 import gutek.utils.ImageUtil;
 import gutek.utils.validation.FieldValueValidator;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -37,6 +44,8 @@ import static gutek.utils.AlertMessageUtil.*;
  * <p>
  * This view provides a graphical interface for displaying, adjusting, and saving the hyperparameters
  * of the algorithm associated with a selected deck. Users can modify settings and persist the changes.
+ * Optionally, the existing cards of the deck can be rescheduled in the background using the saved settings.
+ * For the FSRS algorithm, the weights can also be fitted to the deck's revision history in the background.
  */
 @Component
 public class RevisionSettingsFXMLController extends FXMLController {
@@ -76,6 +85,47 @@ public class RevisionSettingsFXMLController extends FXMLController {
      */
     private ImageView saveButtonIcon;
 
+    /**
+     * Check box deciding whether existing cards should be rescheduled after saving the settings.
+     */
+    @FXML
+    private CheckBox rescheduleCheckBox;
+
+    /**
+     * Container of the rescheduling progress components, visible only while rescheduling is running.
+     */
+    @FXML
+    private HBox rescheduleProgressBox;
+
+    /**
+     * Progress bar showing the progress of rescheduling.
+     */
+    @FXML
+    private ProgressBar rescheduleProgressBar;
+
+    /**
+     * Button for cancelling the running rescheduling.
+     */
+    @FXML
+    private Button rescheduleCancelButton;
+
+    /**
+     * Button for fitting the weights of the FSRS algorithm to the revision history, visible only for that algorithm.
+     */
+    @FXML
+    private Button optimizeButton;
+
+    /**
+     * Button opening the view cloning the deck or merging it into another deck.
+     */
+    @FXML
+    private Button copyButton;
+
+    /**
+     * The currently running rescheduling or optimization job, or {@code null} if none is running.
+     */
+    private BackgroundJob<?> runningJob;
+
     /**
      * Controller for the main menu bar of the application.
      */
@@ -101,6 +151,16 @@ public class RevisionSettingsFXMLController extends FXMLController {
      */
     private final RevisionAlgorithmService revisionAlgorithmService;
 
+    /**
+     * Service responsible for rescheduling existing cards.
+     */
+    private final ReschedulingService reschedulingService;
+
+    /**
+     * Service responsible for fitting the weights of the FSRS algorithm.
+     */
+    private final FsrsOptimizationService fsrsOptimizationService;
+
     /**
      * Constructs a new `RevisionSettingsFXMLController` for managing and adjusting revision algorithm settings.
      *
@@ -110,17 +170,23 @@ public class RevisionSettingsFXMLController extends FXMLController {
      * @param menuBarFXMLController    Controller for the main menu bar.
      * @param menuDeckFXMLController   Controller for deck-specific menu actions.
      * @param revisionAlgorithmService Service for managing algorithm-related operations.
+     * @param reschedulingService      Service for rescheduling existing cards.
+     * @param fsrsOptimizationService  Service for fitting the weights of the FSRS algorithm.
      */
     public RevisionSettingsFXMLController(MainStage stage,
                                           FXMLFileLoader fxmlFileLoader,
                                           TranslationService translationService,
                                           MenuBarFXMLController menuBarFXMLController,
                                           MenuDeckFXMLController menuDeckFXMLController,
-                                          RevisionAlgorithmService revisionAlgorithmService) {
+                                          RevisionAlgorithmService revisionAlgorithmService,
+                                          ReschedulingService reschedulingService,
+                                          FsrsOptimizationService fsrsOptimizationService) {
         super(stage, fxmlFileLoader, "/fxml/deck/RevisionSettingsView.fxml", translationService);
         this.menuBarFXMLController = menuBarFXMLController;
         this.menuDeckFXMLController = menuDeckFXMLController;
         this.revisionAlgorithmService = revisionAlgorithmService;
+        this.reschedulingService = reschedulingService;
+        this.fsrsOptimizationService = fsrsOptimizationService;
     }
 
     /**
@@ -140,6 +206,9 @@ public class RevisionSettingsFXMLController extends FXMLController {
         menuContainer.getChildren().setAll(menuBarFXMLController.getRoot(), menuDeckFXMLController.getRoot());
 
         saveButton.setOnAction(e -> saveSettings());
+        rescheduleCancelButton.setOnAction(e -> cancelRunningJob());
+        optimizeButton.setOnAction(e -> startOptimization());
+        copyButton.setOnAction(e -> stage.setScene(MainStageScenes.REVISION_COPY_SCENE, deck));
 
         initializeIcons();
     }
@@ -153,6 +222,9 @@ public class RevisionSettingsFXMLController extends FXMLController {
         hiperparameterFields = new HashMap<>();
 
         RevisionAlgorithm<?> algorithm = deck.getRevisionAlgorithm();
+        boolean optimizable = algorithm instanceof FsrsRevisionAlgorithm;
+        optimizeButton.setVisible(optimizable);
+        optimizeButton.setManaged(optimizable);
         Field[] fields = algorithm.getClass().getDeclaredFields();
 
         for (Field field : fields) {
@@ -218,6 +290,118 @@ public class RevisionSettingsFXMLController extends FXMLController {
             }
         }
         showInfoAlert(translationService.getTranslation("deck_view.settings.save_success"), translationService, stage);
+
+        if (rescheduleCheckBox.isSelected()) {
+            startRescheduling();
+        }
+    }
+
+    /**
+     * Starts rescheduling the deck's cards in the background and shows its progress.
+     * The settings cannot be saved again until the rescheduling finishes.
+     */
+    private void startRescheduling() {
+        setRescheduleRunning(true);
+        rescheduleProgressBar.setProgress(0);
+
+        BackgroundJob<Integer> job = reschedulingService.rescheduleDeck(deck, (processed, total) ->
+                Platform.runLater(() -> rescheduleProgressBar.setProgress(total == 0 ? 1 : (double) processed / total)));
+        runningJob = job;
+        job.getResult().whenComplete((rescheduledCount, throwable) ->
+                Platform.runLater(() -> finishRescheduling(job, rescheduledCount, throwable)));
+    }
+
+    /**
+     * Requests the running rescheduling or optimization to stop.
+     */
+    private void cancelRunningJob() {
+        if (runningJob != null) {
+            runningJob.cancel();
+            rescheduleCancelButton.setDisable(true);
+        }
+    }
+
+    /**
+     * Hides the rescheduling progress and informs the user about the outcome of the rescheduling.
+     *
+     * @param job              the finished job
+     * @param rescheduledCount the number of rescheduled cards, or {@code null} if the job failed
+     * @param throwable        the cause of the failure, or {@code null} if the job succeeded
+     */
+    private void finishRescheduling(BackgroundJob<Integer> job, Integer rescheduledCount, Throwable throwable) {
+        runningJob = null;
+        setRescheduleRunning(false);
+
+        if (throwable != null) {
+            showErrorAlert(translationService.getTranslation("deck_view.settings.reschedule_failed") + "\n" + throwable.getMessage(), translationService, stage);
+        } else if (job.isCancelled()) {
+            showInfoAlert(translationService.getTranslation("deck_view.settings.reschedule_cancelled"), translationService, stage);
+        } else {
+            showInfoAlert(translationService.getTranslation("deck_view.settings.reschedule_success")
+                    .replace("{count}", String.valueOf(rescheduledCount)), translationService, stage);
+        }
+    }
+
+    /**
+     * Starts fitting the weights of the FSRS algorithm in the background and shows its progress.
+     * The fitted weights are only filled into the text fields; they are applied when the user saves the settings.
+     */
+    private void startOptimization() {
+        setRescheduleRunning(true);
+        rescheduleProgressBar.setProgress(0);
+
+        BackgroundJob<FsrsFitResult> job = fsrsOptimizationService.optimizeDeck(deck, (processed, total) ->
+                Platform.runLater(() -> rescheduleProgressBar.setProgress(total == 0 ? 1 : (double) processed / total)));
+        runningJob = job;
+        job.getResult().whenComplete((result, throwable) ->
+                Platform.runLater(() -> finishOptimization(result, throwable)));
+    }
+
+    /**
+     * Hides the optimization progress, fills the fitted weights into the text fields
+     * and informs the user about the outcome of the optimization.
+     *
+     * @param result    the result of the optimization, or {@code null} if the job failed
+     * @param throwable the cause of the failure, or {@code null} if the job succeeded
+     */
+    private void finishOptimization(FsrsFitResult result, Throwable throwable) {
+        runningJob = null;
+        setRescheduleRunning(false);
+
+        if (throwable != null) {
+            showErrorAlert(translationService.getTranslation("deck_view.settings.optimize_failed") + "\n" + throwable.getMessage(), translationService, stage);
+        } else if (result.predictedReviewsCount() < FsrsOptimizationService.MIN_REVIEWS) {
+            showInfoAlert(translationService.getTranslation("deck_view.settings.optimize_not_enough_reviews")
+                    .replace("{count}", String.valueOf(result.predictedReviewsCount()))
+                    .replace("{required}", String.valueOf(FsrsOptimizationService.MIN_REVIEWS)), translationService, stage);
+        } else {
+            double[] weights = result.weights();
+            for (int i = 0; i < weights.length; i++) {
+                TextField textField = hiperparameterFields.get("weight" + i);
+                if (textField != null) {
+                    textField.setText(String.valueOf(Math.round(weights[i] * 10000) / 10000.0));
+                }
+            }
+            showInfoAlert(translationService.getTranslation("deck_view.settings.optimize_success")
+                    .replace("{count}", String.valueOf(result.predictedReviewsCount()))
+                    .replace("{initialLoss}", String.format("%.4f", result.initialLogLoss()))
+                    .replace("{loss}", String.format("%.4f", result.logLoss())), translationService, stage);
+        }
+    }
+
+    /**
+     * Switches the view between the idle state and the state of a running background job.
+     *
+     * @param running true if rescheduling or optimization is running, false otherwise
+     */
+    private void setRescheduleRunning(boolean running) {
+        rescheduleProgressBox.setVisible(running);
+        rescheduleProgressBox.setManaged(running);
+        rescheduleCancelButton.setDisable(false);
+        saveButton.setDisable(running);
+        rescheduleCheckBox.setDisable(running);
+        optimizeButton.setDisable(running);
+        copyButton.setDisable(running);
     }
 
     /**
@@ -237,6 +421,15 @@ public class RevisionSettingsFXMLController extends FXMLController {
         saveButton.setStyle(fontSizeStyle + " -fx-background-color: green; -fx-text-fill: white;" + radiusStyle);
         saveButton.setPrefSize(200 * scaleFactor, 40 * scaleFactor);
 
+        rescheduleCheckBox.setStyle(fontSizeStyle);
+        optimizeButton.setStyle(fontSizeStyle + radiusStyle);
+        optimizeButton.setPrefSize(200 * scaleFactor, 40 * scaleFactor);
+        copyButton.setStyle(fontSizeStyle + radiusStyle);
+        copyButton.setPrefSize(200 * scaleFactor, 40 * scaleFactor);
+        rescheduleCancelButton.setStyle(fontSizeStyle + " -fx-background-color: red; -fx-text-fill: white;" + radiusStyle);
+        rescheduleCancelButton.setPrefSize(150 * scaleFactor, 40 * scaleFactor);
+        rescheduleProgressBar.setPrefSize(300 * scaleFactor, 20 * scaleFactor);
+
         for (HBox hbox : settingsContainer.getChildren().stream()
                 .filter(HBox.class::isInstance)
                 .map(HBox.class::cast)
@@ -269,6 +462,10 @@ public class RevisionSettingsFXMLController extends FXMLController {
         menuDeckFXMLController.updateTranslation();
 
         saveButton.setText(translationService.getTranslation("deck_view.settings.save_button"));
+        rescheduleCheckBox.setText(translationService.getTranslation("deck_view.settings.reschedule_checkbox"));
+        rescheduleCancelButton.setText(translationService.getTranslation("deck_view.settings.reschedule_cancel"));
+        optimizeButton.setText(translationService.getTranslation("deck_view.settings.optimize_button"));
+        copyButton.setText(translationService.getTranslation("deck_view.settings.copy_button"));
 
         for (HBox hbox : settingsContainer.getChildren().stream()
                 .filter(HBox.class::isInstance)
@@ -1,5 +1,7 @@
 package gutek.gui.controllers.deck;
 
+import gutek.domain.charts.ChartData;
+import gutek.domain.jobs.BackgroundJob;
 import gutek.entities.decks.DeckBase;
 import gutek.gui.controllers.FXMLController;
 import gutek.gui.controllers.MainStage;
@@ -8,10 +10,12 @@ import gutek.gui.controllers.menu.MenuDeckFXMLController;
 import gutek.services.ChartService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.chart.Chart;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
@@ -23,6 +27,8 @@ import org.springframework.stereotype.Component;
  * <p>
  * This view enables users to select various chart types and time ranges, updating dynamically
  * to show visualizations of deck revision statistics based on the selections.
+ * The chart data is computed in the background while a progress indicator is displayed;
+ * selecting another chart or range cancels the computation in progress.
  */
 @Component
 public class RevisionStatisticsFXMLController extends FXMLController {
@@ -79,6 +85,11 @@ public class RevisionStatisticsFXMLController extends FXMLController {
      */
     private DeckBase deck;
 
+    /**
+     * Job computing the data of the selected chart, or {@code null} if no computation is in progress.
+     */
+    private BackgroundJob<ChartData> runningChartJob;
+
     /**
      * Controller for managing the main menu bar of the application.
      */
@@ -168,13 +179,24 @@ public class RevisionStatisticsFXMLController extends FXMLController {
         chartTypeComboBox.setPrefSize(300 * scaleFactor, 40 * scaleFactor);
         timeRangeComboBox.setPrefSize(200 * scaleFactor, 40 * scaleFactor);
 
+        chartContainer.setPrefSize(stage.getStage().getWidth(), 300 * scaleFactor);
+        updateChartSize();
+    }
+
+    /**
+     * Adjusts the size of the displayed chart or progress indicator to the size of the chart container.
+     */
+    private void updateChartSize() {
         double chartWidth = stage.getStage().getWidth();
-        double chartHeight = 300 * scaleFactor;
-        chartContainer.setPrefSize(chartWidth, chartHeight);
+        double chartHeight = 300 * stage.getStageScaleFactor();
 
         if (!chartContainer.getChildren().isEmpty() && chartContainer.getChildren().getFirst() instanceof Chart chart) {
             chart.setPrefWidth(chartWidth);
             chart.setPrefHeight(chartHeight);
+        } else if (!chartContainer.getChildren().isEmpty() && chartContainer.getChildren().getFirst() instanceof ProgressIndicator progressIndicator) {
+            double indicatorSize = 50 * stage.getStageScaleFactor();
+            progressIndicator.setPrefSize(indicatorSize, indicatorSize);
+            progressIndicator.relocate((chartWidth - indicatorSize) / 2, (chartHeight - indicatorSize) / 2);
         }
     }
 
@@ -209,7 +231,8 @@ public class RevisionStatisticsFXMLController extends FXMLController {
     }
 
     /**
-     * Updates the view by loading the selected chart and displaying it in the center panel.
+     * Updates the view by starting the computation of the selected chart in the background.
+     * A progress indicator is displayed in the center panel until the chart is ready.
      */
     @Override
     public void updateView(){
@@ -221,10 +244,47 @@ public class RevisionStatisticsFXMLController extends FXMLController {
 
         if (selectedChartTypeIndex >= 0 && selectedChartTypeIndex < chartTypeComboBox.getItems().size()
         && selectedRangeIndex >= 0 && selectedRangeIndex < timeRangeComboBox.getItems().size()) {
-            Chart chart = chartService.getDeckCompatibleSelectedChart(selectedChartTypeIndex, selectedRangeIndex, deck);
-            if(chart != null){
-                chartContainer.getChildren().clear();
+            cancelRunningChartJob();
+            chartContainer.getChildren().setAll(new ProgressIndicator());
+            updateChartSize();
+
+            BackgroundJob<ChartData> job = chartService.computeDeckCompatibleSelectedChartData(selectedChartTypeIndex, selectedRangeIndex, deck);
+            runningChartJob = job;
+            job.getResult().whenComplete((data, throwable) ->
+                    Platform.runLater(() -> showChart(job, selectedChartTypeIndex, data)));
+        }
+    }
+
+    /**
+     * Cancels the computation of the chart data in progress, if any.
+     */
+    private void cancelRunningChartJob() {
+        if (runningChartJob != null) {
+            runningChartJob.cancel();
+            runningChartJob = null;
+        }
+    }
+
+    /**
+     * Displays the chart created from the computed data in the center panel.
+     * Results of cancelled or replaced computations are ignored; if the computation failed, the panel is cleared.
+     *
+     * @param job       the job which computed the data
+     * @param typeIndex the index of the selected chart type
+     * @param data      the computed data, or {@code null} if the computation failed or was cancelled
+     */
+    private void showChart(BackgroundJob<ChartData> job, int typeIndex, ChartData data) {
+        if (job != runningChartJob) {
+            return;
+        }
+        runningChartJob = null;
+
+        chartContainer.getChildren().clear();
+        if (data != null) {
+            Chart chart = chartService.createDeckCompatibleSelectedChart(typeIndex, data, deck);
+            if (chart != null) {
                 chartContainer.getChildren().add(chart);
+                updateChartSize();
             }
         }
     }
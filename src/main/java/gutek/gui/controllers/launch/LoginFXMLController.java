@@ -3,7 +3,9 @@ package gutek.gui.controllers.launch;
 import gutek.gui.controllers.FXMLController;
 import gutek.gui.controllers.MainStage;
 import gutek.gui.controllers.MainStageScenes;
+import gutek.entities.users.AppUser;
 import gutek.services.AppUserService;
+import gutek.services.GlobalSearchService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
 import gutek.utils.ImageUtil;
@@ -69,6 +71,9 @@ public class LoginFXMLController extends FXMLController {
     /** Service for user management. */
     private final AppUserService appUserService;
 
+    /** Service for searching the cards of all decks, whose index is built on logging in. */
+    private final GlobalSearchService globalSearchService;
+
     /**
      * Constructs the `LoginFXMLController`, initializing its components.
      *
@@ -76,10 +81,13 @@ public class LoginFXMLController extends FXMLController {
      * @param fxmlFileLoader     utility for loading the FXML file associated with this view
      * @param translationService the service used for managing translations
      * @param appUserService the service responsible for handling user registration and login
+     * @param globalSearchService the service searching the cards of all decks of the logged user
      */
-    public LoginFXMLController(MainStage stage, FXMLFileLoader fxmlFileLoader, TranslationService translationService, AppUserService appUserService) {
+    public LoginFXMLController(MainStage stage, FXMLFileLoader fxmlFileLoader, TranslationService translationService, AppUserService appUserService,
+                               GlobalSearchService globalSearchService) {
         super( stage, fxmlFileLoader, "/fxml/launch/LoginView.fxml", translationService);
         this.appUserService = appUserService;
+        this.globalSearchService = globalSearchService;
     }
 
     /**
@@ -153,8 +161,7 @@ public class LoginFXMLController extends FXMLController {
 
         boolean success = appUserService.loginUser(username, password);
         if (success) {
-            stage.setLoggedUser(appUserService.findUserByUsername(username).orElse(null));
-            stage.setScene(MainStageScenes.DECKS_SCENE);
+            logIn(username);
         } else {
             showWarningAlert(translationService.getTranslation("login_view.login_failed"), translationService, stage);
         }
@@ -181,13 +188,27 @@ public class LoginFXMLController extends FXMLController {
 
         if (appUserService.findUserByUsername(username).isEmpty()) {
             appUserService.registerUser(username, password);
-            stage.setLoggedUser(appUserService.findUserByUsername(username).orElse(null));
-            stage.setScene(MainStageScenes.DECKS_SCENE);
+            logIn(username);
         } else {
             showWarningAlert(translationService.getTranslation("login_view.user_exists"), translationService, stage);
         }
     }
 
+    /**
+     * Sets the logged user, starts building the index of their cards in the background
+     * and navigates to the decks view.
+     *
+     * @param username the name of the logged user
+     */
+    private void logIn(String username) {
+        AppUser user = appUserService.findUserByUsername(username).orElse(null);
+        stage.setLoggedUser(user);
+        if (user != null) {
+            globalSearchService.buildIndex(user);
+        }
+        stage.setScene(MainStageScenes.DECKS_SCENE);
+    }
+
     /**
      * Handles the action of going back to the language selection view.
      * Navigates the user to the language selection screen.
@@ -1,13 +1,22 @@
 package gutek.gui.controllers.main;
 
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.GlobalSearchResult;
+import gutek.domain.search.TrigramIndex;
 import gutek.entities.decks.DeckBase;
 import gutek.gui.controllers.FXMLController;
 import gutek.gui.controllers.MainStage;
+import gutek.gui.controllers.MainStageScenes;
 import gutek.gui.controllers.menu.MenuBarFXMLController;
 import gutek.gui.controls.DeckCell;
+import gutek.gui.controls.GlobalSearchResultCell;
+import gutek.services.CardService;
 import gutek.services.DeckService;
+import gutek.services.GlobalSearchService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleDoubleProperty;
@@ -15,7 +24,10 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.MouseButton;
 import javafx.scene.layout.BorderPane;
+import javafx.util.Duration;
 import lombok.Getter;
 import org.springframework.stereotype.Component;
 import java.util.List;
@@ -27,10 +39,14 @@ import java.util.Locale;
  * <p>
  * This view provides options for navigating to different functionalities related to deck management,
  * such as adding cards, revising, searching, and viewing statistics.
+ * Typing into the search field searches the cards of all decks instead, showing the found cards in place of the decks.
  */
 @Component
 public class DecksFXMLController extends FXMLController {
 
+    /** Delay in milliseconds between the last change of the searched phrase and the start of the search. */
+    static final int SEARCH_DELAY_MILLIS = 300;
+
     /** The root pane for this view, containing the menu bar and list of decks. */
     @FXML
     private BorderPane rootPane;
@@ -39,6 +55,14 @@ public class DecksFXMLController extends FXMLController {
     @FXML
     private ListView<DeckBase> deckListView;
 
+    /** Text field for the phrase searched in the cards of all decks. */
+    @FXML
+    private TextField globalSearchField;
+
+    /** The ListView displaying the cards found in all decks, shown instead of the decks while searching. */
+    @FXML
+    private ListView<GlobalSearchResult> globalSearchListView;
+
     /** Controller for the menu bar at the top of the view. */
     private final MenuBarFXMLController menuBarFXMLController;
 
@@ -53,6 +77,18 @@ public class DecksFXMLController extends FXMLController {
     /** Service for handling deck operations. */
     private final DeckService deckService;
 
+    /** Service for loading the found cards to edit. */
+    private final CardService cardService;
+
+    /** Service for searching the cards of all decks. */
+    private final GlobalSearchService globalSearchService;
+
+    /** Delay restarted on every change of the searched phrase, starting the search when it elapses. */
+    private PauseTransition searchDelay;
+
+    /** Job finding the cards containing the searched phrase, or {@code null} if no search is in progress. */
+    private BackgroundJob<List<GlobalSearchResult>> runningSearchJob;
+
     /**
      * Constructs the `DecksFXMLController`, initializing components and layout.
      *
@@ -61,14 +97,20 @@ public class DecksFXMLController extends FXMLController {
      * @param translationService  Service for managing translations.
      * @param menuBarFXMLController Controller for the menu bar in this view.
      * @param deckService         Service for managing decks.
+     * @param cardService         Service for loading the found cards.
+     * @param globalSearchService Service for searching the cards of all decks.
      */
     public DecksFXMLController(MainStage stage,
                                FXMLFileLoader fxmlFileLoader,
                                TranslationService translationService,
                                MenuBarFXMLController menuBarFXMLController,
-                               DeckService deckService) {
+                               DeckService deckService,
+                               CardService cardService,
+                               GlobalSearchService globalSearchService) {
         super(stage, fxmlFileLoader, "/fxml/main/DecksView.fxml", translationService);
         this.deckService = deckService;
+        this.cardService = cardService;
+        this.globalSearchService = globalSearchService;
         this.menuBarFXMLController = menuBarFXMLController;
     }
 
@@ -83,6 +125,17 @@ public class DecksFXMLController extends FXMLController {
         rootPane.setTop(menuBarFXMLController.getRoot());
         deckListView.setCellFactory(listView ->
                 new DeckCell(translationService, stage, fxmlFileLoader, deckService, this));
+        globalSearchListView.setCellFactory(listView -> new GlobalSearchResultCell(scaleFactorProperty));
+        globalSearchListView.setOnMouseClicked(event -> {
+            if (event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
+                editSelectedCard();
+            }
+        });
+        if (searchDelay == null) {
+            searchDelay = new PauseTransition(Duration.millis(SEARCH_DELAY_MILLIS));
+            searchDelay.setOnFinished(e -> search());
+            globalSearchField.textProperty().addListener((observable, oldText, newText) -> searchDelay.playFromStart());
+        }
         menuBarFXMLController.initWithParams();
     }
 
@@ -95,6 +148,7 @@ public class DecksFXMLController extends FXMLController {
 
         double scaleFactor = stage.getStageScaleFactor();
         scaleFactorProperty.set(scaleFactor);
+        globalSearchField.setStyle("-fx-font-size: " + (15 * scaleFactor) + "px;");
     }
 
     /**
@@ -104,6 +158,7 @@ public class DecksFXMLController extends FXMLController {
     public void updateTranslation() {
         menuBarFXMLController.updateTranslation();
         currentLocaleProperty.set(translationService.getCurrentLocale());
+        globalSearchField.setPromptText(translationService.getTranslation("decks_view.global_search"));
     }
 
     /**
@@ -115,6 +170,7 @@ public class DecksFXMLController extends FXMLController {
 
         List<DeckBase> decks = deckService.findDecksByUserNotDeleted(stage.getLoggedUser());
         deckListView.setItems(FXCollections.observableArrayList(decks));
+        search();
     }
 
     /**
@@ -125,4 +181,67 @@ public class DecksFXMLController extends FXMLController {
     public void removeDeckFromListView(DeckBase deck){
         deckListView.getItems().remove(deck);
     }
+
+    /**
+     * Starts searching the cards of all decks for the phrase in the background, cancelling the search in progress.
+     * The found cards replace the decks once the search completes; a phrase too short to be searched shows the decks.
+     */
+    private void search() {
+        cancelRunningSearch();
+
+        String phrase = globalSearchField.getText() == null ? "" : globalSearchField.getText().trim();
+        if (!TrigramIndex.isSearchable(phrase)) {
+            showSearchResults(null);
+            return;
+        }
+
+        BackgroundJob<List<GlobalSearchResult>> job = globalSearchService.searchInBackground(stage.getLoggedUser(), phrase);
+        runningSearchJob = job;
+        job.getResult().whenComplete((results, throwable) -> Platform.runLater(() -> {
+            if (job == runningSearchJob) {
+                runningSearchJob = null;
+                showSearchResults(results != null ? results : List.of());
+            }
+        }));
+    }
+
+    /**
+     * Cancels the delayed search and the search in progress, if any.
+     */
+    private void cancelRunningSearch() {
+        if (searchDelay != null) {
+            searchDelay.stop();
+        }
+        if (runningSearchJob != null) {
+            runningSearchJob.cancel();
+            runningSearchJob = null;
+        }
+    }
+
+    /**
+     * Displays the found cards in place of the decks, or the decks again.
+     *
+     * @param results the found cards, or {@code null} to display the decks
+     */
+    private void showSearchResults(List<GlobalSearchResult> results) {
+        boolean searching = results != null;
+        globalSearchListView.setItems(FXCollections.observableArrayList(searching ? results : List.of()));
+        globalSearchListView.setVisible(searching);
+        globalSearchListView.setManaged(searching);
+        deckListView.setVisible(!searching);
+        deckListView.setManaged(!searching);
+    }
+
+    /**
+     * Opens the card selected in the search results for editing.
+     */
+    private void editSelectedCard() {
+        GlobalSearchResult selected = globalSearchListView.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            return;
+        }
+        cancelRunningSearch();
+        cardService.findCardById(selected.card().idCard())
+                .ifPresent(card -> stage.setScene(MainStageScenes.REVISION_EDIT_CARD_SCENE, card));
+    }
 }
@@ -0,0 +1,276 @@
+package gutek.gui.controllers.main;
+
+import gutek.domain.duplicates.DuplicateCandidate;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardSummary;
+import gutek.domain.search.GlobalSearchResult;
+import gutek.entities.cards.CardBase;
+import gutek.gui.controllers.FXMLController;
+import gutek.gui.controllers.MainStage;
+import gutek.gui.controllers.menu.MenuBarFXMLController;
+import gutek.gui.controls.DuplicateCandidateCell;
+import gutek.services.CardService;
+import gutek.services.DuplicateDetectionService;
+import gutek.services.TranslationService;
+import gutek.utils.FXMLFileLoader;
+import javafx.application.Platform;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.BorderPane;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Controller for the Duplicates view, listing the pairs of near-duplicate cards found across all decks of the user.
+ * <p>
+ * The duplicates are searched for in the background when the view is opened. For the selected pair the user can
+ * keep either card and remove the other one, merge the back of the other card into the first one, or dismiss
+ * the pair as not being duplicates.
+ */
+@Component
+public class DuplicatesFXMLController extends FXMLController {
+
+    /** The root pane of the Duplicates view, containing all UI components. */
+    @FXML
+    private BorderPane rootPane;
+
+    /** Button starting a new search for duplicates. */
+    @FXML
+    private Button findButton;
+
+    /** Label describing the state of the search. */
+    @FXML
+    private Label statusLabel;
+
+    /** The ListView displaying the pairs of near-duplicate cards. */
+    @FXML
+    private ListView<DuplicateCandidate> duplicatesListView;
+
+    /** Button keeping the first card of the selected pair and removing the second one. */
+    @FXML
+    private Button keepFirstButton;
+
+    /** Button keeping the second card of the selected pair and removing the first one. */
+    @FXML
+    private Button keepSecondButton;
+
+    /** Button merging the second card of the selected pair into the first one. */
+    @FXML
+    private Button mergeButton;
+
+    /** Button removing the selected pair from the list without changing the cards. */
+    @FXML
+    private Button dismissButton;
+
+    /** Controller for the top menu bar in the Duplicates view. */
+    private final MenuBarFXMLController menuBarFXMLController;
+
+    /** Service finding the near-duplicate cards. */
+    private final DuplicateDetectionService duplicateDetectionService;
+
+    /** Service removing and merging the cards. */
+    private final CardService cardService;
+
+    /** Property representing the scale factor for dynamically resizing UI components. */
+    @Getter
+    private final DoubleProperty scaleFactorProperty = new SimpleDoubleProperty();
+
+    /** Search for duplicates in progress, or {@code null} if none is running. */
+    private BackgroundJob<List<DuplicateCandidate>> runningSearchJob;
+
+    /** Translation key of the text of the status label. */
+    private String statusTranslationKey = "duplicates_view.searching";
+
+    /**
+     * Constructs a new `DuplicatesFXMLController` for reviewing near-duplicate cards.
+     *
+     * @param stage                     The main application stage.
+     * @param fxmlFileLoader            Utility for loading the FXML file for this view.
+     * @param translationService        The service responsible for handling translations.
+     * @param menuBarFXMLController     The controller for the menu bar.
+     * @param duplicateDetectionService The service finding the near-duplicate cards.
+     * @param cardService               The service removing and merging the cards.
+     */
+    public DuplicatesFXMLController(MainStage stage,
+                                    FXMLFileLoader fxmlFileLoader,
+                                    TranslationService translationService,
+                                    MenuBarFXMLController menuBarFXMLController,
+                                    DuplicateDetectionService duplicateDetectionService,
+                                    CardService cardService) {
+        super(stage, fxmlFileLoader, "/fxml/main/DuplicatesView.fxml", translationService);
+        this.menuBarFXMLController = menuBarFXMLController;
+        this.duplicateDetectionService = duplicateDetectionService;
+        this.cardService = cardService;
+    }
+
+    /**
+     * Initializes the Duplicates view, setting up the cell factory of the pairs list, the actions of the buttons
+     * and the menu bar.
+     *
+     * @param params Optional parameters, currently unused.
+     */
+    @Override
+    public void initWithParams(Object... params) {
+        duplicatesListView.setCellFactory(listView -> new DuplicateCandidateCell(scaleFactorProperty, translationService));
+        findButton.setOnAction(e -> findDuplicates());
+        keepFirstButton.setOnAction(e -> resolveSelected(true, false));
+        keepSecondButton.setOnAction(e -> resolveSelected(false, false));
+        mergeButton.setOnAction(e -> resolveSelected(true, true));
+        dismissButton.setOnAction(e -> duplicatesListView.getItems().remove(duplicatesListView.getSelectionModel().getSelectedItem()));
+        for (Button button : List.of(keepFirstButton, keepSecondButton, mergeButton, dismissButton)) {
+            button.disableProperty().bind(duplicatesListView.getSelectionModel().selectedItemProperty().isNull());
+        }
+
+        menuBarFXMLController.initWithParams();
+    }
+
+    /**
+     * Updates the size and layout of the UI components according to the current window size and scaling factor.
+     */
+    @Override
+    public void updateSize() {
+        menuBarFXMLController.updateSize();
+
+        double scaleFactor = stage.getStageScaleFactor();
+        scaleFactorProperty.set(scaleFactor);
+        String fontSizeStyle = "-fx-font-size: " + (14 * scaleFactor) + "px;";
+        String radiusStyle = "-fx-background-radius: " + (20 * scaleFactor) + "; -fx-border-radius: " + (20 * scaleFactor) + ";";
+
+        statusLabel.setStyle(fontSizeStyle);
+        findButton.setStyle(fontSizeStyle + " -fx-background-color: blue; -fx-text-fill: white;" + radiusStyle);
+        keepFirstButton.setStyle(fontSizeStyle + " -fx-background-color: green; -fx-text-fill: white;" + radiusStyle);
+        keepSecondButton.setStyle(fontSizeStyle + " -fx-background-color: green; -fx-text-fill: white;" + radiusStyle);
+        mergeButton.setStyle(fontSizeStyle + " -fx-background-color: blue; -fx-text-fill: white;" + radiusStyle);
+        dismissButton.setStyle(fontSizeStyle + " -fx-background-color: gray; -fx-text-fill: white;" + radiusStyle);
+    }
+
+    /**
+     * Updates the translations for the UI components based on the current locale.
+     */
+    @Override
+    public void updateTranslation() {
+        menuBarFXMLController.updateTranslation();
+
+        findButton.setText(translationService.getTranslation("duplicates_view.find_button"));
+        keepFirstButton.setText(translationService.getTranslation("duplicates_view.keep_first_button"));
+        keepSecondButton.setText(translationService.getTranslation("duplicates_view.keep_second_button"));
+        mergeButton.setText(translationService.getTranslation("duplicates_view.merge_button"));
+        dismissButton.setText(translationService.getTranslation("duplicates_view.dismiss_button"));
+        updateStatusLabel();
+        duplicatesListView.refresh();
+    }
+
+    /**
+     * Updates the view and starts searching for the duplicates of the currently logged-in user.
+     */
+    @Override
+    public void updateView() {
+        rootPane.setTop(menuBarFXMLController.getRoot());
+        menuBarFXMLController.updateView();
+
+        findDuplicates();
+    }
+
+    /**
+     * Starts searching for the duplicates in the background, cancelling the search in progress.
+     * The found pairs replace the listed ones once the search completes.
+     */
+    private void findDuplicates() {
+        if (runningSearchJob != null) {
+            runningSearchJob.cancel();
+        }
+        duplicatesListView.getItems().clear();
+        findButton.setDisable(true);
+        setStatus("duplicates_view.searching");
+
+        BackgroundJob<List<DuplicateCandidate>> job = duplicateDetectionService.findDuplicatesInBackground(stage.getLoggedUser());
+        runningSearchJob = job;
+        job.getResult().whenComplete((candidates, throwable) -> Platform.runLater(() -> {
+            if (job == runningSearchJob) {
+                runningSearchJob = null;
+                findButton.setDisable(false);
+                if (throwable != null || candidates == null) {
+                    setStatus("duplicates_view.error");
+                } else {
+                    duplicatesListView.setItems(FXCollections.observableArrayList(candidates));
+                    setStatus(candidates.isEmpty() ? "duplicates_view.none" : "duplicates_view.found");
+                }
+            }
+        }));
+    }
+
+    /**
+     * Resolves the selected pair by keeping one of its cards and removing the other one, optionally merging
+     * the back of the removed card into the kept one. The pairs of the removed card are removed from the list.
+     *
+     * @param keepFirst {@code true} to keep the first card of the pair, {@code false} to keep the second one
+     * @param merge     {@code true} to merge the back of the removed card into the kept one
+     */
+    private void resolveSelected(boolean keepFirst, boolean merge) {
+        DuplicateCandidate selected = duplicatesListView.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            return;
+        }
+        Long keptCardId = (keepFirst ? selected.first() : selected.second()).card().idCard();
+        Long removedCardId = (keepFirst ? selected.second() : selected.first()).card().idCard();
+        Optional<CardBase> keptCard = cardService.findCardById(keptCardId);
+        Optional<CardBase> removedCard = cardService.findCardById(removedCardId);
+        if (removedCard.isPresent()) {
+            if (merge && keptCard.isPresent()) {
+                cardService.mergeCards(keptCard.get(), removedCard.get());
+            } else {
+                cardService.removeCard(removedCard.get());
+            }
+        }
+
+        CardSummary keptSummary = merge ? keptCard.map(CardSummary::of).orElse(null) : null;
+        List<DuplicateCandidate> remaining = duplicatesListView.getItems().stream()
+                .filter(candidate -> !candidate.first().card().idCard().equals(removedCardId)
+                        && !candidate.second().card().idCard().equals(removedCardId))
+                .map(candidate -> keptSummary == null ? candidate : new DuplicateCandidate(
+                        withSummary(candidate.first(), keptSummary), withSummary(candidate.second(), keptSummary), candidate.similarity()))
+                .toList();
+        duplicatesListView.setItems(FXCollections.observableArrayList(remaining));
+        setStatus(remaining.isEmpty() ? "duplicates_view.none" : "duplicates_view.found");
+    }
+
+    /**
+     * Replaces the texts of a card of a pair with the texts of the merged card, if it is the same card.
+     *
+     * @param card    the card of the pair, together with its deck
+     * @param summary the summary of the merged card
+     * @return the card with the current texts
+     */
+    private static GlobalSearchResult withSummary(GlobalSearchResult card, CardSummary summary) {
+        return card.card().idCard().equals(summary.idCard()) ? new GlobalSearchResult(summary, card.deckId(), card.deckName()) : card;
+    }
+
+    /**
+     * Sets the text of the status label.
+     *
+     * @param translationKey the translation key of the text
+     */
+    private void setStatus(String translationKey) {
+        statusTranslationKey = translationKey;
+        updateStatusLabel();
+    }
+
+    /**
+     * Updates the status label in the current language, followed by the number of pairs if any were found.
+     */
+    private void updateStatusLabel() {
+        String status = translationService.getTranslation(statusTranslationKey);
+        if ("duplicates_view.found".equals(statusTranslationKey)) {
+            status += ": " + duplicatesListView.getItems().size();
+        }
+        statusLabel.setText(status);
+    }
+}
@@ -38,6 +38,10 @@ public class MenuBarFXMLController extends FXMLController {
     @FXML
     private MenuItem trashMenuItem;
 
+    /** Menu item to navigate to the duplicates view, where near-duplicate cards can be reviewed. */
+    @FXML
+    private MenuItem duplicatesMenuItem;
+
     /** Menu item to navigate to the authors view. */
     @FXML
     private MenuItem authorsMenuItem;
@@ -78,6 +82,11 @@ public class MenuBarFXMLController extends FXMLController {
      */
     private ImageView trashIcon;
 
+    /**
+     * Icon for the "Duplicates" menu item. Used to open the view where near-duplicate cards can be reviewed.
+     */
+    private ImageView duplicatesIcon;
+
     /**
      * Icon for the "Authors" menu item. Represents an icon for navigating to the authors view.
      */
@@ -129,6 +138,7 @@ public class MenuBarFXMLController extends FXMLController {
         decksMenuItem.setOnAction(e -> stage.setScene(MainStageScenes.DECKS_SCENE));
         newMenuItem.setOnAction(e -> stage.setScene(MainStageScenes.NEW_DECK_SCENE));
         trashMenuItem.setOnAction(e -> stage.setScene(MainStageScenes.TRASH_SCENE));
+        duplicatesMenuItem.setOnAction(e -> stage.setScene(MainStageScenes.DUPLICATES_SCENE));
         authorsMenuItem.setOnAction(e -> stage.setScene(MainStageScenes.AUTHORS_SCENE));
         exitMenuItem.setOnAction(e -> stage.setScene(MainStageScenes.EXIT));
         logoutMenuItem.setOnAction(e -> {
@@ -173,6 +183,7 @@ public class MenuBarFXMLController extends FXMLController {
         decksMenuItem.setText(translationService.getTranslation("menu_bar.file.decks"));
         newMenuItem.setText(translationService.getTranslation("menu_bar.file.new"));
         trashMenuItem.setText(translationService.getTranslation("menu_bar.file.trash"));
+        duplicatesMenuItem.setText(translationService.getTranslation("menu_bar.file.duplicates"));
         authorsMenuItem.setText(translationService.getTranslation("menu_bar.file.authors"));
         exitMenuItem.setText(translationService.getTranslation("menu_bar.file.exit"));
 
@@ -195,6 +206,7 @@ public class MenuBarFXMLController extends FXMLController {
         decksMenuItem.setStyle(fontSizeStyle);
         newMenuItem.setStyle(fontSizeStyle);
         trashMenuItem.setStyle(fontSizeStyle);
+        duplicatesMenuItem.setStyle(fontSizeStyle);
         authorsMenuItem.setStyle(fontSizeStyle);
         exitMenuItem.setStyle(fontSizeStyle);
         logoutMenuItem.setStyle(fontSizeStyle);
@@ -263,6 +275,8 @@ public class MenuBarFXMLController extends FXMLController {
         newMenuItem.setGraphic(newIcon);
         trashIcon = ImageUtil.createImageView("/images/icons/trash.png");
         trashMenuItem.setGraphic(trashIcon);
+        duplicatesIcon = ImageUtil.createImageView("/images/icons/repeat.png");
+        duplicatesMenuItem.setGraphic(duplicatesIcon);
         authorsIcon = ImageUtil.createImageView("/images/icons/author.png");
         authorsMenuItem.setGraphic(authorsIcon);
         exitIcon = ImageUtil.createImageView("/images/icons/exit.png");
@@ -284,6 +298,7 @@ public class MenuBarFXMLController extends FXMLController {
         ImageUtil.setImageViewSize(decksIcon, 20 * scaleFactor, 20 * scaleFactor);
         ImageUtil.setImageViewSize(newIcon, 20 * scaleFactor, 20 * scaleFactor);
         ImageUtil.setImageViewSize(trashIcon, 20 * scaleFactor, 20 * scaleFactor);
+        ImageUtil.setImageViewSize(duplicatesIcon, 20 * scaleFactor, 20 * scaleFactor);
         ImageUtil.setImageViewSize(authorsIcon, 20 * scaleFactor, 20 * scaleFactor);
         ImageUtil.setImageViewSize(exitIcon, 20 * scaleFactor, 20 * scaleFactor);
         ImageUtil.setImageViewSize(logoutMenuIcon, 20 * scaleFactor, 20 * scaleFactor);
@@ -1,6 +1,6 @@
 package gutek.gui.controls;
 
-import gutek.entities.cards.CardBase;
+import gutek.domain.search.CardSummary;
 import gutek.gui.controllers.MainStage;
 import gutek.gui.controllers.controls.CardCellFXMLController;
 import gutek.gui.controllers.deck.RevisionSearchFXMLController;
@@ -10,16 +10,16 @@ import gutek.utils.FXMLFileLoader;
 import javafx.scene.control.ListCell;
 
 /**
- * Custom cell for displaying `CardBase` objects within a ListView.
- * Each cell loads and displays the content of a `CardBase` using the `CardCellFXMLController`.
+ * Custom cell for displaying `CardSummary` objects within a ListView.
+ * Each cell loads and displays the content of a `CardSummary` using the `CardCellFXMLController`.
  */
-public class CardCell extends ListCell<CardBase> {
+public class CardCell extends ListCell<CardSummary> {
 
     /** Controller responsible for managing the view associated with this cell */
     private final CardCellFXMLController controller;
 
     /** The card currently displayed in this cell */
-    private CardBase currentCard;
+    private CardSummary currentCard;
 
     /**
      * Constructs a new `CardCell` with dependencies required for managing and displaying card information.
@@ -41,13 +41,13 @@ public class CardCell extends ListCell<CardBase> {
     }
 
     /**
-     * Updates the content of the cell to display the `CardBase` object or clears it if empty.
+     * Updates the content of the cell to display the `CardSummary` object or clears it if empty.
      *
-     * @param card  The `CardBase` object to display in this cell
+     * @param card  The `CardSummary` object to display in this cell
      * @param empty Whether this cell should be empty (true) or not (false)
      */
     @Override
-    protected void updateItem(CardBase card, boolean empty) {
+    protected void updateItem(CardSummary card, boolean empty) {
         super.updateItem(card, empty);
 
         if (empty || card == null) {
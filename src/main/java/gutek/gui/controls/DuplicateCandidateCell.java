@@ -0,0 +1,62 @@
+package gutek.gui.controls;
+
+import gutek.domain.duplicates.DuplicateCandidate;
+import gutek.domain.search.GlobalSearchResult;
+import gutek.services.TranslationService;
+import javafx.beans.property.DoubleProperty;
+import javafx.scene.control.ListCell;
+
+import java.util.Locale;
+
+/**
+ * Custom cell for displaying `DuplicateCandidate` objects within a ListView.
+ * Each cell shows the front and back of both suspected duplicates together with the names of their decks,
+ * followed by their estimated similarity, with the font scaled along with the window.
+ */
+public class DuplicateCandidateCell extends ListCell<DuplicateCandidate> {
+
+    /**
+     * Service providing the translated label of the similarity.
+     */
+    private final TranslationService translationService;
+
+    /**
+     * Constructs a new `DuplicateCandidateCell` following the given scale factor.
+     *
+     * @param scaleFactorProperty Property holding the current scale factor of the window
+     * @param translationService  Service providing the translated label of the similarity
+     */
+    public DuplicateCandidateCell(DoubleProperty scaleFactorProperty, TranslationService translationService) {
+        this.translationService = translationService;
+        styleProperty().bind(scaleFactorProperty.multiply(15).asString(Locale.ROOT, "-fx-font-size: %.1fpx;"));
+    }
+
+    /**
+     * Updates the content of the cell to display the `DuplicateCandidate` object or clears it if empty.
+     *
+     * @param candidate The `DuplicateCandidate` object to display in this cell
+     * @param empty     Whether this cell should be empty (true) or not (false)
+     */
+    @Override
+    protected void updateItem(DuplicateCandidate candidate, boolean empty) {
+        super.updateItem(candidate, empty);
+
+        if (empty || candidate == null) {
+            setText(null);
+        } else {
+            setText("1. " + describe(candidate.first()) + "\n2. " + describe(candidate.second()) + "\n"
+                    + translationService.getTranslation("duplicates_view.similarity") + ": "
+                    + Math.round(candidate.similarity() * 100) + "%");
+        }
+    }
+
+    /**
+     * Describes a card of the pair.
+     *
+     * @param card the card together with its deck
+     * @return the front and back of the card, followed by the name of its deck
+     */
+    private static String describe(GlobalSearchResult card) {
+        return card.card().front() + " | " + card.card().back() + " (" + card.deckName() + ")";
+    }
+}
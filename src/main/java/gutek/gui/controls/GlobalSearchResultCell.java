@@ -0,0 +1,41 @@
+package gutek.gui.controls;
+
+import gutek.domain.search.GlobalSearchResult;
+import javafx.beans.property.DoubleProperty;
+import javafx.scene.control.ListCell;
+
+import java.util.Locale;
+
+/**
+ * Custom cell for displaying `GlobalSearchResult` objects within a ListView.
+ * Each cell shows the front and back of the found card together with the name of its deck,
+ * with the font scaled along with the window.
+ */
+public class GlobalSearchResultCell extends ListCell<GlobalSearchResult> {
+
+    /**
+     * Constructs a new `GlobalSearchResultCell` following the given scale factor.
+     *
+     * @param scaleFactorProperty Property holding the current scale factor of the window
+     */
+    public GlobalSearchResultCell(DoubleProperty scaleFactorProperty) {
+        styleProperty().bind(scaleFactorProperty.multiply(15).asString(Locale.ROOT, "-fx-font-size: %.1fpx;"));
+    }
+
+    /**
+     * Updates the content of the cell to display the `GlobalSearchResult` object or clears it if empty.
+     *
+     * @param result The `GlobalSearchResult` object to display in this cell
+     * @param empty  Whether this cell should be empty (true) or not (false)
+     */
+    @Override
+    protected void updateItem(GlobalSearchResult result, boolean empty) {
+        super.updateItem(result, empty);
+
+        if (empty || result == null) {
+            setText(null);
+        } else {
+            setText(result.card().front() + " | " + result.card().back() + " (" + result.deckName() + ")");
+        }
+    }
+}
@@ -4,6 +4,7 @@
  * This package contains the main entry point for the application, represented by the {@link gutek.Main} class.
  * The {@link gutek.Main} class initializes and starts the Spring Boot context, as well as the JavaFX graphical
  * user interface, managing the application's lifecycle and providing the main stage for displaying scenes.
+ * It can also run without the GUI, writing the statistics charts of all decks to report files.
  * </p>
  */
 package gutek;
\ No newline at end of file
@@ -1,11 +1,19 @@
 package gutek.repositories;
 
+import gutek.domain.search.CardSummary;
+import gutek.domain.search.CardText;
 import gutek.entities.cards.CardBase;
 import gutek.entities.decks.DeckBase;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,13 +25,13 @@ import java.util.Optional;
 @Transactional
 public interface CardBaseRepository extends JpaRepository<CardBase, Long> {
     /**
-     * Finds a {@link CardBase} entity by its front text and the associated deck.
+     * Finds the first {@link CardBase} entity of the associated deck whose normalized front text equals the given one.
      *
-     * @param front the front text of the card.
+     * @param frontNormalized the front text normalized by {@link gutek.domain.search.CardSearchText#normalize(String)}.
      * @param deck the associated {@link DeckBase}.
      * @return An {@link Optional} containing the {@link CardBase} if found, otherwise empty.
      */
-    Optional<CardBase> findByFrontAndDeck(String front, DeckBase deck);
+    Optional<CardBase> findFirstByFrontNormalizedAndDeck(String frontNormalized, DeckBase deck);
     /**
      * Finds all {@link CardBase} entities associated with a specific deck.
      *
@@ -32,30 +40,33 @@ public interface CardBaseRepository extends JpaRepository<CardBase, Long> {
      */
     List<CardBase> findByDeck(DeckBase deck);
     /**
-     * Finds all {@link CardBase} entities that contain the given front and back text fragments in the specified deck.
+     * Finds all {@link CardBase} entities whose normalized front and back texts contain the given normalized
+     * fragments in the specified deck.
      *
-     * @param front the fragment of the front text.
-     * @param back the fragment of the back text.
+     * @param front the normalized fragment of the front text.
+     * @param back the normalized fragment of the back text.
      * @param deck the associated {@link DeckBase}.
      * @return A list of {@link CardBase} entities matching the criteria.
      */
-    List<CardBase> findByFrontContainingAndBackContainingAndDeck(String front, String back, DeckBase deck);
+    List<CardBase> findByFrontNormalizedContainingAndBackNormalizedContainingAndDeck(String front, String back, DeckBase deck);
     /**
-     * Finds all {@link CardBase} entities that contain the given front text fragment in the specified deck.
+     * Finds all {@link CardBase} entities whose normalized front text contains the given normalized fragment
+     * in the specified deck.
      *
-     * @param front the fragment of the front text.
+     * @param front the normalized fragment of the front text.
      * @param deck the associated {@link DeckBase}.
      * @return A list of {@link CardBase} entities matching the front text fragment in the specified deck.
      */
-    List<CardBase> findByFrontContainingAndDeck(String front, DeckBase deck);
+    List<CardBase> findByFrontNormalizedContainingAndDeck(String front, DeckBase deck);
     /**
-     * Finds all {@link CardBase} entities that contain the given back text fragment in the specified deck.
+     * Finds all {@link CardBase} entities whose normalized back text contains the given normalized fragment
+     * in the specified deck.
      *
-     * @param back the fragment of the back text.
+     * @param back the normalized fragment of the back text.
      * @param deck the associated {@link DeckBase}.
      * @return A list of {@link CardBase} entities matching the back text fragment in the specified deck.
      */
-    List<CardBase> findByBackContainingAndDeck(String back, DeckBase deck);
+    List<CardBase> findByBackNormalizedContainingAndDeck(String back, DeckBase deck);
 
     /**
      * Counts all cards in the specified deck.
@@ -116,4 +127,241 @@ public interface CardBaseRepository extends JpaRepository<CardBase, Long> {
      * @return a list of {@link CardBase} entities that are new in the deck.
      */
     List<CardBase> findByDeckIdDeckAndIsNewCardTrue(Long idDeck);
+
+    /**
+     * Finds the creation times of all cards in the specified deck.
+     *
+     * @param deckId the identifier of the deck.
+     * @return A list of the creation times, one for every card.
+     */
+    @Query("SELECT c.creationTime FROM CardBase c WHERE c.deck.idDeck = :deckId")
+    List<LocalDateTime> findCreationTimesByDeckId(@Param("deckId") Long deckId);
+
+    /**
+     * Finds the summaries of the cards of the specified deck following the given card, ordered by identifiers.
+     *
+     * @param deckId   the identifier of the deck.
+     * @param afterId  the identifier of the card preceding the found cards.
+     * @param pageable the number of cards to find, as the size of the first page.
+     * @return A list of the summaries of the cards with identifiers greater than the given one.
+     */
+    @Query("SELECT new gutek.domain.search.CardSummary(c.idCard, c.front, c.back) FROM CardBase c " +
+            "WHERE c.deck.idDeck = :deckId AND c.idCard > :afterId ORDER BY c.idCard")
+    List<CardSummary> findSummariesByDeckIdAfter(@Param("deckId") Long deckId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Finds the summaries of the cards of the specified deck preceding the given card, in descending order of identifiers.
+     *
+     * @param deckId   the identifier of the deck.
+     * @param beforeId the identifier of the card following the found cards.
+     * @param pageable the number of cards to find, as the size of the first page.
+     * @return A list of the summaries of the closest cards with identifiers lower than the given one.
+     */
+    @Query("SELECT new gutek.domain.search.CardSummary(c.idCard, c.front, c.back) FROM CardBase c " +
+            "WHERE c.deck.idDeck = :deckId AND c.idCard < :beforeId ORDER BY c.idCard DESC")
+    List<CardSummary> findSummariesByDeckIdBefore(@Param("deckId") Long deckId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * Finds a page of the summaries of the cards of the specified deck, ordered by identifiers.
+     *
+     * @param deckId   the identifier of the deck.
+     * @param pageable the page to find.
+     * @return A list of the summaries of the cards of the page.
+     */
+    @Query("SELECT new gutek.domain.search.CardSummary(c.idCard, c.front, c.back) FROM CardBase c " +
+            "WHERE c.deck.idDeck = :deckId ORDER BY c.idCard")
+    List<CardSummary> findSummariesByDeckId(@Param("deckId") Long deckId, Pageable pageable);
+
+    /**
+     * Finds the texts of the cards with the given identifiers.
+     *
+     * @param cardIds the identifiers of the cards.
+     * @return A list of the texts and decks of the found cards, in no particular order.
+     */
+    @Query("SELECT new gutek.domain.search.CardText(c.idCard, c.deck.idDeck, c.front, c.back) FROM CardBase c " +
+            "WHERE c.idCard IN :cardIds")
+    List<CardText> findTextsByIdCardIn(@Param("cardIds") Collection<Long> cardIds);
+
+    /**
+     * Counts the cards of all decks of a user.
+     *
+     * @param userId the identifier of the user.
+     * @return the number of cards of the user.
+     */
+    int countByDeckUserIdUser(Long userId);
+
+    /**
+     * Finds the texts of the cards of all decks of a user following the given card, ordered by identifiers.
+     *
+     * @param userId   the identifier of the user.
+     * @param afterId  the identifier of the card preceding the found cards.
+     * @param pageable the number of cards to find, as the size of the first page.
+     * @return A list of the texts and decks of the cards with identifiers greater than the given one.
+     */
+    @Query("SELECT new gutek.domain.search.CardText(c.idCard, c.deck.idDeck, c.front, c.back) FROM CardBase c " +
+            "WHERE c.deck.user.idUser = :userId AND c.idCard > :afterId ORDER BY c.idCard")
+    List<CardText> findTextsByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Finds the texts of the cards of the specified deck following the given card, ordered by identifiers.
+     *
+     * @param deckId   the identifier of the deck.
+     * @param afterId  the identifier of the card preceding the found cards.
+     * @param pageable the number of cards to find, as the size of the first page.
+     * @return A list of the texts of the cards with identifiers greater than the given one.
+     */
+    @Query("SELECT new gutek.domain.search.CardText(c.idCard, c.deck.idDeck, c.front, c.back) FROM CardBase c " +
+            "WHERE c.deck.idDeck = :deckId AND c.idCard > :afterId ORDER BY c.idCard")
+    List<CardText> findTextsByDeckIdAfter(@Param("deckId") Long deckId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Finds the identifiers of the cards of the specified deck.
+     *
+     * @param deckId the identifier of the deck.
+     * @return A list of the identifiers of the cards, in ascending order.
+     */
+    @Query("SELECT c.idCard FROM CardBase c WHERE c.deck.idDeck = :deckId ORDER BY c.idCard")
+    List<Long> findIdsByDeckId(@Param("deckId") Long deckId);
+
+    /**
+     * Finds which of the given normalized front texts are already used by the cards of a deck.
+     *
+     * @param deckId the ID of the deck.
+     * @param frontsNormalized the normalized front texts to look up.
+     * @return the normalized front texts of the deck found among the given ones.
+     */
+    @Query("SELECT DISTINCT c.frontNormalized FROM CardBase c WHERE c.deck.idDeck = :deckId AND c.frontNormalized IN :frontsNormalized")
+    List<String> findFrontsNormalizedByDeckIdIn(@Param("deckId") Long deckId,
+                                                @Param("frontsNormalized") Collection<String> frontsNormalized);
+
+    /**
+     * Finds the identifiers of the cards whose normalized texts have not been computed yet, such as the cards
+     * stored before the normalized columns were added, in ascending order of identifiers.
+     *
+     * @param afterId the identifier after which the cards are found.
+     * @param pageable the maximum number of identifiers.
+     * @return the identifiers of the cards without normalized texts.
+     */
+    @Query("SELECT c.idCard FROM CardBase c WHERE (c.frontNormalized IS NULL OR c.backNormalized IS NULL) " +
+            "AND c.idCard > :afterId ORDER BY c.idCard")
+    List<Long> findIdsWithoutNormalizedTextsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Copies the SuperMemo2 cards of a deck into another deck with a single {@code INSERT ... SELECT} statement.
+     * Every copy keeps the identifier of its card in {@code copySourceId}, so the rows keyed by the cards can be
+     * copied with it before {@link #clearCopySourceIds(Long)} is called in the same transaction.
+     *
+     * @param sourceDeckId the identifier of the deck whose cards are copied.
+     * @param targetDeckId the identifier of the deck the cards are copied into.
+     * @param resetScheduling whether the copies start over as new cards due today.
+     * @param skipDuplicates whether the cards whose normalized front is already used in the target deck are skipped.
+     * @param today the date the reset copies are due.
+     * @param now the creation time of the reset copies.
+     * @param easinessFactor the easiness factor of the reset copies.
+     * @param reverseEasinessFactor the reverse easiness factor of the reset copies.
+     * @return the number of copied cards.
+     */
+    @Modifying
+    @Query("INSERT INTO CardSuperMemo2 (front, back, frontNormalized, backNormalized, creationTime, isNewCard, " +
+            "nextRegularRevisionDate, nextReverseRevisionDate, deck, copySourceId, " +
+            "repetition, reverseRepetition, regularInterval, reverseInterval, easinessFactor, reverseEasinessFactor, " +
+            "incorrectCounter, reverseIncorrectCounter) " +
+            "SELECT c.front, c.back, c.frontNormalized, c.backNormalized, " +
+            "CASE WHEN :resetScheduling = true THEN :now ELSE c.creationTime END, " +
+            "CASE WHEN :resetScheduling = true THEN true ELSE c.isNewCard END, " +
+            "CASE WHEN :resetScheduling = true THEN :today ELSE c.nextRegularRevisionDate END, " +
+            "CASE WHEN :resetScheduling = true THEN :today ELSE c.nextReverseRevisionDate END, t, c.idCard, " +
+            "CASE WHEN :resetScheduling = true THEN 0 ELSE c.repetition END, " +
+            "CASE WHEN :resetScheduling = true THEN 0 ELSE c.reverseRepetition END, " +
+            "CASE WHEN :resetScheduling = true THEN 1 ELSE c.regularInterval END, " +
+            "CASE WHEN :resetScheduling = true THEN 1 ELSE c.reverseInterval END, " +
+            "CASE WHEN :resetScheduling = true THEN :easinessFactor ELSE c.easinessFactor END, " +
+            "CASE WHEN :resetScheduling = true THEN :reverseEasinessFactor ELSE c.reverseEasinessFactor END, " +
+            "CASE WHEN :resetScheduling = true THEN 0 ELSE c.incorrectCounter END, " +
+            "CASE WHEN :resetScheduling = true THEN 0 ELSE c.reverseIncorrectCounter END " +
+            "FROM CardSuperMemo2 c, DeckBase t " +
+            "WHERE c.deck.idDeck = :sourceDeckId AND t.idDeck = :targetDeckId AND (:skipDuplicates = false OR NOT EXISTS " +
+            "(SELECT d.idCard FROM CardBase d WHERE d.deck.idDeck = :targetDeckId AND d.frontNormalized = c.frontNormalized))")
+    int copySuperMemo2Cards(@Param("sourceDeckId") Long sourceDeckId, @Param("targetDeckId") Long targetDeckId,
+            @Param("resetScheduling") boolean resetScheduling, @Param("skipDuplicates") boolean skipDuplicates,
+            @Param("today") LocalDate today, @Param("now") LocalDateTime now,
+            @Param("easinessFactor") double easinessFactor,
+            @Param("reverseEasinessFactor") double reverseEasinessFactor);
+
+    /**
+     * Copies the FSRS cards of a deck into another deck with a single {@code INSERT ... SELECT} statement,
+     * the same way as {@link #copySuperMemo2Cards}.
+     *
+     * @param sourceDeckId the identifier of the deck whose cards are copied.
+     * @param targetDeckId the identifier of the deck the cards are copied into.
+     * @param resetScheduling whether the copies start over as new cards due today.
+     * @param skipDuplicates whether the cards whose normalized front is already used in the target deck are skipped.
+     * @param today the date the reset copies are due.
+     * @param now the creation time of the reset copies.
+     * @return the number of copied cards.
+     */
+    @Modifying
+    @Query("INSERT INTO CardFsrs (front, back, frontNormalized, backNormalized, creationTime, isNewCard, " +
+            "nextRegularRevisionDate, nextReverseRevisionDate, deck, copySourceId, " +
+            "stability, reverseStability, difficulty, reverseDifficulty, lastRevisionDate, lastReverseRevisionDate) " +
+            "SELECT c.front, c.back, c.frontNormalized, c.backNormalized, " +
+            "CASE WHEN :resetScheduling = true THEN :now ELSE c.creationTime END, " +
+            "CASE WHEN :resetScheduling = true THEN true ELSE c.isNewCard END, " +
+            "CASE WHEN :resetScheduling = true THEN :today ELSE c.nextRegularRevisionDate END, " +
+            "CASE WHEN :resetScheduling = true THEN :today ELSE c.nextReverseRevisionDate END, t, c.idCard, " +
+            "CASE WHEN :resetScheduling = true THEN 0.0 ELSE c.stability END, " +
+            "CASE WHEN :resetScheduling = true THEN 0.0 ELSE c.reverseStability END, " +
+            "CASE WHEN :resetScheduling = true THEN 0.0 ELSE c.difficulty END, " +
+            "CASE WHEN :resetScheduling = true THEN 0.0 ELSE c.reverseDifficulty END, " +
+            "CASE WHEN :resetScheduling = true THEN NULL ELSE c.lastRevisionDate END, " +
+            "CASE WHEN :resetScheduling = true THEN NULL ELSE c.lastReverseRevisionDate END " +
+            "FROM CardFsrs c, DeckBase t " +
+            "WHERE c.deck.idDeck = :sourceDeckId AND t.idDeck = :targetDeckId AND (:skipDuplicates = false OR NOT EXISTS " +
+            "(SELECT d.idCard FROM CardBase d WHERE d.deck.idDeck = :targetDeckId AND d.frontNormalized = c.frontNormalized))")
+    int copyFsrsCards(@Param("sourceDeckId") Long sourceDeckId, @Param("targetDeckId") Long targetDeckId,
+            @Param("resetScheduling") boolean resetScheduling, @Param("skipDuplicates") boolean skipDuplicates,
+            @Param("today") LocalDate today, @Param("now") LocalDateTime now);
+
+    /**
+     * Copies the constant coefficient cards of a deck into another deck with a single {@code INSERT ... SELECT}
+     * statement, the same way as {@link #copySuperMemo2Cards}.
+     *
+     * @param sourceDeckId the identifier of the deck whose cards are copied.
+     * @param targetDeckId the identifier of the deck the cards are copied into.
+     * @param resetScheduling whether the copies start over as new cards due today.
+     * @param skipDuplicates whether the cards whose normalized front is already used in the target deck are skipped.
+     * @param today the date the reset copies are due.
+     * @param now the creation time of the reset copies.
+     * @return the number of copied cards.
+     */
+    @Modifying
+    @Query("INSERT INTO CardConstantCoefficient (front, back, frontNormalized, backNormalized, creationTime, isNewCard, " +
+            "nextRegularRevisionDate, nextReverseRevisionDate, deck, copySourceId, " +
+            "baseRevisionTime, baseReverseRevisionTime, incorrectCounter, reverseIncorrectCounter) " +
+            "SELECT c.front, c.back, c.frontNormalized, c.backNormalized, " +
+            "CASE WHEN :resetScheduling = true THEN :now ELSE c.creationTime END, " +
+            "CASE WHEN :resetScheduling = true THEN true ELSE c.isNewCard END, " +
+            "CASE WHEN :resetScheduling = true THEN :today ELSE c.nextRegularRevisionDate END, " +
+            "CASE WHEN :resetScheduling = true THEN :today ELSE c.nextReverseRevisionDate END, t, c.idCard, " +
+            "CASE WHEN :resetScheduling = true THEN 1.0 ELSE c.baseRevisionTime END, " +
+            "CASE WHEN :resetScheduling = true THEN 1.0 ELSE c.baseReverseRevisionTime END, " +
+            "CASE WHEN :resetScheduling = true THEN 0 ELSE c.incorrectCounter END, " +
+            "CASE WHEN :resetScheduling = true THEN 0 ELSE c.reverseIncorrectCounter END " +
+            "FROM CardConstantCoefficient c, DeckBase t " +
+            "WHERE c.deck.idDeck = :sourceDeckId AND t.idDeck = :targetDeckId AND (:skipDuplicates = false OR NOT EXISTS " +
+            "(SELECT d.idCard FROM CardBase d WHERE d.deck.idDeck = :targetDeckId AND d.frontNormalized = c.frontNormalized))")
+    int copyConstantCoefficientCards(@Param("sourceDeckId") Long sourceDeckId, @Param("targetDeckId") Long targetDeckId,
+            @Param("resetScheduling") boolean resetScheduling, @Param("skipDuplicates") boolean skipDuplicates,
+            @Param("today") LocalDate today, @Param("now") LocalDateTime now);
+
+    /**
+     * Clears the identifiers of the cards the cards of a deck were copied from, once the rows keyed by the cards
+     * have been copied.
+     *
+     * @param deckId the identifier of the deck the cards were copied into.
+     * @return the number of updated cards.
+     */
+    @Modifying
+    @Query("UPDATE CardBase c SET c.copySourceId = NULL WHERE c.deck.idDeck = :deckId AND c.copySourceId IS NOT NULL")
+    int clearCopySourceIds(@Param("deckId") Long deckId);
 }
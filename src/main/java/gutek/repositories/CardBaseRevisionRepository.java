@@ -1,11 +1,23 @@
 package gutek.repositories;
 
+import gutek.domain.revisions.RevisionDayCount;
+import gutek.domain.revisions.RevisionLogEntry;
 import gutek.entities.cards.CardBase;
 import gutek.entities.cards.CardBaseRevision;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Repository interface for managing {@link CardBaseRevision} entities.
  * Extends {@link JpaRepository} to provide standard CRUD operations and custom queries for card revisions.
@@ -19,4 +31,106 @@ public interface CardBaseRevisionRepository extends JpaRepository<CardBaseRevisi
      * @param cardBase the {@link CardBase} whose revisions are to be deleted.
      */
     void deleteByCardBase(CardBase cardBase);
+
+    /**
+     * Finds the revision history of all cards in the specified deck, in chronological order for every card.
+     *
+     * @param deckId the identifier of the deck.
+     * @return A list of {@link RevisionLogEntry} projections ordered by card identifier and revision date.
+     */
+    @Query("SELECT new gutek.domain.revisions.RevisionLogEntry(r.cardBase.idCard, r.revisionDate, r.pressedButtonIndex, r.strategyClassName) " +
+            "FROM CardBaseRevision r WHERE r.cardBase.deck.idDeck = :deckId " +
+            "ORDER BY r.cardBase.idCard, r.revisionDate, r.idCardRevision")
+    List<RevisionLogEntry> findRevisionLogByDeckId(@Param("deckId") Long deckId);
+
+    /**
+     * Streams the revision history of all cards in the specified deck, in chronological order for every card.
+     * <p>
+     * The rows are read through a forward-only cursor, so the history does not have to fit in memory.
+     * The stream has to be consumed and closed inside a surrounding transaction.
+     * </p>
+     *
+     * @param deckId the identifier of the deck.
+     * @return A stream of {@link RevisionLogEntry} projections ordered by card identifier and revision date.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new gutek.domain.revisions.RevisionLogEntry(r.cardBase.idCard, r.revisionDate, r.pressedButtonIndex, r.strategyClassName) " +
+            "FROM CardBaseRevision r WHERE r.cardBase.deck.idDeck = :deckId " +
+            "ORDER BY r.cardBase.idCard, r.revisionDate, r.idCardRevision")
+    Stream<RevisionLogEntry> streamRevisionLogByDeckId(@Param("deckId") Long deckId);
+
+    /**
+     * Finds the revision history of a single card, in chronological order.
+     *
+     * @param cardBase the {@link CardBase} whose revisions are read.
+     * @return A list of {@link RevisionLogEntry} projections ordered by revision date.
+     */
+    @Query("SELECT new gutek.domain.revisions.RevisionLogEntry(r.cardBase.idCard, r.revisionDate, r.pressedButtonIndex, r.strategyClassName) " +
+            "FROM CardBaseRevision r WHERE r.cardBase = :cardBase ORDER BY r.revisionDate, r.idCardRevision")
+    List<RevisionLogEntry> findRevisionLogByCardBase(@Param("cardBase") CardBase cardBase);
+
+    /**
+     * Checks whether any card in the specified deck was revised with a button whose index is lower than the given one,
+     * e.g. with any of the buttons failing a revision.
+     *
+     * @param deckId             the identifier of the deck.
+     * @param pressedButtonIndex the exclusive upper bound of the index of the pressed button.
+     * @return {@code true} if such a revision exists.
+     */
+    boolean existsByCardBaseDeckIdDeckAndPressedButtonIndexLessThan(Long deckId, Integer pressedButtonIndex);
+
+    /**
+     * Checks whether the card has any recorded revisions.
+     *
+     * @param cardBase the {@link CardBase} to check.
+     * @return {@code true} if the card was revised at least once.
+     */
+    boolean existsByCardBase(CardBase cardBase);
+
+    /**
+     * Counts the revisions of all cards in the specified deck by day, revision strategy and pressed button.
+     *
+     * @param deckId the identifier of the deck.
+     * @return A list of {@link RevisionDayCount} projections.
+     */
+    @Query("SELECT new gutek.domain.revisions.RevisionDayCount(r.revisionDate, r.strategyClassName, r.pressedButtonIndex, COUNT(r)) " +
+            "FROM CardBaseRevision r WHERE r.cardBase.deck.idDeck = :deckId " +
+            "GROUP BY r.revisionDate, r.strategyClassName, r.pressedButtonIndex")
+    List<RevisionDayCount> countRevisionsByDeckId(@Param("deckId") Long deckId);
+
+    /**
+     * Counts the revisions of the specified card by day, revision strategy and pressed button.
+     *
+     * @param cardBase the {@link CardBase} whose revisions are counted.
+     * @return A list of {@link RevisionDayCount} projections.
+     */
+    @Query("SELECT new gutek.domain.revisions.RevisionDayCount(r.revisionDate, r.strategyClassName, r.pressedButtonIndex, COUNT(r)) " +
+            "FROM CardBaseRevision r WHERE r.cardBase = :cardBase " +
+            "GROUP BY r.revisionDate, r.strategyClassName, r.pressedButtonIndex")
+    List<RevisionDayCount> countRevisionsByCardBase(@Param("cardBase") CardBase cardBase);
+
+    /**
+     * Finds the date of the first revision of every revised card in the specified deck.
+     *
+     * @param deckId the identifier of the deck.
+     * @return A list of the first revision dates, one for every revised card.
+     */
+    @Query("SELECT MIN(r.revisionDate) FROM CardBaseRevision r WHERE r.cardBase.deck.idDeck = :deckId GROUP BY r.cardBase.idCard")
+    List<LocalDate> findFirstRevisionDatesByDeckId(@Param("deckId") Long deckId);
+
+    /**
+     * Copies the revisions of the cards copied into a deck to their copies, matching the copies by
+     * {@code copySourceId}.
+     *
+     * @param deckId the identifier of the deck the cards were copied into.
+     * @return the number of copied revisions.
+     */
+    @Modifying
+    @Query("INSERT INTO CardBaseRevision (revisionDate, pressedButtonIndex, strategyClassName, cardBase) " +
+            "SELECT r.revisionDate, r.pressedButtonIndex, r.strategyClassName, c FROM CardBaseRevision r, CardBase c " +
+            "WHERE c.deck.idDeck = :deckId AND c.copySourceId = r.cardBase.idCard")
+    int copyRevisionsOfCopiedCards(@Param("deckId") Long deckId);
 }
@@ -0,0 +1,50 @@
+package gutek.repositories;
+
+import gutek.entities.cards.CardSignature;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for managing {@link CardSignature} entities.
+ * Extends {@link JpaRepository} to provide standard CRUD operations on the signatures of the cards.
+ */
+@Repository
+@Transactional
+public interface CardSignatureRepository extends JpaRepository<CardSignature, Long> {
+
+    /**
+     * Deletes the signature of a card.
+     *
+     * @param cardId the identifier of the card.
+     * @return the number of deleted signatures.
+     */
+    @Modifying
+    @Query("DELETE FROM CardSignature s WHERE s.cardId = :cardId")
+    int deleteByCardId(@Param("cardId") Long cardId);
+
+    /**
+     * Deletes the signatures of all cards of a deck.
+     *
+     * @param deckId the identifier of the deck.
+     * @return the number of deleted signatures.
+     */
+    @Modifying
+    @Query("DELETE FROM CardSignature s WHERE s.cardId IN (SELECT c.idCard FROM CardBase c WHERE c.deck.idDeck = :deckId)")
+    int deleteByDeckId(@Param("deckId") Long deckId);
+
+    /**
+     * Copies the signatures of the cards copied into a deck to their copies, matching the copies by
+     * {@code copySourceId}, as the copies have the same texts.
+     *
+     * @param deckId the identifier of the deck the cards were copied into.
+     * @return the number of copied signatures.
+     */
+    @Modifying
+    @Query("INSERT INTO CardSignature (cardId, textHash, signature) SELECT c.idCard, s.textHash, s.signature " +
+            "FROM CardSignature s, CardBase c WHERE c.deck.idDeck = :deckId AND c.copySourceId = s.cardId")
+    int copySignaturesOfCopiedCards(@Param("deckId") Long deckId);
+}
@@ -0,0 +1,70 @@
+package gutek.repositories;
+
+import gutek.domain.tags.CardTagName;
+import gutek.entities.cards.CardTag;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link CardTag} entities.
+ * Extends {@link JpaRepository} to provide standard CRUD operations and the reads of the tags of a deck.
+ */
+@Repository
+@Transactional
+public interface CardTagRepository extends JpaRepository<CardTag, Long> {
+
+    /**
+     * Finds the tags of a card.
+     *
+     * @param cardId the identifier of the card.
+     * @return A list of the tags of the card, ordered by names.
+     */
+    List<CardTag> findByCardIdOrderByName(Long cardId);
+
+    /**
+     * Finds the tags of all cards of a deck.
+     *
+     * @param deckId the identifier of the deck.
+     * @return A list of the tagged cards and the names of their tags, in no particular order.
+     */
+    @Query("SELECT new gutek.domain.tags.CardTagName(t.cardId, t.name) FROM CardTag t " +
+            "WHERE t.cardId IN (SELECT c.idCard FROM CardBase c WHERE c.deck.idDeck = :deckId)")
+    List<CardTagName> findNamesByDeckId(@Param("deckId") Long deckId);
+
+    /**
+     * Deletes the tags of a card.
+     *
+     * @param cardId the identifier of the card.
+     * @return the number of deleted tags.
+     */
+    @Modifying
+    @Query("DELETE FROM CardTag t WHERE t.cardId = :cardId")
+    int deleteByCardId(@Param("cardId") Long cardId);
+
+    /**
+     * Deletes the tags of all cards of a deck.
+     *
+     * @param deckId the identifier of the deck.
+     * @return the number of deleted tags.
+     */
+    @Modifying
+    @Query("DELETE FROM CardTag t WHERE t.cardId IN (SELECT c.idCard FROM CardBase c WHERE c.deck.idDeck = :deckId)")
+    int deleteByDeckId(@Param("deckId") Long deckId);
+
+    /**
+     * Copies the tags of the cards copied into a deck to their copies, matching the copies by {@code copySourceId}.
+     *
+     * @param deckId the identifier of the deck the cards were copied into.
+     * @return the number of copied tags.
+     */
+    @Modifying
+    @Query("INSERT INTO CardTag (cardId, name) SELECT c.idCard, t.name FROM CardTag t, CardBase c " +
+            "WHERE c.deck.idDeck = :deckId AND c.copySourceId = t.cardId")
+    int copyTagsOfCopiedCards(@Param("deckId") Long deckId);
+}
@@ -1,9 +1,13 @@
 package gutek.repositories;
 
+import gutek.domain.search.DeckName;
 import gutek.entities.decks.DeckBase;
 import gutek.entities.users.AppUser;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -37,4 +41,33 @@ public interface DeckBaseRepository extends JpaRepository<DeckBase, Long> {
      * @return a list of non-deleted {@link DeckBase} entities belonging to the specified user.
      */
     List<DeckBase> findByUserAndIsDeletedFalse(AppUser user);
+
+    /**
+     * Increments the cards change counter of the specified deck.
+     *
+     * @param deckId the ID of the deck whose cards have changed.
+     * @return the number of updated decks.
+     */
+    @Modifying
+    @Query("UPDATE DeckBase d SET d.cardsChangeCounter = COALESCE(d.cardsChangeCounter, 0) + 1 WHERE d.idDeck = :deckId")
+    int incrementCardsChangeCounter(@Param("deckId") Long deckId);
+
+    /**
+     * Reads the current cards change counter of the specified deck directly from the database.
+     *
+     * @param deckId the ID of the deck.
+     * @return the cards change counter, or {@code null} if the deck does not exist.
+     */
+    @Query("SELECT COALESCE(d.cardsChangeCounter, 0) FROM DeckBase d WHERE d.idDeck = :deckId")
+    Long findCardsChangeCounter(@Param("deckId") Long deckId);
+
+    /**
+     * Finds the identifiers and names of all non-deleted decks of a user, without loading the decks.
+     *
+     * @param userId the identifier of the user.
+     * @return a list of the identifiers and names of the non-deleted decks of the user.
+     */
+    @Query("SELECT new gutek.domain.search.DeckName(d.idDeck, d.name) FROM DeckBase d " +
+            "WHERE d.user.idUser = :userId AND d.isDeleted = false")
+    List<DeckName> findNamesByUserIdNotDeleted(@Param("userId") Long userId);
 }
@@ -0,0 +1,88 @@
+package gutek.repositories;
+
+import gutek.domain.revisions.DailyTotal;
+import gutek.entities.decks.DailyAggregateKind;
+import gutek.entities.decks.DeckDailyAggregate;
+import gutek.entities.users.AppUser;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link DeckDailyAggregate} entities.
+ * Extends {@link JpaRepository} to provide standard CRUD operations and the range reads of the daily counts.
+ */
+@Repository
+@Transactional
+public interface DeckDailyAggregateRepository extends JpaRepository<DeckDailyAggregate, Long> {
+
+    /**
+     * Adds the given value to an existing count.
+     *
+     * @param deckId             the identifier of the deck.
+     * @param day                the day of the count.
+     * @param kind               the kind of the counted events.
+     * @param strategyClassName  the strategy of the counted revisions, or {@link DeckDailyAggregate#NO_STRATEGY}.
+     * @param pressedButtonIndex the pressed button of the counted revisions, or {@link DeckDailyAggregate#NO_BUTTON}.
+     * @param delta              the value added to the count.
+     * @return the number of updated rows, 0 if the count does not exist yet.
+     */
+    @Modifying
+    @Query("UPDATE DeckDailyAggregate a SET a.count = a.count + :delta WHERE a.deckId = :deckId AND a.kind = :kind " +
+            "AND a.day = :day AND a.strategyClassName = :strategyClassName AND a.pressedButtonIndex = :pressedButtonIndex")
+    int addToCount(@Param("deckId") Long deckId, @Param("day") LocalDate day, @Param("kind") DailyAggregateKind kind,
+                   @Param("strategyClassName") String strategyClassName, @Param("pressedButtonIndex") Integer pressedButtonIndex,
+                   @Param("delta") int delta);
+
+    /**
+     * Finds the counts of the given kind from a range of days.
+     *
+     * @param deckId the identifier of the deck.
+     * @param kind   the kind of the counted events.
+     * @param from   the first day of the range.
+     * @param to     the last day of the range.
+     * @return A list of the counts from the range.
+     */
+    List<DeckDailyAggregate> findByDeckIdAndKindAndDayBetween(Long deckId, DailyAggregateKind kind, LocalDate from, LocalDate to);
+
+    /**
+     * Sums the counts of the given kind from a range of days over all decks of a user which are not deleted,
+     * with a single grouped query.
+     *
+     * @param user the owner of the decks.
+     * @param kind the kind of the counted events.
+     * @param from the first day of the range.
+     * @param to   the last day of the range.
+     * @return A list of {@link DailyTotal} projections, one for every day with counts.
+     */
+    @Query("SELECT new gutek.domain.revisions.DailyTotal(a.day, SUM(a.count)) FROM DeckDailyAggregate a " +
+            "WHERE a.kind = :kind AND a.day BETWEEN :from AND :to AND a.deckId IN " +
+            "(SELECT d.idDeck FROM DeckBase d WHERE d.user = :user AND d.isDeleted = false) " +
+            "GROUP BY a.day")
+    List<DailyTotal> sumByUserAndKindAndDayBetween(@Param("user") AppUser user, @Param("kind") DailyAggregateKind kind,
+                                                   @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Checks whether the deck has any counts.
+     *
+     * @param deckId the identifier of the deck.
+     * @return {@code true} if the deck has at least one count.
+     */
+    boolean existsByDeckId(Long deckId);
+
+    /**
+     * Deletes all counts of the deck.
+     *
+     * @param deckId the identifier of the deck.
+     * @return the number of deleted rows.
+     */
+    @Modifying
+    @Query("DELETE FROM DeckDailyAggregate a WHERE a.deckId = :deckId")
+    int deleteByDeckId(@Param("deckId") Long deckId);
+}
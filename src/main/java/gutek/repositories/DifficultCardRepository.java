@@ -0,0 +1,97 @@
+package gutek.repositories;
+
+import gutek.entities.decks.DifficultCard;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@link DifficultCard} entities.
+ * Extends {@link JpaRepository} to provide standard CRUD operations and the ranked reads of the difficult cards index.
+ */
+@Repository
+@Transactional
+public interface DifficultCardRepository extends JpaRepository<DifficultCard, Long> {
+
+    /**
+     * Finds the entry of a card.
+     *
+     * @param cardId the identifier of the card.
+     * @return An {@link Optional} containing the entry, or empty if the card is not in the index.
+     */
+    Optional<DifficultCard> findByCardId(Long cardId);
+
+    /**
+     * Counts the entries of a deck.
+     *
+     * @param deckId the identifier of the deck.
+     * @return the number of entries.
+     */
+    long countByDeckId(Long deckId);
+
+    /**
+     * Finds the least difficult entry of a deck, the one evicted when a more difficult card is added to a full index.
+     * Entries of equal rank are ordered by the date of their last failure, the oldest first, like
+     * {@link gutek.domain.analytics.CardDifficulty#LEAST_DIFFICULT_FIRST}.
+     *
+     * @param deckId the identifier of the deck.
+     * @return An {@link Optional} containing the least difficult entry, or empty if the deck has no entries.
+     */
+    Optional<DifficultCard> findFirstByDeckIdOrderByLapsesAscFailuresAscLastFailureDateAscCardIdDesc(Long deckId);
+
+    /**
+     * Finds the most difficult entries of a deck, most difficult first.
+     *
+     * @param deckId   the identifier of the deck.
+     * @param pageable the number of read entries.
+     * @return A list of the entries.
+     */
+    @Query("SELECT d FROM DifficultCard d WHERE d.deckId = :deckId ORDER BY d.lapses DESC, d.failures DESC, d.cardId")
+    List<DifficultCard> findMostDifficult(@Param("deckId") Long deckId, Pageable pageable);
+
+    /**
+     * Finds the entries of a deck with at least the given number of lapses, most difficult first.
+     *
+     * @param deckId    the identifier of the deck.
+     * @param minLapses the minimal number of lapses.
+     * @return A list of the entries.
+     */
+    @Query("SELECT d FROM DifficultCard d WHERE d.deckId = :deckId AND d.lapses >= :minLapses " +
+            "ORDER BY d.lapses DESC, d.failures DESC, d.cardId")
+    List<DifficultCard> findByMinLapses(@Param("deckId") Long deckId, @Param("minLapses") int minLapses);
+
+    /**
+     * Checks whether the deck has any entries.
+     *
+     * @param deckId the identifier of the deck.
+     * @return {@code true} if the index of the deck is not empty.
+     */
+    boolean existsByDeckId(Long deckId);
+
+    /**
+     * Deletes the entry of a card.
+     *
+     * @param cardId the identifier of the card.
+     * @return the number of deleted entries.
+     */
+    @Modifying
+    @Query("DELETE FROM DifficultCard d WHERE d.cardId = :cardId")
+    int deleteByCardId(@Param("cardId") Long cardId);
+
+    /**
+     * Deletes all entries of a deck.
+     *
+     * @param deckId the identifier of the deck.
+     * @return the number of deleted entries.
+     */
+    @Modifying
+    @Query("DELETE FROM DifficultCard d WHERE d.deckId = :deckId")
+    int deleteByDeckId(@Param("deckId") Long deckId);
+}
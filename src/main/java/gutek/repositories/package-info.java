@@ -9,6 +9,10 @@
  *     <li>Deck statistics repository.</li>
  *     <li>Revision algorithms repository.</li>
  *     <li>Revision statistics counts repository.</li>
+ *     <li>Deck daily counts repository.</li>
+ *     <li>Difficult cards index repository.</li>
+ *     <li>Card signatures repository.</li>
+ *     <li>Card tags repository.</li>
  * </ul>
  */
 package gutek.repositories;
\ No newline at end of file
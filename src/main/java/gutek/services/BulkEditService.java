@@ -0,0 +1,334 @@
+package gutek.services;
+
+import gutek.domain.edits.BulkEdit;
+import gutek.domain.edits.BulkEditChange;
+import gutek.domain.edits.BulkEditPreview;
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardText;
+import gutek.entities.cards.CardBase;
+import gutek.entities.decks.DeckBase;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Service applying a {@link BulkEdit} to all matching cards of a deck: a regular expression find-and-replace,
+ * whitespace normalization, or moving the cards to another deck.
+ * <p>
+ * The card texts are streamed by keyset in batches, so a preview of a deck with a hundred thousand cards only reads
+ * their texts. The changes are written batch by batch and flushed as JDBC batches, in a single transaction because
+ * loading any card of a deck loads all cards of the deck. The daily counts, the index of the most difficult cards,
+ * the index of the search across all decks and the deck snapshots are kept in sync with the changed cards. The moved
+ * cards take their revisions with them, so the revision statistics of both decks are rebuilt after a move.
+ * </p>
+ */
+@Service
+public class BulkEditService {
+
+    /**
+     * Number of cards read and written at once.
+     */
+    static final int BATCH_SIZE = 2000;
+
+    /**
+     * Repository for reading and updating the cards.
+     */
+    private final CardBaseRepository cardBaseRepository;
+
+    /**
+     * Repository for reading the decks.
+     */
+    private final DeckBaseRepository deckBaseRepository;
+
+    /**
+     * Service keeping the deck snapshots in sync with the modified cards.
+     */
+    private final DeckSnapshotService deckSnapshotService;
+
+    /**
+     * Service maintaining the daily counts of the decks.
+     */
+    private final DailyAggregateService dailyAggregateService;
+
+    /**
+     * Service maintaining the index of the most difficult cards of the decks.
+     */
+    private final DifficultCardService difficultCardService;
+
+    /**
+     * Service rebuilding the statistics of the decks the cards were moved between.
+     */
+    private final StatisticsRebuildService statisticsRebuildService;
+
+    /**
+     * Service keeping the index of the search across all decks in sync with the modified cards.
+     */
+    private final GlobalSearchService globalSearchService;
+
+    /**
+     * Publisher of the {@link DeckCardsChangedEvent} events.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Template of the transaction applying an edit.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Executor running the previews and the edits.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Constructs the service.
+     *
+     * @param cardBaseRepository       repository for reading and updating the cards
+     * @param deckBaseRepository       repository for reading the decks
+     * @param deckSnapshotService      service keeping the deck snapshots in sync with the modified cards
+     * @param dailyAggregateService    service maintaining the daily counts of the decks
+     * @param difficultCardService     service maintaining the index of the most difficult cards of the decks
+     * @param statisticsRebuildService service rebuilding the statistics of the decks the cards were moved between
+     * @param globalSearchService      service keeping the index of the search across all decks in sync with the modified cards
+     * @param eventPublisher           publisher of the {@link DeckCardsChangedEvent} events
+     * @param transactionManager       manager of the transaction applying an edit
+     * @param backgroundExecutor       executor running the previews and the edits
+     */
+    public BulkEditService(CardBaseRepository cardBaseRepository,
+                           DeckBaseRepository deckBaseRepository,
+                           DeckSnapshotService deckSnapshotService,
+                           DailyAggregateService dailyAggregateService,
+                           DifficultCardService difficultCardService,
+                           StatisticsRebuildService statisticsRebuildService,
+                           GlobalSearchService globalSearchService,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor) {
+        this.cardBaseRepository = cardBaseRepository;
+        this.deckBaseRepository = deckBaseRepository;
+        this.deckSnapshotService = deckSnapshotService;
+        this.dailyAggregateService = dailyAggregateService;
+        this.difficultCardService = difficultCardService;
+        this.statisticsRebuildService = statisticsRebuildService;
+        this.globalSearchService = globalSearchService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * Finds the decks the cards of a deck can be moved to: the other non-deleted decks of its user
+     * using the same revision algorithm, so the moved cards keep their schedule.
+     *
+     * @param deck the deck whose cards are moved
+     * @return the possible target decks
+     */
+    public List<DeckBase> findMoveTargets(DeckBase deck) {
+        return deckBaseRepository.findByUserAndIsDeletedFalse(deck.getUser()).stream()
+                .filter(target -> isMoveTarget(deck, target))
+                .toList();
+    }
+
+    /**
+     * Starts computing the outcome of an edit in the background without changing the cards.
+     * A cancelled preview stops after the batch of cards being read and completes with {@code null}.
+     *
+     * @param deck the edited deck
+     * @param edit the edit
+     * @return the job computing the preview, completed with the counts of the matching and changed cards,
+     * or with {@code null} if it was cancelled
+     */
+    public BackgroundJob<BulkEditPreview> previewInBackground(DeckBase deck, BulkEdit edit) {
+        BackgroundJob<BulkEditPreview> job = new BackgroundJob<>(null);
+        Long deckId = deck.getIdDeck();
+        backgroundExecutor.execute(() -> {
+            try {
+                job.start(cardBaseRepository.countByDeckIdDeck(deckId));
+                int matchingCount = 0;
+                int changedCount = 0;
+                int invalidCount = 0;
+                List<BulkEditChange> samples = new ArrayList<>();
+                long afterId = Long.MIN_VALUE;
+                while (!job.isCancelled()) {
+                    List<CardText> batch = cardBaseRepository.findTextsByDeckIdAfter(deckId, afterId, PageRequest.of(0, BATCH_SIZE));
+                    for (CardText card : batch) {
+                        if (!edit.matches(card)) {
+                            continue;
+                        }
+                        matchingCount++;
+                        BulkEditChange change = edit.apply(card);
+                        if (!change.isValid()) {
+                            invalidCount++;
+                        } else if (change.isChanged()) {
+                            changedCount++;
+                            if (samples.size() < BulkEditPreview.MAX_SAMPLES) {
+                                samples.add(change);
+                            }
+                        }
+                    }
+                    job.addProcessed(batch.size());
+                    if (batch.size() < BATCH_SIZE) {
+                        break;
+                    }
+                    afterId = batch.getLast().idCard();
+                }
+                job.complete(job.isCancelled() ? null : new BulkEditPreview(matchingCount, changedCount, invalidCount, samples));
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Starts applying an edit to the matching cards of a deck in the background. The cards the edit would leave
+     * with a blank text are not changed. A cancelled edit stops after the batch of cards being written and keeps
+     * the cards changed so far.
+     *
+     * @param deck the edited deck
+     * @param edit the edit
+     * @return the job applying the edit, completed with the number of changed cards
+     * @throws IllegalArgumentException through the job, if the target deck of the edit is not a possible target
+     */
+    public BackgroundJob<Integer> applyInBackground(DeckBase deck, BulkEdit edit) {
+        BackgroundJob<Integer> job = new BackgroundJob<>(null);
+        Long deckId = deck.getIdDeck();
+        backgroundExecutor.execute(() -> {
+            try {
+                job.start(cardBaseRepository.countByDeckIdDeck(deckId));
+                Integer changedCount = transactionTemplate.execute(status -> apply(deckId, edit, job));
+                if (changedCount != null && changedCount > 0) {
+                    publishChanges(deckId, edit);
+                }
+                job.complete(changedCount);
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Applies an edit to the matching cards of a deck. Has to be called in a transaction.
+     *
+     * @param deckId the identifier of the edited deck
+     * @param edit   the edit
+     * @param job    the job reporting the progress, stopping after the current batch when cancelled
+     * @return the number of changed cards
+     */
+    private int apply(Long deckId, BulkEdit edit, BackgroundJob<Integer> job) {
+        Optional<DeckBase> deck = deckBaseRepository.findById(deckId);
+        if (deck.isEmpty()) {
+            return 0;
+        }
+        DeckBase targetDeck = null;
+        if (edit.movesCards()) {
+            targetDeck = deckBaseRepository.findById(edit.targetDeckId())
+                    .filter(target -> isMoveTarget(deck.get(), target))
+                    .orElseThrow(() -> new IllegalArgumentException("Cards cannot be moved to deck " + edit.targetDeckId()));
+            deckSnapshotService.beginCardsChange(targetDeck);
+        }
+        deckSnapshotService.beginCardsChange(deck.get());
+
+        List<CardBase> editedCards = new ArrayList<>();
+        long afterId = Long.MIN_VALUE;
+        while (!job.isCancelled()) {
+            List<CardText> batch = cardBaseRepository.findTextsByDeckIdAfter(deckId, afterId, PageRequest.of(0, BATCH_SIZE));
+            Map<Long, BulkEditChange> changes = new LinkedHashMap<>();
+            for (CardText card : batch) {
+                if (edit.matches(card)) {
+                    BulkEditChange change = edit.apply(card);
+                    if (change.isValid() && change.isChanged()) {
+                        changes.put(card.idCard(), change);
+                    }
+                }
+            }
+            if (!changes.isEmpty()) {
+                List<CardBase> cards = cardBaseRepository.findAllById(changes.keySet());
+                for (CardBase card : cards) {
+                    applyChange(card, changes.get(card.getIdCard()), targetDeck);
+                }
+                cardBaseRepository.saveAll(cards);
+                cardBaseRepository.flush();
+                cards.forEach(globalSearchService::cardSaved);
+                editedCards.addAll(cards);
+            }
+            job.addProcessed(batch.size());
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+            afterId = batch.getLast().idCard();
+        }
+        if (targetDeck == null) {
+            deckSnapshotService.completeCardsChange(deck.get(), editedCards);
+        } else if (!editedCards.isEmpty()) {
+            statisticsRebuildService.rebuildDeck(deck.get(), true);
+            statisticsRebuildService.rebuildDeck(targetDeck, true);
+        }
+        return editedCards.size();
+    }
+
+    /**
+     * Changes the texts of a card and moves it to the target deck, together with its daily counts.
+     * A moved card is removed from the index of the most difficult cards of its previous deck.
+     *
+     * @param card       the changed card
+     * @param change     the change of the card
+     * @param targetDeck the deck the card is moved to, {@code null} if the edit does not move the cards
+     */
+    private void applyChange(CardBase card, BulkEditChange change, DeckBase targetDeck) {
+        card.setFront(change.front());
+        card.setBack(change.back());
+        if (targetDeck != null && change.isMoved()) {
+            Long previousDeckId = card.getDeck().getIdDeck();
+            difficultCardService.cardRemoved(card);
+            card.setDeck(targetDeck);
+            dailyAggregateService.cardMoved(card, previousDeckId);
+        }
+    }
+
+    /**
+     * Publishes the changes of the cards of the edited deck and, when the cards were moved, of the target deck.
+     *
+     * @param deckId the identifier of the edited deck
+     * @param edit   the applied edit
+     */
+    private void publishChanges(Long deckId, BulkEdit edit) {
+        if (edit.movesCards()) {
+            eventPublisher.publishEvent(new DeckCardsChangedEvent(deckId, DeckCardsChangedEvent.ChangeType.REMOVED));
+            eventPublisher.publishEvent(new DeckCardsChangedEvent(edit.targetDeckId(), DeckCardsChangedEvent.ChangeType.ADDED));
+        } else {
+            eventPublisher.publishEvent(new DeckCardsChangedEvent(deckId, DeckCardsChangedEvent.ChangeType.EDITED));
+        }
+    }
+
+    /**
+     * Checks whether the cards of a deck can be moved to another deck.
+     *
+     * @param deck   the deck whose cards are moved
+     * @param target the possible target deck
+     * @return {@code true} if the target is another non-deleted deck of the same user with the same revision algorithm
+     */
+    private static boolean isMoveTarget(DeckBase deck, DeckBase target) {
+        return !Objects.equals(deck.getIdDeck(), target.getIdDeck())
+                && !Boolean.TRUE.equals(target.getIsDeleted())
+                && deck.getUser() != null && target.getUser() != null
+                && Objects.equals(deck.getUser().getIdUser(), target.getUser().getIdUser())
+                && deck.getRevisionAlgorithm() != null && target.getRevisionAlgorithm() != null
+                && deck.getRevisionAlgorithm().getClass().equals(target.getRevisionAlgorithm().getClass());
+    }
+}
@@ -1,14 +1,17 @@
 package gutek.services;
 
+import gutek.domain.events.DeckCardsChangedEvent;
 import gutek.domain.revisions.RevisionStrategy;
 import gutek.entities.cards.CardBase;
 import gutek.entities.cards.CardBaseRevision;
+import gutek.entities.decks.DeckBase;
 import gutek.repositories.CardBaseRepository;
 import gutek.repositories.CardBaseRevisionRepository;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
 import java.util.Optional;
 
 /**
@@ -28,23 +31,54 @@ public class CardRevisionService {
      */
     private final CardBaseRepository cardBaseRepository;
 
+    /**
+     * Service providing the current date.
+     */
+    private final ClockService clockService;
+
+    /**
+     * Publisher of the {@link DeckCardsChangedEvent} events.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Service maintaining the daily counts of the decks.
+     */
+    private final DailyAggregateService dailyAggregateService;
+
+    /**
+     * Service maintaining the index of the most difficult cards of the decks.
+     */
+    private final DifficultCardService difficultCardService;
+
     /**
      * Records a revision for a specified card, including details about the strategy used
      * and the button pressed by the user during the revision.
+     * The revision is counted in the daily counts of the deck and a failed revision updates the difficult cards index
+     * in the same transaction.
      *
      * @param card              The card being revised, represented by a {@link CardBase} entity.
      * @param pressedButtonIndex The index of the button pressed during the revision, indicating the user's action or response.
      * @param revisionStrategy  The revision strategy applied to the card, represented by a {@link RevisionStrategy}.
      */
+    @Transactional
     public void revise(CardBase card, Integer pressedButtonIndex, RevisionStrategy<?> revisionStrategy){
         Optional<CardBase> cardBaseOptional = cardBaseRepository.findById(card.getIdCard());
         if(cardBaseOptional.isPresent()){
             CardBaseRevision revision = new CardBaseRevision();
-            revision.setRevisionDate(LocalDate.now());
+            revision.setRevisionDate(clockService.today());
             revision.setCardBase(cardBaseOptional.get());
             revision.setPressedButtonIndex(pressedButtonIndex);
             revision.setStrategyClassName(revisionStrategy.getClass().getSimpleName());
+            boolean firstRevision = !cardBaseRevisionRepository.existsByCardBase(cardBaseOptional.get());
             cardBaseRevisionRepository.save(revision);
+            DeckBase deck = cardBaseOptional.get().getDeck();
+            if (deck != null) {
+                dailyAggregateService.cardRevised(deck.getIdDeck(), revision.getRevisionDate(), revision.getStrategyClassName(),
+                        pressedButtonIndex, firstRevision);
+                difficultCardService.cardRevised(cardBaseOptional.get(), pressedButtonIndex);
+                eventPublisher.publishEvent(new DeckCardsChangedEvent(deck.getIdDeck(), DeckCardsChangedEvent.ChangeType.REVISED));
+            }
         }
     }
 }
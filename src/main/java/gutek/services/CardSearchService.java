@@ -0,0 +1,167 @@
+package gutek.services;
+
+import gutek.domain.search.CardSearchText;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service maintaining and querying the SQLite FTS5 full-text index of the card texts.
+ * <p>
+ * The index is a virtual table whose row identifiers are the card identifiers. It is kept in sync by triggers
+ * on every card table, so every write path, including bulk SQL statements, updates it in the same transaction.
+ * The texts are indexed folded by {@link CardSearchText}, and the searches match word prefixes and are ranked
+ * with BM25. The index is created, and rebuilt when it does not match the card tables, when the application starts.
+ * </p>
+ * <p>
+ * Full-text search is available only on SQLite; on other databases {@link #isAvailable()} returns {@code false}
+ * and the cards are searched with {@code LIKE} queries instead.
+ * </p>
+ */
+@Service
+public class CardSearchService {
+
+    /**
+     * Maximum number of cards found by a search, so a short prefix matching most of a large deck
+     * returns the best matches only.
+     */
+    public static final int MAX_RESULTS = 1000;
+
+    /**
+     * Name of the full-text index table.
+     */
+    static final String INDEX_TABLE = "card_search";
+
+    /**
+     * Query finding the tables of the card entities, the tables holding the card identifier, texts and deck.
+     */
+    private static final String CARD_TABLES_QUERY = "SELECT m.name FROM sqlite_master m WHERE m.type = 'table' " +
+            "AND EXISTS (SELECT 1 FROM pragma_table_info(m.name) c WHERE c.name = 'id_card') " +
+            "AND EXISTS (SELECT 1 FROM pragma_table_info(m.name) c WHERE c.name = 'front') " +
+            "AND EXISTS (SELECT 1 FROM pragma_table_info(m.name) c WHERE c.name = 'back') " +
+            "AND EXISTS (SELECT 1 FROM pragma_table_info(m.name) c WHERE c.name = 'deck_id_deck') " +
+            "ORDER BY m.name";
+
+    /**
+     * Template executing the SQL statements.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Whether the index has been created.
+     */
+    private volatile boolean available;
+
+    /**
+     * Constructs the service.
+     *
+     * @param jdbcTemplate template executing the SQL statements
+     */
+    public CardSearchService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the index and its triggers if the database is SQLite, and rebuilds the index
+     * if its number of rows does not match the number of cards.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (jdbcTemplate == null || !isSqlite()) {
+            return;
+        }
+        jdbcTemplate.execute("CREATE VIRTUAL TABLE IF NOT EXISTS " + INDEX_TABLE +
+                " USING fts5(front, back, deck_id UNINDEXED, tokenize = 'unicode61 remove_diacritics 2')");
+        List<String> cardTables = jdbcTemplate.queryForList(CARD_TABLES_QUERY, String.class);
+        long cardsCount = 0;
+        for (String cardTable : cardTables) {
+            createTriggers(cardTable);
+            Long tableCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + cardTable, Long.class);
+            cardsCount += tableCount == null ? 0 : tableCount;
+        }
+        Long indexedCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + INDEX_TABLE, Long.class);
+        if (indexedCount == null || indexedCount != cardsCount) {
+            rebuild(cardTables);
+        }
+        available = true;
+    }
+
+    /**
+     * Indicates whether the full-text index can be used.
+     *
+     * @return {@code true} once the index has been created on SQLite
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Searches the cards of a deck whose front contains words starting with every word of the front phrase
+     * and whose back contains words starting with every word of the back phrase, ignoring case and diacritics.
+     *
+     * @param frontPhrase the phrase searched in the front, may be empty
+     * @param backPhrase  the phrase searched in the back, may be empty
+     * @param deckId      the identifier of the searched deck
+     * @return the identifiers of at most {@value #MAX_RESULTS} matching cards, best match first, or an empty optional
+     *         if the index is not available or the phrases contain no words
+     */
+    public Optional<List<Long>> search(String frontPhrase, String backPhrase, Long deckId) {
+        String matchExpression = CardSearchText.matchExpression("front", frontPhrase, "back", backPhrase);
+        if (!available || matchExpression == null) {
+            return Optional.empty();
+        }
+        return Optional.of(jdbcTemplate.queryForList("SELECT rowid FROM " + INDEX_TABLE + " WHERE " + INDEX_TABLE + " MATCH ? " +
+                "AND deck_id = ? ORDER BY bm25(" + INDEX_TABLE + ") LIMIT ?", Long.class, matchExpression, deckId, MAX_RESULTS));
+    }
+
+    /**
+     * Replaces the content of the index with the texts of all cards.
+     *
+     * @param cardTables the tables of the card entities
+     */
+    private void rebuild(List<String> cardTables) {
+        jdbcTemplate.execute("DELETE FROM " + INDEX_TABLE);
+        for (String cardTable : cardTables) {
+            jdbcTemplate.execute("INSERT INTO " + INDEX_TABLE + " (rowid, front, back, deck_id) SELECT id_card, " +
+                    CardSearchText.sqlFold("front") + ", " + CardSearchText.sqlFold("back") + ", deck_id_deck FROM " + cardTable);
+        }
+    }
+
+    /**
+     * Creates the triggers copying the inserts, updates and deletes of a card table into the index.
+     *
+     * @param cardTable the table of a card entity
+     */
+    private void createTriggers(String cardTable) {
+        String insertRow = "INSERT INTO " + INDEX_TABLE + " (rowid, front, back, deck_id) VALUES (new.id_card, " +
+                CardSearchText.sqlFold("new.front") + ", " + CardSearchText.sqlFold("new.back") + ", new.deck_id_deck); ";
+        String deleteRow = "DELETE FROM " + INDEX_TABLE + " WHERE rowid = old.id_card; ";
+        jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS " + cardTable + "_search_insert AFTER INSERT ON " + cardTable +
+                " BEGIN " + insertRow + "END");
+        jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS " + cardTable + "_search_update AFTER UPDATE OF front, back, deck_id_deck ON " +
+                cardTable + " BEGIN " + deleteRow + insertRow + "END");
+        jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS " + cardTable + "_search_delete AFTER DELETE ON " + cardTable +
+                " BEGIN " + deleteRow + "END");
+    }
+
+    /**
+     * Checks whether the database is SQLite.
+     *
+     * @return {@code true} for SQLite
+     */
+    private boolean isSqlite() {
+        try {
+            String productName = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            return "SQLite".equalsIgnoreCase(productName);
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+}
@@ -1,22 +1,55 @@
 package gutek.services;
 
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.revisions.TypedAnswerMatcher;
+import gutek.domain.search.CardPageSource;
+import gutek.domain.search.CardSearchText;
+import gutek.domain.search.CardSummary;
+import gutek.domain.search.PagedCardList;
+import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.cards.CardBase;
 import gutek.entities.decks.DeckBase;
 import gutek.repositories.CardBaseRepository;
 import gutek.repositories.CardBaseRevisionRepository;
 import gutek.repositories.DeckBaseRepository;
-import lombok.AllArgsConstructor;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing {@link CardBase} entities and related operations.
  */
 @Service
-@AllArgsConstructor
 public class CardService {
 
+    /**
+     * Logger reporting failures of the normalization started when the application starts.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CardService.class);
+
+    /**
+     * Number of cards normalized or looked up at once by {@link #normalizeMissingTexts()},
+     * {@link #filterNewCards(List, DeckBase)} and {@link #findCardsByUser(String, String, DeckBase)}.
+     */
+    static final int BATCH_SIZE = 500;
+
     /**
      * Repository for managing {@link CardBase} entities.
      */
@@ -32,11 +65,103 @@ public class CardService {
      */
     private final CardBaseRevisionRepository cardBaseRevisionRepository;
 
+    /**
+     * Service keeping the deck snapshots in sync with the modified cards.
+     */
+    private final DeckSnapshotService deckSnapshotService;
+
+    /**
+     * Service providing the clock used for dating new cards.
+     */
+    private final ClockService clockService;
+
+    /**
+     * Publisher of the {@link DeckCardsChangedEvent} events.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Service maintaining the daily counts of the decks.
+     */
+    private final DailyAggregateService dailyAggregateService;
+
+    /**
+     * Service maintaining the index of the most difficult cards of the decks.
+     */
+    private final DifficultCardService difficultCardService;
+
+    /**
+     * Service searching the cards with the full-text index.
+     */
+    private final CardSearchService cardSearchService;
+
+    /**
+     * Executor running the searches started from the user interface.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Service keeping the index of the search across all decks in sync with the modified cards.
+     */
+    private final GlobalSearchService globalSearchService;
+
+    /**
+     * Service deleting the signatures of the removed cards.
+     */
+    private final DuplicateDetectionService duplicateDetectionService;
+
+    /**
+     * Service deleting the tags of the removed cards.
+     */
+    private final TagService tagService;
+
+    /**
+     * Constructs the service.
+     *
+     * @param cardBaseRepository         repository of the cards
+     * @param deckBaseRepository         repository of the decks
+     * @param cardBaseRevisionRepository repository of the card revisions
+     * @param deckSnapshotService        service keeping the deck snapshots in sync with the modified cards
+     * @param clockService               service providing the clock used for dating new cards
+     * @param eventPublisher             publisher of the {@link DeckCardsChangedEvent} events
+     * @param dailyAggregateService      service maintaining the daily counts of the decks
+     * @param difficultCardService       service maintaining the index of the most difficult cards of the decks
+     * @param cardSearchService          service searching the cards with the full-text index
+     * @param backgroundExecutor         executor running the searches started from the user interface
+     * @param globalSearchService        service keeping the index of the search across all decks in sync with the modified cards
+     * @param duplicateDetectionService  service deleting the signatures of the removed cards
+     * @param tagService                 service deleting the tags of the removed cards
+     */
+    public CardService(CardBaseRepository cardBaseRepository, DeckBaseRepository deckBaseRepository,
+                       CardBaseRevisionRepository cardBaseRevisionRepository, DeckSnapshotService deckSnapshotService,
+                       ClockService clockService, ApplicationEventPublisher eventPublisher,
+                       DailyAggregateService dailyAggregateService, DifficultCardService difficultCardService,
+                       CardSearchService cardSearchService, @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor,
+                       GlobalSearchService globalSearchService, DuplicateDetectionService duplicateDetectionService,
+                       TagService tagService) {
+        this.cardBaseRepository = cardBaseRepository;
+        this.deckBaseRepository = deckBaseRepository;
+        this.cardBaseRevisionRepository = cardBaseRevisionRepository;
+        this.deckSnapshotService = deckSnapshotService;
+        this.clockService = clockService;
+        this.eventPublisher = eventPublisher;
+        this.dailyAggregateService = dailyAggregateService;
+        this.difficultCardService = difficultCardService;
+        this.cardSearchService = cardSearchService;
+        this.backgroundExecutor = backgroundExecutor;
+        this.globalSearchService = globalSearchService;
+        this.duplicateDetectionService = duplicateDetectionService;
+        this.tagService = tagService;
+    }
+
     /**
      * Removes a card from its deck and deletes its related revisions.
+     * The card and its revisions are removed from the daily counts and the difficult cards index of the deck
+     * in the same transaction.
      *
      * @param card the card to be removed and deleted.
      */
+    @Transactional
     public void removeCard(CardBase card){
         Optional<DeckBase> deck = deckBaseRepository.findById(card.getDeck().getIdDeck());
         if (deck.isPresent()) {
@@ -45,27 +170,43 @@ public class CardService {
 
             Optional<CardBase> currentCard = cardBaseRepository.findById(card.getIdCard());
             if (currentCard.isPresent()) {
+                deckSnapshotService.beginCardsChange(deck.get());
+                dailyAggregateService.cardRemoved(currentCard.get());
+                difficultCardService.cardRemoved(currentCard.get());
+                globalSearchService.cardRemoved(currentCard.get());
+                duplicateDetectionService.cardRemoved(currentCard.get());
+                tagService.cardRemoved(currentCard.get());
                 cardBaseRepository.delete(currentCard.get());
                 cardBaseRevisionRepository.deleteByCardBase(card);
+                eventPublisher.publishEvent(new DeckCardsChangedEvent(deck.get().getIdDeck(), DeckCardsChangedEvent.ChangeType.REMOVED));
             }
         }
     }
 
     /**
      * Adds a new card to the specified deck with the provided front and back text.
+     * The card is counted in the daily counts of the deck in the same transaction.
      *
      * @param frontText the front text of the new card.
      * @param backText  the back text of the new card.
      * @param deck      the deck to which the new card will be added.
      */
+    @Transactional
     public void addNewCard(String frontText, String backText, DeckBase deck){
         Optional<DeckBase> currentDeck = deckBaseRepository.findById(deck.getIdDeck());
         if(currentDeck.isPresent()){
-            CardBase newCard = currentDeck.get().getRevisionAlgorithm().createNewCard(frontText, backText);
+            RevisionAlgorithm<?> algorithm = currentDeck.get().getRevisionAlgorithm();
+            algorithm.setClock(clockService.getClock());
+            CardBase newCard = algorithm.createNewCard(frontText, backText);
             newCard.setDeck(currentDeck.get());
+            deckSnapshotService.beginCardsChange(currentDeck.get());
             cardBaseRepository.save(newCard);
+            deckSnapshotService.completeCardsChange(currentDeck.get(), List.of(newCard));
+            dailyAggregateService.cardAdded(newCard);
+            globalSearchService.cardSaved(newCard);
             currentDeck.get().getCards().add(newCard);
             deckBaseRepository.save(currentDeck.get());
+            eventPublisher.publishEvent(new DeckCardsChangedEvent(currentDeck.get().getIdDeck(), DeckCardsChangedEvent.ChangeType.ADDED));
         }
     }
 
@@ -75,7 +216,27 @@ public class CardService {
      * @param cardToEdit the card to be saved.
      */
     public void saveCard(CardBase cardToEdit){
+        deckSnapshotService.beginCardsChange(cardToEdit.getDeck());
         cardBaseRepository.save(cardToEdit);
+        deckSnapshotService.completeCardsChange(cardToEdit.getDeck(), List.of(cardToEdit));
+        globalSearchService.cardSaved(cardToEdit);
+        if (cardToEdit.getDeck() != null) {
+            eventPublisher.publishEvent(new DeckCardsChangedEvent(cardToEdit.getDeck().getIdDeck(), DeckCardsChangedEvent.ChangeType.EDITED));
+        }
+    }
+
+    /**
+     * Merges two duplicate cards: the kept card accepts the alternatives of the back of both cards,
+     * and the other card is removed together with its revisions. The kept card keeps its own schedule.
+     *
+     * @param keptCard    the card to be kept.
+     * @param removedCard the duplicate card to be removed.
+     */
+    @Transactional
+    public void mergeCards(CardBase keptCard, CardBase removedCard) {
+        keptCard.setBack(TypedAnswerMatcher.mergeAlternatives(keptCard.getBack(), removedCard.getBack()));
+        saveCard(keptCard);
+        removeCard(removedCard);
     }
 
     /**
@@ -87,11 +248,24 @@ public class CardService {
         if (cardsToSave == null || cardsToSave.isEmpty()) {
             return;
         }
+        Map<Long, List<CardBase>> cardsByDeck = cardsToSave.stream()
+                .filter(card -> card.getDeck() != null && card.getDeck().getIdDeck() != null)
+                .collect(Collectors.groupingBy(card -> card.getDeck().getIdDeck()));
+        cardsByDeck.values().forEach(cards -> deckSnapshotService.beginCardsChange(cards.get(0).getDeck()));
         cardBaseRepository.saveAll(cardsToSave);
+        cardsByDeck.values().forEach(cards -> deckSnapshotService.completeCardsChange(cards.get(0).getDeck(), cards));
+        cardsByDeck.keySet().forEach(deckId -> eventPublisher.publishEvent(new DeckCardsChangedEvent(deckId, DeckCardsChangedEvent.ChangeType.EDITED)));
     }
 
     /**
      * Finds cards belonging to a specific deck that match the given search criteria.
+     * <p>
+     * When the full-text index is available, the cards whose front and back contain words starting with
+     * the words of the phrases are found, ignoring case and diacritics, best match first, at most
+     * {@link CardSearchService#MAX_RESULTS} of them; the found cards are loaded in batches of {@value #BATCH_SIZE}
+     * identifiers. Otherwise the normalized
+     * phrases are searched as substrings of the normalized texts of the cards.
+     * </p>
      *
      * @param phraseInFront the front text search phrase.
      * @param phraseInBack  the back text search phrase.
@@ -101,23 +275,194 @@ public class CardService {
     public List<CardBase> findCardsByUser(String phraseInFront, String phraseInBack, DeckBase deck){
         if (phraseInFront.isEmpty() && phraseInBack.isEmpty()) {
             return cardBaseRepository.findByDeck(deck);
-        } else if (phraseInBack.isEmpty()) {
-            return cardBaseRepository.findByFrontContainingAndDeck(phraseInFront, deck);
-        } else if (phraseInFront.isEmpty()) {
-            return cardBaseRepository.findByBackContainingAndDeck(phraseInBack, deck);
+        }
+        Optional<List<Long>> matchingCardIds = cardSearchService.search(phraseInFront, phraseInBack, deck.getIdDeck());
+        if (matchingCardIds.isPresent()) {
+            List<Long> cardIds = matchingCardIds.get();
+            Map<Long, CardBase> cardsById = new HashMap<>();
+            for (int start = 0; start < cardIds.size(); start += BATCH_SIZE) {
+                cardBaseRepository.findAllById(cardIds.subList(start, Math.min(start + BATCH_SIZE, cardIds.size())))
+                        .forEach(card -> cardsById.put(card.getIdCard(), card));
+            }
+            return cardIds.stream().map(cardsById::get).filter(Objects::nonNull).toList();
+        }
+        String frontNormalized = CardSearchText.normalize(phraseInFront);
+        String backNormalized = CardSearchText.normalize(phraseInBack);
+        if (backNormalized.isEmpty()) {
+            return cardBaseRepository.findByFrontNormalizedContainingAndDeck(frontNormalized, deck);
+        } else if (frontNormalized.isEmpty()) {
+            return cardBaseRepository.findByBackNormalizedContainingAndDeck(backNormalized, deck);
         } else {
-            return cardBaseRepository.findByFrontContainingAndBackContainingAndDeck(phraseInFront, phraseInBack, deck);
+            return cardBaseRepository.findByFrontNormalizedContainingAndBackNormalizedContainingAndDeck(frontNormalized, backNormalized, deck);
         }
     }
 
     /**
-     * Finds a card by its front text and the deck it belongs to.
+     * Starts finding the cards of a deck matching the given search criteria in the background,
+     * as {@link #findCardsByUser(String, String, DeckBase)} does.
+     * <p>
+     * A search cancelled before it starts does not query the database, and a cancelled search completes
+     * with {@code null}, so the caller can tell its result is stale.
+     * </p>
+     *
+     * @param phraseInFront the front text search phrase.
+     * @param phraseInBack  the back text search phrase.
+     * @param deck          the deck containing the cards.
+     * @return the job finding the cards, completed with the matching cards, or with {@code null} if it was cancelled.
+     */
+    public BackgroundJob<List<CardBase>> findCardsByUserInBackground(String phraseInFront, String phraseInBack, DeckBase deck) {
+        BackgroundJob<List<CardBase>> job = new BackgroundJob<>(null);
+        backgroundExecutor.execute(() -> {
+            try {
+                job.start(1);
+                List<CardBase> cards = null;
+                if (!job.isCancelled()) {
+                    cards = findCardsByUser(phraseInFront, phraseInBack, deck);
+                    job.addProcessed(1);
+                }
+                job.complete(job.isCancelled() ? null : cards);
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Finds a card by its front text and the deck it belongs to, ignoring case, diacritics and whitespace differences.
      *
      * @param frontText the front text of the card.
      * @param deck      the deck to search in.
      * @return an {@link Optional} containing the card if found, or empty if not found.
      */
     public Optional<CardBase> findCardByFrontAndDeck(String frontText, DeckBase deck){
-        return cardBaseRepository.findByFrontAndDeck(frontText, deck);
+        return cardBaseRepository.findFirstByFrontNormalizedAndDeck(CardSearchText.normalize(frontText), deck);
+    }
+
+    /**
+     * Filters imported cards down to the ones whose front text is not used yet, ignoring case, diacritics
+     * and whitespace differences: neither by a card of the deck nor by an earlier imported card.
+     * The fronts are looked up with the indexed normalized column, in batches of {@value #BATCH_SIZE},
+     * without loading the cards of the deck.
+     *
+     * @param importedCards the imported cards.
+     * @param deck          the deck the cards are imported into.
+     * @return the imported cards with new fronts, in their original order.
+     */
+    public List<CardBase> filterNewCards(List<CardBase> importedCards, DeckBase deck) {
+        Set<String> usedFronts = new HashSet<>();
+        if (deck.getIdDeck() != null) {
+            List<String> importedFronts = importedCards.stream()
+                    .map(card -> CardSearchText.normalize(card.getFront()))
+                    .distinct()
+                    .toList();
+            for (int start = 0; start < importedFronts.size(); start += BATCH_SIZE) {
+                List<String> batch = importedFronts.subList(start, Math.min(start + BATCH_SIZE, importedFronts.size()));
+                usedFronts.addAll(cardBaseRepository.findFrontsNormalizedByDeckIdIn(deck.getIdDeck(), batch));
+            }
+        }
+        List<CardBase> newCards = new ArrayList<>();
+        for (CardBase card : importedCards) {
+            if (usedFronts.add(CardSearchText.normalize(card.getFront()))) {
+                newCards.add(card);
+            }
+        }
+        return newCards;
+    }
+
+    /**
+     * Starts normalizing the texts of the cards stored without them when the application starts.
+     * The job runs in the background, so its failure is logged rather than propagated to the event publisher.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalizeMissingTextsOnStartup() {
+        normalizeMissingTexts().getResult().exceptionally(e -> {
+            LOGGER.error("Normalizing the card texts failed", e);
+            return null;
+        });
+    }
+
+    /**
+     * Computes the normalized texts of the cards stored before the normalized columns were added.
+     * The cards are read in batches of {@value #BATCH_SIZE} in the background when the application starts,
+     * and cards written in the meantime are normalized when they are saved.
+     *
+     * @return the handle of the started job, completed with the number of normalized cards
+     */
+    public BackgroundJob<Integer> normalizeMissingTexts() {
+        BackgroundJob<Integer> job = new BackgroundJob<>(null);
+        backgroundExecutor.execute(() -> {
+            try {
+                job.start(0);
+                int normalizedCount = 0;
+                long afterId = 0;
+                while (!job.isCancelled()) {
+                    List<Long> cardIds = cardBaseRepository.findIdsWithoutNormalizedTextsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+                    if (cardIds.isEmpty()) {
+                        break;
+                    }
+                    List<CardBase> cards = cardBaseRepository.findAllById(cardIds);
+                    cards.forEach(CardBase::normalizeTexts);
+                    cardBaseRepository.saveAll(cards);
+                    normalizedCount += cards.size();
+                    job.addProcessed(cards.size());
+                    afterId = cardIds.get(cardIds.size() - 1);
+                }
+                job.complete(normalizedCount);
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Finds a card by its identifier.
+     *
+     * @param idCard the identifier of the card.
+     * @return an {@link Optional} containing the card if found, or empty if not found.
+     */
+    public Optional<CardBase> findCardById(Long idCard) {
+        return cardBaseRepository.findById(idCard);
+    }
+
+    /**
+     * Provides the pages of the summaries of all cards of a deck, ordered by identifiers, so the cards can be browsed
+     * with a {@link PagedCardList} without loading the whole deck.
+     *
+     * @param deck the deck containing the cards.
+     * @return the source of the pages of the cards of the deck.
+     */
+    public CardPageSource getCardPageSource(DeckBase deck) {
+        return new DeckCardPageSource(cardBaseRepository, deck.getIdDeck());
+    }
+
+    /**
+     * Source of the pages of the cards of a deck, reading only the identifiers and texts of the cards.
+     *
+     * @param cardBaseRepository repository of the cards
+     * @param deckId             the identifier of the deck
+     */
+    private record DeckCardPageSource(CardBaseRepository cardBaseRepository, Long deckId) implements CardPageSource {
+
+        @Override
+        public int count() {
+            return cardBaseRepository.countByDeckIdDeck(deckId);
+        }
+
+        @Override
+        public List<CardSummary> findAfter(long afterId, int limit) {
+            return cardBaseRepository.findSummariesByDeckIdAfter(deckId, afterId, PageRequest.of(0, limit));
+        }
+
+        @Override
+        public List<CardSummary> findBefore(long beforeId, int limit) {
+            return cardBaseRepository.findSummariesByDeckIdBefore(deckId, beforeId, PageRequest.of(0, limit)).reversed();
+        }
+
+        @Override
+        public List<CardSummary> findPage(int page, int pageSize) {
+            return cardBaseRepository.findSummariesByDeckId(deckId, PageRequest.of(page, pageSize));
+        }
     }
 }
@@ -0,0 +1,163 @@
+package gutek.services;
+
+import gutek.domain.charts.ChartData;
+import gutek.domain.charts.ChartEntry;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.jobs.JobProgressListener;
+import gutek.domain.reports.ChartReport;
+import gutek.domain.reports.ChartReportRenderer;
+import gutek.domain.reports.ReportFormat;
+import gutek.entities.decks.DeckBase;
+import gutek.repositories.DeckBaseRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Service writing the statistics charts of many decks to files, without displaying them.
+ * <p>
+ * The decks are processed in parallel by at most as many tasks of the background executor as there are processors,
+ * every task taking the next deck not started yet: the data of every chart compatible with the deck is computed
+ * and written straight to the requested formats, so no JavaFX stage or thread is needed.
+ * The files are laid out as {@code <output>/user-<id>/deck-<id>/<chart>[-<strategy index>].<extension>}.
+ * </p>
+ */
+@Service
+public class ChartReportService {
+
+    /** Maximum number of decks processed at the same time, so many decks never start a thread each. */
+    static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    /** Service listing the charts compatible with a deck. */
+    private final ChartService chartService;
+
+    /** Repository listing the decks. */
+    private final DeckBaseRepository deckBaseRepository;
+
+    /** Executor processing the decks in parallel. */
+    private final ExecutorService backgroundExecutor;
+
+
+    /**
+     * Constructor for ChartReportService.
+     *
+     * @param chartService       Service listing the charts compatible with a deck.
+     * @param deckBaseRepository Repository listing the decks.
+     * @param backgroundExecutor Executor processing the decks in parallel.
+     */
+    public ChartReportService(ChartService chartService,
+                              DeckBaseRepository deckBaseRepository,
+                              @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor) {
+        this.chartService = chartService;
+        this.deckBaseRepository = deckBaseRepository;
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * Starts writing the reports of the given decks, processing at most one deck per processor at the same time.
+     * <p>
+     * When the job is cancelled, the decks not started yet are skipped and the job completes
+     * with the number of files written so far. The job fails if any file cannot be written.
+     * </p>
+     *
+     * @param decks            the decks whose charts are written
+     * @param range            the number of days covered by the charts
+     * @param formats          the formats of the written files
+     * @param outputDirectory  the directory receiving the reports
+     * @param progressListener listener notified after every deck, may be {@code null}
+     * @return the handle of the started job, completed with the number of written files
+     */
+    public BackgroundJob<Integer> generateReports(List<DeckBase> decks, int range, Set<ReportFormat> formats,
+                                                  Path outputDirectory, JobProgressListener progressListener) {
+        BackgroundJob<Integer> job = new BackgroundJob<>(progressListener);
+        job.start(decks.size());
+        AtomicInteger nextDeck = new AtomicInteger();
+        List<CompletableFuture<Integer>> writtenFiles = IntStream.range(0, Math.min(PARALLELISM, decks.size()))
+                .mapToObj(worker -> CompletableFuture.supplyAsync(() -> {
+                    int workerFiles = 0;
+                    for (int index = nextDeck.getAndIncrement(); index < decks.size() && !job.isCancelled();
+                         index = nextDeck.getAndIncrement()) {
+                        workerFiles += writeDeckReports(decks.get(index), range, formats, outputDirectory);
+                        job.addProcessed(1);
+                    }
+                    return workerFiles;
+                }, backgroundExecutor))
+                .toList();
+        CompletableFuture.allOf(writtenFiles.toArray(CompletableFuture[]::new)).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                job.fail(throwable);
+            } else {
+                job.complete(writtenFiles.stream().mapToInt(CompletableFuture::join).sum());
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Starts writing the reports of all decks which are not deleted.
+     *
+     * @param range            the number of days covered by the charts
+     * @param formats          the formats of the written files
+     * @param outputDirectory  the directory receiving the reports
+     * @param progressListener listener notified after every deck, may be {@code null}
+     * @return the handle of the started job, completed with the number of written files
+     */
+    public BackgroundJob<Integer> generateAllReports(int range, Set<ReportFormat> formats, Path outputDirectory,
+                                                     JobProgressListener progressListener) {
+        List<DeckBase> decks = deckBaseRepository.findAll().stream()
+                .filter(deck -> !Boolean.TRUE.equals(deck.getIsDeleted()))
+                .toList();
+        return generateReports(decks, range, formats, outputDirectory, progressListener);
+    }
+
+    /**
+     * Writes the reports of every chart compatible with the deck.
+     *
+     * @param deck            the deck whose charts are written
+     * @param range           the number of days covered by the charts
+     * @param formats         the formats of the written files
+     * @param outputDirectory the directory receiving the reports
+     * @return the number of written files
+     * @throws UncheckedIOException if a file cannot be written
+     */
+    int writeDeckReports(DeckBase deck, int range, Set<ReportFormat> formats, Path outputDirectory) {
+        Path deckDirectory = getDeckDirectory(deck, outputDirectory);
+        int writtenFiles = 0;
+        for (ChartEntry entry : chartService.getDeckCompatibleCharts(deck)) {
+            ChartData data = entry.chart().computeData(range, deck, entry.revisionStrategyIndex());
+            ChartReport report = entry.chart().createReport(data, deck, entry.revisionStrategyIndex());
+            String fileName = entry.chart().getClass().getSimpleName()
+                    + (entry.revisionStrategyIndex() == null ? "" : "-" + entry.revisionStrategyIndex());
+            for (ReportFormat format : formats) {
+                try {
+                    ChartReportRenderer.write(report, format, deckDirectory.resolve(fileName + "." + format.getExtension()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                writtenFiles++;
+            }
+        }
+        return writtenFiles;
+    }
+
+    /**
+     * Resolves the directory receiving the reports of the deck.
+     *
+     * @param deck            the deck
+     * @param outputDirectory the directory receiving all reports
+     * @return the directory of the deck
+     */
+    static Path getDeckDirectory(DeckBase deck, Path outputDirectory) {
+        String userDirectory = "user-" + (deck.getUser() == null ? "none" : deck.getUser().getIdUser());
+        return outputDirectory.resolve(userDirectory).resolve("deck-" + deck.getIdDeck());
+    }
+}
@@ -1,16 +1,24 @@
 package gutek.services;
 
+import gutek.domain.charts.ChartData;
 import gutek.domain.charts.ChartEntry;
+import gutek.domain.charts.ChartRenderer;
+import gutek.domain.jobs.BackgroundJob;
 import gutek.domain.revisions.RevisionStrategy;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.decks.DeckBase;
 import gutek.domain.charts.charts.StatisticsChart;
 import javafx.scene.chart.Chart;
 import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Service class responsible for managing chart generation and translation of available ranges and chart types.
@@ -53,16 +61,31 @@ public class ChartService {
      */
     private final List<StatisticsChart> availableCharts;
 
+    /**
+     * Executor computing the chart data in the background.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Preferred renderer of the charts, used by the charts supporting it.
+     */
+    @Setter
+    @Value("${app.charts.renderer:CANVAS}")
+    private ChartRenderer chartRenderer = ChartRenderer.CANVAS;
+
     /**
      * Constructor for ChartService.
      *
      * @param translationService Service to handle translations.
      * @param availableCharts    List of available statistics charts.
+     * @param backgroundExecutor Executor computing the chart data in the background.
      */
     public ChartService(TranslationService translationService,
-                        List<StatisticsChart> availableCharts) {
+                        List<StatisticsChart> availableCharts,
+                        @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor) {
         this.translationService = translationService;
         this.availableCharts = availableCharts;
+        this.backgroundExecutor = backgroundExecutor;
     }
 
     /**
@@ -82,6 +105,56 @@ public class ChartService {
         return selectedChart.getChart(AVAILABLE_RANGES[rangeIndex], deck, revisionStrategyIndex);
     }
 
+    /**
+     * Starts computing the data of a selected chart that is compatible with the given deck in the background.
+     * <p>
+     * The computation is skipped if the job is cancelled before it starts and given up by the charts reading
+     * the statistics row by row as soon as the job is cancelled. A cancelled job completes with {@code null},
+     * so its result can be discarded by the caller. The chart displaying the data is created
+     * with {@link #createDeckCompatibleSelectedChart(int, ChartData, DeckBase)} on the JavaFX application thread.
+     * </p>
+     *
+     * @param typeIndex  The index of the chart type to select.
+     * @param rangeIndex The index of the time range to use for the chart.
+     * @param deck       The deck for which the chart is generated.
+     * @return The handle of the started job.
+     */
+    public BackgroundJob<ChartData> computeDeckCompatibleSelectedChartData(int typeIndex, int rangeIndex, DeckBase deck) {
+        ChartEntry selectedEntry = getDeckCompatibleCharts(deck).get(typeIndex);
+        BackgroundJob<ChartData> job = new BackgroundJob<>(null);
+        backgroundExecutor.execute(() -> {
+            try {
+                job.start(1);
+                ChartData data = null;
+                if (!job.isCancelled()) {
+                    data = selectedEntry.chart().computeData(AVAILABLE_RANGES[rangeIndex], deck,
+                            selectedEntry.revisionStrategyIndex(), job::isCancelled);
+                    job.addProcessed(1);
+                }
+                job.complete(job.isCancelled() ? null : data);
+            } catch (CancellationException e) {
+                job.complete(null);
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Creates the selected chart that is compatible with the given deck from data computed earlier,
+     * using the preferred renderer if the chart supports it. Has to be called on the JavaFX application thread.
+     *
+     * @param typeIndex The index of the chart type to select.
+     * @param data      The data computed by {@link #computeDeckCompatibleSelectedChartData(int, int, DeckBase)}.
+     * @param deck      The deck for which the chart is generated.
+     * @return A {@link Chart} object representing the selected chart.
+     */
+    public Chart createDeckCompatibleSelectedChart(int typeIndex, ChartData data, DeckBase deck) {
+        ChartEntry selectedEntry = getDeckCompatibleCharts(deck).get(typeIndex);
+        return selectedEntry.chart().createChart(data, deck, selectedEntry.revisionStrategyIndex(), chartRenderer);
+    }
+
     /**
      * Retrieves the titles of all charts compatible with the given deck, translated into the current locale.
      *
@@ -121,7 +194,7 @@ public class ChartService {
      * @param deck The deck for which compatible charts are retrieved.
      * @return A {@link List} of {@link ChartEntry} objects representing compatible charts.
      */
-    private List<ChartEntry> getDeckCompatibleCharts(DeckBase deck) {
+    public List<ChartEntry> getDeckCompatibleCharts(DeckBase deck) {
         RevisionAlgorithm<?> revisionAlgorithm = deck.getRevisionAlgorithm();
         List<? extends RevisionStrategy<?>> revisionStrategies = revisionAlgorithm.getAvailableRevisionStrategies();
 
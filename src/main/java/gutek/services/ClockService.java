@@ -0,0 +1,59 @@
+package gutek.services;
+
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Service providing the current date and time to the rest of the application.
+ * <p>
+ * All scheduling and statistics code reads the time through this service instead of the system clock,
+ * so the time can be controlled in simulations and tests by providing a different {@link Clock}.
+ * </p>
+ */
+@Service
+public class ClockService {
+
+    /**
+     * The clock of the application.
+     */
+    private final Clock clock;
+
+    /**
+     * Constructs the service.
+     *
+     * @param clock the clock of the application
+     */
+    public ClockService(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the clock of the application, for objects which are not managed by Spring.
+     *
+     * @return the clock
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the current date.
+     *
+     * @return the current date
+     */
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * Returns the current date and time.
+     *
+     * @return the current date and time
+     */
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+}
@@ -0,0 +1,395 @@
+package gutek.services;
+
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.jobs.JobProgressListener;
+import gutek.domain.revisions.DailyTotal;
+import gutek.domain.revisions.RevisionDayCount;
+import gutek.entities.cards.CardBase;
+import gutek.entities.decks.DailyAggregateKind;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.decks.DeckDailyAggregate;
+import gutek.entities.users.AppUser;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardBaseRevisionRepository;
+import gutek.repositories.DeckBaseRepository;
+import gutek.repositories.DeckDailyAggregateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Service maintaining the materialized daily counts of the decks, stored as {@link DeckDailyAggregate} rows.
+ * <p>
+ * The counts are updated incrementally by the services writing the cards and revisions, inside the same
+ * transaction as the write, so they never diverge from the data they are derived from. The counts of decks
+ * created before the aggregates existed are computed from the cards and the revision log by a backfill job,
+ * started automatically for the decks without any counts when the application starts.
+ * </p>
+ */
+@Service
+public class DailyAggregateService {
+
+    /**
+     * Logger reporting failures of the backfill started when the application starts.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(DailyAggregateService.class);
+
+    /**
+     * Repository for managing the daily counts.
+     */
+    private final DeckDailyAggregateRepository deckDailyAggregateRepository;
+
+    /**
+     * Repository for accessing the cards, used by the backfill.
+     */
+    private final CardBaseRepository cardBaseRepository;
+
+    /**
+     * Repository for accessing card revision history.
+     */
+    private final CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    /**
+     * Repository for accessing the decks, used by the backfill.
+     */
+    private final DeckBaseRepository deckBaseRepository;
+
+    /**
+     * Template of the transactions replacing the counts of a deck.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Service providing the current date.
+     */
+    private final ClockService clockService;
+
+    /**
+     * Executor running the backfill jobs.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Constructs the service.
+     *
+     * @param deckDailyAggregateRepository repository for managing the daily counts
+     * @param cardBaseRepository           repository for accessing the cards
+     * @param cardBaseRevisionRepository   repository for accessing card revision history
+     * @param deckBaseRepository           repository for accessing the decks
+     * @param transactionManager           manager of the transactions replacing the counts of a deck
+     * @param clockService                 service providing the current date
+     * @param backgroundExecutor           executor running the backfill jobs
+     */
+    public DailyAggregateService(DeckDailyAggregateRepository deckDailyAggregateRepository,
+                                 CardBaseRepository cardBaseRepository,
+                                 CardBaseRevisionRepository cardBaseRevisionRepository,
+                                 DeckBaseRepository deckBaseRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ClockService clockService,
+                                 @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor) {
+        this.deckDailyAggregateRepository = deckDailyAggregateRepository;
+        this.cardBaseRepository = cardBaseRepository;
+        this.cardBaseRevisionRepository = cardBaseRevisionRepository;
+        this.deckBaseRepository = deckBaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clockService = clockService;
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * Counts a card added to a deck.
+     *
+     * @param card the added card, with its deck and creation time set
+     */
+    public void cardAdded(CardBase card) {
+        add(card.getDeck().getIdDeck(), card.getCreationTime().toLocalDate(), DailyAggregateKind.CARDS_ADDED,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, 1);
+    }
+
+    /**
+     * Counts a recorded revision.
+     *
+     * @param deckId             the identifier of the deck of the revised card
+     * @param revisionDate       the date of the revision
+     * @param strategyClassName  the simple class name of the revision strategy
+     * @param pressedButtonIndex the index of the pressed button
+     * @param firstRevision      whether it is the first recorded revision of the card
+     */
+    public void cardRevised(Long deckId, LocalDate revisionDate, String strategyClassName, int pressedButtonIndex,
+                            boolean firstRevision) {
+        add(deckId, revisionDate, DailyAggregateKind.REVISIONS, strategyClassName, pressedButtonIndex, 1);
+        if (firstRevision) {
+            add(deckId, revisionDate, DailyAggregateKind.FIRST_REVISIONS, DeckDailyAggregate.NO_STRATEGY,
+                    DeckDailyAggregate.NO_BUTTON, 1);
+        }
+    }
+
+    /**
+     * Removes a card and its revisions from the counts. Has to be called before the revisions are deleted.
+     *
+     * @param card the removed card, with its deck and creation time set
+     */
+    public void cardRemoved(CardBase card) {
+        addCard(card, card.getDeck().getIdDeck(), cardBaseRevisionRepository.countRevisionsByCardBase(card), -1);
+    }
+
+    /**
+     * Moves a card and its revisions from the counts of its previous deck to the counts of its current deck.
+     *
+     * @param card           the moved card, with its new deck and creation time set
+     * @param previousDeckId the identifier of the deck the card was moved from
+     */
+    public void cardMoved(CardBase card, Long previousDeckId) {
+        List<RevisionDayCount> revisions = cardBaseRevisionRepository.countRevisionsByCardBase(card);
+        addCard(card, previousDeckId, revisions, -1);
+        addCard(card, card.getDeck().getIdDeck(), revisions, 1);
+    }
+
+    /**
+     * Deletes all counts of a removed deck.
+     *
+     * @param deckId the identifier of the removed deck
+     */
+    public void deckRemoved(Long deckId) {
+        deckDailyAggregateRepository.deleteByDeckId(deckId);
+    }
+
+    /**
+     * Reads the daily counts of the given kind for the last days, with a single range read.
+     *
+     * @param deck              the deck whose counts are read
+     * @param kind              the kind of the counted events
+     * @param strategyClassName the strategy whose revisions are counted, or {@code null} to count all of them
+     * @param range             the number of days, including today
+     * @return the counts by the number of days ago, today at index 0
+     */
+    public int[] getDailyCounts(DeckBase deck, DailyAggregateKind kind, String strategyClassName, int range) {
+        int[] counts = new int[range];
+        LocalDate today = clockService.today();
+        for (DeckDailyAggregate aggregate : findRange(deck, kind, today.minusDays(range - 1L), today)) {
+            if (strategyClassName == null || strategyClassName.equals(aggregate.getStrategyClassName())) {
+                counts[(int) ChronoUnit.DAYS.between(aggregate.getDay(), today)] += aggregate.getCount();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Reads the daily counts of the given kind summed over all decks of a user which are not deleted,
+     * with a single grouped query.
+     *
+     * @param user  the owner of the decks
+     * @param kind  the kind of the counted events
+     * @param range the number of days, including today
+     * @return the counts by the number of days ago, today at index 0; zeros if the user is not known
+     */
+    public int[] getUserDailyCounts(AppUser user, DailyAggregateKind kind, int range) {
+        int[] counts = new int[range];
+        if (user == null || user.getIdUser() == null) {
+            return counts;
+        }
+        LocalDate today = clockService.today();
+        for (DailyTotal total : deckDailyAggregateRepository.sumByUserAndKindAndDayBetween(user, kind, today.minusDays(range - 1L), today)) {
+            counts[(int) ChronoUnit.DAYS.between(total.day(), today)] += total.count().intValue();
+        }
+        return counts;
+    }
+
+    /**
+     * Reads the number of revisions by the pressed button over a range of days.
+     *
+     * @param deck              the deck whose counts are read
+     * @param strategyClassName the strategy whose revisions are counted, or {@code null} to count all of them
+     * @param from              the first day of the range
+     * @param to                the last day of the range
+     * @return the number of revisions by the index of the pressed button
+     */
+    public int[] getButtonCounts(DeckBase deck, String strategyClassName, LocalDate from, LocalDate to) {
+        int[] counts = new int[0];
+        for (DeckDailyAggregate aggregate : findRange(deck, DailyAggregateKind.REVISIONS, from, to)) {
+            if ((strategyClassName == null || strategyClassName.equals(aggregate.getStrategyClassName()))
+                    && aggregate.getPressedButtonIndex() >= 0) {
+                if (aggregate.getPressedButtonIndex() >= counts.length) {
+                    counts = Arrays.copyOf(counts, aggregate.getPressedButtonIndex() + 1);
+                }
+                counts[aggregate.getPressedButtonIndex()] += aggregate.getCount();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Starts recomputing the counts of the given decks from their cards and revision logs.
+     * <p>
+     * The counts of every deck are replaced in a separate transaction. When the job is cancelled,
+     * the decks not processed yet keep their current counts.
+     * </p>
+     *
+     * @param decks            the decks whose counts are recomputed
+     * @param progressListener listener notified after every deck, may be {@code null}
+     * @return the handle of the started job, completed with the number of written rows
+     */
+    public BackgroundJob<Integer> backfill(List<DeckBase> decks, JobProgressListener progressListener) {
+        BackgroundJob<Integer> job = new BackgroundJob<>(progressListener);
+        backgroundExecutor.execute(() -> {
+            try {
+                job.start(decks.size());
+                int rowsCount = 0;
+                for (DeckBase deck : decks) {
+                    if (job.isCancelled()) {
+                        break;
+                    }
+                    rowsCount += backfillDeck(deck.getIdDeck());
+                    job.addProcessed(1);
+                }
+                job.complete(rowsCount);
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Starts the backfill of the decks without counts when the application starts.
+     * The job runs in the background, so its failure is logged rather than propagated to the event publisher.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingOnStartup() {
+        backfillMissing().getResult().exceptionally(e -> {
+            LOGGER.error("Backfilling the daily counts failed", e);
+            return null;
+        });
+    }
+
+    /**
+     * Starts the backfill of all decks which have cards but no counts yet, e.g. decks created
+     * before the counts were maintained.
+     *
+     * @return the handle of the started job, completed with the number of written rows
+     */
+    public BackgroundJob<Integer> backfillMissing() {
+        List<DeckBase> decks = deckBaseRepository.findAll().stream()
+                .filter(deck -> !deckDailyAggregateRepository.existsByDeckId(deck.getIdDeck()))
+                .filter(deck -> cardBaseRepository.countByDeckIdDeck(deck.getIdDeck()) > 0)
+                .toList();
+        return backfill(decks, null);
+    }
+
+    /**
+     * Replaces the counts of a deck with counts computed from its cards and revision log.
+     *
+     * @param deckId the identifier of the deck
+     * @return the number of written rows
+     */
+    int backfillDeck(Long deckId) {
+        Integer rowsCount = transactionTemplate.execute(status -> {
+            deckDailyAggregateRepository.deleteByDeckId(deckId);
+            List<DeckDailyAggregate> aggregates = new ArrayList<>();
+
+            Map<LocalDate, Integer> addedByDay = new HashMap<>();
+            for (LocalDateTime creationTime : cardBaseRepository.findCreationTimesByDeckId(deckId)) {
+                if (creationTime != null) {
+                    addedByDay.merge(creationTime.toLocalDate(), 1, Integer::sum);
+                }
+            }
+            addedByDay.forEach((day, count) -> aggregates.add(new DeckDailyAggregate(null, deckId, day,
+                    DailyAggregateKind.CARDS_ADDED, DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, count)));
+
+            Map<LocalDate, Integer> firstRevisionsByDay = new HashMap<>();
+            for (LocalDate firstRevisionDate : cardBaseRevisionRepository.findFirstRevisionDatesByDeckId(deckId)) {
+                if (firstRevisionDate != null) {
+                    firstRevisionsByDay.merge(firstRevisionDate, 1, Integer::sum);
+                }
+            }
+            firstRevisionsByDay.forEach((day, count) -> aggregates.add(new DeckDailyAggregate(null, deckId, day,
+                    DailyAggregateKind.FIRST_REVISIONS, DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, count)));
+
+            for (RevisionDayCount revisions : cardBaseRevisionRepository.countRevisionsByDeckId(deckId)) {
+                if (revisions.revisionDate() != null && revisions.strategyClassName() != null && revisions.pressedButtonIndex() != null) {
+                    aggregates.add(new DeckDailyAggregate(null, deckId, revisions.revisionDate(), DailyAggregateKind.REVISIONS,
+                            revisions.strategyClassName(), revisions.pressedButtonIndex(), revisions.count().intValue()));
+                }
+            }
+
+            deckDailyAggregateRepository.saveAll(aggregates);
+            return aggregates.size();
+        });
+        return rowsCount == null ? 0 : rowsCount;
+    }
+
+    /**
+     * Reads the counts of a deck from a range of days.
+     *
+     * @param deck the deck whose counts are read
+     * @param kind the kind of the counted events
+     * @param from the first day of the range
+     * @param to   the last day of the range
+     * @return the counts from the range, empty for unsaved decks
+     */
+    private List<DeckDailyAggregate> findRange(DeckBase deck, DailyAggregateKind kind, LocalDate from, LocalDate to) {
+        if (deck.getIdDeck() == null) {
+            return List.of();
+        }
+        return deckDailyAggregateRepository.findByDeckIdAndKindAndDayBetween(deck.getIdDeck(), kind, from, to);
+    }
+
+    /**
+     * Adds a card and its revisions to the counts of a deck, or subtracts them.
+     *
+     * @param card           the card, with its creation time set
+     * @param deckId         the identifier of the deck
+     * @param revisionCounts the revisions of the card, counted by day, strategy and pressed button
+     * @param sign           1 to add the card, -1 to subtract it
+     */
+    private void addCard(CardBase card, Long deckId, List<RevisionDayCount> revisionCounts, int sign) {
+        add(deckId, card.getCreationTime().toLocalDate(), DailyAggregateKind.CARDS_ADDED,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, sign);
+        LocalDate firstRevisionDate = null;
+        for (RevisionDayCount revisions : revisionCounts) {
+            add(deckId, revisions.revisionDate(), DailyAggregateKind.REVISIONS, revisions.strategyClassName(),
+                    revisions.pressedButtonIndex(), sign * revisions.count().intValue());
+            if (firstRevisionDate == null || revisions.revisionDate().isBefore(firstRevisionDate)) {
+                firstRevisionDate = revisions.revisionDate();
+            }
+        }
+        if (firstRevisionDate != null) {
+            add(deckId, firstRevisionDate, DailyAggregateKind.FIRST_REVISIONS, DeckDailyAggregate.NO_STRATEGY,
+                    DeckDailyAggregate.NO_BUTTON, sign);
+        }
+    }
+
+    /**
+     * Adds a value to a count, creating the count if it does not exist yet.
+     *
+     * @param deckId             the identifier of the deck
+     * @param day                the day of the count
+     * @param kind               the kind of the counted events
+     * @param strategyClassName  the strategy of the counted revisions, or {@link DeckDailyAggregate#NO_STRATEGY}
+     * @param pressedButtonIndex the pressed button of the counted revisions, or {@link DeckDailyAggregate#NO_BUTTON}
+     * @param delta              the added value
+     */
+    private void add(Long deckId, LocalDate day, DailyAggregateKind kind, String strategyClassName, int pressedButtonIndex, int delta) {
+        if (deckId == null || day == null || delta == 0) {
+            return;
+        }
+        if (deckDailyAggregateRepository.addToCount(deckId, day, kind, strategyClassName, pressedButtonIndex, delta) == 0) {
+            deckDailyAggregateRepository.save(new DeckDailyAggregate(null, deckId, day, kind, strategyClassName, pressedButtonIndex, delta));
+        }
+    }
+}
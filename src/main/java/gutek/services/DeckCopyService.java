@@ -0,0 +1,350 @@
+package gutek.services;
+
+import gutek.domain.copies.DeckCopyOptions;
+import gutek.domain.copies.DeckCopyResult;
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.entities.algorithms.ConstantCoefficientRevisionAlgorithm;
+import gutek.entities.algorithms.FsrsRevisionAlgorithm;
+import gutek.entities.algorithms.RevisionAlgorithm;
+import gutek.entities.algorithms.SuperMemo2RevisionAlgorithm;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.decks.DeckBaseStatistics;
+import gutek.entities.users.AppUser;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardBaseRevisionRepository;
+import gutek.repositories.CardSignatureRepository;
+import gutek.repositories.CardTagRepository;
+import gutek.repositories.DeckBaseRepository;
+import gutek.repositories.DeckBaseStatisticsRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Service cloning a deck into a new deck and merging the cards of a deck into another deck of the same user.
+ * <p>
+ * The cards are copied with a single {@code INSERT ... SELECT} statement per table instead of loading and saving them
+ * one by one, so copying a deck with a hundred thousand cards takes a few statements. Every copy keeps the identifier
+ * of its card until the end of the copy, which lets the revision history, the tags and the duplicate detection
+ * signatures of the cards be copied the same way. All statements run in a single transaction, so a failed copy
+ * leaves no cards behind. The daily counts, the index of the most difficult cards, the statistics, the index of
+ * the search across all decks and the deck snapshot of the target deck are rebuilt from the copied rows.
+ * </p>
+ * <p>
+ * A merge copies the cards and leaves the merged deck unchanged, so it can be moved to the trash afterwards.
+ * </p>
+ */
+@Service
+public class DeckCopyService {
+
+    /**
+     * Repository for copying the cards.
+     */
+    private final CardBaseRepository cardBaseRepository;
+
+    /**
+     * Repository for copying the revision history of the cards.
+     */
+    private final CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    /**
+     * Repository for copying the tags of the cards.
+     */
+    private final CardTagRepository cardTagRepository;
+
+    /**
+     * Repository for copying the duplicate detection signatures of the cards.
+     */
+    private final CardSignatureRepository cardSignatureRepository;
+
+    /**
+     * Repository for reading the decks.
+     */
+    private final DeckBaseRepository deckBaseRepository;
+
+    /**
+     * Repository for saving the statistics of the cloned decks.
+     */
+    private final DeckBaseStatisticsRepository deckBaseStatisticsRepository;
+
+    /**
+     * Service creating the cloned decks.
+     */
+    private final DeckService deckService;
+
+    /**
+     * Service keeping the deck snapshots in sync with the copied cards.
+     */
+    private final DeckSnapshotService deckSnapshotService;
+
+    /**
+     * Service maintaining the daily counts of the decks.
+     */
+    private final DailyAggregateService dailyAggregateService;
+
+    /**
+     * Service maintaining the index of the most difficult cards of the decks.
+     */
+    private final DifficultCardService difficultCardService;
+
+    /**
+     * Service rebuilding the statistics of the decks from their revision history.
+     */
+    private final StatisticsRebuildService statisticsRebuildService;
+
+    /**
+     * Service keeping the index of the search across all decks in sync with the copied cards.
+     */
+    private final GlobalSearchService globalSearchService;
+
+    /**
+     * Service providing the current date and time of the reset cards.
+     */
+    private final ClockService clockService;
+
+    /**
+     * Publisher of the {@link DeckCardsChangedEvent} events.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Template of the transaction of a copy.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Executor running the copies.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Constructs the service.
+     *
+     * @param cardBaseRepository           repository for copying the cards
+     * @param cardBaseRevisionRepository   repository for copying the revision history of the cards
+     * @param cardTagRepository            repository for copying the tags of the cards
+     * @param cardSignatureRepository      repository for copying the duplicate detection signatures of the cards
+     * @param deckBaseRepository           repository for reading the decks
+     * @param deckBaseStatisticsRepository repository for saving the statistics of the cloned decks
+     * @param deckService                  service creating the cloned decks
+     * @param deckSnapshotService          service keeping the deck snapshots in sync with the copied cards
+     * @param dailyAggregateService        service maintaining the daily counts of the decks
+     * @param difficultCardService         service maintaining the index of the most difficult cards of the decks
+     * @param statisticsRebuildService     service rebuilding the statistics of the decks from their revision history
+     * @param globalSearchService          service keeping the index of the search across all decks in sync with the copied cards
+     * @param clockService                 service providing the current date and time of the reset cards
+     * @param eventPublisher               publisher of the {@link DeckCardsChangedEvent} events
+     * @param transactionManager           manager of the transaction of a copy
+     * @param backgroundExecutor           executor running the copies
+     */
+    public DeckCopyService(CardBaseRepository cardBaseRepository,
+                           CardBaseRevisionRepository cardBaseRevisionRepository,
+                           CardTagRepository cardTagRepository,
+                           CardSignatureRepository cardSignatureRepository,
+                           DeckBaseRepository deckBaseRepository,
+                           DeckBaseStatisticsRepository deckBaseStatisticsRepository,
+                           DeckService deckService,
+                           DeckSnapshotService deckSnapshotService,
+                           DailyAggregateService dailyAggregateService,
+                           DifficultCardService difficultCardService,
+                           StatisticsRebuildService statisticsRebuildService,
+                           GlobalSearchService globalSearchService,
+                           ClockService clockService,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor) {
+        this.cardBaseRepository = cardBaseRepository;
+        this.cardBaseRevisionRepository = cardBaseRevisionRepository;
+        this.cardTagRepository = cardTagRepository;
+        this.cardSignatureRepository = cardSignatureRepository;
+        this.deckBaseRepository = deckBaseRepository;
+        this.deckBaseStatisticsRepository = deckBaseStatisticsRepository;
+        this.deckService = deckService;
+        this.deckSnapshotService = deckSnapshotService;
+        this.dailyAggregateService = dailyAggregateService;
+        this.difficultCardService = difficultCardService;
+        this.statisticsRebuildService = statisticsRebuildService;
+        this.globalSearchService = globalSearchService;
+        this.clockService = clockService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * Finds the decks the cards of a deck can be merged into: the other non-deleted decks of its user
+     * using the same revision algorithm, so the copied cards keep their schedule.
+     *
+     * @param deck the merged deck
+     * @return the possible target decks
+     */
+    public List<DeckBase> findMergeTargets(DeckBase deck) {
+        return deckBaseRepository.findByUserAndIsDeletedFalse(deck.getUser()).stream()
+                .filter(target -> isMergeTarget(deck, target))
+                .toList();
+    }
+
+    /**
+     * Starts cloning a deck into a new deck of the same user in the background. The new deck gets a copy of the
+     * revision algorithm with its hyperparameters, the daily limit of new cards and copies of all cards.
+     *
+     * @param deck    the cloned deck
+     * @param name    the name of the new deck
+     * @param options the options of copying the cards
+     * @return the job cloning the deck, completed with the identifier of the new deck and the number of copied rows
+     */
+    public BackgroundJob<DeckCopyResult> cloneInBackground(DeckBase deck, String name, DeckCopyOptions options) {
+        BackgroundJob<DeckCopyResult> job = new BackgroundJob<>(null);
+        backgroundExecutor.execute(() -> {
+            try {
+                job.start(cardBaseRepository.countByDeckIdDeck(deck.getIdDeck()));
+                DeckCopyResult result = transactionTemplate.execute(status -> copyCards(deck, createClone(deck, name), options));
+                publishCopy(result.targetDeckId(), deck.getUser());
+                job.addProcessed(result.copiedCount() + result.skippedCount());
+                job.complete(result);
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Starts merging the cards of a deck into another deck in the background. The merged deck is left unchanged.
+     *
+     * @param deck    the merged deck
+     * @param target  the deck the cards are copied into
+     * @param options the options of copying the cards
+     * @return the job merging the decks, completed with the number of copied and skipped rows
+     * @throws IllegalArgumentException through the job, if the target deck is not a possible target
+     */
+    public BackgroundJob<DeckCopyResult> mergeInBackground(DeckBase deck, DeckBase target, DeckCopyOptions options) {
+        BackgroundJob<DeckCopyResult> job = new BackgroundJob<>(null);
+        backgroundExecutor.execute(() -> {
+            try {
+                if (!isMergeTarget(deck, target)) {
+                    throw new IllegalArgumentException("Cards cannot be merged into deck " + target.getIdDeck());
+                }
+                job.start(cardBaseRepository.countByDeckIdDeck(deck.getIdDeck()));
+                DeckCopyResult result = transactionTemplate.execute(status -> copyCards(deck, target, options));
+                publishCopy(target.getIdDeck(), target.getUser());
+                job.addProcessed(result.copiedCount() + result.skippedCount());
+                job.complete(result);
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Creates an empty deck of the user of the cloned deck, with a copy of its revision algorithm
+     * and its daily limit of new cards. Has to be called in a transaction.
+     *
+     * @param deck the cloned deck
+     * @param name the name of the new deck
+     * @return the new deck
+     */
+    private DeckBase createClone(DeckBase deck, String name) {
+        DeckBase clone = deckService.addNewDeck(deck.getUser(), deck.getRevisionAlgorithm().copy(), name);
+        DeckBaseStatistics statistics = clone.getDeckBaseStatistics();
+        if (deck.getDeckBaseStatistics() != null && statistics != null) {
+            statistics.setNewCardsPerDay(deck.getDeckBaseStatistics().getNewCardsPerDay());
+            deckBaseStatisticsRepository.save(statistics);
+        }
+        return clone;
+    }
+
+    /**
+     * Copies the cards of a deck with their tags and signatures, and optionally their revision history, into
+     * another deck and rebuilds the counts of the target deck. Has to be called in a transaction.
+     *
+     * @param deck    the deck whose cards are copied
+     * @param target  the deck the cards are copied into
+     * @param options the options of copying the cards
+     * @return the numbers of the copied and skipped rows
+     */
+    private DeckCopyResult copyCards(DeckBase deck, DeckBase target, DeckCopyOptions options) {
+        Long deckId = deck.getIdDeck();
+        Long targetId = target.getIdDeck();
+        deckSnapshotService.beginCardsChange(target);
+        int cardsCount = cardBaseRepository.countByDeckIdDeck(deckId);
+        int copiedCount = copyCardRows(deckId, target, options);
+        int copiedRevisions = options.copyHistory() ? cardBaseRevisionRepository.copyRevisionsOfCopiedCards(targetId) : 0;
+        cardTagRepository.copyTagsOfCopiedCards(targetId);
+        cardSignatureRepository.copySignaturesOfCopiedCards(targetId);
+        cardBaseRepository.clearCopySourceIds(targetId);
+
+        dailyAggregateService.backfillDeck(targetId);
+        if (copiedRevisions > 0) {
+            difficultCardService.rebuildDeck(target);
+            statisticsRebuildService.rebuildDeck(target, true);
+        }
+        return new DeckCopyResult(targetId, copiedCount, cardsCount - copiedCount, copiedRevisions);
+    }
+
+    /**
+     * Copies the cards of a deck into another deck with the statement of the card type of the revision algorithm
+     * of the target deck.
+     *
+     * @param deckId  the identifier of the deck whose cards are copied
+     * @param target  the deck the cards are copied into
+     * @param options the options of copying the cards
+     * @return the number of copied cards
+     * @throws IllegalArgumentException if the revision algorithm of the target deck is not supported
+     */
+    private int copyCardRows(Long deckId, DeckBase target, DeckCopyOptions options) {
+        Long targetId = target.getIdDeck();
+        LocalDate today = clockService.today();
+        LocalDateTime now = clockService.now();
+        RevisionAlgorithm<?> algorithm = target.getRevisionAlgorithm();
+        if (algorithm instanceof SuperMemo2RevisionAlgorithm superMemo2) {
+            return cardBaseRepository.copySuperMemo2Cards(deckId, targetId, options.resetScheduling(), options.skipsDuplicates(),
+                    today, now, superMemo2.getInitialEasinessFactor(), superMemo2.getReverseInitialEasinessFactor());
+        }
+        if (algorithm instanceof FsrsRevisionAlgorithm) {
+            return cardBaseRepository.copyFsrsCards(deckId, targetId, options.resetScheduling(), options.skipsDuplicates(), today, now);
+        }
+        if (algorithm instanceof ConstantCoefficientRevisionAlgorithm) {
+            return cardBaseRepository.copyConstantCoefficientCards(deckId, targetId, options.resetScheduling(),
+                    options.skipsDuplicates(), today, now);
+        }
+        throw new IllegalArgumentException("Cards of deck " + targetId + " cannot be copied");
+    }
+
+    /**
+     * Indexes the cards copied into a deck for the search across all decks and publishes the change of its cards.
+     *
+     * @param targetId the identifier of the deck the cards were copied into
+     * @param user     the owner of the deck
+     */
+    private void publishCopy(Long targetId, AppUser user) {
+        globalSearchService.deckCardsAdded(targetId, user);
+        eventPublisher.publishEvent(new DeckCardsChangedEvent(targetId, DeckCardsChangedEvent.ChangeType.ADDED));
+    }
+
+    /**
+     * Checks whether the cards of a deck can be merged into another deck.
+     *
+     * @param deck   the merged deck
+     * @param target the possible target deck
+     * @return {@code true} if the target is another non-deleted deck of the same user with the same revision algorithm
+     */
+    private static boolean isMergeTarget(DeckBase deck, DeckBase target) {
+        return !Objects.equals(deck.getIdDeck(), target.getIdDeck())
+                && !Boolean.TRUE.equals(target.getIsDeleted())
+                && deck.getUser() != null && target.getUser() != null
+                && Objects.equals(deck.getUser().getIdUser(), target.getUser().getIdUser())
+                && deck.getRevisionAlgorithm() != null && target.getRevisionAlgorithm() != null
+                && deck.getRevisionAlgorithm().getClass().equals(target.getRevisionAlgorithm().getClass());
+    }
+}
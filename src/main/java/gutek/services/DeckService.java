@@ -1,5 +1,9 @@
 package gutek.services;
 
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.domain.search.CardSearchText;
+import gutek.domain.snapshots.DeckSnapshot;
+import gutek.domain.tags.TagFilter;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.cards.CardBase;
 import gutek.entities.decks.DeckBase;
@@ -7,9 +11,11 @@ import gutek.entities.decks.DeckBaseStatistics;
 import gutek.entities.users.AppUser;
 import gutek.repositories.*;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +27,11 @@ import java.util.Optional;
 @AllArgsConstructor
 public class DeckService {
 
+    /**
+     * Maximum number of card identifiers passed to a single query when loading cards listed by a snapshot.
+     */
+    private static final int CARDS_QUERY_CHUNK_SIZE = 500;
+
     /**
      * Repository for accessing deck information.
      */
@@ -51,6 +62,46 @@ public class DeckService {
      */
     private final DeckBaseStatisticsRepository deckBaseStatisticsRepository;
 
+    /**
+     * Service providing memory-mapped snapshots of the decks' scheduling state.
+     */
+    private final DeckSnapshotService deckSnapshotService;
+
+    /**
+     * Service providing the current date.
+     */
+    private final ClockService clockService;
+
+    /**
+     * Service maintaining the daily counts of the decks.
+     */
+    private final DailyAggregateService dailyAggregateService;
+
+    /**
+     * Service maintaining the index of the most difficult cards of the decks.
+     */
+    private final DifficultCardService difficultCardService;
+
+    /**
+     * Service keeping the index of the search across all decks in sync with the modified cards.
+     */
+    private final GlobalSearchService globalSearchService;
+
+    /**
+     * Service deleting the signatures of the cards of the removed decks.
+     */
+    private final DuplicateDetectionService duplicateDetectionService;
+
+    /**
+     * Service selecting the cards of filtered revision sessions and deleting the tags of the cards of the removed decks.
+     */
+    private final TagService tagService;
+
+    /**
+     * Publisher of the {@link DeckCardsChangedEvent} events.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
      * Retrieves all cards from the specified deck.
      *
@@ -68,7 +119,28 @@ public class DeckService {
      * @return List of cards due for regular revision.
      */
     public List<CardBase> getRegularRevisionCards(DeckBase deck) {
-        return cardBaseRepository.findByDeckIdDeckAndIsNewCardFalseAndNextRegularRevisionDateLessThanEqual(deck.getIdDeck(), LocalDate.now());
+        Optional<DeckSnapshot> snapshot = deckSnapshotService.openSnapshot(deck);
+        if (snapshot.isPresent()) {
+            return findCardsByIds(snapshot.get().findRegularRevisionCardIds(clockService.today()));
+        }
+        return cardBaseRepository.findByDeckIdDeckAndIsNewCardFalseAndNextRegularRevisionDateLessThanEqual(deck.getIdDeck(), clockService.today());
+    }
+
+    /**
+     * Retrieves cards that are due for regular revision from the specified deck and selected by a tag filter.
+     * With a deck snapshot, the due cards are filtered by their identifiers, so only the selected cards are loaded.
+     *
+     * @param deck      The deck from which to retrieve cards.
+     * @param tagFilter The filter selecting the cards by their tags.
+     * @return List of the selected cards due for regular revision.
+     */
+    public List<CardBase> getRegularRevisionCards(DeckBase deck, TagFilter tagFilter) {
+        Optional<DeckSnapshot> snapshot = deckSnapshotService.openSnapshot(deck);
+        if (snapshot.isPresent()) {
+            return findCardsByIds(tagService.filterCardIds(deck, snapshot.get().findRegularRevisionCardIds(clockService.today()), tagFilter));
+        }
+        return tagService.filterCards(deck, cardBaseRepository.findByDeckIdDeckAndIsNewCardFalseAndNextRegularRevisionDateLessThanEqual(
+                deck.getIdDeck(), clockService.today()), tagFilter);
     }
 
     /**
@@ -78,7 +150,28 @@ public class DeckService {
      * @return List of cards due for reverse revision.
      */
     public List<CardBase> getReverseRevisionCards(DeckBase deck) {
-        return cardBaseRepository.findByDeckIdDeckAndIsNewCardFalseAndNextReverseRevisionDateLessThanEqual(deck.getIdDeck(), LocalDate.now());
+        Optional<DeckSnapshot> snapshot = deckSnapshotService.openSnapshot(deck);
+        if (snapshot.isPresent()) {
+            return findCardsByIds(snapshot.get().findReverseRevisionCardIds(clockService.today()));
+        }
+        return cardBaseRepository.findByDeckIdDeckAndIsNewCardFalseAndNextReverseRevisionDateLessThanEqual(deck.getIdDeck(), clockService.today());
+    }
+
+    /**
+     * Retrieves cards that are due for reverse revision from the specified deck and selected by a tag filter.
+     * With a deck snapshot, the due cards are filtered by their identifiers, so only the selected cards are loaded.
+     *
+     * @param deck      The deck from which to retrieve cards.
+     * @param tagFilter The filter selecting the cards by their tags.
+     * @return List of the selected cards due for reverse revision.
+     */
+    public List<CardBase> getReverseRevisionCards(DeckBase deck, TagFilter tagFilter) {
+        Optional<DeckSnapshot> snapshot = deckSnapshotService.openSnapshot(deck);
+        if (snapshot.isPresent()) {
+            return findCardsByIds(tagService.filterCardIds(deck, snapshot.get().findReverseRevisionCardIds(clockService.today()), tagFilter));
+        }
+        return tagService.filterCards(deck, cardBaseRepository.findByDeckIdDeckAndIsNewCardFalseAndNextReverseRevisionDateLessThanEqual(
+                deck.getIdDeck(), clockService.today()), tagFilter);
     }
 
     /**
@@ -102,6 +195,22 @@ public class DeckService {
         return newCards.subList(0, newCardsForTodayRevisionNumber);
     }
 
+    /**
+     * Retrieves new cards selected by a tag filter for today's revision, up to the specified limit.
+     * The new cards are filtered before the limit is applied, so the session is filled with the selected cards.
+     *
+     * @param deck                           The deck from which to retrieve cards.
+     * @param newCardsForTodayRevisionNumber The number of new cards to retrieve.
+     * @param tagFilter                      The filter selecting the cards by their tags.
+     * @return List of the selected new cards for today's revision.
+     */
+    public List<CardBase> getNewCardsForTodayRevision(DeckBase deck, int newCardsForTodayRevisionNumber, TagFilter tagFilter) {
+        List<CardBase> newCards = tagService.filterCards(deck, getAllNewCards(deck), tagFilter).stream()
+                .sorted(Comparator.comparing(CardBase::getCreationTime))
+                .toList();
+        return newCards.subList(0, Math.min(newCardsForTodayRevisionNumber, newCards.size()));
+    }
+
     /**
      * Retrieves all new cards from the specified deck.
      *
@@ -118,6 +227,12 @@ public class DeckService {
      * @param deck The deck to be removed.
      */
     public void removeDeck(DeckBase deck){
+        deckSnapshotService.deleteSnapshot(deck);
+        dailyAggregateService.deckRemoved(deck.getIdDeck());
+        difficultCardService.deckRemoved(deck.getIdDeck());
+        globalSearchService.deckRemoved(deck.getIdDeck());
+        duplicateDetectionService.deckRemoved(deck.getIdDeck());
+        tagService.deckRemoved(deck.getIdDeck());
         List<CardBase> cards = deck.getCards();
         for (CardBase c : cards){
             cardBaseRevisionRepository.deleteByCardBase(c);
@@ -173,7 +288,8 @@ public class DeckService {
         AppUser currentUser = appUserRepository.findById(loggedUser.getIdUser()).orElseThrow(() -> new RuntimeException("User not found"));
         revisionAlgorithmRepository.save(algorithm);
         DeckBaseStatistics deckBaseStatistics = new DeckBaseStatistics();
-        DeckBase newDeck = new DeckBase(null, deckName,false, algorithm, null,currentUser);
+        deckBaseStatistics.setTodayIndicator(clockService.today());
+        DeckBase newDeck = new DeckBase(null, deckName,false, algorithm, null,currentUser, 0L);
         deckBaseRepository.save(newDeck);
         deckBaseStatistics.setDeck(newDeck);
         deckBaseStatisticsRepository.save(deckBaseStatistics);
@@ -215,20 +331,30 @@ public class DeckService {
     }
 
     /**
-     * Adds a new card to the specified deck if it doesn't already exist.
+     * Adds a new card to the specified deck if no card of the deck has the same front,
+     * ignoring case, diacritics and whitespace differences. As with {@link CardService#addNewCard(String, String, DeckBase)},
+     * the card is appended to the deck snapshot, counted in the daily counts of the deck in the same transaction
+     * and announced with a {@link DeckCardsChangedEvent}.
      *
      * @param cardBase The card to be added.
      * @param deck     The deck to which the card will be added.
      */
+    @Transactional
     public void addNewCardToDeck(CardBase cardBase, DeckBase deck){
         Optional<DeckBase> deckBase = deckBaseRepository.findById(deck.getIdDeck());
         if(deckBase.isPresent()){
-            Optional<CardBase> cardBaseOptional = cardBaseRepository.findByFrontAndDeck(cardBase.getFront(), deckBase.get());
+            Optional<CardBase> cardBaseOptional = cardBaseRepository.findFirstByFrontNormalizedAndDeck(
+                    CardSearchText.normalize(cardBase.getFront()), deckBase.get());
             if(cardBaseOptional.isEmpty()){
-                deckBase.get().getCards().add(cardBase);
-                deckBaseRepository.save(deckBase.get());
                 cardBase.setDeck(deckBase.get());
+                deckSnapshotService.beginCardsChange(deckBase.get());
                 cardBaseRepository.save(cardBase);
+                deckSnapshotService.completeCardsChange(deckBase.get(), List.of(cardBase));
+                dailyAggregateService.cardAdded(cardBase);
+                globalSearchService.cardSaved(cardBase);
+                deckBase.get().getCards().add(cardBase);
+                deckBaseRepository.save(deckBase.get());
+                eventPublisher.publishEvent(new DeckCardsChangedEvent(deckBase.get().getIdDeck(), DeckCardsChangedEvent.ChangeType.ADDED));
             }
         }
     }
@@ -240,6 +366,10 @@ public class DeckService {
      * @return The total number of cards in the deck.
      */
     public int getAllCardsCount(DeckBase deck) {
+        Optional<DeckSnapshot> snapshot = deckSnapshotService.openSnapshot(deck);
+        if (snapshot.isPresent()) {
+            return snapshot.get().getCardsCount();
+        }
         return cardBaseRepository.countByDeckIdDeck(deck.getIdDeck());
     }
 
@@ -250,6 +380,10 @@ public class DeckService {
      * @return The number of new cards in the deck.
      */
     public int getNewCardsCount(DeckBase deck) {
+        Optional<DeckSnapshot> snapshot = deckSnapshotService.openSnapshot(deck);
+        if (snapshot.isPresent()) {
+            return snapshot.get().countNewCards();
+        }
         return cardBaseRepository.countByDeckIdDeckAndIsNewCardTrue(deck.getIdDeck());
     }
 
@@ -260,7 +394,11 @@ public class DeckService {
      * @return The number of cards due for regular revision in the deck.
      */
     public int getRegularRevisionCardsCount(DeckBase deck) {
-        return cardBaseRepository.countByDeckIdDeckAndIsNewCardFalseAndNextRegularRevisionDateLessThanEqual(deck.getIdDeck(),LocalDate.now());
+        Optional<DeckSnapshot> snapshot = deckSnapshotService.openSnapshot(deck);
+        if (snapshot.isPresent()) {
+            return snapshot.get().countRegularRevisionCards(clockService.today());
+        }
+        return cardBaseRepository.countByDeckIdDeckAndIsNewCardFalseAndNextRegularRevisionDateLessThanEqual(deck.getIdDeck(),clockService.today());
     }
 
     /**
@@ -270,7 +408,11 @@ public class DeckService {
      * @return The number of cards due for reverse revision in the deck.
      */
     public int getReverseRevisionCardsCount(DeckBase deck) {
-        return cardBaseRepository.countByDeckIdDeckAndIsNewCardFalseAndNextReverseRevisionDateLessThanEqual(deck.getIdDeck(),LocalDate.now());
+        Optional<DeckSnapshot> snapshot = deckSnapshotService.openSnapshot(deck);
+        if (snapshot.isPresent()) {
+            return snapshot.get().countReverseRevisionCards(clockService.today());
+        }
+        return cardBaseRepository.countByDeckIdDeckAndIsNewCardFalseAndNextReverseRevisionDateLessThanEqual(deck.getIdDeck(),clockService.today());
     }
 
     /**
@@ -282,4 +424,19 @@ public class DeckService {
     public Optional<DeckBase> findById(Long deckId){
         return deckBaseRepository.findById(deckId);
     }
+
+    /**
+     * Loads the cards with the given identifiers, splitting the identifiers into chunks to keep the queries small.
+     *
+     * @param cardIds The identifiers of the cards to load.
+     * @return List of the loaded cards.
+     */
+    private List<CardBase> findCardsByIds(List<Long> cardIds) {
+        List<CardBase> cards = new ArrayList<>(cardIds.size());
+        for (int from = 0; from < cardIds.size(); from += CARDS_QUERY_CHUNK_SIZE) {
+            int to = Math.min(from + CARDS_QUERY_CHUNK_SIZE, cardIds.size());
+            cards.addAll(cardBaseRepository.findAllById(cardIds.subList(from, to)));
+        }
+        return cards;
+    }
 }
@@ -0,0 +1,187 @@
+package gutek.services;
+
+import gutek.domain.snapshots.DeckSnapshot;
+import gutek.entities.cards.CardBase;
+import gutek.entities.decks.DeckBase;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service responsible for managing memory-mapped {@link DeckSnapshot} files.
+ * <p>
+ * A snapshot is trusted only if the change counter stored in its header equals the deck's cards change counter
+ * in the database. Every modification of cards has to be wrapped with {@link #beginCardsChange(DeckBase)} and
+ * {@link #completeCardsChange(DeckBase, Collection)}: the first call invalidates the snapshot before the database
+ * is modified, the second one writes the modified and added cards into the snapshot in place. Snapshots which
+ * cannot be updated in place are rebuilt the next time they are opened.
+ * </p>
+ */
+@Service
+public class DeckSnapshotService {
+
+    /**
+     * Default directory in which the snapshot files are stored.
+     */
+    private static final Path DEFAULT_SNAPSHOT_DIRECTORY = Paths.get("memory", "snapshots");
+
+    /**
+     * Repository for accessing deck information.
+     */
+    private final DeckBaseRepository deckBaseRepository;
+
+    /**
+     * Repository for accessing card information.
+     */
+    private final CardBaseRepository cardBaseRepository;
+
+    /**
+     * Directory in which the snapshot files are stored.
+     */
+    private final Path snapshotDirectory;
+
+    /**
+     * Snapshots opened in this session, by deck identifier. Cards may be saved by background jobs,
+     * so the map is accessed concurrently.
+     */
+    private final Map<Long, DeckSnapshot> openSnapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the service storing snapshots in the default directory.
+     *
+     * @param deckBaseRepository repository for accessing deck information
+     * @param cardBaseRepository repository for accessing card information
+     */
+    @Autowired
+    public DeckSnapshotService(DeckBaseRepository deckBaseRepository, CardBaseRepository cardBaseRepository) {
+        this(deckBaseRepository, cardBaseRepository, DEFAULT_SNAPSHOT_DIRECTORY);
+    }
+
+    /**
+     * Constructs the service storing snapshots in the given directory.
+     *
+     * @param deckBaseRepository repository for accessing deck information
+     * @param cardBaseRepository repository for accessing card information
+     * @param snapshotDirectory  directory in which the snapshot files are stored
+     */
+    public DeckSnapshotService(DeckBaseRepository deckBaseRepository, CardBaseRepository cardBaseRepository, Path snapshotDirectory) {
+        this.deckBaseRepository = deckBaseRepository;
+        this.cardBaseRepository = cardBaseRepository;
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    /**
+     * Returns a valid snapshot of the given deck.
+     * <p>
+     * A snapshot already opened in this session is returned without accessing the database. Otherwise the snapshot
+     * file is validated against the deck's change counter and rebuilt from the database if it is missing or stale.
+     * </p>
+     *
+     * @param deck the deck
+     * @return the snapshot, or an empty {@link Optional} if the snapshot cannot be created
+     */
+    public Optional<DeckSnapshot> openSnapshot(DeckBase deck) {
+        if (deck == null || deck.getIdDeck() == null) {
+            return Optional.empty();
+        }
+        Long deckId = deck.getIdDeck();
+        DeckSnapshot openSnapshot = openSnapshots.get(deckId);
+        if (openSnapshot != null && !openSnapshot.isDirty()) {
+            return Optional.of(openSnapshot);
+        }
+        openSnapshots.remove(deckId);
+
+        Long changeCounter = deckBaseRepository.findCardsChangeCounter(deckId);
+        if (changeCounter == null) {
+            return Optional.empty();
+        }
+        Path snapshotFile = getSnapshotFile(deckId);
+        try {
+            Optional<DeckSnapshot> snapshot = DeckSnapshot.open(snapshotFile)
+                    .filter(s -> s.getDeckId() == deckId && s.getChangeCounter() == changeCounter);
+            DeckSnapshot validSnapshot = snapshot.isPresent()
+                    ? snapshot.get()
+                    : DeckSnapshot.write(snapshotFile, deckId, changeCounter, cardBaseRepository.findByDeck(deck));
+            openSnapshots.put(deckId, validSnapshot);
+            return Optional.of(validSnapshot);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Marks the beginning of a modification of the given deck's cards.
+     * Increments the deck's change counter, so the snapshot file is no longer considered valid.
+     *
+     * @param deck the deck whose cards are going to be modified
+     */
+    public void beginCardsChange(DeckBase deck) {
+        if (deck == null || deck.getIdDeck() == null) {
+            return;
+        }
+        DeckSnapshot openSnapshot = openSnapshots.get(deck.getIdDeck());
+        if (openSnapshot != null) {
+            openSnapshot.markDirty();
+        }
+        deckBaseRepository.incrementCardsChangeCounter(deck.getIdDeck());
+    }
+
+    /**
+     * Completes a modification of the given deck's cards started with {@link #beginCardsChange(DeckBase)}.
+     * The modified cards are written into the opened snapshot, which becomes valid again; the records of added cards
+     * are appended to it. If the snapshot cannot be updated, it is dropped and rebuilt when next opened.
+     *
+     * @param deck  the deck whose cards were modified
+     * @param cards the modified cards
+     */
+    public void completeCardsChange(DeckBase deck, Collection<? extends CardBase> cards) {
+        if (deck == null || deck.getIdDeck() == null) {
+            return;
+        }
+        DeckSnapshot openSnapshot = openSnapshots.get(deck.getIdDeck());
+        if (openSnapshot == null) {
+            return;
+        }
+        Long changeCounter = deckBaseRepository.findCardsChangeCounter(deck.getIdDeck());
+        if (changeCounter == null || !openSnapshot.update(cards, changeCounter)) {
+            openSnapshots.remove(deck.getIdDeck());
+        }
+    }
+
+    /**
+     * Removes the snapshot of the given deck.
+     *
+     * @param deck the deck whose snapshot should be removed
+     */
+    public void deleteSnapshot(DeckBase deck) {
+        if (deck == null || deck.getIdDeck() == null) {
+            return;
+        }
+        openSnapshots.remove(deck.getIdDeck());
+        try {
+            Files.deleteIfExists(getSnapshotFile(deck.getIdDeck()));
+        } catch (IOException ignored) {
+            // a leftover file is harmless, it will never match the counter of another deck
+        }
+    }
+
+    /**
+     * Returns the path of the snapshot file of the given deck.
+     *
+     * @param deckId the deck identifier
+     * @return the snapshot file path
+     */
+    private Path getSnapshotFile(Long deckId) {
+        return snapshotDirectory.resolve("deck-" + deckId + ".snapshot");
+    }
+}
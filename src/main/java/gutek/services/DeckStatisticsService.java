@@ -8,6 +8,8 @@ import gutek.repositories.RevisionCountsRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 import static gutek.services.ChartService.MAX_RANGE;
 
@@ -33,6 +35,11 @@ public class DeckStatisticsService {
      */
     private final RevisionCountsRepository revisionCountsRepository;
 
+    /**
+     * Service providing the current date.
+     */
+    private final ClockService clockService;
+
     /**
      * Updates the statistics for the given deck if they are not up-to-date.
      *
@@ -42,11 +49,11 @@ public class DeckStatisticsService {
         Optional<DeckBaseStatistics> updatedStatistics = deckBaseStatisticsRepository.findById(idDeckStatistics);
         if (updatedStatistics.isPresent()){
             DeckBaseStatistics stat = updatedStatistics.get();
-            LocalDate today = LocalDate.now();
+            LocalDate today = clockService.today();
             long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(stat.getTodayIndicator(), today);
             if (daysBetween > 0) {
                 shiftStatistics(stat, (int) daysBetween);
-                stat.setTodayIndicator(LocalDate.now());
+                stat.setTodayIndicator(today);
                 deckBaseStatisticsRepository.save(stat);
             }
         }
@@ -196,6 +203,37 @@ public class DeckStatisticsService {
         }
     }
 
+    /**
+     * Overwrites the daily counters of the deck statistics, e.g. with counters rebuilt from the revision log.
+     * Counters of strategies missing in {@code revisionCounts} are reset to zeros.
+     *
+     * @param idDeckStatistics       ID of the deck statistics.
+     * @param revisedForTheFirstTime The counts of cards revised for the first time, today at index 0.
+     * @param revisionCounts         The revision counts by the strategy index, today at index 0.
+     */
+    public void replaceCounts(Long idDeckStatistics, int[] revisedForTheFirstTime, Map<Integer, int[]> revisionCounts){
+        updateStatisticsForToday(idDeckStatistics);
+        Optional<DeckBaseStatistics> updatedStatistics = deckBaseStatisticsRepository.findById(idDeckStatistics);
+        if (updatedStatistics.isPresent()){
+            DeckBaseStatistics stat = updatedStatistics.get();
+            stat.setRevisedForTheFirstTime(Arrays.copyOf(revisedForTheFirstTime, MAX_RANGE));
+            for (RevisionCounts revisionCount : stat.getRevisionCounts().values()) {
+                revisionCount.setCounts(new int[MAX_RANGE]);
+            }
+            revisionCounts.forEach((strategyIndex, counts) -> {
+                RevisionCounts revisionCount = stat.getRevisionCounts().computeIfAbsent(strategyIndex, k -> {
+                    RevisionCounts rc = new RevisionCounts();
+                    rc.setStrategyIndex(strategyIndex);
+                    rc.setDeckBaseStatistics(stat);
+                    return rc;
+                });
+                revisionCount.setCounts(Arrays.copyOf(counts, MAX_RANGE));
+            });
+            revisionCountsRepository.saveAll(stat.getRevisionCounts().values());
+            saveDeckStatistics(stat);
+        }
+    }
+
     /**
      * Saves or updates the given deck statistics.
      *
@@ -0,0 +1,343 @@
+package gutek.services;
+
+import gutek.domain.analytics.CardDifficulty;
+import gutek.domain.analytics.DifficultCardsAccumulator;
+import gutek.domain.analytics.RetentionStatistics;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.jobs.JobProgressListener;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.entities.algorithms.RevisionAlgorithm;
+import gutek.entities.cards.CardBase;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.decks.DifficultCard;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardBaseRevisionRepository;
+import gutek.repositories.DeckBaseRepository;
+import gutek.repositories.DifficultCardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service maintaining the bounded index of the most difficult cards of every deck, stored as {@link DifficultCard} rows.
+ * <p>
+ * The difficulty of a card changes only when it is failed, under the rule of the algorithm of its deck
+ * ({@link RevisionAlgorithm#isFailedRevision(int)}), so only failed revisions update the index: the
+ * difficulty of the card is computed from its own short revision history and offered to the index of its deck,
+ * which keeps at most {@link #CAPACITY} cards and evicts the least difficult one when full. Listing the hardest
+ * cards or the leeches of a deck therefore reads a few index rows instead of scanning the cards. The index of decks
+ * revised before it existed is rebuilt from the revision log when the application starts.
+ * </p>
+ */
+@Service
+public class DifficultCardService {
+
+    /**
+     * Logger reporting failures of the rebuild started when the application starts.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(DifficultCardService.class);
+
+    /**
+     * Maximum number of cards kept in the index of a deck.
+     */
+    public static final int CAPACITY = 100;
+
+    /**
+     * Repository for managing the index entries.
+     */
+    private final DifficultCardRepository difficultCardRepository;
+
+    /**
+     * Repository for loading the indexed cards.
+     */
+    private final CardBaseRepository cardBaseRepository;
+
+    /**
+     * Repository for accessing card revision history.
+     */
+    private final CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    /**
+     * Repository for accessing the decks, used by the rebuild.
+     */
+    private final DeckBaseRepository deckBaseRepository;
+
+    /**
+     * Template of the transactions rebuilding the index of a deck.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Executor running the rebuild jobs.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Constructs the service.
+     *
+     * @param difficultCardRepository    repository for managing the index entries
+     * @param cardBaseRepository         repository for loading the indexed cards
+     * @param cardBaseRevisionRepository repository for accessing card revision history
+     * @param deckBaseRepository         repository for accessing the decks
+     * @param transactionManager         manager of the transactions rebuilding the index of a deck
+     * @param backgroundExecutor         executor running the rebuild jobs
+     */
+    public DifficultCardService(DifficultCardRepository difficultCardRepository,
+                                CardBaseRepository cardBaseRepository,
+                                CardBaseRevisionRepository cardBaseRevisionRepository,
+                                DeckBaseRepository deckBaseRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor) {
+        this.difficultCardRepository = difficultCardRepository;
+        this.cardBaseRepository = cardBaseRepository;
+        this.cardBaseRevisionRepository = cardBaseRevisionRepository;
+        this.deckBaseRepository = deckBaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * Updates the index after a revision of a card has been recorded. Revisions which were not failed are ignored,
+     * as they do not change the difficulty of the card.
+     *
+     * @param card               the revised card, with its deck set
+     * @param pressedButtonIndex the index of the button pressed during the revision
+     */
+    public void cardRevised(CardBase card, int pressedButtonIndex) {
+        if (card.getDeck() == null) {
+            return;
+        }
+        int failedButtonsCount = failedButtonsCount(card.getDeck());
+        if (pressedButtonIndex >= failedButtonsCount) {
+            return;
+        }
+        DifficultCardsAccumulator accumulator = new DifficultCardsAccumulator(1, index -> index < failedButtonsCount);
+        cardBaseRevisionRepository.findRevisionLogByCardBase(card).forEach(accumulator);
+        accumulator.getMostDifficult().forEach(difficulty -> offer(card.getDeck().getIdDeck(), difficulty));
+    }
+
+    /**
+     * Offers the difficulty of a card to the index of a deck. The entry of the card is updated if it is already
+     * indexed; otherwise the card is added if the index is not full or if it is more difficult than
+     * the least difficult indexed card, which is then evicted.
+     *
+     * @param deckId     the identifier of the deck
+     * @param difficulty the current difficulty of the card
+     */
+    void offer(Long deckId, CardDifficulty difficulty) {
+        Optional<DifficultCard> existing = difficultCardRepository.findByCardId(difficulty.cardId());
+        if (existing.isPresent()) {
+            DifficultCard entry = existing.get();
+            entry.setDeckId(deckId);
+            entry.setLapses(difficulty.lapses());
+            entry.setFailures(difficulty.failures());
+            entry.setLastFailureDate(difficulty.lastFailureDate());
+            difficultCardRepository.save(entry);
+            return;
+        }
+        if (difficultCardRepository.countByDeckId(deckId) >= CAPACITY) {
+            Optional<DifficultCard> leastDifficult = difficultCardRepository.findFirstByDeckIdOrderByLapsesAscFailuresAscLastFailureDateAscCardIdDesc(deckId);
+            if (leastDifficult.isPresent() && CardDifficulty.LEAST_DIFFICULT_FIRST.compare(difficulty, toDifficulty(leastDifficult.get())) <= 0) {
+                return;
+            }
+            leastDifficult.ifPresent(difficultCardRepository::delete);
+        }
+        difficultCardRepository.save(toEntry(deckId, difficulty));
+    }
+
+    /**
+     * Removes a deleted card from the index.
+     *
+     * @param card the removed card
+     */
+    public void cardRemoved(CardBase card) {
+        if (card.getIdCard() != null) {
+            difficultCardRepository.deleteByCardId(card.getIdCard());
+        }
+    }
+
+    /**
+     * Removes the index of a deleted deck.
+     *
+     * @param deckId the identifier of the removed deck
+     */
+    public void deckRemoved(Long deckId) {
+        difficultCardRepository.deleteByDeckId(deckId);
+    }
+
+    /**
+     * Lists the most difficult cards of a deck, most difficult first.
+     *
+     * @param deck  the deck
+     * @param limit the maximum number of listed cards, at most {@link #CAPACITY} cards are indexed
+     * @return the most difficult cards
+     */
+    public List<CardBase> getMostDifficultCards(DeckBase deck, int limit) {
+        if (deck == null || deck.getIdDeck() == null || limit < 1) {
+            return List.of();
+        }
+        return loadCards(difficultCardRepository.findMostDifficult(deck.getIdDeck(), PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Lists the leeches of a deck, the cards with at least {@link RetentionStatistics#LEECH_LAPSES} lapses,
+     * most difficult first.
+     *
+     * @param deck the deck
+     * @return the leeches among the indexed cards
+     */
+    public List<CardBase> getLeeches(DeckBase deck) {
+        if (deck == null || deck.getIdDeck() == null) {
+            return List.of();
+        }
+        return loadCards(difficultCardRepository.findByMinLapses(deck.getIdDeck(), RetentionStatistics.LEECH_LAPSES));
+    }
+
+    /**
+     * Starts rebuilding the index of the given decks from their revision logs.
+     * <p>
+     * The index of every deck is replaced in a separate transaction. When the job is cancelled,
+     * the decks not processed yet keep their current index.
+     * </p>
+     *
+     * @param decks            the decks whose index is rebuilt
+     * @param progressListener listener notified after every deck, may be {@code null}
+     * @return the handle of the started job, completed with the number of written entries
+     */
+    public BackgroundJob<Integer> rebuild(List<DeckBase> decks, JobProgressListener progressListener) {
+        BackgroundJob<Integer> job = new BackgroundJob<>(progressListener);
+        backgroundExecutor.execute(() -> {
+            try {
+                job.start(decks.size());
+                int entriesCount = 0;
+                for (DeckBase deck : decks) {
+                    if (job.isCancelled()) {
+                        break;
+                    }
+                    entriesCount += rebuildDeck(deck);
+                    job.addProcessed(1);
+                }
+                job.complete(entriesCount);
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Starts rebuilding the index of the decks without indexed cards when the application starts.
+     * The job runs in the background, so its failure is logged rather than propagated to the event publisher.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildMissingOnStartup() {
+        rebuildMissing().getResult().exceptionally(e -> {
+            LOGGER.error("Rebuilding the difficult cards index failed", e);
+            return null;
+        });
+    }
+
+    /**
+     * Starts rebuilding the index of all decks which have failed revisions but no indexed cards, e.g. decks
+     * revised before the index was maintained.
+     *
+     * @return the handle of the started job, completed with the number of written entries
+     */
+    public BackgroundJob<Integer> rebuildMissing() {
+        List<DeckBase> decks = deckBaseRepository.findAll().stream()
+                .filter(deck -> !difficultCardRepository.existsByDeckId(deck.getIdDeck()))
+                .filter(deck -> cardBaseRevisionRepository.existsByCardBaseDeckIdDeckAndPressedButtonIndexLessThan(deck.getIdDeck(),
+                        failedButtonsCount(deck)))
+                .toList();
+        return rebuild(decks, null);
+    }
+
+    /**
+     * Replaces the index of a deck with the most difficult cards selected from its revision log.
+     *
+     * @param deck the deck
+     * @return the number of written entries
+     */
+    int rebuildDeck(DeckBase deck) {
+        Long deckId = deck.getIdDeck();
+        int failedButtonsCount = failedButtonsCount(deck);
+        Integer entriesCount = transactionTemplate.execute(status -> {
+            DifficultCardsAccumulator accumulator = new DifficultCardsAccumulator(CAPACITY, index -> index < failedButtonsCount);
+            try (Stream<RevisionLogEntry> revisionLog = cardBaseRevisionRepository.streamRevisionLogByDeckId(deckId)) {
+                revisionLog.forEach(accumulator);
+            }
+            difficultCardRepository.deleteByDeckId(deckId);
+            List<DifficultCard> entries = new ArrayList<>();
+            for (CardDifficulty difficulty : accumulator.getMostDifficult()) {
+                entries.add(toEntry(deckId, difficulty));
+            }
+            difficultCardRepository.saveAll(entries);
+            return entries.size();
+        });
+        return entriesCount == null ? 0 : entriesCount;
+    }
+
+    /**
+     * Loads the cards of the index entries, keeping the order of the entries.
+     *
+     * @param entries the index entries
+     * @return the cards which still exist
+     */
+    private List<CardBase> loadCards(List<DifficultCard> entries) {
+        Map<Long, CardBase> cardsById = cardBaseRepository.findAllById(entries.stream().map(DifficultCard::getCardId).toList())
+                .stream()
+                .collect(Collectors.toMap(CardBase::getIdCard, Function.identity()));
+        return entries.stream()
+                .map(entry -> cardsById.get(entry.getCardId()))
+                .filter(card -> card != null)
+                .toList();
+    }
+
+    /**
+     * Returns the number of buttons failing a revision in the algorithm of a deck.
+     *
+     * @param deck the deck
+     * @return the number of failing buttons of the deck's algorithm, or the default one if the deck has no algorithm
+     */
+    private static int failedButtonsCount(DeckBase deck) {
+        RevisionAlgorithm<?> algorithm = deck.getRevisionAlgorithm();
+        return algorithm == null ? RevisionAlgorithm.DEFAULT_FAILED_BUTTONS_COUNT : algorithm.getFailedButtonsCount();
+    }
+
+    /**
+     * Converts an index entry to the difficulty of its card.
+     *
+     * @param entry the index entry
+     * @return the difficulty of the card
+     */
+    private static CardDifficulty toDifficulty(DifficultCard entry) {
+        return new CardDifficulty(entry.getCardId(), entry.getLapses(), entry.getFailures(), entry.getLastFailureDate());
+    }
+
+    /**
+     * Creates an index entry of a card.
+     *
+     * @param deckId     the identifier of the deck
+     * @param difficulty the difficulty of the card
+     * @return the new, unsaved entry
+     */
+    private static DifficultCard toEntry(Long deckId, CardDifficulty difficulty) {
+        return new DifficultCard(null, deckId, difficulty.cardId(), difficulty.lapses(), difficulty.failures(),
+                difficulty.lastFailureDate());
+    }
+}
@@ -0,0 +1,247 @@
+package gutek.services;
+
+import gutek.domain.duplicates.DuplicateCandidate;
+import gutek.domain.duplicates.DuplicateDetector;
+import gutek.domain.duplicates.DuplicatePair;
+import gutek.domain.duplicates.MinHasher;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardSummary;
+import gutek.domain.search.CardText;
+import gutek.domain.search.DeckName;
+import gutek.domain.search.GlobalSearchResult;
+import gutek.entities.cards.CardBase;
+import gutek.entities.cards.CardSignature;
+import gutek.entities.users.AppUser;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardSignatureRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service finding near-duplicate cards across all non-deleted decks of a user, such as {@code "self-assured"}
+ * and {@code "self assured"}, or the same word imported into two decks.
+ * <p>
+ * The search runs in the background, reading the card texts in batches by keyset. The {@link MinHasher} signature
+ * of every card is stored as a {@link CardSignature} row, so only the cards added or edited since the previous search
+ * have their signatures computed again. The signatures are bucketed by a {@link DuplicateDetector}, which finds
+ * the pairs of similar cards without comparing every card with every other one.
+ * </p>
+ * <p>
+ * The signatures of the removed cards and decks are deleted by {@link CardService} and {@link DeckService}.
+ * </p>
+ */
+@Service
+public class DuplicateDetectionService {
+
+    /**
+     * Minimal estimated similarity of the cards reported as duplicates.
+     */
+    public static final double SIMILARITY_THRESHOLD = 0.6;
+
+    /**
+     * Maximum number of reported pairs, the most similar ones.
+     */
+    public static final int MAX_CANDIDATES = 500;
+
+    /**
+     * Number of cards read at once.
+     */
+    static final int BATCH_SIZE = 2000;
+
+    /**
+     * Repository for reading the card texts.
+     */
+    private final CardBaseRepository cardBaseRepository;
+
+    /**
+     * Repository for reading the names of the decks.
+     */
+    private final DeckBaseRepository deckBaseRepository;
+
+    /**
+     * Repository for storing the signatures of the cards.
+     */
+    private final CardSignatureRepository cardSignatureRepository;
+
+    /**
+     * Executor running the searches for duplicates.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Constructs the service.
+     *
+     * @param cardBaseRepository      repository for reading the card texts
+     * @param deckBaseRepository      repository for reading the names of the decks
+     * @param cardSignatureRepository repository for storing the signatures of the cards
+     * @param backgroundExecutor      executor running the searches for duplicates
+     */
+    public DuplicateDetectionService(CardBaseRepository cardBaseRepository,
+                                     DeckBaseRepository deckBaseRepository,
+                                     CardSignatureRepository cardSignatureRepository,
+                                     @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor) {
+        this.cardBaseRepository = cardBaseRepository;
+        this.deckBaseRepository = deckBaseRepository;
+        this.cardSignatureRepository = cardSignatureRepository;
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * Starts finding the pairs of similar cards of the non-deleted decks of a user in the background.
+     * A cancelled search stops after the batch of cards being read and completes with {@code null}.
+     *
+     * @param user the logged user
+     * @return the job finding the duplicates, completed with at most {@link #MAX_CANDIDATES} pairs,
+     * most similar first, or with {@code null} if it was cancelled
+     */
+    public BackgroundJob<List<DuplicateCandidate>> findDuplicatesInBackground(AppUser user) {
+        BackgroundJob<List<DuplicateCandidate>> job = new BackgroundJob<>(null);
+        Long userId = user.getIdUser();
+        backgroundExecutor.execute(() -> {
+            try {
+                job.start(cardBaseRepository.countByDeckUserIdUser(userId));
+                Map<Long, String> deckNames = findDeckNames(userId);
+                DuplicateDetector detector = new DuplicateDetector(SIMILARITY_THRESHOLD);
+                long afterId = Long.MIN_VALUE;
+                while (!job.isCancelled()) {
+                    List<CardText> batch = cardBaseRepository.findTextsByUserIdAfter(userId, afterId, PageRequest.of(0, BATCH_SIZE));
+                    addToDetector(batch, deckNames, detector);
+                    job.addProcessed(batch.size());
+                    if (batch.size() < BATCH_SIZE) {
+                        break;
+                    }
+                    afterId = batch.getLast().idCard();
+                }
+                List<DuplicateCandidate> candidates = null;
+                if (!job.isCancelled()) {
+                    candidates = toCandidates(detector.findPairs(), userId);
+                }
+                job.complete(job.isCancelled() ? null : candidates);
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Deletes the signature of a removed card.
+     *
+     * @param card the removed card
+     */
+    public void cardRemoved(CardBase card) {
+        if (card.getIdCard() != null) {
+            cardSignatureRepository.deleteByCardId(card.getIdCard());
+        }
+    }
+
+    /**
+     * Deletes the signatures of the cards of a deck being permanently removed. It has to be called
+     * before the cards of the deck are deleted.
+     *
+     * @param deckId the identifier of the removed deck
+     */
+    public void deckRemoved(Long deckId) {
+        cardSignatureRepository.deleteByDeckId(deckId);
+    }
+
+    /**
+     * Adds the cards of the non-deleted decks to the detector, computing and storing the signatures
+     * of the cards without an up-to-date stored signature.
+     *
+     * @param batch     the texts of the cards
+     * @param deckNames the names of the non-deleted decks, by identifier
+     * @param detector  the detector of similar cards
+     */
+    private void addToDetector(List<CardText> batch, Map<Long, String> deckNames, DuplicateDetector detector) {
+        List<CardText> texts = batch.stream().filter(text -> deckNames.containsKey(text.idDeck())).toList();
+        if (texts.isEmpty()) {
+            return;
+        }
+        Map<Long, CardSignature> storedSignatures = cardSignatureRepository.findAllById(texts.stream().map(CardText::idCard).toList())
+                .stream().collect(Collectors.toMap(CardSignature::getCardId, Function.identity()));
+        List<CardSignature> computedSignatures = new ArrayList<>();
+        for (CardText text : texts) {
+            int textHash = MinHasher.textHash(text.front(), text.back());
+            CardSignature stored = storedSignatures.get(text.idCard());
+            int[] signature;
+            if (stored != null && stored.getTextHash() == textHash) {
+                signature = MinHasher.fromBytes(stored.getSignature());
+            } else {
+                signature = MinHasher.signature(text.front(), text.back());
+                computedSignatures.add(new CardSignature(text.idCard(), textHash, MinHasher.toBytes(signature)));
+            }
+            detector.add(text.idCard(), signature);
+        }
+        if (!computedSignatures.isEmpty()) {
+            cardSignatureRepository.saveAll(computedSignatures);
+        }
+    }
+
+    /**
+     * Loads the cards of the most similar pairs, skipping the pairs with a card removed or moved to the trash
+     * in the meantime.
+     *
+     * @param pairs  the found pairs, most similar first
+     * @param userId the identifier of the user
+     * @return at most {@link #MAX_CANDIDATES} pairs of cards, most similar first
+     */
+    private List<DuplicateCandidate> toCandidates(List<DuplicatePair> pairs, Long userId) {
+        List<DuplicatePair> mostSimilar = pairs.subList(0, Math.min(pairs.size(), MAX_CANDIDATES));
+        if (mostSimilar.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> cardIds = new LinkedHashSet<>();
+        for (DuplicatePair pair : mostSimilar) {
+            cardIds.add(pair.firstCardId());
+            cardIds.add(pair.secondCardId());
+        }
+        Map<Long, CardText> textsById = cardBaseRepository.findTextsByIdCardIn(cardIds).stream()
+                .collect(Collectors.toMap(CardText::idCard, Function.identity()));
+        Map<Long, String> deckNames = findDeckNames(userId);
+
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+        for (DuplicatePair pair : mostSimilar) {
+            CardText first = textsById.get(pair.firstCardId());
+            CardText second = textsById.get(pair.secondCardId());
+            if (first != null && second != null && deckNames.containsKey(first.idDeck()) && deckNames.containsKey(second.idDeck())) {
+                candidates.add(new DuplicateCandidate(toResult(first, deckNames), toResult(second, deckNames), pair.similarity()));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Reads the names of the non-deleted decks of a user.
+     *
+     * @param userId the identifier of the user
+     * @return the names of the decks, by identifier
+     */
+    private Map<Long, String> findDeckNames(Long userId) {
+        return deckBaseRepository.findNamesByUserIdNotDeleted(userId).stream()
+                .collect(Collectors.toMap(DeckName::idDeck, DeckName::name));
+    }
+
+    /**
+     * Describes a card of a pair together with its deck.
+     *
+     * @param text      the texts of the card
+     * @param deckNames the names of the decks, by identifier
+     * @return the card together with its deck
+     */
+    private static GlobalSearchResult toResult(CardText text, Map<Long, String> deckNames) {
+        return new GlobalSearchResult(new CardSummary(text.idCard(), text.front(), text.back()),
+                text.idDeck(), deckNames.get(text.idDeck()));
+    }
+}
@@ -0,0 +1,114 @@
+package gutek.services;
+
+import gutek.domain.algorithms.FsrsFitResult;
+import gutek.domain.algorithms.FsrsReviewHistory;
+import gutek.domain.algorithms.FsrsWeightFitter;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.jobs.JobProgressListener;
+import gutek.entities.algorithms.FsrsRevisionAlgorithm;
+import gutek.entities.decks.DeckBase;
+import gutek.repositories.CardBaseRevisionRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Service responsible for fitting the weights of the FSRS revision algorithm to the revision history of a deck.
+ * <p>
+ * The revision log of the deck is loaded once and converted to primitive arrays, after which the weights are
+ * optimized by {@link FsrsWeightFitter} on the compute pool. The fitted weights are not saved by the service;
+ * the caller decides whether to apply them to the algorithm.
+ * </p>
+ */
+@Service
+public class FsrsOptimizationService {
+
+    /**
+     * Lowest number of predicted reviews needed for fitting the weights.
+     */
+    public static final int MIN_REVIEWS = 100;
+
+    /**
+     * Repository for accessing card revision history.
+     */
+    private final CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    /**
+     * Executor running the job coordinators.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Pool used for evaluating the loss and its gradient.
+     */
+    private final ForkJoinPool computePool;
+
+    /**
+     * Constructs the service.
+     *
+     * @param cardBaseRevisionRepository repository for accessing card revision history
+     * @param backgroundExecutor         executor running the job coordinators
+     * @param computePool                pool used for evaluating the loss and its gradient
+     */
+    public FsrsOptimizationService(CardBaseRevisionRepository cardBaseRevisionRepository,
+                                   @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor,
+                                   @Qualifier("computePool") ForkJoinPool computePool) {
+        this.cardBaseRevisionRepository = cardBaseRevisionRepository;
+        this.backgroundExecutor = backgroundExecutor;
+        this.computePool = computePool;
+    }
+
+    /**
+     * Starts fitting the weights of the deck's FSRS algorithm to the deck's revision history.
+     * <p>
+     * The optimization starts from the current weights of the algorithm. If the history contains fewer than
+     * {@link #MIN_REVIEWS} predicted reviews, the current weights are returned without fitting.
+     * When the job is cancelled, the best weights found so far are returned.
+     * </p>
+     *
+     * @param deck             the deck using the FSRS algorithm
+     * @param progressListener listener notified after every iteration, may be {@code null}
+     * @return the handle of the started job
+     * @throws IllegalArgumentException if the deck does not use the FSRS algorithm
+     */
+    public BackgroundJob<FsrsFitResult> optimizeDeck(DeckBase deck, JobProgressListener progressListener) {
+        if (!(deck.getRevisionAlgorithm() instanceof FsrsRevisionAlgorithm algorithm)) {
+            throw new IllegalArgumentException("The deck does not use the FSRS revision algorithm");
+        }
+        BackgroundJob<FsrsFitResult> job = new BackgroundJob<>(progressListener);
+        double[] initialWeights = algorithm.getWeights();
+        backgroundExecutor.execute(() -> {
+            try {
+                job.complete(optimize(deck, initialWeights, job));
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Loads the revision history of the deck and fits the weights.
+     *
+     * @param deck           the deck whose history is used
+     * @param initialWeights the weights the optimization starts from
+     * @param job            the job handle used for progress reporting and cancellation
+     * @return the result of the fitting
+     * @throws InterruptedException if the coordinator thread is interrupted
+     * @throws ExecutionException   if evaluating a chunk fails
+     */
+    private FsrsFitResult optimize(DeckBase deck, double[] initialWeights, BackgroundJob<FsrsFitResult> job)
+            throws InterruptedException, ExecutionException {
+        FsrsReviewHistory history = FsrsReviewHistory.fromRevisionLog(
+                cardBaseRevisionRepository.findRevisionLogByDeckId(deck.getIdDeck()));
+        FsrsWeightFitter fitter = new FsrsWeightFitter(computePool);
+        if (history.getPredictedReviewsCount() < MIN_REVIEWS) {
+            double loss = fitter.logLoss(history, initialWeights);
+            return new FsrsFitResult(initialWeights, loss, loss, history.getPredictedReviewsCount());
+        }
+        return fitter.fit(history, initialWeights, job);
+    }
+}
@@ -0,0 +1,298 @@
+package gutek.services;
+
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardSearchText;
+import gutek.domain.search.CardSummary;
+import gutek.domain.search.CardText;
+import gutek.domain.search.DeckName;
+import gutek.domain.search.GlobalSearchResult;
+import gutek.domain.search.TrigramIndex;
+import gutek.entities.cards.CardBase;
+import gutek.entities.users.AppUser;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service searching the cards of all decks of the logged user, backed by an in-memory {@link TrigramIndex}.
+ * <p>
+ * The index is built in the background when the user logs in, reading the card texts in batches by keyset,
+ * and is updated by {@link CardService} and {@link DeckService} whenever a card is added, edited or removed.
+ * Cards changed while the index is being built keep their latest texts, as the build only adds cards
+ * which have not been indexed or removed in the meantime.
+ * </p>
+ * <p>
+ * A search reads the candidate cards from the index, skipping the decks in the trash, and loads the texts
+ * of the candidates to keep only the cards whose front or back really contains the phrase,
+ * ignoring case and diacritics.
+ * </p>
+ */
+@Service
+public class GlobalSearchService {
+
+    /**
+     * Maximum number of cards found by a search started from the user interface.
+     */
+    public static final int MAX_RESULTS = 100;
+
+    /**
+     * Number of cards read at once when building the index.
+     */
+    static final int BUILD_BATCH_SIZE = 2000;
+
+    /**
+     * Number of candidates read from the index for every requested result, as some candidates
+     * contain the trigrams of the phrase but not the phrase.
+     */
+    static final int CANDIDATES_PER_RESULT = 4;
+
+    /**
+     * Repository for reading the card texts.
+     */
+    private final CardBaseRepository cardBaseRepository;
+
+    /**
+     * Repository for reading the names of the decks.
+     */
+    private final DeckBaseRepository deckBaseRepository;
+
+    /**
+     * Executor building the index and running the searches started from the user interface.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Index of the logged user, or {@code null} if no index has been built.
+     */
+    private volatile UserIndex userIndex;
+
+    /**
+     * Constructs the service.
+     *
+     * @param cardBaseRepository repository for reading the card texts
+     * @param deckBaseRepository repository for reading the names of the decks
+     * @param backgroundExecutor executor building the index and running the searches
+     */
+    public GlobalSearchService(CardBaseRepository cardBaseRepository,
+                               DeckBaseRepository deckBaseRepository,
+                               @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor) {
+        this.cardBaseRepository = cardBaseRepository;
+        this.deckBaseRepository = deckBaseRepository;
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * Starts building the index of the cards of a user in the background, replacing the index built before.
+     * The index can be searched and updated while it is being built.
+     *
+     * @param user the logged user
+     * @return the job building the index, completed with the number of indexed cards
+     */
+    public BackgroundJob<Integer> buildIndex(AppUser user) {
+        UserIndex previous = userIndex;
+        if (previous != null) {
+            previous.job().cancel();
+        }
+        BackgroundJob<Integer> job = new BackgroundJob<>(null);
+        TrigramIndex index = new TrigramIndex();
+        Long userId = user.getIdUser();
+        userIndex = new UserIndex(userId, index, job);
+        backgroundExecutor.execute(() -> {
+            try {
+                job.start(cardBaseRepository.countByDeckUserIdUser(userId));
+                int indexedCount = 0;
+                long afterId = Long.MIN_VALUE;
+                while (!job.isCancelled()) {
+                    List<CardText> batch = cardBaseRepository.findTextsByUserIdAfter(userId, afterId,
+                            PageRequest.of(0, BUILD_BATCH_SIZE));
+                    for (CardText text : batch) {
+                        if (index.putIfAbsent(text.idCard(), text.idDeck(), text.front(), text.back())) {
+                            indexedCount++;
+                        }
+                    }
+                    job.addProcessed(batch.size());
+                    if (batch.size() < BUILD_BATCH_SIZE) {
+                        break;
+                    }
+                    afterId = batch.getLast().idCard();
+                }
+                job.complete(indexedCount);
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Checks whether the index of the user has been completely built.
+     *
+     * @param user the logged user
+     * @return {@code true} if the index of the user has been built
+     */
+    public boolean isIndexReady(AppUser user) {
+        UserIndex current = getIndex(user);
+        return current != null && current.job().getResult().isDone() && !current.job().getResult().isCompletedExceptionally();
+    }
+
+    /**
+     * Indexes the current texts of a card added or edited, if the card belongs to the indexed user.
+     *
+     * @param card the saved card, with its deck set
+     */
+    public void cardSaved(CardBase card) {
+        UserIndex current = userIndex;
+        if (current == null || card.getIdCard() == null || card.getDeck() == null || card.getDeck().getUser() == null
+                || !current.userId().equals(card.getDeck().getUser().getIdUser())) {
+            return;
+        }
+        current.index().put(card.getIdCard(), card.getDeck().getIdDeck(), card.getFront(), card.getBack());
+    }
+
+    /**
+     * Indexes the current texts of all cards of a deck the cards were copied into, reading them in batches by keyset,
+     * if the deck belongs to the indexed user.
+     *
+     * @param deckId the identifier of the deck the cards were copied into
+     * @param user   the owner of the deck
+     */
+    public void deckCardsAdded(Long deckId, AppUser user) {
+        UserIndex current = getIndex(user);
+        if (current == null) {
+            return;
+        }
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<CardText> batch = cardBaseRepository.findTextsByDeckIdAfter(deckId, afterId,
+                    PageRequest.of(0, BUILD_BATCH_SIZE));
+            for (CardText text : batch) {
+                current.index().put(text.idCard(), text.idDeck(), text.front(), text.back());
+            }
+            if (batch.size() < BUILD_BATCH_SIZE) {
+                break;
+            }
+            afterId = batch.getLast().idCard();
+        }
+    }
+
+    /**
+     * Removes a removed card from the index.
+     *
+     * @param card the removed card
+     */
+    public void cardRemoved(CardBase card) {
+        UserIndex current = userIndex;
+        if (current != null && card.getIdCard() != null) {
+            current.index().remove(card.getIdCard());
+        }
+    }
+
+    /**
+     * Removes all cards of a permanently removed deck from the index.
+     *
+     * @param deckId the identifier of the removed deck
+     */
+    public void deckRemoved(Long deckId) {
+        UserIndex current = userIndex;
+        if (current != null) {
+            current.index().removeDeck(deckId);
+        }
+    }
+
+    /**
+     * Finds the cards of the non-deleted decks of a user whose front or back contains the phrase,
+     * ignoring case and diacritics, in the order they were indexed.
+     *
+     * @param user   the logged user
+     * @param phrase the searched phrase, of at least {@value TrigramIndex#GRAM_LENGTH} characters
+     * @param limit  the maximum number of cards to find
+     * @return the found cards, empty if the phrase is too short or the index of the user has not been built
+     */
+    public List<GlobalSearchResult> search(AppUser user, String phrase, int limit) {
+        UserIndex current = getIndex(user);
+        if (current == null || !TrigramIndex.isSearchable(phrase)) {
+            return List.of();
+        }
+        Map<Long, String> deckNames = deckBaseRepository.findNamesByUserIdNotDeleted(current.userId()).stream()
+                .collect(Collectors.toMap(DeckName::idDeck, DeckName::name));
+        long[] candidates = current.index().search(phrase, deckNames::containsKey, limit * CANDIDATES_PER_RESULT);
+        if (candidates.length == 0) {
+            return List.of();
+        }
+        Map<Long, CardText> textsById = cardBaseRepository.findTextsByIdCardIn(Arrays.stream(candidates).boxed().toList()).stream()
+                .collect(Collectors.toMap(CardText::idCard, Function.identity()));
+
+        String foldedPhrase = CardSearchText.fold(phrase);
+        List<GlobalSearchResult> results = new ArrayList<>();
+        for (int i = 0; i < candidates.length && results.size() < limit; i++) {
+            CardText text = textsById.get(candidates[i]);
+            if (text != null && deckNames.containsKey(text.idDeck())
+                    && (CardSearchText.fold(text.front()).contains(foldedPhrase) || CardSearchText.fold(text.back()).contains(foldedPhrase))) {
+                results.add(new GlobalSearchResult(new CardSummary(text.idCard(), text.front(), text.back()),
+                        text.idDeck(), deckNames.get(text.idDeck())));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Starts finding the cards of the non-deleted decks of a user containing the phrase in the background,
+     * as {@link #search(AppUser, String, int)} does, with at most {@link #MAX_RESULTS} results.
+     * A search cancelled before it starts completes with {@code null} without reading anything.
+     *
+     * @param user   the logged user
+     * @param phrase the searched phrase
+     * @return the job finding the cards, completed with the found cards, or with {@code null} if it was cancelled
+     */
+    public BackgroundJob<List<GlobalSearchResult>> searchInBackground(AppUser user, String phrase) {
+        BackgroundJob<List<GlobalSearchResult>> job = new BackgroundJob<>(null);
+        backgroundExecutor.execute(() -> {
+            try {
+                job.start(1);
+                List<GlobalSearchResult> results = null;
+                if (!job.isCancelled()) {
+                    results = search(user, phrase, MAX_RESULTS);
+                    job.addProcessed(1);
+                }
+                job.complete(job.isCancelled() ? null : results);
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Returns the index of the given user.
+     *
+     * @param user the logged user
+     * @return the index, or {@code null} if the index of the user has not been built
+     */
+    private UserIndex getIndex(AppUser user) {
+        UserIndex current = userIndex;
+        if (current == null || user == null || !current.userId().equals(user.getIdUser())) {
+            return null;
+        }
+        return current;
+    }
+
+    /**
+     * Index of the cards of a user.
+     *
+     * @param userId the identifier of the user
+     * @param index  the index of the cards of the user
+     * @param job    the job building the index
+     */
+    private record UserIndex(Long userId, TrigramIndex index, BackgroundJob<Integer> job) {
+    }
+}
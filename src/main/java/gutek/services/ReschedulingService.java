@@ -0,0 +1,205 @@
+package gutek.services;
+
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.jobs.JobProgressListener;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.entities.algorithms.RevisionAlgorithm;
+import gutek.entities.cards.CardBase;
+import gutek.entities.decks.DeckBase;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardBaseRevisionRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Service responsible for recomputing the revision dates of existing cards.
+ * <p>
+ * After the hyperparameters of a deck's revision algorithm change, the scheduling state of every card
+ * is recomputed by resetting the card and replaying its whole revision history under the new hyperparameters.
+ * Cards are replayed in chunks in parallel on the compute pool, while the finished chunks are saved one by one
+ * by a single writer, so the database receives batched updates from one thread only.
+ * </p>
+ */
+@Service
+public class ReschedulingService {
+
+    /**
+     * Number of cards replayed and saved together.
+     */
+    static final int CHUNK_SIZE = 2000;
+
+    /**
+     * Repository for accessing card information.
+     */
+    private final CardBaseRepository cardBaseRepository;
+
+    /**
+     * Repository for accessing card revision history.
+     */
+    private final CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    /**
+     * Service used for saving the rescheduled cards.
+     */
+    private final CardService cardService;
+
+    /**
+     * Executor running the job coordinators, which load the data and write the results.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Pool used for replaying the revision history of the cards.
+     */
+    private final ForkJoinPool computePool;
+
+    /**
+     * Constructs the service.
+     *
+     * @param cardBaseRepository         repository for accessing card information
+     * @param cardBaseRevisionRepository repository for accessing card revision history
+     * @param cardService                service used for saving the rescheduled cards
+     * @param backgroundExecutor         executor running the job coordinators
+     * @param computePool                pool used for replaying the revision history
+     */
+    public ReschedulingService(CardBaseRepository cardBaseRepository, CardBaseRevisionRepository cardBaseRevisionRepository,
+                               CardService cardService, @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor,
+                               @Qualifier("computePool") ForkJoinPool computePool) {
+        this.cardBaseRepository = cardBaseRepository;
+        this.cardBaseRevisionRepository = cardBaseRevisionRepository;
+        this.cardService = cardService;
+        this.backgroundExecutor = backgroundExecutor;
+        this.computePool = computePool;
+    }
+
+    /**
+     * Starts recomputing the revision dates of all cards in the given deck using the deck's current algorithm.
+     * <p>
+     * Cards without any revision history keep their state. The job's result is the number of rescheduled cards;
+     * when the job is cancelled, the chunks saved before the cancellation stay rescheduled.
+     * </p>
+     *
+     * @param deck             the deck whose cards should be rescheduled
+     * @param progressListener listener notified after every saved chunk, may be {@code null}
+     * @return the handle of the started job
+     */
+    public BackgroundJob<Integer> rescheduleDeck(DeckBase deck, JobProgressListener progressListener) {
+        BackgroundJob<Integer> job = new BackgroundJob<>(progressListener);
+        backgroundExecutor.execute(() -> {
+            try {
+                job.complete(reschedule(deck, job));
+            } catch (Throwable e) {
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Coordinates the rescheduling: loads the cards and their history, distributes the replay of chunks
+     * to the compute pool and saves the chunks as they finish.
+     *
+     * @param deck the deck whose cards should be rescheduled
+     * @param job  the job handle used for progress reporting and cancellation
+     * @return the number of rescheduled cards
+     * @throws InterruptedException if the coordinator thread is interrupted
+     * @throws ExecutionException   if replaying a chunk fails
+     */
+    private int reschedule(DeckBase deck, BackgroundJob<Integer> job) throws InterruptedException, ExecutionException {
+        @SuppressWarnings("unchecked")
+        RevisionAlgorithm<CardBase> algorithm = (RevisionAlgorithm<CardBase>) deck.getRevisionAlgorithm();
+        List<CardBase> cards = cardBaseRepository.findByDeck(deck);
+        Map<Long, List<RevisionLogEntry>> historyByCard = cardBaseRevisionRepository.findRevisionLogByDeckId(deck.getIdDeck())
+                .stream()
+                .collect(Collectors.groupingBy(RevisionLogEntry::cardId));
+        Map<String, Integer> strategyIndexes = new ConcurrentHashMap<>();
+        job.start(cards.size());
+
+        CompletionService<List<CardBase>> completionService = new ExecutorCompletionService<>(computePool);
+        Map<Future<List<CardBase>>, Integer> chunkSizes = new HashMap<>();
+        for (int from = 0; from < cards.size(); from += CHUNK_SIZE) {
+            List<CardBase> chunk = cards.subList(from, Math.min(from + CHUNK_SIZE, cards.size()));
+            chunkSizes.put(completionService.submit(() -> replayChunk(algorithm, chunk, historyByCard, strategyIndexes, job)), chunk.size());
+        }
+
+        int rescheduledCount = 0;
+        try {
+            for (int i = 0; i < chunkSizes.size() && !job.isCancelled(); i++) {
+                Future<List<CardBase>> finishedChunk = completionService.take();
+                List<CardBase> rescheduledCards = finishedChunk.get();
+                if (job.isCancelled()) {
+                    break;
+                }
+                cardService.saveCards(rescheduledCards);
+                rescheduledCount += rescheduledCards.size();
+                job.addProcessed(chunkSizes.get(finishedChunk));
+            }
+        } finally {
+            chunkSizes.keySet().forEach(future -> future.cancel(false));
+        }
+        return rescheduledCount;
+    }
+
+    /**
+     * Resets every card of the chunk and replays its revision history.
+     *
+     * @param algorithm       the algorithm with the new hyperparameters
+     * @param chunk           the cards to replay
+     * @param historyByCard   the revision history of the deck, by card identifier
+     * @param strategyIndexes cache of strategy indexes, by strategy class name
+     * @param job             the job handle checked for cancellation
+     * @return the cards whose state was recomputed
+     */
+    private List<CardBase> replayChunk(RevisionAlgorithm<CardBase> algorithm, List<CardBase> chunk,
+                                       Map<Long, List<RevisionLogEntry>> historyByCard, Map<String, Integer> strategyIndexes,
+                                       BackgroundJob<Integer> job) {
+        List<CardBase> rescheduledCards = new ArrayList<>(chunk.size());
+        for (CardBase card : chunk) {
+            if (job.isCancelled()) {
+                break;
+            }
+            List<RevisionLogEntry> history = historyByCard.get(card.getIdCard());
+            if (history == null) {
+                continue;
+            }
+            algorithm.resetCard(card);
+            for (RevisionLogEntry entry : history) {
+                int strategyIndex = getStrategyIndex(algorithm, entry.strategyClassName(), strategyIndexes);
+                if (strategyIndex >= 0 && entry.pressedButtonIndex() != null && entry.revisionDate() != null) {
+                    algorithm.replayRevision(strategyIndex, entry.pressedButtonIndex(), card, entry.revisionDate());
+                }
+            }
+            card.setNewCard(false);
+            rescheduledCards.add(card);
+        }
+        return rescheduledCards;
+    }
+
+    /**
+     * Returns the index of the strategy with the given class name, caching the result.
+     *
+     * @param algorithm         the algorithm
+     * @param strategyClassName the simple class name of the strategy
+     * @param strategyIndexes   cache of strategy indexes, shared between the chunks
+     * @return the index of the strategy, or {@code -1} if the algorithm has no such strategy
+     */
+    private int getStrategyIndex(RevisionAlgorithm<CardBase> algorithm, String strategyClassName, Map<String, Integer> strategyIndexes) {
+        if (strategyClassName == null) {
+            return -1;
+        }
+        return strategyIndexes.computeIfAbsent(strategyClassName, algorithm::getRevisionStrategyIndex);
+    }
+}
@@ -0,0 +1,181 @@
+package gutek.services;
+
+import gutek.domain.analytics.RetentionAccumulator;
+import gutek.domain.analytics.RetentionStatistics;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.entities.algorithms.RevisionAlgorithm;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.users.AppUser;
+import gutek.repositories.CardBaseRevisionRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Service computing retention analytics from the recorded card revisions:
+ * retention rates by interval, forgetting curves, lapse rates and leeches.
+ * <p>
+ * The revision log of a deck is streamed through a forward-only cursor inside a read-only transaction and
+ * aggregated by a {@link RetentionAccumulator} into primitive histograms, so the revisions are never loaded
+ * as entities nor kept in memory. Several decks are analysed in parallel by at most as many tasks of the background
+ * executor as there are processors, every task taking the next deck not analysed yet, and their statistics are merged.
+ * </p>
+ */
+@Service
+public class RetentionAnalyticsService {
+
+    /** Maximum number of decks analysed at the same time, so many decks never hold a thread and a cursor each. */
+    static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Repository for accessing card revision history.
+     */
+    private final CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    /**
+     * Repository for accessing the decks of a user.
+     */
+    private final DeckBaseRepository deckBaseRepository;
+
+    /**
+     * Template of the read-only transactions keeping the revision cursors open.
+     */
+    private final TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Executor analysing the decks in parallel.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Constructs the service.
+     *
+     * @param cardBaseRevisionRepository repository for accessing card revision history
+     * @param deckBaseRepository         repository for accessing the decks of a user
+     * @param transactionManager         manager of the transactions keeping the revision cursors open
+     * @param backgroundExecutor         executor analysing the decks in parallel
+     */
+    public RetentionAnalyticsService(CardBaseRevisionRepository cardBaseRevisionRepository,
+                                     DeckBaseRepository deckBaseRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor) {
+        this.cardBaseRevisionRepository = cardBaseRevisionRepository;
+        this.deckBaseRepository = deckBaseRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * Computes the retention statistics of a deck on the calling thread.
+     *
+     * @param deck  the analysed deck
+     * @param since the first day whose revisions are counted, or {@code null} to count all revisions
+     * @return the retention statistics of the deck
+     */
+    public RetentionStatistics analyzeDeck(DeckBase deck, LocalDate since) {
+        return analyzeDeck(deck, since, () -> false);
+    }
+
+    /**
+     * Computes the retention statistics of a deck on the calling thread, giving up before the next revision
+     * is read once the analysis is cancelled.
+     *
+     * @param deck      the analysed deck
+     * @param since     the first day whose revisions are counted, or {@code null} to count all revisions
+     * @param cancelled condition telling whether the analysis has been cancelled
+     * @return the retention statistics of the deck
+     * @throws CancellationException if the analysis was cancelled
+     */
+    public RetentionStatistics analyzeDeck(DeckBase deck, LocalDate since, BooleanSupplier cancelled) {
+        if (deck.getIdDeck() == null) {
+            return RetentionStatistics.empty();
+        }
+        return readOnlyTransaction.execute(status -> {
+            RetentionAccumulator accumulator = new RetentionAccumulator(since, failedRevisionTest(deck));
+            try (Stream<RevisionLogEntry> revisionLog = cardBaseRevisionRepository.streamRevisionLogByDeckId(deck.getIdDeck())) {
+                revisionLog.forEach(entry -> {
+                    if (cancelled.getAsBoolean()) {
+                        throw new CancellationException();
+                    }
+                    accumulator.accept(entry);
+                });
+            }
+            return accumulator.toStatistics();
+        });
+    }
+
+    /**
+     * Computes the combined retention statistics of several decks, analysing at most one deck per processor
+     * at the same time.
+     * Blocks until all the decks are analysed.
+     *
+     * @param decks the analysed decks
+     * @param since the first day whose revisions are counted, or {@code null} to count all revisions
+     * @return the combined retention statistics of the decks
+     */
+    public RetentionStatistics analyzeDecks(Collection<DeckBase> decks, LocalDate since) {
+        List<DeckBase> deckList = List.copyOf(decks);
+        AtomicInteger nextDeck = new AtomicInteger();
+        List<CompletableFuture<RetentionStatistics>> workerStatistics = IntStream.range(0, Math.min(PARALLELISM, deckList.size()))
+                .mapToObj(worker -> CompletableFuture.supplyAsync(() -> {
+                    RetentionStatistics statistics = RetentionStatistics.empty();
+                    for (int index = nextDeck.getAndIncrement(); index < deckList.size(); index = nextDeck.getAndIncrement()) {
+                        statistics = RetentionStatistics.merge(statistics, analyzeDeck(deckList.get(index), since));
+                    }
+                    return statistics;
+                }, backgroundExecutor))
+                .toList();
+        return workerStatistics.stream()
+                .map(CompletableFuture::join)
+                .reduce(RetentionStatistics.empty(), RetentionStatistics::merge);
+    }
+
+    /**
+     * Computes the combined retention statistics of all decks of a user which are not deleted.
+     *
+     * @param user  the user whose decks are analysed
+     * @param since the first day whose revisions are counted, or {@code null} to count all revisions
+     * @return the combined retention statistics of the user's decks
+     */
+    public RetentionStatistics analyzeUser(AppUser user, LocalDate since) {
+        return analyzeDecks(deckBaseRepository.findByUserAndIsDeletedFalse(user), since);
+    }
+
+    /**
+     * Finds the cards of the deck which lapsed at least {@link RetentionStatistics#LEECH_LAPSES} times.
+     *
+     * @param deck the analysed deck
+     * @return the identifiers of the leeches
+     */
+    public long[] findLeeches(DeckBase deck) {
+        return analyzeDeck(deck, null).getLeechCardIds();
+    }
+
+    /**
+     * Returns the test of the pressed button indexes failing a revision in the algorithm of the deck.
+     *
+     * @param deck the analysed deck
+     * @return the failed revision test of the deck's algorithm, or the default one if the deck has no algorithm
+     */
+    private static IntPredicate failedRevisionTest(DeckBase deck) {
+        RevisionAlgorithm<?> algorithm = deck.getRevisionAlgorithm();
+        return algorithm == null
+                ? pressedButtonIndex -> pressedButtonIndex < RevisionAlgorithm.DEFAULT_FAILED_BUTTONS_COUNT
+                : algorithm::isFailedRevision;
+    }
+}
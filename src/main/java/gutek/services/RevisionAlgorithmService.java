@@ -31,6 +31,11 @@ public class RevisionAlgorithmService {
      */
     private final RevisionAlgorithmRepository revisionAlgorithmRepository;
 
+    /**
+     * Service providing the clock set on the created algorithm instances.
+     */
+    private final ClockService clockService;
+
     /**
      * A set of classes that extend {@link RevisionAlgorithm}.
      */
@@ -46,10 +51,13 @@ public class RevisionAlgorithmService {
      *
      * @param translationService the service used for handling translations within the application
      * @param revisionAlgorithmRepository the repository used for managing revision algorithm data
+     * @param clockService the service providing the clock of the application
      */
-    public RevisionAlgorithmService(TranslationService translationService, RevisionAlgorithmRepository revisionAlgorithmRepository) {
+    public RevisionAlgorithmService(TranslationService translationService, RevisionAlgorithmRepository revisionAlgorithmRepository,
+                                    ClockService clockService) {
         this.translationService = translationService;
         this.revisionAlgorithmRepository = revisionAlgorithmRepository;
+        this.clockService = clockService;
 
         Reflections reflections = new Reflections(new ConfigurationBuilder()
                 .setUrls(ClasspathHelper.forPackage("gutek"))
@@ -99,6 +107,7 @@ public class RevisionAlgorithmService {
                 @SuppressWarnings("unchecked")
                 RevisionAlgorithm<T> algorithmInstance = (RevisionAlgorithm<T>) algorithmClass.getDeclaredConstructor().newInstance();
                 algorithmInstance.setTranslationService(translationService);
+                algorithmInstance.setClock(clockService.getClock());
                 if (algorithmInstance.getAlgorithmName().equals(algorithmName)) {
                     return algorithmInstance;
                 }
@@ -0,0 +1,237 @@
+package gutek.services;
+
+import gutek.domain.analytics.StatisticsAccumulator;
+import gutek.domain.analytics.StatisticsConsistencyReport;
+import gutek.domain.analytics.StatisticsDifference;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.jobs.JobProgressListener;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.domain.revisions.RevisionStrategy;
+import gutek.entities.algorithms.RevisionAlgorithm;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.decks.DeckBaseStatistics;
+import gutek.entities.decks.RevisionCounts;
+import gutek.repositories.CardBaseRevisionRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static gutek.services.ChartService.MAX_RANGE;
+
+/**
+ * Service rebuilding the daily counters of the deck statistics from the revision log.
+ * <p>
+ * The counters of {@link DeckBaseStatistics} are only ever incremented, so increments lost e.g. by a crash or
+ * decks imported without their statistics leave them permanently wrong. This service streams the revision log of
+ * every deck, rebuilds the counters, reports the days on which they differ from the stored ones and, on request,
+ * overwrites the stored counters. The decks are processed in parallel, each in its own transaction, by at most
+ * as many tasks of the background executor as there are processors, every task taking the next deck not started yet.
+ * </p>
+ */
+@Service
+public class StatisticsRebuildService {
+
+    /** Maximum number of decks checked at the same time, so many decks never start a thread and a transaction each. */
+    static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Repository for accessing card revision history.
+     */
+    private final CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    /**
+     * Repository for accessing the decks.
+     */
+    private final DeckBaseRepository deckBaseRepository;
+
+    /**
+     * Service reading and overwriting the deck statistics.
+     */
+    private final DeckStatisticsService deckStatisticsService;
+
+    /**
+     * Service providing the current date.
+     */
+    private final ClockService clockService;
+
+    /**
+     * Template of the transactions checking a single deck.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Executor checking the decks in parallel.
+     */
+    private final ExecutorService backgroundExecutor;
+
+    /**
+     * Constructs the service.
+     *
+     * @param cardBaseRevisionRepository repository for accessing card revision history
+     * @param deckBaseRepository         repository for accessing the decks
+     * @param deckStatisticsService      service reading and overwriting the deck statistics
+     * @param clockService               service providing the current date
+     * @param transactionManager         manager of the transactions checking a single deck
+     * @param backgroundExecutor         executor checking the decks in parallel
+     */
+    public StatisticsRebuildService(CardBaseRevisionRepository cardBaseRevisionRepository,
+                                    DeckBaseRepository deckBaseRepository,
+                                    DeckStatisticsService deckStatisticsService,
+                                    ClockService clockService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Qualifier("backgroundExecutor") ExecutorService backgroundExecutor) {
+        this.cardBaseRevisionRepository = cardBaseRevisionRepository;
+        this.deckBaseRepository = deckBaseRepository;
+        this.deckStatisticsService = deckStatisticsService;
+        this.clockService = clockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    /**
+     * Checks the statistics of a deck against its revision log on the calling thread.
+     *
+     * @param deck   the checked deck
+     * @param repair whether the stored counters are overwritten with the rebuilt ones when they differ
+     * @return the report of the deck, empty if the deck or its statistics do not exist
+     */
+    public StatisticsConsistencyReport rebuildDeck(DeckBase deck, boolean repair) {
+        if (deck.getIdDeck() == null) {
+            return StatisticsConsistencyReport.empty();
+        }
+        StatisticsConsistencyReport report = transactionTemplate.execute(status -> {
+            Optional<DeckBase> currentDeck = deckBaseRepository.findById(deck.getIdDeck());
+            if (currentDeck.isEmpty() || currentDeck.get().getDeckBaseStatistics() == null) {
+                return StatisticsConsistencyReport.empty();
+            }
+            return rebuild(currentDeck.get(), repair);
+        });
+        return report == null ? StatisticsConsistencyReport.empty() : report;
+    }
+
+    /**
+     * Starts checking the statistics of the given decks, processing at most one deck per processor at the same time.
+     * <p>
+     * When the job is cancelled, the decks not started yet are skipped and the job completes
+     * with the report of the checked decks.
+     * </p>
+     *
+     * @param decks            the checked decks
+     * @param repair           whether the stored counters are overwritten with the rebuilt ones when they differ
+     * @param progressListener listener notified after every deck, may be {@code null}
+     * @return the handle of the started job, completed with the combined report
+     */
+    public BackgroundJob<StatisticsConsistencyReport> rebuild(List<DeckBase> decks, boolean repair,
+                                                             JobProgressListener progressListener) {
+        BackgroundJob<StatisticsConsistencyReport> job = new BackgroundJob<>(progressListener);
+        job.start(decks.size());
+        AtomicInteger nextDeck = new AtomicInteger();
+        List<CompletableFuture<StatisticsConsistencyReport>> deckReports = IntStream.range(0, Math.min(PARALLELISM, decks.size()))
+                .mapToObj(worker -> CompletableFuture.supplyAsync(() -> {
+                    StatisticsConsistencyReport workerReport = StatisticsConsistencyReport.empty();
+                    for (int index = nextDeck.getAndIncrement(); index < decks.size() && !job.isCancelled();
+                         index = nextDeck.getAndIncrement()) {
+                        workerReport = StatisticsConsistencyReport.merge(workerReport, rebuildDeck(decks.get(index), repair));
+                        job.addProcessed(1);
+                    }
+                    return workerReport;
+                }, backgroundExecutor))
+                .toList();
+        CompletableFuture.allOf(deckReports.toArray(CompletableFuture[]::new)).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                job.fail(throwable);
+            } else {
+                job.complete(deckReports.stream()
+                        .map(CompletableFuture::join)
+                        .reduce(StatisticsConsistencyReport.empty(), StatisticsConsistencyReport::merge));
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Starts checking the statistics of all decks.
+     *
+     * @param repair           whether the stored counters are overwritten with the rebuilt ones when they differ
+     * @param progressListener listener notified after every deck, may be {@code null}
+     * @return the handle of the started job, completed with the combined report
+     */
+    public BackgroundJob<StatisticsConsistencyReport> rebuildAll(boolean repair, JobProgressListener progressListener) {
+        return rebuild(deckBaseRepository.findAll(), repair, progressListener);
+    }
+
+    /**
+     * Rebuilds the counters of a deck and compares them with the stored ones. Has to be called in a transaction.
+     *
+     * @param deck   the checked deck, with its statistics
+     * @param repair whether the stored counters are overwritten with the rebuilt ones when they differ
+     * @return the report of the deck
+     */
+    private StatisticsConsistencyReport rebuild(DeckBase deck, boolean repair) {
+        Long statisticsId = deck.getDeckBaseStatistics().getIdDeckStatistics();
+        int[] storedFirstTime = deckStatisticsService.getReviseForTheFirstTimeCounts(statisticsId);
+        Map<Integer, RevisionCounts> storedRevisionCounts = deckStatisticsService.loadDeckStatistics(statisticsId)
+                .map(DeckBaseStatistics::getRevisionCounts)
+                .orElse(Map.of());
+
+        RevisionAlgorithm<?> algorithm = deck.getRevisionAlgorithm();
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(clockService.today(), getStrategyIndexes(deck), MAX_RANGE,
+                (strategyIndex, pressedButtonIndex) -> algorithm == null || pressedButtonIndex == null
+                        || algorithm.finishesRevision(strategyIndex, pressedButtonIndex));
+        try (Stream<RevisionLogEntry> revisionLog = cardBaseRevisionRepository.streamRevisionLogByDeckId(deck.getIdDeck())) {
+            revisionLog.forEach(accumulator);
+        }
+
+        List<StatisticsDifference> differences = new ArrayList<>(Arrays.asList(StatisticsAccumulator.compare(
+                deck.getIdDeck(), null, storedFirstTime, accumulator.getRevisedForTheFirstTime())));
+        int strategiesCount = Math.max(accumulator.getStrategiesCount(),
+                storedRevisionCounts.keySet().stream().mapToInt(index -> index + 1).max().orElse(0));
+        Map<Integer, int[]> rebuiltRevisionCounts = new HashMap<>();
+        for (int strategyIndex = 0; strategyIndex < strategiesCount; strategyIndex++) {
+            int[] rebuiltCounts = accumulator.getRevisionCounts(strategyIndex);
+            RevisionCounts storedCounts = storedRevisionCounts.get(strategyIndex);
+            differences.addAll(Arrays.asList(StatisticsAccumulator.compare(deck.getIdDeck(), strategyIndex,
+                    storedCounts == null ? null : storedCounts.getCounts(), rebuiltCounts)));
+            if (strategyIndex < accumulator.getStrategiesCount()) {
+                rebuiltRevisionCounts.put(strategyIndex, rebuiltCounts);
+            }
+        }
+
+        boolean repaired = repair && !differences.isEmpty();
+        if (repaired) {
+            deckStatisticsService.replaceCounts(statisticsId, accumulator.getRevisedForTheFirstTime(), rebuiltRevisionCounts);
+        }
+        return StatisticsConsistencyReport.ofDeck(accumulator, differences, repaired);
+    }
+
+    /**
+     * Maps the simple class names of the deck's revision strategies to their indexes.
+     *
+     * @param deck the deck
+     * @return the indexes of the strategies by their simple class names
+     */
+    private Map<String, Integer> getStrategyIndexes(DeckBase deck) {
+        Map<String, Integer> strategyIndexes = new HashMap<>();
+        if (deck.getRevisionAlgorithm() != null) {
+            List<? extends RevisionStrategy<?>> strategies = deck.getRevisionAlgorithm().getAvailableRevisionStrategies();
+            for (int i = 0; i < strategies.size(); i++) {
+                strategyIndexes.putIfAbsent(strategies.get(i).getClass().getSimpleName(), i);
+            }
+        }
+        return strategyIndexes;
+    }
+}
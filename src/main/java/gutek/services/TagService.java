@@ -0,0 +1,236 @@
+package gutek.services;
+
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.domain.tags.CompressedBitmap;
+import gutek.domain.tags.DeckTagIndex;
+import gutek.domain.tags.TagFilter;
+import gutek.entities.cards.CardBase;
+import gutek.entities.cards.CardTag;
+import gutek.entities.decks.DeckBase;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardTagRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Service managing the tags of the cards and selecting the cards of filtered revision sessions by their tags.
+ * <p>
+ * The tags of a deck are kept in memory as a {@link DeckTagIndex}, built on the first filtered session of the deck
+ * from two queries: the identifiers of the cards and the tags of the cards. A {@link TagFilter} is then evaluated
+ * by combining the bitmaps of its tags and intersecting the result with the cards due for revision, without joining
+ * the tags in the database. The index of a deck is dropped when its tags change, and when cards are added to
+ * or removed from the deck, as announced by {@link DeckCardsChangedEvent}s.
+ * </p>
+ * <p>
+ * The tags of the removed cards and decks are deleted by {@link CardService} and {@link DeckService}.
+ * </p>
+ */
+@Service
+public class TagService {
+
+    /**
+     * Repository for reading the identifiers of the cards of a deck.
+     */
+    private final CardBaseRepository cardBaseRepository;
+
+    /**
+     * Repository for storing the tags of the cards.
+     */
+    private final CardTagRepository cardTagRepository;
+
+    /**
+     * Cached indexes of the tags, by deck identifier.
+     */
+    private final Map<Long, DeckTagIndex> deckIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * Number of invalidations of every deck, used for detecting modifications while an index is built.
+     */
+    private final Map<Long, Long> deckVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the service.
+     *
+     * @param cardBaseRepository repository for reading the identifiers of the cards of a deck
+     * @param cardTagRepository  repository for storing the tags of the cards
+     */
+    public TagService(CardBaseRepository cardBaseRepository, CardTagRepository cardTagRepository) {
+        this.cardBaseRepository = cardBaseRepository;
+        this.cardTagRepository = cardTagRepository;
+    }
+
+    /**
+     * Returns the tags of a card.
+     *
+     * @param card the card
+     * @return the names of the tags of the card, in alphabetical order; empty for a card which has not been saved
+     */
+    public Set<String> getTags(CardBase card) {
+        if (card.getIdCard() == null) {
+            return Set.of();
+        }
+        return cardTagRepository.findByCardIdOrderByName(card.getIdCard()).stream()
+                .map(CardTag::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Replaces the tags of a card.
+     *
+     * @param card  the saved card
+     * @param names the normalized names of the new tags, see {@link gutek.domain.tags.Tags#parse(String)}
+     */
+    @Transactional
+    public void setTags(CardBase card, Collection<String> names) {
+        cardTagRepository.deleteByCardId(card.getIdCard());
+        cardTagRepository.saveAll(names.stream()
+                .distinct()
+                .map(name -> new CardTag(null, card.getIdCard(), name))
+                .toList());
+        invalidateDeck(card.getDeck().getIdDeck());
+    }
+
+    /**
+     * Returns the tags used in a deck.
+     *
+     * @param deck the deck
+     * @return the names of the tags of the cards of the deck, in alphabetical order
+     */
+    public List<String> findDeckTags(DeckBase deck) {
+        return getIndex(deck.getIdDeck()).sortedTagNames();
+    }
+
+    /**
+     * Selects the cards of a filtered revision session: the due cards of a deck selected by a tag filter.
+     *
+     * @param deck     the deck of the cards
+     * @param dueCards the cards due for revision
+     * @param filter   the tag filter
+     * @return the due cards selected by the filter, in the order of {@code dueCards}
+     */
+    public List<CardBase> filterCards(DeckBase deck, List<CardBase> dueCards, TagFilter filter) {
+        Set<Long> selectedIds = Set.copyOf(filterCardIds(deck, dueCards.stream().map(CardBase::getIdCard).toList(), filter));
+        return dueCards.stream()
+                .filter(card -> selectedIds.contains(card.getIdCard()))
+                .toList();
+    }
+
+    /**
+     * Selects the identifiers of the cards of a filtered revision session, so only the selected cards are loaded.
+     * <p>
+     * The due cards are intersected with the cards selected by the filter as bitmaps of ordinals. An index missing
+     * any of the due cards, such as one built before a card was added, is rebuilt before the filter is evaluated.
+     * </p>
+     *
+     * @param deck   the deck of the cards
+     * @param dueIds the identifiers of the cards due for revision
+     * @param filter the tag filter
+     * @return the identifiers of the due cards selected by the filter, in the order of {@code dueIds}
+     */
+    public List<Long> filterCardIds(DeckBase deck, List<Long> dueIds, TagFilter filter) {
+        if (dueIds.isEmpty()) {
+            return List.of();
+        }
+        DeckTagIndex index = getIndex(deck.getIdDeck());
+        if (dueIds.stream().anyMatch(id -> index.ordinalOf(id) < 0)) {
+            invalidateDeck(deck.getIdDeck());
+            return filterCardIds(getIndex(deck.getIdDeck()), dueIds, filter);
+        }
+        return filterCardIds(index, dueIds, filter);
+    }
+
+    /**
+     * Drops the index of the deck to which cards were added or from which cards were removed.
+     * Edited and revised cards keep their tags, so the index is kept.
+     *
+     * @param event the event describing the change
+     */
+    @EventListener
+    public void onDeckCardsChanged(DeckCardsChangedEvent event) {
+        if (event.deckId() != null && (event.changeType() == DeckCardsChangedEvent.ChangeType.ADDED
+                || event.changeType() == DeckCardsChangedEvent.ChangeType.REMOVED)) {
+            invalidateDeck(event.deckId());
+        }
+    }
+
+    /**
+     * Deletes the tags of a removed card.
+     *
+     * @param card the removed card
+     */
+    public void cardRemoved(CardBase card) {
+        if (card.getIdCard() != null) {
+            cardTagRepository.deleteByCardId(card.getIdCard());
+        }
+    }
+
+    /**
+     * Deletes the tags of the cards of a deck being permanently removed. It has to be called
+     * before the cards of the deck are deleted.
+     *
+     * @param deckId the identifier of the removed deck
+     */
+    public void deckRemoved(Long deckId) {
+        cardTagRepository.deleteByDeckId(deckId);
+        invalidateDeck(deckId);
+    }
+
+    /**
+     * Drops the index of the tags of a deck.
+     *
+     * @param deckId the identifier of the deck
+     */
+    public void invalidateDeck(Long deckId) {
+        deckVersions.compute(deckId, (id, version) -> {
+            deckIndexes.remove(deckId);
+            return version == null ? 1L : version + 1;
+        });
+    }
+
+    /**
+     * Selects the due cards whose ordinals are selected by the filter.
+     *
+     * @param index  the index of the tags of the deck
+     * @param dueIds the identifiers of the cards due for revision
+     * @param filter the tag filter
+     * @return the identifiers of the due cards selected by the filter, in the order of {@code dueIds}
+     */
+    private List<Long> filterCardIds(DeckTagIndex index, List<Long> dueIds, TagFilter filter) {
+        CompressedBitmap selected = filter.evaluate(index).and(index.ordinalsOf(dueIds));
+        return dueIds.stream()
+                .filter(id -> selected.contains(index.ordinalOf(id)))
+                .toList();
+    }
+
+    /**
+     * Returns the index of the tags of a deck, building it if it is not cached.
+     * An index built while the deck was being modified is returned, but not cached.
+     *
+     * @param deckId the identifier of the deck
+     * @return the index of the tags of the deck
+     */
+    private DeckTagIndex getIndex(Long deckId) {
+        DeckTagIndex cached = deckIndexes.get(deckId);
+        if (cached != null) {
+            return cached;
+        }
+        long version = deckVersions.getOrDefault(deckId, 0L);
+        DeckTagIndex index = new DeckTagIndex(cardBaseRepository.findIdsByDeckId(deckId), cardTagRepository.findNamesByDeckId(deckId));
+        deckVersions.compute(deckId, (id, currentVersion) -> {
+            if ((currentVersion == null ? 0L : currentVersion) == version) {
+                deckIndexes.put(deckId, index);
+            }
+            return currentVersion;
+        });
+        return index;
+    }
+}
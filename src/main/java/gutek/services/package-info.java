@@ -3,11 +3,25 @@
  * <ul>
  *     <li>User management services for the application.</li>
  *     <li>Card management services.</li>
+ *     <li>Services editing all matching cards of a deck at once.</li>
+ *     <li>Services maintaining the full-text index of the cards.</li>
+ *     <li>Services searching the cards of all decks of the logged user.</li>
+ *     <li>Services finding near-duplicate cards across the decks of the logged user.</li>
+ *     <li>Services tagging cards and selecting the cards of filtered revision sessions by their tags.</li>
  *     <li>Services for managing card revision registration.</li>
  *     <li>Deck management services.</li>
+ *     <li>Services cloning decks and merging decks into one another.</li>
  *     <li>Deck statistics services.</li>
+ *     <li>Services maintaining the materialized daily counts of the decks.</li>
+ *     <li>Services maintaining the index of the most difficult cards of the decks.</li>
+ *     <li>Services rebuilding the deck statistics from the revision history.</li>
+ *     <li>Deck snapshot services.</li>
  *     <li>Repetition algorithm management services.</li>
+ *     <li>Services rescheduling existing cards after algorithm changes.</li>
+ *     <li>Services fitting the weights of the FSRS algorithm to the revision history.</li>
+ *     <li>Services computing retention analytics from the revision history.</li>
  *     <li>Chart management services.</li>
+ *     <li>Services writing the statistics charts to report files.</li>
  *     <li>Translation services.</li>
  * </ul>
  */
@@ -0,0 +1,73 @@
+package gutek.benchmarks;
+
+import gutek.domain.charts.CanvasBarPainter;
+import gutek.domain.charts.ChartData;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of redrawing the canvas bar chart, as done on every resize and hover.
+ * <p>
+ * The series is not aggregated, so {@code 1081} bars correspond to the longest available range.
+ * Only the drawing commands are measured, the canvas does not need to be shown.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=gutek.benchmarks.CanvasBarChartBenchmark}
+ * or directly from the IDE.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CanvasBarChartBenchmark {
+
+    private static final double WIDTH = 1400;
+
+    private static final double HEIGHT = 600;
+
+    /** Number of bars of the series. */
+    @Param({"120", "1081"})
+    private int bars;
+
+    private CanvasBarPainter painter;
+
+    private GraphicsContext graphics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] labels = new String[bars];
+        int[] values = new int[bars];
+        for (int i = 0; i < bars; i++) {
+            labels[i] = String.valueOf(i - bars + 1);
+            values[i] = random.nextInt(200);
+        }
+        painter = new CanvasBarPainter(new ChartData(labels, values), "Day", "Cards");
+        graphics = new Canvas(WIDTH, HEIGHT).getGraphicsContext2D();
+    }
+
+    @Benchmark
+    public GraphicsContext redraw() {
+        painter.paint(graphics, WIDTH, HEIGHT, bars / 2);
+        return graphics;
+    }
+
+    @Benchmark
+    public int hitTest() {
+        return painter.indexAt(WIDTH / 3, HEIGHT / 2, WIDTH, HEIGHT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CanvasBarChartBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+package gutek.benchmarks;
+
+import gutek.domain.algorithms.FsrsFitResult;
+import gutek.domain.algorithms.FsrsMemoryModel;
+import gutek.domain.algorithms.FsrsReviewHistory;
+import gutek.domain.algorithms.FsrsWeightFitter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of fitting the FSRS weights to a synthetic revision history.
+ * <p>
+ * {@link #fit()} runs the whole optimization with the default number of iterations, {@link #logLoss()}
+ * measures a single parallel evaluation of the loss and its gradient.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=gutek.benchmarks.FsrsWeightFitterBenchmark}
+ * or directly from the IDE.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FsrsWeightFitterBenchmark {
+
+    /** Number of reviews in the history. */
+    @Param({"100000", "1000000"})
+    private int reviews;
+
+    private FsrsReviewHistory history;
+
+    private ForkJoinPool pool;
+
+    private FsrsWeightFitter fitter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int reviewsPerCard = 10;
+        int cards = reviews / reviewsPerCard;
+        Random random = new Random(42);
+        int[] sequenceStarts = new int[cards + 1];
+        int[] elapsedDays = new int[cards * reviewsPerCard];
+        byte[] grades = new byte[cards * reviewsPerCard];
+        for (int card = 0; card < cards; card++) {
+            sequenceStarts[card] = card * reviewsPerCard;
+            for (int review = 0; review < reviewsPerCard; review++) {
+                int index = card * reviewsPerCard + review;
+                elapsedDays[index] = review == 0 ? 0 : 1 + random.nextInt(30 * review);
+                grades[index] = (byte) (random.nextDouble() < 0.85 ? 2 + random.nextInt(3) : 1);
+            }
+        }
+        sequenceStarts[cards] = cards * reviewsPerCard;
+        history = new FsrsReviewHistory(sequenceStarts, elapsedDays, grades);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        fitter = new FsrsWeightFitter(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public FsrsFitResult fit() throws InterruptedException, ExecutionException {
+        return fitter.fit(history, FsrsMemoryModel.defaultWeights(), null);
+    }
+
+    @Benchmark
+    public double logLoss() throws InterruptedException, ExecutionException {
+        return fitter.logLoss(history, FsrsMemoryModel.defaultWeights());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FsrsWeightFitterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,222 @@
+package gutek.benchmarks;
+
+import gutek.domain.algorithms.ConstantCoefficientBatchState;
+import gutek.domain.algorithms.SchedulingKernels;
+import gutek.domain.algorithms.SuperMemo2BatchState;
+import gutek.entities.algorithms.ConstantCoefficientRevisionAlgorithm;
+import gutek.entities.algorithms.SuperMemo2RevisionAlgorithm;
+import gutek.entities.cards.CardConstantCoefficient;
+import gutek.entities.cards.CardSuperMemo2;
+import gutek.services.TranslationService;
+import javafx.application.Platform;
+import javafx.scene.control.Button;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Micro-benchmark comparing the vectorized and the scalar batch scheduling kernels with the per-card revision
+ * of the card entities.
+ * <p>
+ * The {@code *Vectorized} methods run with the Vector API module enabled, the {@code *Scalar} methods
+ * force the scalar fallback. The vectorized implementation is compiled only by the {@code vector} profile, so
+ * without it the {@code *Vectorized} methods measure the scalar fallback as well. The {@code *EntitiesBatch} methods additionally measure the cost of copying
+ * the state from and back to the card entities, and the {@code *EntitiesPerCard} methods revise the entities
+ * one by one with {@code regularReviseCard}, as the revision views do.
+ * </p>
+ * <p>
+ * The kernels and the revisions update the state in place, so the state of the arrays and of the entities is
+ * restored from the generated inputs before every invocation; otherwise the intervals and the base revision times
+ * would grow with every invocation of an iteration until they overflow.
+ * Run with {@code mvn -Pvector test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=gutek.benchmarks.SchedulingKernelsBenchmark}
+ * or directly from the IDE.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class SchedulingKernelsBenchmark {
+
+    /** Number of cards processed by a single benchmark invocation. */
+    @Param({"1000", "100000"})
+    private int cards;
+
+    private int[] grades;
+    private int[] initialRepetitions;
+    private int[] initialIntervals;
+    private double[] initialEasinessFactors;
+    private int[] initialIncorrectCounters;
+
+    private int[] buttons;
+    private double[] initialBaseRevisionTimes;
+    private double[] coefficients;
+
+    private int[] repetitions;
+    private int[] intervals;
+    private double[] easinessFactors;
+    private int[] incorrectCounters;
+    private double[] baseRevisionTimes;
+    private int[] dueInDays;
+
+    private SuperMemo2RevisionAlgorithm superMemo2Algorithm;
+    private ConstantCoefficientRevisionAlgorithm constantCoefficientAlgorithm;
+
+    /** Buttons of the SuperMemo2 grades, the button of grade {@code g} at index {@code g - 1}. */
+    private Button[] superMemo2Buttons;
+
+    /** Normal revision buttons of the Constant Coefficient algorithm, in the order of their indexes. */
+    private Button[] constantCoefficientButtons;
+
+    private List<CardSuperMemo2> superMemo2Cards;
+    private List<CardConstantCoefficient> constantCoefficientCards;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        Random random = new Random(42);
+        grades = random.ints(cards, 1, 6).toArray();
+        initialRepetitions = random.ints(cards, 0, 8).toArray();
+        initialIntervals = random.ints(cards, 1, 400).toArray();
+        initialEasinessFactors = random.doubles(cards, 1.3, 3.0).toArray();
+        initialIncorrectCounters = random.ints(cards, 0, 3).toArray();
+
+        buttons = random.ints(cards, 0, 4).toArray();
+        initialBaseRevisionTimes = random.doubles(cards, 0.01, 500.0).toArray();
+        coefficients = new double[]{0.5, 1.2, 2.0, 3.0};
+
+        repetitions = new int[cards];
+        intervals = new int[cards];
+        easinessFactors = new double[cards];
+        incorrectCounters = new int[cards];
+        baseRevisionTimes = new double[cards];
+        dueInDays = new int[cards];
+
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException e) {
+            // the toolkit is already running
+        }
+        TranslationService translationService = mock(TranslationService.class);
+        superMemo2Algorithm = new SuperMemo2RevisionAlgorithm();
+        superMemo2Algorithm.setTranslationService(translationService);
+        superMemo2Algorithm.initializeGUI(800, 600, 1.0);
+        superMemo2Buttons = superMemo2Algorithm.getRegularRevisionButtonsPane(null).getChildren().toArray(new Button[0]);
+        constantCoefficientAlgorithm = new ConstantCoefficientRevisionAlgorithm();
+        constantCoefficientAlgorithm.setTranslationService(translationService);
+        constantCoefficientAlgorithm.initializeGUI(800, 600, 1.0);
+        constantCoefficientButtons = constantCoefficientAlgorithm.getRegularRevisionButtonsPane(null).getChildren().toArray(new Button[0]);
+
+        superMemo2Cards = new ArrayList<>(cards);
+        constantCoefficientCards = new ArrayList<>(cards);
+        for (int i = 0; i < cards; i++) {
+            superMemo2Cards.add(new CardSuperMemo2("front" + i, "back" + i, 2.5, 2.5, null));
+            constantCoefficientCards.add(new CardConstantCoefficient("front" + i, "back" + i, null));
+        }
+    }
+
+    /**
+     * Restores the generated state of the arrays and the entities. Runs outside the measured time.
+     */
+    @Setup(Level.Invocation)
+    public void restoreState() {
+        System.arraycopy(initialRepetitions, 0, repetitions, 0, cards);
+        System.arraycopy(initialIntervals, 0, intervals, 0, cards);
+        System.arraycopy(initialEasinessFactors, 0, easinessFactors, 0, cards);
+        System.arraycopy(initialIncorrectCounters, 0, incorrectCounters, 0, cards);
+        System.arraycopy(initialBaseRevisionTimes, 0, baseRevisionTimes, 0, cards);
+        for (int i = 0; i < cards; i++) {
+            CardSuperMemo2 superMemo2Card = superMemo2Cards.get(i);
+            superMemo2Card.setRepetition(initialRepetitions[i]);
+            superMemo2Card.setRegularInterval(initialIntervals[i]);
+            superMemo2Card.setEasinessFactor(initialEasinessFactors[i]);
+            superMemo2Card.setIncorrectCounter(initialIncorrectCounters[i]);
+            CardConstantCoefficient constantCoefficientCard = constantCoefficientCards.get(i);
+            constantCoefficientCard.setBaseRevisionTime(initialBaseRevisionTimes[i]);
+            constantCoefficientCard.setIncorrectCounter(initialIncorrectCounters[i]);
+        }
+    }
+
+    @Benchmark
+    public int[] superMemo2Vectorized() {
+        return runSuperMemo2();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-D" + SchedulingKernels.SCALAR_ONLY_PROPERTY + "=true"})
+    public int[] superMemo2Scalar() {
+        return runSuperMemo2();
+    }
+
+    @Benchmark
+    public int[] constantCoefficientVectorized() {
+        return runConstantCoefficient();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-D" + SchedulingKernels.SCALAR_ONLY_PROPERTY + "=true"})
+    public int[] constantCoefficientScalar() {
+        return runConstantCoefficient();
+    }
+
+    @Benchmark
+    public List<CardSuperMemo2> superMemo2EntitiesBatch() {
+        SuperMemo2BatchState state = SuperMemo2BatchState.fromCards(superMemo2Cards, false);
+        superMemo2Algorithm.regularReviseBatch(state, grades);
+        state.applyTo(superMemo2Cards, false, LocalDate.now());
+        return superMemo2Cards;
+    }
+
+    @Benchmark
+    public List<CardSuperMemo2> superMemo2EntitiesPerCard() {
+        for (int i = 0; i < cards; i++) {
+            superMemo2Algorithm.regularReviseCard(superMemo2Buttons[grades[i] - 1], superMemo2Cards.get(i));
+        }
+        return superMemo2Cards;
+    }
+
+    @Benchmark
+    public List<CardConstantCoefficient> constantCoefficientEntitiesBatch() {
+        ConstantCoefficientBatchState state = ConstantCoefficientBatchState.fromCards(constantCoefficientCards, false);
+        constantCoefficientAlgorithm.regularReviseBatch(state, buttons);
+        state.applyTo(constantCoefficientCards, false, LocalDate.now());
+        return constantCoefficientCards;
+    }
+
+    @Benchmark
+    public List<CardConstantCoefficient> constantCoefficientEntitiesPerCard() {
+        for (int i = 0; i < cards; i++) {
+            constantCoefficientAlgorithm.regularReviseCard(constantCoefficientButtons[buttons[i]], constantCoefficientCards.get(i));
+        }
+        return constantCoefficientCards;
+    }
+
+    private int[] runSuperMemo2() {
+        SchedulingKernels.superMemo2(grades, repetitions, intervals, easinessFactors, incorrectCounters, dueInDays,
+                cards, 2.5, 3);
+        return dueInDays;
+    }
+
+    private int[] runConstantCoefficient() {
+        SchedulingKernels.constantCoefficient(buttons, baseRevisionTimes, incorrectCounters, dueInDays, cards,
+                coefficients, 3);
+        return dueInDays;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SchedulingKernelsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+package gutek.domain.algorithms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FsrsMemoryModelTest {
+
+    private final double[] weights = FsrsMemoryModel.defaultWeights();
+
+    @Test
+    void testRetrievability_EqualsNinetyPercentAfterStability() {
+        // Act
+        double retrievability = FsrsMemoryModel.retrievability(10, 10);
+
+        // Assert
+        assertEquals(0.9, retrievability, 1e-9);
+        assertEquals(1.0, FsrsMemoryModel.retrievability(0, 10), 1e-12);
+    }
+
+    @Test
+    void testInitialState_DependsOnGrade() {
+        // Assert
+        assertEquals(weights[0], FsrsMemoryModel.initialStability(weights, 1));
+        assertEquals(weights[3], FsrsMemoryModel.initialStability(weights, 4));
+        assertEquals(weights[4], FsrsMemoryModel.initialDifficulty(weights, 3));
+        assertTrue(FsrsMemoryModel.initialDifficulty(weights, 1) > FsrsMemoryModel.initialDifficulty(weights, 4));
+    }
+
+    @Test
+    void testNextDifficulty_StaysInRange() {
+        // Act
+        double harder = FsrsMemoryModel.nextDifficulty(weights, 9.9, 1);
+        double easier = FsrsMemoryModel.nextDifficulty(weights, 1.1, 4);
+
+        // Assert
+        assertTrue(harder <= FsrsMemoryModel.MAX_DIFFICULTY);
+        assertTrue(easier >= FsrsMemoryModel.MIN_DIFFICULTY);
+    }
+
+    @Test
+    void testNextStability_GrowsAfterRecallAndDropsAfterLapse() {
+        // Arrange
+        double retrievability = FsrsMemoryModel.retrievability(10, 10);
+
+        // Act
+        double hard = FsrsMemoryModel.nextStability(weights, 5, 10, retrievability, 2);
+        double good = FsrsMemoryModel.nextStability(weights, 5, 10, retrievability, 3);
+        double easy = FsrsMemoryModel.nextStability(weights, 5, 10, retrievability, 4);
+        double again = FsrsMemoryModel.nextStability(weights, 5, 10, retrievability, 1);
+
+        // Assert
+        assertTrue(hard > 10 && hard < good && good < easy);
+        assertTrue(again < 10);
+    }
+
+    @Test
+    void testNextInterval_MatchesStabilityForDefaultRetention() {
+        // Assert
+        assertEquals(10, FsrsMemoryModel.nextInterval(10, 0.9, 36500));
+        assertEquals(1, FsrsMemoryModel.nextInterval(0.01, 0.9, 36500));
+        assertEquals(30, FsrsMemoryModel.nextInterval(1000, 0.9, 30));
+    }
+
+    @Test
+    void testClampWeights() {
+        // Arrange
+        double[] outOfRange = new double[FsrsMemoryModel.WEIGHTS_COUNT];
+        outOfRange[4] = 100;
+
+        // Act
+        FsrsMemoryModel.clampWeights(outOfRange);
+
+        // Assert
+        assertEquals(FsrsMemoryModel.maxWeight(4), outOfRange[4]);
+        assertEquals(FsrsMemoryModel.minWeight(0), outOfRange[0]);
+    }
+}
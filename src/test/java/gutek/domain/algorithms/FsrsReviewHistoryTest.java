@@ -0,0 +1,79 @@
+package gutek.domain.algorithms;
+
+import gutek.domain.revisions.RevisionLogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FsrsReviewHistoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void testFromRevisionLog_SplitsSequencesByCardAndStrategy() {
+        // Arrange
+        List<RevisionLogEntry> log = List.of(
+                new RevisionLogEntry(1L, DAY, 2, "RegularTextModeRevisionStrategy"),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 0, "ReverseTextModeRevisionStrategy"),
+                new RevisionLogEntry(1L, DAY.plusDays(3), 3, "RegularTextModeRevisionStrategy"),
+                new RevisionLogEntry(2L, DAY, 1, "RegularTextModeRevisionStrategy"),
+                new RevisionLogEntry(2L, DAY, 2, "RegularTextModeRevisionStrategy"));
+
+        // Act
+        FsrsReviewHistory history = FsrsReviewHistory.fromRevisionLog(log);
+
+        // Assert
+        assertEquals(3, history.getSequencesCount());
+        assertEquals(5, history.getReviewsCount());
+        assertArrayEquals(new int[]{0, 2, 3, 5}, history.getSequenceStarts());
+        assertArrayEquals(new int[]{0, 3, 0, 0, 0}, history.getElapsedDays());
+        assertArrayEquals(new byte[]{3, 4, 1, 2, 3}, history.getGrades());
+        assertEquals(1, history.getPredictedReviewsCount());
+    }
+
+    @Test
+    void testFromRevisionLog_KeepsTypedReviewsInRegularSequence() {
+        // Arrange
+        List<RevisionLogEntry> log = List.of(
+                new RevisionLogEntry(1L, DAY, 2, "RegularTextModeRevisionStrategy"),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 0, "ReverseTextModeRevisionStrategy"),
+                new RevisionLogEntry(1L, DAY.plusDays(2), 3, "TypedTextModeRevisionStrategy"),
+                new RevisionLogEntry(1L, DAY.plusDays(6), 1, "RegularTextModeRevisionStrategy"));
+
+        // Act
+        FsrsReviewHistory history = FsrsReviewHistory.fromRevisionLog(log);
+
+        // Assert
+        assertEquals(2, history.getSequencesCount());
+        assertArrayEquals(new int[]{0, 3, 4}, history.getSequenceStarts());
+        assertArrayEquals(new int[]{0, 2, 4, 0}, history.getElapsedDays());
+        assertArrayEquals(new byte[]{3, 4, 2, 1}, history.getGrades());
+        assertEquals(2, history.getPredictedReviewsCount());
+    }
+
+    @Test
+    void testFromRevisionLog_SkipsIncompleteEntries() {
+        // Arrange
+        List<RevisionLogEntry> log = List.of(
+                new RevisionLogEntry(1L, null, 2, "RegularTextModeRevisionStrategy"),
+                new RevisionLogEntry(1L, DAY, null, "RegularTextModeRevisionStrategy"),
+                new RevisionLogEntry(1L, DAY, 2, null));
+
+        // Act
+        FsrsReviewHistory history = FsrsReviewHistory.fromRevisionLog(log);
+
+        // Assert
+        assertEquals(0, history.getSequencesCount());
+        assertEquals(0, history.getReviewsCount());
+    }
+
+    @Test
+    void testConstructor_RejectsInconsistentArrays() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new FsrsReviewHistory(new int[]{0, 2}, new int[]{0}, new byte[]{3}));
+    }
+}
@@ -0,0 +1,162 @@
+package gutek.domain.algorithms;
+
+import gutek.domain.jobs.BackgroundJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FsrsWeightFitterTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Simulates reviews of cards whose memory follows the model with the given weights.
+     */
+    private static FsrsReviewHistory simulateHistory(double[] weights, int cardsCount, int reviewsPerCard, long seed) {
+        Random random = new Random(seed);
+        int[] sequenceStarts = new int[cardsCount + 1];
+        int[] elapsedDays = new int[cardsCount * reviewsPerCard];
+        byte[] grades = new byte[cardsCount * reviewsPerCard];
+        int review = 0;
+        for (int card = 0; card < cardsCount; card++) {
+            sequenceStarts[card] = review;
+            int grade = 1 + random.nextInt(4);
+            double stability = FsrsMemoryModel.initialStability(weights, grade);
+            double difficulty = FsrsMemoryModel.initialDifficulty(weights, grade);
+            grades[review++] = (byte) grade;
+            for (int i = 1; i < reviewsPerCard; i++) {
+                int elapsed = Math.max(1, (int) Math.round(stability * (0.5 + random.nextDouble())));
+                double retrievability = FsrsMemoryModel.retrievability(elapsed, stability);
+                grade = random.nextDouble() < retrievability ? 2 + random.nextInt(3) : 1;
+                elapsedDays[review] = elapsed;
+                grades[review++] = (byte) grade;
+                double newDifficulty = FsrsMemoryModel.nextDifficulty(weights, difficulty, grade);
+                stability = FsrsMemoryModel.nextStability(weights, difficulty, stability, retrievability, grade);
+                difficulty = newDifficulty;
+            }
+        }
+        sequenceStarts[cardsCount] = review;
+        return new FsrsReviewHistory(sequenceStarts, elapsedDays, grades);
+    }
+
+    /**
+     * Computes the average log loss directly from the memory model.
+     */
+    private static double referenceLogLoss(FsrsReviewHistory history, double[] weights) {
+        double loss = 0;
+        int count = 0;
+        for (int sequence = 0; sequence < history.getSequencesCount(); sequence++) {
+            int first = history.getSequenceStarts()[sequence];
+            int grade = history.getGrades()[first];
+            double stability = FsrsMemoryModel.initialStability(weights, grade);
+            double difficulty = FsrsMemoryModel.initialDifficulty(weights, grade);
+            for (int review = first + 1; review < history.getSequenceStarts()[sequence + 1]; review++) {
+                int elapsed = history.getElapsedDays()[review];
+                grade = history.getGrades()[review];
+                double retrievability = FsrsMemoryModel.retrievability(elapsed, stability);
+                if (elapsed > 0) {
+                    loss -= grade > 1 ? Math.log(retrievability) : Math.log(1 - retrievability);
+                    count++;
+                }
+                double newDifficulty = FsrsMemoryModel.nextDifficulty(weights, difficulty, grade);
+                stability = FsrsMemoryModel.nextStability(weights, difficulty, stability, retrievability, grade);
+                difficulty = newDifficulty;
+            }
+        }
+        return loss / count;
+    }
+
+    @Test
+    void testLogLoss_MatchesMemoryModel() throws Exception {
+        // Arrange
+        double[] weights = FsrsMemoryModel.defaultWeights();
+        FsrsReviewHistory history = simulateHistory(weights, 200, 8, 1);
+        FsrsWeightFitter fitter = new FsrsWeightFitter(pool);
+
+        // Act
+        double loss = fitter.logLoss(history, weights);
+
+        // Assert
+        assertEquals(referenceLogLoss(history, weights), loss, 1e-9);
+    }
+
+    @Test
+    void testLogLossAndGradient_MatchesFiniteDifferences() throws Exception {
+        // Arrange
+        double[] weights = FsrsMemoryModel.defaultWeights();
+        weights[7] = 0.2;
+        weights[15] = 0.5;
+        FsrsReviewHistory history = simulateHistory(weights, 300, 8, 2);
+        FsrsWeightFitter fitter = new FsrsWeightFitter(pool);
+        double[] gradient = new double[FsrsMemoryModel.WEIGHTS_COUNT];
+
+        // Act
+        fitter.logLossAndGradient(history, weights, gradient);
+
+        // Assert
+        for (int k = 0; k < FsrsMemoryModel.WEIGHTS_COUNT; k++) {
+            double step = 1e-6 * Math.max(1, Math.abs(weights[k]));
+            double[] plus = weights.clone();
+            double[] minus = weights.clone();
+            plus[k] += step;
+            minus[k] -= step;
+            double numeric = (fitter.logLoss(history, plus) - fitter.logLoss(history, minus)) / (2 * step);
+            assertEquals(numeric, gradient[k], 1e-4 + 1e-3 * Math.abs(numeric), "weight " + k);
+        }
+    }
+
+    @Test
+    void testFit_LowersLossOnSimulatedHistory() throws Exception {
+        // Arrange
+        double[] trueWeights = FsrsMemoryModel.defaultWeights();
+        trueWeights[8] = 2.2;
+        trueWeights[11] = 1.2;
+        FsrsReviewHistory history = simulateHistory(trueWeights, 1000, 10, 3);
+        FsrsWeightFitter fitter = new FsrsWeightFitter(pool, 100, 0.05);
+        BackgroundJob<Void> job = new BackgroundJob<>(null);
+
+        // Act
+        FsrsFitResult result = fitter.fit(history, FsrsMemoryModel.defaultWeights(), job);
+
+        // Assert
+        assertTrue(result.logLoss() < result.initialLogLoss());
+        assertEquals(history.getPredictedReviewsCount(), result.predictedReviewsCount());
+        assertEquals(100, job.getProcessedCount());
+        for (int k = 0; k < FsrsMemoryModel.WEIGHTS_COUNT; k++) {
+            assertTrue(result.weights()[k] >= FsrsMemoryModel.minWeight(k) && result.weights()[k] <= FsrsMemoryModel.maxWeight(k));
+        }
+    }
+
+    @Test
+    void testFit_StopsWhenJobIsCancelled() throws Exception {
+        // Arrange
+        double[] weights = FsrsMemoryModel.defaultWeights();
+        FsrsReviewHistory history = simulateHistory(weights, 50, 5, 4);
+        FsrsWeightFitter fitter = new FsrsWeightFitter(pool);
+        BackgroundJob<Void> job = new BackgroundJob<>(null);
+        job.cancel();
+
+        // Act
+        FsrsFitResult result = fitter.fit(history, weights, job);
+
+        // Assert
+        assertEquals(0, job.getProcessedCount());
+        assertArrayEquals(weights, result.weights());
+        assertEquals(result.initialLogLoss(), result.logLoss());
+    }
+}
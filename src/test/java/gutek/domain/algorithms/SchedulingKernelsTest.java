@@ -0,0 +1,200 @@
+package gutek.domain.algorithms;
+
+import gutek.entities.algorithms.ConstantCoefficientRevisionAlgorithm;
+import gutek.entities.cards.CardConstantCoefficient;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulingKernelsTest {
+
+    private static final int CARDS = 1003;
+
+    @Test
+    void testSuperMemo2_PassingGradesFollowSuperMemo2Schedule() {
+        // Arrange
+        int[] grades = {5, 4, 3, 5};
+        int[] repetitions = {0, 1, 2, 5};
+        int[] intervals = {1, 1, 6, 10};
+        double[] easinessFactors = {2.5, 2.5, 2.5, 1.3};
+        int[] incorrectCounters = {0, 0, 0, 0};
+        int[] dueInDays = new int[4];
+
+        // Act
+        SchedulingKernels.superMemo2(grades, repetitions, intervals, easinessFactors, incorrectCounters, dueInDays, 4, 2.5, 3);
+
+        // Assert
+        assertArrayEquals(new int[]{1, 2, 3, 6}, repetitions);
+        assertArrayEquals(new int[]{1, 6, 15, 13}, intervals);
+        assertArrayEquals(new int[]{1, 6, 15, 13}, dueInDays);
+        assertEquals(2.6, easinessFactors[0], 1e-9);
+        assertEquals(2.5, easinessFactors[1], 1e-9);
+        assertEquals(2.36, easinessFactors[2], 1e-9);
+        assertEquals(1.4, easinessFactors[3], 1e-9);
+    }
+
+    @Test
+    void testSuperMemo2_FailingGradeResetsCardAtThreshold() {
+        // Arrange
+        int[] grades = {1, 2};
+        int[] repetitions = {4, 4};
+        int[] intervals = {20, 20};
+        double[] easinessFactors = {1.8, 1.8};
+        int[] incorrectCounters = {0, 2};
+        int[] dueInDays = new int[2];
+
+        // Act
+        SchedulingKernels.superMemo2(grades, repetitions, intervals, easinessFactors, incorrectCounters, dueInDays, 2, 2.5, 3);
+
+        // Assert
+        assertArrayEquals(new int[]{4, 0}, repetitions);
+        assertArrayEquals(new int[]{20, 1}, intervals);
+        assertArrayEquals(new int[]{1, 0}, incorrectCounters);
+        assertArrayEquals(new double[]{1.8, 2.5}, easinessFactors, 1e-9);
+        assertArrayEquals(new int[]{1, 1}, dueInDays);
+    }
+
+    @Test
+    void testConstantCoefficient_RepeatAndFinishingButtons() {
+        // Arrange
+        int[] buttons = {0, 0, 1, 3};
+        double[] baseRevisionTimes = {4.0, 4.0, 0.5, 3.0};
+        int[] incorrectCounters = {0, 2, 0, 0};
+        int[] dueInDays = new int[4];
+        double[] coefficients = {0.5, 1.2, 2.0, 3.0};
+
+        // Act
+        SchedulingKernels.constantCoefficient(buttons, baseRevisionTimes, incorrectCounters, dueInDays, 4, coefficients, 3);
+
+        // Assert
+        assertArrayEquals(new double[]{2.0, 1.0, 0.6, 9.0}, baseRevisionTimes, 1e-9);
+        assertArrayEquals(new int[]{1, 0, 0, 0}, incorrectCounters);
+        assertArrayEquals(new int[]{0, 0, 1, 9}, dueInDays);
+    }
+
+    @Test
+    void testSuperMemo2_VectorizedMatchesScalar() {
+        if (!SchedulingKernels.isVectorized()) {
+            return;
+        }
+        // Arrange
+        Random random = new Random(42);
+        int[] grades = random.ints(CARDS, 1, 6).toArray();
+        int[] repetitions = random.ints(CARDS, 0, 8).toArray();
+        int[] intervals = random.ints(CARDS, 1, 400).toArray();
+        double[] easinessFactors = random.doubles(CARDS, 1.3, 3.0).toArray();
+        int[] incorrectCounters = random.ints(CARDS, 0, 3).toArray();
+        int[] scalarRepetitions = repetitions.clone();
+        int[] scalarIntervals = intervals.clone();
+        double[] scalarEasinessFactors = easinessFactors.clone();
+        int[] scalarIncorrectCounters = incorrectCounters.clone();
+        int[] dueInDays = new int[CARDS];
+        int[] scalarDueInDays = new int[CARDS];
+
+        // Act
+        SchedulingKernels.superMemo2(grades, repetitions, intervals, easinessFactors, incorrectCounters,
+                dueInDays, CARDS, 2.5, 3);
+        ScalarSchedulingKernels.superMemo2(grades, scalarRepetitions, scalarIntervals, scalarEasinessFactors,
+                scalarIncorrectCounters, scalarDueInDays, 0, CARDS, 2.5, 3);
+
+        // Assert
+        assertArrayEquals(scalarRepetitions, repetitions);
+        assertArrayEquals(scalarIntervals, intervals);
+        assertArrayEquals(scalarEasinessFactors, easinessFactors, 1e-12);
+        assertArrayEquals(scalarIncorrectCounters, incorrectCounters);
+        assertArrayEquals(scalarDueInDays, dueInDays);
+    }
+
+    @Test
+    void testConstantCoefficient_VectorizedMatchesScalar() {
+        if (!SchedulingKernels.isVectorized()) {
+            return;
+        }
+        // Arrange
+        Random random = new Random(7);
+        int[] buttons = random.ints(CARDS, 0, 4).toArray();
+        double[] baseRevisionTimes = random.doubles(CARDS, 0.01, 500.0).toArray();
+        int[] incorrectCounters = random.ints(CARDS, 0, 3).toArray();
+        double[] scalarBaseRevisionTimes = baseRevisionTimes.clone();
+        int[] scalarIncorrectCounters = incorrectCounters.clone();
+        int[] dueInDays = new int[CARDS];
+        int[] scalarDueInDays = new int[CARDS];
+        double[] coefficients = {0.5, 1.2, 2.0, 3.0};
+
+        // Act
+        SchedulingKernels.constantCoefficient(buttons, baseRevisionTimes, incorrectCounters, dueInDays,
+                CARDS, coefficients, 3);
+        ScalarSchedulingKernels.constantCoefficient(buttons, scalarBaseRevisionTimes, scalarIncorrectCounters,
+                scalarDueInDays, 0, CARDS, coefficients, 3);
+
+        // Assert
+        assertArrayEquals(scalarBaseRevisionTimes, baseRevisionTimes, 1e-12);
+        assertArrayEquals(scalarIncorrectCounters, incorrectCounters);
+        assertArrayEquals(scalarDueInDays, dueInDays);
+    }
+
+    @Test
+    void testConstantCoefficientBatch_MatchesPerCardRevisionIncludingMinimalBaseRevisionTime() {
+        // Arrange
+        ConstantCoefficientRevisionAlgorithm algorithm = new ConstantCoefficientRevisionAlgorithm();
+        LocalDate today = LocalDate.of(2024, 5, 1);
+        int[] buttons = {0, 0, 1, 2, 3, 1};
+        double[] initialBaseRevisionTimes = {0.02, 3.0, 0.015, 7.0, 12.0, 0.01};
+        List<CardConstantCoefficient> batchCards = new ArrayList<>();
+        List<CardConstantCoefficient> perCardCards = new ArrayList<>();
+        for (double initialBaseRevisionTime : initialBaseRevisionTimes) {
+            CardConstantCoefficient batchCard = new CardConstantCoefficient("front", "back", null);
+            batchCard.setBaseRevisionTime(initialBaseRevisionTime);
+            batchCards.add(batchCard);
+            CardConstantCoefficient perCardCard = new CardConstantCoefficient("front", "back", null);
+            perCardCard.setBaseRevisionTime(initialBaseRevisionTime);
+            perCardCards.add(perCardCard);
+        }
+
+        // Act
+        ConstantCoefficientBatchState state = ConstantCoefficientBatchState.fromCards(batchCards, false);
+        algorithm.regularReviseBatch(state, buttons);
+        state.applyTo(batchCards, false, today);
+        for (int i = 0; i < buttons.length; i++) {
+            algorithm.replayRevision(0, buttons[i], perCardCards.get(i), today);
+        }
+
+        // Assert
+        for (int i = 0; i < buttons.length; i++) {
+            assertEquals(perCardCards.get(i).getBaseRevisionTime(), batchCards.get(i).getBaseRevisionTime(), 1e-12);
+            assertEquals(perCardCards.get(i).getIncorrectCounter(), batchCards.get(i).getIncorrectCounter());
+            assertEquals(perCardCards.get(i).getNextRegularRevisionDate(), batchCards.get(i).getNextRegularRevisionDate());
+        }
+        assertEquals(CardConstantCoefficient.MIN_BASE_REVISION_TIME, batchCards.get(0).getBaseRevisionTime(), 1e-12);
+    }
+
+    @Test
+    void testSuperMemo2_ArrayShorterThanLengthThrowsException() {
+        // Arrange
+        int[] grades = new int[2];
+        int[] shortArray = new int[1];
+        double[] easinessFactors = new double[2];
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> SchedulingKernels.superMemo2(grades, shortArray,
+                grades.clone(), easinessFactors, grades.clone(), grades.clone(), 2, 2.5, 3));
+    }
+
+    @Test
+    void testConstantCoefficient_NoCoefficientsThrowsException() {
+        // Arrange
+        int[] buttons = new int[1];
+        double[] baseRevisionTimes = new double[1];
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> SchedulingKernels.constantCoefficient(buttons,
+                baseRevisionTimes, new int[1], new int[1], 1, new double[0], 3));
+        assertEquals(0.0, Arrays.stream(baseRevisionTimes).sum());
+    }
+}
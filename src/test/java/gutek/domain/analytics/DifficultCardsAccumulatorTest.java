@@ -0,0 +1,82 @@
+package gutek.domain.analytics;
+
+import gutek.domain.revisions.RevisionLogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifficultCardsAccumulatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private static final String REGULAR = "RegularTextModeRevisionStrategy";
+
+    private static final String REVERSE = "ReverseTextModeRevisionStrategy";
+
+    private static void revise(DifficultCardsAccumulator accumulator, long cardId, String strategy, int... buttons) {
+        for (int i = 0; i < buttons.length; i++) {
+            accumulator.accept(new RevisionLogEntry(cardId, DAY.plusDays(i), buttons[i], strategy));
+        }
+    }
+
+    @Test
+    void getMostDifficult_CountsLapsesPerStrategy() {
+        // Arrange
+        DifficultCardsAccumulator accumulator = new DifficultCardsAccumulator(10, index -> index == 0);
+        accumulator.accept(new RevisionLogEntry(1L, DAY, 0, REGULAR));
+        accumulator.accept(new RevisionLogEntry(1L, DAY, 3, REGULAR));
+        accumulator.accept(new RevisionLogEntry(1L, DAY.plusDays(1), 3, REVERSE));
+        accumulator.accept(new RevisionLogEntry(1L, DAY.plusDays(2), 0, REGULAR));
+        accumulator.accept(new RevisionLogEntry(1L, DAY.plusDays(3), 0, REVERSE));
+        accumulator.accept(new RevisionLogEntry(1L, DAY.plusDays(4), 0, REVERSE));
+
+        // Act
+        List<CardDifficulty> mostDifficult = accumulator.getMostDifficult();
+
+        // Assert
+        assertEquals(List.of(new CardDifficulty(1L, 2, 4, DAY.plusDays(4))), mostDifficult);
+    }
+
+    @Test
+    void getMostDifficult_KeepsOnlyCapacityMostDifficultCards() {
+        // Arrange
+        DifficultCardsAccumulator accumulator = new DifficultCardsAccumulator(2, index -> index == 0);
+        revise(accumulator, 1L, REGULAR, 3, 0);
+        revise(accumulator, 2L, REGULAR, 3, 0, 3, 0, 3, 0);
+        revise(accumulator, 3L, REGULAR, 0, 0);
+        revise(accumulator, 4L, REGULAR, 3, 0, 3, 0);
+
+        // Act
+        List<CardDifficulty> mostDifficult = accumulator.getMostDifficult();
+
+        // Assert
+        assertEquals(List.of(2L, 4L), mostDifficult.stream().map(CardDifficulty::cardId).toList());
+        assertEquals(3, mostDifficult.get(0).lapses());
+    }
+
+    @Test
+    void getMostDifficult_SkipsCardsNeverFailed() {
+        // Arrange
+        DifficultCardsAccumulator accumulator = new DifficultCardsAccumulator(5, index -> index == 0);
+        revise(accumulator, 1L, REGULAR, 3, 4, 5);
+
+        // Act & Assert
+        assertTrue(accumulator.getMostDifficult().isEmpty());
+    }
+
+    @Test
+    void isLeech_RequiresLeechLapses() {
+        // Act & Assert
+        assertTrue(new CardDifficulty(1L, RetentionStatistics.LEECH_LAPSES, 10, DAY).isLeech());
+        assertFalse(new CardDifficulty(1L, RetentionStatistics.LEECH_LAPSES - 1, 10, DAY).isLeech());
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveCapacity() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new DifficultCardsAccumulator(0, index -> index == 0));
+    }
+}
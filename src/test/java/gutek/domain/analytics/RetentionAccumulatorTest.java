@@ -0,0 +1,131 @@
+package gutek.domain.analytics;
+
+import gutek.domain.revisions.RevisionLogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetentionAccumulatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+    private static final String REGULAR = "RegularTextModeRevisionStrategy";
+
+    private static final String REVERSE = "ReverseTextModeRevisionStrategy";
+
+    @Test
+    void accept_ShouldCountReviewsByIntervalSincePreviousReviewInSameStrategy() {
+        // Arrange
+        RetentionAccumulator accumulator = new RetentionAccumulator(null, index -> index == 0);
+        List<RevisionLogEntry> log = List.of(
+                new RevisionLogEntry(1L, DAY, 2, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 0, REVERSE),
+                new RevisionLogEntry(1L, DAY.plusDays(3), 3, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(4), 0, REVERSE),
+                new RevisionLogEntry(2L, DAY, 1, REGULAR),
+                new RevisionLogEntry(2L, DAY.plusDays(3), 0, REGULAR));
+
+        // Act
+        log.forEach(accumulator);
+        RetentionStatistics statistics = accumulator.toStatistics();
+
+        // Assert
+        int threeDays = RetentionStatistics.intervalBucket(3);
+        assertEquals(3, statistics.getIntervalReviews(threeDays));
+        assertEquals(1.0 / 3, statistics.getIntervalRetention(threeDays), 1e-9);
+        assertEquals(3, statistics.getCurveReviews(3));
+        assertEquals(0, statistics.getCurveReviews(0));
+        assertTrue(Double.isNaN(statistics.getCurveRetention(0)));
+    }
+
+    @Test
+    void accept_ShouldCountLapsesOnlyAfterRecalledReviews() {
+        // Arrange
+        RetentionAccumulator accumulator = new RetentionAccumulator(null, index -> index == 0);
+        List<RevisionLogEntry> log = List.of(
+                new RevisionLogEntry(1L, DAY, 0, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 0, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(2), 3, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(5), 0, REGULAR),
+                new RevisionLogEntry(2L, DAY, 3, REGULAR),
+                new RevisionLogEntry(2L, DAY.plusDays(2), 3, REGULAR));
+
+        // Act
+        log.forEach(accumulator);
+        RetentionStatistics statistics = accumulator.toStatistics();
+
+        // Assert
+        assertEquals(2, statistics.getLearnedReviewsCount());
+        assertEquals(1, statistics.getLapsesCount());
+        assertEquals(0.5, statistics.getLapseRate(), 1e-9);
+        assertEquals(1, statistics.getCardsWithLapses(0));
+        assertEquals(1, statistics.getCardsWithLapses(1));
+    }
+
+    @Test
+    void toStatistics_ShouldDetectLeeches() {
+        // Arrange
+        RetentionAccumulator accumulator = new RetentionAccumulator(null, index -> index == 0);
+        for (int i = 0; i < 2 * RetentionStatistics.LEECH_LAPSES; i++) {
+            accumulator.accept(new RevisionLogEntry(7L, DAY.plusDays(i), i % 2 == 0 ? 3 : 0, REGULAR));
+        }
+        accumulator.accept(new RevisionLogEntry(8L, DAY, 3, REGULAR));
+
+        // Act
+        RetentionStatistics statistics = accumulator.toStatistics();
+
+        // Assert
+        assertArrayEquals(new long[]{7L}, statistics.getLeechCardIds());
+        assertEquals(1, statistics.getCardsWithLapses(RetentionStatistics.LEECH_LAPSES));
+        assertEquals(1, statistics.getCardsWithLapses(100));
+    }
+
+    @Test
+    void accept_ShouldUseEarlierRevisionsOnlyAsContext_WhenStartDateGiven() {
+        // Arrange
+        RetentionAccumulator accumulator = new RetentionAccumulator(DAY.plusDays(10), index -> index == 0);
+        List<RevisionLogEntry> log = List.of(
+                new RevisionLogEntry(1L, DAY, 3, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(4), 3, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(12), 0, REGULAR),
+                new RevisionLogEntry(2L, DAY, 3, REGULAR),
+                new RevisionLogEntry(2L, DAY.plusDays(5), 0, REGULAR));
+
+        // Act
+        log.forEach(accumulator);
+        RetentionStatistics statistics = accumulator.toStatistics();
+
+        // Assert
+        assertEquals(1, statistics.getCurveReviews(8));
+        assertEquals(0, statistics.getCurveReviews(4));
+        assertEquals(0, statistics.getCurveReviews(5));
+        assertEquals(1, statistics.getLapsesCount());
+        assertEquals(1, statistics.getCardsWithLapses(1));
+        assertEquals(0, statistics.getCardsWithLapses(0));
+    }
+
+    @Test
+    void accept_ShouldSkipIncompleteEntriesAndIgnoreCurveBeyondLimit() {
+        // Arrange
+        RetentionAccumulator accumulator = new RetentionAccumulator(null, index -> index == 0);
+        List<RevisionLogEntry> log = List.of(
+                new RevisionLogEntry(1L, null, 2, REGULAR),
+                new RevisionLogEntry(1L, DAY, null, REGULAR),
+                new RevisionLogEntry(1L, DAY, 2, null),
+                new RevisionLogEntry(1L, DAY, 2, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(RetentionStatistics.FORGETTING_CURVE_DAYS + 10), 2, REGULAR));
+
+        // Act
+        log.forEach(accumulator);
+        RetentionStatistics statistics = accumulator.toStatistics();
+
+        // Assert
+        assertEquals(1, statistics.getIntervalReviews(RetentionStatistics.INTERVAL_BUCKET_STARTS.length - 1));
+        for (int days = 0; days <= RetentionStatistics.FORGETTING_CURVE_DAYS; days++) {
+            assertEquals(0, statistics.getCurveReviews(days));
+        }
+    }
+}
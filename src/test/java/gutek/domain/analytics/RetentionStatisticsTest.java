@@ -0,0 +1,82 @@
+package gutek.domain.analytics;
+
+import gutek.domain.revisions.RevisionLogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetentionStatisticsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void intervalBucket_ShouldFindBucketContainingInterval() {
+        // Act & Assert
+        assertEquals(0, RetentionStatistics.intervalBucket(0));
+        assertEquals(1, RetentionStatistics.intervalBucket(1));
+        assertEquals(3, RetentionStatistics.intervalBucket(3));
+        assertEquals(3, RetentionStatistics.intervalBucket(4));
+        assertEquals(6, RetentionStatistics.intervalBucket(30));
+        assertEquals(RetentionStatistics.INTERVAL_BUCKET_STARTS.length - 1, RetentionStatistics.intervalBucket(5000));
+    }
+
+    @Test
+    void intervalBucketLabel_ShouldDescribeBucketRange() {
+        // Act & Assert
+        assertEquals("0", RetentionStatistics.intervalBucketLabel(0));
+        assertEquals("3-4", RetentionStatistics.intervalBucketLabel(3));
+        assertEquals("241+", RetentionStatistics.intervalBucketLabel(RetentionStatistics.INTERVAL_BUCKET_STARTS.length - 1));
+    }
+
+    @Test
+    void empty_ShouldHaveNoRates() {
+        // Act
+        RetentionStatistics statistics = RetentionStatistics.empty();
+
+        // Assert
+        assertTrue(Double.isNaN(statistics.getLapseRate()));
+        assertTrue(Double.isNaN(statistics.getIntervalRetention(0)));
+        assertEquals(0, statistics.getLeechCardIds().length);
+    }
+
+    @Test
+    void merge_ShouldSumHistogramsAndConcatenateLeeches() {
+        // Arrange
+        RetentionStatistics first = statisticsOfLeech(1L);
+        RetentionStatistics second = statisticsOfLeech(2L);
+
+        // Act
+        RetentionStatistics merged = RetentionStatistics.merge(first, second);
+
+        // Assert
+        assertEquals(2 * first.getLapsesCount(), merged.getLapsesCount());
+        assertEquals(2 * first.getLearnedReviewsCount(), merged.getLearnedReviewsCount());
+        assertEquals(2 * first.getCurveReviews(1), merged.getCurveReviews(1));
+        assertEquals(first.getCurveRetention(1), merged.getCurveRetention(1), 1e-9);
+        assertEquals(2, merged.getCardsWithLapses(RetentionStatistics.LEECH_LAPSES));
+        assertArrayEquals(new long[]{1L, 2L}, merged.getLeechCardIds());
+        assertEquals(1, first.getCardsWithLapses(RetentionStatistics.LEECH_LAPSES));
+    }
+
+    @Test
+    void getLeechCardIds_ShouldReturnCopy() {
+        // Arrange
+        RetentionStatistics statistics = statisticsOfLeech(1L);
+
+        // Act
+        statistics.getLeechCardIds()[0] = 5L;
+
+        // Assert
+        assertArrayEquals(new long[]{1L}, statistics.getLeechCardIds());
+    }
+
+    private RetentionStatistics statisticsOfLeech(long cardId) {
+        RetentionAccumulator accumulator = new RetentionAccumulator(null, index -> index == 0);
+        for (int i = 0; i < 2 * RetentionStatistics.LEECH_LAPSES; i++) {
+            accumulator.accept(new RevisionLogEntry(cardId, DAY.plusDays(i), i % 2 == 0 ? 3 : 0, "RegularTextModeRevisionStrategy"));
+        }
+        return accumulator.toStatistics();
+    }
+}
@@ -0,0 +1,110 @@
+package gutek.domain.analytics;
+
+import gutek.domain.revisions.RevisionLogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsAccumulatorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 10);
+
+    private static final String REGULAR = "RegularTextModeRevisionStrategy";
+
+    private static final String REVERSE = "ReverseTextModeRevisionStrategy";
+
+    private static final Map<String, Integer> STRATEGY_INDEXES = Map.of(REGULAR, 0, REVERSE, 1);
+
+    private static final BiPredicate<Integer, Integer> ALL_FINISHED = (strategyIndex, pressedButtonIndex) -> true;
+
+    @Test
+    void accept_ShouldCountFirstRevisionsAndRevisionsByStrategyAndDay() {
+        // Arrange
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(TODAY, STRATEGY_INDEXES, 5, ALL_FINISHED);
+        List<RevisionLogEntry> log = List.of(
+                new RevisionLogEntry(1L, TODAY.minusDays(2), 3, REGULAR),
+                new RevisionLogEntry(1L, TODAY.minusDays(1), 3, REVERSE),
+                new RevisionLogEntry(1L, TODAY, 3, REGULAR),
+                new RevisionLogEntry(2L, TODAY, 0, REGULAR),
+                new RevisionLogEntry(2L, TODAY, 3, REGULAR));
+
+        // Act
+        log.forEach(accumulator);
+
+        // Assert
+        assertArrayEquals(new int[]{1, 0, 1, 0, 0}, accumulator.getRevisedForTheFirstTime());
+        assertArrayEquals(new int[]{3, 0, 1, 0, 0}, accumulator.getRevisionCounts(0));
+        assertArrayEquals(new int[]{0, 1, 0, 0, 0}, accumulator.getRevisionCounts(1));
+        assertEquals(5, accumulator.getRevisionsCount());
+    }
+
+    @Test
+    void accept_ShouldCountOnlyFinishedRevisionsButEveryFirstRevision() {
+        // Arrange
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(TODAY, STRATEGY_INDEXES, 3,
+                (strategyIndex, pressedButtonIndex) -> pressedButtonIndex > 0);
+        List<RevisionLogEntry> log = List.of(
+                new RevisionLogEntry(1L, TODAY, 0, REGULAR),
+                new RevisionLogEntry(1L, TODAY, 0, REGULAR),
+                new RevisionLogEntry(1L, TODAY, 2, REGULAR),
+                new RevisionLogEntry(2L, TODAY, 0, REVERSE));
+
+        // Act
+        log.forEach(accumulator);
+
+        // Assert
+        assertArrayEquals(new int[]{2, 0, 0}, accumulator.getRevisedForTheFirstTime());
+        assertArrayEquals(new int[]{1, 0, 0}, accumulator.getRevisionCounts(0));
+        assertArrayEquals(new int[3], accumulator.getRevisionCounts(1));
+        assertEquals(4, accumulator.getRevisionsCount());
+    }
+
+    @Test
+    void accept_ShouldIgnoreRevisionsOutsideRangeButRememberTheirCards() {
+        // Arrange
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(TODAY, STRATEGY_INDEXES, 3, ALL_FINISHED);
+        List<RevisionLogEntry> log = List.of(
+                new RevisionLogEntry(1L, TODAY.minusDays(10), 3, REGULAR),
+                new RevisionLogEntry(1L, TODAY, 3, REGULAR),
+                new RevisionLogEntry(2L, TODAY.plusDays(1), 3, REGULAR));
+
+        // Act
+        log.forEach(accumulator);
+
+        // Assert
+        assertArrayEquals(new int[3], accumulator.getRevisedForTheFirstTime());
+        assertArrayEquals(new int[]{1, 0, 0}, accumulator.getRevisionCounts(0));
+    }
+
+    @Test
+    void accept_ShouldCountUnknownStrategiesOnlyAsFirstRevisions() {
+        // Arrange
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(TODAY, Map.of(REGULAR, 0), 3, ALL_FINISHED);
+
+        // Act
+        accumulator.accept(new RevisionLogEntry(1L, TODAY, 3, REVERSE));
+
+        // Assert
+        assertEquals(1, accumulator.getUnknownStrategyCount());
+        assertEquals(1, accumulator.getStrategiesCount());
+        assertArrayEquals(new int[]{1, 0, 0}, accumulator.getRevisedForTheFirstTime());
+        assertArrayEquals(new int[3], accumulator.getRevisionCounts(0));
+        assertArrayEquals(new int[3], accumulator.getRevisionCounts(1));
+    }
+
+    @Test
+    void compare_ShouldListDaysWithDifferentCounts() {
+        // Act
+        StatisticsDifference[] differences = StatisticsAccumulator.compare(7L, 1, new int[]{2, 1}, new int[]{3, 1, 4});
+
+        // Assert
+        assertArrayEquals(new StatisticsDifference[]{
+                new StatisticsDifference(7L, 1, 0, 2, 3),
+                new StatisticsDifference(7L, 1, 2, 0, 4)}, differences);
+    }
+}
@@ -0,0 +1,52 @@
+package gutek.domain.analytics;
+
+import gutek.domain.revisions.RevisionLogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsConsistencyReportTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 10);
+
+    @Test
+    void merge_ShouldCombineCountsAndDifferences() {
+        // Arrange
+        StatisticsAccumulator accumulator = new StatisticsAccumulator(TODAY, Map.of("Strategy", 0), 3,
+                (strategyIndex, pressedButtonIndex) -> true);
+        accumulator.accept(new RevisionLogEntry(1L, TODAY, 3, "Strategy"));
+        accumulator.accept(new RevisionLogEntry(1L, TODAY, 3, "Unknown"));
+        StatisticsConsistencyReport first = StatisticsConsistencyReport.ofDeck(accumulator,
+                List.of(new StatisticsDifference(1L, null, 0, 0, 1)), true);
+        StatisticsConsistencyReport second = StatisticsConsistencyReport.ofDeck(accumulator,
+                List.of(new StatisticsDifference(2L, 0, 1, 5, 2)), false);
+
+        // Act
+        StatisticsConsistencyReport report = StatisticsConsistencyReport.merge(first, second);
+
+        // Assert
+        assertEquals(2, report.getDecksCount());
+        assertEquals(1, report.getRepairedDecksCount());
+        assertEquals(4, report.getRevisionsCount());
+        assertEquals(2, report.getUnknownStrategyCount());
+        assertEquals(2, report.getDifferences().size());
+        assertEquals(-2, report.getMissingCount());
+        assertEquals(List.of(new StatisticsDifference(2L, 0, 1, 5, 2)), report.getDifferences(2L));
+        assertFalse(report.isConsistent());
+    }
+
+    @Test
+    void empty_ShouldBeConsistent() {
+        // Act
+        StatisticsConsistencyReport report = StatisticsConsistencyReport.empty();
+
+        // Assert
+        assertTrue(report.isConsistent());
+        assertEquals(0, report.getDecksCount());
+        assertEquals(StatisticsConsistencyReport.merge(report, report).getDifferences(), List.of());
+    }
+}
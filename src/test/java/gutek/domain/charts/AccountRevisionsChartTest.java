@@ -0,0 +1,61 @@
+package gutek.domain.charts;
+
+import gutek.domain.charts.charts.AccountRevisionsChart;
+import gutek.entities.decks.DailyAggregateKind;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.users.AppUser;
+import gutek.services.DailyAggregateService;
+import gutek.services.TranslationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountRevisionsChartTest {
+
+    private AccountRevisionsChart accountRevisionsChart;
+    private DailyAggregateService mockDailyAggregateService;
+    private TranslationService mockTranslationService;
+    private DeckBase deck;
+
+    @BeforeEach
+    void setUp() {
+        mockDailyAggregateService = mock(DailyAggregateService.class);
+        mockTranslationService = mock(TranslationService.class);
+        deck = new DeckBase();
+        deck.setUser(new AppUser());
+        accountRevisionsChart = new AccountRevisionsChart(mockTranslationService, mockDailyAggregateService);
+    }
+
+    @Test
+    void testComputeData_DailyRevisionsOfUserWithTodayOnTheRight() {
+        // Arrange
+        when(mockDailyAggregateService.getUserDailyCounts(deck.getUser(), DailyAggregateKind.REVISIONS, 3)).thenReturn(new int[]{5, 0, 2});
+
+        // Act
+        ChartData data = accountRevisionsChart.computeData(3, deck, null);
+
+        // Assert
+        assertArrayEquals(new String[]{"-2", "-1", "0"}, data.labels());
+        assertArrayEquals(new int[]{2, 0, 5}, data.values());
+    }
+
+    @Test
+    void testGetChartTitle() {
+        // Arrange
+        when(mockTranslationService.getTranslation("deck_view.statistics.account_revisions_title")).thenReturn("Revisions in all decks");
+
+        // Act
+        String title = accountRevisionsChart.getChartTitle(deck, null);
+
+        // Assert
+        assertEquals("Revisions in all decks", title);
+    }
+
+    @Test
+    void testIsRevisionStrategyIndependent() {
+        // Act & Assert
+        assertTrue(accountRevisionsChart.isRevisionStrategyIndependent());
+    }
+}
@@ -1,9 +1,10 @@
 package gutek.domain.charts;
 
 import gutek.domain.charts.charts.AddedNewChart;
-import gutek.entities.cards.CardBase;
+import gutek.entities.decks.DailyAggregateKind;
 import gutek.entities.decks.DeckBase;
-import gutek.services.DeckService;
+import gutek.services.ClockService;
+import gutek.services.DailyAggregateService;
 import gutek.services.TranslationService;
 import javafx.application.Platform;
 import javafx.scene.chart.BarChart;
@@ -13,8 +14,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.time.LocalDate;
-import java.util.List;
+import java.time.Clock;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,18 +23,19 @@ class AddedNewChartTest {
 
     private AddedNewChart addedNewChart;
     private TranslationService mockTranslationService;
-    private DeckService mockDeckService;
+    private DailyAggregateService mockDailyAggregateService;
     private DeckBase mockDeck;
 
     @BeforeEach
     void setUp() {
         mockTranslationService = mock(TranslationService.class);
-        mockDeckService = mock(DeckService.class);
+        mockDailyAggregateService = mock(DailyAggregateService.class);
         mockDeck = mock(DeckBase.class);
 
         when(mockTranslationService.getTranslation(anyString())).thenReturn("Translated");
 
-        addedNewChart = new AddedNewChart(mockTranslationService, mockDeckService);
+        ClockService clockService = new ClockService(Clock.systemDefaultZone());
+        addedNewChart = new AddedNewChart(mockTranslationService, mockDailyAggregateService, new ChartDataCache(clockService));
     }
 
     @BeforeAll
@@ -53,15 +54,13 @@ class AddedNewChartTest {
     void testGetChart_ValidData() {
         // Arrange
         int range = 5;
-        LocalDate today = LocalDate.now();
-
-        CardBase mockCard1 = mock(CardBase.class);
-        when(mockCard1.getCreationTime()).thenReturn(today.minusDays(2).atStartOfDay());
-
-        CardBase mockCard2 = mock(CardBase.class);
-        when(mockCard2.getCreationTime()).thenReturn(today.minusDays(3).atStartOfDay());
-
-        when(mockDeckService.getAllCards(mockDeck)).thenReturn(List.of(mockCard1, mockCard2));
+        when(mockDailyAggregateService.getDailyCounts(eq(mockDeck), eq(DailyAggregateKind.CARDS_ADDED), isNull(), anyInt()))
+                .thenAnswer(invocation -> {
+                    int[] counts = new int[invocation.<Integer>getArgument(3)];
+                    counts[2] = 1;
+                    counts[3] = 1;
+                    return counts;
+                });
 
         // Act
         Chart chart = addedNewChart.getChart(range, mockDeck, null);
@@ -82,7 +81,8 @@ class AddedNewChartTest {
     void testGetChart_EmptyData() {
         // Arrange
         int range = 5;
-        when(mockDeckService.getAllCards(mockDeck)).thenReturn(List.of());
+        when(mockDailyAggregateService.getDailyCounts(eq(mockDeck), eq(DailyAggregateKind.CARDS_ADDED), isNull(), anyInt()))
+                .thenAnswer(invocation -> new int[invocation.<Integer>getArgument(3)]);
 
         // Act
         Chart chart = addedNewChart.getChart(range, mockDeck, null);
@@ -5,6 +5,7 @@ import gutek.domain.revisions.RevisionStrategy;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.cards.CardBase;
 import gutek.entities.decks.DeckBase;
+import gutek.services.ClockService;
 import gutek.services.DeckService;
 import gutek.services.TranslationService;
 import javafx.application.Platform;
@@ -15,8 +16,10 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -40,7 +43,9 @@ class AppearanceTimeRevisionChartTest {
 
         when(mockTranslationService.getTranslation(anyString())).thenReturn("Translated");
 
-        appearanceTimeRevisionChart = new AppearanceTimeRevisionChart(mockTranslationService, mockDeckService);
+        ClockService clockService = new ClockService(Clock.systemDefaultZone());
+        appearanceTimeRevisionChart = new AppearanceTimeRevisionChart(mockTranslationService, mockDeckService,
+                clockService, new ChartDataCache(clockService));
     }
 
     @BeforeAll
@@ -96,6 +101,28 @@ class AppearanceTimeRevisionChartTest {
         assertEquals(1, dataSeries.getData().get(3).getYValue()); // Day 3
     }
 
+    @Test
+    void testComputeData_StopsCountingAndCachesNothing_WhenCancelled() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        CardBase mockCard = mock(CardBase.class);
+        when(mockCard.isNewCard()).thenReturn(false);
+        when(mockCard.getNextRegularRevisionDate()).thenReturn(today.plusDays(1));
+        when(mockDeck.getIdDeck()).thenReturn(1L);
+        when(mockDeck.getRevisionAlgorithm()).thenReturn(mockAlgorithm);
+        when(mockAlgorithm.getAvailableRevisionStrategies()).thenReturn(List.of(mockStrategy));
+        when(mockStrategy.getNextRevisionDate(any(CardBase.class))).thenAnswer(invocation -> {
+            CardBase card = invocation.getArgument(0);
+            return card.getNextRegularRevisionDate();
+        });
+        when(mockDeckService.getAllCards(mockDeck)).thenReturn(List.of(mockCard));
+
+        // Act & Assert
+        assertThrows(CancellationException.class, () -> appearanceTimeRevisionChart.computeData(5, mockDeck, 0, () -> true));
+        verify(mockStrategy, never()).getNextRevisionDate(any(CardBase.class));
+        assertEquals(1, appearanceTimeRevisionChart.computeData(5, mockDeck, 0).values()[1]);
+    }
+
     @Test
     void testGetChartTitle_ValidIndex() {
         // Arrange
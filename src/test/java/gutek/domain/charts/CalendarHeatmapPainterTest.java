@@ -0,0 +1,80 @@
+package gutek.domain.charts;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarHeatmapPainterTest {
+
+    private static final double CELL = 10;
+
+    private static final double WIDTH = CalendarHeatmapPainter.LEFT_MARGIN + 3 * CELL + CalendarHeatmapPainter.RIGHT_MARGIN;
+
+    private static final double HEIGHT = CalendarHeatmapPainter.TOP_MARGIN + 7 * CELL + CalendarHeatmapPainter.BOTTOM_MARGIN;
+
+    private CalendarHeatmapPainter painter;
+
+    @BeforeEach
+    void setUp() {
+        // 2024-05-01 is a Wednesday, so the fourteen days span three weeks
+        String[] labels = new String[14];
+        int[] values = new int[14];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = LocalDate.of(2024, 5, 1).plusDays(i).toString();
+            values[i] = i;
+        }
+        painter = new CalendarHeatmapPainter(new ChartData(labels, values));
+    }
+
+    @Test
+    void constructor_ShouldPlaceFirstDayInItsWeekdayRow() {
+        // Act & Assert
+        assertEquals(3, painter.getColumnsCount());
+        assertEquals(LocalDate.of(2024, 5, 1), painter.getDate(0));
+        assertEquals(LocalDate.of(2024, 5, 14), painter.getDate(13));
+    }
+
+    @Test
+    void indexAt_ShouldReturnDayOfCell() {
+        // Act
+        int firstDay = painter.indexAt(CalendarHeatmapPainter.LEFT_MARGIN + 1, CalendarHeatmapPainter.TOP_MARGIN + 2 * CELL + 1, WIDTH, HEIGHT);
+        int nextMonday = painter.indexAt(CalendarHeatmapPainter.LEFT_MARGIN + CELL + 1, CalendarHeatmapPainter.TOP_MARGIN + 1, WIDTH, HEIGHT);
+
+        // Assert
+        assertEquals(0, firstDay);
+        assertEquals(5, nextMonday);
+    }
+
+    @Test
+    void indexAt_ShouldReturnMinusOne_WhenCellIsOutsideSeries() {
+        // Act & Assert
+        assertEquals(-1, painter.indexAt(CalendarHeatmapPainter.LEFT_MARGIN + 1, CalendarHeatmapPainter.TOP_MARGIN + 1, WIDTH, HEIGHT));
+        assertEquals(-1, painter.indexAt(CalendarHeatmapPainter.LEFT_MARGIN + 2 * CELL + 1, CalendarHeatmapPainter.TOP_MARGIN + 6 * CELL + 1, WIDTH, HEIGHT));
+        assertEquals(-1, painter.indexAt(CalendarHeatmapPainter.LEFT_MARGIN - 1, CalendarHeatmapPainter.TOP_MARGIN + 1, WIDTH, HEIGHT));
+        assertEquals(-1, painter.indexAt(WIDTH - 1, CalendarHeatmapPainter.TOP_MARGIN + 1, WIDTH, HEIGHT));
+    }
+
+    @Test
+    void level_ShouldScaleValuesToLevels() {
+        // Act & Assert
+        assertEquals(0, CalendarHeatmapPainter.level(0, 8));
+        assertEquals(1, CalendarHeatmapPainter.level(1, 8));
+        assertEquals(2, CalendarHeatmapPainter.level(4, 8));
+        assertEquals(CalendarHeatmapPainter.LEVELS, CalendarHeatmapPainter.level(8, 8));
+        assertEquals(0, painter.getLevel(0));
+        assertEquals(CalendarHeatmapPainter.LEVELS, painter.getLevel(13));
+    }
+
+    @Test
+    void constructor_ShouldAcceptEmptySeries() {
+        // Act
+        CalendarHeatmapPainter emptyPainter = new CalendarHeatmapPainter(new ChartData(new String[0], new int[0]));
+
+        // Assert
+        assertEquals(0, emptyPainter.getColumnsCount());
+        assertEquals(-1, emptyPainter.indexAt(50, 50, WIDTH, HEIGHT));
+    }
+}
@@ -0,0 +1,97 @@
+package gutek.domain.charts;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CanvasBarPainterTest {
+
+    private static final double WIDTH = CanvasBarPainter.LEFT_MARGIN + 100 + CanvasBarPainter.RIGHT_MARGIN;
+
+    private static final double HEIGHT = CanvasBarPainter.TOP_MARGIN + 200 + CanvasBarPainter.BOTTOM_MARGIN;
+
+    private CanvasBarPainter painter;
+
+    @BeforeEach
+    void setUp() {
+        ChartData data = new ChartData(new String[]{"-3", "-2", "-1", "0"}, new int[]{1, 0, 17, 4});
+        painter = new CanvasBarPainter(data, "Day", "Cards");
+    }
+
+    @Test
+    void indexAt_ShouldReturnBarOfSlot() {
+        // Act
+        int first = painter.indexAt(CanvasBarPainter.LEFT_MARGIN, 100, WIDTH, HEIGHT);
+        int second = painter.indexAt(CanvasBarPainter.LEFT_MARGIN + 25, 100, WIDTH, HEIGHT);
+        int last = painter.indexAt(CanvasBarPainter.LEFT_MARGIN + 99.9, 100, WIDTH, HEIGHT);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(3, last);
+    }
+
+    @Test
+    void indexAt_ShouldReturnMinusOne_WhenOutsidePlot() {
+        // Act & Assert
+        assertEquals(-1, painter.indexAt(CanvasBarPainter.LEFT_MARGIN - 1, 100, WIDTH, HEIGHT));
+        assertEquals(-1, painter.indexAt(WIDTH - CanvasBarPainter.RIGHT_MARGIN, 100, WIDTH, HEIGHT));
+        assertEquals(-1, painter.indexAt(100, CanvasBarPainter.TOP_MARGIN - 1, WIDTH, HEIGHT));
+        assertEquals(-1, painter.indexAt(100, HEIGHT - CanvasBarPainter.BOTTOM_MARGIN + 1, WIDTH, HEIGHT));
+    }
+
+    @Test
+    void indexAt_ShouldReturnMinusOne_WhenCanvasTooSmall() {
+        // Act
+        int index = painter.indexAt(CanvasBarPainter.LEFT_MARGIN, 100, CanvasBarPainter.LEFT_MARGIN, HEIGHT);
+
+        // Assert
+        assertEquals(-1, index);
+    }
+
+    @Test
+    void indexAt_ShouldReturnMinusOne_WhenSeriesEmpty() {
+        // Arrange
+        CanvasBarPainter emptyPainter = new CanvasBarPainter(new ChartData(new String[0], new int[0]), "Day", "Cards");
+
+        // Act
+        int index = emptyPainter.indexAt(100, 100, WIDTH, HEIGHT);
+
+        // Assert
+        assertEquals(-1, index);
+    }
+
+    @Test
+    void constructor_ShouldRoundAxisMaximumUpToTickUnit() {
+        // Assert
+        assertEquals(4, painter.size());
+        assertEquals(20, painter.getAxisMaximum());
+        assertEquals("-1", painter.getLabel(2));
+        assertEquals(17, painter.getValue(2));
+    }
+
+    @Test
+    void constructor_ShouldCopySeries() {
+        // Arrange
+        int[] values = {5};
+        CanvasBarPainter copyingPainter = new CanvasBarPainter(new ChartData(new String[]{"0"}, values), "Day", "Cards");
+
+        // Act
+        values[0] = 100;
+
+        // Assert
+        assertEquals(5, copyingPainter.getValue(0));
+    }
+
+    @Test
+    void niceTickUnit_ShouldChooseOneTwoOrFiveTimesPowerOfTen() {
+        // Act & Assert
+        assertEquals(1, CanvasBarPainter.niceTickUnit(0));
+        assertEquals(1, CanvasBarPainter.niceTickUnit(4));
+        assertEquals(2, CanvasBarPainter.niceTickUnit(7));
+        assertEquals(5, CanvasBarPainter.niceTickUnit(17));
+        assertEquals(20, CanvasBarPainter.niceTickUnit(99));
+        assertEquals(500, CanvasBarPainter.niceTickUnit(2400));
+    }
+}
@@ -0,0 +1,194 @@
+package gutek.domain.charts;
+
+import gutek.domain.charts.charts.StatisticsChart;
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.domain.time.SimulatedClock;
+import gutek.entities.decks.DeckBase;
+import gutek.services.ChartService;
+import gutek.services.ClockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ChartDataCacheTest {
+
+    private SimulatedClock clock;
+
+    private ChartDataCache chartDataCache;
+
+    private StatisticsChart chart;
+
+    private DeckBase deck;
+
+    private AtomicInteger computations;
+
+    private IntFunction<int[]> computeSeries;
+
+    @BeforeEach
+    void setUp() {
+        clock = SimulatedClock.startingAt(LocalDate.of(2024, 5, 1), ZoneOffset.UTC);
+        chartDataCache = new ChartDataCache(new ClockService(clock));
+        chart = mock(StatisticsChart.class);
+        deck = new DeckBase();
+        deck.setIdDeck(1L);
+        computations = new AtomicInteger();
+        computeSeries = range -> {
+            computations.incrementAndGet();
+            int[] series = new int[range];
+            for (int i = 0; i < range; i++) {
+                series[i] = i;
+            }
+            return series;
+        };
+    }
+
+    @Test
+    void getSeries_ShouldComputeMaxRangeOnceAndSliceShorterRanges() {
+        // Act
+        int[] shortSeries = chartDataCache.getSeries(chart, deck, 0, 31, computeSeries);
+        int[] longSeries = chartDataCache.getSeries(chart, deck, 0, ChartService.MAX_RANGE, computeSeries);
+        int[] shortSeriesAgain = chartDataCache.getSeries(chart, deck, 0, 91, computeSeries);
+
+        // Assert
+        assertEquals(1, computations.get());
+        assertEquals(31, shortSeries.length);
+        assertEquals(ChartService.MAX_RANGE, longSeries.length);
+        assertEquals(91, shortSeriesAgain.length);
+        assertEquals(30, shortSeries[30]);
+        assertEquals(90, shortSeriesAgain[90]);
+    }
+
+    @Test
+    void getSeries_ShouldReturnCopies() {
+        // Arrange
+        int[] series = chartDataCache.getSeries(chart, deck, null, 31, computeSeries);
+
+        // Act
+        series[0] = 100;
+
+        // Assert
+        assertEquals(0, chartDataCache.getSeries(chart, deck, null, 31, computeSeries)[0]);
+    }
+
+    @Test
+    void getSeries_ShouldKeepSeparateSeriesPerRevisionStrategy() {
+        // Act
+        chartDataCache.getSeries(chart, deck, 0, 31, computeSeries);
+        chartDataCache.getSeries(chart, deck, 1, 31, computeSeries);
+        chartDataCache.getSeries(chart, deck, 0, 31, computeSeries);
+
+        // Assert
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void getSeries_ShouldRecompute_WhenDayChanges() {
+        // Arrange
+        chartDataCache.getSeries(chart, deck, null, 31, computeSeries);
+
+        // Act
+        clock.advanceDays(1);
+        chartDataCache.getSeries(chart, deck, null, 31, computeSeries);
+
+        // Assert
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void onDeckCardsChanged_ShouldDropSeriesOfDeck() {
+        // Arrange
+        DeckBase otherDeck = new DeckBase();
+        otherDeck.setIdDeck(2L);
+        chartDataCache.getSeries(chart, deck, null, 31, computeSeries);
+        chartDataCache.getSeries(chart, otherDeck, null, 31, computeSeries);
+
+        // Act
+        chartDataCache.onDeckCardsChanged(new DeckCardsChangedEvent(1L, DeckCardsChangedEvent.ChangeType.REVISED));
+        chartDataCache.getSeries(chart, deck, null, 31, computeSeries);
+        chartDataCache.getSeries(chart, otherDeck, null, 31, computeSeries);
+
+        // Assert
+        assertEquals(3, computations.get());
+    }
+
+    @Test
+    void onDeckCardsChanged_ShouldDropSeriesOnlyAfterCommit_WhenPublishedInTransaction() {
+        // Arrange
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(ChartDataCache.class, () -> chartDataCache);
+            context.registerBean(TransactionalEventListenerFactory.class);
+            context.refresh();
+            chartDataCache.getSeries(chart, deck, null, 31, computeSeries);
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                // Act
+                context.publishEvent(new DeckCardsChangedEvent(1L, DeckCardsChangedEvent.ChangeType.REVISED));
+                chartDataCache.getSeries(chart, deck, null, 31, computeSeries);
+                TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                        TransactionSynchronization.STATUS_COMMITTED);
+                chartDataCache.getSeries(chart, deck, null, 31, computeSeries);
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        // Assert
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void getSeries_ShouldNotStoreSeries_WhenDeckChangesDuringComputation() {
+        // Arrange
+        IntFunction<int[]> computeWhileModified = range -> {
+            chartDataCache.invalidateDeck(1L);
+            return computeSeries.apply(range);
+        };
+
+        // Act
+        chartDataCache.getSeries(chart, deck, null, 31, computeWhileModified);
+        chartDataCache.getSeries(chart, deck, null, 31, computeSeries);
+
+        // Assert
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void getSeries_ShouldNotCache_WhenDeckIsNotSaved() {
+        // Arrange
+        DeckBase unsavedDeck = new DeckBase();
+
+        // Act
+        chartDataCache.getSeries(chart, unsavedDeck, null, 31, computeSeries);
+        chartDataCache.getSeries(chart, unsavedDeck, null, 31, computeSeries);
+
+        // Assert
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void invalidateAll_ShouldDropAllSeries() {
+        // Arrange
+        chartDataCache.getSeries(chart, deck, null, 31, computeSeries);
+
+        // Act
+        chartDataCache.invalidateAll();
+        chartDataCache.getSeries(chart, deck, null, 31, computeSeries);
+
+        // Assert
+        assertEquals(2, computations.get());
+    }
+}
@@ -0,0 +1,60 @@
+package gutek.domain.charts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartDataTest {
+
+    @Test
+    void pastDays_ShouldPutTodayOnTheRight() {
+        // Arrange
+        int[] countsByDaysAgo = {5, 6, 7, 8};
+
+        // Act
+        ChartData data = ChartData.pastDays(countsByDaysAgo, 3);
+
+        // Assert
+        assertArrayEquals(new String[]{"-2", "-1", "0"}, data.labels());
+        assertArrayEquals(new int[]{7, 6, 5}, data.values());
+    }
+
+    @Test
+    void comingDays_ShouldPutTodayOnTheLeft() {
+        // Arrange
+        int[] countsByDaysAhead = {5, 6, 7, 8};
+
+        // Act
+        ChartData data = ChartData.comingDays(countsByDaysAhead, 3);
+
+        // Assert
+        assertArrayEquals(new String[]{"0", "1", "2"}, data.labels());
+        assertArrayEquals(new int[]{5, 6, 7}, data.values());
+        assertEquals(3, data.size());
+    }
+
+    @Test
+    void pastDays_ShouldAggregateLongRanges() {
+        // Arrange
+        int range = 721;
+        int[] countsByDaysAgo = new int[range];
+        Arrays.fill(countsByDaysAgo, 1);
+
+        // Act
+        ChartData data = ChartData.pastDays(countsByDaysAgo, range);
+
+        // Assert
+        assertEquals(Math.ceilDiv(range, ChartSeriesReducer.WEEK), data.size());
+        assertEquals("-6..0", data.labels()[data.size() - 1]);
+        assertEquals(ChartSeriesReducer.WEEK, data.values()[data.size() - 1]);
+        assertEquals(range, Arrays.stream(data.values()).sum());
+    }
+
+    @Test
+    void constructor_ShouldThrowException_WhenLengthsDiffer() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ChartData(new String[]{"0"}, new int[]{1, 2}));
+    }
+}
@@ -0,0 +1,145 @@
+package gutek.domain.charts;
+
+import gutek.services.ChartService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartSeriesReducerTest {
+
+    @Test
+    void bucketSize_ShouldChooseDaysWeeksOrMonths() {
+        // Act & Assert
+        assertEquals(1, ChartSeriesReducer.bucketSize(31));
+        assertEquals(1, ChartSeriesReducer.bucketSize(91));
+        assertEquals(ChartSeriesReducer.WEEK, ChartSeriesReducer.bucketSize(181));
+        assertEquals(ChartSeriesReducer.WEEK, ChartSeriesReducer.bucketSize(721));
+        assertEquals(ChartSeriesReducer.MONTH, ChartSeriesReducer.bucketSize(1081));
+    }
+
+    @Test
+    void bucketSize_ShouldKeepEveryAvailableRangeWithinMaxCategories() {
+        for (Integer range : ChartService.getAVAILABLE_RANGES()) {
+            // Act
+            int bucketSize = ChartSeriesReducer.bucketSize(range);
+
+            // Assert
+            assertTrue(Math.ceilDiv(range, bucketSize) <= ChartSeriesReducer.MAX_CATEGORIES);
+        }
+    }
+
+    @Test
+    void sumBuckets_ShouldAlignFullBucketsToEnd() {
+        // Arrange
+        ChartData data = new ChartData(new String[]{"-4", "-3", "-2", "-1", "0"}, new int[]{1, 2, 3, 4, 5});
+
+        // Act
+        ChartData aggregated = ChartSeriesReducer.sumBuckets(data, 2, true);
+
+        // Assert
+        assertArrayEquals(new String[]{"-4", "-3..-2", "-1..0"}, aggregated.labels());
+        assertArrayEquals(new int[]{1, 5, 9}, aggregated.values());
+    }
+
+    @Test
+    void sumBuckets_ShouldAlignFullBucketsToStart() {
+        // Arrange
+        ChartData data = new ChartData(new String[]{"0", "1", "2", "3", "4"}, new int[]{1, 2, 3, 4, 5});
+
+        // Act
+        ChartData aggregated = ChartSeriesReducer.sumBuckets(data, 2, false);
+
+        // Assert
+        assertArrayEquals(new String[]{"0..1", "2..3", "4"}, aggregated.labels());
+        assertArrayEquals(new int[]{3, 7, 5}, aggregated.values());
+    }
+
+    @Test
+    void sumBuckets_ShouldPreserveTotal() {
+        // Arrange
+        int range = 1081;
+        int[] counts = new int[range];
+        Arrays.setAll(counts, i -> (i * 31) % 17);
+        String[] labels = new String[range];
+        Arrays.setAll(labels, i -> String.valueOf(i - range + 1));
+
+        // Act
+        ChartData aggregated = ChartSeriesReducer.sumBucketsForDisplay(new ChartData(labels, counts), true);
+
+        // Assert
+        assertEquals(Arrays.stream(counts).sum(), Arrays.stream(aggregated.values()).sum());
+        assertEquals(Math.ceilDiv(range, ChartSeriesReducer.MONTH), aggregated.size());
+        assertEquals("-29..0", aggregated.labels()[aggregated.size() - 1]);
+    }
+
+    @Test
+    void sumBuckets_ShouldThrowException_WhenBucketSizeIsNotPositive() {
+        // Arrange
+        ChartData data = new ChartData(new String[]{"0"}, new int[]{1});
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ChartSeriesReducer.sumBuckets(data, 0, true));
+    }
+
+    @Test
+    void largestTriangleThreeBuckets_ShouldKeepAllPoints_WhenBelowThreshold() {
+        // Act
+        int[] selected = ChartSeriesReducer.largestTriangleThreeBuckets(new double[]{0, 1, 2}, new double[]{5, 6, 7}, 10);
+
+        // Assert
+        assertArrayEquals(new int[]{0, 1, 2}, selected);
+    }
+
+    @Test
+    void largestTriangleThreeBuckets_ShouldKeepEndpointsAndPeaks() {
+        // Arrange
+        int size = 1000;
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = i;
+        }
+        ys[500] = 100;
+
+        // Act
+        int[] selected = ChartSeriesReducer.largestTriangleThreeBuckets(xs, ys, 50);
+
+        // Assert
+        assertEquals(50, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(size - 1, selected[selected.length - 1]);
+        assertTrue(Arrays.stream(selected).anyMatch(index -> index == 500));
+        for (int i = 1; i < selected.length; i++) {
+            assertTrue(selected[i] > selected[i - 1]);
+        }
+    }
+
+    @Test
+    void largestTriangleThreeBuckets_ShouldThrowException_WhenThresholdIsTooLow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> ChartSeriesReducer.largestTriangleThreeBuckets(new double[]{0, 1}, new double[]{0, 1}, 2));
+    }
+
+    @Test
+    void downsampleLine_ShouldBoundNumberOfPoints() {
+        // Arrange
+        int size = 1081;
+        String[] labels = new String[size];
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            labels[i] = String.valueOf(i);
+            values[i] = (int) (100 * Math.sin(i / 50.0));
+        }
+
+        // Act
+        ChartData downsampled = ChartSeriesReducer.downsampleLine(new ChartData(labels, values));
+
+        // Assert
+        assertEquals(ChartSeriesReducer.MAX_CATEGORIES, downsampled.size());
+        assertEquals("0", downsampled.labels()[0]);
+        assertEquals(String.valueOf(size - 1), downsampled.labels()[downsampled.size() - 1]);
+    }
+}
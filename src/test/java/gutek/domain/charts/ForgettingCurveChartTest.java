@@ -0,0 +1,97 @@
+package gutek.domain.charts;
+
+import gutek.domain.analytics.RetentionAccumulator;
+import gutek.domain.analytics.RetentionStatistics;
+import gutek.domain.charts.charts.ForgettingCurveChart;
+import gutek.domain.reports.ChartReport;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.domain.time.SimulatedClock;
+import gutek.entities.decks.DeckBase;
+import gutek.services.ClockService;
+import gutek.services.RetentionAnalyticsService;
+import gutek.services.TranslationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ForgettingCurveChartTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 1);
+
+    private ForgettingCurveChart forgettingCurveChart;
+    private RetentionAnalyticsService mockRetentionAnalyticsService;
+    private TranslationService mockTranslationService;
+    private DeckBase mockDeck;
+
+    @BeforeEach
+    void setUp() {
+        mockRetentionAnalyticsService = mock(RetentionAnalyticsService.class);
+        mockTranslationService = mock(TranslationService.class);
+        mockDeck = mock(DeckBase.class);
+        ClockService clockService = new ClockService(SimulatedClock.startingAt(TODAY, ZoneOffset.UTC));
+        forgettingCurveChart = new ForgettingCurveChart(mockTranslationService, mockRetentionAnalyticsService, clockService);
+    }
+
+    @Test
+    void testComputeData_OnlyIntervalsWithReviews() {
+        // Arrange
+        RetentionAccumulator accumulator = new RetentionAccumulator(null, index -> index == 0);
+        accumulator.accept(new RevisionLogEntry(1L, TODAY.minusDays(12), 3, "RegularTextModeRevisionStrategy"));
+        accumulator.accept(new RevisionLogEntry(1L, TODAY.minusDays(10), 3, "RegularTextModeRevisionStrategy"));
+        accumulator.accept(new RevisionLogEntry(1L, TODAY, 0, "RegularTextModeRevisionStrategy"));
+        when(mockRetentionAnalyticsService.analyzeDeck(eq(mockDeck), eq(TODAY.minusDays(30)), any())).thenReturn(accumulator.toStatistics());
+
+        // Act
+        ChartData data = forgettingCurveChart.computeData(31, mockDeck, null);
+
+        // Assert
+        assertArrayEquals(new String[]{"2", "10"}, data.labels());
+        assertArrayEquals(new int[]{100, 0}, data.values());
+    }
+
+    @Test
+    void testComputeData_DownsamplesLongCurve() {
+        // Arrange
+        RetentionAccumulator accumulator = new RetentionAccumulator(null, index -> index == 0);
+        long cardId = 0;
+        for (int days = 0; days <= RetentionStatistics.FORGETTING_CURVE_DAYS; days++) {
+            accumulator.accept(new RevisionLogEntry(++cardId, TODAY.minusDays(days), 3, "RegularTextModeRevisionStrategy"));
+            accumulator.accept(new RevisionLogEntry(cardId, TODAY, days % 3 == 0 ? 0 : 3, "RegularTextModeRevisionStrategy"));
+        }
+        when(mockRetentionAnalyticsService.analyzeDeck(eq(mockDeck), eq(TODAY.minusDays(360)), any())).thenReturn(accumulator.toStatistics());
+
+        // Act
+        ChartData data = forgettingCurveChart.computeData(361, mockDeck, null);
+
+        // Assert
+        assertEquals(ChartSeriesReducer.MAX_CATEGORIES, data.size());
+        assertEquals("0", data.labels()[0]);
+        assertEquals(String.valueOf(RetentionStatistics.FORGETTING_CURVE_DAYS), data.labels()[data.size() - 1]);
+    }
+
+    @Test
+    void testCreateReport_DrawsLine() {
+        // Arrange
+        ChartData data = new ChartData(new String[]{"1", "2"}, new int[]{90, 80});
+        when(mockTranslationService.getTranslation("deck_view.statistics.forgetting_curve_title")).thenReturn("Forgetting curve");
+
+        // Act
+        ChartReport report = forgettingCurveChart.createReport(data, mockDeck, null);
+
+        // Assert
+        assertEquals(ChartReport.Style.LINE, report.style());
+        assertEquals("Forgetting curve", report.title());
+        assertSame(data, report.data());
+    }
+
+    @Test
+    void testIsRevisionStrategyIndependent() {
+        // Act & Assert
+        assertTrue(forgettingCurveChart.isRevisionStrategyIndependent());
+    }
+}
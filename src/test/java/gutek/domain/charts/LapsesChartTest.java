@@ -0,0 +1,77 @@
+package gutek.domain.charts;
+
+import gutek.domain.analytics.RetentionAccumulator;
+import gutek.domain.analytics.RetentionStatistics;
+import gutek.domain.charts.charts.LapsesChart;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.domain.time.SimulatedClock;
+import gutek.entities.decks.DeckBase;
+import gutek.services.ClockService;
+import gutek.services.RetentionAnalyticsService;
+import gutek.services.TranslationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LapsesChartTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 1);
+
+    private LapsesChart lapsesChart;
+    private RetentionAnalyticsService mockRetentionAnalyticsService;
+    private TranslationService mockTranslationService;
+    private DeckBase mockDeck;
+
+    @BeforeEach
+    void setUp() {
+        mockRetentionAnalyticsService = mock(RetentionAnalyticsService.class);
+        mockTranslationService = mock(TranslationService.class);
+        mockDeck = mock(DeckBase.class);
+        ClockService clockService = new ClockService(SimulatedClock.startingAt(TODAY, ZoneOffset.UTC));
+        lapsesChart = new LapsesChart(mockTranslationService, mockRetentionAnalyticsService, clockService);
+    }
+
+    @Test
+    void testComputeData_CardsByNumberOfLapsesWithLeechesLast() {
+        // Arrange
+        RetentionAccumulator accumulator = new RetentionAccumulator(null, index -> index == 0);
+        for (int i = 0; i < 2 * RetentionStatistics.LEECH_LAPSES + 2; i++) {
+            accumulator.accept(new RevisionLogEntry(1L, TODAY.minusDays(60 - i), i % 2 == 0 ? 3 : 0, "RegularTextModeRevisionStrategy"));
+        }
+        accumulator.accept(new RevisionLogEntry(2L, TODAY, 3, "RegularTextModeRevisionStrategy"));
+        when(mockRetentionAnalyticsService.analyzeDeck(eq(mockDeck), eq(TODAY.minusDays(90)), any())).thenReturn(accumulator.toStatistics());
+
+        // Act
+        ChartData data = lapsesChart.computeData(91, mockDeck, null);
+
+        // Assert
+        assertEquals(RetentionStatistics.LEECH_LAPSES + 1, data.size());
+        assertEquals("0", data.labels()[0]);
+        assertEquals(RetentionStatistics.LEECH_LAPSES + "+", data.labels()[RetentionStatistics.LEECH_LAPSES]);
+        assertEquals(1, data.values()[0]);
+        assertEquals(1, data.values()[RetentionStatistics.LEECH_LAPSES]);
+    }
+
+    @Test
+    void testGetChartTitle() {
+        // Arrange
+        when(mockTranslationService.getTranslation("deck_view.statistics.lapses_title")).thenReturn("Lapses per card");
+
+        // Act
+        String title = lapsesChart.getChartTitle(mockDeck, null);
+
+        // Assert
+        assertEquals("Lapses per card", title);
+    }
+
+    @Test
+    void testIsRevisionStrategyIndependent() {
+        // Act & Assert
+        assertTrue(lapsesChart.isRevisionStrategyIndependent());
+    }
+}
@@ -0,0 +1,78 @@
+package gutek.domain.charts;
+
+import gutek.domain.analytics.RetentionAccumulator;
+import gutek.domain.analytics.RetentionStatistics;
+import gutek.domain.charts.charts.RetentionByIntervalChart;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.domain.time.SimulatedClock;
+import gutek.entities.decks.DeckBase;
+import gutek.services.ClockService;
+import gutek.services.RetentionAnalyticsService;
+import gutek.services.TranslationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RetentionByIntervalChartTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 1);
+
+    private RetentionByIntervalChart retentionByIntervalChart;
+    private RetentionAnalyticsService mockRetentionAnalyticsService;
+    private TranslationService mockTranslationService;
+    private DeckBase mockDeck;
+
+    @BeforeEach
+    void setUp() {
+        mockRetentionAnalyticsService = mock(RetentionAnalyticsService.class);
+        mockTranslationService = mock(TranslationService.class);
+        mockDeck = mock(DeckBase.class);
+        ClockService clockService = new ClockService(SimulatedClock.startingAt(TODAY, ZoneOffset.UTC));
+        retentionByIntervalChart = new RetentionByIntervalChart(mockTranslationService, mockRetentionAnalyticsService, clockService);
+    }
+
+    @Test
+    void testComputeData_RetentionPercentageByIntervalBucket() {
+        // Arrange
+        RetentionAccumulator accumulator = new RetentionAccumulator(null, index -> index == 0);
+        accumulator.accept(new RevisionLogEntry(1L, TODAY.minusDays(6), 3, "RegularTextModeRevisionStrategy"));
+        accumulator.accept(new RevisionLogEntry(1L, TODAY.minusDays(3), 3, "RegularTextModeRevisionStrategy"));
+        accumulator.accept(new RevisionLogEntry(1L, TODAY, 0, "RegularTextModeRevisionStrategy"));
+        accumulator.accept(new RevisionLogEntry(2L, TODAY.minusDays(3), 3, "RegularTextModeRevisionStrategy"));
+        accumulator.accept(new RevisionLogEntry(2L, TODAY, 0, "RegularTextModeRevisionStrategy"));
+        when(mockRetentionAnalyticsService.analyzeDeck(eq(mockDeck), eq(TODAY.minusDays(30)), any())).thenReturn(accumulator.toStatistics());
+
+        // Act
+        ChartData data = retentionByIntervalChart.computeData(31, mockDeck, null);
+
+        // Assert
+        int bucket = RetentionStatistics.intervalBucket(3);
+        assertEquals(RetentionStatistics.INTERVAL_BUCKET_STARTS.length, data.size());
+        assertEquals("3-4", data.labels()[bucket]);
+        assertEquals(33, data.values()[bucket]);
+        assertEquals(0, data.values()[0]);
+    }
+
+    @Test
+    void testGetChartTitle() {
+        // Arrange
+        when(mockTranslationService.getTranslation("deck_view.statistics.retention_by_interval_title")).thenReturn("Retention by interval");
+
+        // Act
+        String title = retentionByIntervalChart.getChartTitle(mockDeck, null);
+
+        // Assert
+        assertEquals("Retention by interval", title);
+    }
+
+    @Test
+    void testIsRevisionStrategyIndependent() {
+        // Act & Assert
+        assertTrue(retentionByIntervalChart.isRevisionStrategyIndependent());
+    }
+}
@@ -0,0 +1,69 @@
+package gutek.domain.charts;
+
+import gutek.domain.charts.charts.ReviewHeatmapChart;
+import gutek.domain.time.SimulatedClock;
+import gutek.entities.decks.DailyAggregateKind;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.users.AppUser;
+import gutek.services.ClockService;
+import gutek.services.DailyAggregateService;
+import gutek.services.TranslationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReviewHeatmapChartTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 1);
+
+    private ReviewHeatmapChart reviewHeatmapChart;
+    private DailyAggregateService mockDailyAggregateService;
+    private TranslationService mockTranslationService;
+    private DeckBase deck;
+
+    @BeforeEach
+    void setUp() {
+        mockDailyAggregateService = mock(DailyAggregateService.class);
+        mockTranslationService = mock(TranslationService.class);
+        deck = new DeckBase();
+        deck.setUser(new AppUser());
+        ClockService clockService = new ClockService(SimulatedClock.startingAt(TODAY, ZoneOffset.UTC));
+        reviewHeatmapChart = new ReviewHeatmapChart(mockTranslationService, mockDailyAggregateService, clockService);
+    }
+
+    @Test
+    void testComputeData_DailyRevisionsOfUserLabelledWithDates() {
+        // Arrange
+        when(mockDailyAggregateService.getUserDailyCounts(deck.getUser(), DailyAggregateKind.REVISIONS, 3)).thenReturn(new int[]{5, 0, 2});
+
+        // Act
+        ChartData data = reviewHeatmapChart.computeData(3, deck, null);
+
+        // Assert
+        assertArrayEquals(new String[]{"2024-04-29", "2024-04-30", "2024-05-01"}, data.labels());
+        assertArrayEquals(new int[]{2, 0, 5}, data.values());
+    }
+
+    @Test
+    void testGetChartTitle() {
+        // Arrange
+        when(mockTranslationService.getTranslation("deck_view.statistics.review_heatmap_title")).thenReturn("Review calendar");
+
+        // Act
+        String title = reviewHeatmapChart.getChartTitle(deck, null);
+
+        // Assert
+        assertEquals("Review calendar", title);
+    }
+
+    @Test
+    void testIsRevisionStrategyIndependent() {
+        // Act & Assert
+        assertTrue(reviewHeatmapChart.isRevisionStrategyIndependent());
+    }
+}
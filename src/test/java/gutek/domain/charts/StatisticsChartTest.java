@@ -4,9 +4,11 @@ import gutek.domain.charts.charts.StatisticsChart;
 import gutek.entities.decks.DeckBase;
 import gutek.services.TranslationService;
 import javafx.application.Platform;
+import javafx.scene.chart.BarChart;
 import javafx.scene.chart.Chart;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +28,11 @@ class StatisticsChartTest {
         mockDeck = mock(DeckBase.class);
 
         statisticsChart = new StatisticsChart(mockTranslationService) {
+            @Override
+            public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex) {
+                return new ChartData(new String[]{"-1", "0"}, new int[]{3, 4});
+            }
+
             @Override
             public Chart getChart(int range, DeckBase deck, Integer revisionStrategyIndex) {
                 return new LineChart<>(new NumberAxis(), new NumberAxis());
@@ -68,6 +75,75 @@ class StatisticsChartTest {
         assertInstanceOf(LineChart.class, chart);
     }
 
+    @Test
+    void testCreateChart_ShouldDisplayDataAsBarChart() {
+        // Arrange
+        when(mockTranslationService.getTranslation(anyString())).thenReturn("Translated");
+        ChartData data = statisticsChart.computeData(2, mockDeck, null);
+
+        // Act
+        Chart chart = statisticsChart.createChart(data, mockDeck, null);
+
+        // Assert
+        assertInstanceOf(BarChart.class, chart);
+        BarChart<String, Number> barChart = (BarChart<String, Number>) chart;
+        assertEquals("Mock Chart Title", barChart.getTitle());
+        XYChart.Series<String, Number> series = barChart.getData().getFirst();
+        assertEquals(2, series.getData().size());
+        assertEquals("-1", series.getData().get(0).getXValue());
+        assertEquals(4, series.getData().get(1).getYValue());
+    }
+
+    @Test
+    void testCreateChart_ShouldFallBackToBarChart_WhenCanvasNotSupported() {
+        // Arrange
+        when(mockTranslationService.getTranslation(anyString())).thenReturn("Translated");
+        ChartData data = statisticsChart.computeData(2, mockDeck, null);
+
+        // Act
+        Chart chart = statisticsChart.createChart(data, mockDeck, null, ChartRenderer.CANVAS);
+
+        // Assert
+        assertInstanceOf(BarChart.class, chart);
+    }
+
+    @Test
+    void testCreateChart_ShouldDrawOntoCanvas_WhenSupported() {
+        // Arrange
+        when(mockTranslationService.getTranslation(anyString())).thenReturn("Translated");
+        StatisticsChart canvasChart = new StatisticsChart(mockTranslationService) {
+            @Override
+            public ChartData computeData(int range, DeckBase deck, Integer revisionStrategyIndex) {
+                return new ChartData(new String[]{"0"}, new int[]{1});
+            }
+
+            @Override
+            public String getChartTitle(DeckBase deck, Integer revisionStrategyIndex) {
+                return "Canvas Chart Title";
+            }
+
+            @Override
+            public boolean isRevisionStrategyIndependent() {
+                return true;
+            }
+
+            @Override
+            protected boolean supportsCanvasRenderer() {
+                return true;
+            }
+        };
+        ChartData data = canvasChart.computeData(1, mockDeck, null);
+
+        // Act
+        Chart sceneGraphChart = canvasChart.createChart(data, mockDeck, null, ChartRenderer.SCENE_GRAPH);
+        Chart chart = canvasChart.createChart(data, mockDeck, null, ChartRenderer.CANVAS);
+
+        // Assert
+        assertInstanceOf(BarChart.class, sceneGraphChart);
+        assertInstanceOf(CanvasBarChart.class, chart);
+        assertEquals("Canvas Chart Title", chart.getTitle());
+    }
+
     @Test
     void testGetChartTitle() {
         // Arrange
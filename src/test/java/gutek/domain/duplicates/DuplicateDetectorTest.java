@@ -0,0 +1,77 @@
+package gutek.domain.duplicates;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateDetectorTest {
+
+    @Test
+    void findPairs_FindsSimilarCardsOnly() {
+        // Arrange
+        DuplicateDetector detector = new DuplicateDetector(0.6);
+        detector.add(1L, MinHasher.signature("self-assured", "pewny siebie"));
+        detector.add(2L, MinHasher.signature("dog", "pies"));
+        detector.add(3L, MinHasher.signature("self assured", "pewny siebie"));
+        detector.add(4L, MinHasher.signature("bicycle", "rower"));
+
+        // Act
+        List<DuplicatePair> pairs = detector.findPairs();
+
+        // Assert
+        assertEquals(List.of(new DuplicatePair(1L, 3L, 1.0)), pairs);
+    }
+
+    @Test
+    void findPairs_ReportsEveryPairOnceMostSimilarFirst() {
+        // Arrange
+        DuplicateDetector detector = new DuplicateDetector(0.5);
+        detector.add(10L, MinHasher.signature("the weather is nice today", "dziś jest ładna pogoda"));
+        detector.add(20L, MinHasher.signature("the weather is nice today", "dziś jest ładna pogoda"));
+        detector.add(30L, MinHasher.signature("the weather is nice today!", "dzisiaj jest ładna pogoda"));
+
+        // Act
+        List<DuplicatePair> pairs = detector.findPairs();
+
+        // Assert
+        assertEquals(3, pairs.size());
+        assertEquals(new DuplicatePair(10L, 20L, 1.0), pairs.get(0));
+        assertTrue(pairs.get(1).similarity() >= pairs.get(2).similarity());
+        assertEquals(List.of(10L, 20L), pairs.stream().skip(1).map(DuplicatePair::firstCardId).sorted().toList());
+    }
+
+    @Test
+    void findPairs_BoundsComparisonsInLargeBuckets() {
+        // Arrange
+        DuplicateDetector detector = new DuplicateDetector(0.6);
+        int[] signature = MinHasher.signature("kot", "cat");
+        int cardsCount = DuplicateDetector.MAX_BUCKET_NEIGHBOURS * 4;
+        for (long cardId = 0; cardId < cardsCount; cardId++) {
+            detector.add(cardId, signature);
+        }
+
+        // Act
+        List<DuplicatePair> pairs = detector.findPairs();
+
+        // Assert
+        assertTrue(pairs.size() < (long) cardsCount * DuplicateDetector.MAX_BUCKET_NEIGHBOURS);
+        assertTrue(pairs.stream().allMatch(pair -> pair.secondCardId() - pair.firstCardId() <= DuplicateDetector.MAX_BUCKET_NEIGHBOURS));
+        assertEquals(cardsCount - 1, pairs.stream().filter(pair -> pair.secondCardId() == pair.firstCardId() + 1).count());
+    }
+
+    @Test
+    void add_IgnoresEmptySignatures() {
+        // Arrange
+        DuplicateDetector detector = new DuplicateDetector(0.6);
+
+        // Act
+        detector.add(1L, MinHasher.signature("?", ""));
+        detector.add(2L, MinHasher.signature("!", null));
+
+        // Assert
+        assertEquals(0, detector.size());
+        assertTrue(detector.findPairs().isEmpty());
+    }
+}
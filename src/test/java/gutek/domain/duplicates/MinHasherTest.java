@@ -0,0 +1,77 @@
+package gutek.domain.duplicates;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHasherTest {
+
+    @Test
+    void signature_IgnoresCaseDiacriticsAndPunctuation() {
+        // Act
+        int[] hyphenated = MinHasher.signature("self-assured", "pewny siebie");
+        int[] spaced = MinHasher.signature("Self assured", "Pewny Siebie!");
+
+        // Assert
+        assertEquals(MinHasher.SIGNATURE_LENGTH, hyphenated.length);
+        assertArrayEquals(hyphenated, spaced);
+        assertEquals(1.0, MinHasher.similarity(hyphenated, spaced));
+    }
+
+    @Test
+    void similarity_IsHighForSmallEditsAndLowForUnrelatedTexts() {
+        // Arrange
+        int[] card = MinHasher.signature("przyjaciel", "friend");
+        int[] typo = MinHasher.signature("przyjaciel", "freind");
+        int[] unrelated = MinHasher.signature("samochód", "car");
+
+        // Act
+        double typoSimilarity = MinHasher.similarity(card, typo);
+        double unrelatedSimilarity = MinHasher.similarity(card, unrelated);
+
+        // Assert
+        assertTrue(typoSimilarity >= 0.5, "Similarity of a typo: " + typoSimilarity);
+        assertTrue(unrelatedSimilarity <= 0.2, "Similarity of unrelated cards: " + unrelatedSimilarity);
+    }
+
+    @Test
+    void signature_KeepsFrontAndBackApart() {
+        // Act
+        int[] card = MinHasher.signature("kot", "cat");
+        int[] swapped = MinHasher.signature("cat", "kot");
+
+        // Assert
+        assertTrue(MinHasher.similarity(card, swapped) < 0.5);
+    }
+
+    @Test
+    void signature_IsEmptyForTextsWithoutLetters() {
+        // Act
+        int[] signature = MinHasher.signature(" ?! ", null);
+
+        // Assert
+        assertEquals(0, signature.length);
+        assertEquals(0.0, MinHasher.similarity(signature, signature));
+    }
+
+    @Test
+    void toBytes_RoundTripsSignature() {
+        // Arrange
+        int[] signature = MinHasher.signature("zamek", "lock");
+
+        // Act
+        byte[] bytes = MinHasher.toBytes(signature);
+
+        // Assert
+        assertEquals(MinHasher.SIGNATURE_LENGTH * Integer.BYTES, bytes.length);
+        assertArrayEquals(signature, MinHasher.fromBytes(bytes));
+    }
+
+    @Test
+    void textHash_ChangesWithEitherText() {
+        // Act & Assert
+        assertEquals(MinHasher.textHash("kot", "cat"), MinHasher.textHash("kot", "cat"));
+        assertNotEquals(MinHasher.textHash("kot", "cat"), MinHasher.textHash("kot", "cats"));
+        assertNotEquals(MinHasher.textHash("kot", "cat"), MinHasher.textHash("kit", "cat"));
+    }
+}
@@ -0,0 +1,95 @@
+package gutek.domain.edits;
+
+import gutek.domain.search.CardText;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkEditTest {
+
+    private final CardText card = new CardText(1L, 10L, "to  run ", "biegać (verb)");
+
+    @Test
+    void matches_SearchesOnlyTextsWithinScope() {
+        // Arrange
+        Pattern verb = Pattern.compile("\\(verb\\)");
+
+        // Act & Assert
+        assertTrue(new BulkEdit(verb, null, BulkEditScope.BACK, false, null).matches(card));
+        assertTrue(new BulkEdit(verb, null, BulkEditScope.BOTH, false, null).matches(card));
+        assertFalse(new BulkEdit(verb, null, BulkEditScope.FRONT, false, null).matches(card));
+        assertTrue(new BulkEdit(null, null, BulkEditScope.FRONT, false, null).matches(card));
+    }
+
+    @Test
+    void apply_ReplacesMatchesWithGroupReferences() {
+        // Arrange
+        BulkEdit edit = new BulkEdit(BulkEdit.compilePattern("(\\w+) \\((\\w+)\\)"), "$1 [$2]", BulkEditScope.BOTH, false, null);
+
+        // Act
+        BulkEditChange change = edit.apply(card);
+
+        // Assert
+        assertEquals("to  run ", change.front());
+        assertEquals("biegać [verb]", change.back());
+        assertEquals(10L, change.idDeck());
+        assertTrue(change.isChanged());
+        assertFalse(change.isMoved());
+        assertTrue(change.isValid());
+    }
+
+    @Test
+    void apply_NormalizesWhitespaceOfTextsWithinScopeOnly() {
+        // Arrange
+        BulkEdit edit = new BulkEdit(null, null, BulkEditScope.FRONT, true, null);
+
+        // Act
+        BulkEditChange change = edit.apply(new CardText(1L, 10L, " to \t run\n", " biegać "));
+
+        // Assert
+        assertEquals("to run", change.front());
+        assertEquals(" biegać ", change.back());
+    }
+
+    @Test
+    void apply_MovesCardToTargetDeck() {
+        // Arrange
+        BulkEdit edit = new BulkEdit(null, null, BulkEditScope.BOTH, false, 20L);
+
+        // Act
+        BulkEditChange change = edit.apply(card);
+
+        // Assert
+        assertEquals(card.front(), change.front());
+        assertEquals(20L, change.idDeck());
+        assertTrue(change.isMoved());
+        assertTrue(change.isChanged());
+    }
+
+    @Test
+    void apply_MarksChangeLeavingBlankTextInvalid() {
+        // Arrange
+        BulkEdit edit = new BulkEdit(Pattern.compile(".*"), "", BulkEditScope.FRONT, true, null);
+
+        // Act
+        BulkEditChange change = edit.apply(card);
+
+        // Assert
+        assertEquals("", change.front());
+        assertFalse(change.isValid());
+    }
+
+    @Test
+    void apply_WithoutEffectLeavesCardUnchanged() {
+        // Arrange
+        BulkEdit edit = new BulkEdit(Pattern.compile("swim"), "jump", BulkEditScope.BOTH, false, null);
+
+        // Act
+        BulkEditChange change = edit.apply(card);
+
+        // Assert
+        assertFalse(change.isChanged());
+    }
+}
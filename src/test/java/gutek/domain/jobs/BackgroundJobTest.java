@@ -0,0 +1,58 @@
+package gutek.domain.jobs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BackgroundJobTest {
+
+    @Test
+    void testAddProcessed_NotifiesListenerAndUpdatesProgress() {
+        // Arrange
+        JobProgressListener listener = mock(JobProgressListener.class);
+        BackgroundJob<Integer> job = new BackgroundJob<>(listener);
+
+        // Act
+        job.start(4);
+        job.addProcessed(1);
+
+        // Assert
+        verify(listener).onProgress(0, 4);
+        verify(listener).onProgress(1, 4);
+        assertEquals(1, job.getProcessedCount());
+        assertEquals(0.25, job.getProgress());
+    }
+
+    @Test
+    void testCancel_KeepsResultOpenUntilCompleted() {
+        // Arrange
+        BackgroundJob<Integer> job = new BackgroundJob<>(null);
+
+        // Act
+        job.cancel();
+
+        // Assert
+        assertTrue(job.isCancelled());
+        assertFalse(job.getResult().isDone());
+        assertEquals(0, job.getProgress());
+
+        // Act
+        job.complete(3);
+
+        // Assert
+        assertEquals(3, job.getResult().join());
+    }
+
+    @Test
+    void testFail_CompletesResultExceptionally() {
+        // Arrange
+        BackgroundJob<Integer> job = new BackgroundJob<>(null);
+
+        // Act
+        job.fail(new IllegalStateException("failure"));
+
+        // Assert
+        assertTrue(job.getResult().isCompletedExceptionally());
+    }
+}
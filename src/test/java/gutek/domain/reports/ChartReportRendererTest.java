@@ -0,0 +1,118 @@
+package gutek.domain.reports;
+
+import gutek.domain.charts.ChartData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartReportRendererTest {
+
+    private static ChartReport report(ChartReport.Style style, int size) {
+        String[] labels = new String[size];
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            labels[i] = String.valueOf(i - size + 1);
+            values[i] = i % 5;
+        }
+        return new ChartReport("Revisions", "Day", "Cards", style, new ChartData(labels, values));
+    }
+
+    @Test
+    void writeCsv_ShouldWriteHeaderAndEveryValue() throws IOException {
+        // Arrange
+        ChartReport report = new ChartReport("Title", "Day", "Cards, \"new\"", ChartReport.Style.BAR,
+                new ChartData(new String[]{"-1", "0"}, new int[]{3, 4}));
+        StringWriter writer = new StringWriter();
+
+        // Act
+        ChartReportRenderer.writeCsv(report, writer);
+
+        // Assert
+        assertEquals("Day,\"Cards, \"\"new\"\"\"\n-1,3\n0,4\n", writer.toString());
+    }
+
+    @Test
+    void writeCsv_ShouldNotReduceLongSeries() throws IOException {
+        // Arrange
+        StringWriter writer = new StringWriter();
+
+        // Act
+        ChartReportRenderer.writeCsv(report(ChartReport.Style.BAR, 1081), writer);
+
+        // Assert
+        assertEquals(1082, writer.toString().lines().count());
+    }
+
+    @Test
+    void toSvg_ShouldDrawBarsAndEscapeTitle() {
+        // Arrange
+        ChartReport report = new ChartReport("Cards <&> revisions", "Day", "Cards", ChartReport.Style.BAR,
+                new ChartData(new String[]{"-2", "-1", "0"}, new int[]{1, 0, 2}));
+
+        // Act
+        String svg = ChartReportRenderer.toSvg(report);
+
+        // Assert
+        assertTrue(svg.startsWith("<?xml"));
+        assertTrue(svg.contains("Cards &lt;&amp;&gt; revisions"));
+        assertEquals(2, svg.split("fill=\"#f3622d\"", -1).length - 1);
+        assertTrue(svg.trim().endsWith("</svg>"));
+    }
+
+    @Test
+    void toSvg_ShouldDrawLineOfDownsampledPoints() {
+        // Act
+        String svg = ChartReportRenderer.toSvg(report(ChartReport.Style.LINE, 1000));
+
+        // Assert
+        int pointsStart = svg.indexOf("points=\"") + "points=\"".length();
+        String points = svg.substring(pointsStart, svg.indexOf('"', pointsStart));
+        assertEquals(120, points.split(" ").length);
+    }
+
+    @Test
+    void displayedData_ShouldSumLongBarSeriesIntoBuckets() {
+        // Act
+        ChartData displayed = ChartReportRenderer.displayedData(report(ChartReport.Style.BAR, 361));
+
+        // Assert
+        assertEquals(52, displayed.size());
+        assertEquals("-6..0", displayed.labels()[51]);
+    }
+
+    @Test
+    void write_ShouldWritePngImage(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path file = directory.resolve("deck").resolve("chart.png");
+
+        // Act
+        ChartReportRenderer.write(report(ChartReport.Style.BAR, 31), ReportFormat.PNG, file);
+
+        // Assert
+        BufferedImage image = ImageIO.read(file.toFile());
+        assertEquals(ChartReportRenderer.WIDTH, image.getWidth());
+        assertEquals(ChartReportRenderer.HEIGHT, image.getHeight());
+    }
+
+    @Test
+    void write_ShouldWriteSvgAndCsvFiles(@TempDir Path directory) throws IOException {
+        // Arrange
+        ChartReport report = report(ChartReport.Style.BAR, 31);
+
+        // Act
+        ChartReportRenderer.write(report, ReportFormat.SVG, directory.resolve("chart.svg"));
+        ChartReportRenderer.write(report, ReportFormat.CSV, directory.resolve("chart.csv"));
+
+        // Assert
+        assertEquals(ChartReportRenderer.toSvg(report), Files.readString(directory.resolve("chart.svg")));
+        assertEquals(32, Files.readAllLines(directory.resolve("chart.csv")).size());
+    }
+}
@@ -0,0 +1,110 @@
+package gutek.domain.revisions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypedAnswerMatcherTest {
+
+    @Test
+    void match_AcceptsAnyAlternativeIgnoringCaseDiacriticsAndPunctuation() {
+        // Arrange
+        TypedAnswerMatcher matcher = new TypedAnswerMatcher("gówno, srać");
+
+        // Act & Assert
+        assertEquals(AnswerVerdict.CORRECT, matcher.match("Gówno"));
+        assertEquals(AnswerVerdict.CORRECT, matcher.match("  srac! "));
+        assertEquals(AnswerVerdict.CORRECT, matcher.match("sraC; GOWNO"));
+        assertEquals(AnswerVerdict.CORRECT, matcher.match("gowno srac"));
+    }
+
+    @Test
+    void match_ToleratesTyposWithinBound() {
+        // Arrange
+        TypedAnswerMatcher matcher = new TypedAnswerMatcher("przyjaciel");
+
+        // Act & Assert
+        assertEquals(AnswerVerdict.ALMOST_CORRECT, matcher.match("przyjaceil"));
+        assertEquals(AnswerVerdict.ALMOST_CORRECT, matcher.match("pzyjacel"));
+        assertEquals(AnswerVerdict.ALMOST_CORRECT, matcher.match("przyjacielx"));
+        assertEquals(AnswerVerdict.WRONG, matcher.match("pzyjaceix"));
+        assertEquals(AnswerVerdict.WRONG, matcher.match("wróg"));
+    }
+
+    @Test
+    void match_CountsSwapOfAdjacentLettersAsOneTypo() {
+        // Arrange
+        TypedAnswerMatcher matcher = new TypedAnswerMatcher("kwiat");
+
+        // Act & Assert
+        assertEquals(AnswerVerdict.ALMOST_CORRECT, matcher.match("kwait"));
+        assertEquals(AnswerVerdict.WRONG, matcher.match("wkait"));
+    }
+
+    @Test
+    void match_RequiresExactShortWords() {
+        // Arrange
+        TypedAnswerMatcher matcher = new TypedAnswerMatcher("kot");
+
+        // Act & Assert
+        assertEquals(AnswerVerdict.CORRECT, matcher.match("KOT"));
+        assertEquals(AnswerVerdict.WRONG, matcher.match("kit"));
+        assertEquals(AnswerVerdict.WRONG, matcher.match("ko"));
+    }
+
+    @Test
+    void match_RequiresEveryTypedAlternativeAndRejectsEmptyAnswer() {
+        // Arrange
+        TypedAnswerMatcher matcher = new TypedAnswerMatcher("dom, budynek");
+
+        // Act & Assert
+        assertEquals(AnswerVerdict.ALMOST_CORRECT, matcher.match("dom, budynke"));
+        assertEquals(AnswerVerdict.WRONG, matcher.match("dom, samochód"));
+        assertEquals(AnswerVerdict.WRONG, matcher.match(" , "));
+        assertEquals(AnswerVerdict.WRONG, matcher.match(null));
+    }
+
+    @Test
+    void match_GivesSameVerdictWhenReused() {
+        // Arrange
+        TypedAnswerMatcher matcher = new TypedAnswerMatcher("zamek błyskawiczny, suwak");
+
+        // Act
+        AnswerVerdict longFirst = matcher.match("zamek blyskawiczy");
+        AnswerVerdict shortSecond = matcher.match("suwka");
+        AnswerVerdict longAgain = matcher.match("zamek blyskawiczy");
+
+        // Assert
+        assertEquals(AnswerVerdict.ALMOST_CORRECT, longFirst);
+        assertEquals(AnswerVerdict.ALMOST_CORRECT, shortSecond);
+        assertEquals(longFirst, longAgain);
+    }
+
+    @Test
+    void mergeAlternatives_AppendsAlternativesMissingAfterFolding() {
+        // Act & Assert
+        assertEquals("dom, budynek, chata", TypedAnswerMatcher.mergeAlternatives("dom, budynek", "Budynek; chata"));
+        assertEquals("dom", TypedAnswerMatcher.mergeAlternatives("dom, DOM", " , "));
+        assertEquals("kot", TypedAnswerMatcher.mergeAlternatives(null, "kot"));
+    }
+
+    @Test
+    void maxTypos_GrowsWithLength() {
+        // Act & Assert
+        assertEquals(0, TypedAnswerMatcher.maxTypos(3));
+        assertEquals(1, TypedAnswerMatcher.maxTypos(4));
+        assertEquals(1, TypedAnswerMatcher.maxTypos(7));
+        assertEquals(2, TypedAnswerMatcher.maxTypos(8));
+    }
+
+    @Test
+    void suggestButtonIndex_MapsVerdictsOntoGradeButtons() {
+        // Act & Assert
+        assertEquals(0, AnswerVerdict.WRONG.suggestButtonIndex(5));
+        assertEquals(2, AnswerVerdict.ALMOST_CORRECT.suggestButtonIndex(5));
+        assertEquals(3, AnswerVerdict.CORRECT.suggestButtonIndex(5));
+        assertEquals(1, AnswerVerdict.ALMOST_CORRECT.suggestButtonIndex(4));
+        assertEquals(2, AnswerVerdict.CORRECT.suggestButtonIndex(4));
+        assertEquals(1, AnswerVerdict.CORRECT.suggestButtonIndex(2));
+    }
+}
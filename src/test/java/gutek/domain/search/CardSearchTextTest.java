@@ -0,0 +1,62 @@
+package gutek.domain.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardSearchTextTest {
+
+    @Test
+    void fold_RemovesDiacriticsAndCase() {
+        // Act & Assert
+        assertEquals("lodz zolw", CardSearchText.fold("Łódź żółw"));
+        assertEquals("strasse uber", CardSearchText.fold("Straße Über"));
+        assertEquals("cafe nino garcon", CardSearchText.fold("Café Niño Garçon"));
+        assertEquals("", CardSearchText.fold(null));
+    }
+
+    @Test
+    void normalize_FoldsCaseDiacriticsAndWhitespace() {
+        // Act & Assert
+        assertEquals("zrodlo", CardSearchText.normalize("Źródło"));
+        assertEquals("to run away", CardSearchText.normalize("  To\tRun\u00A0\n AWAY "));
+        assertEquals("strasse fi 2", CardSearchText.normalize("Straße \uFB01 \u00B2"));
+        assertEquals("", CardSearchText.normalize(null));
+    }
+
+    @Test
+    void tokens_SplitsOnNonLetters() {
+        // Act & Assert
+        assertEquals(List.of("l", "amour", "est", "la"), CardSearchText.tokens("L'amour, est-là!"));
+        assertTrue(CardSearchText.tokens(" \"*: ").isEmpty());
+    }
+
+    @Test
+    void matchExpression_CombinesPrefixTermsOfBothColumns() {
+        // Act
+        String expression = CardSearchText.matchExpression("front", "Łódź miasto", "back", "city");
+
+        // Assert
+        assertEquals("front : \"lodz\"* AND front : \"miasto\"* AND back : \"city\"*", expression);
+    }
+
+    @Test
+    void matchExpression_ReturnsNull_WhenPhrasesHaveNoWords() {
+        // Act & Assert
+        assertNull(CardSearchText.matchExpression("front", "\"*", "back", ""));
+    }
+
+    @Test
+    void sqlFold_ReplacesEveryFoldedLetter() {
+        // Act
+        String expression = CardSearchText.sqlFold("new.front");
+
+        // Assert
+        assertTrue(expression.contains("new.front"));
+        for (String letter : CardSearchText.FOLDED_LETTERS.keySet()) {
+            assertTrue(expression.contains("'" + letter + "'"), letter);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package gutek.domain.search;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedCardListTest {
+
+    private static final int CARDS_COUNT = 95;
+
+    private static final int PAGE_SIZE = 10;
+
+    private final List<String> reads = new ArrayList<>();
+
+    private List<CardSummary> cards;
+
+    private CardPageSource source;
+
+    @BeforeEach
+    void setUp() {
+        cards = new ArrayList<>(LongStream.rangeClosed(1, CARDS_COUNT)
+                .mapToObj(id -> new CardSummary(id * 2, "front " + id, "back " + id))
+                .toList());
+        source = new CardPageSource() {
+            @Override
+            public int count() {
+                return cards.size();
+            }
+
+            @Override
+            public List<CardSummary> findAfter(long afterId, int limit) {
+                reads.add("after " + afterId);
+                return cards.stream().filter(card -> card.idCard() > afterId).limit(limit).toList();
+            }
+
+            @Override
+            public List<CardSummary> findBefore(long beforeId, int limit) {
+                reads.add("before " + beforeId);
+                List<CardSummary> preceding = cards.stream().filter(card -> card.idCard() < beforeId).toList();
+                return preceding.subList(Math.max(preceding.size() - limit, 0), preceding.size());
+            }
+
+            @Override
+            public List<CardSummary> findPage(int page, int pageSize) {
+                reads.add("page " + page);
+                return cards.stream().skip((long) page * pageSize).limit(pageSize).toList();
+            }
+        };
+    }
+
+    @Test
+    void get_ReadsFollowingPagesByKeyset() {
+        // Arrange
+        PagedCardList list = new PagedCardList(source, PAGE_SIZE, 3);
+
+        // Act
+        List<CardSummary> browsed = new ArrayList<>();
+        for (int i = 0; i < list.size(); i++) {
+            browsed.add(list.get(i));
+        }
+
+        // Assert
+        assertEquals(cards, browsed);
+        assertEquals("page 0", reads.getFirst());
+        assertEquals("after 20", reads.get(1));
+        assertEquals(10, reads.size());
+        assertTrue(reads.stream().skip(1).allMatch(read -> read.startsWith("after")));
+    }
+
+    @Test
+    void get_ReadsPreviousPagesByKeyset_AfterJump() {
+        // Arrange
+        PagedCardList list = new PagedCardList(source, PAGE_SIZE, 3);
+
+        // Act
+        CardSummary jumpedTo = list.get(55);
+        CardSummary previous = list.get(49);
+
+        // Assert
+        assertEquals(cards.get(55), jumpedTo);
+        assertEquals(cards.get(49), previous);
+        assertEquals(List.of("page 5", "before 102"), reads);
+    }
+
+    @Test
+    void get_KeepsOnlyBoundedNumberOfPages() {
+        // Arrange
+        PagedCardList list = new PagedCardList(source, PAGE_SIZE, 3);
+
+        // Act
+        for (int i = 0; i < list.size(); i++) {
+            list.get(i);
+        }
+        list.get(0);
+
+        // Assert
+        assertEquals(3, list.getCachedPagesCount());
+        assertEquals(11, reads.size());
+    }
+
+    @Test
+    void remove_RemovesCardOfCachedPageAndFiresChange() {
+        // Arrange
+        PagedCardList list = new PagedCardList(source, PAGE_SIZE, 3);
+        CardSummary removed = list.get(12);
+        List<Integer> removedIndexes = new ArrayList<>();
+        list.addListener((ListChangeListener<CardSummary>) change -> {
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    removedIndexes.add(change.getFrom());
+                }
+            }
+        });
+        cards.remove(removed);
+
+        // Act
+        boolean result = list.remove(removed);
+
+        // Assert
+        assertTrue(result);
+        assertEquals(List.of(12), removedIndexes);
+        assertEquals(CARDS_COUNT - 1, list.size());
+        assertEquals(cards.get(12), list.get(12));
+        assertEquals(cards.get(5), list.get(5));
+    }
+
+    @Test
+    void remove_IgnoresCardOfPageNotInMemory() {
+        // Arrange
+        PagedCardList list = new PagedCardList(source, PAGE_SIZE, 3);
+
+        // Act & Assert
+        assertFalse(list.remove(cards.get(40)));
+        assertEquals(CARDS_COUNT, list.size());
+        assertTrue(reads.isEmpty());
+    }
+
+    @Test
+    void constructor_RejectsNonPositivePageSize() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new PagedCardList(source, 0, 3));
+    }
+}
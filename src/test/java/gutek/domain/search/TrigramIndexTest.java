@@ -0,0 +1,161 @@
+package gutek.domain.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    @Test
+    void search_FindsCardsContainingEveryTrigram() {
+        // Arrange
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, 10, "Żółta łódź", "yellow boat");
+        index.put(2, 10, "czerwony dom", "red house");
+        index.put(3, 20, "zolty ser", "yellow cheese");
+
+        // Act
+        long[] found = index.search("YELLOW", deckId -> true, 10);
+
+        // Assert
+        assertArrayEquals(new long[]{1, 3}, found);
+    }
+
+    @Test
+    void search_IgnoresCaseAndDiacritics() {
+        // Arrange
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, 10, "Żółta łódź", "yellow boat");
+        index.put(2, 10, "czerwony dom", "red house");
+
+        // Act
+        long[] found = index.search("zolta", deckId -> true, 10);
+
+        // Assert
+        assertArrayEquals(new long[]{1}, found);
+    }
+
+    @Test
+    void search_ReturnsCandidatesContainingTrigramsInAnotherOrder() {
+        // Arrange
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, 10, "abcd", "xbcdy");
+
+        // Act
+        long[] found = index.search("abcdy", deckId -> true, 10);
+
+        // Assert
+        assertArrayEquals(new long[]{1}, found);
+    }
+
+    @Test
+    void search_SkipsFilteredDecksAndStopsAtLimit() {
+        // Arrange
+        TrigramIndex index = new TrigramIndex();
+        for (long id = 1; id <= 10; id++) {
+            index.put(id, id % 2, "word " + id, "back");
+        }
+
+        // Act
+        long[] found = index.search("word", deckId -> deckId == 1, 3);
+
+        // Assert
+        assertArrayEquals(new long[]{1, 3, 5}, found);
+    }
+
+    @Test
+    void search_ReturnsNothingForShortPhrase() {
+        // Arrange
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, 10, "ab", "ab");
+
+        // Act
+        long[] found = index.search("ab", deckId -> true, 10);
+
+        // Assert
+        assertEquals(0, found.length);
+        assertFalse(TrigramIndex.isSearchable("ab"));
+        assertTrue(TrigramIndex.isSearchable("abc"));
+    }
+
+    @Test
+    void put_ReplacesTextsIndexedBefore() {
+        // Arrange
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, 10, "old front", "old back");
+
+        // Act
+        index.put(1, 10, "new front", "new back");
+
+        // Assert
+        assertEquals(0, index.search("old", deckId -> true, 10).length);
+        assertArrayEquals(new long[]{1}, index.search("new", deckId -> true, 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void putIfAbsent_KeepsCardsChangedOrRemovedBefore() {
+        // Arrange
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, 10, "edited front", "back");
+        index.remove(2);
+
+        // Act
+        boolean firstIndexed = index.putIfAbsent(1, 10, "stale front", "back");
+        boolean secondIndexed = index.putIfAbsent(2, 10, "stale front", "back");
+        boolean thirdIndexed = index.putIfAbsent(3, 10, "stale front", "back");
+
+        // Assert
+        assertFalse(firstIndexed);
+        assertFalse(secondIndexed);
+        assertTrue(thirdIndexed);
+        assertArrayEquals(new long[]{3}, index.search("stale", deckId -> true, 10));
+        assertArrayEquals(new long[]{1}, index.search("edited", deckId -> true, 10));
+    }
+
+    @Test
+    void removeDeck_RemovesOnlyCardsOfDeck() {
+        // Arrange
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, 10, "apple", "jabłko");
+        index.put(2, 20, "apple pie", "szarlotka");
+
+        // Act
+        index.removeDeck(10);
+
+        // Assert
+        assertArrayEquals(new long[]{2}, index.search("apple", deckId -> true, 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void remove_CompactsPostingsAfterManyRemovals() {
+        // Arrange
+        TrigramIndex index = new TrigramIndex();
+        for (long id = 1; id <= 3000; id++) {
+            index.put(id, 10, "card " + id, "back");
+        }
+
+        // Act
+        for (long id = 1; id <= 2990; id++) {
+            index.remove(id);
+        }
+        index.put(5000, 10, "card 5000", "back");
+
+        // Assert
+        assertEquals(11, index.size());
+        assertArrayEquals(new long[]{2991, 2992, 2993, 2994, 2995, 2996, 2997, 2998, 2999, 3000, 5000},
+                index.search("card", deckId -> true, 100));
+        assertFalse(index.putIfAbsent(1, 10, "card 1", "back"));
+    }
+
+    @Test
+    void trigrams_AreDistinctAndSorted() {
+        // Act
+        long[] trigrams = TrigramIndex.trigrams("aaaaa");
+
+        // Assert
+        assertEquals(1, trigrams.length);
+        assertEquals(0, TrigramIndex.trigrams("aa").length);
+    }
+}
@@ -0,0 +1,131 @@
+package gutek.domain.snapshots;
+
+import gutek.domain.algorithms.ConstantCoefficientBatchState;
+import gutek.domain.algorithms.SuperMemo2BatchState;
+import gutek.entities.cards.CardBase;
+import gutek.entities.cards.CardConstantCoefficient;
+import gutek.entities.cards.CardSuperMemo2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeckSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWrite_StoresSchedulingStateOfAllCardTypes() throws IOException {
+        // Arrange
+        CardSuperMemo2 superMemo2Card = new CardSuperMemo2("front", "back", 2.1, 1.9, null);
+        superMemo2Card.setIdCard(1L);
+        superMemo2Card.setRepetition(3);
+        superMemo2Card.setRegularInterval(16);
+        superMemo2Card.setReverseIncorrectCounter(2);
+        CardConstantCoefficient constantCoefficientCard = new CardConstantCoefficient("front 2", "back 2", null);
+        constantCoefficientCard.setIdCard(2L);
+        constantCoefficientCard.setBaseRevisionTime(7.5);
+        List<CardBase> cards = List.of(superMemo2Card, constantCoefficientCard);
+
+        // Act
+        DeckSnapshot snapshot = DeckSnapshot.write(directory.resolve("deck.snapshot"), 9L, 3L, cards);
+        SuperMemo2BatchState regularState = snapshot.toSuperMemo2BatchState(false);
+        SuperMemo2BatchState reverseState = snapshot.toSuperMemo2BatchState(true);
+        ConstantCoefficientBatchState constantCoefficientState = snapshot.toConstantCoefficientBatchState(false);
+
+        // Assert
+        assertEquals(9L, snapshot.getDeckId());
+        assertEquals(3L, snapshot.getChangeCounter());
+        assertEquals(2, snapshot.getCardsCount());
+        assertEquals(2, snapshot.countNewCards());
+        assertEquals(1, regularState.getSize());
+        assertEquals(3, regularState.getRepetitions()[0]);
+        assertEquals(16, regularState.getIntervals()[0]);
+        assertEquals(2.1, regularState.getEasinessFactors()[0]);
+        assertEquals(1.9, reverseState.getEasinessFactors()[0]);
+        assertEquals(2, reverseState.getIncorrectCounters()[0]);
+        assertEquals(1, constantCoefficientState.getSize());
+        assertEquals(7.5, constantCoefficientState.getBaseRevisionTimes()[0]);
+    }
+
+    @Test
+    void testCountRevisionCards_SkipsNewCardsAndFutureDates() throws IOException {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        CardSuperMemo2 dueCard = createCard(1L, false, today);
+        CardSuperMemo2 futureCard = createCard(2L, false, today.plusDays(1));
+        CardSuperMemo2 newCard = createCard(3L, true, today.minusDays(1));
+
+        // Act
+        DeckSnapshot snapshot = DeckSnapshot.write(directory.resolve("deck.snapshot"), 1L, 0L, List.of(dueCard, futureCard, newCard));
+
+        // Assert
+        assertEquals(1, snapshot.countRegularRevisionCards(today));
+        assertEquals(List.of(1L), snapshot.findRegularRevisionCardIds(today));
+        assertEquals(2, snapshot.countReverseRevisionCards(today.plusDays(1)));
+    }
+
+    @Test
+    void testUpdate_AppendsUnknownCards() throws IOException {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        Path file = directory.resolve("deck.snapshot");
+        DeckSnapshot snapshot = DeckSnapshot.write(file, 1L, 0L, List.of(createCard(1L, false, today)));
+
+        // Act
+        boolean updated = snapshot.update(List.of(createCard(1L, false, today.plusDays(1)),
+                createCard(2L, false, today), createCard(3L, true, today)), 1L);
+
+        // Assert
+        assertTrue(updated);
+        assertEquals(1L, snapshot.getChangeCounter());
+        assertEquals(3, snapshot.getCardsCount());
+        assertEquals(List.of(2L), snapshot.findRegularRevisionCardIds(today));
+        assertEquals(1, snapshot.countNewCards());
+        DeckSnapshot reopened = DeckSnapshot.open(file).orElseThrow();
+        assertEquals(3, reopened.getCardsCount());
+        assertEquals(3L, reopened.getCardId(2));
+    }
+
+    @Test
+    void testUpdate_CardWithoutIdKeepsSnapshotDirty() throws IOException {
+        // Arrange
+        DeckSnapshot snapshot = DeckSnapshot.write(directory.resolve("deck.snapshot"), 1L, 0L,
+                List.of(createCard(1L, false, LocalDate.now())));
+
+        // Act
+        boolean updated = snapshot.update(List.of(createCard(null, false, LocalDate.now())), 1L);
+
+        // Assert
+        assertFalse(updated);
+        assertTrue(snapshot.isDirty());
+        assertEquals(1, snapshot.getCardsCount());
+    }
+
+    @Test
+    void testOpen_InvalidFileReturnsEmpty() throws IOException {
+        // Arrange
+        Path file = directory.resolve("invalid.snapshot");
+        Files.write(file, new byte[DeckSnapshot.HEADER_SIZE]);
+
+        // Act & Assert
+        assertTrue(DeckSnapshot.open(file).isEmpty());
+        assertTrue(DeckSnapshot.open(directory.resolve("missing.snapshot")).isEmpty());
+    }
+
+    private CardSuperMemo2 createCard(Long id, boolean isNewCard, LocalDate dueDate) {
+        CardSuperMemo2 card = new CardSuperMemo2("front " + id, "back " + id, 2.5, 2.5, null);
+        card.setIdCard(id);
+        card.setNewCard(isNewCard);
+        card.setNextRegularRevisionDate(dueDate);
+        card.setNextReverseRevisionDate(dueDate);
+        return card;
+    }
+}
@@ -0,0 +1,100 @@
+package gutek.domain.tags;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedBitmapTest {
+
+    @Test
+    void of_SkipsRepeatedValuesAndAnswersMembership() {
+        // Act
+        CompressedBitmap bitmap = CompressedBitmap.of(1, 3, 3, 70_000);
+
+        // Assert
+        assertEquals(3, bitmap.cardinality());
+        assertTrue(bitmap.contains(3));
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(2));
+        assertFalse(bitmap.contains(-1));
+        assertArrayEquals(new int[]{1, 3, 70_000}, bitmap.toArray());
+    }
+
+    @Test
+    void of_RejectsUnsortedValues() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CompressedBitmap.of(5, 2));
+        assertThrows(IllegalArgumentException.class, () -> CompressedBitmap.of(-1));
+    }
+
+    @Test
+    void range_HoldsAllValuesUpToSize() {
+        // Act
+        CompressedBitmap bitmap = CompressedBitmap.range(70_001);
+
+        // Assert
+        assertEquals(70_001, bitmap.cardinality());
+        assertTrue(bitmap.contains(0));
+        assertTrue(bitmap.contains(65_535));
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(70_001));
+        assertTrue(CompressedBitmap.range(0).isEmpty());
+    }
+
+    @Test
+    void operations_CombineSparseAndDenseChunks() {
+        // Arrange
+        CompressedBitmap evens = CompressedBitmap.of(IntStream.range(0, 20_000).map(i -> i * 2).toArray());
+        CompressedBitmap sparse = CompressedBitmap.of(1, 2, 3, 4, 50_000, 100_000);
+
+        // Act
+        CompressedBitmap and = evens.and(sparse);
+        CompressedBitmap or = evens.or(sparse);
+        CompressedBitmap andNot = sparse.andNot(evens);
+
+        // Assert
+        assertArrayEquals(new int[]{2, 4}, and.toArray());
+        assertEquals(20_000 + 4, or.cardinality());
+        assertTrue(or.contains(100_000));
+        assertArrayEquals(new int[]{1, 3, 50_000, 100_000}, andNot.toArray());
+    }
+
+    @Test
+    void operations_MatchBitSetOnRandomSets() {
+        // Arrange
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            BitSet first = randomSet(random);
+            BitSet second = randomSet(random);
+            CompressedBitmap firstBitmap = CompressedBitmap.of(first.stream().toArray());
+            CompressedBitmap secondBitmap = CompressedBitmap.of(second.stream().toArray());
+            BitSet and = (BitSet) first.clone();
+            and.and(second);
+            BitSet or = (BitSet) first.clone();
+            or.or(second);
+            BitSet andNot = (BitSet) first.clone();
+            andNot.andNot(second);
+
+            // Act & Assert
+            assertArrayEquals(and.stream().toArray(), firstBitmap.and(secondBitmap).toArray());
+            assertArrayEquals(or.stream().toArray(), firstBitmap.or(secondBitmap).toArray());
+            assertArrayEquals(andNot.stream().toArray(), firstBitmap.andNot(secondBitmap).toArray());
+            assertEquals(and.cardinality(), firstBitmap.and(secondBitmap).cardinality());
+        }
+    }
+
+    private static BitSet randomSet(Random random) {
+        BitSet set = new BitSet();
+        double density = random.nextDouble() * 0.2;
+        for (int value = 0; value < 200_000; value++) {
+            if (random.nextDouble() < density) {
+                set.set(value);
+            }
+        }
+        return set;
+    }
+}
@@ -0,0 +1,53 @@
+package gutek.domain.tags;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeckTagIndexTest {
+
+    @Test
+    void constructor_NumbersCardsBySortedIdentifiers() {
+        // Act
+        DeckTagIndex index = new DeckTagIndex(List.of(30L, 10L, 20L), List.of());
+
+        // Assert
+        assertEquals(3, index.size());
+        assertEquals(0, index.ordinalOf(10L));
+        assertEquals(2, index.ordinalOf(30L));
+        assertTrue(index.ordinalOf(25L) < 0);
+        assertTrue(index.ordinalOf(null) < 0);
+        assertEquals(20L, index.cardIdAt(1));
+        assertEquals(3, index.all().cardinality());
+    }
+
+    @Test
+    void constructor_IndexesTagsOfCardsOfDeckOnly() {
+        // Act
+        DeckTagIndex index = new DeckTagIndex(List.of(10L, 20L, 30L), List.of(
+                new CardTagName(30L, "verbs"),
+                new CardTagName(10L, "verbs"),
+                new CardTagName(20L, "nouns"),
+                new CardTagName(99L, "adjectives")));
+
+        // Assert
+        assertArrayEquals(new int[]{0, 2}, index.tagged("verbs").toArray());
+        assertArrayEquals(new int[]{1}, index.tagged("nouns").toArray());
+        assertTrue(index.tagged("adjectives").isEmpty());
+        assertEquals(List.of("nouns", "verbs"), index.sortedTagNames());
+    }
+
+    @Test
+    void ordinalsOf_SkipsCardsNotInIndex() {
+        // Arrange
+        DeckTagIndex index = new DeckTagIndex(List.of(10L, 20L, 30L), List.of());
+
+        // Act
+        CompressedBitmap ordinals = index.ordinalsOf(List.of(30L, 99L, 10L));
+
+        // Assert
+        assertArrayEquals(new int[]{0, 2}, ordinals.toArray());
+    }
+}
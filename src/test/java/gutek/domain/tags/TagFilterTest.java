@@ -0,0 +1,57 @@
+package gutek.domain.tags;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagFilterTest {
+
+    private final DeckTagIndex index = new DeckTagIndex(List.of(10L, 20L, 30L, 40L), List.of(
+            new CardTagName(10L, "verbs"),
+            new CardTagName(20L, "verbs"),
+            new CardTagName(20L, "irregular"),
+            new CardTagName(30L, "nouns"),
+            new CardTagName(40L, "irregular")));
+
+    @Test
+    void parse_BindsNotTighterThanAndTighterThanOr() {
+        // Act
+        TagFilter filter = TagFilter.parse("nouns OR verbs and NOT irregular");
+
+        // Assert
+        assertEquals(new TagFilter.Or(new TagFilter.Tag("nouns"),
+                new TagFilter.And(new TagFilter.Tag("verbs"), new TagFilter.Not(new TagFilter.Tag("irregular")))), filter);
+    }
+
+    @Test
+    void parse_CombinesAdjacentTermsWithAnd() {
+        // Act
+        TagFilter filter = TagFilter.parse("(Verbs or nouns) irregular");
+
+        // Assert
+        assertEquals(new TagFilter.And(new TagFilter.Or(new TagFilter.Tag("verbs"), new TagFilter.Tag("nouns")),
+                new TagFilter.Tag("irregular")), filter);
+    }
+
+    @Test
+    void parse_RejectsMalformedFilters() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> TagFilter.parse(" "));
+        assertThrows(IllegalArgumentException.class, () -> TagFilter.parse("(verbs or nouns"));
+        assertThrows(IllegalArgumentException.class, () -> TagFilter.parse("verbs or"));
+        assertThrows(IllegalArgumentException.class, () -> TagFilter.parse("verbs)"));
+        assertThrows(IllegalArgumentException.class, () -> TagFilter.parse("and verbs"));
+    }
+
+    @Test
+    void evaluate_SelectsCardsOfIndex() {
+        // Act & Assert
+        assertArrayEquals(new int[]{0, 1}, TagFilter.parse("verbs").evaluate(index).toArray());
+        assertArrayEquals(new int[]{0}, TagFilter.parse("verbs and not irregular").evaluate(index).toArray());
+        assertArrayEquals(new int[]{0, 1, 2}, TagFilter.parse("verbs or nouns").evaluate(index).toArray());
+        assertArrayEquals(new int[]{2}, TagFilter.parse("not (verbs or irregular)").evaluate(index).toArray());
+        assertTrue(TagFilter.parse("adjectives").evaluate(index).isEmpty());
+    }
+}
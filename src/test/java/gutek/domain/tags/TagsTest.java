@@ -0,0 +1,38 @@
+package gutek.domain.tags;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagsTest {
+
+    @Test
+    void parse_SplitsNormalizesAndSkipsReservedWords() {
+        // Act
+        Set<String> tags = Tags.parse(" Verbs, irregular;verbs  AND b1 ");
+
+        // Assert
+        assertEquals(List.of("verbs", "irregular", "b1"), List.copyOf(tags));
+    }
+
+    @Test
+    void parse_SkipsTooLongNames() {
+        // Act
+        Set<String> tags = Tags.parse("a".repeat(Tags.MAX_NAME_LENGTH + 1) + " verbs");
+
+        // Assert
+        assertEquals(Set.of("verbs"), tags);
+        assertTrue(Tags.parse(null).isEmpty());
+        assertTrue(Tags.parse("  ").isEmpty());
+    }
+
+    @Test
+    void format_JoinsNamesWithSpaces() {
+        // Act & Assert
+        assertEquals("irregular verbs", Tags.format(new LinkedHashSet<>(List.of("irregular", "verbs"))));
+    }
+}
@@ -0,0 +1,100 @@
+package gutek.domain.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedClockTest {
+
+    @Test
+    void startingAt_ShouldSetStartOfDay() {
+        // Act
+        SimulatedClock clock = SimulatedClock.startingAt(LocalDate.of(2020, 1, 1), ZoneOffset.UTC);
+
+        // Assert
+        assertEquals(Instant.parse("2020-01-01T00:00:00Z"), clock.instant());
+        assertEquals(ZoneOffset.UTC, clock.getZone());
+    }
+
+    @Test
+    void instant_ShouldNotChangeWithoutAdvancing() throws InterruptedException {
+        // Arrange
+        SimulatedClock clock = SimulatedClock.startingAt(LocalDate.of(2020, 1, 1), ZoneOffset.UTC);
+        Instant before = clock.instant();
+
+        // Act
+        Thread.sleep(5);
+
+        // Assert
+        assertEquals(before, clock.instant());
+    }
+
+    @Test
+    void advance_ShouldMoveClockForward() {
+        // Arrange
+        SimulatedClock clock = SimulatedClock.startingAt(LocalDate.of(2020, 1, 1), ZoneOffset.UTC);
+
+        // Act
+        clock.advance(Duration.ofHours(30));
+
+        // Assert
+        assertEquals(LocalDate.of(2020, 1, 2), LocalDate.now(clock));
+        assertEquals(Instant.parse("2020-01-02T06:00:00Z"), clock.instant());
+    }
+
+    @Test
+    void advanceDays_ShouldMoveClockAcrossYears() {
+        // Arrange
+        SimulatedClock clock = SimulatedClock.startingAt(LocalDate.of(2020, 1, 1), ZoneOffset.UTC);
+
+        // Act
+        clock.advanceDays(366 + 365);
+
+        // Assert
+        assertEquals(LocalDate.of(2022, 1, 1), LocalDate.now(clock));
+    }
+
+    @Test
+    void advance_ShouldThrowException_WhenDurationIsNegative() {
+        // Arrange
+        SimulatedClock clock = SimulatedClock.startingAt(LocalDate.of(2020, 1, 1), ZoneOffset.UTC);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> clock.advanceDays(-1));
+        assertEquals(LocalDate.of(2020, 1, 1), LocalDate.now(clock));
+    }
+
+    @Test
+    void setInstant_ShouldSetClock() {
+        // Arrange
+        SimulatedClock clock = SimulatedClock.startingAt(LocalDate.of(2020, 1, 1), ZoneOffset.UTC);
+
+        // Act
+        clock.setInstant(Instant.parse("2019-06-15T12:00:00Z"));
+
+        // Assert
+        assertEquals(LocalDate.of(2019, 6, 15), LocalDate.now(clock));
+    }
+
+    @Test
+    void withZone_ShouldShareInstantWithOriginalClock() {
+        // Arrange
+        SimulatedClock clock = SimulatedClock.startingAt(LocalDate.of(2020, 1, 1), ZoneOffset.UTC);
+        Clock zonedClock = clock.withZone(ZoneId.of("Europe/Warsaw"));
+
+        // Act
+        clock.advanceDays(1);
+
+        // Assert
+        assertEquals(ZoneId.of("Europe/Warsaw"), zonedClock.getZone());
+        assertEquals(clock.instant(), zonedClock.instant());
+        assertSame(clock, clock.withZone(ZoneOffset.UTC));
+    }
+}
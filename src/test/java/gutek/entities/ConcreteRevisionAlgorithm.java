@@ -5,6 +5,8 @@ import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.cards.CardBase;
 import lombok.Getter;
 
+import java.time.LocalDate;
+
 
 @Getter
 public class ConcreteRevisionAlgorithm extends RevisionAlgorithm<CardBase> {
@@ -52,4 +54,13 @@ public class ConcreteRevisionAlgorithm extends RevisionAlgorithm<CardBase> {
         revisionStrategies.add(new MockRevisionStrategy());
     }
 
+    @Override
+    public void resetCard(CardBase card) {
+        // Mock card reset
+    }
+
+    @Override
+    public void replayRevision(int strategyIndex, int pressedButtonIndex, CardBase card, LocalDate revisionDate) {
+        // Mock revision replay
+    }
 }
\ No newline at end of file
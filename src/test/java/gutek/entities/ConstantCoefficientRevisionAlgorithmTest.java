@@ -181,4 +181,37 @@ class ConstantCoefficientRevisionAlgorithmTest {
         assertEquals("Front", card.getFront());
         assertEquals("Back", card.getBack());
     }
+
+    @Test
+    void testReplayRevision_UsesRecordedDate() {
+        // Arrange
+        CardConstantCoefficient card = new CardConstantCoefficient("Front", "Back", null);
+        card.setBaseRevisionTime(4.0);
+        LocalDate revisionDate = LocalDate.of(2024, 1, 10);
+
+        // Act
+        algorithm.replayRevision(0, 3, card, revisionDate);
+        algorithm.replayRevision(1, 0, card, revisionDate);
+
+        // Assert
+        assertEquals(6.0, card.getBaseRevisionTime());
+        assertEquals(revisionDate.plusDays(6), card.getNextRegularRevisionDate());
+        assertEquals(1, card.getReverseIncorrectCounter());
+        assertEquals(revisionDate, card.getNextReverseRevisionDate());
+    }
+
+    @Test
+    void testResetCard() {
+        // Arrange
+        CardConstantCoefficient card = new CardConstantCoefficient("Front", "Back", null);
+        card.setBaseRevisionTime(30.0);
+        card.setReverseIncorrectCounter(2);
+
+        // Act
+        algorithm.resetCard(card);
+
+        // Assert
+        assertEquals(1.0, card.getBaseRevisionTime());
+        assertEquals(0, card.getReverseIncorrectCounter());
+    }
 }
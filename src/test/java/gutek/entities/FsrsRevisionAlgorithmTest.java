@@ -0,0 +1,187 @@
+package gutek.entities;
+
+import gutek.domain.algorithms.FsrsMemoryModel;
+import gutek.entities.algorithms.FsrsRevisionAlgorithm;
+import gutek.entities.cards.CardFsrs;
+import gutek.services.TranslationService;
+import javafx.application.Platform;
+import javafx.scene.layout.Pane;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FsrsRevisionAlgorithmTest {
+
+    private FsrsRevisionAlgorithm algorithm;
+    private TranslationService mockTranslationService;
+
+    @BeforeEach
+    void setUp() {
+        mockTranslationService = mock(TranslationService.class);
+        algorithm = new FsrsRevisionAlgorithm();
+        algorithm.setTranslationService(mockTranslationService);
+        algorithm.initializeDefaultHiperparameters();
+        algorithm.initializeGUI(800, 600, 1.0);
+    }
+
+    @BeforeAll
+    static void initToolkit() {
+        try {
+            if (!Platform.isFxApplicationThread()) {
+                Platform.startup(() -> {});
+            }
+        } catch (IllegalStateException e) {
+            // ignore
+        }
+    }
+
+    @Test
+    void testInitializeDefaultHiperparameters() {
+        // Assert
+        assertArrayEquals(FsrsMemoryModel.defaultWeights(), algorithm.getWeights());
+        assertEquals(0.9, algorithm.getRequestedRetention());
+        assertEquals(36500, algorithm.getMaximumInterval());
+    }
+
+    @Test
+    void testSetWeights_RejectsWrongLength() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> algorithm.setWeights(new double[3]));
+    }
+
+    @Test
+    void testUpdateTranslation() {
+        // Arrange
+        when(mockTranslationService.getTranslation("revision_algorithm.fsrs.normal_button_1")).thenReturn("Again");
+        when(mockTranslationService.getTranslation("revision_algorithm.fsrs.reverse_button_4")).thenReturn("Easy");
+
+        // Act
+        algorithm.updateTranslation();
+
+        // Assert
+        assertEquals("Again", algorithm.getButtonAgain().getText());
+        assertEquals("Easy", algorithm.getReverseButtonEasy().getText());
+    }
+
+    @Test
+    void testRevisionButtonPanels() {
+        // Act
+        Pane regularPane = algorithm.getRegularRevisionButtonsPane(new CardFsrs());
+        Pane reversePane = algorithm.getReverseRevisionButtonsPane(new CardFsrs());
+
+        // Assert
+        assertEquals(4, regularPane.getChildren().size());
+        assertEquals(4, reversePane.getChildren().size());
+    }
+
+    @Test
+    void testRegularReviseCard_FirstAnswerSetsInitialState() {
+        // Arrange
+        CardFsrs card = new CardFsrs("Front", "Back", null);
+
+        // Act
+        boolean result = algorithm.regularReviseCard(algorithm.getButtonGood(), card);
+
+        // Assert
+        assertTrue(result);
+        assertEquals(algorithm.getWeight2(), card.getStability());
+        assertEquals(algorithm.getWeight4(), card.getDifficulty());
+        assertEquals(LocalDate.now(), card.getLastRevisionDate());
+        assertEquals(LocalDate.now().plusDays(4), card.getNextRegularRevisionDate());
+    }
+
+    @Test
+    void testRegularReviseCard_AgainRepeatsCardToday() {
+        // Arrange
+        CardFsrs card = new CardFsrs("Front", "Back", null);
+        card.setStability(20);
+        card.setDifficulty(5);
+        card.setLastRevisionDate(LocalDate.now().minusDays(20));
+
+        // Act
+        boolean result = algorithm.regularReviseCard(algorithm.getButtonAgain(), card);
+
+        // Assert
+        assertFalse(result);
+        assertTrue(card.getStability() < 20);
+        assertTrue(card.getDifficulty() > 5);
+        assertEquals(LocalDate.now(), card.getNextRegularRevisionDate());
+    }
+
+    @Test
+    void testReverseReviseCard_UsesReverseState() {
+        // Arrange
+        CardFsrs card = new CardFsrs("Front", "Back", null);
+        card.setReverseStability(10);
+        card.setReverseDifficulty(5);
+        card.setLastReverseRevisionDate(LocalDate.now().minusDays(10));
+
+        // Act
+        boolean result = algorithm.reverseReviseCard(algorithm.getReverseButtonEasy(), card);
+
+        // Assert
+        assertTrue(result);
+        assertTrue(card.getReverseStability() > 10);
+        assertEquals(0, card.getStability());
+        assertTrue(card.getNextReverseRevisionDate().isAfter(LocalDate.now().plusDays(10)));
+    }
+
+    @Test
+    void testReplayRevision_UsesRecordedDate() {
+        // Arrange
+        CardFsrs card = new CardFsrs("Front", "Back", null);
+        LocalDate revisionDate = LocalDate.of(2024, 1, 10);
+
+        // Act
+        algorithm.replayRevision(0, 3, card, revisionDate);
+        algorithm.replayRevision(1, 0, card, revisionDate);
+
+        // Assert
+        assertEquals(algorithm.getWeight3(), card.getStability());
+        assertEquals(revisionDate.plusDays(14), card.getNextRegularRevisionDate());
+        assertEquals(algorithm.getWeight0(), card.getReverseStability());
+        assertEquals(revisionDate, card.getNextReverseRevisionDate());
+    }
+
+    @Test
+    void testResetCard() {
+        // Arrange
+        CardFsrs card = new CardFsrs("Front", "Back", null);
+        card.setStability(30);
+        card.setReverseDifficulty(7);
+        card.setLastRevisionDate(LocalDate.of(2024, 1, 1));
+
+        // Act
+        algorithm.resetCard(card);
+
+        // Assert
+        assertEquals(0, card.getStability());
+        assertEquals(0, card.getReverseDifficulty());
+        assertNull(card.getLastRevisionDate());
+    }
+
+    @Test
+    void testGetAlgorithmName() {
+        // Arrange
+        when(mockTranslationService.getTranslation("revision_algorithm.fsrs.algorithm_name")).thenReturn("FSRS Algorithm");
+
+        // Act & Assert
+        assertEquals("FSRS Algorithm", algorithm.getAlgorithmName());
+    }
+
+    @Test
+    void testCreateNewCard() {
+        // Act
+        CardFsrs card = algorithm.createNewCard("Front", "Back");
+
+        // Assert
+        assertEquals("Front", card.getFront());
+        assertEquals("Back", card.getBack());
+        assertEquals(0, card.getStability());
+    }
+}
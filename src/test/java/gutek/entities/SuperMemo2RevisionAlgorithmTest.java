@@ -50,6 +50,25 @@ class SuperMemo2RevisionAlgorithmTest {
         assertEquals(3, algorithm.getReverseIncorrectAnswerThreshold());
     }
 
+    @Test
+    void testCopy_CopiesHiperparametersIntoNewAlgorithm() {
+        // Arrange
+        algorithm.setIdAlgorithm(7L);
+        algorithm.setInitialEasinessFactor(2.1);
+        algorithm.setReverseIncorrectAnswerThreshold(5);
+
+        // Act
+        SuperMemo2RevisionAlgorithm copy = (SuperMemo2RevisionAlgorithm) algorithm.copy();
+
+        // Assert
+        assertNotSame(algorithm, copy);
+        assertNull(copy.getIdAlgorithm());
+        assertEquals(2.1, copy.getInitialEasinessFactor());
+        assertEquals(3, copy.getIncorrectAnswerThreshold());
+        assertEquals(5, copy.getReverseIncorrectAnswerThreshold());
+        assertSame(mockTranslationService, copy.getTranslationService());
+    }
+
     @Test
     void testUpdateTranslation() {
         // Arrange
@@ -183,4 +202,38 @@ class SuperMemo2RevisionAlgorithmTest {
         assertEquals(2.5, card.getEasinessFactor());
         assertEquals(2.5, card.getReverseEasinessFactor());
     }
+
+    @Test
+    void testReplayRevision_UsesRecordedDate() {
+        // Arrange
+        CardSuperMemo2 card = new CardSuperMemo2("Front", "Back", 2.5, 2.5, null);
+        LocalDate revisionDate = LocalDate.of(2024, 1, 10);
+
+        // Act
+        algorithm.replayRevision(0, 4, card, revisionDate);
+        algorithm.replayRevision(1, 0, card, revisionDate);
+
+        // Assert
+        assertEquals(1, card.getRepetition());
+        assertEquals(revisionDate.plusDays(1), card.getNextRegularRevisionDate());
+        assertEquals(1, card.getReverseIncorrectCounter());
+        assertEquals(revisionDate.plusDays(1), card.getNextReverseRevisionDate());
+    }
+
+    @Test
+    void testResetCard() {
+        // Arrange
+        CardSuperMemo2 card = new CardSuperMemo2("Front", "Back", 1.3, 1.3, null);
+        card.setRepetition(5);
+        card.setReverseRepetition(4);
+
+        // Act
+        algorithm.resetCard(card);
+
+        // Assert
+        assertEquals(0, card.getRepetition());
+        assertEquals(0, card.getReverseRepetition());
+        assertEquals(2.5, card.getEasinessFactor());
+        assertEquals(2.5, card.getReverseEasinessFactor());
+    }
 }
@@ -1,6 +1,6 @@
 package gutek.gui.controllers.controls;
 
-import gutek.entities.cards.CardBase;
+import gutek.domain.search.CardSummary;
 import gutek.gui.controllers.MainStage;
 import gutek.gui.controllers.deck.RevisionSearchFXMLController;
 import gutek.services.CardService;
@@ -36,7 +36,7 @@ class CardCellFXMLControllerTest extends ApplicationTest {
     private CardService cardService;
     private TranslationService translationService;
     private RevisionSearchFXMLController parentController;
-    private CardBase mockCard;
+    private CardSummary card;
 
     @BeforeAll
     static void initToolkit() {
@@ -76,11 +76,9 @@ class CardCellFXMLControllerTest extends ApplicationTest {
             stage.setScene(new Scene(controller.getRoot()));
             stage.show();
 
-            mockCard = mock(CardBase.class);
-            when(mockCard.getFront()).thenReturn("Front Text");
-            when(mockCard.getBack()).thenReturn("Back Text");
+            card = new CardSummary(1L, "Front Text", "Back Text");
 
-            controller.setCard(mockCard);
+            controller.setCard(card);
         });
     }
 
@@ -134,7 +132,8 @@ class CardCellFXMLControllerTest extends ApplicationTest {
         WaitForAsyncUtils.waitForFxEvents();
 
         // Assert
-        verify(parentController, never()).removeCardFromListView(mockCard);
+        verify(cardService).findCardById(1L);
+        verify(parentController, never()).removeCardFromListView(card);
     }
 
     @Test
@@ -156,7 +155,7 @@ class CardCellFXMLControllerTest extends ApplicationTest {
         WaitForAsyncUtils.waitForFxEvents();
 
         // Assert
-        verify(cardService, never()).removeCard(mockCard);
+        verify(cardService, never()).removeCard(any());
     }
 
     @Test
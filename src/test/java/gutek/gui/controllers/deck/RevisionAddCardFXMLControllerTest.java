@@ -5,6 +5,7 @@ import gutek.gui.controllers.MainStage;
 import gutek.gui.controllers.menu.MenuBarFXMLController;
 import gutek.gui.controllers.menu.MenuDeckFXMLController;
 import gutek.services.CardService;
+import gutek.services.ClockService;
 import gutek.services.DeckService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
@@ -23,6 +24,7 @@ import org.testfx.api.FxToolkit;
 import org.testfx.framework.junit5.ApplicationTest;
 import org.testfx.util.WaitForAsyncUtils;
 
+import java.time.Clock;
 import java.io.IOException;
 import java.util.concurrent.TimeoutException;
 
@@ -67,7 +69,7 @@ class RevisionAddCardFXMLControllerTest extends ApplicationTest {
 
         controller = new RevisionAddCardFXMLController(mockStage, mockFxmlFileLoader,
                 mockTranslationService, mockMenuBarController, mockMenuDeckController,
-                mockCardService, mockDeckService);
+                mockCardService, mockDeckService, new ClockService(Clock.systemDefaultZone()));
 
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/deck/RevisionAddCardView.fxml"));
         fxmlLoader.setControllerFactory(param -> controller);
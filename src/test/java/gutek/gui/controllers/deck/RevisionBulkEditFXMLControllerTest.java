@@ -0,0 +1,232 @@
+package gutek.gui.controllers.deck;
+
+import gutek.domain.edits.BulkEdit;
+import gutek.domain.edits.BulkEditChange;
+import gutek.domain.edits.BulkEditPreview;
+import gutek.domain.edits.BulkEditScope;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardText;
+import gutek.entities.decks.DeckBase;
+import gutek.gui.controllers.MainStage;
+import gutek.gui.controllers.menu.MenuBarFXMLController;
+import gutek.gui.controllers.menu.MenuDeckFXMLController;
+import gutek.services.BulkEditService;
+import gutek.services.TranslationService;
+import gutek.utils.FXMLFileLoader;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.testfx.api.FxToolkit;
+import org.testfx.framework.junit5.ApplicationTest;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RevisionBulkEditFXMLControllerTest extends ApplicationTest {
+
+    private RevisionBulkEditFXMLController controller;
+    private MenuBarFXMLController mockMenuBarController;
+    private MenuDeckFXMLController mockMenuDeckController;
+    private BulkEditService mockBulkEditService;
+
+    private DeckBase deck;
+    private DeckBase targetDeck;
+
+    @BeforeAll
+    static void initToolkit() {
+        try {
+            if (!Platform.isFxApplicationThread()) {
+                Platform.startup(() -> {
+                });
+            }
+        } catch (IllegalStateException e) {
+            // ignore
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FXMLFileLoader mockFxmlFileLoader = mock(FXMLFileLoader.class);
+        TranslationService mockTranslationService = mock(TranslationService.class);
+        mockBulkEditService = mock(BulkEditService.class);
+        mockMenuBarController = mock(MenuBarFXMLController.class);
+        mockMenuDeckController = mock(MenuDeckFXMLController.class);
+        MainStage mockStage = mock(MainStage.class);
+        deck = new DeckBase();
+        deck.setIdDeck(10L);
+        targetDeck = new DeckBase();
+        targetDeck.setIdDeck(20L);
+        targetDeck.setName("Verbs");
+
+        when(mockStage.getStageScaleFactor()).thenReturn(1.0);
+        when(mockTranslationService.getTranslation(anyString())).thenReturn("Translated");
+        when(mockMenuBarController.getRoot()).thenReturn(new Label("MenuBar"));
+        when(mockMenuDeckController.getRoot()).thenReturn(new Label("MenuDeck"));
+        when(mockBulkEditService.findMoveTargets(deck)).thenReturn(List.of(targetDeck));
+
+        controller = new RevisionBulkEditFXMLController(mockStage, mockFxmlFileLoader,
+                mockTranslationService, mockMenuBarController, mockMenuDeckController, mockBulkEditService);
+
+        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/deck/RevisionBulkEditView.fxml"));
+        fxmlLoader.setControllerFactory(param -> controller);
+        Parent mockRoot = fxmlLoader.load();
+
+        when(mockFxmlFileLoader.loadFXML(eq("/fxml/deck/RevisionBulkEditView.fxml"), any()))
+                .thenReturn(mockRoot);
+
+        controller.loadViewFromFXML();
+
+        Platform.runLater(() -> {
+            Stage stage = new Stage();
+            when(mockStage.getStage()).thenReturn(stage);
+            stage.setScene(new Scene(controller.getRoot()));
+            stage.show();
+
+            WaitForAsyncUtils.waitForFxEvents();
+            controller.initWithParams(deck);
+            controller.updateTranslation();
+            controller.updateView();
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdateView_ListsMoveTargetsAfterKeepingCardsInDeck() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Act
+        ComboBox<String> targetDeckComboBox = lookup("#targetDeckComboBox").queryAs(ComboBox.class);
+        Button applyButton = lookup("#applyButton").queryAs(Button.class);
+
+        // Assert
+        assertEquals(List.of("Translated", "Verbs"), targetDeckComboBox.getItems());
+        assertEquals(0, targetDeckComboBox.getSelectionModel().getSelectedIndex());
+        assertTrue(applyButton.isDisabled(), "An edit should not be applied before it is previewed");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPreviewAndApply_AppliesPreviewedEdit() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        WaitForAsyncUtils.waitForFxEvents();
+        BulkEditChange change = new BulkEditChange(new CardText(1L, 10L, "to run (verb)", "biegać"), "to run", "biegać", 20L);
+        BackgroundJob<BulkEditPreview> previewJob = new BackgroundJob<>(null);
+        previewJob.complete(new BulkEditPreview(1, 1, 0, List.of(change)));
+        when(mockBulkEditService.previewInBackground(eq(deck), any())).thenReturn(previewJob);
+        BackgroundJob<Integer> applyJob = new BackgroundJob<>(null);
+        applyJob.complete(1);
+        when(mockBulkEditService.applyInBackground(eq(deck), any())).thenReturn(applyJob);
+        TextField findTextField = lookup("#findTextField").queryAs(TextField.class);
+        TextField replaceTextField = lookup("#replaceTextField").queryAs(TextField.class);
+        ComboBox<String> targetDeckComboBox = lookup("#targetDeckComboBox").queryAs(ComboBox.class);
+        Button previewButton = lookup("#previewButton").queryAs(Button.class);
+        Button applyButton = lookup("#applyButton").queryAs(Button.class);
+        ListView<String> changesListView = lookup("#changesListView").queryAs(ListView.class);
+        Label statusLabel = lookup("#statusLabel").queryAs(Label.class);
+
+        // Act
+        Platform.runLater(() -> {
+            findTextField.setText("\\s*\\(verb\\)");
+            replaceTextField.setText("");
+            targetDeckComboBox.getSelectionModel().select(1);
+            previewButton.fire();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+        boolean applyDisabledAfterPreview = applyButton.isDisabled();
+        int listedChanges = changesListView.getItems().size();
+        Platform.runLater(applyButton::fire);
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        assertFalse(applyDisabledAfterPreview, "A previewed edit should be applicable");
+        assertEquals(1, listedChanges);
+        ArgumentCaptor<BulkEdit> edit = ArgumentCaptor.forClass(BulkEdit.class);
+        verify(mockBulkEditService).applyInBackground(eq(deck), edit.capture());
+        assertEquals("\\s*\\(verb\\)", edit.getValue().findPattern().pattern());
+        assertEquals("", edit.getValue().replacement());
+        assertEquals(BulkEditScope.FRONT, edit.getValue().scope());
+        assertEquals(20L, edit.getValue().targetDeckId());
+        assertEquals("Translated: 1", statusLabel.getText());
+        assertTrue(applyButton.isDisabled(), "An applied edit should be previewed again before it is applied again");
+    }
+
+    @Test
+    void testPreview_ReportsInvalidPatternWithoutStartingPreview() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        WaitForAsyncUtils.waitForFxEvents();
+        TextField findTextField = lookup("#findTextField").queryAs(TextField.class);
+        Button previewButton = lookup("#previewButton").queryAs(Button.class);
+        Label statusLabel = lookup("#statusLabel").queryAs(Label.class);
+
+        // Act
+        Platform.runLater(() -> {
+            findTextField.setText("(verb");
+            previewButton.fire();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        assertEquals("Translated", statusLabel.getText());
+        verify(mockBulkEditService, never()).previewInBackground(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFormChange_DiscardsPreview() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        WaitForAsyncUtils.waitForFxEvents();
+        BackgroundJob<BulkEditPreview> previewJob = new BackgroundJob<>(null);
+        previewJob.complete(new BulkEditPreview(1, 1, 0, List.of(
+                new BulkEditChange(new CardText(1L, 10L, " a ", "b"), "a", "b", 10L))));
+        when(mockBulkEditService.previewInBackground(eq(deck), any())).thenReturn(previewJob);
+        TextField findTextField = lookup("#findTextField").queryAs(TextField.class);
+        Button previewButton = lookup("#previewButton").queryAs(Button.class);
+        Button applyButton = lookup("#applyButton").queryAs(Button.class);
+        ListView<String> changesListView = lookup("#changesListView").queryAs(ListView.class);
+
+        // Act
+        Platform.runLater(previewButton::fire);
+        WaitForAsyncUtils.waitForFxEvents();
+        Platform.runLater(() -> findTextField.setText("a"));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        assertTrue(applyButton.isDisabled());
+        assertTrue(changesListView.getItems().isEmpty());
+        verify(mockBulkEditService, never()).applyInBackground(any(), any());
+    }
+
+    @Test
+    void testUpdateSize() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+
+        // Act
+        Platform.runLater(() -> controller.updateSize());
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        verify(mockMenuBarController, times(1)).updateSize();
+        verify(mockMenuDeckController, times(1)).updateSize();
+    }
+}
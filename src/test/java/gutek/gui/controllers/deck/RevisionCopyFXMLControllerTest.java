@@ -0,0 +1,198 @@
+package gutek.gui.controllers.deck;
+
+import gutek.domain.copies.DeckCopyOptions;
+import gutek.domain.copies.DeckCopyResult;
+import gutek.domain.copies.DuplicateFronts;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.entities.decks.DeckBase;
+import gutek.gui.controllers.MainStage;
+import gutek.gui.controllers.menu.MenuBarFXMLController;
+import gutek.gui.controllers.menu.MenuDeckFXMLController;
+import gutek.services.DeckCopyService;
+import gutek.services.TranslationService;
+import gutek.utils.FXMLFileLoader;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.testfx.api.FxToolkit;
+import org.testfx.framework.junit5.ApplicationTest;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RevisionCopyFXMLControllerTest extends ApplicationTest {
+
+    private RevisionCopyFXMLController controller;
+    private DeckCopyService mockDeckCopyService;
+
+    private DeckBase deck;
+    private DeckBase targetDeck;
+
+    @BeforeAll
+    static void initToolkit() {
+        try {
+            if (!Platform.isFxApplicationThread()) {
+                Platform.startup(() -> {
+                });
+            }
+        } catch (IllegalStateException e) {
+            // ignore
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FXMLFileLoader mockFxmlFileLoader = mock(FXMLFileLoader.class);
+        TranslationService mockTranslationService = mock(TranslationService.class);
+        mockDeckCopyService = mock(DeckCopyService.class);
+        MenuBarFXMLController mockMenuBarController = mock(MenuBarFXMLController.class);
+        MenuDeckFXMLController mockMenuDeckController = mock(MenuDeckFXMLController.class);
+        MainStage mockStage = mock(MainStage.class);
+        deck = new DeckBase();
+        deck.setIdDeck(10L);
+        deck.setName("Animals");
+        targetDeck = new DeckBase();
+        targetDeck.setIdDeck(20L);
+        targetDeck.setName("Verbs");
+
+        when(mockStage.getStageScaleFactor()).thenReturn(1.0);
+        when(mockTranslationService.getTranslation(anyString())).thenReturn("Translated");
+        when(mockMenuBarController.getRoot()).thenReturn(new Label("MenuBar"));
+        when(mockMenuDeckController.getRoot()).thenReturn(new Label("MenuDeck"));
+        when(mockDeckCopyService.findMergeTargets(deck)).thenReturn(List.of(targetDeck));
+
+        controller = new RevisionCopyFXMLController(mockStage, mockFxmlFileLoader,
+                mockTranslationService, mockMenuBarController, mockMenuDeckController, mockDeckCopyService);
+
+        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/deck/RevisionCopyView.fxml"));
+        fxmlLoader.setControllerFactory(param -> controller);
+        Parent mockRoot = fxmlLoader.load();
+
+        when(mockFxmlFileLoader.loadFXML(eq("/fxml/deck/RevisionCopyView.fxml"), any()))
+                .thenReturn(mockRoot);
+
+        controller.loadViewFromFXML();
+
+        Platform.runLater(() -> {
+            Stage stage = new Stage();
+            when(mockStage.getStage()).thenReturn(stage);
+            stage.setScene(new Scene(controller.getRoot()));
+            stage.show();
+
+            WaitForAsyncUtils.waitForFxEvents();
+            controller.initWithParams(deck);
+            controller.updateTranslation();
+            controller.updateView();
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdateView_ListsMergeTargetsAfterNewDeckAndSuggestsName() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Act
+        ComboBox<String> targetDeckComboBox = lookup("#targetDeckComboBox").queryAs(ComboBox.class);
+        TextField nameTextField = lookup("#nameTextField").queryAs(TextField.class);
+
+        // Assert
+        assertEquals(List.of("Translated", "Verbs"), targetDeckComboBox.getItems());
+        assertEquals(0, targetDeckComboBox.getSelectionModel().getSelectedIndex());
+        assertEquals("Animals Translated", nameTextField.getText());
+        assertFalse(nameTextField.isDisabled());
+    }
+
+    @Test
+    void testResetScheduling_DisablesCopyOfHistory() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        WaitForAsyncUtils.waitForFxEvents();
+        CheckBox resetSchedulingCheckBox = lookup("#resetSchedulingCheckBox").queryAs(CheckBox.class);
+        CheckBox copyHistoryCheckBox = lookup("#copyHistoryCheckBox").queryAs(CheckBox.class);
+
+        // Act
+        Platform.runLater(() -> {
+            copyHistoryCheckBox.setSelected(true);
+            resetSchedulingCheckBox.setSelected(true);
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        assertFalse(copyHistoryCheckBox.isSelected());
+        assertTrue(copyHistoryCheckBox.isDisabled());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testApply_MergesIntoSelectedDeckWithFormOptions() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        WaitForAsyncUtils.waitForFxEvents();
+        BackgroundJob<DeckCopyResult> job = new BackgroundJob<>(null);
+        job.complete(new DeckCopyResult(20L, 3, 1, 12));
+        when(mockDeckCopyService.mergeInBackground(eq(deck), eq(targetDeck), any())).thenReturn(job);
+        ComboBox<String> targetDeckComboBox = lookup("#targetDeckComboBox").queryAs(ComboBox.class);
+        TextField nameTextField = lookup("#nameTextField").queryAs(TextField.class);
+        CheckBox skipDuplicatesCheckBox = lookup("#skipDuplicatesCheckBox").queryAs(CheckBox.class);
+        CheckBox copyHistoryCheckBox = lookup("#copyHistoryCheckBox").queryAs(CheckBox.class);
+        Button applyButton = lookup("#applyButton").queryAs(Button.class);
+        Label statusLabel = lookup("#statusLabel").queryAs(Label.class);
+
+        // Act
+        Platform.runLater(() -> {
+            targetDeckComboBox.getSelectionModel().select(1);
+            skipDuplicatesCheckBox.setSelected(true);
+            copyHistoryCheckBox.setSelected(true);
+            applyButton.fire();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        ArgumentCaptor<DeckCopyOptions> options = ArgumentCaptor.forClass(DeckCopyOptions.class);
+        verify(mockDeckCopyService).mergeInBackground(eq(deck), eq(targetDeck), options.capture());
+        assertEquals(new DeckCopyOptions(false, DuplicateFronts.SKIP, true), options.getValue());
+        verify(mockDeckCopyService, never()).cloneInBackground(any(), any(), any());
+        assertTrue(nameTextField.isDisabled());
+        assertEquals("Translated: 3, Translated: 1, Translated: 12", statusLabel.getText());
+        assertFalse(applyButton.isDisabled());
+    }
+
+    @Test
+    void testApply_DoesNotCloneDeckWithBlankName() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        WaitForAsyncUtils.waitForFxEvents();
+        TextField nameTextField = lookup("#nameTextField").queryAs(TextField.class);
+        Button applyButton = lookup("#applyButton").queryAs(Button.class);
+        Label statusLabel = lookup("#statusLabel").queryAs(Label.class);
+
+        // Act
+        Platform.runLater(() -> {
+            nameTextField.setText("   ");
+            applyButton.fire();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        verify(mockDeckCopyService, never()).cloneInBackground(any(), any(), any());
+        assertEquals("Translated", statusLabel.getText());
+    }
+}
@@ -6,6 +6,7 @@ import gutek.gui.controllers.MainStage;
 import gutek.gui.controllers.menu.MenuBarFXMLController;
 import gutek.gui.controllers.menu.MenuDeckFXMLController;
 import gutek.services.CardService;
+import gutek.services.TagService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
 import javafx.application.Platform;
@@ -24,6 +25,7 @@ import org.testfx.framework.junit5.ApplicationTest;
 import org.testfx.util.WaitForAsyncUtils;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +36,7 @@ class RevisionEditCardFXMLControllerTest extends ApplicationTest {
     private RevisionEditCardFXMLController controller;
     private TranslationService mockTranslationService;
     private CardService mockCardService;
+    private TagService mockTagService;
     private MainStage mockStage;
 
     private CardBase mockCard;
@@ -56,6 +59,7 @@ class RevisionEditCardFXMLControllerTest extends ApplicationTest {
         FXMLFileLoader mockFxmlFileLoader = mock(FXMLFileLoader.class);
         mockTranslationService = mock(TranslationService.class);
         mockCardService = mock(CardService.class);
+        mockTagService = mock(TagService.class);
         MenuBarFXMLController mockMenuBarController = mock(MenuBarFXMLController.class);
         MenuDeckFXMLController mockMenuDeckController = mock(MenuDeckFXMLController.class);
         mockStage = mock(MainStage.class);
@@ -67,7 +71,7 @@ class RevisionEditCardFXMLControllerTest extends ApplicationTest {
 
         controller = new RevisionEditCardFXMLController(mockStage, mockFxmlFileLoader,
                 mockTranslationService, mockMenuBarController, mockMenuDeckController,
-                mockCardService);
+                mockCardService, mockTagService);
 
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/deck/RevisionEditCardView.fxml"));
         fxmlLoader.setControllerFactory(param -> controller);
@@ -82,6 +86,7 @@ class RevisionEditCardFXMLControllerTest extends ApplicationTest {
         when(mockCard.getDeck()).thenReturn(mockDeck);
         when(mockCard.getFront()).thenReturn("Old Front");
         when(mockCard.getBack()).thenReturn("Old Back");
+        when(mockTagService.getTags(mockCard)).thenReturn(Set.of("verbs"));
 
         Platform.runLater(() -> {
             Stage stage = new Stage();
@@ -131,6 +136,7 @@ class RevisionEditCardFXMLControllerTest extends ApplicationTest {
 
         assertEquals("Old Front", frontTextField.getText());
         assertEquals("Old Back", backTextField.getText());
+        assertEquals("verbs", lookup("#tagsTextField").queryAs(TextField.class).getText());
     }
 
     @Test
@@ -157,6 +163,25 @@ class RevisionEditCardFXMLControllerTest extends ApplicationTest {
         verify(mockCardService).saveCard(mockCard);
     }
 
+    @Test
+    void testSaveButtonActionUpdatesTags() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {
+        });
+        TextField tagsTextField = lookup("#tagsTextField").queryAs(TextField.class);
+        Button saveButton = lookup("#saveButton").queryAs(Button.class);
+
+        // Act
+        Platform.runLater(() -> {
+            tagsTextField.setText("Verbs, irregular  verbs");
+            saveButton.fire();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        verify(mockTagService).setTags(mockCard, Set.of("verbs", "irregular"));
+    }
+
     @Test
     void testSaveButtonActionWithEmptyFieldsShowsWarning() throws TimeoutException {
         // Arrange
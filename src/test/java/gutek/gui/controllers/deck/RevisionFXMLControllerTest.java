@@ -1,6 +1,7 @@
 package gutek.gui.controllers.deck;
 
 import gutek.domain.revisions.RevisionStrategy;
+import gutek.domain.tags.TagFilter;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.decks.DeckBase;
 import gutek.entities.decks.DeckBaseStatistics;
@@ -9,6 +10,7 @@ import gutek.gui.controllers.menu.MenuBarFXMLController;
 import gutek.gui.controllers.menu.MenuDeckFXMLController;
 import gutek.services.DeckService;
 import gutek.services.DeckStatisticsService;
+import gutek.services.TagService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
 import gutek.gui.controls.NumberTextField;
@@ -16,7 +18,9 @@ import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,6 +44,7 @@ class RevisionFXMLControllerTest extends ApplicationTest {
     private MenuBarFXMLController mockMenuBarController;
     private MenuDeckFXMLController mockMenuDeckController;
     private MainStage mockStage;
+    private TagService mockTagService;
 
     private DeckBase mockDeck;
     private Parent mockRoot;
@@ -64,6 +69,7 @@ class RevisionFXMLControllerTest extends ApplicationTest {
         mockMenuBarController = mock(MenuBarFXMLController.class);
         mockMenuDeckController = mock(MenuDeckFXMLController.class);
         mockStage = mock(MainStage.class);
+        mockTagService = mock(TagService.class);
 
         when(mockStage.getStageScaleFactor()).thenReturn(1.0);
         when(mockTranslationService.getTranslation(anyString())).thenReturn("Translated");
@@ -72,7 +78,7 @@ class RevisionFXMLControllerTest extends ApplicationTest {
 
         controller = new RevisionFXMLController(mockStage, mockFxmlFileLoader,
                 mockTranslationService, mockMenuBarController, mockMenuDeckController,
-                mockDeckService, mockDeckStatisticsService);
+                mockDeckService, mockDeckStatisticsService, mockTagService);
 
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/deck/RevisionView.fxml"));
         fxmlLoader.setControllerFactory(param -> controller);
@@ -178,4 +184,60 @@ class RevisionFXMLControllerTest extends ApplicationTest {
         // Assert
         verify(mockTranslationService).getTranslation("deck_view.revise.new_cards_per_day");
     }
+
+    @Test
+    void testUpdateView_ListsDeckTags() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        when(mockTagService.findDeckTags(mockDeck)).thenReturn(List.of("nouns", "verbs"));
+
+        // Act
+        Platform.runLater(() -> controller.updateView());
+        WaitForAsyncUtils.waitForFxEvents();
+
+        Label deckTagsLabel = lookup("#deckTagsLabel").queryAs(Label.class);
+
+        // Assert
+        assertEquals("Translated: nouns, verbs", deckTagsLabel.getText());
+    }
+
+    @Test
+    void testRevisionButton_StartsRevisionFilteredByTags() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        TextField tagFilterTextField = lookup("#tagFilterTextField").queryAs(TextField.class);
+        Button revisionButton = lookup(".button").queryAs(Button.class);
+
+        // Act
+        Platform.runLater(() -> {
+            tagFilterTextField.setText("verbs and not irregular");
+            revisionButton.fire();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        verify(mockStage).setScene(isNull(), eq(mockDeck), eq(TagFilter.parse("verbs and not irregular")));
+    }
+
+    @Test
+    void testRevisionButton_ReportsInvalidTagFilterWithoutStartingRevision() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        TextField tagFilterTextField = lookup("#tagFilterTextField").queryAs(TextField.class);
+        Button revisionButton = lookup(".button").queryAs(Button.class);
+
+        // Act
+        Platform.runLater(() -> {
+            tagFilterTextField.setText("(verbs or");
+            revisionButton.fire();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        Label deckTagsLabel = lookup("#deckTagsLabel").queryAs(Label.class);
+
+        // Assert
+        assertEquals("Translated", deckTagsLabel.getText());
+        verify(mockStage, never()).setScene(isNull(), eq(mockDeck));
+        verify(mockStage, never()).setScene(isNull(), eq(mockDeck), any(TagFilter.class));
+    }
 }
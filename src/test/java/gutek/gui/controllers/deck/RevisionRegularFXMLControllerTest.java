@@ -1,6 +1,7 @@
 package gutek.gui.controllers.deck;
 
 import gutek.domain.revisions.RegularTextModeRevisionStrategy;
+import gutek.domain.tags.TagFilter;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.cards.CardBase;
 import gutek.entities.decks.DeckBase;
@@ -27,6 +28,7 @@ import org.testfx.api.FxToolkit;
 import org.testfx.framework.junit5.ApplicationTest;
 import org.testfx.util.WaitForAsyncUtils;
 
+import java.time.Clock;
 import java.util.List;
 import java.util.concurrent.TimeoutException;
 
@@ -99,7 +101,8 @@ class RevisionRegularFXMLControllerTest extends ApplicationTest {
 
         controller = new RevisionRegularFXMLController(mockStage, mockFxmlFileLoader,
                 mockTranslationService, mockMenuBarFXMLController, mockMenuDeckFXMLController,
-                mockCardService, mockDeckStatisticsService, mockCardRevisionService, mockDeckService);
+                mockCardService, mockDeckStatisticsService, mockCardRevisionService, mockDeckService,
+                new ClockService(Clock.systemDefaultZone()));
 
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/deck/RevisionRegularView.fxml"));
         fxmlLoader.setControllerFactory(param -> controller);
@@ -166,6 +169,28 @@ class RevisionRegularFXMLControllerTest extends ApplicationTest {
         assertEquals("Card back", translationLabel.getText());
     }
 
+    @Test
+    void testInitWithParams_RevisesCardsSelectedByTagFilter() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        TagFilter tagFilter = TagFilter.parse("verbs");
+        CardBase taggedCard = mock(CardBase.class);
+        when(taggedCard.getDeck()).thenReturn(mockDeck);
+        when(taggedCard.getFront()).thenReturn("Tagged front");
+        when(taggedCard.getBack()).thenReturn("Tagged back");
+        when(mockDeckService.getRegularRevisionCards(mockDeck, tagFilter)).thenReturn(List.of(taggedCard));
+        when(mockDeckService.getNewCardsForTodayRevision(eq(mockDeck), anyInt(), eq(tagFilter))).thenReturn(List.of());
+
+        // Act
+        Platform.runLater(() -> controller.initWithParams(mockDeck, tagFilter));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        Label wordLabel = lookup("#wordLabel").queryAs(Label.class);
+
+        // Assert
+        assertEquals("Tagged front", wordLabel.getText());
+    }
+
     @Test
     void testEndRevisionSession() throws TimeoutException {
         // Arrange
@@ -28,6 +28,7 @@ import org.testfx.api.FxToolkit;
 import org.testfx.framework.junit5.ApplicationTest;
 import org.testfx.util.WaitForAsyncUtils;
 
+import java.time.Clock;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeoutException;
@@ -101,7 +102,8 @@ class RevisionReverseFXMLControllerTest extends ApplicationTest {
 
         controller = new RevisionReverseFXMLController(mockStage, mockFxmlFileLoader,
                 mockTranslationService, mockMenuBarFXMLController, mockMenuDeckFXMLController,
-                mockCardService, mockDeckStatisticsService, mockCardRevisionService, mockDeckService);
+                mockCardService, mockDeckStatisticsService, mockCardRevisionService, mockDeckService,
+                new ClockService(Clock.systemDefaultZone()));
 
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/deck/RevisionReverseView.fxml"));
         fxmlLoader.setControllerFactory(param -> controller);
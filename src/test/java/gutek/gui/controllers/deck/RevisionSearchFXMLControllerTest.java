@@ -1,10 +1,13 @@
 package gutek.gui.controllers.deck;
 
+import gutek.domain.jobs.BackgroundJob;
+import gutek.entities.cards.CardBase;
 import gutek.entities.decks.DeckBase;
 import gutek.gui.controllers.MainStage;
 import gutek.gui.controllers.menu.MenuBarFXMLController;
 import gutek.gui.controllers.menu.MenuDeckFXMLController;
 import gutek.services.CardService;
+import gutek.services.DifficultCardService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
 import javafx.application.Platform;
@@ -13,6 +16,7 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import org.junit.jupiter.api.BeforeAll;
@@ -22,6 +26,8 @@ import org.testfx.api.FxToolkit;
 import org.testfx.framework.junit5.ApplicationTest;
 import org.testfx.util.WaitForAsyncUtils;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +38,7 @@ class RevisionSearchFXMLControllerTest extends ApplicationTest {
     private RevisionSearchFXMLController controller;
     private MenuBarFXMLController mockMenuBarController;
     private MenuDeckFXMLController mockMenuDeckController;
+    private CardService mockCardService;
 
     private DeckBase mockDeck;
 
@@ -51,7 +58,8 @@ class RevisionSearchFXMLControllerTest extends ApplicationTest {
     void setUp() throws Exception {
         FXMLFileLoader mockFxmlFileLoader = mock(FXMLFileLoader.class);
         TranslationService mockTranslationService = mock(TranslationService.class);
-        CardService mockCardService = mock(CardService.class);
+        mockCardService = mock(CardService.class);
+        DifficultCardService mockDifficultCardService = mock(DifficultCardService.class);
         mockMenuBarController = mock(MenuBarFXMLController.class);
         mockMenuDeckController = mock(MenuDeckFXMLController.class);
         MainStage mockStage = mock(MainStage.class);
@@ -63,7 +71,7 @@ class RevisionSearchFXMLControllerTest extends ApplicationTest {
 
         controller = new RevisionSearchFXMLController(mockStage, mockFxmlFileLoader,
                 mockTranslationService, mockMenuBarController, mockMenuDeckController,
-                mockCardService);
+                mockCardService, mockDifficultCardService);
 
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/deck/RevisionSearchView.fxml"));
         fxmlLoader.setControllerFactory(param -> controller);
@@ -98,14 +106,43 @@ class RevisionSearchFXMLControllerTest extends ApplicationTest {
         TextField frontTextField = (TextField) controller.getRoot().lookup("#frontInCardTextField");
         TextField backTextField = (TextField) controller.getRoot().lookup("#backInCardTextField");
         Button searchButton = (Button) controller.getRoot().lookup("#searchButton");
+        Button leechesButton = (Button) controller.getRoot().lookup("#leechesButton");
+        Button bulkEditButton = (Button) controller.getRoot().lookup("#bulkEditButton");
 
         // Assert
         assertNotNull(frontTextField, "Front text field should be initialized");
         assertNotNull(backTextField, "Back text field should be initialized");
         assertNotNull(searchButton, "Search button should be initialized");
         assertEquals("Translated", searchButton.getText());
+        assertEquals("Translated", leechesButton.getText());
+        assertEquals("Translated", bulkEditButton.getText());
 
         verify(mockMenuBarController, times(1)).updateTranslation();
         verify(mockMenuDeckController, times(1)).updateTranslation();
     }
+
+    @Test
+    void testTyping_StartsSingleSearchForLatestTerms() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        BackgroundJob<List<CardBase>> job = new BackgroundJob<>(null);
+        job.complete(List.of(new CardBase()));
+        when(mockCardService.findCardsByUserInBackground(anyString(), anyString(), any())).thenReturn(job);
+        TextField frontTextField = (TextField) controller.getRoot().lookup("#frontInCardTextField");
+
+        // Act
+        Platform.runLater(() -> {
+            frontTextField.setText("k");
+            frontTextField.setText("ko");
+            frontTextField.setText("kot");
+        });
+        WaitForAsyncUtils.sleep(RevisionSearchFXMLController.SEARCH_DELAY_MILLIS * 3L, TimeUnit.MILLISECONDS);
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        verify(mockCardService, times(1)).findCardsByUserInBackground(anyString(), anyString(), any());
+        verify(mockCardService).findCardsByUserInBackground("kot", "", mockDeck);
+        ListView<?> cardListView = (ListView<?>) controller.getRoot().lookup("#cardListView");
+        assertEquals(1, cardListView.getItems().size());
+    }
 }
@@ -5,6 +5,8 @@ import gutek.entities.decks.DeckBase;
 import gutek.gui.controllers.MainStage;
 import gutek.gui.controllers.menu.MenuBarFXMLController;
 import gutek.gui.controllers.menu.MenuDeckFXMLController;
+import gutek.services.FsrsOptimizationService;
+import gutek.services.ReschedulingService;
 import gutek.services.RevisionAlgorithmService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
@@ -75,7 +77,9 @@ class RevisionSettingsFXMLControllerTest extends ApplicationTest {
                 mockTranslationService,
                 mockMenuBarController,
                 mockMenuDeckController,
-                mockRevisionAlgorithmService
+                mockRevisionAlgorithmService,
+                mock(ReschedulingService.class),
+                mock(FsrsOptimizationService.class)
         );
 
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/deck/RevisionSettingsView.fxml"));
@@ -1,5 +1,7 @@
 package gutek.gui.controllers.deck;
 
+import gutek.domain.charts.ChartData;
+import gutek.domain.jobs.BackgroundJob;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.decks.DeckBase;
 import gutek.gui.controllers.MainStage;
@@ -70,6 +72,8 @@ class RevisionStatisticsFXMLControllerTest extends ApplicationTest {
                 new String[] { "Bar Chart", "Pie Chart" });
         when(mockChartService.getAvailableRanges()).thenReturn(
                 new String[] { "Last Week", "Last Month" });
+        when(mockChartService.computeDeckCompatibleSelectedChartData(anyInt(), anyInt(), eq(mockDeck)))
+                .thenAnswer(invocation -> completedJob(null));
 
         controller = new RevisionStatisticsFXMLController(
                 mockStage,
@@ -175,7 +179,10 @@ class RevisionStatisticsFXMLControllerTest extends ApplicationTest {
         FxToolkit.setupFixture(() -> {});
 
         LineChart<Number, Number> lineChart = new LineChart<>(new NumberAxis(), new NumberAxis());
-        when(mockChartService.getDeckCompatibleSelectedChart(0, 0, mockDeck))
+        ChartData chartData = new ChartData(new String[]{"0"}, new int[]{1});
+        when(mockChartService.computeDeckCompatibleSelectedChartData(0, 0, mockDeck))
+                .thenAnswer(invocation -> completedJob(chartData));
+        when(mockChartService.createDeckCompatibleSelectedChart(0, chartData, mockDeck))
                 .thenReturn(lineChart);
 
         // Act
@@ -202,7 +209,8 @@ class RevisionStatisticsFXMLControllerTest extends ApplicationTest {
         // Arrange
         FxToolkit.setupFixture(() -> {});
 
-        when(mockChartService.getDeckCompatibleSelectedChart(0, 0, mockDeck)).thenReturn(null);
+        when(mockChartService.computeDeckCompatibleSelectedChartData(0, 0, mockDeck))
+                .thenAnswer(invocation -> completedJob(null));
 
         // Act
         Platform.runLater(() -> {
@@ -221,4 +229,45 @@ class RevisionStatisticsFXMLControllerTest extends ApplicationTest {
         assertNotNull(chartContainer, "chartContainer should not be null");
         assertTrue(chartContainer.getChildrenUnmodifiable().isEmpty(), "Chart container should be empty when no chart is available");
     }
+
+    @Test
+    void testUpdateViewIgnoresCancelledComputation() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+
+        BackgroundJob<ChartData> slowJob = new BackgroundJob<>(null);
+        LineChart<Number, Number> lineChart = new LineChart<>(new NumberAxis(), new NumberAxis());
+        ChartData chartData = new ChartData(new String[]{"0"}, new int[]{1});
+        when(mockChartService.computeDeckCompatibleSelectedChartData(0, 0, mockDeck)).thenReturn(slowJob);
+        when(mockChartService.computeDeckCompatibleSelectedChartData(1, 0, mockDeck))
+                .thenAnswer(invocation -> completedJob(chartData));
+        when(mockChartService.createDeckCompatibleSelectedChart(1, chartData, mockDeck)).thenReturn(lineChart);
+
+        // Act
+        Platform.runLater(() -> {
+            ComboBox<String> chartTypeComboBox = lookup("#chartTypeComboBox").queryAs(ComboBox.class);
+            ComboBox<String> timeRangeComboBox = lookup("#timeRangeComboBox").queryAs(ComboBox.class);
+
+            timeRangeComboBox.getSelectionModel().select(0);
+            chartTypeComboBox.getSelectionModel().select(0);
+            controller.updateView();
+            chartTypeComboBox.getSelectionModel().select(1);
+            controller.updateView();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+        slowJob.complete(new ChartData(new String[0], new int[0]));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        Parent chartContainer = lookup("#chartContainer").query();
+        // Assert
+        assertTrue(slowJob.isCancelled(), "Previous computation should be cancelled");
+        assertEquals(1, chartContainer.getChildrenUnmodifiable().size(), "Chart container should have one chart");
+        assertEquals(lineChart, chartContainer.getChildrenUnmodifiable().getFirst(), "Chart container should display the latest chart");
+    }
+
+    private static BackgroundJob<ChartData> completedJob(ChartData data) {
+        BackgroundJob<ChartData> job = new BackgroundJob<>(null);
+        job.complete(data);
+        return job;
+    }
 }
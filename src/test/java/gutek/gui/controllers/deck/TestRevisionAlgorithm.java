@@ -6,6 +6,8 @@ import gutek.entities.cards.CardBase;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDate;
+
 @Getter
 @Setter
 public class TestRevisionAlgorithm extends RevisionAlgorithm<CardBase> {
@@ -51,4 +53,14 @@ public class TestRevisionAlgorithm extends RevisionAlgorithm<CardBase> {
     public void initializeDefaultRevisionStrategies() {
         // do nothing
     }
+
+    @Override
+    public void resetCard(CardBase card) {
+        // do nothing
+    }
+
+    @Override
+    public void replayRevision(int strategyIndex, int pressedButtonIndex, CardBase card, LocalDate revisionDate) {
+        // do nothing
+    }
 }
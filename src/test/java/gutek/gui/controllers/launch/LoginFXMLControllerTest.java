@@ -2,7 +2,9 @@ package gutek.gui.controllers.launch;
 
 import gutek.gui.controllers.MainStage;
 import gutek.gui.controllers.MainStageScenes;
+import gutek.entities.users.AppUser;
 import gutek.services.AppUserService;
+import gutek.services.GlobalSearchService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
 import javafx.application.Platform;
@@ -32,6 +34,7 @@ class LoginFXMLControllerTest extends ApplicationTest {
 
     private LoginFXMLController controller;
     private AppUserService mockAppUserService;
+    private GlobalSearchService mockGlobalSearchService;
     private MainStage mockStage;
 
     @BeforeAll
@@ -52,6 +55,7 @@ class LoginFXMLControllerTest extends ApplicationTest {
         TranslationService mockTranslationService = mock(TranslationService.class);
         mockStage = mock(MainStage.class);
         mockAppUserService = mock(AppUserService.class);
+        mockGlobalSearchService = mock(GlobalSearchService.class);
 
         when(mockStage.getStageScaleFactor()).thenReturn(1.0);
         when(mockTranslationService.getTranslation(anyString())).thenReturn("Translated");
@@ -60,7 +64,8 @@ class LoginFXMLControllerTest extends ApplicationTest {
                 mockStage,
                 mockFxmlFileLoader,
                 mockTranslationService,
-                mockAppUserService
+                mockAppUserService,
+                mockGlobalSearchService
         );
 
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/launch/LoginView.fxml"));
@@ -188,6 +193,7 @@ class LoginFXMLControllerTest extends ApplicationTest {
         // Assert
         verify(mockAppUserService, times(1)).loginUser("testUser", "testPassword");
         verify(mockStage, times(1)).setLoggedUser(any());
+        verify(mockGlobalSearchService, times(1)).buildIndex(any(AppUser.class));
         verify(mockStage, times(1)).setScene(MainStageScenes.DECKS_SCENE);
     }
 
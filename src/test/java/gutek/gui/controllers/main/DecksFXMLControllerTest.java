@@ -1,9 +1,15 @@
 package gutek.gui.controllers.main;
 
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardSummary;
+import gutek.domain.search.GlobalSearchResult;
 import gutek.entities.decks.DeckBase;
+import gutek.entities.users.AppUser;
 import gutek.gui.controllers.MainStage;
 import gutek.gui.controllers.menu.MenuBarFXMLController;
+import gutek.services.CardService;
 import gutek.services.DeckService;
+import gutek.services.GlobalSearchService;
 import gutek.services.TranslationService;
 import gutek.utils.FXMLFileLoader;
 import javafx.application.Platform;
@@ -12,6 +18,7 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,7 +27,9 @@ import org.testfx.api.FxToolkit;
 import org.testfx.framework.junit5.ApplicationTest;
 import org.testfx.util.WaitForAsyncUtils;
 
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +41,7 @@ class DecksFXMLControllerTest extends ApplicationTest {
     private MainStage mockStage;
     private TranslationService mockTranslationService;
     private MenuBarFXMLController mockMenuBarController;
+    private GlobalSearchService mockGlobalSearchService;
 
     @BeforeAll
     static void initToolkit() {
@@ -52,6 +62,7 @@ class DecksFXMLControllerTest extends ApplicationTest {
         mockTranslationService = mock(TranslationService.class);
         mockMenuBarController = mock(MenuBarFXMLController.class);
         DeckService mockDeckService = mock(DeckService.class);
+        mockGlobalSearchService = mock(GlobalSearchService.class);
 
         when(mockStage.getStageScaleFactor()).thenReturn(1.0);
         when(mockTranslationService.getTranslation(anyString())).thenReturn("Translated");
@@ -61,7 +72,9 @@ class DecksFXMLControllerTest extends ApplicationTest {
                 mockFxmlFileLoader,
                 mockTranslationService,
                 mockMenuBarController,
-                mockDeckService
+                mockDeckService,
+                mock(CardService.class),
+                mockGlobalSearchService
         );
 
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/main/DecksView.fxml"));
@@ -132,4 +145,43 @@ class DecksFXMLControllerTest extends ApplicationTest {
         // Assert
         assertFalse(deckListView.getItems().contains(mockDeck), "deckListView should not contain the removed deck");
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTyping_ShowsCardsFoundInAllDecks() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+
+        AppUser user = new AppUser();
+        when(mockStage.getLoggedUser()).thenReturn(user);
+        GlobalSearchResult result = new GlobalSearchResult(new CardSummary(1L, "kot", "cat"), 10L, "Animals");
+        BackgroundJob<List<GlobalSearchResult>> job = new BackgroundJob<>(null);
+        job.complete(List.of(result));
+        when(mockGlobalSearchService.searchInBackground(user, "kot")).thenReturn(job);
+        TextField globalSearchField = lookup("#globalSearchField").queryAs(TextField.class);
+        ListView<DeckBase> deckListView = lookup("#deckListView").queryAs(ListView.class);
+        ListView<GlobalSearchResult> globalSearchListView = lookup("#globalSearchListView").queryAs(ListView.class);
+
+        // Act
+        Platform.runLater(() -> {
+            globalSearchField.setText("k");
+            globalSearchField.setText("ko");
+            globalSearchField.setText("kot");
+        });
+        WaitForAsyncUtils.sleep(DecksFXMLController.SEARCH_DELAY_MILLIS * 3L, TimeUnit.MILLISECONDS);
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        verify(mockGlobalSearchService, times(1)).searchInBackground(user, "kot");
+        assertEquals(List.of(result), globalSearchListView.getItems());
+        assertTrue(globalSearchListView.isVisible(), "globalSearchListView should be shown while searching");
+        assertFalse(deckListView.isVisible(), "deckListView should be hidden while searching");
+
+        Platform.runLater(() -> globalSearchField.setText(""));
+        WaitForAsyncUtils.sleep(DecksFXMLController.SEARCH_DELAY_MILLIS * 3L, TimeUnit.MILLISECONDS);
+        WaitForAsyncUtils.waitForFxEvents();
+
+        assertTrue(deckListView.isVisible(), "deckListView should be shown again after clearing the phrase");
+        assertFalse(globalSearchListView.isVisible(), "globalSearchListView should be hidden after clearing the phrase");
+    }
 }
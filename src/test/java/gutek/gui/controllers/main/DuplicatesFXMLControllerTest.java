@@ -0,0 +1,230 @@
+package gutek.gui.controllers.main;
+
+import gutek.domain.duplicates.DuplicateCandidate;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardSummary;
+import gutek.domain.search.GlobalSearchResult;
+import gutek.entities.cards.CardBase;
+import gutek.entities.users.AppUser;
+import gutek.gui.controllers.MainStage;
+import gutek.gui.controllers.menu.MenuBarFXMLController;
+import gutek.services.CardService;
+import gutek.services.DuplicateDetectionService;
+import gutek.services.TranslationService;
+import gutek.utils.FXMLFileLoader;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testfx.api.FxToolkit;
+import org.testfx.framework.junit5.ApplicationTest;
+import org.testfx.util.WaitForAsyncUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DuplicatesFXMLControllerTest extends ApplicationTest {
+
+    private DuplicatesFXMLController controller;
+    private TranslationService mockTranslationService;
+    private MenuBarFXMLController mockMenuBarFXMLController;
+    private DuplicateDetectionService mockDuplicateDetectionService;
+    private CardService mockCardService;
+    private MainStage mockStage;
+    private AppUser user;
+
+    private final DuplicateCandidate firstPair = new DuplicateCandidate(
+            new GlobalSearchResult(new CardSummary(1L, "self-assured", "pewny siebie"), 10L, "English"),
+            new GlobalSearchResult(new CardSummary(2L, "self assured", "zarozumiały"), 20L, "Imported"), 0.8);
+
+    private final DuplicateCandidate secondPair = new DuplicateCandidate(
+            new GlobalSearchResult(new CardSummary(2L, "self assured", "zarozumiały"), 20L, "Imported"),
+            new GlobalSearchResult(new CardSummary(3L, "self assured!", "pewny"), 20L, "Imported"), 0.7);
+
+    @BeforeAll
+    static void initToolkit() {
+        try {
+            if (!Platform.isFxApplicationThread()) {
+                Platform.startup(() -> {
+                });
+            }
+        } catch (IllegalStateException e) {
+            // ignore
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FXMLFileLoader mockFxmlFileLoader = mock(FXMLFileLoader.class);
+        mockTranslationService = mock(TranslationService.class);
+        mockMenuBarFXMLController = mock(MenuBarFXMLController.class);
+        mockDuplicateDetectionService = mock(DuplicateDetectionService.class);
+        mockCardService = mock(CardService.class);
+        mockStage = mock(MainStage.class);
+        user = new AppUser();
+
+        when(mockStage.getStageScaleFactor()).thenReturn(1.0);
+        when(mockStage.getLoggedUser()).thenReturn(user);
+        when(mockTranslationService.getTranslation(anyString())).thenReturn("Translated");
+
+        controller = new DuplicatesFXMLController(
+                mockStage,
+                mockFxmlFileLoader,
+                mockTranslationService,
+                mockMenuBarFXMLController,
+                mockDuplicateDetectionService,
+                mockCardService
+        );
+
+        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/main/DuplicatesView.fxml"));
+        fxmlLoader.setControllerFactory(param -> controller);
+        Parent mockRoot = fxmlLoader.load();
+
+        when(mockFxmlFileLoader.loadFXML(eq("/fxml/main/DuplicatesView.fxml"), any()))
+                .thenReturn(mockRoot);
+
+        controller.loadViewFromFXML();
+
+        Platform.runLater(() -> {
+            Stage stage = new Stage();
+            when(mockStage.getStage()).thenReturn(stage);
+            stage.setScene(new Scene(controller.getRoot()));
+            stage.show();
+
+            WaitForAsyncUtils.waitForFxEvents();
+            controller.initWithParams();
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdateView_ShowsFoundDuplicates() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        givenFoundDuplicates(List.of(firstPair, secondPair));
+        ListView<DuplicateCandidate> duplicatesListView = lookup("#duplicatesListView").queryAs(ListView.class);
+        Label statusLabel = lookup("#statusLabel").queryAs(Label.class);
+
+        // Act
+        Platform.runLater(() -> controller.updateView());
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        verify(mockDuplicateDetectionService, times(1)).findDuplicatesInBackground(user);
+        assertEquals(List.of(firstPair, secondPair), duplicatesListView.getItems());
+        assertEquals("Translated: 2", statusLabel.getText());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testKeepFirst_RemovesSecondCardAndItsPairs() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        givenFoundDuplicates(List.of(firstPair, secondPair));
+        CardBase secondCard = new CardBase();
+        when(mockCardService.findCardById(1L)).thenReturn(Optional.of(new CardBase()));
+        when(mockCardService.findCardById(2L)).thenReturn(Optional.of(secondCard));
+        ListView<DuplicateCandidate> duplicatesListView = lookup("#duplicatesListView").queryAs(ListView.class);
+        Button keepFirstButton = lookup("#keepFirstButton").queryAs(Button.class);
+
+        // Act
+        Platform.runLater(() -> controller.updateView());
+        WaitForAsyncUtils.waitForFxEvents();
+        Platform.runLater(() -> {
+            duplicatesListView.getSelectionModel().select(firstPair);
+            keepFirstButton.fire();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        verify(mockCardService, times(1)).removeCard(secondCard);
+        verify(mockCardService, never()).mergeCards(any(), any());
+        assertTrue(duplicatesListView.getItems().isEmpty(), "Pairs of the removed card should be removed");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMerge_MergesSecondCardIntoFirstAndUpdatesItsPairs() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        DuplicateCandidate thirdPair = new DuplicateCandidate(firstPair.first(), secondPair.second(), 0.6);
+        givenFoundDuplicates(List.of(firstPair, thirdPair));
+        CardBase firstCard = new CardBase();
+        firstCard.setIdCard(1L);
+        firstCard.setFront("self-assured");
+        firstCard.setBack("pewny siebie, zarozumiały");
+        CardBase secondCard = new CardBase();
+        when(mockCardService.findCardById(1L)).thenReturn(Optional.of(firstCard));
+        when(mockCardService.findCardById(2L)).thenReturn(Optional.of(secondCard));
+        ListView<DuplicateCandidate> duplicatesListView = lookup("#duplicatesListView").queryAs(ListView.class);
+        Button mergeButton = lookup("#mergeButton").queryAs(Button.class);
+
+        // Act
+        Platform.runLater(() -> controller.updateView());
+        WaitForAsyncUtils.waitForFxEvents();
+        Platform.runLater(() -> {
+            duplicatesListView.getSelectionModel().select(firstPair);
+            mergeButton.fire();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        verify(mockCardService, times(1)).mergeCards(firstCard, secondCard);
+        assertEquals(1, duplicatesListView.getItems().size());
+        assertEquals("pewny siebie, zarozumiały", duplicatesListView.getItems().get(0).first().card().back());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDismiss_RemovesPairWithoutChangingCards() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+        givenFoundDuplicates(List.of(firstPair, secondPair));
+        ListView<DuplicateCandidate> duplicatesListView = lookup("#duplicatesListView").queryAs(ListView.class);
+        Button dismissButton = lookup("#dismissButton").queryAs(Button.class);
+
+        // Act
+        Platform.runLater(() -> controller.updateView());
+        WaitForAsyncUtils.waitForFxEvents();
+        Platform.runLater(() -> {
+            duplicatesListView.getSelectionModel().select(firstPair);
+            dismissButton.fire();
+        });
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        assertEquals(List.of(secondPair), duplicatesListView.getItems());
+        verifyNoInteractions(mockCardService);
+    }
+
+    @Test
+    void testUpdateSize() throws TimeoutException {
+        // Arrange
+        FxToolkit.setupFixture(() -> {});
+
+        // Act
+        Platform.runLater(() -> controller.updateSize());
+        WaitForAsyncUtils.waitForFxEvents();
+
+        // Assert
+        verify(mockMenuBarFXMLController, times(1)).updateSize();
+        assertEquals(1.0, controller.getScaleFactorProperty().get(), "Scale factor should be updated");
+    }
+
+    private void givenFoundDuplicates(List<DuplicateCandidate> candidates) {
+        BackgroundJob<List<DuplicateCandidate>> job = new BackgroundJob<>(null);
+        job.complete(candidates);
+        when(mockDuplicateDetectionService.findDuplicatesInBackground(user)).thenReturn(job);
+    }
+}
@@ -227,7 +227,18 @@ class MenuBarFXMLControllerTest extends ApplicationTest {
         verify(mockStage, times(1)).setScene(MainStageScenes.TRASH_SCENE);
 
         // Act
-        MenuItem authorsMenuItem = fileMenu.getItems().get(4);
+        MenuItem duplicatesMenuItem = fileMenu.getItems().get(3);
+        // Assert
+        assertNotNull(duplicatesMenuItem, "duplicatesMenuItem should not be null");
+
+        // Act
+        Platform.runLater(duplicatesMenuItem::fire);
+        WaitForAsyncUtils.waitForFxEvents();
+        // Assert
+        verify(mockStage, times(1)).setScene(MainStageScenes.DUPLICATES_SCENE);
+
+        // Act
+        MenuItem authorsMenuItem = fileMenu.getItems().get(5);
         // Assert
         assertNotNull(authorsMenuItem, "authorsMenuItem should not be null");
 
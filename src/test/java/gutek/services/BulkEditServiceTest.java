@@ -0,0 +1,258 @@
+package gutek.services;
+
+import gutek.domain.edits.BulkEdit;
+import gutek.domain.edits.BulkEditPreview;
+import gutek.domain.edits.BulkEditScope;
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardText;
+import gutek.entities.algorithms.FsrsRevisionAlgorithm;
+import gutek.entities.algorithms.SuperMemo2RevisionAlgorithm;
+import gutek.entities.cards.CardBase;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.users.AppUser;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BulkEditServiceTest {
+
+    private static final Long DECK_ID = 10L;
+    private static final Long TARGET_DECK_ID = 20L;
+
+    @Mock
+    private CardBaseRepository cardBaseRepository;
+
+    @Mock
+    private DeckBaseRepository deckBaseRepository;
+
+    @Mock
+    private DeckSnapshotService deckSnapshotService;
+
+    @Mock
+    private DailyAggregateService dailyAggregateService;
+
+    @Mock
+    private DifficultCardService difficultCardService;
+
+    @Mock
+    private StatisticsRebuildService statisticsRebuildService;
+
+    @Mock
+    private GlobalSearchService globalSearchService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService backgroundExecutor;
+
+    private BulkEditService bulkEditService;
+
+    private DeckBase deck;
+
+    private DeckBase targetDeck;
+
+    private List<CardBase> cards;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        backgroundExecutor = Executors.newSingleThreadExecutor();
+        bulkEditService = new BulkEditService(cardBaseRepository, deckBaseRepository, deckSnapshotService, dailyAggregateService,
+                difficultCardService, statisticsRebuildService, globalSearchService, eventPublisher, transactionManager, backgroundExecutor);
+
+        AppUser user = new AppUser();
+        user.setIdUser(1L);
+        deck = deck(DECK_ID, user);
+        targetDeck = deck(TARGET_DECK_ID, user);
+        cards = new ArrayList<>(List.of(
+                card(1L, "to run (verb)", "biegać"),
+                card(2L, "a dog", "pies"),
+                card(3L, "to swim (verb)", "pływać"),
+                card(4L, "(verb)", "błąd")));
+
+        when(deckBaseRepository.findById(DECK_ID)).thenReturn(Optional.of(deck));
+        when(deckBaseRepository.findById(TARGET_DECK_ID)).thenReturn(Optional.of(targetDeck));
+        when(cardBaseRepository.countByDeckIdDeck(DECK_ID)).thenAnswer(invocation -> cards.size());
+        when(cardBaseRepository.findTextsByDeckIdAfter(eq(DECK_ID), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            int limit = invocation.<Pageable>getArgument(2).getPageSize();
+            return cards.stream()
+                    .filter(card -> card.getIdCard() > afterId)
+                    .limit(limit)
+                    .map(card -> new CardText(card.getIdCard(), card.getDeck().getIdDeck(), card.getFront(), card.getBack()))
+                    .toList();
+        });
+        when(cardBaseRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return cards.stream().filter(card -> ids.contains(card.getIdCard())).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        backgroundExecutor.shutdownNow();
+    }
+
+    @Test
+    void testPreview_CountsChangesWithoutSavingCards() throws Exception {
+        // Arrange
+        BulkEdit edit = new BulkEdit(Pattern.compile("\\s*\\(verb\\)"), "", BulkEditScope.FRONT, false, null);
+
+        // Act
+        BulkEditPreview preview = bulkEditService.previewInBackground(deck, edit).getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(3, preview.matchingCount());
+        assertEquals(2, preview.changedCount());
+        assertEquals(1, preview.invalidCount());
+        assertEquals(List.of("to run", "to swim"), preview.samples().stream().map(change -> change.front()).toList());
+        verify(cardBaseRepository, never()).saveAll(any());
+        verifyNoInteractions(deckSnapshotService, eventPublisher);
+    }
+
+    @Test
+    void testPreview_ReadsLargeDeckInBatches() throws Exception {
+        // Arrange
+        cards = new ArrayList<>(LongStream.rangeClosed(1, BulkEditService.BATCH_SIZE * 2L + 1)
+                .mapToObj(id -> card(id, "card " + id, "karta"))
+                .toList());
+        BulkEdit edit = new BulkEdit(null, null, BulkEditScope.BOTH, false, TARGET_DECK_ID);
+
+        // Act
+        BulkEditPreview preview = bulkEditService.previewInBackground(deck, edit).getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(cards.size(), preview.changedCount());
+        assertEquals(BulkEditPreview.MAX_SAMPLES, preview.samples().size());
+        verify(cardBaseRepository, times(3)).findTextsByDeckIdAfter(eq(DECK_ID), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testApply_EditsMatchingCardsAndKeepsSnapshotInSync() throws Exception {
+        // Arrange
+        BulkEdit edit = new BulkEdit(Pattern.compile("\\s*\\(verb\\)"), "", BulkEditScope.FRONT, false, null);
+
+        // Act
+        Integer changedCount = bulkEditService.applyInBackground(deck, edit).getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, changedCount);
+        assertEquals("to run", cards.get(0).getFront());
+        assertEquals("to swim", cards.get(2).getFront());
+        assertEquals("(verb)", cards.get(3).getFront(), "A card left with a blank text should not be changed");
+        verify(cardBaseRepository).saveAll(List.of(cards.get(0), cards.get(2)));
+        verify(cardBaseRepository).flush();
+        verify(deckSnapshotService).beginCardsChange(deck);
+        ArgumentCaptor<Collection<CardBase>> completed = ArgumentCaptor.forClass(Collection.class);
+        verify(deckSnapshotService).completeCardsChange(eq(deck), completed.capture());
+        assertEquals(List.of(cards.get(0), cards.get(2)), List.copyOf(completed.getValue()));
+        verify(globalSearchService).cardSaved(cards.get(0));
+        verify(globalSearchService).cardSaved(cards.get(2));
+        verify(eventPublisher).publishEvent(new DeckCardsChangedEvent(DECK_ID, DeckCardsChangedEvent.ChangeType.EDITED));
+        verifyNoInteractions(dailyAggregateService, difficultCardService, statisticsRebuildService);
+    }
+
+    @Test
+    void testApply_MovesMatchingCardsWithTheirCounts() throws Exception {
+        // Arrange
+        BulkEdit edit = new BulkEdit(Pattern.compile("\\(verb\\)"), null, BulkEditScope.FRONT, false, TARGET_DECK_ID);
+        CardBase runCard = cards.get(0);
+
+        // Act
+        Integer changedCount = bulkEditService.applyInBackground(deck, edit).getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(3, changedCount);
+        assertSame(targetDeck, runCard.getDeck());
+        assertSame(deck, cards.get(1).getDeck());
+        verify(dailyAggregateService).cardMoved(runCard, DECK_ID);
+        verify(difficultCardService).cardRemoved(runCard);
+        verify(statisticsRebuildService).rebuildDeck(deck, true);
+        verify(statisticsRebuildService).rebuildDeck(targetDeck, true);
+        verify(deckSnapshotService).beginCardsChange(deck);
+        verify(deckSnapshotService).beginCardsChange(targetDeck);
+        verify(deckSnapshotService, never()).completeCardsChange(any(), any());
+        verify(eventPublisher).publishEvent(new DeckCardsChangedEvent(DECK_ID, DeckCardsChangedEvent.ChangeType.REMOVED));
+        verify(eventPublisher).publishEvent(new DeckCardsChangedEvent(TARGET_DECK_ID, DeckCardsChangedEvent.ChangeType.ADDED));
+    }
+
+    @Test
+    void testApply_RejectsTargetDeckWithAnotherAlgorithm() {
+        // Arrange
+        targetDeck.setRevisionAlgorithm(new FsrsRevisionAlgorithm());
+        BulkEdit edit = new BulkEdit(null, null, BulkEditScope.BOTH, false, TARGET_DECK_ID);
+
+        // Act
+        BackgroundJob<Integer> job = bulkEditService.applyInBackground(deck, edit);
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> job.getResult().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        assertSame(deck, cards.get(0).getDeck());
+        verify(cardBaseRepository, never()).saveAll(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testFindMoveTargets_ListsOtherDecksWithSameAlgorithm() {
+        // Arrange
+        DeckBase fsrsDeck = deck(30L, deck.getUser());
+        fsrsDeck.setRevisionAlgorithm(new FsrsRevisionAlgorithm());
+        when(deckBaseRepository.findByUserAndIsDeletedFalse(deck.getUser())).thenReturn(List.of(deck, targetDeck, fsrsDeck));
+
+        // Act
+        List<DeckBase> targets = bulkEditService.findMoveTargets(deck);
+
+        // Assert
+        assertEquals(List.of(targetDeck), targets);
+    }
+
+    private static DeckBase deck(Long deckId, AppUser user) {
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(deckId);
+        deck.setUser(user);
+        deck.setIsDeleted(false);
+        deck.setRevisionAlgorithm(new SuperMemo2RevisionAlgorithm());
+        return deck;
+    }
+
+    private CardBase card(Long cardId, String front, String back) {
+        CardBase card = new CardBase();
+        card.setIdCard(cardId);
+        card.setFront(front);
+        card.setBack(back);
+        card.setDeck(deck);
+        return card;
+    }
+}
@@ -1,8 +1,10 @@
 package gutek.services;
 
+import gutek.domain.events.DeckCardsChangedEvent;
 import gutek.domain.revisions.RevisionStrategy;
 import gutek.entities.cards.CardBase;
 import gutek.entities.cards.CardBaseRevision;
+import gutek.entities.decks.DeckBase;
 import gutek.repositories.CardBaseRepository;
 import gutek.repositories.CardBaseRevisionRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,7 +12,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.Optional;
 
@@ -28,12 +32,23 @@ class CardRevisionServiceTest {
     @Mock
     private RevisionStrategy<?> revisionStrategy;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DailyAggregateService dailyAggregateService;
+
+    @Mock
+    private DifficultCardService difficultCardService;
+
     private CardRevisionService cardRevisionService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        cardRevisionService = new CardRevisionService(cardBaseRevisionRepository, cardBaseRepository);
+        cardRevisionService = new CardRevisionService(cardBaseRevisionRepository, cardBaseRepository,
+                new ClockService(Clock.systemDefaultZone()), eventPublisher, dailyAggregateService,
+                difficultCardService);
     }
 
     @Test
@@ -79,5 +94,64 @@ class CardRevisionServiceTest {
 
         // Assert
         verify(cardBaseRevisionRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testRevise_PublishesDeckCardsChangedEvent() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(5L);
+        CardBase cardFromRepo = new CardBase();
+        cardFromRepo.setIdCard(1L);
+        cardFromRepo.setDeck(deck);
+
+        when(cardBaseRepository.findById(1L)).thenReturn(Optional.of(cardFromRepo));
+
+        // Act
+        cardRevisionService.revise(cardFromRepo, 0, revisionStrategy);
+
+        // Assert
+        verify(eventPublisher).publishEvent(new DeckCardsChangedEvent(5L, DeckCardsChangedEvent.ChangeType.REVISED));
+    }
+
+    @Test
+    void testRevise_CountsRevisionInDailyAggregates() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(5L);
+        CardBase cardFromRepo = new CardBase();
+        cardFromRepo.setIdCard(1L);
+        cardFromRepo.setDeck(deck);
+
+        when(cardBaseRepository.findById(1L)).thenReturn(Optional.of(cardFromRepo));
+        when(cardBaseRevisionRepository.existsByCardBase(cardFromRepo)).thenReturn(false, true);
+
+        // Act
+        cardRevisionService.revise(cardFromRepo, 3, revisionStrategy);
+        cardRevisionService.revise(cardFromRepo, 1, revisionStrategy);
+
+        // Assert
+        String strategyClassName = revisionStrategy.getClass().getSimpleName();
+        verify(dailyAggregateService).cardRevised(5L, LocalDate.now(), strategyClassName, 3, true);
+        verify(dailyAggregateService).cardRevised(5L, LocalDate.now(), strategyClassName, 1, false);
+    }
+
+    @Test
+    void testRevise_UpdatesDifficultCardsIndex() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(5L);
+        CardBase cardFromRepo = new CardBase();
+        cardFromRepo.setIdCard(1L);
+        cardFromRepo.setDeck(deck);
+
+        when(cardBaseRepository.findById(1L)).thenReturn(Optional.of(cardFromRepo));
+
+        // Act
+        cardRevisionService.revise(cardFromRepo, 0, revisionStrategy);
+
+        // Assert
+        verify(difficultCardService).cardRevised(cardFromRepo, 0);
     }
-}
\ No newline at end of file
+}
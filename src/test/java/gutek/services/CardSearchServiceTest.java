@@ -0,0 +1,131 @@
+package gutek.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardSearchServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private CardSearchService cardSearchService;
+
+    @BeforeEach
+    void setUp() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + directory.resolve("cards.db"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String table : List.of("card_base", "card_super_memo2")) {
+            jdbcTemplate.execute("CREATE TABLE " + table + " (id_card bigint not null, back varchar(255), front varchar(255), " +
+                    "deck_id_deck bigint, primary key (id_card))");
+        }
+        cardSearchService = new CardSearchService(jdbcTemplate);
+    }
+
+    private void insert(String table, long id, String front, String back, long deckId) {
+        jdbcTemplate.update("INSERT INTO " + table + " (id_card, front, back, deck_id_deck) VALUES (?, ?, ?, ?)", id, front, back, deckId);
+    }
+
+    @Test
+    void search_ReturnsAtMostMaxResultsCards() {
+        // Arrange
+        cardSearchService.initialize();
+        jdbcTemplate.update("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < ?) " +
+                "INSERT INTO card_super_memo2 (id_card, front, back, deck_id_deck) SELECT i, 'kot ' || i, 'cat', 1 FROM n",
+                CardSearchService.MAX_RESULTS + 1);
+
+        // Act
+        List<Long> cardIds = cardSearchService.search("k", "", 1L).orElseThrow();
+
+        // Assert
+        assertEquals(CardSearchService.MAX_RESULTS, cardIds.size());
+    }
+
+    @Test
+    void initialize_IndexesExistingCardsOfAllCardTables() {
+        // Arrange
+        insert("card_base", 1L, "Łódź", "city", 1L);
+        insert("card_super_memo2", 2L, "Straße", "street", 1L);
+
+        // Act
+        cardSearchService.initialize();
+
+        // Assert
+        assertTrue(cardSearchService.isAvailable());
+        assertEquals(Optional.of(List.of(1L)), cardSearchService.search("lodz", "", 1L));
+        assertEquals(List.of(2L), cardSearchService.search("STRASSE", "", 1L).orElseThrow());
+    }
+
+    @Test
+    void search_FollowsInsertsUpdatesAndDeletesThroughTriggers() {
+        // Arrange
+        cardSearchService.initialize();
+        insert("card_super_memo2", 1L, "żółw", "turtle", 1L);
+        insert("card_super_memo2", 2L, "kot", "cat", 1L);
+        insert("card_base", 3L, "żółty", "yellow", 2L);
+
+        // Act
+        jdbcTemplate.update("UPDATE card_super_memo2 SET front = 'żółwik' WHERE id_card = 2");
+        jdbcTemplate.update("DELETE FROM card_super_memo2 WHERE id_card = 1");
+
+        // Assert
+        assertEquals(List.of(2L), cardSearchService.search("zolw", "", 1L).orElseThrow());
+        assertEquals(List.of(3L), cardSearchService.search("Żół", "", 2L).orElseThrow());
+        assertEquals(List.of(), cardSearchService.search("", "turtle", 1L).orElseThrow());
+    }
+
+    @Test
+    void search_MatchesWordPrefixesOfBothColumns() {
+        // Arrange
+        cardSearchService.initialize();
+        insert("card_base", 1L, "le café noir", "black coffee", 1L);
+        insert("card_base", 2L, "le café", "the café", 1L);
+
+        // Act & Assert
+        assertEquals(List.of(1L), cardSearchService.search("caf no", "coff", 1L).orElseThrow());
+        assertEquals(2, cardSearchService.search("cafe", "", 1L).orElseThrow().size());
+    }
+
+    @Test
+    void search_RanksBetterMatchesFirst() {
+        // Arrange
+        cardSearchService.initialize();
+        insert("card_base", 1L, "kot i pies w ogrodzie pod drzewem", "cat and dog", 1L);
+        insert("card_base", 2L, "kot", "cat", 1L);
+
+        // Act & Assert
+        assertEquals(List.of(2L, 1L), cardSearchService.search("kot", "", 1L).orElseThrow());
+    }
+
+    @Test
+    void initialize_RebuildsIndex_WhenItDoesNotMatchCards() {
+        // Arrange
+        cardSearchService.initialize();
+        insert("card_base", 1L, "kot", "cat", 1L);
+        jdbcTemplate.execute("DELETE FROM " + CardSearchService.INDEX_TABLE);
+
+        // Act
+        new CardSearchService(jdbcTemplate).initialize();
+
+        // Assert
+        assertEquals(List.of(1L), cardSearchService.search("kot", "", 1L).orElseThrow());
+    }
+
+    @Test
+    void search_ReturnsEmpty_WhenIndexIsNotInitialized() {
+        // Act & Assert
+        assertFalse(cardSearchService.isAvailable());
+        assertTrue(cardSearchService.search("kot", "", 1L).isEmpty());
+    }
+}
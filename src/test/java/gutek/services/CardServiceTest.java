@@ -1,5 +1,9 @@
 package gutek.services;
 
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardPageSource;
+import gutek.domain.search.CardSummary;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.cards.CardBase;
 import gutek.entities.decks.DeckBase;
@@ -8,15 +12,28 @@ import gutek.repositories.CardBaseRevisionRepository;
 import gutek.repositories.DeckBaseRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class CardServiceTest {
@@ -30,12 +47,39 @@ class CardServiceTest {
     @Mock
     private CardBaseRevisionRepository cardBaseRevisionRepository;
 
+    @Mock
+    private DeckSnapshotService deckSnapshotService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DailyAggregateService dailyAggregateService;
+
+    @Mock
+    private DifficultCardService difficultCardService;
+
+    @Mock
+    private CardSearchService cardSearchService;
+
+    @Mock
+    private GlobalSearchService globalSearchService;
+
+    @Mock
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @Mock
+    private TagService tagService;
+
     private CardService cardService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        cardService = new CardService(cardBaseRepository, deckBaseRepository, cardBaseRevisionRepository);
+        cardService = new CardService(cardBaseRepository, deckBaseRepository, cardBaseRevisionRepository, deckSnapshotService,
+                new ClockService(Clock.systemDefaultZone()), eventPublisher, dailyAggregateService,
+                difficultCardService, cardSearchService, Executors.newSingleThreadExecutor(), globalSearchService,
+                duplicateDetectionService, tagService);
     }
 
     @Test
@@ -61,6 +105,10 @@ class CardServiceTest {
         verify(deckBaseRepository, times(1)).save(mockDeck);
         verify(cardBaseRepository, times(1)).delete(mockCard);
         verify(cardBaseRevisionRepository, times(1)).deleteByCardBase(mockCard);
+        verify(dailyAggregateService, times(1)).cardRemoved(mockCard);
+        verify(difficultCardService, times(1)).cardRemoved(mockCard);
+        verify(duplicateDetectionService, times(1)).cardRemoved(mockCard);
+        verify(tagService, times(1)).cardRemoved(mockCard);
     }
 
     @Test
@@ -133,6 +181,29 @@ class CardServiceTest {
         // Assert
         verify(cardBaseRepository, times(1)).save(mockNewCard);
         verify(deckBaseRepository, times(1)).save(mockDeck);
+        verify(eventPublisher).publishEvent(new DeckCardsChangedEvent(deckId, DeckCardsChangedEvent.ChangeType.ADDED));
+        verify(dailyAggregateService, times(1)).cardAdded(mockNewCard);
+    }
+
+    @Test
+    void testAddNewCard_AppendsCardToDeckSnapshot() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(1L);
+        RevisionAlgorithm<CardBase> revisionAlgorithm = mock(RevisionAlgorithm.class);
+        deck.setRevisionAlgorithm((RevisionAlgorithm) revisionAlgorithm);
+        CardBase newCard = new CardBase();
+        when(deckBaseRepository.findById(1L)).thenReturn(Optional.of(deck));
+        when(revisionAlgorithm.createNewCard("Front", "Back")).thenReturn(newCard);
+
+        // Act
+        cardService.addNewCard("Front", "Back", deck);
+
+        // Assert
+        InOrder inOrder = inOrder(deckSnapshotService, cardBaseRepository);
+        inOrder.verify(deckSnapshotService).beginCardsChange(deck);
+        inOrder.verify(cardBaseRepository).save(newCard);
+        inOrder.verify(deckSnapshotService).completeCardsChange(deck, List.of(newCard));
     }
 
     @Test
@@ -153,6 +224,8 @@ class CardServiceTest {
         // Assert
         verify(cardBaseRepository, never()).save(any());
         verify(deckBaseRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        verify(dailyAggregateService, never()).cardAdded(any());
     }
 
     @Test
@@ -167,6 +240,67 @@ class CardServiceTest {
         verify(cardBaseRepository, times(1)).save(mockCard);
     }
 
+    @Test
+    void testSaveCard_UpdatesDeckSnapshot() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(1L);
+        CardBase card = new CardBase();
+        card.setDeck(deck);
+
+        // Act
+        cardService.saveCard(card);
+
+        // Assert
+        InOrder inOrder = inOrder(deckSnapshotService, cardBaseRepository);
+        inOrder.verify(deckSnapshotService).beginCardsChange(deck);
+        inOrder.verify(cardBaseRepository).save(card);
+        inOrder.verify(deckSnapshotService).completeCardsChange(deck, List.of(card));
+    }
+
+    @Test
+    void testSaveCard_PublishesDeckCardsChangedEvent() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(1L);
+        CardBase card = new CardBase();
+        card.setDeck(deck);
+
+        // Act
+        cardService.saveCard(card);
+
+        // Assert
+        verify(eventPublisher).publishEvent(new DeckCardsChangedEvent(1L, DeckCardsChangedEvent.ChangeType.EDITED));
+    }
+
+    @Test
+    void testMergeCards_KeepsCardWithAlternativesOfBothAndRemovesOther() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(1L);
+        CardBase keptCard = new CardBase();
+        keptCard.setIdCard(2L);
+        keptCard.setDeck(deck);
+        keptCard.setBack("pewny siebie");
+        CardBase removedCard = new CardBase();
+        removedCard.setIdCard(3L);
+        removedCard.setDeck(deck);
+        removedCard.setBack("Pewny siebie; zarozumiały");
+
+        when(deckBaseRepository.findById(1L)).thenReturn(Optional.of(deck));
+        when(cardBaseRepository.findById(3L)).thenReturn(Optional.of(removedCard));
+
+        // Act
+        cardService.mergeCards(keptCard, removedCard);
+
+        // Assert
+        assertEquals("pewny siebie, zarozumiały", keptCard.getBack());
+        verify(cardBaseRepository, times(1)).save(keptCard);
+        verify(cardBaseRepository, times(1)).delete(removedCard);
+        verify(cardBaseRepository, never()).delete(keptCard);
+        verify(duplicateDetectionService, times(1)).cardRemoved(removedCard);
+    }
+
     @Test
     void testFindCardsByUser_WhenBothPhrasesAreEmpty() {
         // Arrange
@@ -182,13 +316,120 @@ class CardServiceTest {
         verify(cardBaseRepository, times(1)).findByDeck(mockDeck);
     }
 
+    @Test
+    void testFindCardsByUser_UsesFullTextIndexOrder_WhenAvailable() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(4L);
+        CardBase first = new CardBase();
+        first.setIdCard(1L);
+        CardBase second = new CardBase();
+        second.setIdCard(2L);
+        when(cardSearchService.search("lodz", "", 4L)).thenReturn(Optional.of(List.of(2L, 1L)));
+        when(cardBaseRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(first, second));
+
+        // Act
+        List<CardBase> result = cardService.findCardsByUser("lodz", "", deck);
+
+        // Assert
+        assertEquals(List.of(second, first), result);
+        verify(cardBaseRepository, never()).findByFrontNormalizedContainingAndDeck(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindCardsByUser_LoadsMatchingCardsInBatches() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(4L);
+        List<Long> cardIds = LongStream.rangeClosed(1, CardService.BATCH_SIZE + 1).boxed().toList();
+        when(cardSearchService.search("a", "", 4L)).thenReturn(Optional.of(cardIds));
+        when(cardBaseRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<CardBase> cards = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(id -> {
+                CardBase card = new CardBase();
+                card.setIdCard(id);
+                cards.add(card);
+            });
+            return cards;
+        });
+
+        // Act
+        List<CardBase> result = cardService.findCardsByUser("a", "", deck);
+
+        // Assert
+        assertEquals(cardIds, result.stream().map(CardBase::getIdCard).toList());
+        ArgumentCaptor<Iterable<Long>> batches = ArgumentCaptor.forClass(Iterable.class);
+        verify(cardBaseRepository, times(2)).findAllById(batches.capture());
+        assertEquals(List.of(CardService.BATCH_SIZE, 1), batches.getAllValues().stream()
+                .map(batch -> ((List<Long>) batch).size()).toList());
+    }
+
+    @Test
+    void testFindCardsByUserInBackground_CompletesWithMatchingCards() throws Exception {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        List<CardBase> cards = List.of(new CardBase());
+        when(cardBaseRepository.findByFrontNormalizedContainingAndDeck("front", deck)).thenReturn(cards);
+
+        // Act
+        BackgroundJob<List<CardBase>> job = cardService.findCardsByUserInBackground("Front", "", deck);
+
+        // Assert
+        assertEquals(cards, job.getResult().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFindCardsByUserInBackground_SkipsQuery_WhenCancelledBeforeStart() throws Exception {
+        // Arrange
+        ExecutorService executor = mock(ExecutorService.class);
+        cardService = new CardService(cardBaseRepository, deckBaseRepository, cardBaseRevisionRepository, deckSnapshotService,
+                new ClockService(Clock.systemDefaultZone()), eventPublisher, dailyAggregateService,
+                difficultCardService, cardSearchService, executor, globalSearchService,
+                duplicateDetectionService, tagService);
+        BackgroundJob<List<CardBase>> job = cardService.findCardsByUserInBackground("Front", "", new DeckBase());
+        ArgumentCaptor<Runnable> search = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).execute(search.capture());
+
+        // Act
+        job.cancel();
+        search.getValue().run();
+
+        // Assert
+        assertNull(job.getResult().get());
+        verifyNoInteractions(cardBaseRepository, cardSearchService);
+    }
+
+    @Test
+    void testGetCardPageSource_ReadsSummariesOfDeckByKeyset() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(4L);
+        CardSummary first = new CardSummary(5L, "a", "b");
+        CardSummary second = new CardSummary(7L, "c", "d");
+        when(cardBaseRepository.countByDeckIdDeck(4L)).thenReturn(2);
+        when(cardBaseRepository.findSummariesByDeckIdAfter(4L, 3L, PageRequest.of(0, 2))).thenReturn(List.of(first, second));
+        when(cardBaseRepository.findSummariesByDeckIdBefore(4L, 9L, PageRequest.of(0, 2))).thenReturn(List.of(second, first));
+        when(cardBaseRepository.findSummariesByDeckId(4L, PageRequest.of(3, 2))).thenReturn(List.of(first));
+
+        // Act
+        CardPageSource source = cardService.getCardPageSource(deck);
+
+        // Assert
+        assertEquals(2, source.count());
+        assertEquals(List.of(first, second), source.findAfter(3L, 2));
+        assertEquals(List.of(first, second), source.findBefore(9L, 2));
+        assertEquals(List.of(first), source.findPage(3, 2));
+        verify(cardBaseRepository, never()).findByDeck(any());
+    }
+
     @Test
     void testFindCardsByUser_WhenOnlyFrontPhraseIsProvided() {
         // Arrange
         String phraseInFront = "Front";
         DeckBase mockDeck = new DeckBase();
 
-        when(cardBaseRepository.findByFrontContainingAndDeck(phraseInFront, mockDeck))
+        when(cardBaseRepository.findByFrontNormalizedContainingAndDeck("front", mockDeck))
                 .thenReturn(List.of(new CardBase()));
 
         // Act
@@ -196,7 +437,7 @@ class CardServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(cardBaseRepository, times(1)).findByFrontContainingAndDeck(phraseInFront, mockDeck);
+        verify(cardBaseRepository, times(1)).findByFrontNormalizedContainingAndDeck("front", mockDeck);
     }
 
     @Test
@@ -205,7 +446,7 @@ class CardServiceTest {
         String phraseInBack = "Back";
         DeckBase mockDeck = new DeckBase();
 
-        when(cardBaseRepository.findByBackContainingAndDeck(phraseInBack, mockDeck))
+        when(cardBaseRepository.findByBackNormalizedContainingAndDeck("back", mockDeck))
                 .thenReturn(List.of(new CardBase()));
 
         // Act
@@ -213,7 +454,7 @@ class CardServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(cardBaseRepository, times(1)).findByBackContainingAndDeck(phraseInBack, mockDeck);
+        verify(cardBaseRepository, times(1)).findByBackNormalizedContainingAndDeck("back", mockDeck);
     }
 
     @Test
@@ -224,7 +465,7 @@ class CardServiceTest {
         DeckBase mockDeck = mock(DeckBase.class);
         List<CardBase> mockCards = Arrays.asList(mock(CardBase.class), mock(CardBase.class));
 
-        when(cardBaseRepository.findByFrontContainingAndBackContainingAndDeck(phraseInFront, phraseInBack, mockDeck))
+        when(cardBaseRepository.findByFrontNormalizedContainingAndBackNormalizedContainingAndDeck("front", "back", mockDeck))
                 .thenReturn(mockCards);
 
         // Act
@@ -241,7 +482,7 @@ class CardServiceTest {
         DeckBase mockDeck = new DeckBase();
         CardBase mockCard = new CardBase();
 
-        when(cardBaseRepository.findByFrontAndDeck(frontText, mockDeck)).thenReturn(Optional.of(mockCard));
+        when(cardBaseRepository.findFirstByFrontNormalizedAndDeck("front", mockDeck)).thenReturn(Optional.of(mockCard));
 
         // Act
         Optional<CardBase> result = cardService.findCardByFrontAndDeck(frontText, mockDeck);
@@ -249,6 +490,104 @@ class CardServiceTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals(mockCard, result.get());
-        verify(cardBaseRepository, times(1)).findByFrontAndDeck(frontText, mockDeck);
+        verify(cardBaseRepository, times(1)).findFirstByFrontNormalizedAndDeck("front", mockDeck);
+    }
+
+    @Test
+    void testFindCardsByUser_MatchesNormalizedTexts_WhenIndexIsNotAvailable() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(4L);
+        List<CardBase> cards = List.of(new CardBase());
+        when(cardSearchService.search(any(), any(), any())).thenReturn(Optional.empty());
+        when(cardBaseRepository.findByFrontNormalizedContainingAndDeck("zrodlo swiatla", deck)).thenReturn(cards);
+
+        // Act
+        List<CardBase> result = cardService.findCardsByUser("  Źródło   ŚWIATŁA ", "", deck);
+
+        // Assert
+        assertEquals(cards, result);
+    }
+
+    @Test
+    void testFilterNewCards_SkipsFrontsUsedInDeckOrEarlierInImport() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(4L);
+        CardBase existing = card("Źródło", deck);
+        CardBase fresh = card("dog", deck);
+        CardBase repeated = card(" DOG ", deck);
+        CardBase other = card("cat", deck);
+        when(cardBaseRepository.findFrontsNormalizedByDeckIdIn(4L, List.of("zrodlo", "dog", "cat")))
+                .thenReturn(List.of("zrodlo"));
+
+        // Act
+        List<CardBase> result = cardService.filterNewCards(List.of(existing, fresh, repeated, other), deck);
+
+        // Assert
+        assertEquals(List.of(fresh, other), result);
+        verify(cardBaseRepository, never()).findByDeck(any());
+    }
+
+    @Test
+    void testFilterNewCards_LooksUpFrontsInBatches() {
+        // Arrange
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(4L);
+        List<CardBase> importedCards = IntStream.range(0, CardService.BATCH_SIZE + 1)
+                .mapToObj(index -> card("card " + index, deck))
+                .toList();
+        when(cardBaseRepository.findFrontsNormalizedByDeckIdIn(eq(4L), any())).thenReturn(List.of());
+
+        // Act
+        List<CardBase> result = cardService.filterNewCards(importedCards, deck);
+
+        // Assert
+        assertEquals(importedCards, result);
+        verify(cardBaseRepository, times(2)).findFrontsNormalizedByDeckIdIn(eq(4L), any());
+    }
+
+    @Test
+    void testNormalizeMissingTexts_NormalizesCardsInBatches() throws Exception {
+        // Arrange
+        CardBase first = new CardBase();
+        first.setIdCard(3L);
+        CardBase second = new CardBase();
+        second.setIdCard(8L);
+        ReflectionTestUtils.setField(first, "front", "Łódź");
+        ReflectionTestUtils.setField(second, "back", " Ça  va ");
+        when(cardBaseRepository.findIdsWithoutNormalizedTextsAfter(0L, PageRequest.of(0, CardService.BATCH_SIZE)))
+                .thenReturn(List.of(3L, 8L));
+        when(cardBaseRepository.findIdsWithoutNormalizedTextsAfter(8L, PageRequest.of(0, CardService.BATCH_SIZE)))
+                .thenReturn(List.of());
+        when(cardBaseRepository.findAllById(List.of(3L, 8L))).thenReturn(List.of(first, second));
+
+        // Act
+        Integer normalizedCount = cardService.normalizeMissingTexts().getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, normalizedCount);
+        assertEquals("lodz", first.getFrontNormalized());
+        assertEquals("", first.getBackNormalized());
+        assertEquals("ca va", second.getBackNormalized());
+        verify(cardBaseRepository).saveAll(List.of(first, second));
+    }
+
+    @Test
+    void testNormalizeMissingTextsOnStartup_StartsNormalizationAndDoesNotPropagateItsFailure() {
+        // Arrange
+        when(cardBaseRepository.findIdsWithoutNormalizedTextsAfter(0L, PageRequest.of(0, CardService.BATCH_SIZE)))
+                .thenThrow(new IllegalStateException("Database closed"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> cardService.normalizeMissingTextsOnStartup());
+        verify(cardBaseRepository, timeout(5000)).findIdsWithoutNormalizedTextsAfter(0L, PageRequest.of(0, CardService.BATCH_SIZE));
+    }
+
+    private static CardBase card(String front, DeckBase deck) {
+        CardBase card = new CardBase();
+        card.setFront(front);
+        card.setDeck(deck);
+        return card;
     }
 }
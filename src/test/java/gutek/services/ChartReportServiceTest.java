@@ -0,0 +1,180 @@
+package gutek.services;
+
+import gutek.domain.charts.ChartData;
+import gutek.domain.charts.ChartEntry;
+import gutek.domain.charts.charts.StatisticsChart;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.reports.ChartReport;
+import gutek.domain.reports.ReportFormat;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.users.AppUser;
+import gutek.repositories.DeckBaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ChartReportServiceTest {
+
+    private static final ChartData DATA = new ChartData(new String[]{"-1", "0"}, new int[]{2, 3});
+
+    @Mock
+    private ChartService chartService;
+
+    @Mock
+    private DeckBaseRepository deckBaseRepository;
+
+    @Mock
+    private StatisticsChart chart;
+
+    @TempDir
+    private Path outputDirectory;
+
+    private ExecutorService backgroundExecutor;
+
+    private ChartReportService chartReportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        backgroundExecutor = Executors.newFixedThreadPool(2);
+        chartReportService = new ChartReportService(chartService, deckBaseRepository, backgroundExecutor);
+        when(chart.computeData(anyInt(), any(), any())).thenReturn(DATA);
+        when(chart.createReport(any(), any(), any()))
+                .thenReturn(new ChartReport("Title", "Day", "Cards", ChartReport.Style.BAR, DATA));
+        when(chartService.getDeckCompatibleCharts(any()))
+                .thenReturn(List.of(new ChartEntry(chart, null), new ChartEntry(chart, 1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        backgroundExecutor.shutdownNow();
+    }
+
+    private static DeckBase deck(long id, boolean deleted) {
+        AppUser user = new AppUser();
+        user.setIdUser(7L);
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(id);
+        deck.setUser(user);
+        deck.setIsDeleted(deleted);
+        return deck;
+    }
+
+    @Test
+    void generateReports_ShouldWriteEveryChartOfEveryDeckInEveryFormat() throws Exception {
+        // Arrange
+        List<DeckBase> decks = List.of(deck(1L, false), deck(2L, false));
+
+        // Act
+        BackgroundJob<Integer> job = chartReportService.generateReports(decks, 31,
+                EnumSet.of(ReportFormat.CSV, ReportFormat.SVG), outputDirectory, null);
+
+        // Assert
+        assertEquals(8, job.getResult().get(10, TimeUnit.SECONDS));
+        assertEquals(2, job.getProcessedCount());
+        String chartName = chart.getClass().getSimpleName();
+        Path deckDirectory = outputDirectory.resolve("user-7").resolve("deck-2");
+        assertTrue(Files.exists(deckDirectory.resolve(chartName + ".csv")));
+        assertTrue(Files.exists(deckDirectory.resolve(chartName + "-1.svg")));
+        verify(chart).computeData(31, decks.get(0), 1);
+        verify(chart).computeData(31, decks.get(1), null);
+    }
+
+    @Test
+    void generateReports_ShouldSkipDecks_WhenCancelled() throws Exception {
+        // Arrange
+        ExecutorService blockedExecutor = Executors.newSingleThreadExecutor();
+        ChartReportService service = new ChartReportService(chartService, deckBaseRepository, blockedExecutor);
+        blockedExecutor.execute(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Act
+        BackgroundJob<Integer> job = service.generateReports(List.of(deck(1L, false)), 31,
+                EnumSet.of(ReportFormat.CSV), outputDirectory, null);
+        job.cancel();
+
+        // Assert
+        assertEquals(0, job.getResult().get(10, TimeUnit.SECONDS));
+        verify(chart, never()).computeData(anyInt(), any(), any());
+        blockedExecutor.shutdownNow();
+    }
+
+    @Test
+    void generateReports_ShouldProcessAtMostOneDeckPerProcessorAtOnce() throws Exception {
+        // Arrange
+        ExecutorService cachedExecutor = Executors.newCachedThreadPool();
+        ChartReportService service = new ChartReportService(chartService, deckBaseRepository, cachedExecutor);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(chart.computeData(anyInt(), any(), any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return DATA;
+        });
+        List<DeckBase> decks = LongStream.rangeClosed(1, ChartReportService.PARALLELISM * 4L)
+                .mapToObj(id -> deck(id, false))
+                .toList();
+
+        // Act
+        BackgroundJob<Integer> job = service.generateReports(decks, 31, EnumSet.of(ReportFormat.CSV),
+                outputDirectory, null);
+
+        // Assert
+        assertEquals(decks.size() * 2, job.getResult().get(30, TimeUnit.SECONDS));
+        assertEquals(decks.size(), job.getProcessedCount());
+        assertTrue(maxRunning.get() <= ChartReportService.PARALLELISM);
+        cachedExecutor.shutdownNow();
+    }
+
+    @Test
+    void generateAllReports_ShouldSkipDeletedDecks() throws Exception {
+        // Arrange
+        when(deckBaseRepository.findAll()).thenReturn(List.of(deck(1L, false), deck(2L, true)));
+
+        // Act
+        BackgroundJob<Integer> job = chartReportService.generateAllReports(31, EnumSet.of(ReportFormat.CSV),
+                outputDirectory, null);
+
+        // Assert
+        assertEquals(2, job.getResult().get(10, TimeUnit.SECONDS));
+        assertFalse(Files.exists(outputDirectory.resolve("user-7").resolve("deck-2")));
+    }
+
+    @Test
+    void generateReports_ShouldFail_WhenFileCannotBeWritten() throws Exception {
+        // Arrange
+        Path blockingFile = Files.writeString(outputDirectory.resolve("user-7"), "not a directory");
+
+        // Act
+        BackgroundJob<Integer> job = chartReportService.generateReports(List.of(deck(1L, false)), 31,
+                EnumSet.of(ReportFormat.CSV), outputDirectory, null);
+
+        // Assert
+        assertThrows(Exception.class, () -> job.getResult().get(10, TimeUnit.SECONDS));
+        assertTrue(Files.isRegularFile(blockingFile));
+    }
+}
@@ -1,6 +1,9 @@
 package gutek.services;
 
+import gutek.domain.charts.ChartData;
+import gutek.domain.charts.ChartRenderer;
 import gutek.domain.charts.charts.StatisticsChart;
+import gutek.domain.jobs.BackgroundJob;
 import gutek.domain.revisions.RevisionStrategy;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.decks.DeckBase;
@@ -12,6 +15,11 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -43,7 +51,7 @@ class ChartServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         List<StatisticsChart> availableCharts = Arrays.asList(mockIndependentChart, mockDependentChart);
-        chartService = new ChartService(translationService, availableCharts);
+        chartService = new ChartService(translationService, availableCharts, Executors.newSingleThreadExecutor());
     }
 
     @Test
@@ -103,4 +111,116 @@ class ChartServiceTest {
         assertNotNull(selectedChart2);
         verify(mockDependentChart, times(1)).getChart(ChartService.getAVAILABLE_RANGES()[0], mockDeck, 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testComputeDeckCompatibleSelectedChartData() throws Exception {
+        // Arrange
+        ChartData data = new ChartData(new String[]{"0"}, new int[]{7});
+        when(mockDeck.getRevisionAlgorithm()).thenReturn((RevisionAlgorithm) mockRevisionAlgorithm);
+        when(mockRevisionAlgorithm.getAvailableRevisionStrategies()).thenReturn(List.of((RevisionStrategy) mockRevisionStrategy));
+        when(mockIndependentChart.isRevisionStrategyIndependent()).thenReturn(true);
+        when(mockDependentChart.isRevisionStrategyIndependent()).thenReturn(false);
+        when(mockDependentChart.computeData(eq(ChartService.getAVAILABLE_RANGES()[1]), eq(mockDeck), eq(0), any()))
+                .thenReturn(data);
+
+        // Act
+        BackgroundJob<ChartData> job = chartService.computeDeckCompatibleSelectedChartData(1, 1, mockDeck);
+
+        // Assert
+        assertSame(data, job.getResult().get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, job.getProgress());
+    }
+
+    @Test
+    void testComputeDeckCompatibleSelectedChartData_WhenCancelledBeforeStart() throws Exception {
+        // Arrange
+        CountDownLatch blocker = new CountDownLatch(1);
+        chartService = new ChartService(translationService, Arrays.asList(mockIndependentChart, mockDependentChart),
+                Executors.newSingleThreadExecutor());
+        when(mockDeck.getRevisionAlgorithm()).thenReturn((RevisionAlgorithm) mockRevisionAlgorithm);
+        when(mockRevisionAlgorithm.getAvailableRevisionStrategies()).thenReturn(List.of((RevisionStrategy) mockRevisionStrategy));
+        when(mockIndependentChart.isRevisionStrategyIndependent()).thenReturn(true);
+        when(mockIndependentChart.computeData(anyInt(), eq(mockDeck), isNull(), any())).thenAnswer(invocation -> {
+            blocker.await(5, TimeUnit.SECONDS);
+            return new ChartData(new String[0], new int[0]);
+        });
+
+        // Act
+        BackgroundJob<ChartData> runningJob = chartService.computeDeckCompatibleSelectedChartData(0, 0, mockDeck);
+        BackgroundJob<ChartData> queuedJob = chartService.computeDeckCompatibleSelectedChartData(0, 1, mockDeck);
+        runningJob.cancel();
+        queuedJob.cancel();
+        blocker.countDown();
+
+        // Assert
+        assertNull(runningJob.getResult().get(5, TimeUnit.SECONDS));
+        assertNull(queuedJob.getResult().get(5, TimeUnit.SECONDS));
+        verify(mockIndependentChart, never()).computeData(eq(ChartService.getAVAILABLE_RANGES()[1]), eq(mockDeck), isNull(), any());
+    }
+
+    @Test
+    void testComputeDeckCompatibleSelectedChartData_WhenCancelledWhileComputing() throws Exception {
+        // Arrange
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(mockDeck.getRevisionAlgorithm()).thenReturn((RevisionAlgorithm) mockRevisionAlgorithm);
+        when(mockRevisionAlgorithm.getAvailableRevisionStrategies()).thenReturn(List.of((RevisionStrategy) mockRevisionStrategy));
+        when(mockIndependentChart.isRevisionStrategyIndependent()).thenReturn(true);
+        when(mockIndependentChart.computeData(anyInt(), eq(mockDeck), isNull(), any())).thenAnswer(invocation -> {
+            BooleanSupplier isCancelled = invocation.getArgument(3);
+            computing.countDown();
+            cancelled.await(5, TimeUnit.SECONDS);
+            if (isCancelled.getAsBoolean()) {
+                throw new CancellationException();
+            }
+            return new ChartData(new String[0], new int[0]);
+        });
+
+        // Act
+        BackgroundJob<ChartData> job = chartService.computeDeckCompatibleSelectedChartData(0, 0, mockDeck);
+        assertTrue(computing.await(5, TimeUnit.SECONDS));
+        job.cancel();
+        cancelled.countDown();
+
+        // Assert
+        assertNull(job.getResult().get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, job.getProgress());
+    }
+
+    @Test
+    void testCreateDeckCompatibleSelectedChart() {
+        // Arrange
+        ChartData data = new ChartData(new String[]{"0"}, new int[]{7});
+        Chart chart = mock(Chart.class);
+        when(mockDeck.getRevisionAlgorithm()).thenReturn((RevisionAlgorithm) mockRevisionAlgorithm);
+        when(mockRevisionAlgorithm.getAvailableRevisionStrategies()).thenReturn(List.of((RevisionStrategy) mockRevisionStrategy));
+        when(mockIndependentChart.isRevisionStrategyIndependent()).thenReturn(true);
+        when(mockDependentChart.isRevisionStrategyIndependent()).thenReturn(false);
+        when(mockDependentChart.createChart(data, mockDeck, 0, ChartRenderer.CANVAS)).thenReturn(chart);
+
+        // Act
+        Chart createdChart = chartService.createDeckCompatibleSelectedChart(1, data, mockDeck);
+
+        // Assert
+        assertSame(chart, createdChart);
+    }
+
+    @Test
+    void testCreateDeckCompatibleSelectedChartWithSelectedRenderer() {
+        // Arrange
+        ChartData data = new ChartData(new String[]{"0"}, new int[]{7});
+        Chart chart = mock(Chart.class);
+        when(mockDeck.getRevisionAlgorithm()).thenReturn((RevisionAlgorithm) mockRevisionAlgorithm);
+        when(mockRevisionAlgorithm.getAvailableRevisionStrategies()).thenReturn(List.of((RevisionStrategy) mockRevisionStrategy));
+        when(mockIndependentChart.isRevisionStrategyIndependent()).thenReturn(true);
+        when(mockIndependentChart.createChart(data, mockDeck, null, ChartRenderer.SCENE_GRAPH)).thenReturn(chart);
+        chartService.setChartRenderer(ChartRenderer.SCENE_GRAPH);
+
+        // Act
+        Chart createdChart = chartService.createDeckCompatibleSelectedChart(0, data, mockDeck);
+
+        // Assert
+        assertSame(chart, createdChart);
+        verify(mockIndependentChart, never()).createChart(data, mockDeck, null, ChartRenderer.CANVAS);
+    }
+}
@@ -0,0 +1,55 @@
+package gutek.services;
+
+import gutek.domain.time.SimulatedClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClockServiceTest {
+
+    private SimulatedClock clock;
+
+    private ClockService clockService;
+
+    @BeforeEach
+    void setUp() {
+        clock = SimulatedClock.startingAt(LocalDate.of(2021, 3, 10), ZoneOffset.UTC);
+        clockService = new ClockService(clock);
+    }
+
+    @Test
+    void today_ShouldReturnDateOfClock() {
+        // Act
+        LocalDate today = clockService.today();
+
+        // Assert
+        assertEquals(LocalDate.of(2021, 3, 10), today);
+    }
+
+    @Test
+    void now_ShouldReturnDateTimeOfClock() {
+        // Act
+        LocalDateTime now = clockService.now();
+
+        // Assert
+        assertEquals(LocalDateTime.of(2021, 3, 10, 0, 0), now);
+    }
+
+    @Test
+    void today_ShouldFollowClock_WhenClockIsAdvanced() {
+        // Arrange
+        clock.advanceDays(25);
+
+        // Act
+        LocalDate today = clockService.today();
+
+        // Assert
+        assertEquals(LocalDate.of(2021, 4, 4), today);
+        assertSame(clock, clockService.getClock());
+    }
+}
@@ -0,0 +1,342 @@
+package gutek.services;
+
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.revisions.DailyTotal;
+import gutek.domain.revisions.RevisionDayCount;
+import gutek.domain.time.SimulatedClock;
+import gutek.entities.cards.CardBase;
+import gutek.entities.decks.DailyAggregateKind;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.decks.DeckDailyAggregate;
+import gutek.entities.users.AppUser;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardBaseRevisionRepository;
+import gutek.repositories.DeckBaseRepository;
+import gutek.repositories.DeckDailyAggregateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DailyAggregateServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 10);
+
+    private static final String REGULAR_STRATEGY = "RegularTextModeRevisionStrategy";
+
+    private static final String REVERSE_STRATEGY = "ReverseTextModeRevisionStrategy";
+
+    @Mock
+    private DeckDailyAggregateRepository deckDailyAggregateRepository;
+
+    @Mock
+    private CardBaseRepository cardBaseRepository;
+
+    @Mock
+    private CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    @Mock
+    private DeckBaseRepository deckBaseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService backgroundExecutor;
+
+    private DailyAggregateService dailyAggregateService;
+
+    private DeckBase deck;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        backgroundExecutor = Executors.newSingleThreadExecutor();
+        ClockService clockService = new ClockService(SimulatedClock.startingAt(TODAY, ZoneOffset.UTC));
+        dailyAggregateService = new DailyAggregateService(deckDailyAggregateRepository, cardBaseRepository, cardBaseRevisionRepository,
+                deckBaseRepository, transactionManager, clockService, backgroundExecutor);
+        deck = new DeckBase();
+        deck.setIdDeck(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backgroundExecutor.shutdownNow();
+    }
+
+    @Test
+    void testCardAdded_InsertsCount_WhenCountDoesNotExist() {
+        // Arrange
+        CardBase card = card(TODAY);
+        when(deckDailyAggregateRepository.addToCount(1L, TODAY, DailyAggregateKind.CARDS_ADDED,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, 1)).thenReturn(0);
+
+        // Act
+        dailyAggregateService.cardAdded(card);
+
+        // Assert
+        verify(deckDailyAggregateRepository).save(new DeckDailyAggregate(null, 1L, TODAY, DailyAggregateKind.CARDS_ADDED,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, 1));
+    }
+
+    @Test
+    void testCardRevised_UpdatesExistingCounts() {
+        // Arrange
+        when(deckDailyAggregateRepository.addToCount(any(), any(), any(), any(), any(), anyInt())).thenReturn(1);
+
+        // Act
+        dailyAggregateService.cardRevised(1L, TODAY, REGULAR_STRATEGY, 3, true);
+
+        // Assert
+        verify(deckDailyAggregateRepository).addToCount(1L, TODAY, DailyAggregateKind.REVISIONS, REGULAR_STRATEGY, 3, 1);
+        verify(deckDailyAggregateRepository).addToCount(1L, TODAY, DailyAggregateKind.FIRST_REVISIONS,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, 1);
+        verify(deckDailyAggregateRepository, never()).save(any());
+    }
+
+    @Test
+    void testCardRemoved_SubtractsCardAndItsRevisions() {
+        // Arrange
+        CardBase card = card(TODAY.minusDays(5));
+        when(cardBaseRevisionRepository.countRevisionsByCardBase(card)).thenReturn(List.of(
+                new RevisionDayCount(TODAY.minusDays(1), REGULAR_STRATEGY, 3, 2L),
+                new RevisionDayCount(TODAY.minusDays(4), REGULAR_STRATEGY, 0, 1L)));
+        when(deckDailyAggregateRepository.addToCount(any(), any(), any(), any(), any(), anyInt())).thenReturn(1);
+
+        // Act
+        dailyAggregateService.cardRemoved(card);
+
+        // Assert
+        verify(deckDailyAggregateRepository).addToCount(1L, TODAY.minusDays(5), DailyAggregateKind.CARDS_ADDED,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, -1);
+        verify(deckDailyAggregateRepository).addToCount(1L, TODAY.minusDays(1), DailyAggregateKind.REVISIONS, REGULAR_STRATEGY, 3, -2);
+        verify(deckDailyAggregateRepository).addToCount(1L, TODAY.minusDays(4), DailyAggregateKind.REVISIONS, REGULAR_STRATEGY, 0, -1);
+        verify(deckDailyAggregateRepository).addToCount(1L, TODAY.minusDays(4), DailyAggregateKind.FIRST_REVISIONS,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, -1);
+    }
+
+    @Test
+    void testCardMoved_MovesCardAndItsRevisionsToNewDeck() {
+        // Arrange
+        CardBase card = card(TODAY.minusDays(5));
+        DeckBase targetDeck = new DeckBase();
+        targetDeck.setIdDeck(2L);
+        card.setDeck(targetDeck);
+        when(cardBaseRevisionRepository.countRevisionsByCardBase(card)).thenReturn(List.of(
+                new RevisionDayCount(TODAY.minusDays(1), REGULAR_STRATEGY, 3, 2L)));
+        when(deckDailyAggregateRepository.addToCount(any(), any(), any(), any(), any(), anyInt())).thenReturn(1);
+
+        // Act
+        dailyAggregateService.cardMoved(card, 1L);
+
+        // Assert
+        verify(cardBaseRevisionRepository, times(1)).countRevisionsByCardBase(card);
+        verify(deckDailyAggregateRepository).addToCount(1L, TODAY.minusDays(5), DailyAggregateKind.CARDS_ADDED,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, -1);
+        verify(deckDailyAggregateRepository).addToCount(2L, TODAY.minusDays(5), DailyAggregateKind.CARDS_ADDED,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, 1);
+        verify(deckDailyAggregateRepository).addToCount(1L, TODAY.minusDays(1), DailyAggregateKind.REVISIONS, REGULAR_STRATEGY, 3, -2);
+        verify(deckDailyAggregateRepository).addToCount(2L, TODAY.minusDays(1), DailyAggregateKind.REVISIONS, REGULAR_STRATEGY, 3, 2);
+        verify(deckDailyAggregateRepository).addToCount(1L, TODAY.minusDays(1), DailyAggregateKind.FIRST_REVISIONS,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, -1);
+        verify(deckDailyAggregateRepository).addToCount(2L, TODAY.minusDays(1), DailyAggregateKind.FIRST_REVISIONS,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, 1);
+    }
+
+    @Test
+    void testGetDailyCounts_ReadsRangeAndFiltersStrategy() {
+        // Arrange
+        when(deckDailyAggregateRepository.findByDeckIdAndKindAndDayBetween(1L, DailyAggregateKind.REVISIONS, TODAY.minusDays(6), TODAY))
+                .thenReturn(List.of(
+                        new DeckDailyAggregate(1L, 1L, TODAY, DailyAggregateKind.REVISIONS, REGULAR_STRATEGY, 3, 4),
+                        new DeckDailyAggregate(2L, 1L, TODAY, DailyAggregateKind.REVISIONS, REGULAR_STRATEGY, 0, 1),
+                        new DeckDailyAggregate(3L, 1L, TODAY.minusDays(6), DailyAggregateKind.REVISIONS, REVERSE_STRATEGY, 3, 2)));
+
+        // Act
+        int[] allCounts = dailyAggregateService.getDailyCounts(deck, DailyAggregateKind.REVISIONS, null, 7);
+        int[] regularCounts = dailyAggregateService.getDailyCounts(deck, DailyAggregateKind.REVISIONS, REGULAR_STRATEGY, 7);
+
+        // Assert
+        assertArrayEquals(new int[]{5, 0, 0, 0, 0, 0, 2}, allCounts);
+        assertArrayEquals(new int[]{5, 0, 0, 0, 0, 0, 0}, regularCounts);
+    }
+
+    @Test
+    void testGetButtonCounts_SumsCountsByButton() {
+        // Arrange
+        when(deckDailyAggregateRepository.findByDeckIdAndKindAndDayBetween(1L, DailyAggregateKind.REVISIONS, TODAY.minusDays(1), TODAY))
+                .thenReturn(List.of(
+                        new DeckDailyAggregate(1L, 1L, TODAY, DailyAggregateKind.REVISIONS, REGULAR_STRATEGY, 3, 4),
+                        new DeckDailyAggregate(2L, 1L, TODAY.minusDays(1), DailyAggregateKind.REVISIONS, REGULAR_STRATEGY, 3, 1),
+                        new DeckDailyAggregate(3L, 1L, TODAY, DailyAggregateKind.REVISIONS, REGULAR_STRATEGY, 0, 2)));
+
+        // Act
+        int[] buttonCounts = dailyAggregateService.getButtonCounts(deck, null, TODAY.minusDays(1), TODAY);
+
+        // Assert
+        assertArrayEquals(new int[]{2, 0, 0, 5}, buttonCounts);
+    }
+
+    @Test
+    void testGetUserDailyCounts_SumsDecksWithSingleQuery() {
+        // Arrange
+        AppUser user = new AppUser();
+        user.setIdUser(4L);
+        when(deckDailyAggregateRepository.sumByUserAndKindAndDayBetween(user, DailyAggregateKind.REVISIONS, TODAY.minusDays(2), TODAY))
+                .thenReturn(List.of(new DailyTotal(TODAY, 7L), new DailyTotal(TODAY.minusDays(2), 3L)));
+
+        // Act
+        int[] counts = dailyAggregateService.getUserDailyCounts(user, DailyAggregateKind.REVISIONS, 3);
+
+        // Assert
+        assertArrayEquals(new int[]{7, 0, 3}, counts);
+    }
+
+    @Test
+    void testGetUserDailyCounts_ReturnsZeros_WhenUserIsNotSaved() {
+        // Act
+        int[] counts = dailyAggregateService.getUserDailyCounts(new AppUser(), DailyAggregateKind.REVISIONS, 2);
+
+        // Assert
+        assertArrayEquals(new int[2], counts);
+        verifyNoInteractions(deckDailyAggregateRepository);
+    }
+
+    @Test
+    void testGetDailyCounts_ReturnsZeros_WhenDeckIsNotSaved() {
+        // Act
+        int[] counts = dailyAggregateService.getDailyCounts(new DeckBase(), DailyAggregateKind.CARDS_ADDED, null, 3);
+
+        // Assert
+        assertArrayEquals(new int[3], counts);
+        verifyNoInteractions(deckDailyAggregateRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBackfill_ReplacesCountsOfEveryDeck() throws Exception {
+        // Arrange
+        when(cardBaseRepository.findCreationTimesByDeckId(1L)).thenReturn(List.of(
+                TODAY.atStartOfDay(), TODAY.atTime(12, 0), TODAY.minusDays(1).atStartOfDay()));
+        when(cardBaseRevisionRepository.findFirstRevisionDatesByDeckId(1L)).thenReturn(List.of(TODAY, TODAY));
+        when(cardBaseRevisionRepository.countRevisionsByDeckId(1L)).thenReturn(List.of(
+                new RevisionDayCount(TODAY, REGULAR_STRATEGY, 3, 5L)));
+
+        // Act
+        BackgroundJob<Integer> job = dailyAggregateService.backfill(List.of(deck), null);
+        Integer rowsCount = job.getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(4, rowsCount);
+        verify(deckDailyAggregateRepository).deleteByDeckId(1L);
+        ArgumentCaptor<List<DeckDailyAggregate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(deckDailyAggregateRepository).saveAll(captor.capture());
+        assertTrue(captor.getValue().contains(new DeckDailyAggregate(null, 1L, TODAY, DailyAggregateKind.CARDS_ADDED,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, 2)));
+        assertTrue(captor.getValue().contains(new DeckDailyAggregate(null, 1L, TODAY, DailyAggregateKind.FIRST_REVISIONS,
+                DeckDailyAggregate.NO_STRATEGY, DeckDailyAggregate.NO_BUTTON, 2)));
+        assertTrue(captor.getValue().contains(new DeckDailyAggregate(null, 1L, TODAY, DailyAggregateKind.REVISIONS,
+                REGULAR_STRATEGY, 3, 5)));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBackfillDeck_WritesSameCountsAsIncrementalUpdates() {
+        // Arrange
+        List<DeckDailyAggregate> incrementalCounts = new ArrayList<>();
+        when(deckDailyAggregateRepository.addToCount(any(), any(), any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            for (DeckDailyAggregate aggregate : incrementalCounts) {
+                if (aggregate.getDay().equals(invocation.getArgument(1)) && aggregate.getKind() == invocation.getArgument(2)
+                        && aggregate.getStrategyClassName().equals(invocation.getArgument(3))
+                        && aggregate.getPressedButtonIndex().equals(invocation.getArgument(4))) {
+                    aggregate.setCount(aggregate.getCount() + invocation.<Integer>getArgument(5));
+                    return 1;
+                }
+            }
+            return 0;
+        });
+        when(deckDailyAggregateRepository.save(any())).thenAnswer(invocation -> {
+            incrementalCounts.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        dailyAggregateService.cardAdded(card(TODAY.minusDays(1)));
+        dailyAggregateService.cardAdded(card(TODAY.minusDays(1)));
+        dailyAggregateService.cardRevised(1L, TODAY.minusDays(1), REGULAR_STRATEGY, 0, true);
+        dailyAggregateService.cardRevised(1L, TODAY.minusDays(1), REGULAR_STRATEGY, 3, false);
+        dailyAggregateService.cardRevised(1L, TODAY, REGULAR_STRATEGY, 3, true);
+        dailyAggregateService.cardRevised(1L, TODAY, REGULAR_STRATEGY, 3, false);
+        when(cardBaseRepository.findCreationTimesByDeckId(1L)).thenReturn(List.of(
+                TODAY.minusDays(1).atTime(10, 0), TODAY.minusDays(1).atTime(10, 0)));
+        when(cardBaseRevisionRepository.findFirstRevisionDatesByDeckId(1L)).thenReturn(List.of(TODAY.minusDays(1), TODAY));
+        when(cardBaseRevisionRepository.countRevisionsByDeckId(1L)).thenReturn(List.of(
+                new RevisionDayCount(TODAY.minusDays(1), REGULAR_STRATEGY, 0, 1L),
+                new RevisionDayCount(TODAY.minusDays(1), REGULAR_STRATEGY, 3, 1L),
+                new RevisionDayCount(TODAY, REGULAR_STRATEGY, 3, 2L)));
+
+        // Act
+        dailyAggregateService.backfillDeck(1L);
+
+        // Assert
+        ArgumentCaptor<List<DeckDailyAggregate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(deckDailyAggregateRepository).saveAll(captor.capture());
+        assertEquals(Set.copyOf(incrementalCounts), Set.copyOf(captor.getValue()));
+        assertEquals(incrementalCounts.size(), captor.getValue().size());
+    }
+
+    @Test
+    void testBackfillMissing_SkipsDecksWithCountsOrWithoutCards() throws Exception {
+        // Arrange
+        DeckBase emptyDeck = new DeckBase();
+        emptyDeck.setIdDeck(2L);
+        DeckBase aggregatedDeck = new DeckBase();
+        aggregatedDeck.setIdDeck(3L);
+        when(deckBaseRepository.findAll()).thenReturn(List.of(deck, emptyDeck, aggregatedDeck));
+        when(cardBaseRepository.countByDeckIdDeck(1L)).thenReturn(1);
+        when(cardBaseRepository.countByDeckIdDeck(3L)).thenReturn(1);
+        when(deckDailyAggregateRepository.existsByDeckId(3L)).thenReturn(true);
+        when(cardBaseRepository.findCreationTimesByDeckId(1L)).thenReturn(List.of(TODAY.atStartOfDay()));
+
+        // Act
+        dailyAggregateService.backfillMissing().getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        verify(deckDailyAggregateRepository).deleteByDeckId(1L);
+        verify(deckDailyAggregateRepository, never()).deleteByDeckId(2L);
+        verify(deckDailyAggregateRepository, never()).deleteByDeckId(3L);
+    }
+
+    @Test
+    void testBackfillMissingOnStartup_StartsBackfillAndDoesNotPropagateItsFailure() {
+        // Arrange
+        when(deckBaseRepository.findAll()).thenReturn(List.of(deck));
+        when(cardBaseRepository.countByDeckIdDeck(1L)).thenReturn(1);
+        doThrow(new IllegalStateException("Database closed")).when(deckDailyAggregateRepository).deleteByDeckId(1L);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> dailyAggregateService.backfillMissingOnStartup());
+        verify(deckDailyAggregateRepository, timeout(5000)).deleteByDeckId(1L);
+    }
+
+    private CardBase card(LocalDate creationDate) {
+        CardBase card = new CardBase();
+        card.setDeck(deck);
+        card.setCreationTime(creationDate.atTime(10, 0));
+        return card;
+    }
+}
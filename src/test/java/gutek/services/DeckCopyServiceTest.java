@@ -0,0 +1,261 @@
+package gutek.services;
+
+import gutek.domain.copies.DeckCopyOptions;
+import gutek.domain.copies.DeckCopyResult;
+import gutek.domain.copies.DuplicateFronts;
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.entities.algorithms.FsrsRevisionAlgorithm;
+import gutek.entities.algorithms.RevisionAlgorithm;
+import gutek.entities.algorithms.SuperMemo2RevisionAlgorithm;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.decks.DeckBaseStatistics;
+import gutek.entities.users.AppUser;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardBaseRevisionRepository;
+import gutek.repositories.CardSignatureRepository;
+import gutek.repositories.CardTagRepository;
+import gutek.repositories.DeckBaseRepository;
+import gutek.repositories.DeckBaseStatisticsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DeckCopyServiceTest {
+
+    private static final Long DECK_ID = 10L;
+    private static final Long TARGET_DECK_ID = 20L;
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+    @Mock
+    private CardBaseRepository cardBaseRepository;
+
+    @Mock
+    private CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    @Mock
+    private CardTagRepository cardTagRepository;
+
+    @Mock
+    private CardSignatureRepository cardSignatureRepository;
+
+    @Mock
+    private DeckBaseRepository deckBaseRepository;
+
+    @Mock
+    private DeckBaseStatisticsRepository deckBaseStatisticsRepository;
+
+    @Mock
+    private DeckService deckService;
+
+    @Mock
+    private DeckSnapshotService deckSnapshotService;
+
+    @Mock
+    private DailyAggregateService dailyAggregateService;
+
+    @Mock
+    private DifficultCardService difficultCardService;
+
+    @Mock
+    private StatisticsRebuildService statisticsRebuildService;
+
+    @Mock
+    private GlobalSearchService globalSearchService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService backgroundExecutor;
+
+    private DeckCopyService deckCopyService;
+
+    private AppUser user;
+
+    private DeckBase deck;
+
+    private DeckBase targetDeck;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        backgroundExecutor = Executors.newSingleThreadExecutor();
+        ClockService clockService = new ClockService(Clock.fixed(TODAY.atTime(9, 30).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        deckCopyService = new DeckCopyService(cardBaseRepository, cardBaseRevisionRepository, cardTagRepository, cardSignatureRepository,
+                deckBaseRepository, deckBaseStatisticsRepository, deckService, deckSnapshotService, dailyAggregateService,
+                difficultCardService, statisticsRebuildService, globalSearchService, clockService, eventPublisher,
+                transactionManager, backgroundExecutor);
+
+        user = new AppUser();
+        user.setIdUser(1L);
+        deck = deck(DECK_ID);
+        targetDeck = deck(TARGET_DECK_ID);
+        when(cardBaseRepository.countByDeckIdDeck(DECK_ID)).thenReturn(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backgroundExecutor.shutdownNow();
+    }
+
+    @Test
+    void testMerge_CopiesCardsWithHistoryInOneSetBasedPass() throws Exception {
+        // Arrange
+        DeckCopyOptions options = new DeckCopyOptions(false, DuplicateFronts.SKIP, true);
+        when(cardBaseRepository.copySuperMemo2Cards(eq(DECK_ID), eq(TARGET_DECK_ID), eq(false), eq(true), eq(TODAY),
+                eq(TODAY.atTime(9, 30)), eq(2.5), eq(2.5))).thenReturn(3);
+        when(cardBaseRevisionRepository.copyRevisionsOfCopiedCards(TARGET_DECK_ID)).thenReturn(12);
+
+        // Act
+        DeckCopyResult result = deckCopyService.mergeInBackground(deck, targetDeck, options).getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(new DeckCopyResult(TARGET_DECK_ID, 3, 2, 12), result);
+        InOrder inOrder = inOrder(deckSnapshotService, cardBaseRepository, cardBaseRevisionRepository, cardTagRepository,
+                cardSignatureRepository, dailyAggregateService, globalSearchService, eventPublisher);
+        inOrder.verify(deckSnapshotService).beginCardsChange(targetDeck);
+        inOrder.verify(cardBaseRevisionRepository).copyRevisionsOfCopiedCards(TARGET_DECK_ID);
+        inOrder.verify(cardTagRepository).copyTagsOfCopiedCards(TARGET_DECK_ID);
+        inOrder.verify(cardSignatureRepository).copySignaturesOfCopiedCards(TARGET_DECK_ID);
+        inOrder.verify(cardBaseRepository).clearCopySourceIds(TARGET_DECK_ID);
+        inOrder.verify(dailyAggregateService).backfillDeck(TARGET_DECK_ID);
+        inOrder.verify(globalSearchService).deckCardsAdded(TARGET_DECK_ID, user);
+        inOrder.verify(eventPublisher).publishEvent(new DeckCardsChangedEvent(TARGET_DECK_ID, DeckCardsChangedEvent.ChangeType.ADDED));
+        verify(difficultCardService).rebuildDeck(targetDeck);
+        verify(statisticsRebuildService).rebuildDeck(targetDeck, true);
+        verify(cardBaseRepository, never()).findById(anyLong());
+        verify(deckBaseRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testMerge_ResetsSchedulingWithoutCopyingHistory() throws Exception {
+        // Arrange
+        SuperMemo2RevisionAlgorithm algorithm = new SuperMemo2RevisionAlgorithm();
+        algorithm.setInitialEasinessFactor(2.1);
+        algorithm.setReverseInitialEasinessFactor(2.3);
+        targetDeck.setRevisionAlgorithm(algorithm);
+        DeckCopyOptions options = new DeckCopyOptions(true, DuplicateFronts.KEEP, false);
+        when(cardBaseRepository.copySuperMemo2Cards(any(), any(), anyBoolean(), anyBoolean(), any(), any(), anyDouble(), anyDouble()))
+                .thenReturn(5);
+
+        // Act
+        DeckCopyResult result = deckCopyService.mergeInBackground(deck, targetDeck, options).getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(new DeckCopyResult(TARGET_DECK_ID, 5, 0, 0), result);
+        verify(cardBaseRepository).copySuperMemo2Cards(DECK_ID, TARGET_DECK_ID, true, false, TODAY, TODAY.atTime(9, 30), 2.1, 2.3);
+        verify(cardBaseRevisionRepository, never()).copyRevisionsOfCopiedCards(anyLong());
+        verify(cardTagRepository).copyTagsOfCopiedCards(TARGET_DECK_ID);
+        verifyNoInteractions(difficultCardService, statisticsRebuildService);
+    }
+
+    @Test
+    void testMerge_RejectsTargetDeckWithAnotherAlgorithm() {
+        // Arrange
+        targetDeck.setRevisionAlgorithm(new FsrsRevisionAlgorithm());
+        DeckCopyOptions options = new DeckCopyOptions(false, DuplicateFronts.KEEP, false);
+
+        // Act
+        BackgroundJob<DeckCopyResult> job = deckCopyService.mergeInBackground(deck, targetDeck, options);
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> job.getResult().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        verify(cardBaseRepository, never()).copyFsrsCards(any(), any(), anyBoolean(), anyBoolean(), any(), any());
+        verifyNoInteractions(deckSnapshotService, eventPublisher);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testClone_CreatesDeckWithCopiedAlgorithmAndDailyLimit() throws Exception {
+        // Arrange
+        FsrsRevisionAlgorithm algorithm = new FsrsRevisionAlgorithm();
+        algorithm.setIdAlgorithm(3L);
+        deck.setRevisionAlgorithm(algorithm);
+        DeckBaseStatistics statistics = new DeckBaseStatistics();
+        statistics.setNewCardsPerDay(15);
+        deck.setDeckBaseStatistics(statistics);
+        DeckBase clone = deck(30L);
+        clone.setDeckBaseStatistics(new DeckBaseStatistics());
+        when(deckService.addNewDeck(eq(user), any(), eq("Animals (copy)"))).thenAnswer(invocation -> {
+            clone.setRevisionAlgorithm(invocation.getArgument(1));
+            return clone;
+        });
+        when(cardBaseRepository.copyFsrsCards(DECK_ID, 30L, false, false, TODAY, TODAY.atTime(9, 30))).thenReturn(5);
+        DeckCopyOptions options = new DeckCopyOptions(false, DuplicateFronts.KEEP, false);
+
+        // Act
+        DeckCopyResult result = deckCopyService.cloneInBackground(deck, "Animals (copy)", options).getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(new DeckCopyResult(30L, 5, 0, 0), result);
+        ArgumentCaptor<RevisionAlgorithm<?>> copiedAlgorithm = ArgumentCaptor.forClass(RevisionAlgorithm.class);
+        verify(deckService).addNewDeck(eq(user), copiedAlgorithm.capture(), eq("Animals (copy)"));
+        assertInstanceOf(FsrsRevisionAlgorithm.class, copiedAlgorithm.getValue());
+        assertNotSame(algorithm, copiedAlgorithm.getValue());
+        assertNull(copiedAlgorithm.getValue().getIdAlgorithm());
+        assertEquals(15, clone.getDeckBaseStatistics().getNewCardsPerDay());
+        verify(deckBaseStatisticsRepository).save(clone.getDeckBaseStatistics());
+        verify(deckSnapshotService).beginCardsChange(clone);
+        verify(globalSearchService).deckCardsAdded(30L, user);
+        verify(eventPublisher).publishEvent(new DeckCardsChangedEvent(30L, DeckCardsChangedEvent.ChangeType.ADDED));
+    }
+
+    @Test
+    void testFindMergeTargets_ListsOtherDecksWithSameAlgorithm() {
+        // Arrange
+        DeckBase fsrsDeck = deck(30L);
+        fsrsDeck.setRevisionAlgorithm(new FsrsRevisionAlgorithm());
+        DeckBase deletedDeck = deck(40L);
+        deletedDeck.setIsDeleted(true);
+        when(deckBaseRepository.findByUserAndIsDeletedFalse(user)).thenReturn(List.of(deck, targetDeck, fsrsDeck, deletedDeck));
+
+        // Act
+        List<DeckBase> targets = deckCopyService.findMergeTargets(deck);
+
+        // Assert
+        assertEquals(List.of(targetDeck), targets);
+    }
+
+    @Test
+    void testOptions_RejectHistoryOfResetCards() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new DeckCopyOptions(true, DuplicateFronts.KEEP, true));
+        assertThrows(IllegalArgumentException.class, () -> new DeckCopyOptions(false, null, false));
+    }
+
+    private DeckBase deck(Long deckId) {
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(deckId);
+        deck.setUser(user);
+        deck.setIsDeleted(false);
+        deck.setRevisionAlgorithm(new SuperMemo2RevisionAlgorithm());
+        return deck;
+    }
+}
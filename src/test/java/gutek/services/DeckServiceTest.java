@@ -1,5 +1,9 @@
 package gutek.services;
 
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.domain.snapshots.DeckSnapshot;
+import gutek.domain.tags.TagFilter;
+import gutek.domain.time.SimulatedClock;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.cards.CardBase;
 import gutek.entities.decks.DeckBase;
@@ -10,9 +14,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -40,6 +47,27 @@ class DeckServiceTest {
     @Mock
     private DeckBaseStatisticsRepository deckBaseStatisticsRepository;
 
+    @Mock
+    private DeckSnapshotService deckSnapshotService;
+
+    @Mock
+    private DailyAggregateService dailyAggregateService;
+
+    @Mock
+    private DifficultCardService difficultCardService;
+
+    @Mock
+    private GlobalSearchService globalSearchService;
+
+    @Mock
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @Mock
+    private TagService tagService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private DeckService deckService;
 
     @BeforeEach
@@ -51,7 +79,11 @@ class DeckServiceTest {
                 cardBaseRepository,
                 cardBaseRevisionRepository,
                 revisionAlgorithmRepository,
-                deckBaseStatisticsRepository
+                deckBaseStatisticsRepository,
+                deckSnapshotService,
+                new ClockService(Clock.systemDefaultZone()),
+                dailyAggregateService, difficultCardService, globalSearchService, duplicateDetectionService,
+                tagService, eventPublisher
         );
     }
 
@@ -93,6 +125,7 @@ class DeckServiceTest {
         // Arrange
         AppUser mockUser = new AppUser();
         DeckBase mockDeck = new DeckBase();
+        mockDeck.setIdDeck(3L);
         mockDeck.setUser(mockUser);
         CardBase mockCard = new CardBase();
         mockDeck.getCards().add(mockCard);
@@ -107,6 +140,10 @@ class DeckServiceTest {
         verify(cardBaseRepository, times(1)).delete(mockCard);
         verify(deckBaseRepository, times(1)).delete(mockDeck);
         verify(revisionAlgorithmRepository, times(1)).delete(mockAlgorithm);
+        verify(dailyAggregateService, times(1)).deckRemoved(3L);
+        verify(difficultCardService, times(1)).deckRemoved(3L);
+        verify(duplicateDetectionService, times(1)).deckRemoved(3L);
+        verify(tagService, times(1)).deckRemoved(3L);
     }
 
     @Test
@@ -128,6 +165,25 @@ class DeckServiceTest {
         verify(appUserRepository, times(1)).save(mockUser);
     }
 
+    @Test
+    void testAddNewDeck_StartsStatisticsOnDayOfClock() {
+        // Arrange
+        LocalDate day = LocalDate.of(2021, 3, 14);
+        deckService = new DeckService(deckBaseRepository, appUserRepository, cardBaseRepository, cardBaseRevisionRepository,
+                revisionAlgorithmRepository, deckBaseStatisticsRepository, deckSnapshotService,
+                new ClockService(SimulatedClock.startingAt(day, ZoneOffset.UTC)), dailyAggregateService, difficultCardService,
+                globalSearchService, duplicateDetectionService, tagService, eventPublisher);
+        AppUser user = new AppUser();
+        user.setIdUser(1L);
+        when(appUserRepository.findById(user.getIdUser())).thenReturn(Optional.of(user));
+
+        // Act
+        DeckBase newDeck = deckService.addNewDeck(user, mock(RevisionAlgorithm.class), "Test Deck");
+
+        // Assert
+        assertEquals(day, newDeck.getDeckBaseStatistics().getTodayIndicator());
+    }
+
     @Test
     void testFindDecksByUser() {
         // Arrange
@@ -158,6 +214,87 @@ class DeckServiceTest {
         verify(cardBaseRepository, times(1)).countByDeckIdDeck(mockDeck.getIdDeck());
     }
 
+    @Test
+    void testGetAllCardsCount_UsesSnapshotWhenAvailable() {
+        // Arrange
+        DeckBase mockDeck = new DeckBase();
+        mockDeck.setIdDeck(1L);
+        DeckSnapshot mockSnapshot = mock(DeckSnapshot.class);
+        when(mockSnapshot.getCardsCount()).thenReturn(7);
+        when(deckSnapshotService.openSnapshot(mockDeck)).thenReturn(Optional.of(mockSnapshot));
+
+        // Act
+        int count = deckService.getAllCardsCount(mockDeck);
+
+        // Assert
+        assertEquals(7, count);
+        verify(cardBaseRepository, never()).countByDeckIdDeck(anyLong());
+    }
+
+    @Test
+    void testGetRegularRevisionCards_UsesSnapshotWhenAvailable() {
+        // Arrange
+        DeckBase mockDeck = new DeckBase();
+        mockDeck.setIdDeck(1L);
+        DeckSnapshot mockSnapshot = mock(DeckSnapshot.class);
+        List<CardBase> mockCards = List.of(new CardBase(), new CardBase());
+        when(mockSnapshot.findRegularRevisionCardIds(LocalDate.now())).thenReturn(List.of(3L, 5L));
+        when(deckSnapshotService.openSnapshot(mockDeck)).thenReturn(Optional.of(mockSnapshot));
+        when(cardBaseRepository.findAllById(List.of(3L, 5L))).thenReturn(mockCards);
+
+        // Act
+        List<CardBase> cards = deckService.getRegularRevisionCards(mockDeck);
+
+        // Assert
+        assertEquals(mockCards, cards);
+        verify(cardBaseRepository, never())
+                .findByDeckIdDeckAndIsNewCardFalseAndNextRegularRevisionDateLessThanEqual(anyLong(), any());
+    }
+
+    @Test
+    void testGetRegularRevisionCards_LoadsOnlyCardsSelectedByTagFilter() {
+        // Arrange
+        DeckBase mockDeck = new DeckBase();
+        mockDeck.setIdDeck(1L);
+        TagFilter tagFilter = TagFilter.parse("verbs");
+        DeckSnapshot mockSnapshot = mock(DeckSnapshot.class);
+        List<CardBase> mockCards = List.of(new CardBase());
+        when(mockSnapshot.findRegularRevisionCardIds(LocalDate.now())).thenReturn(List.of(3L, 5L));
+        when(deckSnapshotService.openSnapshot(mockDeck)).thenReturn(Optional.of(mockSnapshot));
+        when(tagService.filterCardIds(mockDeck, List.of(3L, 5L), tagFilter)).thenReturn(List.of(5L));
+        when(cardBaseRepository.findAllById(List.of(5L))).thenReturn(mockCards);
+
+        // Act
+        List<CardBase> cards = deckService.getRegularRevisionCards(mockDeck, tagFilter);
+
+        // Assert
+        assertEquals(mockCards, cards);
+        verify(cardBaseRepository, never()).findAllById(List.of(3L, 5L));
+    }
+
+    @Test
+    void testGetNewCardsForTodayRevision_FiltersByTagsBeforeLimit() {
+        // Arrange
+        DeckBase mockDeck = new DeckBase();
+        mockDeck.setIdDeck(1L);
+        TagFilter tagFilter = TagFilter.parse("verbs");
+        CardBase card1 = new CardBase();
+        card1.setCreationTime(LocalDateTime.now().minusDays(2));
+        CardBase card2 = new CardBase();
+        card2.setCreationTime(LocalDateTime.now().minusDays(1));
+        CardBase card3 = new CardBase();
+        card3.setCreationTime(LocalDateTime.now());
+        List<CardBase> mockNewCards = List.of(card1, card2, card3);
+        when(cardBaseRepository.findByDeckIdDeckAndIsNewCardTrue(mockDeck.getIdDeck())).thenReturn(mockNewCards);
+        when(tagService.filterCards(mockDeck, mockNewCards, tagFilter)).thenReturn(List.of(card3, card2));
+
+        // Act
+        List<CardBase> result = deckService.getNewCardsForTodayRevision(mockDeck, 1, tagFilter);
+
+        // Assert
+        assertEquals(List.of(card2), result);
+    }
+
     @Test
     void testAddNewCardToDeck_WhenCardDoesNotExist() {
         // Arrange
@@ -167,7 +304,7 @@ class DeckServiceTest {
         mockCard.setFront("Test Front");
 
         when(deckBaseRepository.findById(mockDeck.getIdDeck())).thenReturn(Optional.of(mockDeck));
-        when(cardBaseRepository.findByFrontAndDeck(mockCard.getFront(), mockDeck)).thenReturn(Optional.empty());
+        when(cardBaseRepository.findFirstByFrontNormalizedAndDeck("test front", mockDeck)).thenReturn(Optional.empty());
 
         // Act
         deckService.addNewCardToDeck(mockCard, mockDeck);
@@ -175,6 +312,9 @@ class DeckServiceTest {
         // Assert
         verify(deckBaseRepository, times(1)).save(mockDeck);
         verify(cardBaseRepository, times(1)).save(mockCard);
+        verify(deckSnapshotService).completeCardsChange(mockDeck, List.of(mockCard));
+        verify(dailyAggregateService, times(1)).cardAdded(mockCard);
+        verify(eventPublisher).publishEvent(new DeckCardsChangedEvent(1L, DeckCardsChangedEvent.ChangeType.ADDED));
     }
 
     @Test
@@ -186,7 +326,7 @@ class DeckServiceTest {
         mockCard.setFront("Test Front");
 
         when(deckBaseRepository.findById(mockDeck.getIdDeck())).thenReturn(Optional.of(mockDeck));
-        when(cardBaseRepository.findByFrontAndDeck(mockCard.getFront(), mockDeck)).thenReturn(Optional.of(mockCard));
+        when(cardBaseRepository.findFirstByFrontNormalizedAndDeck("test front", mockDeck)).thenReturn(Optional.of(mockCard));
 
         // Act
         deckService.addNewCardToDeck(mockCard, mockDeck);
@@ -194,6 +334,8 @@ class DeckServiceTest {
         // Assert
         verify(deckBaseRepository, never()).save(mockDeck);
         verify(cardBaseRepository, never()).save(mockCard);
+        verify(dailyAggregateService, never()).cardAdded(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
@@ -0,0 +1,178 @@
+package gutek.services;
+
+import gutek.domain.snapshots.DeckSnapshot;
+import gutek.entities.cards.CardSuperMemo2;
+import gutek.entities.decks.DeckBase;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DeckSnapshotServiceTest {
+
+    @Mock
+    private DeckBaseRepository deckBaseRepository;
+
+    @Mock
+    private CardBaseRepository cardBaseRepository;
+
+    @TempDir
+    Path snapshotDirectory;
+
+    private DeckSnapshotService deckSnapshotService;
+
+    private DeckBase deck;
+
+    private CardSuperMemo2 card;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        deckSnapshotService = new DeckSnapshotService(deckBaseRepository, cardBaseRepository, snapshotDirectory);
+
+        deck = new DeckBase();
+        deck.setIdDeck(1L);
+        card = new CardSuperMemo2("front", "back", 2.5, 2.5, deck);
+        card.setIdCard(10L);
+        card.setNewCard(false);
+        card.setNextRegularRevisionDate(LocalDate.now().minusDays(1));
+        card.setNextReverseRevisionDate(LocalDate.now().plusDays(3));
+        when(cardBaseRepository.findByDeck(deck)).thenReturn(List.of(card));
+        when(deckBaseRepository.findCardsChangeCounter(1L)).thenReturn(4L);
+    }
+
+    @Test
+    void testOpenSnapshot_BuildsSnapshotFromDatabase() {
+        // Act
+        Optional<DeckSnapshot> snapshot = deckSnapshotService.openSnapshot(deck);
+
+        // Assert
+        assertTrue(snapshot.isPresent());
+        assertEquals(4L, snapshot.get().getChangeCounter());
+        assertEquals(1, snapshot.get().getCardsCount());
+        assertEquals(List.of(10L), snapshot.get().findRegularRevisionCardIds(LocalDate.now()));
+        assertTrue(snapshot.get().findReverseRevisionCardIds(LocalDate.now()).isEmpty());
+        assertTrue(Files.exists(snapshotDirectory.resolve("deck-1.snapshot")));
+    }
+
+    @Test
+    void testOpenSnapshot_ReusesValidFileWithoutLoadingCards() {
+        // Arrange
+        deckSnapshotService.openSnapshot(deck);
+        DeckSnapshotService newSessionService = new DeckSnapshotService(deckBaseRepository, cardBaseRepository, snapshotDirectory);
+
+        // Act
+        Optional<DeckSnapshot> snapshot = newSessionService.openSnapshot(deck);
+
+        // Assert
+        assertTrue(snapshot.isPresent());
+        assertEquals(1, snapshot.get().getCardsCount());
+        verify(cardBaseRepository, times(1)).findByDeck(deck);
+    }
+
+    @Test
+    void testOpenSnapshot_RebuildsFileWhenChangeCounterDiffers() {
+        // Arrange
+        deckSnapshotService.openSnapshot(deck);
+        DeckSnapshotService newSessionService = new DeckSnapshotService(deckBaseRepository, cardBaseRepository, snapshotDirectory);
+        when(deckBaseRepository.findCardsChangeCounter(1L)).thenReturn(5L);
+
+        // Act
+        Optional<DeckSnapshot> snapshot = newSessionService.openSnapshot(deck);
+
+        // Assert
+        assertTrue(snapshot.isPresent());
+        assertEquals(5L, snapshot.get().getChangeCounter());
+        verify(cardBaseRepository, times(2)).findByDeck(deck);
+    }
+
+    @Test
+    void testCompleteCardsChange_UpdatesSnapshotInPlace() {
+        // Arrange
+        DeckSnapshot snapshot = deckSnapshotService.openSnapshot(deck).orElseThrow();
+        when(deckBaseRepository.findCardsChangeCounter(1L)).thenReturn(5L);
+
+        // Act
+        deckSnapshotService.beginCardsChange(deck);
+        card.setNextRegularRevisionDate(LocalDate.now().plusDays(6));
+        deckSnapshotService.completeCardsChange(deck, List.of(card));
+
+        // Assert
+        verify(deckBaseRepository, times(1)).incrementCardsChangeCounter(1L);
+        assertSame(snapshot, deckSnapshotService.openSnapshot(deck).orElseThrow());
+        assertEquals(5L, snapshot.getChangeCounter());
+        assertEquals(0, snapshot.countRegularRevisionCards(LocalDate.now()));
+        verify(cardBaseRepository, times(1)).findByDeck(deck);
+    }
+
+    @Test
+    void testCompleteCardsChange_AppendsAddedCardWithoutRebuilding() {
+        // Arrange
+        DeckSnapshot openedSnapshot = deckSnapshotService.openSnapshot(deck).orElseThrow();
+        CardSuperMemo2 newCard = new CardSuperMemo2("new front", "new back", 2.5, 2.5, deck);
+        newCard.setIdCard(11L);
+        when(deckBaseRepository.findCardsChangeCounter(1L)).thenReturn(5L);
+
+        // Act
+        deckSnapshotService.beginCardsChange(deck);
+        deckSnapshotService.completeCardsChange(deck, List.of(newCard));
+        Optional<DeckSnapshot> snapshot = deckSnapshotService.openSnapshot(deck);
+        Optional<DeckSnapshot> reopenedSnapshot = new DeckSnapshotService(deckBaseRepository, cardBaseRepository,
+                snapshotDirectory).openSnapshot(deck);
+
+        // Assert
+        assertSame(openedSnapshot, snapshot.orElseThrow());
+        assertEquals(5L, openedSnapshot.getChangeCounter());
+        assertEquals(2, openedSnapshot.getCardsCount());
+        assertEquals(1, openedSnapshot.countNewCards());
+        assertEquals(2, reopenedSnapshot.orElseThrow().getCardsCount());
+        verify(cardBaseRepository, times(1)).findByDeck(deck);
+    }
+
+    @Test
+    void testBeginCardsChange_InvalidatesSnapshotFile() {
+        // Arrange
+        DeckSnapshot snapshot = deckSnapshotService.openSnapshot(deck).orElseThrow();
+
+        // Act
+        deckSnapshotService.beginCardsChange(deck);
+
+        // Assert
+        assertTrue(snapshot.isDirty());
+        verify(deckBaseRepository, times(1)).incrementCardsChangeCounter(1L);
+    }
+
+    @Test
+    void testDeleteSnapshot_RemovesFile() {
+        // Arrange
+        deckSnapshotService.openSnapshot(deck);
+
+        // Act
+        deckSnapshotService.deleteSnapshot(deck);
+
+        // Assert
+        assertFalse(Files.exists(snapshotDirectory.resolve("deck-1.snapshot")));
+    }
+
+    @Test
+    void testOpenSnapshot_DeckWithoutIdReturnsEmpty() {
+        // Act
+        Optional<DeckSnapshot> snapshot = deckSnapshotService.openSnapshot(new DeckBase());
+
+        // Assert
+        assertTrue(snapshot.isEmpty());
+        verifyNoInteractions(deckBaseRepository, cardBaseRepository);
+    }
+}
@@ -13,8 +13,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static gutek.services.ChartService.MAX_RANGE;
@@ -40,7 +42,8 @@ class DeckStatisticsServiceTest {
         deckStatisticsService = new DeckStatisticsService(
                 cardBaseRepository,
                 deckBaseStatisticsRepository,
-                revisionCountsRepository
+                revisionCountsRepository,
+                new ClockService(Clock.systemDefaultZone())
         );
     }
 
@@ -88,6 +91,7 @@ class DeckStatisticsServiceTest {
         // Arrange
         Long statsId = 1L;
         DeckBaseStatistics stats = new DeckBaseStatistics();
+        stats.setTodayIndicator(LocalDate.now());
         stats.setRevisedForTheFirstTime(new int[]{1, 2, 3});
 
         when(deckBaseStatisticsRepository.findById(statsId)).thenReturn(Optional.of(stats));
@@ -126,6 +130,7 @@ class DeckStatisticsServiceTest {
         when(mockRevisionAlgorithm.getAvailableRevisionStrategies()).thenReturn(List.of(mock(RevisionStrategy.class)));
 
         DeckBaseStatistics stats = new DeckBaseStatistics();
+        stats.setTodayIndicator(LocalDate.now());
         stats.setDeck(deck);
 
         RevisionCounts revisionCounts = new RevisionCounts();
@@ -153,6 +158,7 @@ class DeckStatisticsServiceTest {
         deck.setRevisionAlgorithm(mock(RevisionAlgorithm.class));
 
         DeckBaseStatistics stats = new DeckBaseStatistics();
+        stats.setTodayIndicator(LocalDate.now());
         stats.setDeck(deck);
 
         when(deckBaseStatisticsRepository.findById(statsId)).thenReturn(Optional.of(stats));
@@ -167,6 +173,7 @@ class DeckStatisticsServiceTest {
         // Arrange
         Long statsId = 1L;
         DeckBaseStatistics stats = new DeckBaseStatistics();
+        stats.setTodayIndicator(LocalDate.now());
         stats.setRevisedForTheFirstTime(new int[]{0});
 
         when(deckBaseStatisticsRepository.findById(statsId)).thenReturn(Optional.of(stats));
@@ -193,6 +200,7 @@ class DeckStatisticsServiceTest {
         when(mockRevisionAlgorithm.getAvailableRevisionStrategies()).thenReturn(List.of(mock(RevisionStrategy.class)));
 
         DeckBaseStatistics stats = new DeckBaseStatistics();
+        stats.setTodayIndicator(LocalDate.now());
         stats.setDeck(deck);
 
         RevisionCounts revisionCounts = new RevisionCounts();
@@ -215,6 +223,7 @@ class DeckStatisticsServiceTest {
     void testSaveDeckStatistics() {
         // Arrange
         DeckBaseStatistics stats = new DeckBaseStatistics();
+        stats.setTodayIndicator(LocalDate.now());
 
         // Act
         deckStatisticsService.saveDeckStatistics(stats);
@@ -228,6 +237,7 @@ class DeckStatisticsServiceTest {
         // Arrange
         Long statsId = 1L;
         DeckBaseStatistics stats = new DeckBaseStatistics();
+        stats.setTodayIndicator(LocalDate.now());
 
         when(deckBaseStatisticsRepository.findById(statsId)).thenReturn(Optional.of(stats));
 
@@ -238,4 +248,30 @@ class DeckStatisticsServiceTest {
         assertEquals(Optional.of(stats), result);
         verify(deckBaseStatisticsRepository, times(1)).findById(statsId);
     }
+
+    @Test
+    void testReplaceCounts_OverwritesAndResetsCounters() {
+        // Arrange
+        Long statsId = 1L;
+        DeckBaseStatistics stats = new DeckBaseStatistics();
+        stats.setTodayIndicator(LocalDate.now());
+        stats.getRevisedForTheFirstTime()[0] = 7;
+        RevisionCounts reverseCounts = new RevisionCounts(null, 1, new int[MAX_RANGE], stats);
+        reverseCounts.getCounts()[0] = 4;
+        stats.getRevisionCounts().put(1, reverseCounts);
+        when(deckBaseStatisticsRepository.findById(statsId)).thenReturn(Optional.of(stats));
+
+        // Act
+        deckStatisticsService.replaceCounts(statsId, new int[]{2, 1}, Map.of(0, new int[]{3}));
+
+        // Assert
+        assertEquals(MAX_RANGE, stats.getRevisedForTheFirstTime().length);
+        assertEquals(2, stats.getRevisedForTheFirstTime()[0]);
+        assertEquals(1, stats.getRevisedForTheFirstTime()[1]);
+        assertEquals(3, stats.getRevisionCounts().get(0).getCounts()[0]);
+        assertEquals(MAX_RANGE, stats.getRevisionCounts().get(0).getCounts().length);
+        assertEquals(0, stats.getRevisionCounts().get(1).getCounts()[0]);
+        verify(revisionCountsRepository).saveAll(stats.getRevisionCounts().values());
+        verify(deckBaseStatisticsRepository).save(stats);
+    }
 }
@@ -0,0 +1,314 @@
+package gutek.services;
+
+import gutek.domain.analytics.CardDifficulty;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.entities.algorithms.SuperMemo2RevisionAlgorithm;
+import gutek.entities.cards.CardBase;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.decks.DifficultCard;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardBaseRevisionRepository;
+import gutek.repositories.DeckBaseRepository;
+import gutek.repositories.DifficultCardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class DifficultCardServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private static final String REGULAR = "RegularTextModeRevisionStrategy";
+
+    @Mock
+    private DifficultCardRepository difficultCardRepository;
+
+    @Mock
+    private CardBaseRepository cardBaseRepository;
+
+    @Mock
+    private CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    @Mock
+    private DeckBaseRepository deckBaseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService backgroundExecutor;
+
+    private DifficultCardService difficultCardService;
+
+    private DeckBase deck;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        backgroundExecutor = Executors.newSingleThreadExecutor();
+        difficultCardService = new DifficultCardService(difficultCardRepository, cardBaseRepository, cardBaseRevisionRepository,
+                deckBaseRepository, transactionManager, backgroundExecutor);
+        deck = new DeckBase();
+        deck.setIdDeck(3L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backgroundExecutor.shutdownNow();
+    }
+
+    private CardBase card(long id) {
+        CardBase card = new CardBase();
+        card.setIdCard(id);
+        card.setDeck(deck);
+        return card;
+    }
+
+    @Test
+    void cardRevised_IgnoresRecalledRevisions() {
+        // Act
+        difficultCardService.cardRevised(card(1L), 3);
+
+        // Assert
+        verifyNoInteractions(cardBaseRevisionRepository, difficultCardRepository);
+    }
+
+    @Test
+    void cardRevised_AddsFailedCard_WhenIndexIsNotFull() {
+        // Arrange
+        CardBase card = card(1L);
+        when(cardBaseRevisionRepository.findRevisionLogByCardBase(card)).thenReturn(List.of(
+                new RevisionLogEntry(1L, DAY, 3, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 0, REGULAR)));
+        when(difficultCardRepository.findByCardId(1L)).thenReturn(Optional.empty());
+        when(difficultCardRepository.countByDeckId(3L)).thenReturn(5L);
+
+        // Act
+        difficultCardService.cardRevised(card, 0);
+
+        // Assert
+        verify(difficultCardRepository).save(new DifficultCard(null, 3L, 1L, 1, 1, DAY.plusDays(1)));
+        verify(difficultCardRepository, never()).delete(any());
+    }
+
+    @Test
+    void cardRevised_UpdatesIndexedCard() {
+        // Arrange
+        CardBase card = card(1L);
+        DifficultCard entry = new DifficultCard(7L, 3L, 1L, 1, 1, DAY);
+        when(cardBaseRevisionRepository.findRevisionLogByCardBase(card)).thenReturn(List.of(
+                new RevisionLogEntry(1L, DAY, 3, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 0, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(2), 0, REGULAR)));
+        when(difficultCardRepository.findByCardId(1L)).thenReturn(Optional.of(entry));
+
+        // Act
+        difficultCardService.cardRevised(card, 0);
+
+        // Assert
+        verify(difficultCardRepository).save(new DifficultCard(7L, 3L, 1L, 1, 2, DAY.plusDays(2)));
+        verify(difficultCardRepository, never()).countByDeckId(any());
+    }
+
+    @Test
+    void cardRevised_CountsLowGradeAsFailure_WhenDeckUsesSuperMemo2() {
+        // Arrange
+        deck.setRevisionAlgorithm(new SuperMemo2RevisionAlgorithm());
+        CardBase card = card(1L);
+        when(cardBaseRevisionRepository.findRevisionLogByCardBase(card)).thenReturn(List.of(
+                new RevisionLogEntry(1L, DAY, 3, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 1, REGULAR)));
+        when(difficultCardRepository.findByCardId(1L)).thenReturn(Optional.empty());
+        when(difficultCardRepository.countByDeckId(3L)).thenReturn(0L);
+
+        // Act
+        difficultCardService.cardRevised(card, 1);
+        difficultCardService.cardRevised(card, 2);
+
+        // Assert
+        verify(cardBaseRevisionRepository, times(1)).findRevisionLogByCardBase(card);
+        verify(difficultCardRepository).save(new DifficultCard(null, 3L, 1L, 1, 1, DAY.plusDays(1)));
+    }
+
+    @Test
+    void offer_EvictsLeastDifficult_WhenMoreDifficultCardArrivesInFullIndex() {
+        // Arrange
+        DifficultCard leastDifficult = new DifficultCard(9L, 3L, 2L, 0, 1, DAY);
+        when(difficultCardRepository.findByCardId(1L)).thenReturn(Optional.empty());
+        when(difficultCardRepository.countByDeckId(3L)).thenReturn((long) DifficultCardService.CAPACITY);
+        when(difficultCardRepository.findFirstByDeckIdOrderByLapsesAscFailuresAscLastFailureDateAscCardIdDesc(3L))
+                .thenReturn(Optional.of(leastDifficult));
+
+        // Act
+        difficultCardService.offer(3L, new CardDifficulty(1L, 1, 1, DAY));
+
+        // Assert
+        verify(difficultCardRepository).delete(leastDifficult);
+        verify(difficultCardRepository).save(new DifficultCard(null, 3L, 1L, 1, 1, DAY));
+    }
+
+    @Test
+    void offer_RejectsLessDifficultCard_WhenIndexIsFull() {
+        // Arrange
+        DifficultCard leastDifficult = new DifficultCard(9L, 3L, 2L, 2, 3, DAY);
+        when(difficultCardRepository.findByCardId(1L)).thenReturn(Optional.empty());
+        when(difficultCardRepository.countByDeckId(3L)).thenReturn((long) DifficultCardService.CAPACITY);
+        when(difficultCardRepository.findFirstByDeckIdOrderByLapsesAscFailuresAscLastFailureDateAscCardIdDesc(3L))
+                .thenReturn(Optional.of(leastDifficult));
+
+        // Act
+        difficultCardService.offer(3L, new CardDifficulty(1L, 1, 5, DAY));
+
+        // Assert
+        verify(difficultCardRepository, never()).delete(any());
+        verify(difficultCardRepository, never()).save(any());
+    }
+
+    @Test
+    void getLeeches_LoadsCardsInIndexOrder() {
+        // Arrange
+        CardBase first = card(1L);
+        CardBase second = card(2L);
+        when(difficultCardRepository.findByMinLapses(eq(3L), anyInt())).thenReturn(List.of(
+                new DifficultCard(1L, 3L, 2L, 10, 12, DAY),
+                new DifficultCard(2L, 3L, 1L, 8, 8, DAY),
+                new DifficultCard(3L, 3L, 5L, 8, 8, DAY)));
+        when(cardBaseRepository.findAllById(List.of(2L, 1L, 5L))).thenReturn(List.of(first, second));
+
+        // Act
+        List<CardBase> leeches = difficultCardService.getLeeches(deck);
+
+        // Assert
+        assertEquals(List.of(second, first), leeches);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildDeck_ReplacesIndexWithMostDifficultCardsOfLog() {
+        // Arrange
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(3L)).thenReturn(Stream.of(
+                new RevisionLogEntry(1L, DAY, 3, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 0, REGULAR),
+                new RevisionLogEntry(2L, DAY, 3, REGULAR)));
+
+        // Act
+        int entriesCount = difficultCardService.rebuildDeck(deck);
+
+        // Assert
+        assertEquals(1, entriesCount);
+        verify(difficultCardRepository).deleteByDeckId(3L);
+        ArgumentCaptor<List<DifficultCard>> captor = ArgumentCaptor.forClass(List.class);
+        verify(difficultCardRepository).saveAll(captor.capture());
+        assertEquals(List.of(new DifficultCard(null, 3L, 1L, 1, 1, DAY.plusDays(1))), captor.getValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildDeck_WritesSameEntriesAsIncrementalUpdates() {
+        // Arrange
+        List<RevisionLogEntry> revisionLog = List.of(
+                new RevisionLogEntry(1L, DAY, 3, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 0, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(2), 3, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(5), 0, REGULAR),
+                new RevisionLogEntry(2L, DAY, 0, REGULAR),
+                new RevisionLogEntry(2L, DAY.plusDays(1), 3, REGULAR));
+        Map<Long, DifficultCard> incrementalIndex = new HashMap<>();
+        when(difficultCardRepository.findByCardId(any())).thenAnswer(invocation ->
+                Optional.ofNullable(incrementalIndex.get(invocation.<Long>getArgument(0))));
+        when(difficultCardRepository.countByDeckId(3L)).thenAnswer(invocation -> (long) incrementalIndex.size());
+        when(difficultCardRepository.save(any())).thenAnswer(invocation -> {
+            DifficultCard entry = invocation.getArgument(0);
+            incrementalIndex.put(entry.getCardId(), entry);
+            return entry;
+        });
+        for (int revision = 0; revision < revisionLog.size(); revision++) {
+            RevisionLogEntry entry = revisionLog.get(revision);
+            CardBase card = card(entry.cardId());
+            List<RevisionLogEntry> cardLog = revisionLog.subList(0, revision + 1).stream()
+                    .filter(logEntry -> logEntry.cardId().equals(entry.cardId()))
+                    .toList();
+            when(cardBaseRevisionRepository.findRevisionLogByCardBase(card)).thenReturn(cardLog);
+            difficultCardService.cardRevised(card, entry.pressedButtonIndex());
+        }
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(3L)).thenReturn(revisionLog.stream());
+
+        // Act
+        difficultCardService.rebuildDeck(deck);
+
+        // Assert
+        ArgumentCaptor<List<DifficultCard>> captor = ArgumentCaptor.forClass(List.class);
+        verify(difficultCardRepository).saveAll(captor.capture());
+        assertEquals(Set.copyOf(incrementalIndex.values()), Set.copyOf(captor.getValue()));
+        assertEquals(2, captor.getValue().size());
+    }
+
+    @Test
+    void rebuildMissing_RebuildsOnlyDecksWithFailuresButNoIndex() throws Exception {
+        // Arrange
+        DeckBase indexedDeck = new DeckBase();
+        indexedDeck.setIdDeck(4L);
+        DeckBase unrevisedDeck = new DeckBase();
+        unrevisedDeck.setIdDeck(5L);
+        when(deckBaseRepository.findAll()).thenReturn(List.of(deck, indexedDeck, unrevisedDeck));
+        when(difficultCardRepository.existsByDeckId(4L)).thenReturn(true);
+        when(cardBaseRevisionRepository.existsByCardBaseDeckIdDeckAndPressedButtonIndexLessThan(3L, 1)).thenReturn(true);
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(3L)).thenReturn(Stream.empty());
+
+        // Act
+        difficultCardService.rebuildMissing().getResult().get();
+
+        // Assert
+        verify(cardBaseRevisionRepository).streamRevisionLogByDeckId(3L);
+        verify(cardBaseRevisionRepository, never()).streamRevisionLogByDeckId(4L);
+        verify(cardBaseRevisionRepository, never()).streamRevisionLogByDeckId(5L);
+    }
+
+    @Test
+    void rebuildMissing_LooksForAllFailingButtonsOfSuperMemo2Deck() throws Exception {
+        // Arrange
+        deck.setRevisionAlgorithm(new SuperMemo2RevisionAlgorithm());
+        when(deckBaseRepository.findAll()).thenReturn(List.of(deck));
+        when(cardBaseRevisionRepository.existsByCardBaseDeckIdDeckAndPressedButtonIndexLessThan(3L, 2)).thenReturn(true);
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(3L)).thenReturn(Stream.of(
+                new RevisionLogEntry(1L, DAY, 3, REGULAR),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 1, REGULAR)));
+
+        // Act
+        int entriesCount = difficultCardService.rebuildMissing().getResult().get();
+
+        // Assert
+        assertEquals(1, entriesCount);
+        verify(difficultCardRepository).saveAll(List.of(new DifficultCard(null, 3L, 1L, 1, 1, DAY.plusDays(1))));
+    }
+
+    @Test
+    void rebuildMissingOnStartup_StartsRebuildAndDoesNotPropagateItsFailure() {
+        // Arrange
+        when(deckBaseRepository.findAll()).thenReturn(List.of(deck));
+        when(cardBaseRevisionRepository.existsByCardBaseDeckIdDeckAndPressedButtonIndexLessThan(3L, 1)).thenReturn(true);
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(3L)).thenThrow(new IllegalStateException("Database closed"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> difficultCardService.rebuildMissingOnStartup());
+        verify(cardBaseRevisionRepository, timeout(5000)).streamRevisionLogByDeckId(3L);
+    }
+}
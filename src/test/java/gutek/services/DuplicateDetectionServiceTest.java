@@ -0,0 +1,183 @@
+package gutek.services;
+
+import gutek.domain.duplicates.DuplicateCandidate;
+import gutek.domain.duplicates.MinHasher;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardText;
+import gutek.domain.search.DeckName;
+import gutek.entities.cards.CardBase;
+import gutek.entities.cards.CardSignature;
+import gutek.entities.users.AppUser;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardSignatureRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DuplicateDetectionServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private CardBaseRepository cardBaseRepository;
+
+    @Mock
+    private DeckBaseRepository deckBaseRepository;
+
+    @Mock
+    private CardSignatureRepository cardSignatureRepository;
+
+    private DuplicateDetectionService duplicateDetectionService;
+
+    private AppUser user;
+
+    private List<CardText> texts;
+
+    private Map<Long, CardSignature> storedSignatures;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        duplicateDetectionService = new DuplicateDetectionService(cardBaseRepository, deckBaseRepository, cardSignatureRepository,
+                Executors.newSingleThreadExecutor());
+        user = new AppUser();
+        user.setIdUser(USER_ID);
+
+        texts = new ArrayList<>(List.of(
+                new CardText(1L, 10L, "self-assured", "pewny siebie"),
+                new CardText(2L, 10L, "dog", "pies"),
+                new CardText(3L, 20L, "self assured", "pewny siebie"),
+                new CardText(4L, 30L, "self assured", "pewny siebie")));
+        storedSignatures = new HashMap<>();
+        when(cardBaseRepository.countByDeckUserIdUser(USER_ID)).thenReturn(texts.size());
+        when(cardBaseRepository.findTextsByUserIdAfter(eq(USER_ID), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            int limit = invocation.<Pageable>getArgument(2).getPageSize();
+            return texts.stream().filter(text -> text.idCard() > afterId).limit(limit).toList();
+        });
+        when(cardBaseRepository.findTextsByIdCardIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return texts.stream().filter(text -> ids.contains(text.idCard())).toList();
+        });
+        when(deckBaseRepository.findNamesByUserIdNotDeleted(USER_ID)).thenReturn(List.of(
+                new DeckName(10L, "English"), new DeckName(20L, "Imported")));
+        when(cardSignatureRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<CardSignature> found = new ArrayList<>();
+            ids.forEach(id -> {
+                if (storedSignatures.containsKey(id)) {
+                    found.add(storedSignatures.get(id));
+                }
+            });
+            return found;
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindDuplicates_ReportsSimilarCardsAcrossNonDeletedDecks() throws Exception {
+        // Act
+        List<DuplicateCandidate> candidates = duplicateDetectionService.findDuplicatesInBackground(user).getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, candidates.size());
+        DuplicateCandidate candidate = candidates.get(0);
+        assertEquals(1L, candidate.first().card().idCard());
+        assertEquals("English", candidate.first().deckName());
+        assertEquals(3L, candidate.second().card().idCard());
+        assertEquals("Imported", candidate.second().deckName());
+        assertEquals(1.0, candidate.similarity());
+
+        ArgumentCaptor<List<CardSignature>> saved = ArgumentCaptor.forClass(List.class);
+        verify(cardSignatureRepository).saveAll(saved.capture());
+        assertEquals(List.of(1L, 2L, 3L), saved.getValue().stream().map(CardSignature::getCardId).toList());
+    }
+
+    @Test
+    void testFindDuplicates_ReusesUpToDateSignaturesOnly() throws Exception {
+        // Arrange
+        int[] dogSignature = MinHasher.signature("dog", "pies");
+        storedSignatures.put(2L, new CardSignature(2L, MinHasher.textHash("dog", "pies"), MinHasher.toBytes(dogSignature)));
+        storedSignatures.put(3L, new CardSignature(3L, MinHasher.textHash("old", "text"), MinHasher.toBytes(dogSignature)));
+        storedSignatures.put(1L, new CardSignature(1L, MinHasher.textHash("self-assured", "pewny siebie"), MinHasher.toBytes(dogSignature)));
+
+        // Act
+        List<DuplicateCandidate> candidates = duplicateDetectionService.findDuplicatesInBackground(user).getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(List.of(1L), candidates.stream().map(candidate -> candidate.first().card().idCard()).toList());
+        assertEquals(List.of(2L), candidates.stream().map(candidate -> candidate.second().card().idCard()).toList());
+        verify(cardSignatureRepository).saveAll(List.of(new CardSignature(3L, MinHasher.textHash("self assured", "pewny siebie"),
+                MinHasher.toBytes(MinHasher.signature("self assured", "pewny siebie")))));
+    }
+
+    @Test
+    void testFindDuplicates_SkipsPairsWithCardRemovedMeanwhile() throws Exception {
+        // Arrange
+        when(cardBaseRepository.findTextsByIdCardIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return texts.stream().filter(text -> ids.contains(text.idCard()) && text.idCard() != 3L).toList();
+        });
+
+        // Act
+        List<DuplicateCandidate> candidates = duplicateDetectionService.findDuplicatesInBackground(user).getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(candidates.isEmpty());
+    }
+
+    @Test
+    void testFindDuplicates_DoesNotReadCardsWhenCancelledBeforeStart() throws Exception {
+        // Arrange
+        ExecutorService executor = mock(ExecutorService.class);
+        duplicateDetectionService = new DuplicateDetectionService(cardBaseRepository, deckBaseRepository, cardSignatureRepository, executor);
+        ArgumentCaptor<Runnable> search = ArgumentCaptor.forClass(Runnable.class);
+
+        // Act
+        BackgroundJob<List<DuplicateCandidate>> job = duplicateDetectionService.findDuplicatesInBackground(user);
+        job.cancel();
+        verify(executor).execute(search.capture());
+        search.getValue().run();
+
+        // Assert
+        assertNull(job.getResult().get(5, TimeUnit.SECONDS));
+        verify(cardBaseRepository, never()).findTextsByUserIdAfter(anyLong(), anyLong(), any(Pageable.class));
+        verifyNoInteractions(cardSignatureRepository);
+    }
+
+    @Test
+    void testCardRemovedAndDeckRemoved_DeleteSignatures() {
+        // Arrange
+        CardBase card = new CardBase();
+        card.setIdCard(5L);
+
+        // Act
+        duplicateDetectionService.cardRemoved(card);
+        duplicateDetectionService.deckRemoved(20L);
+
+        // Assert
+        verify(cardSignatureRepository).deleteByCardId(5L);
+        verify(cardSignatureRepository).deleteByDeckId(20L);
+    }
+}
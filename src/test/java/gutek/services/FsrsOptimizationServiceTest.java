@@ -0,0 +1,124 @@
+package gutek.services;
+
+import gutek.domain.algorithms.FsrsFitResult;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.entities.algorithms.FsrsRevisionAlgorithm;
+import gutek.entities.algorithms.SuperMemo2RevisionAlgorithm;
+import gutek.entities.decks.DeckBase;
+import gutek.repositories.CardBaseRevisionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FsrsOptimizationServiceTest {
+
+    private static final String REGULAR_STRATEGY = "RegularTextModeRevisionStrategy";
+
+    @Mock
+    private CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    @Mock
+    private ExecutorService backgroundExecutor;
+
+    private ForkJoinPool computePool;
+
+    private FsrsOptimizationService fsrsOptimizationService;
+
+    private FsrsRevisionAlgorithm algorithm;
+
+    private DeckBase deck;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        computePool = new ForkJoinPool(2);
+        fsrsOptimizationService = new FsrsOptimizationService(cardBaseRevisionRepository, backgroundExecutor, computePool);
+
+        algorithm = new FsrsRevisionAlgorithm();
+        deck = new DeckBase();
+        deck.setIdDeck(1L);
+        deck.setRevisionAlgorithm(algorithm);
+    }
+
+    @AfterEach
+    void tearDown() {
+        computePool.shutdownNow();
+    }
+
+    @Test
+    void testOptimizeDeck_FitsWeightsToHistory() {
+        // Arrange
+        List<RevisionLogEntry> log = new ArrayList<>();
+        Random random = new Random(7);
+        for (long id = 1; id <= 200; id++) {
+            LocalDate date = LocalDate.of(2024, 1, 1);
+            for (int review = 0; review < 6; review++) {
+                int button = random.nextDouble() < 0.7 ? 2 : 0;
+                log.add(new RevisionLogEntry(id, date, button, REGULAR_STRATEGY));
+                date = date.plusDays(1 + random.nextInt(10));
+            }
+        }
+        when(cardBaseRevisionRepository.findRevisionLogByDeckId(1L)).thenReturn(log);
+
+        // Act
+        BackgroundJob<FsrsFitResult> job = fsrsOptimizationService.optimizeDeck(deck, null);
+        runCoordinator();
+
+        // Assert
+        FsrsFitResult result = job.getResult().join();
+        assertEquals(1000, result.predictedReviewsCount());
+        assertTrue(result.logLoss() < result.initialLogLoss());
+    }
+
+    @Test
+    void testOptimizeDeck_KeepsWeightsWhenHistoryIsTooShort() {
+        // Arrange
+        algorithm.setWeight8(2.0);
+        when(cardBaseRevisionRepository.findRevisionLogByDeckId(1L)).thenReturn(List.of(
+                new RevisionLogEntry(1L, LocalDate.of(2024, 1, 1), 2, REGULAR_STRATEGY),
+                new RevisionLogEntry(1L, LocalDate.of(2024, 1, 4), 2, REGULAR_STRATEGY)));
+
+        // Act
+        BackgroundJob<FsrsFitResult> job = fsrsOptimizationService.optimizeDeck(deck, null);
+        runCoordinator();
+
+        // Assert
+        FsrsFitResult result = job.getResult().join();
+        assertEquals(1, result.predictedReviewsCount());
+        assertArrayEquals(algorithm.getWeights(), result.weights());
+        assertEquals(result.initialLogLoss(), result.logLoss());
+    }
+
+    @Test
+    void testOptimizeDeck_RejectsOtherAlgorithms() {
+        // Arrange
+        deck.setRevisionAlgorithm(new SuperMemo2RevisionAlgorithm());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> fsrsOptimizationService.optimizeDeck(deck, null));
+        verifyNoInteractions(backgroundExecutor);
+    }
+
+    /**
+     * Runs the job coordinator submitted to the mocked background executor on the current thread.
+     */
+    private void runCoordinator() {
+        ArgumentCaptor<Runnable> coordinator = ArgumentCaptor.forClass(Runnable.class);
+        verify(backgroundExecutor).execute(coordinator.capture());
+        coordinator.getValue().run();
+    }
+}
@@ -0,0 +1,236 @@
+package gutek.services;
+
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.search.CardText;
+import gutek.domain.search.DeckName;
+import gutek.domain.search.GlobalSearchResult;
+import gutek.entities.cards.CardBase;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.users.AppUser;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GlobalSearchServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private CardBaseRepository cardBaseRepository;
+
+    @Mock
+    private DeckBaseRepository deckBaseRepository;
+
+    private GlobalSearchService globalSearchService;
+
+    private AppUser user;
+
+    private List<CardText> texts;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        globalSearchService = new GlobalSearchService(cardBaseRepository, deckBaseRepository, Executors.newSingleThreadExecutor());
+        user = new AppUser();
+        user.setIdUser(USER_ID);
+
+        texts = new ArrayList<>(List.of(
+                new CardText(1L, 10L, "kot", "cat"),
+                new CardText(2L, 10L, "pies", "dog"),
+                new CardText(3L, 20L, "kotlet", "cutlet"),
+                new CardText(4L, 30L, "kotwica", "anchor")));
+        when(cardBaseRepository.countByDeckUserIdUser(USER_ID)).thenReturn(texts.size());
+        when(cardBaseRepository.findTextsByUserIdAfter(eq(USER_ID), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            int limit = invocation.<Pageable>getArgument(2).getPageSize();
+            return texts.stream().filter(text -> text.idCard() > afterId).limit(limit).toList();
+        });
+        when(cardBaseRepository.findTextsByIdCardIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return texts.stream().filter(text -> ids.contains(text.idCard())).toList();
+        });
+        when(deckBaseRepository.findNamesByUserIdNotDeleted(USER_ID)).thenReturn(List.of(
+                new DeckName(10L, "Animals"), new DeckName(20L, "Food")));
+    }
+
+    @Test
+    void testBuildIndex_IndexesAllCardsOfUser() throws Exception {
+        // Act
+        BackgroundJob<Integer> job = globalSearchService.buildIndex(user);
+
+        // Assert
+        assertEquals(4, job.getResult().get(5, TimeUnit.SECONDS));
+        assertTrue(globalSearchService.isIndexReady(user));
+        assertEquals(1.0, job.getProgress());
+    }
+
+    @Test
+    void testBuildIndex_ReadsCardsInBatchesByKeyset() throws Exception {
+        // Arrange
+        texts.clear();
+        LongStream.rangeClosed(1, GlobalSearchService.BUILD_BATCH_SIZE + 1)
+                .forEach(id -> texts.add(new CardText(id, 10L, "front " + id, "back")));
+        when(cardBaseRepository.countByDeckUserIdUser(USER_ID)).thenReturn(texts.size());
+
+        // Act
+        int indexedCount = globalSearchService.buildIndex(user).getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(GlobalSearchService.BUILD_BATCH_SIZE + 1, indexedCount);
+        ArgumentCaptor<Long> afterIds = ArgumentCaptor.forClass(Long.class);
+        verify(cardBaseRepository, times(2)).findTextsByUserIdAfter(eq(USER_ID), afterIds.capture(), any(Pageable.class));
+        assertEquals(List.of(Long.MIN_VALUE, (long) GlobalSearchService.BUILD_BATCH_SIZE), afterIds.getAllValues());
+    }
+
+    @Test
+    void testSearch_ReturnsVerifiedCardsOfNonDeletedDecks() throws Exception {
+        // Arrange
+        globalSearchService.buildIndex(user).getResult().get(5, TimeUnit.SECONDS);
+
+        // Act
+        List<GlobalSearchResult> results = globalSearchService.search(user, "KOT", 10);
+
+        // Assert
+        assertEquals(List.of(1L, 3L), results.stream().map(result -> result.card().idCard()).toList());
+        assertEquals("Animals", results.get(0).deckName());
+        assertEquals(20L, results.get(1).deckId());
+    }
+
+    @Test
+    void testSearch_SkipsCandidatesWhoseTextsChanged() throws Exception {
+        // Arrange
+        globalSearchService.buildIndex(user).getResult().get(5, TimeUnit.SECONDS);
+        texts.set(0, new CardText(1L, 10L, "kitten", "cat"));
+
+        // Act
+        List<GlobalSearchResult> results = globalSearchService.search(user, "kot", 10);
+
+        // Assert
+        assertEquals(List.of(3L), results.stream().map(result -> result.card().idCard()).toList());
+    }
+
+    @Test
+    void testSearch_ReturnsNothingForShortPhraseOrOtherUser() throws Exception {
+        // Arrange
+        globalSearchService.buildIndex(user).getResult().get(5, TimeUnit.SECONDS);
+        AppUser otherUser = new AppUser();
+        otherUser.setIdUser(8L);
+
+        // Act
+        List<GlobalSearchResult> shortPhraseResults = globalSearchService.search(user, "ko", 10);
+        List<GlobalSearchResult> otherUserResults = globalSearchService.search(otherUser, "kot", 10);
+
+        // Assert
+        assertTrue(shortPhraseResults.isEmpty());
+        assertTrue(otherUserResults.isEmpty());
+        verify(cardBaseRepository, never()).findTextsByIdCardIn(anyCollection());
+    }
+
+    @Test
+    void testCardSaved_IndexesCardsOfIndexedUserOnly() throws Exception {
+        // Arrange
+        globalSearchService.buildIndex(user).getResult().get(5, TimeUnit.SECONDS);
+        AppUser otherUser = new AppUser();
+        otherUser.setIdUser(8L);
+        texts.add(new CardText(5L, 10L, "kotek", "kitten"));
+        texts.add(new CardText(6L, 10L, "kotka", "she-cat"));
+
+        // Act
+        globalSearchService.cardSaved(createCard(5L, 10L, user, "kotek", "kitten"));
+        globalSearchService.cardSaved(createCard(6L, 10L, otherUser, "kotka", "she-cat"));
+        List<GlobalSearchResult> results = globalSearchService.search(user, "kot", 10);
+
+        // Assert
+        assertEquals(List.of(1L, 3L, 5L), results.stream().map(result -> result.card().idCard()).toList());
+    }
+
+    @Test
+    void testDeckCardsAdded_IndexesCopiedCardsOfDeckInBatches() throws Exception {
+        // Arrange
+        globalSearchService.buildIndex(user).getResult().get(5, TimeUnit.SECONDS);
+        LongStream.rangeClosed(5, GlobalSearchService.BUILD_BATCH_SIZE + 4)
+                .forEach(id -> texts.add(new CardText(id, 10L, "kotek " + id, "kitten")));
+        when(cardBaseRepository.findTextsByDeckIdAfter(eq(10L), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            int limit = invocation.<Pageable>getArgument(2).getPageSize();
+            return texts.stream().filter(text -> text.idDeck() == 10L && text.idCard() > afterId).limit(limit).toList();
+        });
+        AppUser otherUser = new AppUser();
+        otherUser.setIdUser(8L);
+
+        // Act
+        globalSearchService.deckCardsAdded(10L, user);
+        globalSearchService.deckCardsAdded(40L, otherUser);
+        List<GlobalSearchResult> results = globalSearchService.search(user, "kotek 2004", 10);
+
+        // Assert
+        assertEquals(List.of(2004L), results.stream().map(result -> result.card().idCard()).toList());
+        verify(cardBaseRepository, times(2)).findTextsByDeckIdAfter(eq(10L), anyLong(), any(Pageable.class));
+        verify(cardBaseRepository, never()).findTextsByDeckIdAfter(eq(40L), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void testCardRemovedAndDeckRemoved_RemoveCardsFromIndex() throws Exception {
+        // Arrange
+        globalSearchService.buildIndex(user).getResult().get(5, TimeUnit.SECONDS);
+        CardBase removedCard = createCard(1L, 10L, user, "kot", "cat");
+
+        // Act
+        globalSearchService.cardRemoved(removedCard);
+        globalSearchService.deckRemoved(20L);
+        List<GlobalSearchResult> results = globalSearchService.search(user, "kot", 10);
+
+        // Assert
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void testSearchInBackground_DoesNotSearchWhenCancelledBeforeStart() throws Exception {
+        // Arrange
+        ExecutorService executor = mock(ExecutorService.class);
+        globalSearchService = new GlobalSearchService(cardBaseRepository, deckBaseRepository, executor);
+        ArgumentCaptor<Runnable> search = ArgumentCaptor.forClass(Runnable.class);
+
+        // Act
+        BackgroundJob<List<GlobalSearchResult>> job = globalSearchService.searchInBackground(user, "kot");
+        job.cancel();
+        verify(executor).execute(search.capture());
+        search.getValue().run();
+
+        // Assert
+        assertNull(job.getResult().get(5, TimeUnit.SECONDS));
+        verifyNoInteractions(deckBaseRepository);
+    }
+
+    private CardBase createCard(Long cardId, Long deckId, AppUser owner, String front, String back) {
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(deckId);
+        deck.setUser(owner);
+        CardBase card = new CardBase();
+        card.setIdCard(cardId);
+        card.setDeck(deck);
+        card.setFront(front);
+        card.setBack(back);
+        return card;
+    }
+}
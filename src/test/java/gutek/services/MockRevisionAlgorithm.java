@@ -3,6 +3,8 @@ package gutek.services;
 import gutek.entities.algorithms.RevisionAlgorithm;
 import gutek.entities.cards.CardBase;
 
+import java.time.LocalDate;
+
 public class MockRevisionAlgorithm extends RevisionAlgorithm<CardBase> {
     public MockRevisionAlgorithm() {
         super();
@@ -42,4 +44,14 @@ public class MockRevisionAlgorithm extends RevisionAlgorithm<CardBase> {
     public void initializeDefaultRevisionStrategies() {
         // ignore
     }
+
+    @Override
+    public void resetCard(CardBase card) {
+        // ignore
+    }
+
+    @Override
+    public void replayRevision(int strategyIndex, int pressedButtonIndex, CardBase card, LocalDate revisionDate) {
+        // ignore
+    }
 }
@@ -0,0 +1,182 @@
+package gutek.services;
+
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.jobs.JobProgressListener;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.entities.algorithms.SuperMemo2RevisionAlgorithm;
+import gutek.entities.cards.CardBase;
+import gutek.entities.cards.CardSuperMemo2;
+import gutek.entities.decks.DeckBase;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardBaseRevisionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ReschedulingServiceTest {
+
+    private static final String REGULAR_STRATEGY = "RegularTextModeRevisionStrategy";
+    private static final String REVERSE_STRATEGY = "ReverseTextModeRevisionStrategy";
+
+    @Mock
+    private CardBaseRepository cardBaseRepository;
+
+    @Mock
+    private CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    @Mock
+    private CardService cardService;
+
+    @Mock
+    private ExecutorService backgroundExecutor;
+
+    private ForkJoinPool computePool;
+
+    private ReschedulingService reschedulingService;
+
+    private DeckBase deck;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        computePool = new ForkJoinPool(2);
+        reschedulingService = new ReschedulingService(cardBaseRepository, cardBaseRevisionRepository, cardService,
+                backgroundExecutor, computePool);
+
+        SuperMemo2RevisionAlgorithm algorithm = new SuperMemo2RevisionAlgorithm();
+        algorithm.initializeDefaultHiperparameters();
+        deck = new DeckBase();
+        deck.setIdDeck(1L);
+        deck.setRevisionAlgorithm(algorithm);
+    }
+
+    @AfterEach
+    void tearDown() {
+        computePool.shutdownNow();
+    }
+
+    @Test
+    void testRescheduleDeck_ReplaysHistoryUnderCurrentHyperparameters() {
+        // Arrange
+        LocalDate firstRevision = LocalDate.of(2024, 3, 1);
+        LocalDate secondRevision = LocalDate.of(2024, 3, 2);
+        CardSuperMemo2 revisedCard = createCard(1L);
+        revisedCard.setRepetition(7);
+        revisedCard.setRegularInterval(120);
+        CardSuperMemo2 unrevisedCard = createCard(2L);
+        when(cardBaseRepository.findByDeck(deck)).thenReturn(List.of(revisedCard, unrevisedCard));
+        when(cardBaseRevisionRepository.findRevisionLogByDeckId(1L)).thenReturn(List.of(
+                new RevisionLogEntry(1L, firstRevision, 4, REGULAR_STRATEGY),
+                new RevisionLogEntry(1L, secondRevision, 4, REGULAR_STRATEGY),
+                new RevisionLogEntry(1L, secondRevision, 0, REVERSE_STRATEGY)));
+
+        // Act
+        BackgroundJob<Integer> job = reschedulingService.rescheduleDeck(deck, null);
+        runCoordinator();
+
+        // Assert
+        assertEquals(1, job.getResult().join());
+        verify(cardService, times(1)).saveCards(List.of(revisedCard));
+        assertEquals(2, revisedCard.getRepetition());
+        assertEquals(6, revisedCard.getRegularInterval());
+        assertEquals(secondRevision.plusDays(6), revisedCard.getNextRegularRevisionDate());
+        assertEquals(1, revisedCard.getReverseIncorrectCounter());
+        assertEquals(secondRevision.plusDays(1), revisedCard.getNextReverseRevisionDate());
+        assertFalse(revisedCard.isNewCard());
+        assertTrue(unrevisedCard.isNewCard());
+    }
+
+    @Test
+    void testRescheduleDeck_SavesEveryChunkAndReportsProgress() {
+        // Arrange
+        int cardsCount = 2 * ReschedulingService.CHUNK_SIZE + 1;
+        List<CardBase> cards = new ArrayList<>();
+        List<RevisionLogEntry> history = new ArrayList<>();
+        for (long id = 1; id <= cardsCount; id++) {
+            cards.add(createCard(id));
+            history.add(new RevisionLogEntry(id, LocalDate.of(2024, 3, 1), 3, REGULAR_STRATEGY));
+        }
+        when(cardBaseRepository.findByDeck(deck)).thenReturn(cards);
+        when(cardBaseRevisionRepository.findRevisionLogByDeckId(1L)).thenReturn(history);
+        JobProgressListener listener = mock(JobProgressListener.class);
+
+        // Act
+        BackgroundJob<Integer> job = reschedulingService.rescheduleDeck(deck, listener);
+        runCoordinator();
+
+        // Assert
+        assertEquals(cardsCount, job.getResult().join());
+        verify(cardService, times(3)).saveCards(anyList());
+        verify(listener).onProgress(cardsCount, cardsCount);
+        assertEquals(1.0, job.getProgress());
+    }
+
+    @Test
+    void testRescheduleDeck_CancelStopsWriting() {
+        // Arrange
+        int cardsCount = 3 * ReschedulingService.CHUNK_SIZE;
+        List<CardBase> cards = new ArrayList<>();
+        List<RevisionLogEntry> history = new ArrayList<>();
+        for (long id = 1; id <= cardsCount; id++) {
+            cards.add(createCard(id));
+            history.add(new RevisionLogEntry(id, LocalDate.of(2024, 3, 1), 3, REGULAR_STRATEGY));
+        }
+        when(cardBaseRepository.findByDeck(deck)).thenReturn(cards);
+        when(cardBaseRevisionRepository.findRevisionLogByDeckId(1L)).thenReturn(history);
+        AtomicReference<BackgroundJob<Integer>> jobReference = new AtomicReference<>();
+        doAnswer(invocation -> {
+            jobReference.get().cancel();
+            return null;
+        }).when(cardService).saveCards(anyList());
+
+        // Act
+        BackgroundJob<Integer> job = reschedulingService.rescheduleDeck(deck, null);
+        jobReference.set(job);
+        runCoordinator();
+
+        // Assert
+        assertTrue(job.isCancelled());
+        assertEquals(ReschedulingService.CHUNK_SIZE, job.getResult().join());
+        verify(cardService, times(1)).saveCards(anyList());
+    }
+
+    @Test
+    void testRescheduleDeck_FailureCompletesResultExceptionally() {
+        // Arrange
+        when(cardBaseRepository.findByDeck(deck)).thenThrow(new IllegalStateException("database unavailable"));
+
+        // Act
+        BackgroundJob<Integer> job = reschedulingService.rescheduleDeck(deck, null);
+        runCoordinator();
+
+        // Assert
+        assertTrue(job.getResult().isCompletedExceptionally());
+        verifyNoInteractions(cardService);
+    }
+
+    private void runCoordinator() {
+        ArgumentCaptor<Runnable> coordinator = ArgumentCaptor.forClass(Runnable.class);
+        verify(backgroundExecutor).execute(coordinator.capture());
+        coordinator.getValue().run();
+    }
+
+    private CardSuperMemo2 createCard(Long id) {
+        CardSuperMemo2 card = new CardSuperMemo2("front " + id, "back " + id, 2.5, 2.5, deck);
+        card.setIdCard(id);
+        return card;
+    }
+}
@@ -0,0 +1,207 @@
+package gutek.services;
+
+import gutek.domain.analytics.RetentionStatistics;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.entities.algorithms.SuperMemo2RevisionAlgorithm;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.users.AppUser;
+import gutek.repositories.CardBaseRevisionRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RetentionAnalyticsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+    private static final String REGULAR_STRATEGY = "RegularTextModeRevisionStrategy";
+
+    @Mock
+    private CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    @Mock
+    private DeckBaseRepository deckBaseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService backgroundExecutor;
+
+    private RetentionAnalyticsService retentionAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        backgroundExecutor = Executors.newFixedThreadPool(2);
+        retentionAnalyticsService = new RetentionAnalyticsService(cardBaseRevisionRepository, deckBaseRepository,
+                transactionManager, backgroundExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backgroundExecutor.shutdownNow();
+    }
+
+    @Test
+    void testAnalyzeDeck_StreamsRevisionLogInReadOnlyTransactionAndClosesStream() {
+        // Arrange
+        DeckBase deck = deck(1L);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(1L)).thenReturn(Stream.of(
+                new RevisionLogEntry(1L, DAY, 3, REGULAR_STRATEGY),
+                new RevisionLogEntry(1L, DAY.plusDays(2), 0, REGULAR_STRATEGY)).onClose(() -> closed.set(true)));
+
+        // Act
+        RetentionStatistics statistics = retentionAnalyticsService.analyzeDeck(deck, null);
+
+        // Assert
+        assertEquals(1, statistics.getCurveReviews(2));
+        assertEquals(1, statistics.getLapsesCount());
+        assertTrue(closed.get());
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testAnalyzeDeck_CountsLowGradesAsLapses_WhenDeckUsesSuperMemo2() {
+        // Arrange
+        DeckBase deck = deck(1L);
+        deck.setRevisionAlgorithm(new SuperMemo2RevisionAlgorithm());
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(1L)).thenReturn(Stream.of(
+                new RevisionLogEntry(1L, DAY, 3, REGULAR_STRATEGY),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 1, REGULAR_STRATEGY),
+                new RevisionLogEntry(1L, DAY.plusDays(2), 2, REGULAR_STRATEGY)));
+
+        // Act
+        RetentionStatistics statistics = retentionAnalyticsService.analyzeDeck(deck, null);
+
+        // Assert
+        assertEquals(0.5, statistics.getCurveRetention(1), 1e-9);
+        assertEquals(1, statistics.getLapsesCount());
+    }
+
+    @Test
+    void testAnalyzeDeck_StopsReadingRevisionLogAndRollsBack_WhenCancelled() {
+        // Arrange
+        DeckBase deck = deck(1L);
+        AtomicInteger readEntries = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(1L)).thenReturn(Stream.of(
+                        new RevisionLogEntry(1L, DAY, 3, REGULAR_STRATEGY),
+                        new RevisionLogEntry(1L, DAY.plusDays(1), 3, REGULAR_STRATEGY),
+                        new RevisionLogEntry(1L, DAY.plusDays(2), 3, REGULAR_STRATEGY))
+                .peek(entry -> readEntries.incrementAndGet())
+                .onClose(() -> closed.set(true)));
+
+        // Act & Assert
+        assertThrows(CancellationException.class,
+                () -> retentionAnalyticsService.analyzeDeck(deck, null, () -> readEntries.get() >= 2));
+        assertEquals(2, readEntries.get());
+        assertTrue(closed.get());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void testAnalyzeDeck_ReturnsEmptyStatistics_WhenDeckIsNotSaved() {
+        // Act
+        RetentionStatistics statistics = retentionAnalyticsService.analyzeDeck(new DeckBase(), null);
+
+        // Assert
+        assertEquals(0, statistics.getLearnedReviewsCount());
+        verifyNoInteractions(cardBaseRevisionRepository);
+    }
+
+    @Test
+    void testAnalyzeUser_MergesStatisticsOfAllDecks() {
+        // Arrange
+        AppUser user = new AppUser();
+        when(deckBaseRepository.findByUserAndIsDeletedFalse(user)).thenReturn(List.of(deck(1L), deck(2L)));
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(1L)).thenReturn(Stream.of(
+                new RevisionLogEntry(1L, DAY, 3, REGULAR_STRATEGY),
+                new RevisionLogEntry(1L, DAY.plusDays(1), 3, REGULAR_STRATEGY)));
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(2L)).thenReturn(Stream.of(
+                new RevisionLogEntry(2L, DAY, 3, REGULAR_STRATEGY),
+                new RevisionLogEntry(2L, DAY.plusDays(1), 0, REGULAR_STRATEGY)));
+
+        // Act
+        RetentionStatistics statistics = retentionAnalyticsService.analyzeUser(user, DAY);
+
+        // Assert
+        assertEquals(2, statistics.getCurveReviews(1));
+        assertEquals(0.5, statistics.getCurveRetention(1), 1e-9);
+        assertEquals(0.5, statistics.getLapseRate(), 1e-9);
+        verify(cardBaseRevisionRepository).streamRevisionLogByDeckId(1L);
+        verify(cardBaseRevisionRepository).streamRevisionLogByDeckId(2L);
+    }
+
+    @Test
+    void testAnalyzeDecks_AnalyzesAtMostOneDeckPerProcessorAtOnce() {
+        // Arrange
+        ExecutorService cachedExecutor = Executors.newCachedThreadPool();
+        retentionAnalyticsService = new RetentionAnalyticsService(cardBaseRevisionRepository, deckBaseRepository,
+                transactionManager, cachedExecutor);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return Stream.of(new RevisionLogEntry(invocation.getArgument(0), DAY, 3, REGULAR_STRATEGY),
+                    new RevisionLogEntry(invocation.getArgument(0), DAY.plusDays(1), 3, REGULAR_STRATEGY));
+        });
+        List<DeckBase> decks = LongStream.rangeClosed(1, RetentionAnalyticsService.PARALLELISM * 4L)
+                .mapToObj(this::deck)
+                .toList();
+
+        // Act
+        RetentionStatistics statistics = retentionAnalyticsService.analyzeDecks(decks, null);
+        cachedExecutor.shutdownNow();
+
+        // Assert
+        assertEquals(decks.size(), statistics.getCurveReviews(1));
+        assertTrue(maxRunning.get() <= RetentionAnalyticsService.PARALLELISM);
+        verify(cardBaseRevisionRepository, times(decks.size())).streamRevisionLogByDeckId(any());
+    }
+
+    @Test
+    void testFindLeeches_ReturnsCardsWithManyLapses() {
+        // Arrange
+        DeckBase deck = deck(1L);
+        Stream.Builder<RevisionLogEntry> log = Stream.builder();
+        for (int i = 0; i < 2 * RetentionStatistics.LEECH_LAPSES; i++) {
+            log.add(new RevisionLogEntry(9L, DAY.plusDays(i), i % 2 == 0 ? 3 : 0, REGULAR_STRATEGY));
+        }
+        log.add(new RevisionLogEntry(10L, DAY, 3, REGULAR_STRATEGY));
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(1L)).thenReturn(log.build());
+
+        // Act
+        long[] leeches = retentionAnalyticsService.findLeeches(deck);
+
+        // Assert
+        assertArrayEquals(new long[]{9L}, leeches);
+    }
+
+    private DeckBase deck(Long id) {
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(id);
+        return deck;
+    }
+}
@@ -9,6 +9,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.lang.reflect.Field;
+import java.time.Clock;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,7 +28,8 @@ class RevisionAlgorithmServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        revisionAlgorithmService = new RevisionAlgorithmService(translationService, revisionAlgorithmRepository);
+        revisionAlgorithmService = new RevisionAlgorithmService(translationService, revisionAlgorithmRepository,
+                new ClockService(Clock.systemDefaultZone()));
     }
 
     @Test
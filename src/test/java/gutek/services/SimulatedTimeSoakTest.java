@@ -0,0 +1,245 @@
+package gutek.services;
+
+import gutek.domain.time.SimulatedClock;
+import gutek.entities.algorithms.RevisionAlgorithm;
+import gutek.entities.algorithms.SuperMemo2RevisionAlgorithm;
+import gutek.entities.cards.CardBase;
+import gutek.entities.cards.CardBaseRevision;
+import gutek.entities.cards.CardSuperMemo2;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.decks.DeckBaseStatistics;
+import gutek.entities.users.AppUser;
+import gutek.repositories.AppUserRepository;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardBaseRevisionRepository;
+import gutek.repositories.CardSignatureRepository;
+import gutek.repositories.CardTagRepository;
+import gutek.repositories.DeckBaseRepository;
+import gutek.repositories.DeckBaseStatisticsRepository;
+import gutek.repositories.DeckDailyAggregateRepository;
+import gutek.repositories.DifficultCardRepository;
+import gutek.repositories.RevisionAlgorithmRepository;
+import gutek.repositories.RevisionCountsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Soak test driving the real services through simulated daily sessions.
+ * <p>
+ * Every simulated day new cards are added, all new and due cards are revised and the clock is moved to the next day.
+ * The test checks that the cards are created, revised and scheduled according to the simulated clock; the features
+ * derived from the revisions are covered by the tests of their services.
+ * </p>
+ * <p>
+ * The test is tagged {@code soak} and excluded from the default test run; run it with {@code mvn test -Psoak}.
+ * The length of the simulation can be changed with the {@code soak.days} and {@code soak.newCardsPerDay}
+ * system properties, e.g. {@code -Dsoak.days=3650} simulates ten years of revisions.
+ * </p>
+ */
+@Tag("soak")
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SimulatedTimeSoakTest {
+
+    private static final LocalDate START_DATE = LocalDate.of(2020, 1, 1);
+
+    private static final int DAYS = Integer.getInteger("soak.days", 30);
+
+    private static final int NEW_CARDS_PER_DAY = Integer.getInteger("soak.newCardsPerDay", 3);
+
+    private static final int REGULAR_STRATEGY_INDEX = 0;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private DeckBaseRepository deckBaseRepository;
+
+    @Autowired
+    private CardBaseRepository cardBaseRepository;
+
+    @Autowired
+    private CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    @Autowired
+    private RevisionAlgorithmRepository revisionAlgorithmRepository;
+
+    @Autowired
+    private DeckBaseStatisticsRepository deckBaseStatisticsRepository;
+
+    @Autowired
+    private RevisionCountsRepository revisionCountsRepository;
+
+    @Autowired
+    private DeckDailyAggregateRepository deckDailyAggregateRepository;
+
+    @Autowired
+    private DifficultCardRepository difficultCardRepository;
+
+    @Autowired
+    private CardSignatureRepository cardSignatureRepository;
+
+    @Autowired
+    private CardTagRepository cardTagRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @TempDir
+    private Path snapshotDirectory;
+
+    private SimulatedClock clock;
+
+    private ClockService clockService;
+
+    private DeckService deckService;
+
+    private CardService cardService;
+
+    private DeckStatisticsService deckStatisticsService;
+
+    private CardRevisionService cardRevisionService;
+
+    private DailyAggregateService dailyAggregateService;
+
+    private DifficultCardService difficultCardService;
+
+    private GlobalSearchService globalSearchService;
+
+    private DuplicateDetectionService duplicateDetectionService;
+
+    private TagService tagService;
+
+    private DeckSnapshotService deckSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        clock = SimulatedClock.startingAt(START_DATE, ZoneOffset.UTC);
+        clockService = new ClockService(clock);
+        dailyAggregateService = new DailyAggregateService(deckDailyAggregateRepository, cardBaseRepository, cardBaseRevisionRepository,
+                deckBaseRepository, transactionManager, clockService, null);
+        difficultCardService = new DifficultCardService(difficultCardRepository, cardBaseRepository, cardBaseRevisionRepository,
+                deckBaseRepository, transactionManager, null);
+        deckSnapshotService = new DeckSnapshotService(deckBaseRepository, cardBaseRepository, snapshotDirectory);
+        globalSearchService = new GlobalSearchService(cardBaseRepository, deckBaseRepository, Executors.newSingleThreadExecutor());
+        duplicateDetectionService = new DuplicateDetectionService(cardBaseRepository, deckBaseRepository, cardSignatureRepository,
+                Executors.newSingleThreadExecutor());
+        tagService = new TagService(cardBaseRepository, cardTagRepository);
+        deckService = new DeckService(deckBaseRepository, appUserRepository, cardBaseRepository, cardBaseRevisionRepository,
+                revisionAlgorithmRepository, deckBaseStatisticsRepository, deckSnapshotService, clockService,
+                dailyAggregateService, difficultCardService, globalSearchService, duplicateDetectionService, tagService,
+                eventPublisher);
+        CardSearchService cardSearchService = new CardSearchService(new JdbcTemplate(dataSource));
+        cardSearchService.initialize();
+        cardService = new CardService(cardBaseRepository, deckBaseRepository, cardBaseRevisionRepository, deckSnapshotService, clockService,
+                eventPublisher, dailyAggregateService, difficultCardService, cardSearchService, Executors.newSingleThreadExecutor(),
+                globalSearchService, duplicateDetectionService, tagService);
+        deckStatisticsService = new DeckStatisticsService(cardBaseRepository, deckBaseStatisticsRepository, revisionCountsRepository, clockService);
+        cardRevisionService = new CardRevisionService(cardBaseRevisionRepository, cardBaseRepository, clockService, eventPublisher,
+                dailyAggregateService, difficultCardService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dailySessions_ShouldFollowSimulatedClock() {
+        // Arrange
+        AppUser user = new AppUser();
+        user.setUsername("soak");
+        user.setPassword("soak");
+        user = appUserRepository.save(user);
+        Long deckId = deckService.addNewDeck(user, new SuperMemo2RevisionAlgorithm(), "Soak deck").getIdDeck();
+        Long statisticsId = deckService.findById(deckId).orElseThrow().getDeckBaseStatistics().getIdDeckStatistics();
+        DeckBaseStatistics statistics = deckStatisticsService.loadDeckStatistics(statisticsId).orElseThrow();
+        statistics.setNewCardsPerDay(NEW_CARDS_PER_DAY);
+        deckStatisticsService.saveDeckStatistics(statistics);
+        Random random = new Random(42);
+        int revisionsCount = 0;
+
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate today = START_DATE.plusDays(day);
+            clock.setInstant(today.atStartOfDay(ZoneOffset.UTC).toInstant());
+            DeckBase deck = deckService.findById(deckId).orElseThrow();
+            for (int i = 0; i < NEW_CARDS_PER_DAY; i++) {
+                cardService.addNewCard("front " + day + " " + i, "back " + day + " " + i, deck);
+                clock.advance(Duration.ofMinutes(1));
+            }
+
+            // Act
+            deck = deckService.findById(deckId).orElseThrow();
+            RevisionAlgorithm<CardSuperMemo2> algorithm = (RevisionAlgorithm<CardSuperMemo2>) deck.getRevisionAlgorithm();
+            algorithm.setClock(clockService.getClock());
+            List<CardBase> cardsToRevise = new ArrayList<>(deckService.getRegularRevisionCards(deck));
+            int dueCardsCount = cardsToRevise.size();
+            int newCardsCount = deckStatisticsService.getNewCardsForToday(statisticsId);
+            cardsToRevise.addAll(deckService.getNewCardsForTodayRevision(deck, newCardsCount));
+
+            for (CardBase card : cardsToRevise) {
+                int pressedButtonIndex = random.nextDouble() < 0.85 ? 3 + random.nextInt(2) : random.nextInt(3);
+                cardRevisionService.revise(card, pressedButtonIndex, algorithm.getAvailableRevisionStrategies().get(REGULAR_STRATEGY_INDEX));
+                if (card.isNewCard()) {
+                    deckStatisticsService.newCardRevised(statisticsId);
+                }
+                algorithm.replayRevision(REGULAR_STRATEGY_INDEX, pressedButtonIndex, (CardSuperMemo2) card, clockService.today());
+                if (algorithm.finishesRevision(REGULAR_STRATEGY_INDEX, pressedButtonIndex)) {
+                    deckStatisticsService.cardRevised(statisticsId, REGULAR_STRATEGY_INDEX);
+                }
+                card.setNewCard(false);
+                cardService.saveCard(card);
+                revisionsCount++;
+            }
+
+            // Assert
+            assertEquals(today, clockService.today());
+            assertEquals(NEW_CARDS_PER_DAY, newCardsCount, "New cards on day " + today);
+            assertEquals(0, deckService.getRegularRevisionCardsCount(deck), "Cards left to revise on day " + today);
+            assertEquals(0, deckStatisticsService.getNewCardsForToday(statisticsId), "New cards left on day " + today);
+            assertEquals(NEW_CARDS_PER_DAY, deckStatisticsService.getReviseForTheFirstTimeCounts(statisticsId)[0]);
+            assertEquals(dueCardsCount + newCardsCount, deckStatisticsService.getRevisionCounts(statisticsId, REGULAR_STRATEGY_INDEX)[0]);
+        }
+
+        LocalDate lastDay = START_DATE.plusDays(DAYS - 1);
+        List<CardBase> cards = deckService.getAllCards(deckService.findById(deckId).orElseThrow());
+        assertEquals(DAYS * NEW_CARDS_PER_DAY, cards.size());
+        for (CardBase card : cards) {
+            assertFalse(card.isNewCard());
+            assertFalse(card.getCreationTime().toLocalDate().isBefore(START_DATE));
+            assertFalse(card.getCreationTime().toLocalDate().isAfter(lastDay));
+            assertTrue(card.getNextRegularRevisionDate().isAfter(lastDay));
+        }
+        List<CardBaseRevision> revisions = cardBaseRevisionRepository.findAll();
+        assertEquals(revisionsCount, revisions.size());
+        for (CardBaseRevision revision : revisions) {
+            assertFalse(revision.getRevisionDate().isBefore(START_DATE));
+            assertFalse(revision.getRevisionDate().isAfter(lastDay));
+        }
+    }
+}
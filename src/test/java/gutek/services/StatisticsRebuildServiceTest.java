@@ -0,0 +1,277 @@
+package gutek.services;
+
+import gutek.domain.analytics.StatisticsConsistencyReport;
+import gutek.domain.analytics.StatisticsDifference;
+import gutek.domain.jobs.BackgroundJob;
+import gutek.domain.revisions.RevisionLogEntry;
+import gutek.domain.time.SimulatedClock;
+import gutek.entities.algorithms.ConstantCoefficientRevisionAlgorithm;
+import gutek.entities.algorithms.FsrsRevisionAlgorithm;
+import gutek.entities.algorithms.SuperMemo2RevisionAlgorithm;
+import gutek.entities.decks.DeckBase;
+import gutek.entities.decks.DeckBaseStatistics;
+import gutek.entities.decks.RevisionCounts;
+import gutek.repositories.CardBaseRevisionRepository;
+import gutek.repositories.DeckBaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static gutek.services.ChartService.MAX_RANGE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StatisticsRebuildServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private static final String REGULAR = "RegularTextModeRevisionStrategy";
+
+    private static final String REVERSE = "ReverseTextModeRevisionStrategy";
+
+    @Mock
+    private CardBaseRevisionRepository cardBaseRevisionRepository;
+
+    @Mock
+    private DeckBaseRepository deckBaseRepository;
+
+    @Mock
+    private DeckStatisticsService deckStatisticsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService backgroundExecutor;
+
+    private StatisticsRebuildService statisticsRebuildService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        backgroundExecutor = Executors.newFixedThreadPool(2);
+        statisticsRebuildService = new StatisticsRebuildService(cardBaseRevisionRepository, deckBaseRepository, deckStatisticsService,
+                new ClockService(SimulatedClock.startingAt(TODAY, ZoneOffset.UTC)), transactionManager, backgroundExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backgroundExecutor.shutdownNow();
+    }
+
+    @Test
+    void testRebuildDeck_ReportsNothing_WhenStatisticsMatchLog() {
+        // Arrange
+        DeckBase deck = deck(1L, new int[]{1, 1}, new int[]{2}, new int[]{0, 1});
+        AtomicBoolean closed = new AtomicBoolean();
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(1L)).thenReturn(Stream.of(
+                new RevisionLogEntry(1L, TODAY.minusDays(1), 3, REVERSE),
+                new RevisionLogEntry(1L, TODAY, 3, REGULAR),
+                new RevisionLogEntry(2L, TODAY, 3, REGULAR)).onClose(() -> closed.set(true)));
+
+        // Act
+        StatisticsConsistencyReport report = statisticsRebuildService.rebuildDeck(deck, true);
+
+        // Assert
+        assertTrue(report.isConsistent());
+        assertEquals(3, report.getRevisionsCount());
+        assertTrue(closed.get());
+        verify(deckStatisticsService, never()).replaceCounts(any(), any(), any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRebuildDeck_ReportsAndRepairsLostIncrements() {
+        // Arrange
+        DeckBase deck = deck(1L, new int[]{0}, new int[]{1}, null);
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(1L)).thenReturn(Stream.of(
+                new RevisionLogEntry(1L, TODAY.minusDays(1), 3, REVERSE),
+                new RevisionLogEntry(1L, TODAY, 3, REGULAR)));
+
+        // Act
+        StatisticsConsistencyReport report = statisticsRebuildService.rebuildDeck(deck, true);
+
+        // Assert
+        assertEquals(List.of(
+                new StatisticsDifference(1L, null, 1, 0, 1),
+                new StatisticsDifference(1L, 1, 1, 0, 1)), report.getDifferences());
+        assertEquals(1, report.getRepairedDecksCount());
+        ArgumentCaptor<int[]> firstTime = ArgumentCaptor.forClass(int[].class);
+        ArgumentCaptor<Map<Integer, int[]>> revisionCounts = ArgumentCaptor.forClass(Map.class);
+        verify(deckStatisticsService).replaceCounts(eq(10L), firstTime.capture(), revisionCounts.capture());
+        assertEquals(1, firstTime.getValue()[1]);
+        assertEquals(1, revisionCounts.getValue().get(0)[0]);
+        assertEquals(1, revisionCounts.getValue().get(1)[1]);
+    }
+
+    @Test
+    void testRebuildDeck_CountsOnlyFinishedRevisions_WhenDeckUsesConstantCoefficient() {
+        // Arrange
+        DeckBase deck = deck(1L, new int[]{2}, new int[]{1}, new int[]{1});
+        deck.setRevisionAlgorithm(new ConstantCoefficientRevisionAlgorithm());
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(1L)).thenReturn(Stream.of(
+                new RevisionLogEntry(1L, TODAY, 0, REGULAR),
+                new RevisionLogEntry(1L, TODAY, 0, REGULAR),
+                new RevisionLogEntry(1L, TODAY, 2, REGULAR),
+                new RevisionLogEntry(2L, TODAY, 0, REVERSE),
+                new RevisionLogEntry(2L, TODAY, 1, REVERSE)));
+
+        // Act
+        StatisticsConsistencyReport report = statisticsRebuildService.rebuildDeck(deck, true);
+
+        // Assert
+        assertTrue(report.isConsistent());
+        assertEquals(5, report.getRevisionsCount());
+        verify(deckStatisticsService, never()).replaceCounts(any(), any(), any());
+    }
+
+    @Test
+    void testRebuildDeck_CountsOnlyFinishedRevisions_WhenDeckUsesFsrs() {
+        // Arrange
+        DeckBase deck = deck(1L, new int[]{1}, new int[]{1}, null);
+        deck.setRevisionAlgorithm(new FsrsRevisionAlgorithm());
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(1L)).thenReturn(Stream.of(
+                new RevisionLogEntry(1L, TODAY, 0, REGULAR),
+                new RevisionLogEntry(1L, TODAY, 2, REGULAR)));
+
+        // Act
+        StatisticsConsistencyReport report = statisticsRebuildService.rebuildDeck(deck, true);
+
+        // Assert
+        assertTrue(report.isConsistent());
+        verify(deckStatisticsService, never()).replaceCounts(any(), any(), any());
+    }
+
+    @Test
+    void testRebuildDeck_DoesNotRepair_WhenOnlyChecking() {
+        // Arrange
+        DeckBase deck = deck(1L, new int[]{0}, null, null);
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(1L)).thenReturn(Stream.of(
+                new RevisionLogEntry(1L, TODAY, 3, REGULAR)));
+
+        // Act
+        StatisticsConsistencyReport report = statisticsRebuildService.rebuildDeck(deck, false);
+
+        // Assert
+        assertEquals(2, report.getDifferences().size());
+        assertEquals(0, report.getRepairedDecksCount());
+        verify(deckStatisticsService, never()).replaceCounts(any(), any(), any());
+    }
+
+    @Test
+    void testRebuild_MergesReportsOfAllDecks() throws Exception {
+        // Arrange
+        DeckBase first = deck(1L, new int[]{1}, new int[]{1}, null);
+        DeckBase second = deck(2L, new int[]{0}, new int[]{0}, null);
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(1L)).thenReturn(Stream.of(new RevisionLogEntry(1L, TODAY, 3, REGULAR)));
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(2L)).thenReturn(Stream.of(new RevisionLogEntry(2L, TODAY, 3, REGULAR)));
+
+        // Act
+        BackgroundJob<StatisticsConsistencyReport> job = statisticsRebuildService.rebuild(List.of(first, second), false, null);
+        StatisticsConsistencyReport report = job.getResult().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, report.getDecksCount());
+        assertEquals(2, job.getProcessedCount());
+        assertTrue(report.getDifferences(1L).isEmpty());
+        assertEquals(2, report.getDifferences(2L).size());
+    }
+
+    @Test
+    void testRebuild_ChecksAtMostOneDeckPerProcessorAtOnce() throws Exception {
+        // Arrange
+        ExecutorService cachedExecutor = Executors.newCachedThreadPool();
+        statisticsRebuildService = new StatisticsRebuildService(cardBaseRevisionRepository, deckBaseRepository, deckStatisticsService,
+                new ClockService(SimulatedClock.startingAt(TODAY, ZoneOffset.UTC)), transactionManager, cachedExecutor);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(cardBaseRevisionRepository.streamRevisionLogByDeckId(any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return Stream.<RevisionLogEntry>empty();
+        });
+        List<DeckBase> decks = LongStream.rangeClosed(1, StatisticsRebuildService.PARALLELISM * 4L)
+                .mapToObj(deckId -> deck(deckId, new int[0], null, null))
+                .toList();
+
+        // Act
+        BackgroundJob<StatisticsConsistencyReport> job = statisticsRebuildService.rebuild(decks, false, null);
+        StatisticsConsistencyReport report = job.getResult().get(30, TimeUnit.SECONDS);
+        cachedExecutor.shutdownNow();
+
+        // Assert
+        assertEquals(decks.size(), report.getDecksCount());
+        assertEquals(decks.size(), job.getProcessedCount());
+        assertTrue(maxRunning.get() <= StatisticsRebuildService.PARALLELISM);
+    }
+
+    @Test
+    void testRebuild_SkipsDecks_WhenCancelled() throws Exception {
+        // Arrange
+        ExecutorService blockedExecutor = Executors.newSingleThreadExecutor();
+        statisticsRebuildService = new StatisticsRebuildService(cardBaseRevisionRepository, deckBaseRepository, deckStatisticsService,
+                new ClockService(SimulatedClock.startingAt(TODAY, ZoneOffset.UTC)), transactionManager, blockedExecutor);
+        CountDownLatch latch = new CountDownLatch(1);
+        blockedExecutor.execute(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Act
+        BackgroundJob<StatisticsConsistencyReport> job = statisticsRebuildService.rebuild(List.of(deck(1L, new int[1], null, null)), false, null);
+        job.cancel();
+        latch.countDown();
+        StatisticsConsistencyReport report = job.getResult().get(5, TimeUnit.SECONDS);
+        blockedExecutor.shutdownNow();
+
+        // Assert
+        assertEquals(0, report.getDecksCount());
+        verifyNoInteractions(cardBaseRevisionRepository);
+    }
+
+    private DeckBase deck(Long deckId, int[] firstTime, int[] regularCounts, int[] reverseCounts) {
+        DeckBase deck = new DeckBase();
+        deck.setIdDeck(deckId);
+        deck.setRevisionAlgorithm(new SuperMemo2RevisionAlgorithm());
+        DeckBaseStatistics statistics = new DeckBaseStatistics();
+        Long statisticsId = deckId * 10;
+        statistics.setIdDeckStatistics(statisticsId);
+        statistics.setDeck(deck);
+        statistics.setRevisedForTheFirstTime(Arrays.copyOf(firstTime, MAX_RANGE));
+        if (regularCounts != null) {
+            statistics.getRevisionCounts().put(0, new RevisionCounts(null, 0, Arrays.copyOf(regularCounts, MAX_RANGE), statistics));
+        }
+        if (reverseCounts != null) {
+            statistics.getRevisionCounts().put(1, new RevisionCounts(null, 1, Arrays.copyOf(reverseCounts, MAX_RANGE), statistics));
+        }
+        deck.setDeckBaseStatistics(statistics);
+        when(deckBaseRepository.findById(deckId)).thenReturn(Optional.of(deck));
+        when(deckStatisticsService.getReviseForTheFirstTimeCounts(statisticsId)).thenReturn(statistics.getRevisedForTheFirstTime());
+        when(deckStatisticsService.loadDeckStatistics(statisticsId)).thenReturn(Optional.of(statistics));
+        return deck;
+    }
+}
@@ -0,0 +1,154 @@
+package gutek.services;
+
+import gutek.domain.events.DeckCardsChangedEvent;
+import gutek.domain.tags.CardTagName;
+import gutek.domain.tags.TagFilter;
+import gutek.entities.cards.CardBase;
+import gutek.entities.cards.CardTag;
+import gutek.entities.decks.DeckBase;
+import gutek.repositories.CardBaseRepository;
+import gutek.repositories.CardTagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TagServiceTest {
+
+    private static final Long DECK_ID = 10L;
+
+    @Mock
+    private CardBaseRepository cardBaseRepository;
+
+    @Mock
+    private CardTagRepository cardTagRepository;
+
+    private TagService tagService;
+
+    private DeckBase deck;
+
+    private List<Long> cardIds;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tagService = new TagService(cardBaseRepository, cardTagRepository);
+        deck = new DeckBase();
+        deck.setIdDeck(DECK_ID);
+        cardIds = new ArrayList<>(List.of(1L, 2L, 3L, 4L));
+        when(cardBaseRepository.findIdsByDeckId(DECK_ID)).thenAnswer(invocation -> List.copyOf(cardIds));
+        when(cardTagRepository.findNamesByDeckId(DECK_ID)).thenReturn(List.of(
+                new CardTagName(1L, "verbs"),
+                new CardTagName(2L, "verbs"),
+                new CardTagName(2L, "irregular"),
+                new CardTagName(3L, "nouns")));
+    }
+
+    @Test
+    void testFilterCards_KeepsDueCardsSelectedByFilterInDueOrder() {
+        // Arrange
+        List<CardBase> dueCards = List.of(card(4L), card(2L), card(1L), card(3L));
+
+        // Act
+        List<CardBase> selected = tagService.filterCards(deck, dueCards, TagFilter.parse("verbs or nouns"));
+
+        // Assert
+        assertEquals(List.of(2L, 1L, 3L), selected.stream().map(CardBase::getIdCard).toList());
+    }
+
+    @Test
+    void testFilterCardIds_ReusesIndexOfDeck() {
+        // Act
+        List<Long> regular = tagService.filterCardIds(deck, List.of(1L, 2L), TagFilter.parse("verbs and not irregular"));
+        List<Long> reverse = tagService.filterCardIds(deck, List.of(2L, 3L), TagFilter.parse("not verbs"));
+
+        // Assert
+        assertEquals(List.of(1L), regular);
+        assertEquals(List.of(3L), reverse);
+        verify(cardBaseRepository, times(1)).findIdsByDeckId(DECK_ID);
+        verify(cardTagRepository, times(1)).findNamesByDeckId(DECK_ID);
+    }
+
+    @Test
+    void testFilterCardIds_RebuildsIndexMissingDueCard() {
+        // Arrange
+        tagService.findDeckTags(deck);
+        cardIds.add(5L);
+
+        // Act
+        List<Long> selected = tagService.filterCardIds(deck, List.of(5L, 1L), TagFilter.parse("not nouns"));
+
+        // Assert
+        assertEquals(List.of(5L, 1L), selected);
+        verify(cardBaseRepository, times(2)).findIdsByDeckId(DECK_ID);
+    }
+
+    @Test
+    void testOnDeckCardsChanged_DropsIndexOnlyWhenCardsAreAddedOrRemoved() {
+        // Arrange
+        tagService.findDeckTags(deck);
+
+        // Act
+        tagService.onDeckCardsChanged(new DeckCardsChangedEvent(DECK_ID, DeckCardsChangedEvent.ChangeType.REVISED));
+        tagService.findDeckTags(deck);
+        tagService.onDeckCardsChanged(new DeckCardsChangedEvent(DECK_ID, DeckCardsChangedEvent.ChangeType.REMOVED));
+        List<String> tags = tagService.findDeckTags(deck);
+
+        // Assert
+        assertEquals(List.of("irregular", "nouns", "verbs"), tags);
+        verify(cardTagRepository, times(2)).findNamesByDeckId(DECK_ID);
+    }
+
+    @Test
+    void testSetTags_ReplacesTagsOfCardAndDropsIndex() {
+        // Arrange
+        CardBase card = card(1L);
+        tagService.findDeckTags(deck);
+
+        // Act
+        tagService.setTags(card, Set.of("b1"));
+        tagService.findDeckTags(deck);
+
+        // Assert
+        verify(cardTagRepository).deleteByCardId(1L);
+        verify(cardTagRepository).saveAll(List.of(new CardTag(null, 1L, "b1")));
+        verify(cardTagRepository, times(2)).findNamesByDeckId(DECK_ID);
+    }
+
+    @Test
+    void testGetTags_ReturnsNamesOfCardTags() {
+        // Arrange
+        when(cardTagRepository.findByCardIdOrderByName(2L)).thenReturn(List.of(
+                new CardTag(1L, 2L, "irregular"), new CardTag(2L, 2L, "verbs")));
+
+        // Act
+        Set<String> tags = tagService.getTags(card(2L));
+
+        // Assert
+        assertEquals(List.of("irregular", "verbs"), List.copyOf(tags));
+        assertTrue(tagService.getTags(new CardBase()).isEmpty());
+    }
+
+    @Test
+    void testDeckRemoved_DeletesTagsOfDeck() {
+        // Act
+        tagService.deckRemoved(DECK_ID);
+
+        // Assert
+        verify(cardTagRepository).deleteByDeckId(DECK_ID);
+    }
+
+    private CardBase card(Long cardId) {
+        CardBase card = new CardBase();
+        card.setIdCard(cardId);
+        card.setDeck(deck);
+        return card;
+    }
+}
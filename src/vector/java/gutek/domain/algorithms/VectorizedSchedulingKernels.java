@@ -0,0 +1,127 @@
+package gutek.domain.algorithms;
+
+import gutek.entities.cards.CardConstantCoefficient;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of the batch scheduling kernels based on the incubating Vector API.
+ * <p>
+ * The class is compiled only by the {@code vector} Maven profile and is instantiated reflectively by
+ * {@link SchedulingKernels} after it confirmed that the {@code jdk.incubator.vector} module is present. Integer lanes use a species with half the bit size
+ * of the preferred double species, so both species have the same number of lanes and masks can be
+ * converted between them. Elements which do not fill a complete vector are processed by
+ * {@link ScalarSchedulingKernels}.
+ * </p>
+ */
+final class VectorizedSchedulingKernels implements BatchSchedulingKernels {
+
+    /**
+     * Species used for the floating point fields (easiness factors, revision times).
+     */
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Species used for the integer fields, with the same number of lanes as {@link #DOUBLES}.
+     */
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    /**
+     * Constructs the kernels, checking that the species used by them can process more than one card per instruction.
+     *
+     * @throws UnsupportedOperationException if the vectorized kernels are not worth using on this platform
+     */
+    VectorizedSchedulingKernels() {
+        if (DOUBLES.length() <= 1 || INTS.length() != DOUBLES.length()) {
+            throw new UnsupportedOperationException("Vector species process a single card per instruction");
+        }
+    }
+
+    /**
+     * Vectorized SuperMemo2 revision step.
+     *
+     * @see SchedulingKernels#superMemo2(int[], int[], int[], double[], int[], int[], int, double, int)
+     */
+    @Override
+    public void superMemo2(int[] grades, int[] repetitions, int[] intervals, double[] easinessFactors,
+                           int[] incorrectCounters, int[] dueInDays, int length,
+                           double initialEasinessFactor, int incorrectAnswerThreshold) {
+        int i = 0;
+        int upperBound = INTS.loopBound(length);
+        for (; i < upperBound; i += INTS.length()) {
+            IntVector grade = IntVector.fromArray(INTS, grades, i);
+            IntVector repetition = IntVector.fromArray(INTS, repetitions, i);
+            IntVector interval = IntVector.fromArray(INTS, intervals, i);
+            IntVector incorrectCounter = IntVector.fromArray(INTS, incorrectCounters, i);
+            DoubleVector easinessFactor = DoubleVector.fromArray(DOUBLES, easinessFactors, i);
+
+            VectorMask<Integer> passed = grade.compare(VectorOperators.GE, 3);
+            VectorMask<Integer> failed = passed.not();
+
+            IntVector passedRepetition = repetition.add(1, passed);
+            DoubleVector previousInterval = (DoubleVector) interval.convertShape(VectorOperators.I2D, DOUBLES, 0);
+            IntVector grownInterval = ((IntVector) previousInterval.mul(easinessFactor).add(0.5)
+                    .convertShape(VectorOperators.D2I, INTS, 0)).max(1);
+            IntVector passedInterval = grownInterval
+                    .blend(6, passedRepetition.eq(2))
+                    .blend(1, passedRepetition.eq(1));
+
+            DoubleVector q = (DoubleVector) IntVector.broadcast(INTS, 5).sub(grade).convertShape(VectorOperators.I2D, DOUBLES, 0);
+            DoubleVector passedEasinessFactor = easinessFactor
+                    .add(q.mul(0.02).add(0.08).mul(q).neg().add(0.1))
+                    .max(1.3);
+
+            IntVector failedIncorrectCounter = incorrectCounter.add(1, failed);
+            VectorMask<Integer> reset = failed.and(failedIncorrectCounter.compare(VectorOperators.GE, incorrectAnswerThreshold));
+
+            passedRepetition.blend(0, reset).intoArray(repetitions, i);
+            interval.blend(passedInterval, passed).blend(1, reset).intoArray(intervals, i);
+            failedIncorrectCounter.blend(0, reset).intoArray(incorrectCounters, i);
+            easinessFactor.blend(passedEasinessFactor, passed.cast(DOUBLES))
+                    .blend(initialEasinessFactor, reset.cast(DOUBLES))
+                    .intoArray(easinessFactors, i);
+            IntVector.broadcast(INTS, 1).blend(passedInterval, passed).intoArray(dueInDays, i);
+        }
+        ScalarSchedulingKernels.superMemo2(grades, repetitions, intervals, easinessFactors, incorrectCounters,
+                dueInDays, i, length, initialEasinessFactor, incorrectAnswerThreshold);
+    }
+
+    /**
+     * Vectorized Constant Coefficient revision step.
+     *
+     * @see SchedulingKernels#constantCoefficient(int[], double[], int[], int[], int, double[], int)
+     */
+    @Override
+    public void constantCoefficient(int[] pressedButtonIndexes, double[] baseRevisionTimes, int[] incorrectCounters,
+                                    int[] dueInDays, int length, double[] coefficients, int incorrectAnswerThreshold) {
+        int i = 0;
+        int upperBound = INTS.loopBound(length);
+        for (; i < upperBound; i += INTS.length()) {
+            IntVector buttonIndex = IntVector.fromArray(INTS, pressedButtonIndexes, i);
+            IntVector incorrectCounter = IntVector.fromArray(INTS, incorrectCounters, i);
+            DoubleVector baseRevisionTime = DoubleVector.fromArray(DOUBLES, baseRevisionTimes, i);
+
+            DoubleVector coefficient = DoubleVector.broadcast(DOUBLES, coefficients[0]);
+            for (int k = 1; k < coefficients.length; k++) {
+                coefficient = coefficient.blend(coefficients[k], buttonIndex.eq(k).cast(DOUBLES));
+            }
+            DoubleVector newBaseRevisionTime = baseRevisionTime.mul(coefficient).max(CardConstantCoefficient.MIN_BASE_REVISION_TIME);
+
+            VectorMask<Integer> repeat = buttonIndex.eq(0);
+            IntVector newIncorrectCounter = incorrectCounter.add(1, repeat);
+            VectorMask<Integer> reset = repeat.and(newIncorrectCounter.compare(VectorOperators.GE, incorrectAnswerThreshold));
+
+            IntVector due = ((IntVector) newBaseRevisionTime.max(1.0).convertShape(VectorOperators.D2I, INTS, 0)).blend(0, repeat);
+
+            newBaseRevisionTime.blend(1.0, reset.cast(DOUBLES)).intoArray(baseRevisionTimes, i);
+            newIncorrectCounter.blend(0, reset).intoArray(incorrectCounters, i);
+            due.intoArray(dueInDays, i);
+        }
+        ScalarSchedulingKernels.constantCoefficient(pressedButtonIndexes, baseRevisionTimes, incorrectCounters,
+                dueInDays, i, length, coefficients, incorrectAnswerThreshold);
+    }
+}